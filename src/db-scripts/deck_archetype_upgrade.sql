@@ -0,0 +1,6 @@
+-- -----------------------------------------------------
+-- Adds the archetype label stored with each deck to an existing database. Afterwards, run DeckArchetypeConsole to
+-- store the archetype labels of the existing decks (decks without one are also classified when loaded). Until the
+-- column is added, the server stores the decks without archetype labels.
+-- -----------------------------------------------------
+ALTER TABLE `gemp-swccg`.`deck` ADD COLUMN `archetype` VARCHAR(255) CHARACTER SET 'utf8' COLLATE 'utf8_bin' NULL DEFAULT NULL AFTER `contents`;
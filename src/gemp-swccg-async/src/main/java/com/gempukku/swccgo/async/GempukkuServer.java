@@ -3,6 +3,7 @@ package com.gempukku.swccgo.async;
 import com.gempukku.swccgo.builder.DaoBuilder;
 import com.gempukku.swccgo.builder.PackagedProductStorageBuilder;
 import com.gempukku.swccgo.builder.ServerBuilder;
+import com.gempukku.swccgo.builder.StartupTimer;
 import org.apache.logging.log4j.LogManager;
 
 import java.lang.reflect.Type;
@@ -19,17 +20,20 @@ public class GempukkuServer {
 
         //Libraries and other important prereq managers that are used by lots of other managers
         logger.info("GempukkuServer loading prerequisites...");
-        ServerBuilder.CreatePrerequisites(objects);
+        StartupTimer startupTimer = new StartupTimer();
+        objects.put(StartupTimer.class, startupTimer);
+        startupTimer.time("Prerequisites", () -> ServerBuilder.CreatePrerequisites(objects));
         //Now bulk initialize various managers
         logger.info("GempukkuServer loading DAOs...");
-        DaoBuilder.CreateDatabaseAccessObjects(objects);
+        startupTimer.time("DAOs", () -> DaoBuilder.CreateDatabaseAccessObjects(objects));
         logger.info("GempukkuServer loading card products...");
-        PackagedProductStorageBuilder.CreateProducts(objects);
+        startupTimer.time("Card products", () -> PackagedProductStorageBuilder.CreateProducts(objects));
         logger.info("GempukkuServer loading services...");
-        ServerBuilder.CreateServices(objects);
+        startupTimer.time("Services", () -> ServerBuilder.CreateServices(objects));
         logger.info("GempukkuServer starting servers...");
-        ServerBuilder.StartServers(objects);
+        startupTimer.time("Starting servers", () -> ServerBuilder.StartServers(objects));
         logger.info("GempukkuServer startup complete.");
+        startupTimer.logReport();
 
         context = objects;
     }
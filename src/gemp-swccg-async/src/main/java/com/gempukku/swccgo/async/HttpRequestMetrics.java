@@ -0,0 +1,188 @@
+package com.gempukku.swccgo.async;
+
+import com.gempukku.util.ConcurrentHistogram;
+import com.gempukku.util.PrometheusSummary;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the latency, response size and status metrics of the HTTP requests, per URI prefix (the first two segments
+ * of the URI, like /gemp-swccg-server/hall). For long-polled requests the time spent waiting for something to
+ * happen is kept apart from the time spent processing the request.
+ *
+ * The metrics can be written in the Prometheus text format, and can be written periodically to a file per day.
+ */
+public class HttpRequestMetrics {
+    private static final Logger LOG = LogManager.getLogger(HttpRequestMetrics.class);
+    // Any URI prefixes beyond this many are counted together, so requests for made up URIs cannot use up memory
+    private static final int MAX_URI_PREFIXES = 100;
+    private static final String OTHER_URI_PREFIX = "other";
+    private static final String FILE_PREFIX = "http-metrics-";
+
+    private final Map<String, UriPrefixMetrics> _uriPrefixMetrics = new ConcurrentHashMap<>();
+    private final Map<String, Long> _countsWrittenToFile = new ConcurrentHashMap<>();
+    private ScheduledExecutorService _fileWriterExecutor;
+
+    /**
+     * Gets the URI prefix a request is counted under.
+     * @param uri the request URI, without the query string
+     * @return the URI prefix
+     */
+    public static String getUriPrefix(String uri) {
+        int first = uri.indexOf('/', 1);
+        if (first < 0)
+            return uri;
+        int second = uri.indexOf('/', first + 1);
+        return second < 0 ? uri : uri.substring(0, second);
+    }
+
+    /**
+     * Records a response sent.
+     * @param uriPrefix the URI prefix of the request
+     * @param status the HTTP status of the response
+     * @param processingNanos the time spent processing the request, in nanoseconds
+     * @param longPolled true if the request was long-polled
+     * @param longPollWaitNanos the time the long-polled request waited for something to happen, in nanoseconds
+     * @param responseBytes the size of the response content, in bytes
+     */
+    public void recordResponse(String uriPrefix, int status, long processingNanos, boolean longPolled, long longPollWaitNanos, long responseBytes) {
+        UriPrefixMetrics metrics = _uriPrefixMetrics.get(uriPrefix);
+        if (metrics == null) {
+            if (_uriPrefixMetrics.size() >= MAX_URI_PREFIXES)
+                uriPrefix = OTHER_URI_PREFIX;
+            metrics = _uriPrefixMetrics.computeIfAbsent(uriPrefix, prefix -> new UriPrefixMetrics());
+        }
+        metrics._statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+        metrics._processingNanos.record(processingNanos);
+        if (longPolled)
+            metrics._longPollWaitNanos.record(longPollWaitNanos);
+        metrics._responseBytes.record(responseBytes);
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format.
+     * @param writer the writer
+     * @throws IOException if writing fails
+     */
+    public void writePrometheusText(Writer writer) throws IOException {
+        Map<String, UriPrefixMetrics> metrics = new TreeMap<>(_uriPrefixMetrics);
+
+        writer.write("# HELP gemp_http_responses_total HTTP responses sent, by URI prefix and status.\n");
+        writer.write("# TYPE gemp_http_responses_total counter\n");
+        for (Map.Entry<String, UriPrefixMetrics> entry : metrics.entrySet()) {
+            for (Map.Entry<Integer, LongAdder> statusCount : new TreeMap<>(entry.getValue()._statusCounts).entrySet()) {
+                writer.write("gemp_http_responses_total{prefix=\"" + PrometheusSummary.escapeLabel(entry.getKey()) + "\",status=\"" + statusCount.getKey() + "\"} "
+                        + statusCount.getValue().sum() + "\n");
+            }
+        }
+
+        writeSummary(writer, metrics, "gemp_http_request_processing_seconds",
+                "Time spent processing HTTP requests, not counting long-poll waits.", PrometheusSummary.NANOS_PER_SECOND, m -> m._processingNanos);
+        writeSummary(writer, metrics, "gemp_http_long_poll_wait_seconds",
+                "Time long-polled HTTP requests waited for something to happen.", PrometheusSummary.NANOS_PER_SECOND, m -> m._longPollWaitNanos);
+        writeSummary(writer, metrics, "gemp_http_response_size_bytes",
+                "Size of the HTTP response content, before compression.", 1, m -> m._responseBytes);
+    }
+
+    /**
+     * Starts writing a line per URI prefix with new requests to a file every interval. A file is written per day, and
+     * the files older than the number of days kept are deleted.
+     * @param folder the folder to write the files to
+     * @param intervalSeconds the interval, in seconds
+     * @param daysKept the number of days of files to keep
+     */
+    public void startFileWriter(File folder, long intervalSeconds, int daysKept) {
+        _fileWriterExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-metrics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        _fileWriterExecutor.scheduleAtFixedRate(() -> {
+            try {
+                writeToFile(folder, daysKept);
+            } catch (Exception exp) {
+                LOG.error("Unable to write the HTTP request metrics", exp);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void stopFileWriter() {
+        if (_fileWriterExecutor != null)
+            _fileWriterExecutor.shutdownNow();
+    }
+
+    private void writeToFile(File folder, int daysKept) throws IOException {
+        folder.mkdirs();
+        Date now = new Date();
+        String day = new SimpleDateFormat("yyyy-MM-dd").format(now);
+        String time = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(now);
+
+        try (Writer writer = new FileWriter(new File(folder, FILE_PREFIX + day + ".log"), true)) {
+            for (Map.Entry<String, UriPrefixMetrics> entry : new TreeMap<>(_uriPrefixMetrics).entrySet()) {
+                UriPrefixMetrics metrics = entry.getValue();
+                long count = metrics._processingNanos.getTotalCount();
+                Long countWritten = _countsWrittenToFile.put(entry.getKey(), count);
+                if (countWritten != null && countWritten == count)
+                    continue;
+
+                long[] processingNanos = metrics._processingNanos.getValuesAtPercentiles(50, 99);
+                long[] waitNanos = metrics._longPollWaitNanos.getValuesAtPercentiles(50, 99);
+                long errors = 0;
+                for (Map.Entry<Integer, LongAdder> statusCount : metrics._statusCounts.entrySet()) {
+                    if (statusCount.getKey() >= 500)
+                        errors += statusCount.getValue().sum();
+                }
+                writer.write(String.format(Locale.ROOT, "%s %s count=%d errors=%d processing_p50_ms=%.2f processing_p99_ms=%.2f processing_max_ms=%.2f wait_p50_ms=%.2f wait_p99_ms=%.2f size_mean_bytes=%.0f%n",
+                        time, entry.getKey(), count, errors, processingNanos[0] / 1e6, processingNanos[1] / 1e6,
+                        metrics._processingNanos.getMaxValue() / 1e6, waitNanos[0] / 1e6, waitNanos[1] / 1e6,
+                        metrics._responseBytes.getMean()));
+            }
+        }
+
+        // Roll over, keeping only the last days
+        String oldestKept = FILE_PREFIX + new SimpleDateFormat("yyyy-MM-dd").format(new Date(now.getTime() - TimeUnit.DAYS.toMillis(daysKept - 1)));
+        File[] files = folder.listFiles((dir, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(".log"));
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().compareTo(oldestKept) < 0 && !file.delete())
+                    LOG.warn("Unable to delete old HTTP request metrics file " + file);
+            }
+        }
+    }
+
+    private static void writeSummary(Writer writer, Map<String, UriPrefixMetrics> metrics, String name, String help,
+                                     double unitsPerBaseUnit, HistogramGetter histogramGetter) throws IOException {
+        PrometheusSummary.writeHeader(writer, name, help);
+        for (Map.Entry<String, UriPrefixMetrics> entry : metrics.entrySet()) {
+            ConcurrentHistogram histogram = histogramGetter.getHistogram(entry.getValue());
+            if (histogram.getTotalCount() > 0)
+                PrometheusSummary.writeValues(writer, name, "prefix=\"" + PrometheusSummary.escapeLabel(entry.getKey()) + "\"", histogram, unitsPerBaseUnit);
+        }
+    }
+
+    private interface HistogramGetter {
+        ConcurrentHistogram getHistogram(UriPrefixMetrics metrics);
+    }
+
+    private static class UriPrefixMetrics {
+        private final Map<Integer, LongAdder> _statusCounts = new ConcurrentHashMap<>();
+        private final ConcurrentHistogram _processingNanos = new ConcurrentHistogram();
+        private final ConcurrentHistogram _longPollWaitNanos = new ConcurrentHistogram();
+        private final ConcurrentHistogram _responseBytes = new ConcurrentHistogram();
+    }
+}
@@ -20,4 +20,9 @@ public interface ResponseWriter {
     void writeXmlResponse(Document document);
 
     void writeXmlResponse(Document document, Map<? extends CharSequence, String> addHeaders);
+
+    /**
+     * Marks the end of the wait of a long-polled request, so the wait is not counted as processing time.
+     */
+    void longPollWaitFinished();
 }
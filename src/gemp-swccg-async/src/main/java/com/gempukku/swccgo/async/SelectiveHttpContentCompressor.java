@@ -0,0 +1,48 @@
+package com.gempukku.swccgo.async;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+/**
+ * Compresses the responses like HttpContentCompressor, except the responses created as {@link SentAsIs}, like the
+ * static files that are already compressed or not worth compressing. Those are sent as they are, so they do not need
+ * a Content-Encoding header to keep the compressor away from them.
+ */
+public class SelectiveHttpContentCompressor extends HttpContentCompressor {
+    @Override
+    protected Result beginEncode(HttpResponse httpResponse, String acceptEncoding) throws Exception {
+        if (httpResponse instanceof SentAsIs)
+            return null;
+        return super.beginEncode(httpResponse, acceptEncoding);
+    }
+
+    /**
+     * A response that is never compressed by the compressor.
+     */
+    public interface SentAsIs {
+    }
+
+    /**
+     * A full response that is never compressed by the compressor.
+     */
+    public static class FullResponseSentAsIs extends DefaultFullHttpResponse implements SentAsIs {
+        public FullResponseSentAsIs(HttpVersion version, HttpResponseStatus status, ByteBuf content, HttpHeaders headers, HttpHeaders trailingHeaders) {
+            super(version, status, content, headers, trailingHeaders);
+        }
+    }
+
+    /**
+     * The start of a response, with the content written after it, that is never compressed by the compressor.
+     */
+    public static class ResponseSentAsIs extends DefaultHttpResponse implements SentAsIs {
+        public ResponseSentAsIs(HttpVersion version, HttpResponseStatus status, HttpHeaders headers) {
+            super(version, status, headers);
+        }
+    }
+}
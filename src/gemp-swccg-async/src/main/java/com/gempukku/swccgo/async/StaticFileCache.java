@@ -0,0 +1,218 @@
+package com.gempukku.swccgo.async;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A bounded cache of static web files, shared by all connections.
+ *
+ * The cache is limited by the total number of bytes held (raw plus compressed variants) rather than by the
+ * number of entries, and evicts the least recently used files first. Text files are gzipped once when they are
+ * loaded, so the compressed variant can be sent as-is instead of going through the HttpContentCompressor on
+ * every request. Files larger than the per-file limit are never cached, so they can be sent with a zero-copy
+ * file region instead.
+ */
+public class StaticFileCache {
+    private final long _maxTotalBytes;
+    private final long _maxFileBytes;
+    private final Map<String, CachedFile> _cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+    private long _totalBytes;
+
+    /**
+     * Creates a static file cache.
+     * @param maxTotalBytes the maximum number of bytes held by the cache
+     * @param maxFileBytes the maximum size of a single file that will be cached
+     */
+    public StaticFileCache(long maxTotalBytes, long maxFileBytes) {
+        _maxTotalBytes = maxTotalBytes;
+        _maxFileBytes = Math.min(maxFileBytes, maxTotalBytes);
+    }
+
+    /**
+     * Gets the ETag for the current version of the file, without loading its contents.
+     * @param file the file
+     * @return the ETag, including the surrounding quotes
+     */
+    public static String getETag(File file) {
+        return "\"" + Long.toHexString(file.lastModified()) + "-" + Long.toHexString(file.length()) + "\"";
+    }
+
+    /**
+     * Gets the ETag of the gzip compressed variant of the file, which differs from the ETag of the file itself since
+     * the bytes sent are not the same.
+     * @param etag the ETag of the file
+     * @return the ETag of the compressed variant, including the surrounding quotes
+     */
+    public static String getGzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * Determines if a client accepts a gzip compressed response, from the q-values of its Accept-Encoding header: gzip
+     * is accepted if it is listed with a q-value above 0, or if it is not listed and * is.
+     * @param acceptEncoding the Accept-Encoding header, or null
+     * @return true or false
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null)
+            return false;
+
+        Float gzipQuality = null;
+        Float anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            float quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Float.parseFloat(parameter.substring(2).trim());
+                    } catch (NumberFormatException exp) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip"))
+                gzipQuality = quality;
+            else if (name.equals("*"))
+                anyQuality = quality;
+        }
+        if (gzipQuality != null)
+            return gzipQuality > 0;
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    /**
+     * Gets the cached contents of the file, loading (and compressing) it if it is not cached or has changed on disk
+     * since it was cached.
+     * @param file the file
+     * @return the cached file, or null if the file is too large to be cached
+     * @throws IOException if the file cannot be read
+     */
+    public CachedFile getFile(File file) throws IOException {
+        String canonicalPath = file.getCanonicalPath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        synchronized (_cachedFiles) {
+            CachedFile cachedFile = _cachedFiles.get(canonicalPath);
+            if (cachedFile != null && cachedFile.getLastModified() == lastModified && cachedFile.getBytes().length == length)
+                return cachedFile;
+        }
+
+        if (length > _maxFileBytes)
+            return null;
+
+        // Read and compress outside of the lock, so a cache miss does not stall other requests
+        byte[] bytes = FileUtils.readFileToByteArray(file);
+        byte[] gzipBytes = isCompressible(file.getName()) ? gzip(bytes) : null;
+        CachedFile cachedFile = new CachedFile(bytes, gzipBytes, lastModified, getETag(file));
+
+        synchronized (_cachedFiles) {
+            CachedFile previous = _cachedFiles.put(canonicalPath, cachedFile);
+            if (previous != null)
+                _totalBytes -= previous.getWeight();
+            _totalBytes += cachedFile.getWeight();
+
+            Iterator<CachedFile> iterator = _cachedFiles.values().iterator();
+            while (_totalBytes > _maxTotalBytes && iterator.hasNext()) {
+                CachedFile eldest = iterator.next();
+                if (eldest != cachedFile) {
+                    _totalBytes -= eldest.getWeight();
+                    iterator.remove();
+                }
+            }
+        }
+        return cachedFile;
+    }
+
+    /**
+     * Gets the number of bytes currently held by the cache.
+     * @return the number of bytes
+     */
+    public long getTotalBytes() {
+        synchronized (_cachedFiles) {
+            return _totalBytes;
+        }
+    }
+
+    /**
+     * Gets the number of files currently held by the cache.
+     * @return the number of files
+     */
+    public int getFileCount() {
+        synchronized (_cachedFiles) {
+            return _cachedFiles.size();
+        }
+    }
+
+    private static boolean isCompressible(String fileName) {
+        return fileName.endsWith(".html") || fileName.endsWith(".js") || fileName.endsWith(".css")
+                || fileName.endsWith(".json") || fileName.endsWith(".xml") || fileName.endsWith(".svg")
+                || fileName.endsWith(".txt") || fileName.endsWith(".wasm");
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 3 + 64);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(baos)) {
+            gzipOutputStream.write(bytes);
+        }
+        byte[] compressed = baos.toByteArray();
+        // No point keeping a compressed variant that is not smaller than the original
+        return compressed.length < bytes.length ? compressed : null;
+    }
+
+    /**
+     * An immutable cached version of a file.
+     */
+    public static class CachedFile {
+        private final byte[] _bytes;
+        private final byte[] _gzipBytes;
+        private final long _lastModified;
+        private final String _etag;
+
+        private CachedFile(byte[] bytes, byte[] gzipBytes, long lastModified, String etag) {
+            _bytes = bytes;
+            _gzipBytes = gzipBytes;
+            _lastModified = lastModified;
+            _etag = etag;
+        }
+
+        public byte[] getBytes() {
+            return _bytes;
+        }
+
+        /**
+         * Gets the gzip compressed contents of the file.
+         * @return the compressed contents, or null if the file is not worth compressing
+         */
+        public byte[] getGzipBytes() {
+            return _gzipBytes;
+        }
+
+        public long getLastModified() {
+            return _lastModified;
+        }
+
+        public String getETag() {
+            return _etag;
+        }
+
+        public String getGzipETag() {
+            return StaticFileCache.getGzipETag(_etag);
+        }
+
+        private long getWeight() {
+            return _bytes.length + (_gzipBytes != null ? _gzipBytes.length : 0);
+        }
+    }
+}
@@ -8,12 +8,13 @@ import io.netty.channel.*;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 
+import java.io.File;
+
 /**
  * This is the "main" method of the GEMP-SWCCG application.
  * It will be built into web.jar by a maven build.
@@ -38,7 +39,17 @@ public class SwccgoAsyncServer {
             LongPollingSystem longPollingSystem = new LongPollingSystem();
             longPollingSystem.start();
 
+            HttpRequestMetrics httpRequestMetrics = new HttpRequestMetrics();
+            gempukkuServer.getContext().put(HttpRequestMetrics.class, httpRequestMetrics);
+            long metricsFileIntervalSeconds = getLongProperty("http.metrics.fileIntervalSeconds", 60);
+            if (metricsFileIntervalSeconds > 0)
+                httpRequestMetrics.startFileWriter(new File(ApplicationConfiguration.getProperty("application.root"), "metrics"),
+                        metricsFileIntervalSeconds, (int) getLongProperty("http.metrics.fileDaysKept", 7));
+
             RootUriRequestHandler uriRequestHandler = new RootUriRequestHandler(gempukkuServer.getContext(), longPollingSystem);
+            StaticFileCache fileCache = new StaticFileCache(
+                    getLongProperty("web.cache.maxBytes", 64L * 1024 * 1024),
+                    getLongProperty("web.cache.maxFileBytes", 1024L * 1024));
 
             ServerBootstrap b = new ServerBootstrap();
             b.group(bossGroup, workerGroup)
@@ -50,9 +61,9 @@ public class SwccgoAsyncServer {
                             ChannelPipeline pipeline = ch.pipeline();
                             pipeline.addLast(new HttpServerCodec());
                             pipeline.addLast(new HttpObjectAggregator(Short.MAX_VALUE));
-                            pipeline.addLast(new HttpContentCompressor());
+                            pipeline.addLast(new SelectiveHttpContentCompressor());
                             pipeline.addLast(new SwccgoHttpRequestHandler(gempukkuServer.getContext(),
-                                    uriRequestHandler));
+                                    uriRequestHandler, fileCache));
                         }
                     })
                     .childOption(ChannelOption.SO_KEEPALIVE, true)
@@ -61,8 +72,16 @@ public class SwccgoAsyncServer {
             ChannelFuture bind = b.bind(httpPort);
             bind.sync().channel().closeFuture().sync();
         } finally {
+            HttpRequestMetrics httpRequestMetrics = (HttpRequestMetrics) gempukkuServer.getContext().get(HttpRequestMetrics.class);
+            if (httpRequestMetrics != null)
+                httpRequestMetrics.stopFileWriter();
             workerGroup.shutdownGracefully();
             bossGroup.shutdownGracefully();
         }
     }
+
+    private static long getLongProperty(String property, long defaultValue) {
+        String value = ApplicationConfiguration.getProperty(property);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
 }
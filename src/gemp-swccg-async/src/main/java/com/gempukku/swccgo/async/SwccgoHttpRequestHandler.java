@@ -5,6 +5,8 @@ import com.gempukku.swccgo.common.ApplicationConfiguration;
 
 import com.gempukku.swccgo.db.IpBanDAO;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -12,7 +14,6 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.util.CharsetUtil;
-import org.apache.commons.io.IOUtils;
 import org.json.simple.JSONObject;
 import org.w3c.dom.Document;
 
@@ -41,16 +42,19 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
     private static final long SIX_MONTHS = 1000L*60L*60L*24L*30L*6L;
     private final Logger _log = LogManager.getLogger(SwccgoHttpRequestHandler.class);
     private static final Logger _accesslog = LogManager.getLogger("access");
-    private final Map<String, byte[]> _fileCache = Collections.synchronizedMap(new HashMap<>());
+    private final StaticFileCache _fileCache;
     private final Map<Type, Object> _objects;
     private final UriRequestHandler _uriRequestHandler;
 
     private final IpBanDAO _ipBanDAO;
+    private final HttpRequestMetrics _httpRequestMetrics;
 
-    public SwccgoHttpRequestHandler(Map<Type, Object> objects, UriRequestHandler uriRequestHandler) {
+    public SwccgoHttpRequestHandler(Map<Type, Object> objects, UriRequestHandler uriRequestHandler, StaticFileCache fileCache) {
         _objects = objects;
         _uriRequestHandler = uriRequestHandler;
+        _fileCache = fileCache;
         _ipBanDAO = (IpBanDAO) _objects.get(IpBanDAO.class);
+        _httpRequestMetrics = (HttpRequestMetrics) _objects.get(HttpRequestMetrics.class);
     }
 
 
@@ -72,6 +76,7 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest httpRequest) {
+        long startNanos = System.nanoTime();
         if (HttpUtil.is100ContinueExpected(httpRequest))
             send100Continue(ctx);
 
@@ -89,7 +94,7 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
                 ip,
                 System.currentTimeMillis());
 
-        ResponseSender responseSender = new ResponseSender(ctx, httpRequest);
+        ResponseSender responseSender = new ResponseSender(ctx, httpRequest, HttpRequestMetrics.getUriPrefix(uri), startNanos);
 
         try {
             if (isBanned(requestInformation.remoteIp)) {
@@ -119,6 +124,8 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
         } catch (Exception exp) {
             _log.error("Error response for " + uri, exp);
             responseSender.writeError(500);
+        } finally {
+            responseSender.handlerReturned();
         }
     }
 
@@ -229,10 +236,45 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
     private class ResponseSender implements ResponseWriter {
         private final ChannelHandlerContext ctx;
         private final HttpRequest request;
+        private final String uriPrefix;
+        private final long startNanos;
+        private volatile long handlerReturnedNanos;
+        private volatile long longPollWaitFinishedNanos;
 
-        public ResponseSender(ChannelHandlerContext ctx, HttpRequest request) {
+        public ResponseSender(ChannelHandlerContext ctx, HttpRequest request, String uriPrefix, long startNanos) {
             this.ctx = ctx;
             this.request = request;
+            this.uriPrefix = uriPrefix;
+            this.startNanos = startNanos;
+        }
+
+        private void handlerReturned() {
+            handlerReturnedNanos = System.nanoTime();
+        }
+
+        @Override
+        public void longPollWaitFinished() {
+            longPollWaitFinishedNanos = System.nanoTime();
+        }
+
+        private void send(FullHttpResponse response) {
+            recordResponse(response.status().code(), response.content().readableBytes());
+            sendResponse(ctx, request, response);
+        }
+
+        /**
+         * Records the response in the request metrics. The time between the request handler returning and the end of
+         * the long-poll wait is counted as waiting, the rest as processing.
+         */
+        private void recordResponse(int status, long responseBytes) {
+            if (_httpRequestMetrics == null)
+                return;
+
+            long handlerReturned = handlerReturnedNanos;
+            long waitFinished = longPollWaitFinishedNanos;
+            boolean longPolled = waitFinished != 0;
+            long waitNanos = longPolled && handlerReturned != 0 ? Math.max(0, waitFinished - handlerReturned) : 0;
+            _httpRequestMetrics.recordResponse(uriPrefix, status, System.nanoTime() - startNanos - waitNanos, longPolled, waitNanos, responseBytes);
         }
 
         @Override
@@ -240,7 +282,7 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
             byte[] content = new byte[0];
             // Build the response object.
             FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.valueOf(status), Unpooled.wrappedBuffer(content), convertToHeaders(null), EmptyHttpHeaders.INSTANCE);
-            sendResponse(ctx, request, response);
+            send(response);
         }
 
         @Override
@@ -248,7 +290,7 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
             byte[] content = new byte[0];
             // Build the response object.
             FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.valueOf(status), Unpooled.wrappedBuffer(content), convertToHeaders(headers), EmptyHttpHeaders.INSTANCE);
-            sendResponse(ctx, request, response);
+            send(response);
         }
 
         @Override
@@ -280,13 +322,13 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
 
                 // Build the response object.
                 FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(response1.getBytes(CharsetUtil.UTF_8)), headers1, EmptyHttpHeaders.INSTANCE);
-                sendResponse(ctx, request, response);
+                send(response);
             } catch (Exception exp) {
                 byte[] content = new byte[0];
                 // Build the response object.
                 _log.error("Error response for " + request.uri(), exp);
                 FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.INTERNAL_SERVER_ERROR, Unpooled.wrappedBuffer(content), null, EmptyHttpHeaders.INSTANCE);
-                sendResponse(ctx, request, response);
+                send(response);
             }
         }
 
@@ -299,7 +341,7 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
                 html = "";
             // Build the response object.
             FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(html.getBytes(CharsetUtil.UTF_8)), headers, EmptyHttpHeaders.INSTANCE);
-            sendResponse(ctx, request, response);
+            send(response);
         }
 
         @Override
@@ -317,7 +359,7 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
             }
             // Build the response object.
             FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(json.getBytes(CharsetUtil.UTF_8)), headers, EmptyHttpHeaders.INSTANCE);
-            sendResponse(ctx, request, response);
+            send(response);
         }
 
         @Override
@@ -326,43 +368,80 @@ public class SwccgoHttpRequestHandler extends SimpleChannelInboundHandler<FullHt
 
             // Build the response object.
             FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(bytes), headers1, EmptyHttpHeaders.INSTANCE);
-            sendResponse(ctx, request, response);
+            send(response);
         }
 
         @Override
         public void writeFile(File file, Map<String, String> headers) {
             try {
-                String canonicalPath = file.getCanonicalPath();
-                byte[] fileBytes = _fileCache.get(canonicalPath);
-                if (fileBytes == null) {
-                    if (!file.exists() || !file.isFile()) {
-                        byte[] content = new byte[0];
-                        // Build the response object.
-                        FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.valueOf(404), Unpooled.wrappedBuffer(content), convertToHeaders(null), EmptyHttpHeaders.INSTANCE);
-                        sendResponse(ctx, request, response);
-                        return;
-                    }
-
-                    try (FileInputStream fis = new FileInputStream(file)) {
-                        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                        IOUtils.copy(fis, baos);
-                        fileBytes = baos.toByteArray();
-                        _fileCache.put(canonicalPath, fileBytes);
-                    }
+                if (!file.exists() || !file.isFile()) {
+                    byte[] content = new byte[0];
+                    // Build the response object.
+                    FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.valueOf(404), Unpooled.wrappedBuffer(content), convertToHeaders(null), EmptyHttpHeaders.INSTANCE);
+                    send(response);
+                    return;
                 }
 
                 HttpHeaders headers1 = convertToHeaders(getHeadersForFile(headers, file));
 
-                // Build the response object.
-                FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(fileBytes), headers1, EmptyHttpHeaders.INSTANCE);
-                sendResponse(ctx, request, response);
+                StaticFileCache.CachedFile cachedFile = _fileCache.getFile(file);
+                if (cachedFile == null) {
+                    sendFileRegion(file, headers1);
+                    return;
+                }
+
+                byte[] fileBytes = cachedFile.getBytes();
+                headers1.set(ETAG, cachedFile.getETag());
+                if (cachedFile.getGzipBytes() != null) {
+                    headers1.set(VARY, ACCEPT_ENCODING);
+                    if (StaticFileCache.acceptsGzip(request.headers().get(ACCEPT_ENCODING))) {
+                        fileBytes = cachedFile.getGzipBytes();
+                        headers1.set(ETAG, cachedFile.getGzipETag());
+                        headers1.set(CONTENT_ENCODING, HttpHeaderValues.GZIP);
+                    }
+                }
+
+                // Either already compressed or not worth compressing, so it is sent as it is
+                FullHttpResponse response = new SelectiveHttpContentCompressor.FullResponseSentAsIs(HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(fileBytes), headers1, EmptyHttpHeaders.INSTANCE);
+                send(response);
             } catch (IOException exp) {
                 byte[] content = new byte[0];
                 // Build the response object.
                 _log.error("Error response for " + request.uri(), exp);
                 FullHttpResponse response = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.valueOf(500), Unpooled.wrappedBuffer(content), convertToHeaders(null), EmptyHttpHeaders.INSTANCE);
-                sendResponse(ctx, request, response);
+                send(response);
+            }
+        }
+
+        /**
+         * Sends a file too large to be cached straight from disk, using a zero-copy file region.
+         */
+        private void sendFileRegion(File file, HttpHeaders headers) throws IOException {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            long fileLength;
+            try {
+                fileLength = randomAccessFile.length();
+            } catch (IOException exp) {
+                randomAccessFile.close();
+                throw exp;
             }
+
+            // The region is sent as it is, so it must not be picked up by the compressor
+            HttpResponse response = new SelectiveHttpContentCompressor.ResponseSentAsIs(HTTP_1_1, HttpResponseStatus.OK, headers);
+            HttpUtil.setContentLength(response, fileLength);
+            recordResponse(HttpResponseStatus.OK.code(), fileLength);
+            response.headers().set(ETAG, StaticFileCache.getETag(file));
+
+            boolean keepAlive = HttpUtil.isKeepAlive(request);
+            if (keepAlive)
+                response.headers().set(CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+
+            ctx.write(response);
+            ctx.write(new DefaultFileRegion(randomAccessFile.getChannel(), 0, fileLength));
+            ChannelFuture lastContentFuture = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+
+            if (!keepAlive)
+                lastContentFuture.addListener(ChannelFutureListener.CLOSE);
         }
     }
 }
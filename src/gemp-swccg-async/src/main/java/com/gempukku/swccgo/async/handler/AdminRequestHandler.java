@@ -1,12 +1,19 @@
 package com.gempukku.swccgo.async.handler;
 
+import com.alibaba.fastjson.JSON;
 import com.gempukku.swccgo.DateUtils;
 import com.gempukku.swccgo.async.HttpProcessingException;
+import com.gempukku.swccgo.async.HttpRequestMetrics;
 import com.gempukku.swccgo.async.ResponseWriter;
 import com.gempukku.swccgo.cache.CacheManager;
+import com.gempukku.swccgo.collection.CollectionGrantJob;
+import com.gempukku.swccgo.collection.CollectionGrantService;
 import com.gempukku.swccgo.collection.CollectionsManager;
+import com.gempukku.swccgo.common.ApplicationConfiguration;
+import com.gempukku.swccgo.db.DbMetrics;
 import com.gempukku.swccgo.db.LeagueDAO;
 import com.gempukku.swccgo.db.LeagueDecklistEntry;
+import com.gempukku.swccgo.db.PlayerAuthenticationMetrics;
 import com.gempukku.swccgo.db.PlayerDAO;
 import com.gempukku.swccgo.db.vo.CollectionType;
 import com.gempukku.swccgo.db.vo.League;
@@ -14,16 +21,23 @@ import com.gempukku.swccgo.game.CardCollection;
 import com.gempukku.swccgo.game.GameHistoryService;
 import com.gempukku.swccgo.game.Player;
 import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.game.SwccgGameMediator;
+import com.gempukku.swccgo.game.SwccgGameParticipant;
+import com.gempukku.swccgo.game.SwccgoServer;
 import com.gempukku.swccgo.game.formats.SwccgoFormatLibrary;
 import com.gempukku.swccgo.game.state.SortPlayerByName;
 import com.gempukku.swccgo.hall.HallServer;
 import com.gempukku.swccgo.league.*;
+import com.gempukku.swccgo.logic.timing.DecisionLoopRecord;
+import com.gempukku.swccgo.logic.timing.DecisionLoopStatistics;
 import com.gempukku.swccgo.service.AdminService;
 import com.gempukku.swccgo.tournament.TournamentService;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.text.StringEscapeUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
@@ -33,12 +47,16 @@ import org.w3c.dom.Element;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.StringWriter;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class AdminRequestHandler extends SwccgoServerRequestHandler implements UriRequestHandler {
     private final LeagueService _leagueService;
@@ -49,9 +67,14 @@ public class AdminRequestHandler extends SwccgoServerRequestHandler implements U
     private final SwccgoFormatLibrary _formatLibrary;
     private final LeagueDAO _leagueDao;
     private final CollectionsManager _collectionManager;
+    private final CollectionGrantService _collectionGrantService;
     private final PlayerDAO _playerDAO;
     private final AdminService _adminService;
     private final GameHistoryService _gameHistoryService;
+    private final SwccgoServer _swccgoServer;
+    private final HttpRequestMetrics _httpRequestMetrics;
+    private final PlayerAuthenticationMetrics _playerAuthenticationMetrics;
+    private final DbMetrics _dbMetrics;
     private static final Logger _log = LogManager.getLogger(AdminRequestHandler.class);
 
     public AdminRequestHandler(Map<Type, Object> context) {
@@ -65,8 +88,13 @@ public class AdminRequestHandler extends SwccgoServerRequestHandler implements U
         _leagueDao = extractObject(context, LeagueDAO.class);
         _playerDAO = extractObject(context, PlayerDAO.class);
         _collectionManager = extractObject(context, CollectionsManager.class);
+        _collectionGrantService = extractObject(context, CollectionGrantService.class);
         _adminService = extractObject(context, AdminService.class);
         _gameHistoryService = extractObject(context, GameHistoryService.class);
+        _swccgoServer = extractObject(context, SwccgoServer.class);
+        _httpRequestMetrics = extractObject(context, HttpRequestMetrics.class);
+        _playerAuthenticationMetrics = extractObject(context, PlayerAuthenticationMetrics.class);
+        _dbMetrics = extractObject(context, DbMetrics.class);
     }
 
     @Override
@@ -95,6 +123,8 @@ public class AdminRequestHandler extends SwccgoServerRequestHandler implements U
             addCurrency(request, responseWriter);
         } else if (uri.equals("/collections/additemstoall") && request.method() == HttpMethod.POST) {
             addItemsToAllPlayers(request, responseWriter);
+        } else if (uri.equals("/collections/grantjobs") && request.method() == HttpMethod.GET) {
+            getCollectionGrantJobs(request, responseWriter);
         } else if (uri.equals("/user/addflag") && request.method() == HttpMethod.POST) {
             addFlagToUser(request, responseWriter);
         } else if (uri.equals("/users/removeflag") && request.method() == HttpMethod.POST) {
@@ -127,6 +157,12 @@ public class AdminRequestHandler extends SwccgoServerRequestHandler implements U
             purgeInGameStatisticListeners(request, responseWriter);
 		} else if (uri.equals("/league/deckcheck") && request.method() == HttpMethod.POST) {
             deckCheck(request, responseWriter);
+        } else if (uri.equals("/metrics") && request.method() == HttpMethod.GET) {
+            getHttpRequestMetrics(request, responseWriter);
+        } else if (uri.equals("/decisionloops") && request.method() == HttpMethod.GET) {
+            getDecisionLoops(request, responseWriter);
+        } else if (uri.equals("/decisionloops/dump") && request.method() == HttpMethod.POST) {
+            dumpDecisionLoops(request, responseWriter);
         } else {
             responseWriter.writeError(404);
         }
@@ -420,18 +456,10 @@ public class AdminRequestHandler extends SwccgoServerRequestHandler implements U
             if(!cannotAdd.isEmpty()) {
                 responseWriter.writeHtmlResponse(listToString(cannotAdd));
             } else {
-                Map<Player, CardCollection> playersCollection = _collectionManager.getPlayersCollection(collectionType);
-
-                for (Map.Entry<Player, CardCollection> playerCollection : playersCollection.entrySet()) {
-                    if (playerCollection.getKey() != null
-                            && playerCollection.getKey().hasType(Player.Type.UNBANNED)
-                            && playerCollection.getValue()!=null
-                            && !playerCollection.getKey().getName().startsWith("rando_")) {
-                        _collectionManager.addItemsToPlayerCollection(true, reason + " (" + getResourceOwnerSafely(request, null).getName() + ")", playerCollection.getKey(), createCollectionType(collectionType), productItems);
-                    }
-                }
+                CollectionGrantJob job = _collectionGrantService.startGrant(reason + " (" + getResourceOwnerSafely(request, null).getName() + ")",
+                        createCollectionType(collectionType), productItems);
 
-                responseWriter.writeHtmlResponse("OK");
+                responseWriter.writeHtmlResponse("Started adding the items to all players as job " + job.getId() + ", check its progress with Show Progress");
             }
         }
         finally {
@@ -439,6 +467,33 @@ public class AdminRequestHandler extends SwccgoServerRequestHandler implements U
         }
     }
 
+    /**
+     * Writes the progress of the jobs adding items to all players.
+     * @param request the request
+     * @param responseWriter the response writer
+     * @throws Exception
+     */
+    private void getCollectionGrantJobs(HttpRequest request, ResponseWriter responseWriter) throws Exception {
+        validateAdmin(request);
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        StringBuilder result = new StringBuilder();
+        for (CollectionGrantJob job : _collectionGrantService.getJobs()) {
+            result.append("Job ").append(job.getId()).append(" (").append(StringEscapeUtils.escapeHtml3(job.getReason())).append("), started ")
+                    .append(dateFormat.format(new Date(job.getStartTime()))).append(": ").append(job.getState())
+                    .append(", ").append(job.getPlayersProcessed()).append(" of ").append(job.getPlayerCount()).append(" players processed")
+                    .append(", items added to ").append(job.getPlayersGranted());
+            if (job.getFailedChunks() > 0)
+                result.append(", ").append(job.getFailedChunks()).append(" chunks failed (retried when the server restarts)");
+            if (job.getUncertainChunks() > 0)
+                result.append(", ").append(job.getUncertainChunks()).append(" chunks interrupted by a restart (see the log)");
+            if (job.getFinishTime() != 0)
+                result.append(", finished ").append(dateFormat.format(new Date(job.getFinishTime())));
+            result.append("<br/>");
+        }
+        responseWriter.writeHtmlResponse(result.length() > 0 ? result.toString() : "No jobs since the server started");
+    }
+
     private void addItems(HttpRequest request, ResponseWriter responseWriter) throws Exception {
         validateAdmin(request);
 
@@ -879,6 +934,62 @@ public class AdminRequestHandler extends SwccgoServerRequestHandler implements U
         }
     }
 
+    private void getHttpRequestMetrics(HttpRequest request, ResponseWriter responseWriter) throws Exception {
+        validateAdmin(request);
+
+        StringWriter writer = new StringWriter();
+        _httpRequestMetrics.writePrometheusText(writer);
+        if (_playerAuthenticationMetrics != null)
+            _playerAuthenticationMetrics.writePrometheusText(writer);
+        if (_dbMetrics != null)
+            _dbMetrics.writePrometheusText(writer);
+        responseWriter.writeByteResponse(writer.toString().getBytes(StandardCharsets.UTF_8),
+                Collections.singletonMap(HttpHeaderNames.CONTENT_TYPE, "text/plain; version=0.0.4; charset=utf-8"));
+    }
+
+    private void getDecisionLoops(HttpRequest request, ResponseWriter responseWriter) throws Exception {
+        validateAdmin(request);
+
+        responseWriter.writeJsonResponse(JSON.toJSONString(getDecisionLoopReport()));
+    }
+
+    private void dumpDecisionLoops(HttpRequest request, ResponseWriter responseWriter) throws Exception {
+        validateAdmin(request);
+
+        File statsFolder = new File(ApplicationConfiguration.getProperty("application.root"), "stats");
+        statsFolder.mkdirs();
+        File dumpFile = new File(statsFolder, "decision-loops-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+        Files.write(dumpFile.toPath(), JSON.toJSONString(getDecisionLoopReport(), true).getBytes(StandardCharsets.UTF_8));
+
+        responseWriter.writeHtmlResponse("Decision loop statistics written to " + dumpFile.getAbsolutePath());
+    }
+
+    /**
+     * Gets the decision loop statistics of the running games, the game with the slowest decision loop first.
+     * @return the statistics, ready to be written as JSON
+     */
+    private Map<String, Object> getDecisionLoopReport() {
+        List<Map<String, Object>> games = new ArrayList<>();
+        Map<Map<String, Object>, Long> slowestNanos = new HashMap<>();
+        for (SwccgGameMediator game : _swccgoServer.getRunningGames()) {
+            DecisionLoopStatistics statistics = game.getDecisionLoopStatistics();
+            Map<String, Object> gameReport = new LinkedHashMap<>();
+            gameReport.put("format", game.getFormat().getName());
+            gameReport.put("players", game.getPlayersPlaying().stream().map(SwccgGameParticipant::getPlayerId).collect(Collectors.toList()));
+            gameReport.put("status", game.getGameStatus());
+            gameReport.putAll(statistics.toJsonMap());
+            DecisionLoopRecord slowestRecord = statistics.getSlowestRecord();
+            slowestNanos.put(gameReport, Math.max(statistics.getRunningNanos(), slowestRecord != null ? slowestRecord.getDurationNanos() : 0));
+            games.add(gameReport);
+        }
+        games.sort((g1, g2) -> Long.compare(slowestNanos.get(g2), slowestNanos.get(g1)));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("time", System.currentTimeMillis());
+        report.put("games", games);
+        return report;
+    }
+
     private void getMotd(HttpRequest request, ResponseWriter responseWriter) throws Exception {
         validateAdmin(request);
 
@@ -106,6 +106,7 @@ public class ChatRequestHandler extends SwccgoServerRequestHandler implements Ur
         @Override
         public synchronized void processIfNotProcessed() {
             if (!_processed) {
+                _responseWriter.longPollWaitFinished();
                 try {
                     List<ChatMessage> chatMessages = _chatRoom.getChatRoomListener(_playerId).consumeMessages(_latestMsgIdRcvd);
 
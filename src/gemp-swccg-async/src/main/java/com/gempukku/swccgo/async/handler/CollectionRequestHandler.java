@@ -2,8 +2,10 @@ package com.gempukku.swccgo.async.handler;
 
 import com.gempukku.swccgo.async.HttpProcessingException;
 import com.gempukku.swccgo.async.ResponseWriter;
+import com.gempukku.swccgo.cache.CacheManager;
 import com.gempukku.swccgo.cards.packs.RarityReader;
 import com.gempukku.swccgo.cards.packs.SetRarity;
+import com.gempukku.swccgo.collection.CollectionResultCache;
 import com.gempukku.swccgo.collection.CollectionsManager;
 import com.gempukku.swccgo.common.CardCounts;
 import com.gempukku.swccgo.common.ExpansionSet;
@@ -16,6 +18,8 @@ import com.gempukku.swccgo.league.LeagueSeriesData;
 import com.gempukku.swccgo.league.LeagueService;
 import com.gempukku.swccgo.logic.GameUtils;
 import com.gempukku.swccgo.packagedProduct.PackagedProductStorage;
+import com.gempukku.swccgo.packagedProduct.ProductCatalog;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.QueryStringDecoder;
@@ -25,8 +29,13 @@ import org.w3c.dom.Element;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.StringWriter;
 import java.lang.reflect.Type;
-import java.util.Collection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,9 +45,12 @@ public class CollectionRequestHandler extends SwccgoServerRequestHandler impleme
     private LeagueService _leagueService;
     private CollectionsManager _collectionsManager;
     private PackagedProductStorage _packStorage;
+    private ProductCatalog _productCatalog;
+    private byte[] _productCatalogResponse;
     private SwccgCardBlueprintLibrary _library;
     private SwccgoFormatLibrary _formatLibrary;
     private SortAndFilterCards _sortAndFilterCards;
+    private CollectionResultCache _resultCache = new CollectionResultCache(500, 10 * 60 * 1000);
 
     public CollectionRequestHandler(Map<Type, Object> context) {
         super(context);
@@ -61,9 +73,13 @@ public class CollectionRequestHandler extends SwccgoServerRequestHandler impleme
         _leagueService = extractObject(context, LeagueService.class);
         _collectionsManager = extractObject(context, CollectionsManager.class);
         _packStorage = extractObject(context, PackagedProductStorage.class);
+        _productCatalog = extractObject(context, ProductCatalog.class);
         _library = extractObject(context, SwccgCardBlueprintLibrary.class);
         _formatLibrary = extractObject(context, SwccgoFormatLibrary.class);
         _sortAndFilterCards = new SortAndFilterCards();
+        CacheManager cacheManager = extractObject(context, CacheManager.class);
+        if (cacheManager != null)
+            cacheManager.addCache(_resultCache);
     }
 
     @Override
@@ -72,6 +88,8 @@ public class CollectionRequestHandler extends SwccgoServerRequestHandler impleme
                 getCollectionTypes(request, responseWriter);
             } else if (uri.startsWith("/") && request.method() == HttpMethod.POST) {
                 openPack(request, uri.substring(1), responseWriter);
+            } else if (uri.equals("/products") && request.method() == HttpMethod.GET) {
+                getProductCatalog(request, responseWriter);
             } else if (uri.startsWith("playerCollectionStats") && request.method() == HttpMethod.GET) {
                 playerCollectionStats(request, uri.substring(21), responseWriter);
             } else if (uri.startsWith("/") && request.method() == HttpMethod.GET) {
@@ -85,18 +103,22 @@ public class CollectionRequestHandler extends SwccgoServerRequestHandler impleme
         QueryStringDecoder queryDecoder = new QueryStringDecoder(request.uri());
         String participantId = getQueryParameterSafely(queryDecoder, "participantId");
         String filter = getQueryParameterSafely(queryDecoder, "filter");
+        String cursor = getQueryParameterSafely(queryDecoder, "cursor");
         int start = Integer.parseInt(getQueryParameterSafely(queryDecoder, "start"));
         int count = Integer.parseInt(getQueryParameterSafely(queryDecoder, "count"));
         
         Player resourceOwner = getResourceOwnerSafely(request, participantId);
 
+        int collectionVersion = _collectionsManager.getCollectionVersion(resourceOwner);
         CardCollection collection = constructCollection(resourceOwner, collectionType);
 
         if (collection == null)
             throw new HttpProcessingException(404);
 
-        Collection<CardCollection.Item> items = collection.getAll().values();
-        List<CardCollection.Item> filteredResult = _sortAndFilterCards.process(filter, items, _library, _formatLibrary, _rarities);
+        // Paging through the same collection and filter only filters and sorts it for the first page
+        CollectionResultCache.Result result = _resultCache.getResult(resourceOwner.getName(), cursor, collectionType, collectionVersion, filter,
+                () -> _sortAndFilterCards.process(filter, collection.getAll().values(), _library, _formatLibrary, _rarities));
+        List<CardCollection.Item> filteredResult = result.getItems();
 
         DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
         DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
@@ -105,6 +127,9 @@ public class CollectionRequestHandler extends SwccgoServerRequestHandler impleme
 
         Element collectionElem = doc.createElement("collection");
         collectionElem.setAttribute("count", String.valueOf(filteredResult.size()));
+        collectionElem.setAttribute("cursor", result.getCursor());
+        // The contents of the products are not repeated in every page, the client gets them from the product catalog
+        collectionElem.setAttribute("productCatalog", _productCatalog.getVersion());
         doc.appendChild(collectionElem);
 
         for (int i = start; i < start + count; i++) {
@@ -125,14 +150,6 @@ public class CollectionRequestHandler extends SwccgoServerRequestHandler impleme
                     Element pack = doc.createElement("pack");
                     pack.setAttribute("count", String.valueOf(item.getCount()));
                     pack.setAttribute("blueprintId", blueprintId);
-                    if (item.getType() == CardCollection.Item.Type.SELECTION) {
-                        List<CardCollection.Item> contents = _packStorage.openPackagedProduct(blueprintId);
-                        StringBuilder contentsStr = new StringBuilder();
-                        for (CardCollection.Item content : contents)
-                            contentsStr.append(content.getBlueprintId()).append("|");
-                        contentsStr.delete(contentsStr.length() - 1, contentsStr.length());
-                        pack.setAttribute("contents", contentsStr.toString());
-                    }
                     collectionElem.appendChild(pack);
                 }
             }
@@ -144,6 +161,70 @@ public class CollectionRequestHandler extends SwccgoServerRequestHandler impleme
         responseWriter.writeXmlResponse(doc, headers);
     }
 
+    /**
+     * Writes the product catalog. The catalog does not change while the server runs, so the response is only built
+     * once, and a client asking for the current version may keep it for as long as it likes.
+     * @param request the request
+     * @param responseWriter the response writer
+     * @throws Exception
+     */
+    private void getProductCatalog(HttpRequest request, ResponseWriter responseWriter) throws Exception {
+        QueryStringDecoder queryDecoder = new QueryStringDecoder(request.uri());
+        String version = getQueryParameterSafely(queryDecoder, "version");
+
+        String etag = "\"" + _productCatalog.getVersion() + "\"";
+        String ifNoneMatch = request.headers().get(HttpHeaderNames.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            responseWriter.writeError(304, Collections.singletonMap(HttpHeaderNames.ETAG.toString(), etag));
+            return;
+        }
+
+        Map<CharSequence, String> headers = new HashMap<CharSequence, String>();
+        headers.put(HttpHeaderNames.CONTENT_TYPE, "application/xml; charset=UTF-8");
+        headers.put(HttpHeaderNames.ETAG, etag);
+        // A client asking for an older version is sent the current one, which it must not keep under the old address
+        headers.put(HttpHeaderNames.CACHE_CONTROL, _productCatalog.getVersion().equals(version) ? "public, max-age=31536000, immutable" : "no-cache");
+        responseWriter.writeByteResponse(getProductCatalogResponse(), headers);
+    }
+
+    private synchronized byte[] getProductCatalogResponse() throws Exception {
+        if (_productCatalogResponse == null) {
+            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+
+            Document doc = documentBuilder.newDocument();
+
+            Element productsElem = doc.createElement("products");
+            productsElem.setAttribute("version", _productCatalog.getVersion());
+            doc.appendChild(productsElem);
+
+            for (Map.Entry<String, List<CardCollection.Item>> selection : _productCatalog.getSelections().entrySet())
+                productsElem.appendChild(createProductElement(doc, "selection", selection.getKey(), selection.getValue()));
+            for (Map.Entry<String, List<CardCollection.Item>> fixedContents : _productCatalog.getFixedContents().entrySet())
+                productsElem.appendChild(createProductElement(doc, "fixed", fixedContents.getKey(), fixedContents.getValue()));
+            for (String productName : _productCatalog.getRandomProducts())
+                productsElem.appendChild(createProductElement(doc, "random", productName, Collections.<CardCollection.Item>emptyList()));
+
+            StringWriter writer = new StringWriter();
+            TransformerFactory.newInstance().newTransformer().transform(new DOMSource(doc), new StreamResult(writer));
+            _productCatalogResponse = writer.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        return _productCatalogResponse;
+    }
+
+    private Element createProductElement(Document doc, String type, String productName, List<CardCollection.Item> contents) {
+        Element product = doc.createElement("product");
+        product.setAttribute("type", type);
+        product.setAttribute("blueprintId", productName);
+        for (CardCollection.Item content : contents) {
+            Element item = doc.createElement("item");
+            item.setAttribute("blueprintId", content.getBlueprintId());
+            item.setAttribute("count", String.valueOf(content.getCount()));
+            product.appendChild(item);
+        }
+        return product;
+    }
+
     private CardCollection constructCollection(Player player, String collectionType) {
         return _collectionsManager.getPlayerCollection(player, collectionType);
     }
@@ -507,6 +507,8 @@ public class DeckRequestHandler extends SwccgoServerRequestHandler implements Ur
 
         Document doc = documentBuilder.newDocument();
         Element deckElem = doc.createElement("deck");
+        if (deck.getArchetypeLabel() != null)
+            deckElem.setAttribute("archetype", deck.getArchetypeLabel());
         doc.appendChild(deckElem);
 
         for (CardItem cardItem : _sortAndFilterCards.process("sort:cardCategory,name", createCardItems(deck.getCards()), _library, _formatLibrary, null)) {
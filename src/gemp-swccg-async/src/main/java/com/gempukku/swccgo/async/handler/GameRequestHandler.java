@@ -140,6 +140,7 @@ public class GameRequestHandler extends SwccgoServerRequestHandler implements Ur
         @Override
         public synchronized void processIfNotProcessed() {
             if (!_processed) {
+                _responseWriter.longPollWaitFinished();
                 try {
                     DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
                     DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
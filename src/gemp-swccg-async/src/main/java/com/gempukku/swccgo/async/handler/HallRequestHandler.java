@@ -206,6 +206,7 @@ public class HallRequestHandler extends SwccgoServerRequestHandler implements Ur
 
         public synchronized void processIfNotProcessed() {
             if (!_processed) {
+                _responseWriter.longPollWaitFinished();
                 try {
                     DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
                     DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
@@ -729,6 +730,7 @@ public class HallRequestHandler extends SwccgoServerRequestHandler implements Ur
         @Override
         public synchronized void processIfNotProcessed() {
             if (!_processed) {
+                _responseWriter.longPollWaitFinished();
                 try {
                     DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
                     DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
@@ -5,6 +5,7 @@ import com.gempukku.swccgo.async.ResponseWriter;
 import com.gempukku.swccgo.game.GameHistoryService;
 import com.gempukku.swccgo.game.GameHistoryStatistics;
 import com.gempukku.swccgo.game.Player;
+import com.gempukku.swccgo.game.ServerStatsAggregator;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.QueryStringDecoder;
@@ -55,10 +56,10 @@ public class ServerStatsRequestHandler extends SwccgoServerRequestHandler implem
                     throw new HttpProcessingException(400);
                 long duration = to.getTime() - from;
 
-                int activePlayers = _gameHistoryService.getActivePlayersCount(from, duration);
-                int gamesCount = _gameHistoryService.getGamesPlayedCount(from, duration);
-
-                GameHistoryStatistics gameHistoryStatistics = _gameHistoryService.getGameHistoryStatistics(from, duration);
+                ServerStatsAggregator.PeriodStats serverStats = _gameHistoryService.getServerStats(from, duration);
+                GameHistoryStatistics gameHistoryStatistics = serverStats.getGameHistoryStatistics();
+                SimpleDateFormat updatedFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+                updatedFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
 
                 DecimalFormat percFormat = new DecimalFormat("#0.0%");
 
@@ -66,10 +67,11 @@ public class ServerStatsRequestHandler extends SwccgoServerRequestHandler implem
                 DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
                 Document doc = documentBuilder.newDocument();
                 Element stats = doc.createElement("stats");
-                stats.setAttribute("activePlayers", String.valueOf(activePlayers));
-                stats.setAttribute("gamesCount", String.valueOf(gamesCount));
+                stats.setAttribute("activePlayers", String.valueOf(serverStats.getActivePlayers()));
+                stats.setAttribute("gamesCount", String.valueOf(serverStats.getGamesCount()));
                 stats.setAttribute("start", format.format(new Date(from)));
                 stats.setAttribute("end", format.format(new Date(from + duration - 1)));
+                stats.setAttribute("updated", updatedFormat.format(new Date(serverStats.getRefreshed())));
                 for (GameHistoryStatistics.FormatStat formatStat : gameHistoryStatistics.getFormatStats()) {
                     Element formatStatElem = doc.createElement("formatStat");
                     formatStatElem.setAttribute("format", formatStat.getFormat());
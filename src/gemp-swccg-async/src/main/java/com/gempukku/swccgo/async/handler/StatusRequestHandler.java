@@ -3,6 +3,7 @@ package com.gempukku.swccgo.async.handler;
 import com.gempukku.swccgo.async.ResponseWriter;
 import com.gempukku.swccgo.chat.ChatServer;
 import com.gempukku.swccgo.game.GameHistoryService;
+import com.gempukku.swccgo.game.ServerStatsAggregator;
 import com.gempukku.swccgo.hall.HallServer;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
@@ -35,14 +36,13 @@ public class StatusRequestHandler extends SwccgoServerRequestHandler implements
         if ("".equals(uri) && request.method() == HttpMethod.GET) {
             StringBuilder sb = new StringBuilder();
 
-            int day = 1000 * 60 * 60 * 24;
-            int week = 1000 * 60 * 60 * 24 * 7;
-            sb.append("<b>Active players:</b>&nbsp;&nbsp;").append(_gameHistoryService.getActivePlayersCount(System.currentTimeMillis() - day, day)).append(" (in last 24 hours)")
-                    .append(",&nbsp;&nbsp;").append(_gameHistoryService.getActivePlayersCount(System.currentTimeMillis() - week, week)).append(" (in last week)")
-                    .append(",&nbsp;&nbsp;").append(_gameHistoryService.getActivePlayersCount()).append(" (all time)")
-                    .append("<br/><b>Games played:</b>&nbsp;&nbsp;").append(_gameHistoryService.getGamesPlayedCount(System.currentTimeMillis() - day, day)).append(" (in last 24 hours)")
-                    .append(",&nbsp;&nbsp;").append(_gameHistoryService.getGamesPlayedCount(System.currentTimeMillis() - week, week)).append(" (in last week)")
-                    .append(",&nbsp;&nbsp;").append(_gameHistoryService.getGamesPlayedCount()).append(" (all time)")
+            ServerStatsAggregator.Status status = _gameHistoryService.getServerStatus();
+            sb.append("<b>Active players:</b>&nbsp;&nbsp;").append(status.getActivePlayersLastDay()).append(" (in last 24 hours)")
+                    .append(",&nbsp;&nbsp;").append(status.getActivePlayersLastWeek()).append(" (in last week)")
+                    .append(",&nbsp;&nbsp;").append(status.getActivePlayersAllTime()).append(" (all time)")
+                    .append("<br/><b>Games played:</b>&nbsp;&nbsp;").append(status.getGamesPlayedLastDay()).append(" (in last 24 hours)")
+                    .append(",&nbsp;&nbsp;").append(status.getGamesPlayedLastWeek()).append(" (in last week)")
+                    .append(",&nbsp;&nbsp;").append(status.getGamesPlayedAllTime()).append(" (all time)")
                     .append("<h2>")
                     .append("Tables count: ").append(_hallServer.getTablesCount())
                     .append("&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;Players in hall count: ").append(_chatServer.getChatRoom("Game Hall").getUsersInRoom().size())
@@ -1,6 +1,7 @@
 package com.gempukku.swccgo.async.handler;
 
 import com.gempukku.swccgo.async.ResponseWriter;
+import com.gempukku.swccgo.async.StaticFileCache;
 import com.gempukku.swccgo.common.ApplicationConfiguration;
 
 import io.netty.handler.codec.http.HttpHeaders;
@@ -47,25 +48,33 @@ public class WebRequestHandler implements UriRequestHandler {
             return;
         }
 
-        final String etag = "\"" + file.lastModified() + "\"";
+        final String etag = StaticFileCache.getETag(file);
 
-        if (clientHasCurrentVersion(request, etag)) {
-            responseWriter.writeError(304);
+        String clientEtag = getClientCurrentVersion(request, etag);
+        if (clientEtag != null) {
+            responseWriter.writeError(304, Collections.singletonMap(HttpHeaders.Names.ETAG, clientEtag));
             return;
         }
 
         responseWriter.writeFile(file, Collections.singletonMap(HttpHeaders.Names.ETAG, etag));
     }
 
-    private boolean clientHasCurrentVersion(HttpRequest request, String etag) {
+    /**
+     * Gets the ETag the client has of the current version of the file, either of the file itself or of its gzip
+     * compressed variant.
+     * @return the ETag, or null if the client does not have the current version
+     */
+    private String getClientCurrentVersion(HttpRequest request, String etag) {
         String ifNoneMatch = request.headers().get(IF_NONE_MATCH);
         if (ifNoneMatch != null) {
+            String gzipEtag = StaticFileCache.getGzipETag(etag);
             String[] clientKnownVersions = ifNoneMatch.split(",");
             for (String clientKnownVersion : clientKnownVersions) {
-                if (clientKnownVersion.trim().equals(etag))
-                    return true;
+                String version = clientKnownVersion.trim();
+                if (version.equals(etag) || version.equals(gzipEtag))
+                    return version;
             }
         }
-        return false;
+        return null;
     }
 }
@@ -439,7 +439,19 @@ var GempSwccgCommunication = Class.extend({
             dataType:"xml"
         });
     },
-    getCollection:function (collectionType, filter, start, count, callback, errorMap) {
+    getProductCatalog:function (version, callback, errorMap) {
+        $.ajax({
+            type:"GET",
+            url:this.url + "/collection/products",
+            cache:true,
+            data:{
+                version:version},
+            success:this.deliveryCheck(callback),
+            error:this.errorCheck(errorMap),
+            dataType:"xml"
+        });
+    },
+    getCollection:function (collectionType, filter, start, count, callback, errorMap, cursor) {
         $.ajax({
             type:"GET",
             url:this.url + "/collection/" + collectionType,
@@ -447,6 +459,7 @@ var GempSwccgCommunication = Class.extend({
             data:{
                 participantId:getUrlParam("participantId"),
                 filter:filter,
+                cursor:cursor,
                 start:start,
                 count:count},
             success:this.deliveryCheck(callback),
@@ -856,6 +869,16 @@ var GempSwccgCommunication = Class.extend({
             dataType:"html"
         });
     },
+    getCollectionGrantJobs:function (callback, errorMap) {
+        $.ajax({
+            type:"GET",
+            url:this.url + "/admin/collections/grantjobs",
+            cache:false,
+            success:this.deliveryCheck(callback),
+            error:this.errorCheck(errorMap),
+            dataType:"html"
+        });
+    },
     addCurrency:function (players, currencyAmount, callback, errorMap) {
         $.ajax({
             type:"POST",
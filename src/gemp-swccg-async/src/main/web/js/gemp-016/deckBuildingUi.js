@@ -36,6 +36,9 @@ var GempSwccgDeckBuildingUI = Class.extend({
     selectionDialog:null,
     selectionGroup:null,
     packSelectionId:null,
+    collectionCursor:null,
+    productCatalogVersion:null,
+    productSelections:{},
 
     cardFilter:null,
 
@@ -55,18 +58,20 @@ var GempSwccgDeckBuildingUI = Class.extend({
         this.cardFilter = new CardFilter($("#collectionDiv"), $("#collectionDiv"),
                 function (filter, start, count, callback) {
                     that.comm.getCollection(that.collectionType, filter, start, count, function (xml) {
+                        that.collectionCursor = xml.documentElement.getAttribute("cursor");
+                        that.loadProductCatalog(xml.documentElement.getAttribute("productCatalog"));
                         callback(xml);
                     }, {
                         "404":function () {
                             alert("You don't have collection of that type.");
                         }
-                    });
+                    }, that.collectionCursor);
                 }, 
                 function () {
                     that.clearCollection();
                 },
                 function (elem, type, blueprintId, testingText, backSideTestingText, count) {
-                    that.addCardToCollection(type, blueprintId, testingText, backSideTestingText, count, elem.getAttribute("side"), elem.getAttribute("contents"));
+                    that.addCardToCollection(type, blueprintId, testingText, backSideTestingText, count, elem.getAttribute("side"));
                 },
                 function () {
                     that.finishCollection();
@@ -642,8 +647,7 @@ var GempSwccgDeckBuildingUI = Class.extend({
                         this.selectionDialog.html("");
                         var cardData = selectedCardElem.data("card");
                         this.packSelectionId = cardData.blueprintId;
-                        var selection = selectedCardElem.data("selection");
-                        var blueprintIds = selection.split("|");
+                        var blueprintIds = this.productSelections[cardData.blueprintId] || [];
                         for (var i = 0; i < blueprintIds.length; i++) {
                             var card = new Card(blueprintIds[i], cardData.testingText, cardData.backSideTestingText, "selection", "selection" + i, "player");
                             var cardDiv = Card.CreateCardDiv(card.imageUrl, card.testingText, null, card.isFoil(), false, card.isPack(), card.incomplete);
@@ -929,18 +933,41 @@ var GempSwccgDeckBuildingUI = Class.extend({
         this.deckModified(false);
     },
 
+    loadProductCatalog:function (version) {
+        // The contents of the products are only sent once, and the browser keeps them until they change
+        if (version == null || version == this.productCatalogVersion)
+            return;
+
+        var that = this;
+        this.comm.getProductCatalog(version, function (xml) {
+            // Only set once loaded, so a failed request is made again with the next collection
+            that.productCatalogVersion = version;
+            var selections = {};
+            var products = xml.documentElement.getElementsByTagName("product");
+            for (var i = 0; i < products.length; i++) {
+                if (products[i].getAttribute("type") == "selection") {
+                    var blueprintIds = [];
+                    var items = products[i].getElementsByTagName("item");
+                    for (var j = 0; j < items.length; j++)
+                        blueprintIds.push(items[j].getAttribute("blueprintId"));
+                    selections[products[i].getAttribute("blueprintId")] = blueprintIds;
+                }
+            }
+            that.productSelections = selections;
+        });
+    },
+
     clearCollection:function () {
         $(".card", this.normalCollectionDiv).remove();
     },
 
-    addCardToCollection:function (type, blueprintId, testingText, backSideTestingText, count, side, contents) {
+    addCardToCollection:function (type, blueprintId, testingText, backSideTestingText, count, side) {
         if (type == "pack") {
             if (blueprintId.substr(0, 3) == "(S)") {
                 var card = new Card(blueprintId, null, null, "pack", "collection", "player");
                 card.tokens = {"count":count};
                 var cardDiv = Card.CreateCardDiv(card.imageUrl, card.testingText, null, false, true, true, false, card.incomplete);
                 cardDiv.data("card", card);
-                cardDiv.data("selection", contents);
                 cardDiv.addClass("selectionInCollection");
             } else {
                 var card = new Card(blueprintId, null, null, "pack", "collection", "player");
@@ -42,10 +42,12 @@ var StatsUI = Class.extend({
             var gamesCount = stats.getAttribute("gamesCount");
             var start = stats.getAttribute("start");
             var end = stats.getAttribute("end");
+            var updated = stats.getAttribute("updated");
 
             $("#stats").append("<div class='period'>Stats for " + start + " - " + end + "</div>");
             $("#stats").append("<div class='activePlayers'>Active players: " + activePlayers + "</div>");
             $("#stats").append("<div class='gamesCount'>All games count: " + gamesCount + "</div>");
+            $("#stats").append("<div class='updated'>Updated: " + updated + " GMT</div>");
 
             var formatStats = stats.getElementsByTagName("formatStat");
             if (formatStats.length > 0) {
@@ -0,0 +1,71 @@
+package com.gempukku.swccgo.async;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class HttpRequestMetricsTests {
+	private static String Write(HttpRequestMetrics metrics) throws Exception {
+		StringWriter writer = new StringWriter();
+		metrics.writePrometheusText(writer);
+		return writer.toString();
+	}
+
+	@Test
+	public void UriPrefixIsTheFirstTwoSegments() {
+		assertEquals("/gemp-swccg-server/hall", HttpRequestMetrics.getUriPrefix("/gemp-swccg-server/hall/update"));
+		assertEquals("/gemp-swccg-server/hall", HttpRequestMetrics.getUriPrefix("/gemp-swccg-server/hall"));
+		assertEquals("/gemp-swccg", HttpRequestMetrics.getUriPrefix("/gemp-swccg"));
+		assertEquals("/", HttpRequestMetrics.getUriPrefix("/"));
+	}
+
+	@Test
+	public void ResponsesAreWrittenAsPrometheusText() throws Exception {
+		HttpRequestMetrics metrics = new HttpRequestMetrics();
+		metrics.recordResponse("/gemp-swccg-server/hall", 200, 2_000_000, false, 0, 100);
+		metrics.recordResponse("/gemp-swccg-server/hall", 200, 2_000_000, false, 0, 100);
+		metrics.recordResponse("/gemp-swccg-server/hall", 404, 1_000_000, false, 0, 50);
+		metrics.recordResponse("/gemp-swccg-server/game", 200, 1_000_000, true, 500_000_000, 20);
+
+		String text = Write(metrics);
+
+		assertTrue(text.contains("# TYPE gemp_http_responses_total counter\n"));
+		assertTrue(text.contains("gemp_http_responses_total{prefix=\"/gemp-swccg-server/hall\",status=\"200\"} 2\n"));
+		assertTrue(text.contains("gemp_http_responses_total{prefix=\"/gemp-swccg-server/hall\",status=\"404\"} 1\n"));
+		assertTrue(text.contains("# TYPE gemp_http_request_processing_seconds summary\n"));
+		assertTrue(text.contains("gemp_http_request_processing_seconds_count{prefix=\"/gemp-swccg-server/hall\"} 3\n"));
+		assertTrue(text.contains("gemp_http_request_processing_seconds_sum{prefix=\"/gemp-swccg-server/hall\"} 0.005000\n"));
+		assertTrue(text.contains("gemp_http_request_processing_seconds{prefix=\"/gemp-swccg-server/hall\",quantile=\"0.5\"} "));
+		assertTrue(text.contains("gemp_http_response_size_bytes_sum{prefix=\"/gemp-swccg-server/hall\"} 250\n"));
+		assertTrue(text.contains("gemp_http_response_size_bytes{prefix=\"/gemp-swccg-server/hall\",quantile=\"0.999\"} 100\n"));
+		// Only the long-polled requests have a wait time
+		assertTrue(text.contains("gemp_http_long_poll_wait_seconds_count{prefix=\"/gemp-swccg-server/game\"} 1\n"));
+		assertFalse(text.contains("gemp_http_long_poll_wait_seconds_count{prefix=\"/gemp-swccg-server/hall\"}"));
+	}
+
+	@Test
+	public void PrefixesOverTheLimitAreCountedAsOther() throws Exception {
+		HttpRequestMetrics metrics = new HttpRequestMetrics();
+		for (int i = 0; i < 100; i++)
+			metrics.recordResponse("/made-up/" + i, 404, 1000, false, 0, 0);
+		metrics.recordResponse("/made-up/100", 404, 1000, false, 0, 0);
+		metrics.recordResponse("/made-up/101", 404, 1000, false, 0, 0);
+		metrics.recordResponse("/made-up/0", 404, 1000, false, 0, 0);
+
+		String text = Write(metrics);
+
+		assertTrue(text.contains("gemp_http_responses_total{prefix=\"other\",status=\"404\"} 2\n"));
+		assertTrue(text.contains("gemp_http_responses_total{prefix=\"/made-up/0\",status=\"404\"} 2\n"));
+		assertFalse(text.contains("prefix=\"/made-up/100\""));
+	}
+
+	@Test
+	public void LabelValuesAreEscaped() throws Exception {
+		HttpRequestMetrics metrics = new HttpRequestMetrics();
+		metrics.recordResponse("/a\"b/c", 200, 1000, false, 0, 0);
+
+		assertTrue(Write(metrics).contains("gemp_http_responses_total{prefix=\"/a\\\"b/c\",status=\"200\"} 1\n"));
+	}
+}
@@ -0,0 +1,64 @@
+package com.gempukku.swccgo.async;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class SelectiveHttpContentCompressorTests {
+	private static HttpResponse Send(Object response) {
+		EmbeddedChannel channel = new EmbeddedChannel(new SelectiveHttpContentCompressor());
+		FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/gemp-swccg/script.js");
+		request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, "gzip");
+		channel.writeInbound(request);
+		ReferenceCountUtil.release(channel.readInbound());
+
+		channel.writeOutbound(response);
+		HttpResponse result = null;
+		HttpObject written;
+		while ((written = channel.readOutbound()) != null) {
+			if (written instanceof HttpResponse && result == null)
+				result = (HttpResponse) written;
+			else
+				ReferenceCountUtil.release(written);
+		}
+		channel.finishAndReleaseAll();
+		return result;
+	}
+
+	private static byte[] Content() {
+		return "a".repeat(2000).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void ResponseIsCompressed() {
+		HttpResponse response = Send(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(Content())));
+
+		assertEquals("gzip", response.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+	}
+
+	@Test
+	public void ResponseSentAsIsIsNotCompressedAndHasNoContentEncoding() {
+		HttpResponse response = Send(new SelectiveHttpContentCompressor.FullResponseSentAsIs(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+				Unpooled.wrappedBuffer(Content()), new DefaultHttpHeaders(), EmptyHttpHeaders.INSTANCE));
+
+		assertNotNull(response);
+		assertFalse(response.headers().contains(HttpHeaderNames.CONTENT_ENCODING));
+		ReferenceCountUtil.release(response);
+	}
+}
@@ -0,0 +1,99 @@
+package com.gempukku.swccgo.async;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+public class StaticFileCacheTests {
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	private File CreateFile(String name, int length) throws Exception {
+		File file = _folder.newFile(name);
+		FileUtils.writeByteArrayToFile(file, "a".repeat(length).getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	@Test
+	public void TextFileIsCachedWithGzipVariant() throws Exception {
+		File file = CreateFile("script.js", 1000);
+		StaticFileCache cache = new StaticFileCache(100000, 10000);
+
+		StaticFileCache.CachedFile cachedFile = cache.getFile(file);
+
+		assertSame(cachedFile, cache.getFile(file));
+		assertEquals(1000, cachedFile.getBytes().length);
+		assertNotNull(cachedFile.getGzipBytes());
+		byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(cachedFile.getGzipBytes())).readAllBytes();
+		assertArrayEquals(cachedFile.getBytes(), unzipped);
+		assertNotEquals(cachedFile.getETag(), cachedFile.getGzipETag());
+		assertEquals(StaticFileCache.getETag(file), cachedFile.getETag());
+	}
+
+	@Test
+	public void ImageHasNoGzipVariant() throws Exception {
+		StaticFileCache cache = new StaticFileCache(100000, 10000);
+
+		assertNull(cache.getFile(CreateFile("card.png", 1000)).getGzipBytes());
+	}
+
+	@Test
+	public void ChangedFileIsLoadedAgain() throws Exception {
+		File file = CreateFile("index.html", 1000);
+		StaticFileCache cache = new StaticFileCache(100000, 10000);
+		StaticFileCache.CachedFile cachedFile = cache.getFile(file);
+
+		FileUtils.writeByteArrayToFile(file, "b".repeat(500).getBytes(StandardCharsets.UTF_8));
+
+		StaticFileCache.CachedFile reloaded = cache.getFile(file);
+		assertNotSame(cachedFile, reloaded);
+		assertEquals(500, reloaded.getBytes().length);
+		assertEquals(1, cache.getFileCount());
+	}
+
+	@Test
+	public void LeastRecentlyUsedFilesAreEvictedOverByteLimit() throws Exception {
+		File first = CreateFile("first.png", 400);
+		File second = CreateFile("second.png", 400);
+		File third = CreateFile("third.png", 400);
+		StaticFileCache cache = new StaticFileCache(1000, 1000);
+
+		StaticFileCache.CachedFile cachedFirst = cache.getFile(first);
+		cache.getFile(second);
+		cache.getFile(first);
+		cache.getFile(third);
+
+		assertEquals(2, cache.getFileCount());
+		assertEquals(800, cache.getTotalBytes());
+		assertSame(cachedFirst, cache.getFile(first));
+	}
+
+	@Test
+	public void LargeFileIsNotCached() throws Exception {
+		StaticFileCache cache = new StaticFileCache(100000, 100);
+
+		assertNull(cache.getFile(CreateFile("large.js", 1000)));
+		assertEquals(0, cache.getFileCount());
+	}
+
+	@Test
+	public void GzipIsOnlyAcceptedWithPositiveQuality() {
+		assertTrue(StaticFileCache.acceptsGzip("gzip, deflate, br"));
+		assertTrue(StaticFileCache.acceptsGzip("deflate;q=1.0, gzip;q=0.5"));
+		assertTrue(StaticFileCache.acceptsGzip("*"));
+		assertFalse(StaticFileCache.acceptsGzip(null));
+		assertFalse(StaticFileCache.acceptsGzip("gzip;q=0"));
+		assertFalse(StaticFileCache.acceptsGzip("gzip; q=0.0, deflate"));
+		assertFalse(StaticFileCache.acceptsGzip("*;q=1, gzip;q=0"));
+		assertFalse(StaticFileCache.acceptsGzip("identity"));
+		assertFalse(StaticFileCache.acceptsGzip("xgzip"));
+	}
+}
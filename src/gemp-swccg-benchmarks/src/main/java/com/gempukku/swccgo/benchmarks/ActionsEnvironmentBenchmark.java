@@ -0,0 +1,56 @@
+package com.gempukku.swccgo.benchmarks;
+
+import com.gempukku.swccgo.common.Phase;
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.SwccgGame;
+import com.gempukku.swccgo.game.ActionsEnvironment;
+import com.gempukku.swccgo.logic.timing.Action;
+import com.gempukku.swccgo.logic.actions.TriggerAction;
+import com.gempukku.swccgo.logic.timing.EffectResult;
+import com.gempukku.swccgo.logic.timing.results.EndOfPhaseResult;
+import com.gempukku.swccgo.logic.timing.results.StartOfPhaseResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long DefaultActionsEnvironment takes to gather the triggers and actions for the loaded table, which
+ * is done after every effect and for every decision.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActionsEnvironmentBenchmark {
+    private SwccgGame _game;
+    private List<EffectResult> _effectResults;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        _game = new LoadedTable().getScenario().game();
+        _effectResults = Arrays.asList(new EndOfPhaseResult(Phase.ACTIVATE), new StartOfPhaseResult(Phase.CONTROL));
+    }
+
+    @Benchmark
+    public Map<TriggerAction, EffectResult> requiredAfterTriggers() {
+        ActionsEnvironment actionsEnvironment = _game.getActionsEnvironment();
+        return actionsEnvironment.getRequiredAfterTriggers(_effectResults);
+    }
+
+    @Benchmark
+    public Map<TriggerAction, EffectResult> optionalAfterTriggers() {
+        ActionsEnvironment actionsEnvironment = _game.getActionsEnvironment();
+        return actionsEnvironment.getOptionalAfterTriggers(VirtualTableScenario.LS, _effectResults);
+    }
+
+    @Benchmark
+    public List<Action> topLevelActions() {
+        ActionsEnvironment actionsEnvironment = _game.getActionsEnvironment();
+        return actionsEnvironment.getTopLevelActions(VirtualTableScenario.DS);
+    }
+}
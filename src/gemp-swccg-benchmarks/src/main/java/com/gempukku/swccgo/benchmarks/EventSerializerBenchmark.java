@@ -0,0 +1,67 @@
+package com.gempukku.swccgo.benchmarks;
+
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.SwccgGame;
+import com.gempukku.swccgo.game.state.EventSerializer;
+import com.gempukku.swccgo.game.state.GameCommunicationChannel;
+import com.gempukku.swccgo.game.state.GameEvent;
+import org.openjdk.jmh.annotations.*;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures EventSerializer output for the events that send the whole loaded table to a player (as when a player
+ * joins or a snapshot is restored), both building the document and writing it out as XML.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializerBenchmark {
+    private final EventSerializer _eventSerializer = new EventSerializer();
+    private List<GameEvent> _events;
+    private DocumentBuilder _documentBuilder;
+    private Transformer _transformer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SwccgGame game = new LoadedTable().getScenario().game();
+        GameCommunicationChannel channel = new GameCommunicationChannel(VirtualTableScenario.LS, 0);
+        game.getGameState().sendStateToPlayer(VirtualTableScenario.LS, channel, game.getGameStats(), false);
+        _events = channel.consumeGameEvents();
+
+        _documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        _transformer = TransformerFactory.newInstance().newTransformer();
+    }
+
+    @Benchmark
+    public Document serializeEvents() throws ParserConfigurationException {
+        Document doc = _documentBuilder.newDocument();
+        Element update = doc.createElement("update");
+        for (GameEvent event : _events)
+            update.appendChild(_eventSerializer.serializeEvent(doc, event));
+        doc.appendChild(update);
+        return doc;
+    }
+
+    @Benchmark
+    public String serializeEventsToXml() throws ParserConfigurationException, TransformerException {
+        StringWriter writer = new StringWriter();
+        _transformer.transform(new DOMSource(serializeEvents()), new StreamResult(writer));
+        return writer.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package com.gempukku.swccgo.benchmarks;
+
+import com.gempukku.swccgo.filters.Filter;
+import com.gempukku.swccgo.filters.Filters;
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.PhysicalCard;
+import com.gempukku.swccgo.game.SwccgGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Filters.filter and Filters.canSpot over the cards on the loaded table, with a simple category filter
+ * and with a compound filter that has to look at where each card is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FiltersBenchmark {
+    private SwccgGame _game;
+    private List<PhysicalCard> _cardsOnTable;
+    private Filter _characters;
+    private Filter _opponentsCharactersAtSite;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoadedTable table = new LoadedTable();
+        _game = table.getScenario().game();
+        _cardsOnTable = table.getCardsOnTable();
+        _characters = Filters.character;
+        _opponentsCharactersAtSite = Filters.and(Filters.owner(VirtualTableScenario.DS), Filters.character,
+                Filters.at(Filters.sameCardId(table.getScenario().GetLSStartingLocation())));
+    }
+
+    @Benchmark
+    public Collection<PhysicalCard> filterCharacters() {
+        return Filters.filter(_cardsOnTable, _game, _characters);
+    }
+
+    @Benchmark
+    public Collection<PhysicalCard> filterCompound() {
+        return Filters.filter(_cardsOnTable, _game, _opponentsCharactersAtSite);
+    }
+
+    @Benchmark
+    public boolean canSpotCompound() {
+        return Filters.canSpot(_cardsOnTable, _game, 3, _opponentsCharactersAtSite);
+    }
+}
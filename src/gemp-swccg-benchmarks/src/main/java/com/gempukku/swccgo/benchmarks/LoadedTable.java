@@ -0,0 +1,93 @@
+package com.gempukku.swccgo.benchmarks;
+
+import com.gempukku.swccgo.framework.StartingSetup;
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.PhysicalCard;
+import com.gempukku.swccgo.game.PhysicalCardImpl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Builds a table in a mid-game state for the benchmarks to run against, using the test framework.
+ *
+ * Each side has its starting site with both sides' characters present, a few more characters in hand and the
+ * rest of the deck in the Reserve Deck, and it is the Dark Side player's turn, waiting on the first decision.
+ */
+public class LoadedTable {
+    private static final int FILLERS_PER_SIDE = 24;
+    private static final int FILLERS_AT_EACH_SITE = 6;
+    private static final int FILLERS_IN_HAND = 4;
+
+    private final VirtualTableScenario _scenario;
+    private final List<PhysicalCard> _cardsOnTable = new ArrayList<PhysicalCard>();
+    private final List<PhysicalCard> _cardsInHand = new ArrayList<PhysicalCard>();
+
+    /**
+     * Creates and starts the loaded table.
+     */
+    public LoadedTable() {
+        _scenario = new VirtualTableScenario(
+                new HashMap<>() {{
+                    put("chewie", "200_5");
+                    put("protector", "10_3");
+                }},
+                new HashMap<>() {{
+                    put("boba", "5_91");
+                    put("vader", "7_175");
+                }},
+                FILLERS_PER_SIDE,
+                FILLERS_PER_SIDE,
+                StartingSetup.DefaultLSGroundLocation,
+                StartingSetup.DefaultDSGroundLocation,
+                StartingSetup.NoLSStartingInterrupts,
+                StartingSetup.NoDSStartingInterrupts,
+                StartingSetup.NoLSShields,
+                StartingSetup.NoDSShields,
+                VirtualTableScenario.Open);
+
+        PhysicalCardImpl lsSite = _scenario.GetLSStartingLocation();
+        PhysicalCardImpl dsSite = _scenario.GetDSStartingLocation();
+
+        _scenario.StartGame();
+
+        _scenario.MoveCardsToLocation(lsSite, _scenario.GetLSCard("chewie"), _scenario.GetDSCard("boba"));
+        _scenario.MoveCardsToLocation(dsSite, _scenario.GetLSCard("protector"), _scenario.GetDSCard("vader"));
+        int filler = 1;
+        for (int i = 0; i < FILLERS_AT_EACH_SITE; i++, filler++) {
+            _scenario.MoveCardsToLocation(lsSite, _scenario.GetLSFiller(filler), _scenario.GetDSFiller(filler));
+            _scenario.MoveCardsToLocation(dsSite, _scenario.GetLSFiller(filler + FILLERS_AT_EACH_SITE), _scenario.GetDSFiller(filler + FILLERS_AT_EACH_SITE));
+        }
+        filler += FILLERS_AT_EACH_SITE;
+        for (int i = 0; i < FILLERS_IN_HAND; i++, filler++)
+            _scenario.MoveCardsToHand(_scenario.GetLSFiller(filler), _scenario.GetDSFiller(filler));
+
+        for (PhysicalCard card : _scenario.gameState().getAllPermanentCards()) {
+            if (card.getZone() != null && card.getZone().isInPlay())
+                _cardsOnTable.add(card);
+        }
+        _cardsInHand.addAll(_scenario.gameState().getHand(VirtualTableScenario.LS));
+        _cardsInHand.addAll(_scenario.gameState().getHand(VirtualTableScenario.DS));
+    }
+
+    public VirtualTableScenario getScenario() {
+        return _scenario;
+    }
+
+    /**
+     * Gets the cards in play (locations and the characters at them).
+     * @return the cards in play
+     */
+    public List<PhysicalCard> getCardsOnTable() {
+        return _cardsOnTable;
+    }
+
+    /**
+     * Gets the cards in both players' hands.
+     * @return the cards in hand
+     */
+    public List<PhysicalCard> getCardsInHand() {
+        return _cardsInHand;
+    }
+}
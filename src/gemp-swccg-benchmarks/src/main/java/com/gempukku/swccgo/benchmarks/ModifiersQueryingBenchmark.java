@@ -0,0 +1,59 @@
+package com.gempukku.swccgo.benchmarks;
+
+import com.gempukku.swccgo.game.PhysicalCard;
+import com.gempukku.swccgo.game.SwccgGame;
+import com.gempukku.swccgo.game.state.GameState;
+import com.gempukku.swccgo.logic.modifiers.querying.ModifiersQuerying;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the ModifiersLogic queries made most often while deciding what can be done: power, destiny and deploy
+ * cost. Each invocation queries every relevant card on the loaded table once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModifiersQueryingBenchmark {
+    private SwccgGame _game;
+    private List<PhysicalCard> _cardsOnTable;
+    private List<PhysicalCard> _cardsInHand;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoadedTable table = new LoadedTable();
+        _game = table.getScenario().game();
+        _cardsOnTable = table.getCardsOnTable();
+        _cardsInHand = table.getCardsInHand();
+    }
+
+    @Benchmark
+    public void power(Blackhole blackhole) {
+        GameState gameState = _game.getGameState();
+        ModifiersQuerying modifiersQuerying = _game.getModifiersQuerying();
+        for (PhysicalCard card : _cardsOnTable)
+            blackhole.consume(modifiersQuerying.getPower(gameState, card));
+    }
+
+    @Benchmark
+    public void destiny(Blackhole blackhole) {
+        GameState gameState = _game.getGameState();
+        ModifiersQuerying modifiersQuerying = _game.getModifiersQuerying();
+        for (PhysicalCard card : _cardsOnTable)
+            blackhole.consume(modifiersQuerying.getDestiny(gameState, card));
+    }
+
+    @Benchmark
+    public void deployCost(Blackhole blackhole) {
+        GameState gameState = _game.getGameState();
+        ModifiersQuerying modifiersQuerying = _game.getModifiersQuerying();
+        for (PhysicalCard card : _cardsInHand)
+            blackhole.consume(modifiersQuerying.getDeployCost(gameState, card));
+    }
+}
@@ -0,0 +1,56 @@
+package com.gempukku.swccgo.benchmarks;
+
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.state.GameCommunicationChannel;
+import com.gempukku.swccgo.logic.timing.DefaultSwccgGame;
+import com.gempukku.swccgo.logic.timing.GameSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DefaultSwccgGame.takeSnapshot followed by restoring that snapshot (as a player reverting the game does),
+ * both for the bare game and with a player listening, who is sent the whole restored game state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+    private DefaultSwccgGame _game;
+    private GameCommunicationChannel _listener;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        _game = new LoadedTable().getScenario().game();
+    }
+
+    @Benchmark
+    public int takeAndRestoreSnapshot() {
+        return takeAndRestore();
+    }
+
+    @Benchmark
+    public int takeAndRestoreSnapshotWithListener() {
+        if (_listener == null) {
+            _listener = new GameCommunicationChannel(VirtualTableScenario.LS, 0);
+            _game.addGameStateListener(VirtualTableScenario.LS, _listener);
+        }
+        int snapshotId = takeAndRestore();
+        // Drop the events so they do not pile up between invocations
+        _listener.consumeGameEvents();
+        return snapshotId;
+    }
+
+    private int takeAndRestore() {
+        _game.takeSnapshot("Benchmark");
+        List<GameSnapshot> snapshots = _game.getSnapshots();
+        int snapshotId = snapshots.get(snapshots.size() - 1).getId();
+        _game.requestRestoreSnapshot(snapshotId);
+        _game.carryOutPendingActionsUntilDecisionNeeded();
+        return snapshotId;
+    }
+}
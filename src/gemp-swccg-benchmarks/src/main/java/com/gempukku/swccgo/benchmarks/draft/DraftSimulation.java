@@ -0,0 +1,201 @@
+package com.gempukku.swccgo.benchmarks.draft;
+
+import com.gempukku.swccgo.benchmarks.server.EmptyDao;
+import com.gempukku.swccgo.benchmarks.server.InMemoryCollectionDAO;
+import com.gempukku.swccgo.benchmarks.server.InMemoryPlayerDAO;
+import com.gempukku.swccgo.collection.CollectionsManager;
+import com.gempukku.swccgo.collection.TransferDAO;
+import com.gempukku.swccgo.db.vo.CollectionType;
+import com.gempukku.swccgo.draft.DefaultDraft;
+import com.gempukku.swccgo.draft.DraftPack;
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.DefaultCardCollection;
+import com.gempukku.swccgo.packagedProduct.PackRandom;
+import com.gempukku.swccgo.packagedProduct.PackagedCardProduct;
+import com.gempukku.swccgo.packagedProduct.PackagedProductStorage;
+import com.gempukku.util.ConcurrentHistogram;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs drafts in process, without a database or network, with simulated players that pick a random card from each
+ * pack after a random think time. For each table size it reports the pick throughput, the time each player waited
+ * from their pick until their next pack (which is how long the other players took plus the time to advance the
+ * draft), and the picks that were forced because the pick time ran out.
+ *
+ * The packs are synthetic boosters of random card ids, and the collections are kept in memory. The simulated players
+ * poll the draft for their next pack, like the draft page does when its long poll returns.
+ *
+ * Usage: DraftSimulation [player counts] [drafts per player count] [packs per draft] [max think ms] [pick time ms] [seed]
+ * For example, with the benchmarks jar: java -cp benchmarks.jar com.gempukku.swccgo.benchmarks.draft.DraftSimulation
+ * 8,16,32,64 4 3 20 5000
+ */
+public class DraftSimulation {
+    private static final long POLL_INTERVAL_MS = 1;
+    private static final String BOOSTER_NAME = "Simulated Booster";
+    private static final int CARDS_PER_BOOSTER = 15;
+    private static final int CARDS_IN_SET = 300;
+
+    public static void main(String[] args) throws Exception {
+        String playerCounts = args.length > 0 ? args[0] : "8,16,32,64";
+        int draftCount = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int packCount = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int maxThinkMs = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        long pickTimeMs = args.length > 4 ? Long.parseLong(args[4]) : 5000;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+
+        PrintStream out = System.out;
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for (String playerCount : playerCounts.split(","))
+                runDrafts(Integer.parseInt(playerCount.trim()), draftCount, packCount, maxThinkMs, pickTimeMs, seed, executor, out);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void runDrafts(int playerCount, int draftCount, int packCount, int maxThinkMs, long pickTimeMs, long seed,
+                                  ScheduledExecutorService executor, PrintStream out) throws InterruptedException {
+        InMemoryPlayerDAO playerDAO = new InMemoryPlayerDAO();
+        CollectionsManager collectionsManager = new CollectionsManager(playerDAO, new InMemoryCollectionDAO(), EmptyDao.create(TransferDAO.class),
+                Collections.<String>emptyList(), Collections.<String>emptyList());
+        PackagedProductStorage packagedProductStorage = new PackagedProductStorage();
+        packagedProductStorage.addPackagedProduct(BOOSTER_NAME, new SimulatedBooster());
+
+        List<String> packs = new ArrayList<>();
+        for (int i = 0; i < packCount; i++)
+            packs.add(BOOSTER_NAME);
+        DraftPack draftPack = new DraftPack(new DefaultCardCollection(), packs);
+        CollectionType collectionType = new CollectionType("simulatedDraft", "Simulated draft");
+
+        SplittableRandom random = new SplittableRandom(seed);
+        CountDownLatch finished = new CountDownLatch(draftCount * playerCount);
+        List<SimulatedDrafter> drafters = new ArrayList<>();
+        List<DefaultDraft> drafts = new ArrayList<>();
+        for (int i = 0; i < draftCount; i++) {
+            Set<String> players = new HashSet<>();
+            for (int j = 0; j < playerCount; j++) {
+                String playerName = "drafter" + i + "_" + j;
+                playerDAO.registerPlayer(playerName, "", "127.0.0.1");
+                players.add(playerName);
+            }
+            DefaultDraft draft = new DefaultDraft(collectionsManager, collectionType, packagedProductStorage, draftPack, players, pickTimeMs);
+            drafts.add(draft);
+            for (String player : players)
+                drafters.add(new SimulatedDrafter(draft, player, maxThinkMs, random.split(), executor, finished));
+        }
+
+        long start = System.nanoTime();
+        for (DefaultDraft draft : drafts)
+            draft.advanceDraft(null);
+        for (SimulatedDrafter drafter : drafters)
+            executor.execute(drafter::poll);
+        finished.await();
+        long elapsed = System.nanoTime() - start;
+
+        ConcurrentHistogram waitTimes = new ConcurrentHistogram();
+        long picks = 0;
+        for (SimulatedDrafter drafter : drafters) {
+            waitTimes.add(drafter._waitTimes);
+            picks += drafter._picks;
+        }
+        long cards = (long) draftCount * playerCount * packCount * CARDS_PER_BOOSTER;
+        out.println(String.format("%d drafts of %d players: %d picks in %.1f s, %.0f picks/s, %d forced picks",
+                draftCount, playerCount, cards, elapsed / 1e9, cards / (elapsed / 1e9), cards - picks));
+        out.println(String.format("Wait for next pack (%d): mean %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms", waitTimes.getTotalCount(),
+                waitTimes.getMean() / 1e6, waitTimes.getValueAtPercentile(50) / 1e6, waitTimes.getValueAtPercentile(99) / 1e6,
+                waitTimes.getMaxValue() / 1e6));
+    }
+
+    /**
+     * A player in a draft, which polls for its next pack and picks a random card from it after thinking for a while.
+     * The actions of each drafter run one after another, so its fields are not shared between threads at the same time.
+     */
+    private static class SimulatedDrafter {
+        private final DefaultDraft _draft;
+        private final String _playerName;
+        private final int _maxThinkMs;
+        private final SplittableRandom _random;
+        private final ScheduledExecutorService _executor;
+        private final CountDownLatch _finished;
+
+        private final ConcurrentHistogram _waitTimes = new ConcurrentHistogram();
+        private long _pickedTime;
+        private long _picks;
+
+        private SimulatedDrafter(DefaultDraft draft, String playerName, int maxThinkMs, SplittableRandom random,
+                                 ScheduledExecutorService executor, CountDownLatch finished) {
+            _draft = draft;
+            _playerName = playerName;
+            _maxThinkMs = maxThinkMs;
+            _random = random;
+            _executor = executor;
+            _finished = finished;
+        }
+
+        private void poll() {
+            if (_draft.isFinished()) {
+                _finished.countDown();
+                return;
+            }
+
+            CardCollection pack = _draft.getCardChoice(_playerName).getCardCollection();
+            if (pack != null && !pack.getAll().isEmpty()) {
+                if (_pickedTime != 0)
+                    _waitTimes.record(System.nanoTime() - _pickedTime);
+                List<String> cardIds = new ArrayList<>(pack.getAll().keySet());
+                String cardId = cardIds.get(_random.nextInt(cardIds.size()));
+                _executor.schedule(() -> pick(cardId), _maxThinkMs > 0 ? _random.nextInt(_maxThinkMs + 1) : 0, TimeUnit.MILLISECONDS);
+            } else {
+                _executor.schedule(this::poll, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void pick(String cardId) {
+            if (_draft.getCardChoice(_playerName).getCardCollection() != null) {
+                _draft.playerChosenCard(_playerName, cardId);
+                _picks++;
+            }
+            _pickedTime = System.nanoTime();
+            poll();
+        }
+    }
+
+    /**
+     * A booster of random cards from a synthetic set.
+     */
+    private static class SimulatedBooster implements PackagedCardProduct {
+        @Override
+        public String getProductName() {
+            return BOOSTER_NAME;
+        }
+
+        @Override
+        public float getProductPrice() {
+            return 0;
+        }
+
+        @Override
+        public List<CardCollection.Item> openPackage() {
+            List<CardCollection.Item> result = new ArrayList<>();
+            for (int i = 0; i < CARDS_PER_BOOSTER; i++)
+                result.add(CardCollection.Item.createItem("1_" + (PackRandom.getInstance().nextInt(CARDS_IN_SET) + 1), 1));
+            return result;
+        }
+
+        @Override
+        public List<CardCollection.Item> openPackageWithExclusions(List<String> exclusions) {
+            return openPackage();
+        }
+    }
+}
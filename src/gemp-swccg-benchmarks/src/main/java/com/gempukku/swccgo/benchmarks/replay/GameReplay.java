@@ -0,0 +1,195 @@
+package com.gempukku.swccgo.benchmarks.replay;
+
+import com.gempukku.swccgo.common.GameEndReason;
+import com.gempukku.swccgo.db.DeckSerialization;
+import com.gempukku.swccgo.game.GameDecisionLog;
+import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.game.SwccgFormat;
+import com.gempukku.swccgo.game.state.GameCommunicationChannel;
+import com.gempukku.swccgo.game.state.GameEvent;
+import com.gempukku.swccgo.logic.decisions.AwaitingDecision;
+import com.gempukku.swccgo.logic.decisions.DecisionResultInvalidException;
+import com.gempukku.swccgo.logic.timing.DefaultSwccgGame;
+import com.gempukku.swccgo.logic.timing.DefaultUserFeedback;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import com.gempukku.util.ConcurrentHistogram;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plays a game again from its decision log, putting each logged entry into a new game the same way
+ * SwccgGameMediator put it into the original game, and collects the events each player would have been sent (the
+ * same events GameRecorder saves as the replays of the game).
+ */
+public class GameReplay {
+    private final DefaultSwccgGame _game;
+    private final DefaultUserFeedback _userFeedback;
+    private final GameDecisionLog _decisionLog;
+    private final Map<String, GameCommunicationChannel> _channels = new LinkedHashMap<>();
+    private final ConcurrentHistogram _decisionTimes = new ConcurrentHistogram();
+    private int _invalidDecisions;
+    private int _skippedDecisions;
+    private RuntimeException _error;
+
+    /**
+     * Creates a game from a decision log, ready to be replayed.
+     * @param library the card library
+     * @param format the format of the game
+     * @param decisionLog the decision log
+     */
+    public GameReplay(SwccgCardBlueprintLibrary library, SwccgFormat format, GameDecisionLog decisionLog) {
+        _decisionLog = decisionLog;
+        Map<String, SwccgDeck> decks = new HashMap<>();
+        Map<String, Integer> playerClocks = new HashMap<>();
+        for (Map.Entry<String, String> deckContents : decisionLog.getDeckContents().entrySet()) {
+            decks.put(deckContents.getKey(), DeckSerialization.buildDeckFromContents(deckContents.getKey(), deckContents.getValue(), library));
+            playerClocks.put(deckContents.getKey(), 0);
+        }
+
+        _userFeedback = new DefaultUserFeedback();
+        _game = new DefaultSwccgGame(format, decks, _userFeedback, library, playerClocks, decisionLog.isUseBonusAbilities(), decisionLog.getRandomSeed());
+        _userFeedback.setGame(_game);
+    }
+
+    /**
+     * Plays all the entries of the decision log.
+     * @return true if the game was played to the end of the log, false if the game engine threw an exception other
+     * than while processing a decision (after which the original game could not go on either)
+     */
+    public boolean play() {
+        for (GameDecisionLog.Entry entry : _decisionLog.getEntries()) {
+            // The recording channels are added right before the game is started, after the opening messages
+            if (_channels.isEmpty() && entry.getType() != GameDecisionLog.EntryType.MESSAGE)
+                addRecordingChannels();
+            try {
+                playEntry(entry);
+            } catch (RuntimeException exp) {
+                _error = exp;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addRecordingChannels() {
+        for (String playerId : _decisionLog.getDeckContents().keySet()) {
+            GameCommunicationChannel channel = new GameCommunicationChannel(playerId, 0);
+            _game.addGameStateListener(playerId, channel);
+            _channels.put(playerId, channel);
+        }
+    }
+
+    private void playEntry(GameDecisionLog.Entry entry) {
+        String playerId = entry.getPlayerId();
+        switch (entry.getType()) {
+            case START:
+                _game.startGame();
+                break;
+            case DECISION:
+                playDecision(playerId, entry.getNumber(), entry.getValue());
+                break;
+            case MESSAGE:
+                _game.getGameState().sendMessage(entry.getValue());
+                break;
+            case PLAYER_LOST:
+                _game.playerLost(playerId, GameEndReason.valueOf(entry.getValue()));
+                break;
+            case AUTO_CANCEL:
+                _game.performAutoCancelGame();
+                break;
+            case REQUEST_CANCEL:
+                _game.requestCancel(playerId);
+                break;
+            case EXTEND_GAME_TIMER:
+                _game.requestExtendGameTimer(playerId, entry.getNumber());
+                break;
+            case DISABLE_ACTION_TIMER:
+                _game.requestDisableActionTimer(playerId);
+                break;
+            case AUTO_PASS:
+                _game.setPlayerAutoPassSettings(playerId, entry.getAutoPassPhases());
+                break;
+            case ABORT:
+                // Follows an exception from the game engine, which the replay aborts on by itself if it plays the same way
+                break;
+        }
+    }
+
+    private void playDecision(String playerId, int decisionId, String answer) {
+        AwaitingDecision awaitingDecision = _userFeedback.getAwaitingDecision(playerId);
+        if (awaitingDecision == null || awaitingDecision.getAwaitingDecisionId() != decisionId || _game.isFinished()) {
+            // Ignored by the original game too, unless the replay has already diverged
+            _skippedDecisions++;
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            _userFeedback.participantDecided(playerId);
+            awaitingDecision.decisionMade(answer);
+            _game.carryOutPendingActionsUntilDecisionNeeded();
+        } catch (DecisionResultInvalidException exp) {
+            _userFeedback.sendWarning(playerId, exp.getWarningMessage());
+            _userFeedback.sendAwaitingDecision(playerId, awaitingDecision);
+            _invalidDecisions++;
+        } catch (RuntimeException exp) {
+            // The original game was aborted too, and went on with any entries after that
+            if (_error == null)
+                _error = exp;
+            _game.abortGame();
+        } finally {
+            _decisionTimes.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the events each player was sent, taking them (so this can only be called once).
+     * @return the events, by player
+     */
+    public Map<String, List<GameEvent>> consumeGameEvents() {
+        Map<String, List<GameEvent>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, GameCommunicationChannel> channel : _channels.entrySet())
+            result.put(channel.getKey(), channel.getValue().consumeGameEvents());
+        return result;
+    }
+
+    public DefaultSwccgGame getGame() {
+        return _game;
+    }
+
+    /**
+     * Gets the time taken to process each decision, in nanoseconds.
+     * @return the decision times
+     */
+    public ConcurrentHistogram getDecisionTimes() {
+        return _decisionTimes;
+    }
+
+    /**
+     * Gets the number of decisions answered with an invalid answer (which the original game rejected too, unless
+     * the replay diverged).
+     * @return the number of invalid decisions
+     */
+    public int getInvalidDecisions() {
+        return _invalidDecisions;
+    }
+
+    /**
+     * Gets the number of logged answers that did not match a decision awaiting in the replay.
+     * @return the number of skipped decisions
+     */
+    public int getSkippedDecisions() {
+        return _skippedDecisions;
+    }
+
+    /**
+     * Gets the first exception thrown by the game engine during the replay.
+     * @return the exception, or null
+     */
+    public RuntimeException getError() {
+        return _error;
+    }
+}
@@ -0,0 +1,210 @@
+package com.gempukku.swccgo.benchmarks.replay;
+
+import com.gempukku.swccgo.game.GameDecisionLog;
+import com.gempukku.swccgo.game.GameRecorder;
+import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.game.SwccgFormat;
+import com.gempukku.swccgo.game.formats.SwccgoFormatLibrary;
+import com.gempukku.swccgo.game.state.EventSerializer;
+import com.gempukku.swccgo.game.state.GameEvent;
+import com.gempukku.util.ConcurrentHistogram;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Plays recorded games again from their decision logs at full speed, reports how long the game engine took, and
+ * checks that the replayed games sent each player the same events as the recorded games. That makes the decision
+ * logs of production games a corpus for checking both the speed and the behavior of changes to the game engine.
+ *
+ * The events are compared to the replays saved for the game in the application root, if given and found, otherwise
+ * to a second replay of the decision log (which only checks that the engine plays the log the same way every time).
+ *
+ * Usage: ReplayCheck [-root application-root] decision-log-file-or-folder...
+ * For example, with the benchmarks jar: java -cp benchmarks.jar com.gempukku.swccgo.benchmarks.replay.ReplayCheck
+ * -root /opt/gemp-swccg /opt/gemp-swccg/decisionLogs
+ */
+public class ReplayCheck {
+    private final SwccgCardBlueprintLibrary _library;
+    private final SwccgoFormatLibrary _formatLibrary;
+    private final File _applicationRoot;
+    private final DocumentBuilder _documentBuilder;
+    private final ConcurrentHistogram _decisionTimes = new ConcurrentHistogram();
+
+    public ReplayCheck(SwccgCardBlueprintLibrary library, SwccgoFormatLibrary formatLibrary, File applicationRoot) throws Exception {
+        _library = library;
+        _formatLibrary = formatLibrary;
+        _applicationRoot = applicationRoot;
+        _documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+    }
+
+    /**
+     * Replays a game and compares its events.
+     * @param decisionLog the decision log of the game
+     * @return a description of the first difference found, or null if the events are the same
+     * @throws Exception if the recorded events cannot be read
+     */
+    public String check(GameDecisionLog decisionLog) throws Exception {
+        SwccgFormat format = getFormat(decisionLog.getFormatName());
+        if (format == null)
+            return "unknown format " + decisionLog.getFormatName();
+
+        GameReplay replay = new GameReplay(_library, format, decisionLog);
+        boolean played = replay.play();
+        _decisionTimes.add(replay.getDecisionTimes());
+        if (!played)
+            return "game engine failed: " + replay.getError();
+        Map<String, List<GameEvent>> replayedEvents = replay.consumeGameEvents();
+
+        for (Map.Entry<String, List<GameEvent>> playerEvents : replayedEvents.entrySet()) {
+            String playerId = playerEvents.getKey();
+            List<Element> replayed = serialize(playerEvents.getValue());
+            List<Element> expected = readRecording(playerId, decisionLog.getRecordingIds().get(playerId));
+            if (expected == null) {
+                GameReplay secondReplay = new GameReplay(_library, format, decisionLog);
+                secondReplay.play();
+                expected = serialize(secondReplay.consumeGameEvents().get(playerId));
+            }
+            String difference = compare(playerId, expected, replayed);
+            if (difference != null)
+                return difference;
+        }
+        return null;
+    }
+
+    public ConcurrentHistogram getDecisionTimes() {
+        return _decisionTimes;
+    }
+
+    private SwccgFormat getFormat(String formatName) {
+        for (SwccgFormat format : _formatLibrary.getAllFormats().values()) {
+            if (format.getName().equals(formatName))
+                return format;
+        }
+        return null;
+    }
+
+    private List<Element> serialize(List<GameEvent> events) {
+        Document doc = _documentBuilder.newDocument();
+        EventSerializer serializer = new EventSerializer();
+        List<Element> result = new ArrayList<>(events.size());
+        for (GameEvent event : events)
+            result.add((Element) serializer.serializeEvent(doc, event));
+        return result;
+    }
+
+    private List<Element> readRecording(String playerId, String recordingId) throws Exception {
+        if (_applicationRoot == null || recordingId == null)
+            return null;
+        File recordingFile = GameRecorder.getRecordingFile(_applicationRoot, playerId, recordingId);
+        if (!recordingFile.isFile())
+            return null;
+
+        Document doc;
+        try (InputStream inputStream = new InflaterInputStream(new FileInputStream(recordingFile))) {
+            doc = _documentBuilder.parse(inputStream);
+        }
+        List<Element> result = new ArrayList<>();
+        NodeList children = doc.getDocumentElement().getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i).getNodeType() == Node.ELEMENT_NODE)
+                result.add((Element) children.item(i));
+        }
+        return result;
+    }
+
+    private static String compare(String playerId, List<Element> expected, List<Element> replayed) throws Exception {
+        int count = Math.min(expected.size(), replayed.size());
+        for (int i = 0; i < count; i++) {
+            if (!expected.get(i).isEqualNode(replayed.get(i)))
+                return "events of " + playerId + " differ at event " + i + ":\n    expected " + toString(expected.get(i)) + "\n    replayed " + toString(replayed.get(i));
+        }
+        if (expected.size() != replayed.size())
+            return "events of " + playerId + " differ in count: expected " + expected.size() + ", replayed " + replayed.size();
+        return null;
+    }
+
+    private static String toString(Element element) throws Exception {
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        StringWriter writer = new StringWriter();
+        transformer.transform(new DOMSource(element), new StreamResult(writer));
+        return writer.toString();
+    }
+
+    private static void addDecisionLogFiles(File file, List<File> result) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                Arrays.sort(children);
+                for (File child : children)
+                    addDecisionLogFiles(child, result);
+            }
+        } else if (file.getName().endsWith(".json.gz")) {
+            result.add(file);
+        }
+    }
+
+    private static GameDecisionLog readDecisionLog(File file) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(new FileInputStream(file))) {
+            return GameDecisionLog.read(inputStream);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        File applicationRoot = null;
+        List<File> decisionLogFiles = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-root") && i + 1 < args.length)
+                applicationRoot = new File(args[++i]);
+            else
+                addDecisionLogFiles(new File(args[i]), decisionLogFiles);
+        }
+        if (decisionLogFiles.isEmpty()) {
+            System.err.println("Usage: ReplayCheck [-root application-root] decision-log-file-or-folder...");
+            System.exit(1);
+        }
+
+        SwccgCardBlueprintLibrary library = new SwccgCardBlueprintLibrary();
+        ReplayCheck replayCheck = new ReplayCheck(library, new SwccgoFormatLibrary(library), applicationRoot);
+
+        int differentGames = 0;
+        long start = System.nanoTime();
+        for (File file : decisionLogFiles) {
+            GameDecisionLog decisionLog = readDecisionLog(file);
+            String difference = replayCheck.check(decisionLog);
+            if (difference != null) {
+                differentGames++;
+                System.out.println(decisionLog.getGameId() + ": " + difference);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        ConcurrentHistogram decisionTimes = replayCheck.getDecisionTimes();
+        System.out.println(String.format("%d games replayed in %.1f s, %d with different events", decisionLogFiles.size(), seconds, differentGames));
+        System.out.println(String.format("Time per decision: mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us",
+                decisionTimes.getMean() / 1000, decisionTimes.getValueAtPercentile(50) / 1000.0,
+                decisionTimes.getValueAtPercentile(99) / 1000.0, decisionTimes.getMaxValue() / 1000.0));
+        System.exit(differentGames > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.gempukku.swccgo.benchmarks.selfplay;
+
+import com.gempukku.swccgo.common.Side;
+import com.gempukku.swccgo.db.DeckSerialization;
+import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads decklists for self-play. Each line of a decklist file is one deck, either as a deck insert statement like
+ * the ones in db-scripts/sample_decks.sql, or as a name and the deck contents (as stored in the deck table)
+ * separated by a tab. Blank lines, lines starting with -- or # and lines that cannot be read as a deck are skipped.
+ */
+public class DeckListReader {
+    private static final Pattern INSERT_VALUES = Pattern.compile("(?:'((?:[^']|'')*)'|\"([^\"]*)\")\\s*,\\s*'((?:[^']|'')*)'\\s*\\)\\s*;?\\s*$");
+
+    private final SwccgCardBlueprintLibrary _library;
+    private final List<SwccgDeck> _darkDecks = new ArrayList<>();
+    private final List<SwccgDeck> _lightDecks = new ArrayList<>();
+
+    public DeckListReader(SwccgCardBlueprintLibrary library) {
+        _library = library;
+    }
+
+    /**
+     * Reads the decks from the decklist file, sorting them by side. Decks with cards from both sides or with
+     * unknown cards are skipped.
+     * @param file the decklist file
+     * @return the number of decks read
+     * @throws IOException if the file cannot be read
+     */
+    public int read(Path file) throws IOException {
+        int count = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("--") || line.startsWith("#"))
+                continue;
+
+            String name;
+            String contents;
+            Matcher matcher = INSERT_VALUES.matcher(line);
+            if (matcher.find()) {
+                name = matcher.group(1) != null ? matcher.group(1).replace("''", "'") : matcher.group(2);
+                contents = matcher.group(3);
+            } else if (!line.regionMatches(true, 0, "insert", 0, 6)) {
+                int tab = line.indexOf('\t');
+                name = tab >= 0 ? line.substring(0, tab) : file.getFileName() + ":" + count;
+                contents = line.substring(tab + 1);
+            } else {
+                continue;
+            }
+
+            Side side;
+            SwccgDeck deck;
+            try {
+                deck = DeckSerialization.buildDeckFromContents(name, contents, _library);
+                side = deck.getSide(_library);
+            } catch (RuntimeException exp) {
+                // Not a deck of known cards
+                continue;
+            }
+            if (side == Side.DARK)
+                _darkDecks.add(deck);
+            else if (side == Side.LIGHT)
+                _lightDecks.add(deck);
+            else
+                continue;
+            count++;
+        }
+        return count;
+    }
+
+    public List<SwccgDeck> getDarkDecks() {
+        return _darkDecks;
+    }
+
+    public List<SwccgDeck> getLightDecks() {
+        return _lightDecks;
+    }
+}
@@ -0,0 +1,135 @@
+package com.gempukku.swccgo.benchmarks.selfplay;
+
+import com.gempukku.swccgo.logic.decisions.AwaitingDecision;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Answers any awaiting decision with a random legal choice, working only from the decision parameters that are sent
+ * to the client, so every decision type is answered the same way a player's browser would answer it.
+ */
+public class RandomDecisionMaker {
+    // The range of values tried when an integer decision has no maximum
+    private static final int UNBOUNDED_INTEGER_RANGE = 6;
+
+    private final Random _random;
+
+    /**
+     * Creates a random decision maker.
+     * @param random the source of all choices made
+     */
+    public RandomDecisionMaker(Random random) {
+        _random = random;
+    }
+
+    /**
+     * Gets a random legal answer to the decision.
+     * @param decision the decision
+     * @return the answer, in the same form as sent by the client
+     */
+    public String answer(AwaitingDecision decision) {
+        Map<String, String[]> params = decision.getDecisionParameters();
+        switch (decision.getDecisionType()) {
+            case INTEGER:
+                return answerInteger(params);
+            case MULTIPLE_CHOICE:
+                return String.valueOf(_random.nextInt(params.get("results").length));
+            case ARBITRARY_CARDS:
+                return answerArbitraryCards(params);
+            case CARD_ACTION_CHOICE:
+                return answerCardActionChoice(params);
+            case ACTION_CHOICE:
+                return String.valueOf(_random.nextInt(params.get("actionId").length));
+            case CARD_SELECTION:
+                return answerCardSelection(params);
+            case EMPTY:
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Gets the answer to fall back on when random answers keep being rejected, which is to pass or choose as little
+     * as possible.
+     * @param decision the decision
+     * @return the answer
+     */
+    public String fallbackAnswer(AwaitingDecision decision) {
+        switch (decision.getDecisionType()) {
+            case INTEGER:
+                String[] min = decision.getDecisionParameters().get("min");
+                return min != null ? min[0] : "0";
+            case MULTIPLE_CHOICE:
+            case ACTION_CHOICE:
+                return "0";
+            default:
+                return "";
+        }
+    }
+
+    private String answerInteger(Map<String, String[]> params) {
+        Integer min = getInteger(params, "min");
+        Integer max = getInteger(params, "max");
+        if (min == null && max == null) {
+            Integer defaultValue = getInteger(params, "defaultValue");
+            return String.valueOf(defaultValue != null ? defaultValue : 0);
+        }
+        if (min == null)
+            min = Math.min(0, max);
+        if (max == null)
+            max = min + UNBOUNDED_INTEGER_RANGE - 1;
+        return String.valueOf(min + _random.nextInt(max - min + 1));
+    }
+
+    private String answerCardActionChoice(Map<String, String[]> params) {
+        int actionCount = params.get("actionId").length;
+        boolean noPass = Boolean.parseBoolean(params.get("noPass")[0]);
+        // Passing is one more legal choice, unless it is not allowed
+        int choice = _random.nextInt(noPass ? actionCount : actionCount + 1);
+        return choice < actionCount ? String.valueOf(choice) : "";
+    }
+
+    private String answerArbitraryCards(Map<String, String[]> params) {
+        String[] cardIds = params.get("cardId");
+        String[] selectable = params.get("selectable");
+        List<String> choices = new ArrayList<>(cardIds.length);
+        for (int i = 0; i < cardIds.length; i++) {
+            if (Boolean.parseBoolean(selectable[i]))
+                choices.add(cardIds[i]);
+        }
+        return chooseCards(choices, getInteger(params, "min"), getInteger(params, "max"));
+    }
+
+    private String answerCardSelection(Map<String, String[]> params) {
+        List<String> choices = new ArrayList<>();
+        Collections.addAll(choices, params.get("cardId"));
+        return chooseCards(choices, getInteger(params, "min"), getInteger(params, "max"));
+    }
+
+    private String chooseCards(List<String> choices, Integer min, Integer max) {
+        int minimum = Math.min(min != null ? min : 0, choices.size());
+        int maximum = Math.min(max != null ? max : choices.size(), choices.size());
+        if (maximum < minimum)
+            maximum = minimum;
+        int count = minimum + _random.nextInt(maximum - minimum + 1);
+
+        // Partial shuffle, only the first count choices need to be random
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            Collections.swap(choices, i, i + _random.nextInt(choices.size() - i));
+            if (i > 0)
+                sb.append(",");
+            sb.append(choices.get(i));
+        }
+        return sb.toString();
+    }
+
+    private static Integer getInteger(Map<String, String[]> params, String name) {
+        String[] value = params.get(name);
+        return value != null ? Integer.valueOf(value[0]) : null;
+    }
+}
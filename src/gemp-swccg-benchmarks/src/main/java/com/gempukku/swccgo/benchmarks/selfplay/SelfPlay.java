@@ -0,0 +1,113 @@
+package com.gempukku.swccgo.benchmarks.selfplay;
+
+import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.game.SwccgFormat;
+import com.gempukku.swccgo.game.formats.SwccgoFormatLibrary;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import com.gempukku.util.ConcurrentHistogram;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Plays games between random decks from a decklist file with both sides making random legal decisions, and reports
+ * the throughput of the game engine. Each game gets its own seed, split in order from the run seed, which decides
+ * the decks played and every decision made.
+ *
+ * Usage: SelfPlay decklist-file [games] [seed] [max decisions per game] [format]
+ * For example, with the benchmarks jar: java -cp benchmarks.jar com.gempukku.swccgo.benchmarks.selfplay.SelfPlay
+ * ../db-scripts/sample_decks.sql 1000 1
+ */
+public class SelfPlay {
+    private static final int WARMUP_GAMES = 2;
+
+    private final SwccgCardBlueprintLibrary _library;
+    private final SwccgFormat _format;
+    private final List<SwccgDeck> _darkDecks;
+    private final List<SwccgDeck> _lightDecks;
+    private final int _maxDecisions;
+
+    public SelfPlay(SwccgCardBlueprintLibrary library, SwccgFormat format, List<SwccgDeck> darkDecks, List<SwccgDeck> lightDecks, int maxDecisions) {
+        _library = library;
+        _format = format;
+        _darkDecks = darkDecks;
+        _lightDecks = lightDecks;
+        _maxDecisions = maxDecisions;
+    }
+
+    /**
+     * Creates a game between a random pair of decks, with every choice in it coming from the seed.
+     * @param seed the seed
+     * @return the game
+     */
+    public SelfPlayGame createGame(long seed) {
+        Random random = new Random(seed);
+        SwccgDeck darkDeck = _darkDecks.get(random.nextInt(_darkDecks.size()));
+        SwccgDeck lightDeck = _lightDecks.get(random.nextInt(_lightDecks.size()));
+        return new SelfPlayGame(_library, _format, darkDeck, lightDeck, random, _maxDecisions);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SelfPlay decklist-file [games] [seed] [max decisions per game] [format]");
+            System.exit(1);
+        }
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int maxDecisions = args.length > 3 ? Integer.parseInt(args[3]) : 5000;
+        String formatCode = args.length > 4 ? args[4] : "open";
+
+        SwccgCardBlueprintLibrary library = new SwccgCardBlueprintLibrary();
+        SwccgFormat format = new SwccgoFormatLibrary(library).getFormat(formatCode);
+        if (format == null)
+            throw new IllegalArgumentException("Unknown format: " + formatCode);
+        DeckListReader deckListReader = new DeckListReader(library);
+        deckListReader.read(Paths.get(args[0]));
+        if (deckListReader.getDarkDecks().isEmpty() || deckListReader.getLightDecks().isEmpty())
+            throw new IllegalArgumentException("The decklist file needs at least one deck for each side");
+        System.out.println("Read " + deckListReader.getDarkDecks().size() + " Dark Side and " + deckListReader.getLightDecks().size() + " Light Side decks");
+
+        SelfPlay selfPlay = new SelfPlay(library, format, deckListReader.getDarkDecks(), deckListReader.getLightDecks(), maxDecisions);
+
+        // Warm up (with other games than the measured ones) so the results are not dominated by class loading and JIT
+        SplittableRandom warmupSeeds = new SplittableRandom(~seed);
+        for (int i = 0; i < WARMUP_GAMES; i++)
+            selfPlay.createGame(warmupSeeds.nextLong()).play(new ConcurrentHistogram());
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        ConcurrentHistogram decisionTimes = new ConcurrentHistogram();
+        Map<SelfPlayGame.Outcome, Integer> outcomes = new EnumMap<>(SelfPlayGame.Outcome.class);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long totalAllocated = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            long gameSeed = seeds.nextLong();
+            long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+            SelfPlayGame game = selfPlay.createGame(gameSeed);
+            SelfPlayGame.Outcome outcome = game.play(decisionTimes);
+            totalAllocated += threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            outcomes.merge(outcome, 1, Integer::sum);
+            if (outcome == SelfPlayGame.Outcome.ERROR || outcome == SelfPlayGame.Outcome.STUCK)
+                System.out.println("Game with seed " + gameSeed + " ended " + outcome + " after " + game.getDecisionCount() + " decisions"
+                        + (game.getError() != null ? ": " + game.getError() : ""));
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.println(String.format("%d games in %.1f s: %.2f games/s, %.0f decisions/s, %.0f decisions/game",
+                games, seconds, games / seconds, decisionTimes.getTotalCount() / seconds, (double) decisionTimes.getTotalCount() / games));
+        System.out.println(String.format("Time per decision: mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us",
+                decisionTimes.getMean() / 1000, decisionTimes.getValueAtPercentile(50) / 1000.0,
+                decisionTimes.getValueAtPercentile(99) / 1000.0, decisionTimes.getMaxValue() / 1000.0));
+        System.out.println(String.format("Allocated per game: %.1f MB", totalAllocated / 1024.0 / 1024.0 / games));
+        System.out.println("Outcomes: " + outcomes);
+    }
+}
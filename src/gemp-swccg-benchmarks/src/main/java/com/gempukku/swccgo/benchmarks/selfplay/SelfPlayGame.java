@@ -0,0 +1,147 @@
+package com.gempukku.swccgo.benchmarks.selfplay;
+
+import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.game.SwccgFormat;
+import com.gempukku.swccgo.logic.decisions.AwaitingDecision;
+import com.gempukku.swccgo.logic.decisions.DecisionResultInvalidException;
+import com.gempukku.swccgo.logic.timing.DefaultSwccgGame;
+import com.gempukku.swccgo.logic.timing.DefaultUserFeedback;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import com.gempukku.util.ConcurrentHistogram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A single game with both sides played by random decision makers, driven the same way SwccgGameMediator drives a
+ * game: each answer is passed to the awaiting decision and then the game is carried out until the next decision.
+ */
+public class SelfPlayGame {
+    public static final String DARK_PLAYER = "DarkSelfPlay";
+    public static final String LIGHT_PLAYER = "LightSelfPlay";
+
+    // Random answers can still be rejected by checks beyond the decision parameters, so a few are tried
+    private static final int ATTEMPTS_PER_DECISION = 10;
+
+    private final DefaultSwccgGame _game;
+    private final DefaultUserFeedback _userFeedback;
+    private final RandomDecisionMaker _decisionMaker;
+    private final int _maxDecisions;
+    private int _decisionCount;
+    private RuntimeException _error;
+
+    /**
+     * Creates a self-play game.
+     * @param library the card library
+     * @param format the format
+     * @param darkDeck the Dark Side deck
+     * @param lightDeck the Light Side deck
+     * @param random the source of all choices made by the players
+     * @param maxDecisions the number of decisions after which the game is stopped
+     */
+    public SelfPlayGame(SwccgCardBlueprintLibrary library, SwccgFormat format, SwccgDeck darkDeck, SwccgDeck lightDeck,
+                        Random random, int maxDecisions) {
+        Map<String, SwccgDeck> decks = new HashMap<>();
+        decks.put(DARK_PLAYER, darkDeck);
+        decks.put(LIGHT_PLAYER, lightDeck);
+        Map<String, Integer> playerClocks = new HashMap<>();
+        playerClocks.put(DARK_PLAYER, 0);
+        playerClocks.put(LIGHT_PLAYER, 0);
+
+        _userFeedback = new DefaultUserFeedback();
+        _game = new DefaultSwccgGame(format, decks, _userFeedback, library, playerClocks, false);
+        _userFeedback.setGame(_game);
+        _decisionMaker = new RandomDecisionMaker(random);
+        _maxDecisions = maxDecisions;
+    }
+
+    /**
+     * Gets the game being played.
+     * @return the game
+     */
+    public DefaultSwccgGame getGame() {
+        return _game;
+    }
+
+    /**
+     * Gets the number of decisions made so far.
+     * @return the number of decisions
+     */
+    public int getDecisionCount() {
+        return _decisionCount;
+    }
+
+    /**
+     * Gets the exception thrown by the game, if it ended with an error.
+     * @return the exception, or null
+     */
+    public RuntimeException getError() {
+        return _error;
+    }
+
+    /**
+     * Plays the game until it is finished, the decision limit is reached or it gets stuck.
+     * @param decisionTimes the histogram to record the time taken to process each decision in, in nanoseconds
+     * @return how the game ended
+     */
+    public Outcome play(ConcurrentHistogram decisionTimes) {
+        try {
+            _game.startGame();
+            while (!_game.isFinished()) {
+                if (_decisionCount >= _maxDecisions)
+                    return Outcome.DECISION_LIMIT;
+
+                List<String> players = new ArrayList<>(_userFeedback.getUsersPendingDecision());
+                if (players.isEmpty())
+                    return Outcome.STUCK;
+
+                for (String player : players) {
+                    // An earlier answer in this round may have already moved the game past this decision
+                    if (_userFeedback.getAwaitingDecision(player) == null)
+                        continue;
+                    long start = System.nanoTime();
+                    if (!decide(player))
+                        return Outcome.STUCK;
+                    decisionTimes.record(System.nanoTime() - start);
+                    _decisionCount++;
+                }
+            }
+            return Outcome.FINISHED;
+        } catch (RuntimeException exp) {
+            _error = exp;
+            return Outcome.ERROR;
+        }
+    }
+
+    /**
+     * Makes the decision for the player and carries out the game until the next decision is needed.
+     * @param player the player
+     * @return true if an accepted answer was found, otherwise false
+     */
+    public boolean decide(String player) {
+        AwaitingDecision decision = _userFeedback.getAwaitingDecision(player);
+        _userFeedback.participantDecided(player);
+        for (int attempt = 0; attempt <= ATTEMPTS_PER_DECISION; attempt++) {
+            String answer = attempt < ATTEMPTS_PER_DECISION ? _decisionMaker.answer(decision) : _decisionMaker.fallbackAnswer(decision);
+            try {
+                decision.decisionMade(answer);
+                _game.carryOutPendingActionsUntilDecisionNeeded();
+                return true;
+            } catch (DecisionResultInvalidException exp) {
+                // Try another answer
+            }
+        }
+        _userFeedback.sendAwaitingDecision(player, decision);
+        return false;
+    }
+
+    /**
+     * How a self-play game ended.
+     */
+    public enum Outcome {
+        FINISHED, DECISION_LIMIT, STUCK, ERROR
+    }
+}
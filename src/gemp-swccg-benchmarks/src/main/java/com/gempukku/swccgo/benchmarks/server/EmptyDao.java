@@ -0,0 +1,61 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates DAOs that store nothing, for the parts of the server a simulation does not exercise (leagues, tournaments,
+ * the merchant and so on). Every method returns false, zero, an empty collection or null, as if the database was
+ * empty and every update touched no rows.
+ */
+public class EmptyDao {
+    private EmptyDao() {
+    }
+
+    /**
+     * Creates an empty DAO.
+     * @param daoInterface the DAO interface
+     * @return the DAO
+     */
+    public static <T> T create(Class<T> daoInterface) {
+        Object dao = Proxy.newProxyInstance(daoInterface.getClassLoader(), new Class<?>[] {daoInterface},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Empty " + daoInterface.getSimpleName();
+                    }
+                    return getEmptyValue(method.getReturnType());
+                });
+        return daoInterface.cast(dao);
+    }
+
+    private static Object getEmptyValue(Class<?> type) {
+        if (type == boolean.class)
+            return false;
+        if (type == int.class)
+            return 0;
+        if (type == long.class)
+            return 0L;
+        if (type == float.class)
+            return 0f;
+        if (type == double.class)
+            return 0d;
+        if (type == List.class || type == Collection.class)
+            return new ArrayList<>();
+        if (type == Set.class)
+            return new HashSet<>();
+        if (type == Map.class)
+            return new HashMap<>();
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import com.gempukku.swccgo.db.CollectionDAO;
+import com.gempukku.swccgo.game.CardCollection;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A collection DAO that keeps the collections in memory.
+ */
+public class InMemoryCollectionDAO implements CollectionDAO {
+    private final Map<String, Map<Integer, CardCollection>> _collections = new ConcurrentHashMap<>();
+
+    @Override
+    public Map<Integer, CardCollection> getPlayerCollectionsByType(String type) {
+        return new HashMap<>(getCollections(type));
+    }
+
+    @Override
+    public CardCollection getPlayerCollection(int playerId, String type) {
+        return getCollections(type).get(playerId);
+    }
+
+    @Override
+    public Map<Integer, CardCollection> getPlayerCollections(String type, Collection<Integer> playerIds) {
+        Map<Integer, CardCollection> collections = getCollections(type);
+        Map<Integer, CardCollection> result = new HashMap<>();
+        for (Integer playerId : playerIds) {
+            CardCollection collection = collections.get(playerId);
+            if (collection != null)
+                result.put(playerId, collection);
+        }
+        return result;
+    }
+
+    @Override
+    public void setPlayerCollection(int playerId, String type, CardCollection collection) {
+        getCollections(type).put(playerId, collection);
+    }
+
+    @Override
+    public int updatePlayerCollection(int playerId, String type, CardCollection oldCollection, int storedLength, CardCollection collection) {
+        setPlayerCollection(playerId, type, collection);
+        return -1;
+    }
+
+    @Override
+    public void setPlayerCollections(String type, Map<Integer, CardCollection> collections) {
+        getCollections(type).putAll(collections);
+    }
+
+    private Map<Integer, CardCollection> getCollections(String type) {
+        return _collections.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+    }
+}
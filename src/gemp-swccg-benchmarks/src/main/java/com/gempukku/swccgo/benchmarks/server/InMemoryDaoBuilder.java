@@ -0,0 +1,39 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import com.gempukku.swccgo.cache.CacheManager;
+import com.gempukku.swccgo.collection.TransferDAO;
+import com.gempukku.swccgo.db.*;
+import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.tournament.TournamentDAO;
+import com.gempukku.swccgo.tournament.TournamentMatchDAO;
+import com.gempukku.swccgo.tournament.TournamentPlayerDAO;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * Fills the object map with DAOs the same way DaoBuilder does, but without a database. Players and decks are kept in
+ * memory, and everything else is stored nowhere.
+ */
+public class InMemoryDaoBuilder {
+    public static void CreateDatabaseAccessObjects(Map<Type, Object> objectMap) {
+        SwccgCardBlueprintLibrary library = new SwccgCardBlueprintLibrary();
+        objectMap.put(SwccgCardBlueprintLibrary.class, library);
+        objectMap.put(LeagueParticipationDAO.class, EmptyDao.create(LeagueParticipationDAO.class));
+        objectMap.put(LeagueMatchDAO.class, EmptyDao.create(LeagueMatchDAO.class));
+        objectMap.put(TournamentDAO.class, EmptyDao.create(TournamentDAO.class));
+        objectMap.put(TournamentPlayerDAO.class, EmptyDao.create(TournamentPlayerDAO.class));
+        objectMap.put(TournamentMatchDAO.class, EmptyDao.create(TournamentMatchDAO.class));
+        objectMap.put(GempSettingDAO.class, EmptyDao.create(GempSettingDAO.class));
+        objectMap.put(InGameStatisticsDAO.class, EmptyDao.create(InGameStatisticsDAO.class));
+        objectMap.put(MerchantDAO.class, EmptyDao.create(MerchantDAO.class));
+        objectMap.put(LeagueDAO.class, EmptyDao.create(LeagueDAO.class));
+        objectMap.put(GameHistoryDAO.class, EmptyDao.create(GameHistoryDAO.class));
+        objectMap.put(DeckDAO.class, new InMemoryDeckDAO(library));
+        objectMap.put(CollectionDAO.class, EmptyDao.create(CollectionDAO.class));
+        objectMap.put(PlayerDAO.class, new InMemoryPlayerDAO());
+        objectMap.put(TransferDAO.class, EmptyDao.create(TransferDAO.class));
+        objectMap.put(IpBanDAO.class, EmptyDao.create(IpBanDAO.class));
+        objectMap.put(CacheManager.class, new CacheManager());
+    }
+}
@@ -0,0 +1,64 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import com.gempukku.swccgo.db.DeckDAO;
+import com.gempukku.swccgo.db.DeckSerialization;
+import com.gempukku.swccgo.game.Player;
+import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A deck DAO that keeps the decks in memory.
+ */
+public class InMemoryDeckDAO implements DeckDAO {
+    private final SwccgCardBlueprintLibrary _library;
+    private final Map<String, Map<String, SwccgDeck>> _decks = new ConcurrentHashMap<>();
+
+    public InMemoryDeckDAO(SwccgCardBlueprintLibrary library) {
+        _library = library;
+    }
+
+    @Override
+    public SwccgDeck getDeckForPlayer(Player player, String name) {
+        return getPlayerDecks(player).get(name);
+    }
+
+    @Override
+    public void saveDeckForPlayer(Player player, String name, SwccgDeck deck) {
+        getPlayerDecks(player).put(name, deck);
+    }
+
+    @Override
+    public void deleteDeckForPlayer(Player player, String name) {
+        getPlayerDecks(player).remove(name);
+    }
+
+    @Override
+    public SwccgDeck renameDeck(Player player, String oldName, String newName) {
+        Map<String, SwccgDeck> playerDecks = getPlayerDecks(player);
+        SwccgDeck deck = playerDecks.remove(oldName);
+        if (deck == null)
+            return null;
+        SwccgDeck renamedDeck = buildDeckFromContents(newName, DeckSerialization.buildContentsFromDeck(deck));
+        playerDecks.put(newName, renamedDeck);
+        return renamedDeck;
+    }
+
+    @Override
+    public Set<String> getPlayerDeckNames(Player player) {
+        return new HashSet<>(getPlayerDecks(player).keySet());
+    }
+
+    @Override
+    public SwccgDeck buildDeckFromContents(String deckName, String contents) {
+        return DeckSerialization.buildDeckFromContents(deckName, contents, _library);
+    }
+
+    private Map<String, SwccgDeck> getPlayerDecks(Player player) {
+        return _decks.computeIfAbsent(player.getName(), name -> new ConcurrentHashMap<>());
+    }
+}
@@ -0,0 +1,132 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import com.gempukku.swccgo.db.PlayerDAO;
+import com.gempukku.swccgo.game.Player;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A player DAO that keeps the players in memory. Passwords are compared as-is, since simulated players do not need
+ * them to be hashed.
+ */
+public class InMemoryPlayerDAO implements PlayerDAO {
+    private final AtomicInteger _nextId = new AtomicInteger(1);
+    private final Map<String, Player> _playersByName = new ConcurrentHashMap<>();
+    private final Map<Integer, Player> _playersById = new ConcurrentHashMap<>();
+
+    @Override
+    public Player getPlayer(int id) {
+        return _playersById.get(id);
+    }
+
+    @Override
+    public Player getPlayer(String playerName) {
+        return getPlayer(playerName, false);
+    }
+
+    @Override
+    public Player getPlayer(String playerName, boolean includeDeactivated) {
+        Player player = _playersByName.get(playerName);
+        if (player != null && !includeDeactivated && player.hasType(Player.Type.DEACTIVATED))
+            return null;
+        return player;
+    }
+
+    @Override
+    public boolean registerPlayer(String playerName, String password, String remoteAddr) {
+        if (_playersByName.containsKey(playerName))
+            return false;
+        putPlayer(new Player(_nextId.getAndIncrement(), playerName, password, Player.Type.UNBANNED.getValue(), null, null, remoteAddr, remoteAddr));
+        return true;
+    }
+
+    @Override
+    public Player loginPlayer(String playerName, String password) {
+        Player player = getPlayer(playerName);
+        return player != null && password.equals(player.getPassword()) ? player : null;
+    }
+
+    @Override
+    public boolean updateLastLoginIp(String playerName, String remoteAddr) {
+        Player player = _playersByName.get(playerName);
+        if (player == null)
+            return false;
+        putPlayer(new Player(player.getId(), player.getName(), player.getPassword(), player.getType(), player.getLastLoginReward(),
+                player.getBannedUntil(), player.getCreateIp(), remoteAddr));
+        return true;
+    }
+
+    @Override
+    public boolean updateLastReward(Player player, Integer previousReward, int currentReward) {
+        player.setLastLoginReward(currentReward);
+        return true;
+    }
+
+    @Override
+    public boolean resetUserPassword(String playerName) {
+        Player player = _playersByName.get(playerName);
+        return player != null && replacePlayer(player, "", player.getType(), player.getBannedUntil());
+    }
+
+    @Override
+    public boolean setPlayerFlag(String playerName, Player.Type flag, boolean status) {
+        Player player = _playersByName.get(playerName);
+        if (player == null)
+            return false;
+        List<Player.Type> types = new ArrayList<>(Player.Type.getTypes(player.getType()));
+        types.remove(flag);
+        if (status)
+            types.add(flag);
+        return replacePlayer(player, player.getPassword(), Player.Type.getTypeString(types), player.getBannedUntil());
+    }
+
+    @Override
+    public List<Player> findPlayersWithFlag(Player.Type flag) {
+        List<Player> result = new ArrayList<>();
+        for (Player player : _playersByName.values()) {
+            if (player.hasType(flag))
+                result.add(player);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean banPlayerPermanently(String playerName) {
+        return setPlayerFlag(playerName, Player.Type.UNBANNED, false);
+    }
+
+    @Override
+    public boolean banPlayerTemporarily(String playerName, long dateTo) {
+        Player player = _playersByName.get(playerName);
+        return player != null && replacePlayer(player, player.getPassword(), player.getType(), new Date(dateTo));
+    }
+
+    @Override
+    public boolean unBanPlayer(String playerName) {
+        if (!setPlayerFlag(playerName, Player.Type.UNBANNED, true))
+            return false;
+        Player player = _playersByName.get(playerName);
+        return replacePlayer(player, player.getPassword(), player.getType(), null);
+    }
+
+    @Override
+    public List<Player> findSimilarAccounts(String playerName) {
+        return new ArrayList<>();
+    }
+
+    private boolean replacePlayer(Player player, String password, String type, Date bannedUntil) {
+        putPlayer(new Player(player.getId(), player.getName(), password, type, player.getLastLoginReward(), bannedUntil,
+                player.getCreateIp(), player.getLastIp()));
+        return true;
+    }
+
+    private void putPlayer(Player player) {
+        _playersByName.put(player.getName(), player);
+        _playersById.put(player.getId(), player);
+    }
+}
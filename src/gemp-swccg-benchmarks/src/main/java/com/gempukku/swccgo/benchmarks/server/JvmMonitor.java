@@ -0,0 +1,123 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import com.gempukku.util.ConcurrentHistogram;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Watches the garbage collector and the heap while a simulation runs. Each collection reported by the JVM is recorded
+ * as a pause, except for the cycles of concurrent collectors, which run alongside the application and are only counted.
+ * The heap is sampled whenever a collection ends and whenever sample() is called.
+ */
+public class JvmMonitor implements NotificationListener {
+    private final MemoryMXBean _memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final List<NotificationEmitter> _emitters = new ArrayList<>();
+    private final ConcurrentHistogram _gcPauses = new ConcurrentHistogram();
+    private long _concurrentCycles;
+    private long _maxHeapUsed;
+    private long _maxHeapUsedAfterGc;
+    private long _lastHeapUsedAfterGc;
+
+    /**
+     * Starts listening to the garbage collectors.
+     */
+    public void start() {
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter) gcBean;
+                emitter.addNotificationListener(this, null, null);
+                _emitters.add(emitter);
+            }
+        }
+    }
+
+    /**
+     * Stops listening to the garbage collectors.
+     */
+    public void stop() {
+        for (NotificationEmitter emitter : _emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException exp) {
+                // Already removed
+            }
+        }
+        _emitters.clear();
+    }
+
+    /**
+     * Samples the heap usage.
+     */
+    public synchronized void sample() {
+        _maxHeapUsed = Math.max(_maxHeapUsed, _memoryMXBean.getHeapMemoryUsage().getUsed());
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+            return;
+
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        long heapUsedBeforeGc = getHeapUsed(info.getGcInfo().getMemoryUsageBeforeGc());
+        long heapUsedAfterGc = getHeapUsed(info.getGcInfo().getMemoryUsageAfterGc());
+        synchronized (this) {
+            // e.g. "G1 Concurrent GC" or "ZGC Major Cycles"
+            if (info.getGcName().contains("Concurrent") || info.getGcName().contains("Cycles"))
+                _concurrentCycles++;
+            else
+                _gcPauses.record(info.getGcInfo().getDuration() * 1_000_000L);
+            _maxHeapUsed = Math.max(_maxHeapUsed, heapUsedBeforeGc);
+            _maxHeapUsedAfterGc = Math.max(_maxHeapUsedAfterGc, heapUsedAfterGc);
+            _lastHeapUsedAfterGc = heapUsedAfterGc;
+        }
+    }
+
+    private static long getHeapUsed(Map<String, MemoryUsage> memoryUsageByPool) {
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> poolUsage : memoryUsageByPool.entrySet()) {
+            // The heap pools of all collectors, the rest are Metaspace, code cache and such
+            String pool = poolUsage.getKey();
+            if (pool.contains("Eden") || pool.contains("Survivor") || pool.contains("Old") || pool.contains("Tenured") || pool.contains("Heap"))
+                used += poolUsage.getValue().getUsed();
+        }
+        return used;
+    }
+
+    /**
+     * Gets the GC pause times recorded so far, in nanoseconds (with millisecond precision).
+     * @return a copy of the pause histogram
+     */
+    public synchronized ConcurrentHistogram getGcPauses() {
+        ConcurrentHistogram copy = new ConcurrentHistogram();
+        copy.add(_gcPauses);
+        return copy;
+    }
+
+    public synchronized long getConcurrentCycles() {
+        return _concurrentCycles;
+    }
+
+    public synchronized long getMaxHeapUsed() {
+        return _maxHeapUsed;
+    }
+
+    public synchronized long getMaxHeapUsedAfterGc() {
+        return _maxHeapUsedAfterGc;
+    }
+
+    public synchronized long getLastHeapUsedAfterGc() {
+        return _lastHeapUsedAfterGc;
+    }
+}
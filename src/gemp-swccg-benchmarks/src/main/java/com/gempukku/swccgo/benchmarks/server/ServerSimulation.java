@@ -0,0 +1,309 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import com.gempukku.swccgo.PrivateInformationException;
+import com.gempukku.swccgo.SubscriptionConflictException;
+import com.gempukku.swccgo.SubscriptionExpiredException;
+import com.gempukku.swccgo.benchmarks.selfplay.DeckListReader;
+import com.gempukku.swccgo.benchmarks.selfplay.SelfPlayGame;
+import com.gempukku.swccgo.builder.PackagedProductStorageBuilder;
+import com.gempukku.swccgo.builder.ServerBuilder;
+import com.gempukku.swccgo.builder.StartupTimer;
+import com.gempukku.swccgo.db.DeckDAO;
+import com.gempukku.swccgo.db.PlayerDAO;
+import com.gempukku.swccgo.game.LockWaitStatistics;
+import com.gempukku.swccgo.game.Player;
+import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.game.SwccgFormat;
+import com.gempukku.swccgo.game.SwccgGameMediator;
+import com.gempukku.swccgo.game.SwccgoServer;
+import com.gempukku.swccgo.game.formats.SwccgoFormatLibrary;
+import com.gempukku.swccgo.hall.HallServer;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import com.gempukku.util.ConcurrentHistogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs the hall and game servers in process, without a database or network, with simulated players playing games
+ * at a number of tables at the same time, spectators watching those games and players watching the hall. It reports
+ * the game throughput, the time taken by decisions and updates, the time spent waiting for the game mediator locks,
+ * and the GC pauses and heap used during the run.
+ *
+ * Players and decks are kept in memory, and all other data access is stubbed out (see InMemoryDaoBuilder). The
+ * simulated clients call the same hall and game methods the request handlers call, but poll for updates instead of
+ * long polling, with the players updating right after each decision and the watchers on a fixed interval.
+ *
+ * Usage: ServerSimulation decklist-file [tables] [games per table] [spectators per table] [hall watchers]
+ * [max decisions per game] [seed] [format]
+ * For example, with the benchmarks jar: java -cp benchmarks.jar com.gempukku.swccgo.benchmarks.server.ServerSimulation
+ * ../db-scripts/sample_decks.sql 16 5 2 50
+ */
+public class ServerSimulation {
+    private static final long SPECTATOR_POLL_INTERVAL_MS = 250;
+    private static final long HALL_POLL_INTERVAL_MS = 1000;
+    private static final long HEAP_SAMPLE_INTERVAL_MS = 100;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ServerSimulation decklist-file [tables] [games per table] [spectators per table] [hall watchers] [max decisions per game] [seed] [format]");
+            System.exit(1);
+        }
+        int tableCount = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int gamesPerTable = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int spectatorsPerTable = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int hallWatcherCount = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int maxDecisions = args.length > 5 ? Integer.parseInt(args[5]) : 5000;
+        long seed = args.length > 6 ? Long.parseLong(args[6]) : 1;
+        String formatCode = args.length > 7 ? args[7] : "open";
+
+        // The servers print a lot to standard out (such as every property read), which would drown the report
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        Path applicationRoot = Files.createTempDirectory("gemp-swccg-simulation");
+        Map<Type, Object> objects = startServers(applicationRoot);
+        out.println(((StartupTimer) objects.get(StartupTimer.class)).getReport());
+        try {
+            run(out, objects, Paths.get(args[0]), tableCount, gamesPerTable, spectatorsPerTable, hallWatcherCount, maxDecisions, seed, formatCode);
+        } finally {
+            ServerBuilder.StopServers(objects);
+            deleteDirectory(applicationRoot);
+            System.setOut(out);
+        }
+        // Some of the services keep non-daemon threads running
+        System.exit(0);
+    }
+
+    /**
+     * Creates and starts the servers the same way GempukkuServer does, but with in-memory data access and with
+     * the application root (where replays are written) in the directory given.
+     * @param applicationRoot the application root directory
+     * @return the object map with the servers
+     * @throws IOException if the configuration cannot be written
+     */
+    private static Map<Type, Object> startServers(Path applicationRoot) throws IOException {
+        Properties overrides = new Properties();
+        overrides.setProperty("application.root", applicationRoot.toString());
+        Path overrideFile = applicationRoot.resolve("gemp-swccg-simulation.properties");
+        try (Writer writer = Files.newBufferedWriter(overrideFile, StandardCharsets.UTF_8)) {
+            overrides.store(writer, "Server simulation");
+        }
+        System.setProperty("gemp-swccg.override", overrideFile.toString());
+
+        Map<Type, Object> objects = new HashMap<>();
+        ServerBuilder.CreatePrerequisites(objects);
+        InMemoryDaoBuilder.CreateDatabaseAccessObjects(objects);
+        PackagedProductStorageBuilder.CreateProducts(objects);
+        ServerBuilder.CreateServices(objects);
+        ServerBuilder.StartServers(objects);
+        ((HallServer) objects.get(HallServer.class)).setOperational();
+        return objects;
+    }
+
+    private static void run(PrintStream out, Map<Type, Object> objects, Path deckListFile, int tableCount, int gamesPerTable,
+                            int spectatorsPerTable, int hallWatcherCount, int maxDecisions, long seed, String formatCode) throws Exception {
+        SwccgCardBlueprintLibrary library = (SwccgCardBlueprintLibrary) objects.get(SwccgCardBlueprintLibrary.class);
+        SwccgFormat format = ((SwccgoFormatLibrary) objects.get(SwccgoFormatLibrary.class)).getHallFormats().get(formatCode);
+        if (format == null)
+            throw new IllegalArgumentException("Unknown hall format: " + formatCode);
+        HallServer hallServer = (HallServer) objects.get(HallServer.class);
+        SwccgoServer swccgoServer = (SwccgoServer) objects.get(SwccgoServer.class);
+        PlayerDAO playerDao = (PlayerDAO) objects.get(PlayerDAO.class);
+        DeckDAO deckDao = (DeckDAO) objects.get(DeckDAO.class);
+
+        DeckListReader deckListReader = new DeckListReader(library);
+        deckListReader.read(deckListFile);
+        List<SwccgDeck> darkDecks = getValidDecks(format, deckListReader.getDarkDecks());
+        List<SwccgDeck> lightDecks = getValidDecks(format, deckListReader.getLightDecks());
+        if (darkDecks.isEmpty() || lightDecks.isEmpty())
+            throw new IllegalArgumentException("The decklist file needs at least one deck for each side that is valid in " + format.getName());
+        out.println("Using " + darkDecks.size() + " Dark Side and " + lightDecks.size() + " Light Side decks valid in " + format.getName());
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<SimulatedTable> tables = new ArrayList<>();
+        for (int i = 0; i < tableCount; i++) {
+            Random random = new Random(seeds.nextLong());
+            Player host = registerPlayer(playerDao, "SimHost" + i);
+            Player joiner = registerPlayer(playerDao, "SimJoiner" + i);
+            deckDao.saveDeckForPlayer(host, SimulatedTable.DECK_NAME, darkDecks.get(random.nextInt(darkDecks.size())));
+            deckDao.saveDeckForPlayer(joiner, SimulatedTable.DECK_NAME, lightDecks.get(random.nextInt(lightDecks.size())));
+            tables.add(new SimulatedTable(hallServer, swccgoServer, formatCode, host, joiner, gamesPerTable, maxDecisions, random));
+        }
+
+        JvmMonitor jvmMonitor = new JvmMonitor();
+        jvmMonitor.start();
+        ScheduledExecutorService watchers = Executors.newScheduledThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        watchers.scheduleAtFixedRate(jvmMonitor::sample, 0, HEAP_SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        List<SimulatedSpectator> spectators = new ArrayList<>();
+        for (int i = 0; i < tableCount; i++) {
+            for (int j = 0; j < spectatorsPerTable; j++) {
+                SimulatedSpectator spectator = new SimulatedSpectator(tables.get(i), registerPlayer(playerDao, "SimSpectator" + i + "_" + j));
+                spectators.add(spectator);
+                watchers.scheduleWithFixedDelay(spectator, j * SPECTATOR_POLL_INTERVAL_MS / spectatorsPerTable, SPECTATOR_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        List<SimulatedHallClient> hallWatchers = new ArrayList<>();
+        for (int i = 0; i < hallWatcherCount; i++) {
+            SimulatedHallClient hallWatcher = new SimulatedHallClient(hallServer, registerPlayer(playerDao, "SimWatcher" + i));
+            hallWatchers.add(hallWatcher);
+            watchers.scheduleWithFixedDelay(hallWatcher::poll, i * HALL_POLL_INTERVAL_MS / hallWatcherCount, HALL_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+
+        LockWaitStatistics lockWaits = SwccgGameMediator.getLockWaitStatistics();
+        long readAcquisitionsBefore = lockWaits.getReadAcquisitions();
+        long readWaitBefore = lockWaits.getReadWaitNanos();
+        long writeAcquisitionsBefore = lockWaits.getWriteAcquisitions();
+        long writeWaitBefore = lockWaits.getWriteWaitNanos();
+
+        long start = System.nanoTime();
+        ExecutorService tablePool = Executors.newFixedThreadPool(tableCount);
+        for (SimulatedTable table : tables)
+            tablePool.execute(table);
+        tablePool.shutdown();
+        tablePool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        watchers.shutdown();
+        watchers.awaitTermination(1, TimeUnit.MINUTES);
+        jvmMonitor.stop();
+
+        ConcurrentHistogram decisionTimes = new ConcurrentHistogram();
+        ConcurrentHistogram playerPollTimes = new ConcurrentHistogram();
+        ConcurrentHistogram hallPollTimes = new ConcurrentHistogram();
+        ConcurrentHistogram spectatorPollTimes = new ConcurrentHistogram();
+        Map<SelfPlayGame.Outcome, Integer> outcomes = new EnumMap<>(SelfPlayGame.Outcome.class);
+        int games = 0;
+        for (SimulatedTable table : tables) {
+            decisionTimes.add(table.getDecisionTimes());
+            playerPollTimes.add(table.getGamePollTimes());
+            hallPollTimes.add(table.getHallPollTimes());
+            for (Map.Entry<SelfPlayGame.Outcome, Integer> outcome : table.getOutcomes().entrySet()) {
+                outcomes.merge(outcome.getKey(), outcome.getValue(), Integer::sum);
+                games += outcome.getValue();
+            }
+            if (table.getError() != null)
+                out.println("Table stopped with an error: " + table.getError());
+        }
+        for (SimulatedSpectator spectator : spectators)
+            spectatorPollTimes.add(spectator.getPollTimes());
+        for (SimulatedHallClient hallWatcher : hallWatchers)
+            hallPollTimes.add(hallWatcher.getPollTimes());
+
+        out.println(String.format("%d tables, %d spectators, %d hall watchers: %d games in %.1f s, %.2f games/s, %.0f decisions/s",
+                tableCount, spectators.size(), hallWatchers.size(), games, seconds, games / seconds, decisionTimes.getTotalCount() / seconds));
+        out.println("Outcomes: " + outcomes);
+        printTimes(out, "Decision", decisionTimes);
+        printTimes(out, "Player game update", playerPollTimes);
+        printTimes(out, "Spectator game update", spectatorPollTimes);
+        printTimes(out, "Hall update", hallPollTimes);
+        printLockWaits(out, "read", lockWaits.getReadAcquisitions() - readAcquisitionsBefore,
+                lockWaits.getReadWaitNanos() - readWaitBefore, lockWaits.getReadMaxWaitNanos());
+        printLockWaits(out, "write", lockWaits.getWriteAcquisitions() - writeAcquisitionsBefore,
+                lockWaits.getWriteWaitNanos() - writeWaitBefore, lockWaits.getWriteMaxWaitNanos());
+        ConcurrentHistogram gcPauses = jvmMonitor.getGcPauses();
+        out.println(String.format("GC pauses: %d, total %.0f ms (%.1f%% of run), p50 %.0f ms, p99 %.0f ms, max %.0f ms; concurrent cycles: %d",
+                gcPauses.getTotalCount(), gcPauses.getMean() * gcPauses.getTotalCount() / 1_000_000,
+                gcPauses.getMean() * gcPauses.getTotalCount() / 1_000_000_000 / seconds * 100,
+                gcPauses.getValueAtPercentile(50) / 1_000_000.0, gcPauses.getValueAtPercentile(99) / 1_000_000.0,
+                gcPauses.getMaxValue() / 1_000_000.0, jvmMonitor.getConcurrentCycles()));
+        out.println(String.format("Heap used: max %.0f MB, max after GC %.0f MB, last after GC %.0f MB",
+                jvmMonitor.getMaxHeapUsed() / 1024.0 / 1024.0, jvmMonitor.getMaxHeapUsedAfterGc() / 1024.0 / 1024.0,
+                jvmMonitor.getLastHeapUsedAfterGc() / 1024.0 / 1024.0));
+    }
+
+    private static List<SwccgDeck> getValidDecks(SwccgFormat format, List<SwccgDeck> decks) {
+        List<SwccgDeck> validDecks = new ArrayList<>();
+        for (SwccgDeck deck : decks) {
+            try {
+                format.validateDeck(deck);
+                validDecks.add(deck);
+            } catch (Exception exp) {
+                // Not valid in the format
+            }
+        }
+        return validDecks;
+    }
+
+    private static Player registerPlayer(PlayerDAO playerDao, String name) throws Exception {
+        playerDao.registerPlayer(name, name, "127.0.0.1");
+        return playerDao.getPlayer(name);
+    }
+
+    private static void printTimes(PrintStream out, String name, ConcurrentHistogram times) {
+        out.println(String.format("%s times (%d): mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us", name, times.getTotalCount(),
+                times.getMean() / 1000, times.getValueAtPercentile(50) / 1000.0,
+                times.getValueAtPercentile(99) / 1000.0, times.getMaxValue() / 1000.0));
+    }
+
+    private static void printLockWaits(PrintStream out, String lock, long acquisitions, long waitNanos, long maxWaitNanos) {
+        out.println(String.format("Mediator %s lock: %d acquisitions, total wait %.1f ms, mean wait %.2f us, max wait %.1f ms",
+                lock, acquisitions, waitNanos / 1_000_000.0, acquisitions > 0 ? waitNanos / 1000.0 / acquisitions : 0,
+                maxWaitNanos / 1_000_000.0));
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(path);
+        }
+    }
+
+    /**
+     * A spectator following the game at a table, signing up again whenever a new game starts there.
+     */
+    private static class SimulatedSpectator implements Runnable {
+        private final SimulatedTable _table;
+        private final Player _player;
+        private final ConcurrentHistogram _pollTimes = new ConcurrentHistogram();
+        private SimulatedGameClient _client;
+
+        private SimulatedSpectator(SimulatedTable table, Player player) {
+            _table = table;
+            _player = player;
+        }
+
+        public ConcurrentHistogram getPollTimes() {
+            return _pollTimes;
+        }
+
+        @Override
+        public void run() {
+            SwccgGameMediator game = _table.getCurrentGame();
+            try {
+                if (game == null) {
+                    _client = null;
+                } else if (_client == null || _client.getGameMediator() != game) {
+                    _client = new SimulatedGameClient(game, _player, _pollTimes);
+                    _client.signup();
+                } else {
+                    _client.poll();
+                }
+            } catch (PrivateInformationException | SubscriptionConflictException | SubscriptionExpiredException exp) {
+                _client = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import com.gempukku.swccgo.PrivateInformationException;
+import com.gempukku.swccgo.SubscriptionConflictException;
+import com.gempukku.swccgo.SubscriptionExpiredException;
+import com.gempukku.swccgo.game.ParticipantCommunicationVisitor;
+import com.gempukku.swccgo.game.Player;
+import com.gempukku.swccgo.game.SwccgGameMediator;
+import com.gempukku.swccgo.game.state.EventSerializer;
+import com.gempukku.swccgo.game.state.GameEvent;
+import com.gempukku.swccgo.logic.decisions.AwaitingDecision;
+import com.gempukku.util.ConcurrentHistogram;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.util.Map;
+
+/**
+ * A player (or spectator) with a game open, subscribed and updated through the same mediator calls the game request
+ * handler makes. Every update is serialized into an XML document like the one sent to the browser, so the cost of
+ * serializing the game events is part of the simulation.
+ */
+public class SimulatedGameClient implements ParticipantCommunicationVisitor {
+    private final SwccgGameMediator _gameMediator;
+    private final Player _player;
+    private final EventSerializer _eventSerializer = new EventSerializer();
+    private final DocumentBuilder _documentBuilder;
+    private final ConcurrentHistogram _pollTimes;
+    private Document _doc;
+    private Element _update;
+    private int _channelNumber = -1;
+    private AwaitingDecision _awaitingDecision;
+    private boolean _warned;
+    private long _eventCount;
+
+    /**
+     * Creates a game client.
+     * @param gameMediator the game
+     * @param player the player
+     * @param pollTimes the histogram to record the time taken by each subscription or update in, in nanoseconds
+     */
+    public SimulatedGameClient(SwccgGameMediator gameMediator, Player player, ConcurrentHistogram pollTimes) {
+        _gameMediator = gameMediator;
+        _player = player;
+        _pollTimes = pollTimes;
+        try {
+            _documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        } catch (ParserConfigurationException exp) {
+            throw new RuntimeException("Unable to create document builder", exp);
+        }
+    }
+
+    public SwccgGameMediator getGameMediator() {
+        return _gameMediator;
+    }
+
+    public Player getPlayer() {
+        return _player;
+    }
+
+    public int getChannelNumber() {
+        return _channelNumber;
+    }
+
+    public long getEventCount() {
+        return _eventCount;
+    }
+
+    /**
+     * Gets and forgets the latest decision sent to the player.
+     * @return the decision, or null if none was sent since the last call
+     */
+    public AwaitingDecision consumeAwaitingDecision() {
+        AwaitingDecision awaitingDecision = _awaitingDecision;
+        _awaitingDecision = null;
+        return awaitingDecision;
+    }
+
+    /**
+     * Gets and forgets whether the player was sent a warning, which is how an invalid answer is reported.
+     * @return true if a warning was sent since the last call, otherwise false
+     */
+    public boolean consumeWarned() {
+        boolean warned = _warned;
+        _warned = false;
+        return warned;
+    }
+
+    /**
+     * Subscribes to the game, which also gets the game so far.
+     * @throws PrivateInformationException if the player may not see the game
+     */
+    public void signup() throws PrivateInformationException {
+        long start = System.nanoTime();
+        startDocument();
+        _gameMediator.signupUserForGame(_player, this);
+        _pollTimes.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Gets the game events since the last update.
+     * @throws PrivateInformationException if the player may not see the game
+     * @throws SubscriptionConflictException if the player subscribed to the game again elsewhere
+     * @throws SubscriptionExpiredException if the subscription expired
+     */
+    public void poll() throws PrivateInformationException, SubscriptionConflictException, SubscriptionExpiredException {
+        long start = System.nanoTime();
+        startDocument();
+        _gameMediator.processVisitor(_gameMediator.getCommunicationChannel(_player, _channelNumber), _channelNumber, _player.getName(), this);
+        _pollTimes.record(System.nanoTime() - start);
+    }
+
+    private void startDocument() {
+        _doc = _documentBuilder.newDocument();
+        _update = _doc.createElement("update");
+        _doc.appendChild(_update);
+    }
+
+    @Override
+    public void visitChannelNumber(int channelNumber) {
+        _channelNumber = channelNumber;
+        _update.setAttribute("cn", String.valueOf(channelNumber));
+    }
+
+    @Override
+    public void visitClock(Map<String, Integer> secondsLeft) {
+        Element clocks = _doc.createElement("clocks");
+        for (Map.Entry<String, Integer> userClock : secondsLeft.entrySet()) {
+            Element clock = _doc.createElement("clock");
+            clock.setAttribute("participantId", userClock.getKey());
+            clock.appendChild(_doc.createTextNode(userClock.getValue().toString()));
+            clocks.appendChild(clock);
+        }
+        _update.appendChild(clocks);
+    }
+
+    @Override
+    public void visitGameEvent(GameEvent gameEvent) {
+        _update.appendChild(_eventSerializer.serializeEvent(_doc, gameEvent));
+        _eventCount++;
+        if (gameEvent.getType() == GameEvent.Type.D)
+            _awaitingDecision = gameEvent.getAwaitingDecision();
+        else if (gameEvent.getType() == GameEvent.Type.W)
+            _warned = true;
+    }
+}
@@ -0,0 +1,136 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import com.gempukku.swccgo.SubscriptionConflictException;
+import com.gempukku.swccgo.SubscriptionExpiredException;
+import com.gempukku.swccgo.game.Player;
+import com.gempukku.swccgo.hall.HallChannelVisitor;
+import com.gempukku.swccgo.hall.HallServer;
+import com.gempukku.util.ConcurrentHistogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A player looking at the hall, subscribed and updated through the same hall channel calls the hall request handler
+ * makes. The client keeps the tables it has been told about and the games it has been told it is playing in.
+ */
+public class SimulatedHallClient implements HallChannelVisitor {
+    private final HallServer _hallServer;
+    private final Player _player;
+    private final Map<String, Map<String, String>> _tables = new LinkedHashMap<>();
+    private final List<String> _newPlayerGames = new ArrayList<>();
+    private final ConcurrentHistogram _pollTimes = new ConcurrentHistogram();
+    private int _channelNumber = -1;
+
+    public SimulatedHallClient(HallServer hallServer, Player player) {
+        _hallServer = hallServer;
+        _player = player;
+    }
+
+    public Player getPlayer() {
+        return _player;
+    }
+
+    /**
+     * Gets the update times of the hall channel, in nanoseconds.
+     * @return the poll times
+     */
+    public ConcurrentHistogram getPollTimes() {
+        return _pollTimes;
+    }
+
+    /**
+     * Gets the tables currently in the hall, as seen by this client.
+     * @return the table properties by table id
+     */
+    public Map<String, Map<String, String>> getTables() {
+        return _tables;
+    }
+
+    /**
+     * Gets and forgets the games this client was told the player is now playing in.
+     * @return the game ids
+     */
+    public List<String> consumeNewPlayerGames() {
+        List<String> result = new ArrayList<>(_newPlayerGames);
+        _newPlayerGames.clear();
+        return result;
+    }
+
+    /**
+     * Gets the latest hall state, subscribing first if not subscribed or if the subscription expired.
+     */
+    public void poll() {
+        long start = System.nanoTime();
+        if (_channelNumber < 0) {
+            _hallServer.signupUserForHall(_player, this);
+        } else {
+            try {
+                _hallServer.getCommunicationChannel(_player, _channelNumber).processCommunicationChannel(_hallServer, _player, this);
+            } catch (SubscriptionExpiredException | SubscriptionConflictException exp) {
+                _tables.clear();
+                _hallServer.signupUserForHall(_player, this);
+            }
+        }
+        _pollTimes.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public void channelNumber(int channelNumber) {
+        _channelNumber = channelNumber;
+    }
+
+    @Override
+    public void motdChanged(String motd) {
+    }
+
+    @Override
+    public void serverTime(String serverTime) {
+    }
+
+    @Override
+    public void newPlayerGame(String gameId) {
+        _newPlayerGames.add(gameId);
+    }
+
+    @Override
+    public void addTournamentQueue(String queueId, Map<String, String> props) {
+    }
+
+    @Override
+    public void updateTournamentQueue(String queueId, Map<String, String> props) {
+    }
+
+    @Override
+    public void removeTournamentQueue(String queueId) {
+    }
+
+    @Override
+    public void addTournament(String tournamentId, Map<String, String> props) {
+    }
+
+    @Override
+    public void updateTournament(String tournamentId, Map<String, String> props) {
+    }
+
+    @Override
+    public void removeTournament(String tournamentId) {
+    }
+
+    @Override
+    public void addTable(String tableId, Map<String, String> props) {
+        _tables.put(tableId, props);
+    }
+
+    @Override
+    public void updateTable(String tableId, Map<String, String> props) {
+        _tables.put(tableId, props);
+    }
+
+    @Override
+    public void removeTable(String tableId) {
+        _tables.remove(tableId);
+    }
+}
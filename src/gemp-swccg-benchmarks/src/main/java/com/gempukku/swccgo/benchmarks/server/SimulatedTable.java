@@ -0,0 +1,224 @@
+package com.gempukku.swccgo.benchmarks.server;
+
+import com.gempukku.swccgo.PrivateInformationException;
+import com.gempukku.swccgo.SubscriptionConflictException;
+import com.gempukku.swccgo.SubscriptionExpiredException;
+import com.gempukku.swccgo.benchmarks.selfplay.RandomDecisionMaker;
+import com.gempukku.swccgo.benchmarks.selfplay.SelfPlayGame;
+import com.gempukku.swccgo.game.Player;
+import com.gempukku.swccgo.game.SwccgGameMediator;
+import com.gempukku.swccgo.game.SwccgoServer;
+import com.gempukku.swccgo.hall.HallException;
+import com.gempukku.swccgo.hall.HallInfoVisitor;
+import com.gempukku.swccgo.hall.HallServer;
+import com.gempukku.swccgo.logic.decisions.AwaitingDecision;
+import com.gempukku.util.ConcurrentHistogram;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Two simulated players playing a number of games against each other through the hall, one after the other. For
+ * each game one player creates a table, the other finds it in the hall and joins it, and both then play the game
+ * through the game mediator making random decisions, the same way the request handlers would for real players.
+ */
+public class SimulatedTable implements Runnable {
+    public static final String DECK_NAME = "Simulation";
+
+    // Random answers can still be rejected by checks beyond the decision parameters, so a few are tried
+    private static final int ATTEMPTS_PER_DECISION = 10;
+    // Updates in a row without a decision for either player after which the game is considered stuck
+    private static final int MAX_IDLE_POLLS = 100;
+
+    private final HallServer _hallServer;
+    private final SwccgoServer _swccgoServer;
+    private final String _formatCode;
+    private final Player _host;
+    private final Player _joiner;
+    private final int _games;
+    private final int _maxDecisions;
+    private final RandomDecisionMaker _decisionMaker;
+    private final SimulatedHallClient _hostHall;
+    private final SimulatedHallClient _joinerHall;
+    private final ConcurrentHistogram _decisionTimes = new ConcurrentHistogram();
+    private final ConcurrentHistogram _gamePollTimes = new ConcurrentHistogram();
+    private final Map<SelfPlayGame.Outcome, Integer> _outcomes = new EnumMap<>(SelfPlayGame.Outcome.class);
+    private volatile SwccgGameMediator _currentGame;
+    private Exception _error;
+
+    /**
+     * Creates a simulated table.
+     * @param hallServer the hall server
+     * @param swccgoServer the game server
+     * @param formatCode the hall format to create the tables in
+     * @param host the player creating the tables, with a deck saved as DECK_NAME
+     * @param joiner the player joining the tables, with a deck of the other side saved as DECK_NAME
+     * @param games the number of games to play
+     * @param maxDecisions the number of decisions after which a game is conceded
+     * @param random the source of all choices made by the players
+     */
+    public SimulatedTable(HallServer hallServer, SwccgoServer swccgoServer, String formatCode, Player host, Player joiner,
+                          int games, int maxDecisions, Random random) {
+        _hallServer = hallServer;
+        _swccgoServer = swccgoServer;
+        _formatCode = formatCode;
+        _host = host;
+        _joiner = joiner;
+        _games = games;
+        _maxDecisions = maxDecisions;
+        _decisionMaker = new RandomDecisionMaker(random);
+        _hostHall = new SimulatedHallClient(hallServer, host);
+        _joinerHall = new SimulatedHallClient(hallServer, joiner);
+    }
+
+    /**
+     * Gets the game being played at the table, for spectators.
+     * @return the game, or null if none is being played
+     */
+    public SwccgGameMediator getCurrentGame() {
+        return _currentGame;
+    }
+
+    /**
+     * Gets the time taken to process each decision, in nanoseconds.
+     * @return the decision times
+     */
+    public ConcurrentHistogram getDecisionTimes() {
+        return _decisionTimes;
+    }
+
+    /**
+     * Gets the time taken by each game subscription or update of the players, in nanoseconds.
+     * @return the update times
+     */
+    public ConcurrentHistogram getGamePollTimes() {
+        return _gamePollTimes;
+    }
+
+    /**
+     * Gets the time taken by each hall update of the players, in nanoseconds.
+     * @return the update times
+     */
+    public ConcurrentHistogram getHallPollTimes() {
+        ConcurrentHistogram result = new ConcurrentHistogram();
+        result.add(_hostHall.getPollTimes());
+        result.add(_joinerHall.getPollTimes());
+        return result;
+    }
+
+    public Map<SelfPlayGame.Outcome, Integer> getOutcomes() {
+        return _outcomes;
+    }
+
+    /**
+     * Gets the exception that stopped the table, if any.
+     * @return the exception, or null
+     */
+    public Exception getError() {
+        return _error;
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (int i = 0; i < _games; i++) {
+                SwccgGameMediator game = startGame(i);
+                _currentGame = game;
+                _outcomes.merge(play(game), 1, Integer::sum);
+            }
+        } catch (Exception exp) {
+            _error = exp;
+        } finally {
+            _currentGame = null;
+        }
+    }
+
+    private SwccgGameMediator startGame(int gameNumber) throws HallException {
+        _hostHall.poll();
+        _hallServer.createNewTable(_formatCode, _host, DECK_NAME, false, _host.getName() + " game " + gameNumber, false, null);
+
+        _joinerHall.poll();
+        String tableId = findWaitingTable();
+        if (tableId == null)
+            throw new HallException("Created table not found in the hall");
+        _hallServer.joinTableAsPlayer(tableId, _joiner, DECK_NAME, false, null);
+
+        _hostHall.poll();
+        _joinerHall.poll();
+        _joinerHall.consumeNewPlayerGames();
+        List<String> newGames = _hostHall.consumeNewPlayerGames();
+        if (newGames.size() != 1)
+            throw new HallException("Expected one new game in the hall, found " + newGames.size());
+        SwccgGameMediator game = _swccgoServer.getGameById(newGames.get(0));
+        if (game == null)
+            throw new HallException("Game " + newGames.get(0) + " not found");
+        return game;
+    }
+
+    private String findWaitingTable() {
+        String hostPrefix = _host.getName() + " (";
+        for (Map.Entry<String, Map<String, String>> table : _joinerHall.getTables().entrySet()) {
+            Map<String, String> props = table.getValue();
+            if (HallInfoVisitor.TableStatus.WAITING.name().equals(props.get("status"))
+                    && props.get("players") != null && props.get("players").startsWith(hostPrefix))
+                return table.getKey();
+        }
+        return null;
+    }
+
+    private SelfPlayGame.Outcome play(SwccgGameMediator game) throws PrivateInformationException, SubscriptionConflictException, SubscriptionExpiredException {
+        List<SimulatedGameClient> clients = Arrays.asList(
+                new SimulatedGameClient(game, _host, _gamePollTimes),
+                new SimulatedGameClient(game, _joiner, _gamePollTimes));
+        for (SimulatedGameClient client : clients)
+            client.signup();
+
+        int decisions = 0;
+        int idlePolls = 0;
+        int lastDecisionId = -1;
+        int attempts = 0;
+        while (!game.isFinished()) {
+            if (decisions >= _maxDecisions) {
+                game.concede(_host);
+                return SelfPlayGame.Outcome.DECISION_LIMIT;
+            }
+
+            boolean decided = false;
+            for (SimulatedGameClient client : clients) {
+                boolean warned = client.consumeWarned();
+                AwaitingDecision decision = client.consumeAwaitingDecision();
+                if (decision == null)
+                    continue;
+
+                // An invalid answer gets a warning and the same decision sent again
+                attempts = warned && decision.getAwaitingDecisionId() == lastDecisionId ? attempts + 1 : 0;
+                lastDecisionId = decision.getAwaitingDecisionId();
+                if (attempts > ATTEMPTS_PER_DECISION) {
+                    game.concede(_host);
+                    return SelfPlayGame.Outcome.STUCK;
+                }
+                String answer = attempts < ATTEMPTS_PER_DECISION ? _decisionMaker.answer(decision) : _decisionMaker.fallbackAnswer(decision);
+
+                long start = System.nanoTime();
+                game.playerAnswered(client.getPlayer(), client.getChannelNumber(), decision.getAwaitingDecisionId(), answer);
+                _decisionTimes.record(System.nanoTime() - start);
+                decisions++;
+                decided = true;
+            }
+
+            if (!decided && ++idlePolls > MAX_IDLE_POLLS) {
+                game.concede(_host);
+                return SelfPlayGame.Outcome.STUCK;
+            }
+            if (decided)
+                idlePolls = 0;
+
+            for (SimulatedGameClient client : clients)
+                client.poll();
+        }
+        return game.getWinner() != null ? SelfPlayGame.Outcome.FINISHED : SelfPlayGame.Outcome.ERROR;
+    }
+}
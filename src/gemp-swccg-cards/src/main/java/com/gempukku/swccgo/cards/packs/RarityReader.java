@@ -9,17 +9,30 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Reads in the card rarity information from a file and creates the mapping between blueprint card ids and rarity.
+ * The rarity files do not change while the server runs, so each set is read only once and shared by all readers.
  */
 public class RarityReader {
+    private static final Map<String, SetRarity> _setRarities = new ConcurrentHashMap<String, SetRarity>();
+
     /**
-     * Reads in the card rarity information from a file and creates the mapping between blueprint card ids and rarity.
+     * Gets the card rarity information of a set, reading it from the rarity file the first time.
      * @param setNo the set number
      * @return a SetRarity object containing card rarity information for the specified set
      */
     public SetRarity getSetRarity(String setNo) {
+        return _setRarities.computeIfAbsent(setNo, this::readSetRarity);
+    }
+
+    /**
+     * Reads in the card rarity information from a file and creates the mapping between blueprint card ids and rarity.
+     * @param setNo the set number
+     * @return a SetRarity object containing card rarity information for the specified set
+     */
+    private SetRarity readSetRarity(String setNo) {
         try {
             String fileName = "/set" + setNo + "-rarity.txt";
 
@@ -0,0 +1,127 @@
+package com.gempukku.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size histogram of non-negative values (like timings in nanoseconds or sizes in bytes) with log-linear
+ * buckets in the style of an HDR histogram: every power of two is split into 32 buckets, so any value is known to
+ * about 3% precision. Values can be recorded from any number of threads without locking or allocating, and read
+ * while they are being recorded.
+ */
+public class ConcurrentHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below this each get their own bucket
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray _counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder _totalCount = new LongAdder();
+    private final LongAdder _totalValue = new LongAdder();
+    private final LongAccumulator _maxValue = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a value.
+     * @param value the value, negative values are recorded as 0
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        _counts.incrementAndGet(getBucket(value));
+        _totalCount.increment();
+        _totalValue.add(value);
+        _maxValue.accumulate(value);
+    }
+
+    /**
+     * Adds all the values recorded by another histogram. Values recorded into the other histogram while this runs may
+     * or may not be added.
+     * @param other the other histogram
+     */
+    public void add(ConcurrentHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other._counts.get(i);
+            if (count > 0)
+                _counts.addAndGet(i, count);
+        }
+        _totalCount.add(other._totalCount.sum());
+        _totalValue.add(other._totalValue.sum());
+        _maxValue.accumulate(other._maxValue.get());
+    }
+
+    public long getTotalCount() {
+        return _totalCount.sum();
+    }
+
+    public long getTotalValue() {
+        return _totalValue.sum();
+    }
+
+    public long getMaxValue() {
+        return _maxValue.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long totalCount = _totalCount.sum();
+        return totalCount > 0 ? (double) _totalValue.sum() / totalCount : 0;
+    }
+
+    /**
+     * Gets the value at the percentile, which is the highest value that falls in the same bucket. Values recorded
+     * while this runs may or may not be taken into account.
+     * @param percentile the percentile, from 0 to 100
+     * @return the value, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        return getValuesAtPercentiles(percentile)[0];
+    }
+
+    /**
+     * Gets the values at several percentiles at once, going through the buckets only once.
+     * @param percentiles the percentiles, from 0 to 100, in increasing order
+     * @return the values, in the order of the percentiles
+     */
+    public long[] getValuesAtPercentiles(double... percentiles) {
+        long[] counts = new long[BUCKET_COUNT];
+        long totalCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = _counts.get(i);
+            totalCount += counts[i];
+        }
+        long maxValue = _maxValue.get();
+
+        long[] result = new long[percentiles.length];
+        if (totalCount == 0)
+            return result;
+
+        int bucket = 0;
+        long count = counts[0];
+        for (int p = 0; p < percentiles.length; p++) {
+            long countAtPercentile = Math.max(1, (long) Math.ceil(percentiles[p] / 100 * totalCount));
+            while (count < countAtPercentile && bucket < BUCKET_COUNT - 1)
+                count += counts[++bucket];
+            result[p] = Math.min(getHighestValue(bucket), maxValue);
+        }
+        return result;
+    }
+
+    private static int getBucket(long value) {
+        if (value < LINEAR_LIMIT)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long getHighestValue(int bucket) {
+        if (bucket < LINEAR_LIMIT)
+            return bucket;
+        int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
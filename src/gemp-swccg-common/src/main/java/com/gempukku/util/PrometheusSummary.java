@@ -0,0 +1,78 @@
+package com.gempukku.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes the values recorded in a ConcurrentHistogram as a Prometheus summary in the text exposition format, with the
+ * same quantiles for all the metrics of the server.
+ */
+public class PrometheusSummary {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    public static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Writes the HELP and TYPE lines of a summary.
+     * @param writer the writer
+     * @param name the metric name
+     * @param help the description of the metric
+     * @throws IOException if writing fails
+     */
+    public static void writeHeader(Writer writer, String name, String help) throws IOException {
+        writer.write("# HELP " + name + " " + help + "\n");
+        writer.write("# TYPE " + name + " summary\n");
+    }
+
+    /**
+     * Writes the quantiles, sum and count of a histogram. The quantiles are left out if nothing was recorded.
+     * @param writer the writer
+     * @param name the metric name
+     * @param label the labels, like prefix="/gemp-swccg-server/hall", or null for none
+     * @param histogram the histogram
+     * @param unitsPerBaseUnit the recorded units in the unit of the metric, like 1e9 for nanoseconds written as seconds
+     * @throws IOException if writing fails
+     */
+    public static void writeValues(Writer writer, String name, String label, ConcurrentHistogram histogram, double unitsPerBaseUnit) throws IOException {
+        String labelPrefix = label != null ? label + "," : "";
+        String labels = label != null ? "{" + label + "}" : "";
+        long count = histogram.getTotalCount();
+        if (count > 0) {
+            double[] percentiles = new double[QUANTILES.length];
+            for (int i = 0; i < QUANTILES.length; i++)
+                percentiles[i] = QUANTILES[i] * 100;
+            long[] values = histogram.getValuesAtPercentiles(percentiles);
+            for (int i = 0; i < QUANTILES.length; i++)
+                writer.write(name + "{" + labelPrefix + "quantile=\"" + QUANTILES[i] + "\"} " + formatValue(values[i] / unitsPerBaseUnit) + "\n");
+        }
+        writer.write(name + "_sum" + labels + " " + formatValue(histogram.getTotalValue() / unitsPerBaseUnit) + "\n");
+        writer.write(name + "_count" + labels + " " + count + "\n");
+    }
+
+    /**
+     * Writes a summary without labels, with its HELP and TYPE lines.
+     * @param writer the writer
+     * @param name the metric name
+     * @param help the description of the metric
+     * @param histogram the histogram
+     * @param unitsPerBaseUnit the recorded units in the unit of the metric, like 1e9 for nanoseconds written as seconds
+     * @throws IOException if writing fails
+     */
+    public static void write(Writer writer, String name, String help, ConcurrentHistogram histogram, double unitsPerBaseUnit) throws IOException {
+        writeHeader(writer, name, help);
+        writeValues(writer, name, null, histogram, unitsPerBaseUnit);
+    }
+
+    /**
+     * Escapes a label value.
+     * @param value the value
+     * @return the escaped value, without the surrounding quotes
+     */
+    public static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String formatValue(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.6f", value);
+    }
+}
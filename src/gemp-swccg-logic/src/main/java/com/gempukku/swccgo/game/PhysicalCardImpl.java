@@ -1531,8 +1531,12 @@ public class PhysicalCardImpl implements PhysicalCard, Cloneable {
         return super.equals(o);
     }
 
+    /**
+     * Cards are still only equal to themselves, but hash by their permanent card id instead of their identity, so
+     * that the sets and maps of cards iterate the same way every time a game is played.
+     */
     @Override
     public int hashCode() {
-        return super.hashCode();
+        return _permanentCardId;
     }
 }
@@ -7,16 +7,19 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 // The class represents a library of all the Star Wars CCG cards
-// available in Gemp-Swccg.
+// available in Gemp-Swccg. Blueprints are loaded the first time they are
+// asked for, and can be asked for from any number of threads.
 //
 public class SwccgCardBlueprintLibrary {
     private String[] _packageNames =
             new String[]{
                     ".light", ".dark"
             };
-    private Map<String, SwccgCardBlueprint> _blueprintMap = new HashMap<String, SwccgCardBlueprint>();
+    private Map<String, SwccgCardBlueprint> _blueprintMap = new ConcurrentHashMap<String, SwccgCardBlueprint>();
+    private Set<String> _missingBlueprintIds = ConcurrentHashMap.newKeySet();
 
     private Map<String, String> _blueprintMapping = new HashMap<String, String>();
     private Map<String, Set<String>> _fullBlueprintMapping = new HashMap<String, Set<String>>();
@@ -94,12 +97,7 @@ public class SwccgCardBlueprintLibrary {
             if (blueprintId.length()<previousLength-1)
                 return null;
 
-            if (_blueprintMap.containsKey(blueprintId))
-                return _blueprintMap.get(blueprintId);
-
-            SwccgCardBlueprint blueprint = getBlueprint(blueprintId);
-            _blueprintMap.put(blueprintId, blueprint);
-            return blueprint;
+            return getCachedBlueprint(blueprintId);
         }
         catch (IllegalArgumentException e) {
             e.printStackTrace();
@@ -115,12 +113,7 @@ public class SwccgCardBlueprintLibrary {
                 blueprintId = blueprintId + "_BACK";
             }
 
-            if (_blueprintMap.containsKey(blueprintId))
-                return _blueprintMap.get(blueprintId);
-
-            SwccgCardBlueprint blueprint = getBlueprint(blueprintId);
-            _blueprintMap.put(blueprintId, blueprint);
-            return blueprint;
+            return getCachedBlueprint(blueprintId);
         }
         catch (IllegalArgumentException e) {
             e.printStackTrace();
@@ -140,6 +133,26 @@ public class SwccgCardBlueprintLibrary {
         return blueprintId.contains("^");
     }
 
+    /**
+     * Gets the blueprint, loading it if it was not asked for before. If two threads load the same blueprint at once,
+     * both get the one that was stored first.
+     * @param blueprintId the blueprint id, without modifiers
+     * @return the blueprint, or null if there is no such card
+     */
+    private SwccgCardBlueprint getCachedBlueprint(String blueprintId) {
+        SwccgCardBlueprint blueprint = _blueprintMap.get(blueprintId);
+        if (blueprint != null || _missingBlueprintIds.contains(blueprintId))
+            return blueprint;
+
+        blueprint = getBlueprint(blueprintId);
+        if (blueprint == null) {
+            _missingBlueprintIds.add(blueprintId);
+            return null;
+        }
+        SwccgCardBlueprint existing = _blueprintMap.putIfAbsent(blueprintId, blueprint);
+        return existing != null ? existing : blueprint;
+    }
+
     private SwccgCardBlueprint getBlueprint(String blueprintId) {
         if (_blueprintMapping.containsKey(blueprintId))
             return getBlueprint(_blueprintMapping.get(blueprintId));
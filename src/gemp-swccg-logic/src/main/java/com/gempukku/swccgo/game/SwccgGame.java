@@ -9,12 +9,14 @@ import com.gempukku.swccgo.communication.UserFeedback;
 import com.gempukku.swccgo.game.state.GameState;
 import com.gempukku.swccgo.logic.modifiers.querying.ModifiersEnvironment;
 import com.gempukku.swccgo.logic.modifiers.querying.ModifiersQuerying;
+import com.gempukku.swccgo.logic.timing.DecisionLoopStatistics;
 import com.gempukku.swccgo.logic.timing.GameResultListener;
 import com.gempukku.swccgo.logic.timing.GameSnapshot;
 import com.gempukku.swccgo.logic.timing.GameStats;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 /**
@@ -43,6 +45,25 @@ public interface SwccgGame {
      */
     GameStats getGameStats();
 
+    /**
+     * Gets the statistics of the work done between player decisions.
+     * @return the decision loop statistics
+     */
+    DecisionLoopStatistics getDecisionLoopStatistics();
+
+    /**
+     * Gets the seed the randomness of the game comes from. Playing the game again with the same seed, decks and
+     * decisions plays it the same way.
+     * @return the random seed
+     */
+    long getRandomSeed();
+
+    /**
+     * Gets the source of all randomness in the game, like shuffling card piles and choosing random cards.
+     * @return the random
+     */
+    Random getRandom();
+
     /**
      * Gets the modifiers environment.
      * @return the modifiers environment
@@ -400,7 +400,7 @@ public class GameState implements Snapshotable<GameState> {
 
         // Shuffle the Reserve Deck and then make sure that top card is not a double-sided card
         List<PhysicalCard> reserveDeck = _reserveDecks.get(playerId);
-        Collections.shuffle(reserveDeck);
+        Collections.shuffle(reserveDeck, _game.getRandom());
         PhysicalCard topCard = reserveDeck.get(0);
         for (int i=0; i < reserveDeck.size(); ++i) {
             if (!topCard.getBlueprint().isFrontOfDoubleSidedCard()) {
@@ -4610,7 +4610,7 @@ public class GameState implements Snapshotable<GameState> {
             int minTimesToShuffle = (cardsInPile.size() / 30) + 1;
             int timesShuffled = 0;
             do {
-                Collections.shuffle(cardsInPile);
+                Collections.shuffle(cardsInPile, _game.getRandom());
                 timesShuffled++;
                 topCard = cardsInPile.get(0);
             } while (timesShuffled < minTimesToShuffle || topCard.isInserted());
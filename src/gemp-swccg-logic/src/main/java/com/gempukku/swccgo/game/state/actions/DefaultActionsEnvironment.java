@@ -9,6 +9,7 @@ import com.gempukku.swccgo.game.state.DrawDestinyState;
 import com.gempukku.swccgo.logic.actions.TriggerAction;
 import com.gempukku.swccgo.logic.effects.DrawDestinyEffect;
 import com.gempukku.swccgo.logic.effects.RespondablePlayingCardEffect;
+import com.gempukku.swccgo.logic.timing.DecisionLoopStatistics;
 import com.gempukku.swccgo.logic.timing.*;
 import com.gempukku.swccgo.logic.timing.results.DestinyDrawnResult;
 import com.google.common.base.Objects;
@@ -30,7 +31,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     private List<ActionProxy> _untilEndOfWeaponFiringActionProxies = new LinkedList<ActionProxy>();
     private Map<Integer, List<ActionProxy>> _untilEndOfDrawDestinyActionProxies = new HashMap<Integer, List<ActionProxy>>();
     private Map<Integer, List<ActionProxy>> _untilEndOfBlowAwayActionProxies = new HashMap<Integer, List<ActionProxy>>();
-    private Set<EffectResult> _effectResults = new HashSet<EffectResult>();
+    private Set<EffectResult> _effectResults = new LinkedHashSet<EffectResult>();
 
     /**
      * Needed to generate snapshot.
@@ -92,7 +93,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     @Override
     public Set<EffectResult> consumeEffectResults() {
         Set<EffectResult> result = _effectResults;
-        _effectResults = new HashSet<EffectResult>();
+        _effectResults = new LinkedHashSet<EffectResult>();
         return result;
     }
 
@@ -327,7 +328,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
 
     @Override
     public Map<TriggerAction, EffectResult> getRequiredAfterTriggers(Collection<? extends EffectResult> effectResults) {
-        Map<TriggerAction, EffectResult> allActions = new HashMap<TriggerAction, EffectResult>();
+        Map<TriggerAction, EffectResult> allActions = new LinkedHashMap<TriggerAction, EffectResult>();
 
         GatherRequiredAfterTriggers gatherActions = new GatherRequiredAfterTriggers(effectResults);
         _swccgGame.getGameState().iterateCardsWithRequiredActions(gatherActions);
@@ -422,7 +423,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
         GatherOpponentsCardOptionalAfterTriggers gatherOpponentsActions = new GatherOpponentsCardOptionalAfterTriggers(playerId, effectResults);
         _swccgGame.getGameState().iterateOpponentsCardsWithOptionalActions(gatherOpponentsActions, playerId);
 
-        Map<TriggerAction, EffectResult> allActions = new HashMap<TriggerAction, EffectResult>();
+        Map<TriggerAction, EffectResult> allActions = new LinkedHashMap<TriggerAction, EffectResult>();
         allActions.putAll(gatherActions.getActions());
         allActions.putAll(gatherOpponentsActions.getActions());
 
@@ -589,11 +590,29 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
         _actionStack.stackAction(action);
     }
 
+    /**
+     * A card visitor that counts each card checked in the decision loop statistics of the game, and also records the
+     * time spent checking it when card timing is enabled.
+     */
+    private abstract class TimedCardVisitor extends CompletePhysicalCardVisitor {
+        @Override
+        public boolean visitPhysicalCard(PhysicalCard physicalCard) {
+            if (!DecisionLoopStatistics.isCardTimingEnabled()) {
+                _swccgGame.getDecisionLoopStatistics().cardChecked();
+                doVisitPhysicalCard(physicalCard);
+                return false;
+            }
+            long start = System.nanoTime();
+            doVisitPhysicalCard(physicalCard);
+            _swccgGame.getDecisionLoopStatistics().cardChecked(physicalCard, System.nanoTime() - start);
+            return false;
+        }
+    }
 
     /**
      * A card visitor that gathers the required "before" responses to an effect.
      */
-    private class GatherRequiredBeforeTriggers extends CompletePhysicalCardVisitor {
+    private class GatherRequiredBeforeTriggers extends TimedCardVisitor {
         private Effect _effect;
         private List<TriggerAction> _actions = new LinkedList<TriggerAction>();
 
@@ -626,7 +645,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     /**
      * A card visitor that gathers the required "before" responses to an effect from 'outside of deck' cards.
      */
-    private class GatherOutsideOfDeckRequiredBeforeTriggers extends CompletePhysicalCardVisitor {
+    private class GatherOutsideOfDeckRequiredBeforeTriggers extends TimedCardVisitor {
         private Effect _effect;
         private List<TriggerAction> _actions = new LinkedList<TriggerAction>();
 
@@ -658,7 +677,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     /**
      * A card visitor that gathers the optional "before" responses for the specified player to an effect.
      */
-    private class GatherOptionalBeforeTriggers extends CompletePhysicalCardVisitor {
+    private class GatherOptionalBeforeTriggers extends TimedCardVisitor {
         private String _playerId;
         private Effect _effect;
         private List<TriggerAction> _actions = new LinkedList<TriggerAction>();
@@ -699,7 +718,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
      * A card visitor that gathers the optional "before" responses (from opponent's cards) for the specified player to
      * an effect.
      */
-    private class GatherOpponentsCardOptionalBeforeTriggers extends CompletePhysicalCardVisitor {
+    private class GatherOpponentsCardOptionalBeforeTriggers extends TimedCardVisitor {
         private String _playerId;
         private Effect _effect;
         private List<TriggerAction> _actions = new LinkedList<TriggerAction>();
@@ -739,7 +758,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     /**
      * A card visitor that gathers the optional "before" response actions for the specified player to an effect.
      */
-    private class GatherOptionalBeforeActions extends CompletePhysicalCardVisitor {
+    private class GatherOptionalBeforeActions extends TimedCardVisitor {
         private String _playerId;
         private Effect _effect;
         private List<Action> _actions = new LinkedList<Action>();
@@ -777,9 +796,9 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     /**
      * A card visitor that gathers the required "after" responses to any of the specified effect results from 'outside of deck' cards
      */
-    private class GatherOutsideOfDeckRequiredAfterTriggers extends CompletePhysicalCardVisitor {
+    private class GatherOutsideOfDeckRequiredAfterTriggers extends TimedCardVisitor {
         private Collection<? extends EffectResult> _effectResults;
-        private Map<TriggerAction, EffectResult> _actions = new HashMap<TriggerAction, EffectResult>();
+        private Map<TriggerAction, EffectResult> _actions = new LinkedHashMap<TriggerAction, EffectResult>();
 
         /**
          * Creates a card visitor that gathers the required "after" responses to an effect result from 'outside of deck' cards.
@@ -834,9 +853,9 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     /**
      * A card visitor that gathers the required "after" responses to any of the specified effect results.
      */
-    private class GatherRequiredAfterTriggers extends CompletePhysicalCardVisitor {
+    private class GatherRequiredAfterTriggers extends TimedCardVisitor {
         private Collection<? extends EffectResult> _effectResults;
-        private Map<TriggerAction, EffectResult> _actions = new HashMap<TriggerAction, EffectResult>();
+        private Map<TriggerAction, EffectResult> _actions = new LinkedHashMap<TriggerAction, EffectResult>();
 
         /**
          * Creates a card visitor that gathers the required "after" responses to an effect result.
@@ -892,10 +911,10 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
      * A card visitor that gathers the optional "after" responses for the specified player to any of the specified effect
      * results.
      */
-    private class GatherOptionalAfterTriggers extends CompletePhysicalCardVisitor {
+    private class GatherOptionalAfterTriggers extends TimedCardVisitor {
         private String _playerId;
         private Collection<? extends EffectResult> _effectResults;
-        private Map<TriggerAction, EffectResult> _actions = new HashMap<TriggerAction, EffectResult>();
+        private Map<TriggerAction, EffectResult> _actions = new LinkedHashMap<TriggerAction, EffectResult>();
 
         /**
          * Creates a card visitor that gathers the optional "after" responses for the specified player to any of the specified
@@ -955,10 +974,10 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
      * A card visitor that gathers the optional "after" responses (from opponent's cards) for the specified player to any
      * of the specified effect results.
      */
-    private class GatherOpponentsCardOptionalAfterTriggers extends CompletePhysicalCardVisitor {
+    private class GatherOpponentsCardOptionalAfterTriggers extends TimedCardVisitor {
         private String _playerId;
         private Collection<? extends EffectResult> _effectResults;
-        private Map<TriggerAction, EffectResult> _actions = new HashMap<TriggerAction, EffectResult>();
+        private Map<TriggerAction, EffectResult> _actions = new LinkedHashMap<TriggerAction, EffectResult>();
 
         /**
          * Creates a card visitor that gathers the optional "after" responses (from opponent's cards) for the specified
@@ -1018,7 +1037,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
      * A card visitor that gathers the optional "after" response actions for the specified player to any of the specified
      * effect results.
      */
-    private class GatherOptionalAfterActions extends CompletePhysicalCardVisitor {
+    private class GatherOptionalAfterActions extends TimedCardVisitor {
         private String _playerId;
         private Collection<? extends EffectResult> _effectResults;
         private List<Action> _actions = new LinkedList<Action>();
@@ -1059,7 +1078,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     /**
      * A card visitor that gathers the top-level actions for the specified player.
      */
-    private class GatherTopLevelActions extends CompletePhysicalCardVisitor {
+    private class GatherTopLevelActions extends TimedCardVisitor {
         private String _playerId;
         private List<Action> _actions = new LinkedList<Action>();
 
@@ -1107,7 +1126,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     /**
      * A card visitor that gathers the top-level actions for the specified player (from opponent's cards).
      */
-    private class GatherOpponentsCardPhaseActionsVisitor extends CompletePhysicalCardVisitor {
+    private class GatherOpponentsCardPhaseActionsVisitor extends TimedCardVisitor {
         private String _playerId;
         private List<Action> _actions = new LinkedList<Action>();
 
@@ -1145,7 +1164,7 @@ public class DefaultActionsEnvironment implements ActionsEnvironment {
     /**
      * A card visitor that gathers the top-level card pile actions for the specified player.
      */
-    private class GatherCardPilePhaseActionsVisitor extends CompletePhysicalCardVisitor {
+    private class GatherCardPilePhaseActionsVisitor extends TimedCardVisitor {
         private String _playerId;
         private List<Action> _actions = new LinkedList<Action>();
 
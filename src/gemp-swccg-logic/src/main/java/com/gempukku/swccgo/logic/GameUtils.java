@@ -5,6 +5,7 @@ import com.gempukku.swccgo.common.Title;
 import com.gempukku.swccgo.common.Zone;
 import com.gempukku.swccgo.game.PhysicalCard;
 import com.gempukku.swccgo.game.SwccgCardBlueprint;
+import com.gempukku.swccgo.game.SwccgGame;
 
 import java.util.*;
 
@@ -52,13 +53,14 @@ public class GameUtils {
 
     /**
      * Gets the specified number of random cards from the specified card list.
+     * @param game the game
      * @param cards the card list
      * @param count the number of random cards to get
      * @return a list of the random cards selected
      */
-    public static List<PhysicalCard> getRandomCards(Collection<PhysicalCard> cards, int count) {
+    public static List<PhysicalCard> getRandomCards(SwccgGame game, Collection<PhysicalCard> cards, int count) {
         List<PhysicalCard> randomizedCards = new ArrayList<PhysicalCard>(cards);
-        Collections.shuffle(randomizedCards);
+        Collections.shuffle(randomizedCards, game.getRandom());
         return new LinkedList<>(randomizedCards.subList(0, Math.min(count, randomizedCards.size())));
     }
 
@@ -30,6 +30,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -2686,8 +2687,9 @@ public class ModifiersLogic implements ModifiersEnvironment, ModifiersState, Mod
     //endregion
 
     public Collection<Modifier> getModifiersAffecting(GameState gameState, PhysicalCard card) {
+        _swccgGame.getDecisionLoopStatistics().modifierQueried();
 
-        Set<Modifier> result = new HashSet<Modifier>();
+        Set<Modifier> result = new LinkedHashSet<Modifier>();
         for (List<Modifier> modifiers : _modifiers.values()) {
             for (Modifier modifier : modifiers) {
                 Condition condition = modifier.getCondition();
@@ -2791,6 +2793,7 @@ public class ModifiersLogic implements ModifiersEnvironment, ModifiersState, Mod
     }
 
     public List<Modifier> getKeywordModifiersAffectingCard(GameState gameState, ModifierType modifierType, Keyword keyword, PhysicalCard card) {
+        _swccgGame.getDecisionLoopStatistics().modifierQueried();
         // Get always on modifiers
         List<? extends Modifier> alwaysOnModifiers = null;
         if (card != null && _alwaysOnModifiersMap.containsKey(card.getPermanentCardId())) {
@@ -0,0 +1,165 @@
+package com.gempukku.swccgo.logic.timing;
+
+import com.gempukku.swccgo.common.Phase;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The work done by the game engine between two player decisions (or the totals of several), as recorded by
+ * DecisionLoopStatistics. A record does not change once created.
+ */
+public class DecisionLoopRecord {
+    private final long _endTime;
+    private final int _decisionLoops;
+    private final long _durationNanos;
+    private final long _iterations;
+    private final long _effects;
+    private final long _cardChecks;
+    private final long _modifierQueries;
+    private final long[] _stepNanos;
+    private final long[] _phaseNanos;
+    private final List<BlueprintTime> _slowestBlueprints;
+
+    DecisionLoopRecord(long endTime, int decisionLoops, long durationNanos, long iterations, long effects, long cardChecks,
+                       long modifierQueries, long[] stepNanos, long[] phaseNanos, List<BlueprintTime> slowestBlueprints) {
+        _endTime = endTime;
+        _decisionLoops = decisionLoops;
+        _durationNanos = durationNanos;
+        _iterations = iterations;
+        _effects = effects;
+        _cardChecks = cardChecks;
+        _modifierQueries = modifierQueries;
+        _stepNanos = stepNanos.clone();
+        _phaseNanos = phaseNanos.clone();
+        _slowestBlueprints = Collections.unmodifiableList(slowestBlueprints);
+    }
+
+    /**
+     * Gets the time the (last) decision loop ended.
+     * @return the time in milliseconds since the epoch
+     */
+    public long getEndTime() {
+        return _endTime;
+    }
+
+    /**
+     * Gets the number of decision loops this record covers.
+     * @return the number of decision loops
+     */
+    public int getDecisionLoops() {
+        return _decisionLoops;
+    }
+
+    public long getDurationNanos() {
+        return _durationNanos;
+    }
+
+    /**
+     * Gets the number of times the turn procedure loop ran.
+     * @return the number of iterations
+     */
+    public long getIterations() {
+        return _iterations;
+    }
+
+    /**
+     * Gets the number of effects taken from the action stack.
+     * @return the number of effects
+     */
+    public long getEffects() {
+        return _effects;
+    }
+
+    /**
+     * Gets the number of times a card was checked for triggers or actions.
+     * @return the number of card checks
+     */
+    public long getCardChecks() {
+        return _cardChecks;
+    }
+
+    public long getModifierQueries() {
+        return _modifierQueries;
+    }
+
+    /**
+     * Gets the time spent in a step of the turn procedure loop.
+     * @param step the step
+     * @return the time in nanoseconds
+     */
+    public long getStepNanos(DecisionLoopStatistics.Step step) {
+        return _stepNanos[step.ordinal()];
+    }
+
+    /**
+     * Gets the time spent during a phase.
+     * @param phase the phase, or null for before the first phase of the game
+     * @return the time in nanoseconds
+     */
+    public long getPhaseNanos(Phase phase) {
+        return _phaseNanos[phase != null ? phase.ordinal() : Phase.values().length];
+    }
+
+    /**
+     * Gets the cards whose game text took the most time to check for triggers and actions, slowest first.
+     * @return the blueprint times
+     */
+    public List<BlueprintTime> getSlowestBlueprints() {
+        return _slowestBlueprints;
+    }
+
+    /**
+     * Gets the record as nested maps and lists, ready to be written as JSON. Times are in microseconds.
+     * @return the record
+     */
+    public Map<String, Object> toJsonMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("endTime", _endTime);
+        result.put("decisionLoops", _decisionLoops);
+        result.put("durationMicros", _durationNanos / 1000);
+        result.put("iterations", _iterations);
+        result.put("effects", _effects);
+        result.put("cardChecks", _cardChecks);
+        result.put("modifierQueries", _modifierQueries);
+        result.put("stepMicros", DecisionLoopStatistics.getStepMicros(_stepNanos));
+        result.put("phaseMicros", DecisionLoopStatistics.getPhaseMicros(_phaseNanos));
+        result.put("slowestBlueprints", DecisionLoopStatistics.getBlueprintTimesJson(_slowestBlueprints));
+        return result;
+    }
+
+    /**
+     * The time spent checking the game text of the cards with one blueprint for triggers and actions.
+     */
+    public static class BlueprintTime {
+        private final String _blueprintId;
+        private final String _title;
+        private final long _nanos;
+        private final long _checks;
+
+        BlueprintTime(String blueprintId, String title, long nanos, long checks) {
+            _blueprintId = blueprintId;
+            _title = title;
+            _nanos = nanos;
+            _checks = checks;
+        }
+
+        public String getBlueprintId() {
+            return _blueprintId;
+        }
+
+        public String getTitle() {
+            return _title;
+        }
+
+        public long getNanos() {
+            return _nanos;
+        }
+
+        public long getChecks() {
+            return _checks;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.gempukku.swccgo.logic.timing;
+
+import com.alibaba.fastjson.JSON;
+import com.gempukku.swccgo.common.Phase;
+import com.gempukku.swccgo.game.PhysicalCard;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps count of the work the game engine does between player decisions (a "decision loop"): how many times the turn
+ * procedure loop ran, the time spent in each step of the loop and in each phase, the number of effects played, the
+ * number of times cards were checked for triggers and actions, the number of modifier queries, and the cards whose
+ * game text took the most time to check.
+ *
+ * The counters are updated by the thread running the game without any locking. Each finished decision loop is turned
+ * into a DecisionLoopRecord, and the recent, slowest and total records can be read from any thread. A decision loop
+ * taking longer than the slow threshold is logged as a single line of JSON when it finishes. While it is still
+ * running, it is reported by the DecisionLoopWatchdog, if one is started.
+ *
+ * The time spent checking each card is only measured when card timing is enabled, since it adds to the innermost loop
+ * of the engine. Otherwise only the number of cards checked is counted.
+ */
+public class DecisionLoopStatistics {
+    private static final Logger LOG = LogManager.getLogger(DecisionLoopStatistics.class);
+    private static final int RECENT_RECORDS = 20;
+    private static final int SLOWEST_BLUEPRINTS = 10;
+
+    private static volatile long _slowThresholdNanos = 2_000_000_000L;
+    private static volatile boolean _cardTimingEnabled;
+
+    /**
+     * The steps of the turn procedure loop.
+     */
+    public enum Step {
+        EFFECT_RESULTS, GAME_PROCESS, ACTION_STACK, GAME_STATS, SNAPSHOT_RESTORE
+    }
+
+    private String _gameId;
+
+    // The decision loop being run, only used by the game thread
+    private int _depth;
+    private volatile long _startNanos;
+    private volatile Thread _thread;
+    private long _iterations;
+    private long _effects;
+    private long _cardChecks;
+    private long _modifierQueries;
+    private final long[] _stepNanos = new long[Step.values().length];
+    private final long[] _phaseNanos = new long[Phase.values().length + 1];
+    private final Map<String, BlueprintCounter> _blueprintCounters = new HashMap<>();
+
+    // The finished decision loops, guarded by this
+    private final Deque<DecisionLoopRecord> _recentRecords = new ArrayDeque<>();
+    private DecisionLoopRecord _slowestRecord;
+    private int _totalDecisionLoops;
+    private long _totalDurationNanos;
+    private long _totalIterations;
+    private long _totalEffects;
+    private long _totalCardChecks;
+    private long _totalModifierQueries;
+    private final long[] _totalStepNanos = new long[Step.values().length];
+    private final long[] _totalPhaseNanos = new long[Phase.values().length + 1];
+    private final Map<String, BlueprintCounter> _totalBlueprintCounters = new HashMap<>();
+
+    /**
+     * Sets the time after which a decision loop is logged as slow, for all games.
+     * @param slowThresholdMillis the threshold in milliseconds
+     */
+    public static void setSlowThresholdMillis(long slowThresholdMillis) {
+        _slowThresholdNanos = slowThresholdMillis * 1_000_000L;
+    }
+
+    /**
+     * Gets the time after which a decision loop is logged as slow.
+     * @return the threshold in nanoseconds
+     */
+    public static long getSlowThresholdNanos() {
+        return _slowThresholdNanos;
+    }
+
+    /**
+     * Sets if the time spent checking each card is measured, for all games.
+     * @param cardTimingEnabled true or false
+     */
+    public static void setCardTimingEnabled(boolean cardTimingEnabled) {
+        _cardTimingEnabled = cardTimingEnabled;
+    }
+
+    /**
+     * Determines if the time spent checking each card is measured.
+     * @return true or false
+     */
+    public static boolean isCardTimingEnabled() {
+        return _cardTimingEnabled;
+    }
+
+    /**
+     * Sets the game id included when logging slow decision loops.
+     * @param gameId the game id
+     */
+    public void setGameId(String gameId) {
+        _gameId = gameId;
+    }
+
+    /**
+     * Starts a decision loop, unless one is already running (as when the game carries on after restoring a snapshot).
+     */
+    public void decisionLoopStarted() {
+        if (_depth++ > 0)
+            return;
+
+        _iterations = 0;
+        _effects = 0;
+        _cardChecks = 0;
+        _modifierQueries = 0;
+        Arrays.fill(_stepNanos, 0);
+        Arrays.fill(_phaseNanos, 0);
+        _blueprintCounters.clear();
+        _thread = Thread.currentThread();
+        _startNanos = System.nanoTime();
+        DecisionLoopWatchdog.decisionLoopStarted(this);
+    }
+
+    /**
+     * Finishes the decision loop started by the matching decisionLoopStarted.
+     */
+    public void decisionLoopFinished() {
+        if (--_depth > 0)
+            return;
+
+        long durationNanos = System.nanoTime() - _startNanos;
+        _startNanos = 0;
+        _thread = null;
+        DecisionLoopWatchdog.decisionLoopFinished(this);
+        DecisionLoopRecord record = createRecord(1, durationNanos, _iterations, _effects, _cardChecks, _modifierQueries,
+                _stepNanos, _phaseNanos, _blueprintCounters);
+
+        synchronized (this) {
+            _recentRecords.addLast(record);
+            if (_recentRecords.size() > RECENT_RECORDS)
+                _recentRecords.removeFirst();
+            if (_slowestRecord == null || durationNanos > _slowestRecord.getDurationNanos())
+                _slowestRecord = record;
+            _totalDecisionLoops++;
+            _totalDurationNanos += durationNanos;
+            _totalIterations += _iterations;
+            _totalEffects += _effects;
+            _totalCardChecks += _cardChecks;
+            _totalModifierQueries += _modifierQueries;
+            for (int i = 0; i < _stepNanos.length; i++)
+                _totalStepNanos[i] += _stepNanos[i];
+            for (int i = 0; i < _phaseNanos.length; i++)
+                _totalPhaseNanos[i] += _phaseNanos[i];
+            for (BlueprintCounter counter : _blueprintCounters.values())
+                _totalBlueprintCounters.computeIfAbsent(counter._blueprintId, id -> new BlueprintCounter(counter._blueprintId, counter._title)).add(counter);
+        }
+
+        if (durationNanos > _slowThresholdNanos)
+            LOG.warn("Slow decision loop: " + JSON.toJSONString(getSlowLogEntry(record)));
+    }
+
+    /**
+     * Records the time spent in one step of the turn procedure loop. Each call for the EFFECT_RESULTS, GAME_PROCESS
+     * or ACTION_STACK step counts as an iteration of the loop.
+     * @param step the step
+     * @param phase the current phase, or null before the first phase of the game
+     * @param nanos the time spent
+     */
+    public void stepDone(Step step, Phase phase, long nanos) {
+        _stepNanos[step.ordinal()] += nanos;
+        _phaseNanos[phase != null ? phase.ordinal() : Phase.values().length] += nanos;
+        if (step != Step.GAME_STATS && step != Step.SNAPSHOT_RESTORE)
+            _iterations++;
+    }
+
+    /**
+     * Counts an effect taken from the action stack.
+     */
+    public void effectPlayed() {
+        _effects++;
+    }
+
+    /**
+     * Counts a modifier query.
+     */
+    public void modifierQueried() {
+        _modifierQueries++;
+    }
+
+    /**
+     * Counts a card checked for triggers or actions, without its time.
+     */
+    public void cardChecked() {
+        _cardChecks++;
+    }
+
+    /**
+     * Records the time spent checking a card for triggers or actions.
+     * @param card the card
+     * @param nanos the time spent
+     */
+    public void cardChecked(PhysicalCard card, long nanos) {
+        _cardChecks++;
+        String blueprintId = card.getBlueprintId(true);
+        BlueprintCounter counter = _blueprintCounters.get(blueprintId);
+        if (counter == null) {
+            counter = new BlueprintCounter(blueprintId, card.getTitle());
+            _blueprintCounters.put(blueprintId, counter);
+        }
+        counter._nanos += nanos;
+        counter._checks++;
+    }
+
+    /**
+     * Determines if a decision loop is running.
+     * @return true or false
+     */
+    public boolean isDecisionLoopRunning() {
+        return _startNanos != 0;
+    }
+
+    /**
+     * Gets how long the running decision loop has been running.
+     * @return the time in nanoseconds, or 0 if no decision loop is running
+     */
+    public long getRunningNanos() {
+        long startNanos = _startNanos;
+        return startNanos != 0 ? System.nanoTime() - startNanos : 0;
+    }
+
+    /**
+     * Gets the thread running the decision loop.
+     * @return the thread, or null if no decision loop is running
+     */
+    public Thread getThread() {
+        return _thread;
+    }
+
+    /**
+     * Gets the game id.
+     * @return the game id, or null if not set
+     */
+    public String getGameId() {
+        return _gameId;
+    }
+
+    /**
+     * Gets the most recent finished decision loops.
+     * @return the records, oldest first
+     */
+    public synchronized List<DecisionLoopRecord> getRecentRecords() {
+        return new ArrayList<>(_recentRecords);
+    }
+
+    /**
+     * Gets the slowest finished decision loop.
+     * @return the record, or null if no decision loop finished yet
+     */
+    public synchronized DecisionLoopRecord getSlowestRecord() {
+        return _slowestRecord;
+    }
+
+    /**
+     * Gets the totals of all finished decision loops.
+     * @return the totals
+     */
+    public synchronized DecisionLoopRecord getTotals() {
+        return createRecord(_totalDecisionLoops, _totalDurationNanos, _totalIterations, _totalEffects, _totalCardChecks,
+                _totalModifierQueries, _totalStepNanos, _totalPhaseNanos, _totalBlueprintCounters);
+    }
+
+    /**
+     * Gets the statistics as nested maps and lists, ready to be written as JSON. Times are in microseconds.
+     * @return the statistics
+     */
+    public Map<String, Object> toJsonMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("gameId", _gameId);
+        result.put("runningMicros", getRunningNanos() / 1000);
+        result.put("totals", getTotals().toJsonMap());
+        DecisionLoopRecord slowestRecord = getSlowestRecord();
+        result.put("slowest", slowestRecord != null ? slowestRecord.toJsonMap() : null);
+        List<Map<String, Object>> recent = new ArrayList<>();
+        for (DecisionLoopRecord record : getRecentRecords())
+            recent.add(record.toJsonMap());
+        result.put("recent", recent);
+        return result;
+    }
+
+    private Map<String, Object> getSlowLogEntry(DecisionLoopRecord record) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("gameId", _gameId);
+        result.put("finished", true);
+        result.putAll(record.toJsonMap());
+        return result;
+    }
+
+    private static DecisionLoopRecord createRecord(int decisionLoops, long durationNanos, long iterations, long effects, long cardChecks,
+                                                   long modifierQueries, long[] stepNanos, long[] phaseNanos, Map<String, BlueprintCounter> blueprintCounters) {
+        List<BlueprintCounter> counters = new ArrayList<>(blueprintCounters.values());
+        counters.sort((c1, c2) -> Long.compare(c2._nanos, c1._nanos));
+        List<DecisionLoopRecord.BlueprintTime> slowestBlueprints = new ArrayList<>();
+        for (int i = 0; i < Math.min(SLOWEST_BLUEPRINTS, counters.size()); i++) {
+            BlueprintCounter counter = counters.get(i);
+            slowestBlueprints.add(new DecisionLoopRecord.BlueprintTime(counter._blueprintId, counter._title, counter._nanos, counter._checks));
+        }
+        return new DecisionLoopRecord(System.currentTimeMillis(), decisionLoops, durationNanos, iterations, effects, cardChecks,
+                modifierQueries, stepNanos, phaseNanos, slowestBlueprints);
+    }
+
+    static Map<String, Long> getStepMicros(long[] stepNanos) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Step step : Step.values())
+            result.put(step.name(), stepNanos[step.ordinal()] / 1000);
+        return result;
+    }
+
+    static Map<String, Long> getPhaseMicros(long[] phaseNanos) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (phaseNanos[Phase.values().length] > 0)
+            result.put("PRE_GAME", phaseNanos[Phase.values().length] / 1000);
+        for (Phase phase : Phase.values()) {
+            if (phaseNanos[phase.ordinal()] > 0)
+                result.put(phase.name(), phaseNanos[phase.ordinal()] / 1000);
+        }
+        return result;
+    }
+
+    static List<Map<String, Object>> getBlueprintTimesJson(List<DecisionLoopRecord.BlueprintTime> blueprintTimes) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (DecisionLoopRecord.BlueprintTime blueprintTime : blueprintTimes) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("blueprintId", blueprintTime.getBlueprintId());
+            entry.put("title", blueprintTime.getTitle());
+            entry.put("micros", blueprintTime.getNanos() / 1000);
+            entry.put("checks", blueprintTime.getChecks());
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * The time spent checking the cards with one blueprint, while it is being counted.
+     */
+    private static class BlueprintCounter {
+        private final String _blueprintId;
+        private final String _title;
+        private long _nanos;
+        private long _checks;
+
+        private BlueprintCounter(String blueprintId, String title) {
+            _blueprintId = blueprintId;
+            _title = title;
+        }
+
+        private void add(BlueprintCounter other) {
+            _nanos += other._nanos;
+            _checks += other._checks;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.gempukku.swccgo.logic.timing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the running decision loops of all games from its own thread, and logs the stack trace of the game thread of
+ * any decision loop running for longer than the slow threshold, once per decision loop. Since it does not run on the
+ * game thread, it also reports a game stuck in a single step of the turn procedure.
+ */
+public class DecisionLoopWatchdog {
+    private static final Logger LOG = LogManager.getLogger(DecisionLoopWatchdog.class);
+
+    private static volatile boolean _started;
+    // The running decision loops, mapped to whether they were already reported
+    private static final Map<DecisionLoopStatistics, Boolean> _running = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the watchdog. The decision loops started before are not watched.
+     * @param intervalMillis the milliseconds between checks of the running decision loops
+     */
+    public static synchronized void start(long intervalMillis) {
+        if (_started)
+            return;
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "decision-loop-watchdog");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.scheduleWithFixedDelay(DecisionLoopWatchdog::checkRunning, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        _started = true;
+    }
+
+    static void decisionLoopStarted(DecisionLoopStatistics statistics) {
+        if (_started)
+            _running.put(statistics, Boolean.FALSE);
+    }
+
+    static void decisionLoopFinished(DecisionLoopStatistics statistics) {
+        if (_started)
+            _running.remove(statistics);
+    }
+
+    /**
+     * Logs the decision loops that are over the slow threshold and were not reported yet.
+     * @return the number of decision loops logged
+     */
+    static int checkRunning() {
+        int reported = 0;
+        long slowThresholdNanos = DecisionLoopStatistics.getSlowThresholdNanos();
+        for (Map.Entry<DecisionLoopStatistics, Boolean> running : _running.entrySet()) {
+            DecisionLoopStatistics statistics = running.getKey();
+            long runningNanos = statistics.getRunningNanos();
+            if (runningNanos > slowThresholdNanos && _running.replace(statistics, Boolean.FALSE, Boolean.TRUE)) {
+                Thread thread = statistics.getThread();
+                StringBuilder trace = new StringBuilder();
+                if (thread != null) {
+                    for (StackTraceElement element : thread.getStackTrace())
+                        trace.append("\n\tat ").append(element);
+                }
+                LOG.warn("Slow decision loop still running in game " + statistics.getGameId() + " for " + (runningNanos / 1_000_000)
+                        + " ms on thread " + (thread != null ? thread.getName() : "?") + trace);
+                reported++;
+            }
+        }
+        return reported;
+    }
+}
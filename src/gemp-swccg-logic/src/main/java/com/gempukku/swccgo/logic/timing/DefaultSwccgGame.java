@@ -21,6 +21,7 @@ import com.gempukku.swccgo.logic.modifiers.querying.ModifiersQuerying;
 import com.gempukku.swccgo.logic.vo.SwccgDeck;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The implementation of an SwccgGame.
@@ -31,6 +32,9 @@ public class DefaultSwccgGame implements SwccgGame {
     private ActionsEnvironment _actionsEnvironment;
     private UserFeedback _userFeedback;
     private TurnProcedure _turnProcedure;
+    private final DecisionLoopStatistics _decisionLoopStatistics = new DecisionLoopStatistics();
+    private final long _randomSeed;
+    private final Random _random;
 
     private SwccgFormat _format;
     private boolean _useBonusAbilities;
@@ -51,7 +55,7 @@ public class DefaultSwccgGame implements SwccgGame {
     private Map<String, Integer> _playerClocks;
 
     private Map<String, Set<Phase>> _autoPassConfiguration = new HashMap<String, Set<Phase>>();
-    private Set<GameStateListener> _gameStateListeners = new HashSet<GameStateListener>();
+    private Set<GameStateListener> _gameStateListeners = new LinkedHashSet<GameStateListener>();
     private Set<GameResultListener> _gameResultListeners = new HashSet<GameResultListener>();
     private Set<InGameStatisticsListener> _inGameStatisticsListeners = new HashSet<InGameStatisticsListener>();
 
@@ -70,6 +74,20 @@ public class DefaultSwccgGame implements SwccgGame {
      * @param library the library of all cards
      */
     public DefaultSwccgGame(SwccgFormat format, Map<String, SwccgDeck> decks, UserFeedback userFeedback, final SwccgCardBlueprintLibrary library, Map<String, Integer> playerClocks, boolean useBonusAbilities) {
+        this(format, decks, userFeedback, library, playerClocks, useBonusAbilities, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a game with all its randomness coming from the specified seed.
+     * @param format the format of the game
+     * @param decks the decks
+     * @param userFeedback the user feedback
+     * @param library the library of all cards
+     * @param randomSeed the random seed
+     */
+    public DefaultSwccgGame(SwccgFormat format, Map<String, SwccgDeck> decks, UserFeedback userFeedback, final SwccgCardBlueprintLibrary library, Map<String, Integer> playerClocks, boolean useBonusAbilities, long randomSeed) {
+        _randomSeed = randomSeed;
+        _random = new Random(randomSeed);
         _format = format;
         _library = library;
         _allPlayers = decks.keySet();
@@ -136,19 +154,31 @@ public class DefaultSwccgGame implements SwccgGame {
             _gameState.setLocationsLayout(new LocationsLayout(_library));
 
             // begin the game
-            _turnProcedure.carryOutPendingActionsUntilDecisionNeeded();
+            _decisionLoopStatistics.decisionLoopStarted();
+            try {
+                _turnProcedure.carryOutPendingActionsUntilDecisionNeeded();
+            } finally {
+                _decisionLoopStatistics.decisionLoopFinished();
+            }
         }
     }
 
     @Override
     public void carryOutPendingActionsUntilDecisionNeeded() {
         if (!_cancelled) {
-           _turnProcedure.carryOutPendingActionsUntilDecisionNeeded();
-
-            // Restore snapshot if it was requested
-            while (_snapshotToRestore != null) {
-                restoreSnapshot();
-                carryOutPendingActionsUntilDecisionNeeded();
+            _decisionLoopStatistics.decisionLoopStarted();
+            try {
+                _turnProcedure.carryOutPendingActionsUntilDecisionNeeded();
+
+                // Restore snapshot if it was requested
+                while (_snapshotToRestore != null) {
+                    long restoreStart = System.nanoTime();
+                    restoreSnapshot();
+                    _decisionLoopStatistics.stepDone(DecisionLoopStatistics.Step.SNAPSHOT_RESTORE, _gameState.getCurrentPhase(), System.nanoTime() - restoreStart);
+                    carryOutPendingActionsUntilDecisionNeeded();
+                }
+            } finally {
+                _decisionLoopStatistics.decisionLoopFinished();
             }
         }
     }
@@ -335,6 +365,21 @@ public class DefaultSwccgGame implements SwccgGame {
         return _turnProcedure.getGameStats();
     }
 
+    @Override
+    public long getRandomSeed() {
+        return _randomSeed;
+    }
+
+    @Override
+    public Random getRandom() {
+        return _random;
+    }
+
+    @Override
+    public DecisionLoopStatistics getDecisionLoopStatistics() {
+        return _decisionLoopStatistics;
+    }
+
     @Override
     public ActionsEnvironment getActionsEnvironment() {
         return _actionsEnvironment;
@@ -26,8 +26,9 @@ public class SnapshotData {
                 throw new RuntimeException(e);
             }
             snapshotableMap.put(data, dataToReturn);
-            snapshotableMap.put(dataToReturn, dataToReturn);
             data.generateSnapshot(dataToReturn, this);
+            // Only once generated, since the hash code of the snapshot may depend on its fields
+            snapshotableMap.put(dataToReturn, dataToReturn);
         }
         return (T) dataToReturn;
     }
@@ -84,18 +84,25 @@ public class TurnProcedure implements Snapshotable<TurnProcedure> {
             _gameProcess = new PlayStartingEffectsGameProcess(_game);
         }
 
+        DecisionLoopStatistics decisionLoopStatistics = _game.getDecisionLoopStatistics();
+
         // Continue processing until response from a player is needed, or until the game has a winner, or a snapshot is to be restored.
         while (!_userFeedback.hasPendingDecisions() && _game.getWinner() == null && !_game.isRestoreSnapshotPending()) {
             numSinceDecision++;
+            Phase phase = _game.getGameState().getCurrentPhase();
+            long stepStart = System.nanoTime();
+            DecisionLoopStatistics.Step step;
 
             // If any EffectResults need to be processed, then add an action to the stack to have them processed.
             Set<EffectResult> effectResults = _game.getActionsEnvironment().consumeEffectResults();
             if (!effectResults.isEmpty()) {
+                step = DecisionLoopStatistics.Step.EFFECT_RESULTS;
                 _actionStack.stackAction(new PlayOutEffectResults(effectResults));
             }
             else {
                 // If the action stack is empty, get the game process to be processed.
                 if (_actionStack.isEmpty()) {
+                    step = DecisionLoopStatistics.Step.GAME_PROCESS;
                     // If the game process has already been processed, then get the next game process to be
                     // processed.
                     if (_playedGameProcess) {
@@ -110,10 +117,12 @@ public class TurnProcedure implements Snapshotable<TurnProcedure> {
                 }
                 // If the action stack is not empty, the get the next effect to be processed.
                 else {
+                    step = DecisionLoopStatistics.Step.ACTION_STACK;
                     // Get the next effect to be processed. If no effect remains, the getNextEffect method
                     // also removes the action from the action stack.
                     Effect effect = _actionStack.getNextEffect(_game);
                     if (effect != null) {
+                        decisionLoopStatistics.effectPlayed();
                         // If the effect does not have a type, then nothing triggers from this effect, so just perform
                         // the effect. If the effect does have a type, then add a PlayOutEffect to the action stack, which
                         // performs triggers for responses to the effect.
@@ -125,9 +134,13 @@ public class TurnProcedure implements Snapshotable<TurnProcedure> {
                 }
             }
 
+            long stepEnd = System.nanoTime();
+            decisionLoopStatistics.stepDone(step, phase, stepEnd - stepStart);
+
             // If any game stats changed, send the game stats to the User Interface.
             if (_gameStats.updateGameStats(_game))
                 _game.getGameState().sendGameStats(_gameStats);
+            decisionLoopStatistics.stepDone(DecisionLoopStatistics.Step.GAME_STATS, phase, System.nanoTime() - stepEnd);
 
             // Check if a winner of the game can be declared.
             _game.checkLifeForceDepleted();
@@ -15,6 +15,7 @@ public class SwccgDeck {
     private String _deckName;
     private List<String> _cards = new ArrayList<String>();
     private List<String> _cardsOutsideDeck = new ArrayList<String>();
+    private String _archetypeLabel;
 
     /**
      * Create a SwccgDeck object with the specified deck name.
@@ -44,6 +45,18 @@ public class SwccgDeck {
         return Collections.unmodifiableList(_cardsOutsideDeck);
     }
 
+    /**
+     * Gets the archetype label of the deck, as stored with the deck.
+     * @return the archetype label, or null if not known from the deck alone
+     */
+    public String getArchetypeLabel() {
+        return _archetypeLabel;
+    }
+
+    public void setArchetypeLabel(String archetypeLabel) {
+        _archetypeLabel = archetypeLabel;
+    }
+
     public Side getSide(SwccgCardBlueprintLibrary _library) {
         boolean containsDarkCards = false;
         boolean containsLightCards = false;
@@ -5,6 +5,7 @@ import com.gempukku.swccgo.collection.CachedCollectionDAO;
 import com.gempukku.swccgo.collection.CachedTransferDAO;
 import com.gempukku.swccgo.collection.CollectionSerializer;
 import com.gempukku.swccgo.collection.TransferDAO;
+import com.gempukku.swccgo.common.ApplicationConfiguration;
 import com.gempukku.swccgo.db.*;
 import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
 import com.gempukku.swccgo.tournament.TournamentDAO;
@@ -17,6 +18,7 @@ import java.util.Map;
 public class DaoBuilder {
     public static void CreateDatabaseAccessObjects(Map<Type, Object> objectMap) {
         DbAccess dbAccess = new DbAccess();
+        objectMap.put(DbMetrics.class, dbAccess.getMetrics());
         CollectionSerializer collectionSerializer = new CollectionSerializer();
 
         SwccgCardBlueprintLibrary library = new SwccgCardBlueprintLibrary();
@@ -29,7 +31,8 @@ public class DaoBuilder {
         objectMap.put(GempSettingDAO.class, new DbGempSettingDAO(dbAccess));
         objectMap.put(InGameStatisticsDAO.class, new DbInGameStatisticsDAO(dbAccess));
 
-        DbMerchantDAO dbMerchantDao = new DbMerchantDAO(dbAccess);
+        DbMerchantDAO dbMerchantDao = new DbMerchantDAO(dbAccess,
+                Integer.parseInt(ApplicationConfiguration.getProperty("merchant.transactions.flushIntervalSeconds")));
         CachedMerchantDAO merchantDao = new CachedMerchantDAO(dbMerchantDao);
         objectMap.put(MerchantDAO.class, merchantDao);
 
@@ -44,8 +47,10 @@ public class DaoBuilder {
         CachedCollectionDAO collectionDao = new CachedCollectionDAO(dbCollectionDao);
         objectMap.put(CollectionDAO.class, collectionDao);
 
-        DbPlayerDAO dbPlayerDao = new DbPlayerDAO(dbAccess);
-        CachedPlayerDAO playerDao = new CachedPlayerDAO(dbPlayerDao);
+        PlayerAuthenticationMetrics playerAuthenticationMetrics = new PlayerAuthenticationMetrics();
+        objectMap.put(PlayerAuthenticationMetrics.class, playerAuthenticationMetrics);
+        DbPlayerDAO dbPlayerDao = new DbPlayerDAO(dbAccess, playerAuthenticationMetrics);
+        CachedPlayerDAO playerDao = new CachedPlayerDAO(dbPlayerDao, playerAuthenticationMetrics);
         objectMap.put(PlayerDAO.class, playerDao);
         
         DbTransferDAO dbTransferDao = new DbTransferDAO(dbAccess);
@@ -1,5 +1,6 @@
 package com.gempukku.swccgo.builder;
 
+import com.gempukku.swccgo.common.ApplicationConfiguration;
 import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
 import com.gempukku.swccgo.packagedProduct.*;
 import org.apache.logging.log4j.Logger;
@@ -16,12 +17,14 @@ public class PackagedProductStorageBuilder {
     private static final Logger _logger = LogManager.getLogger(PackagedProductStorageBuilder.class);
 
     /**
-     * Adds the packaged product storage to the object map.
+     * Adds the packaged product storage, and the catalog of its products, to the object map.
      * @param objectMap the object map
      */
     public static void CreateProducts(Map<Type, Object> objectMap) {
-        objectMap.put(PackagedProductStorage.class,
-                PackagedProductStorageBuilder.createPackagedProductStorage(extract(objectMap, SwccgCardBlueprintLibrary.class)));
+        PackagedProductStorage packagedProductStorage = PackagedProductStorageBuilder.createPackagedProductStorage(extract(objectMap, SwccgCardBlueprintLibrary.class));
+        objectMap.put(PackagedProductStorage.class, packagedProductStorage);
+        if (packagedProductStorage != null)
+            objectMap.put(ProductCatalog.class, new ProductCatalog(packagedProductStorage));
     }
 
     /**
@@ -32,6 +35,7 @@ public class PackagedProductStorageBuilder {
     private static PackagedProductStorage createPackagedProductStorage(SwccgCardBlueprintLibrary library) {
         try {
             PackagedProductStorage packStorage = new PackagedProductStorage();
+            packStorage.setAuditSeeds(Boolean.parseBoolean(ApplicationConfiguration.getProperty("packs.auditSeeds")));
             PackagedCardProduct product;
 
             // Add Standard Booster Packs
@@ -0,0 +1,177 @@
+package com.gempukku.swccgo.builder;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Creates the objects of the server in parallel, each as soon as the objects it needs are there. Each object is
+ * created by a factory on its own thread, which gets the objects it needs from the Objects it is given; getting an
+ * object that is still being created waits for it. So the dependencies between the objects do not need to be listed,
+ * they are simply waited for, and independent objects are created at the same time.
+ *
+ * Once all the objects are created they are added to the object map, on the thread that ran the bootstrap. The object
+ * map is only read while the objects are being created, so it does not need to be thread safe.
+ *
+ * A factory getting an object that is, through the objects it gets, waiting for the object of that factory is a
+ * dependency cycle, which would wait forever; it fails instead.
+ */
+public class ParallelBootstrap {
+    private final Map<Type, Object> _objectMap;
+    private final StartupTimer _startupTimer;
+    private final Map<Type, Task<?>> _tasks = new LinkedHashMap<Type, Task<?>>();
+    // Guards which object each task is waiting for, so dependency cycles are found
+    private final Object _waitLock = new Object();
+    private boolean _started;
+
+    /**
+     * Creates a bootstrap adding to the object map.
+     * @param objectMap the object map, with the objects created before
+     * @param startupTimer the timer to record how long each object took to create, or null
+     */
+    public ParallelBootstrap(Map<Type, Object> objectMap, StartupTimer startupTimer) {
+        _objectMap = objectMap;
+        _startupTimer = startupTimer;
+    }
+
+    /**
+     * Adds an object to create.
+     * @param type the type the object is added to the object map as
+     * @param factory the factory creating the object
+     * @param <T> the type
+     */
+    public <T> void add(Class<T> type, Function<Objects, T> factory) {
+        if (_started)
+            throw new IllegalStateException("Bootstrap already run");
+        if (_tasks.containsKey(type) || _objectMap.containsKey(type))
+            throw new IllegalArgumentException("Object already created: " + type.getName());
+        _tasks.put(type, new Task<T>(type, factory));
+    }
+
+    /**
+     * Creates all the objects added and adds them to the object map, returning when all are created.
+     * @throws RuntimeException if creating any of the objects failed
+     */
+    public void run() {
+        if (_started)
+            throw new IllegalStateException("Bootstrap already run");
+        _started = true;
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (Task<?> task : _tasks.values()) {
+            Thread thread = new Thread(task, "bootstrap-" + task._type.getSimpleName());
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        for (Thread thread : threads)
+            thread.start();
+
+        RuntimeException failure = null;
+        Map<Type, Object> created = new LinkedHashMap<Type, Object>();
+        for (Task<?> task : _tasks.values()) {
+            try {
+                created.put(task._type, task._result.join());
+            } catch (CompletionException exp) {
+                if (failure == null)
+                    failure = new RuntimeException("Unable to create " + task._type.getName(), exp.getCause());
+            }
+        }
+        // Only once no factory is running anymore, as they read the object map
+        _objectMap.putAll(created);
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Gives the factories the objects they need.
+     */
+    public class Objects {
+        private final Task<?> _task;
+        private long _waitNanos;
+
+        private Objects(Task<?> task) {
+            _task = task;
+        }
+
+        /**
+         * Gets an object, waiting for it if it is still being created.
+         * @param type the type of the object
+         * @param <T> the type
+         * @return the object
+         * @throws RuntimeException if there is no such object, or creating it failed
+         * @throws IllegalStateException if the object is waiting for the object being created, through its dependencies
+         */
+        public <T> T get(Class<T> type) {
+            Task<?> task = _tasks.get(type);
+            if (task == null) {
+                T result = (T) _objectMap.get(type);
+                if (result == null)
+                    throw new RuntimeException("Unable to find class " + type.getName());
+                return result;
+            }
+
+            if (task._result.isDone())
+                return (T) task._result.join();
+
+            startWaiting(task);
+            long start = System.nanoTime();
+            try {
+                return (T) task._result.join();
+            } finally {
+                _waitNanos += System.nanoTime() - start;
+                synchronized (_waitLock) {
+                    _task._waitingFor = null;
+                }
+            }
+        }
+
+        private void startWaiting(Task<?> task) {
+            synchronized (_waitLock) {
+                List<String> chain = new ArrayList<String>();
+                chain.add(_task._type.getSimpleName());
+                for (Task<?> waited = task; waited != null; waited = waited._waitingFor) {
+                    chain.add(waited._type.getSimpleName());
+                    if (waited == _task)
+                        throw new IllegalStateException("Dependency cycle: " + String.join(" -> ", chain));
+                }
+                _task._waitingFor = task;
+            }
+        }
+    }
+
+    private class Task<T> implements Runnable {
+        private final Class<T> _type;
+        private final Function<Objects, T> _factory;
+        private final CompletableFuture<T> _result = new CompletableFuture<T>();
+        // Guarded by _waitLock
+        private Task<?> _waitingFor;
+
+        private Task(Class<T> type, Function<Objects, T> factory) {
+            _type = type;
+            _factory = factory;
+        }
+
+        @Override
+        public void run() {
+            Objects objects = new Objects(this);
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = _factory.apply(objects);
+            } catch (Throwable exp) {
+                _result.completeExceptionally(exp);
+                return;
+            } finally {
+                // Before completing, so the time is recorded by the time the bootstrap returns
+                if (_startupTimer != null)
+                    _startupTimer.record(_type.getSimpleName(), start, System.nanoTime() - start, objects._waitNanos);
+            }
+            _result.complete(result);
+        }
+    }
+}
@@ -1,16 +1,25 @@
 package com.gempukku.swccgo.builder;
 
+import com.gempukku.swccgo.cards.packs.RarityReader;
 import com.gempukku.swccgo.chat.ChatServer;
+import com.gempukku.swccgo.common.ApplicationConfiguration;
+import com.gempukku.swccgo.common.CardCounts;
+import com.gempukku.swccgo.collection.CollectionGrantService;
 import com.gempukku.swccgo.collection.CollectionsManager;
 import com.gempukku.swccgo.collection.TransferDAO;
 import com.gempukku.swccgo.db.*;
+import com.gempukku.swccgo.game.GameCheckpointer;
 import com.gempukku.swccgo.game.GameHistoryService;
 import com.gempukku.swccgo.game.GameRecorder;
+import com.gempukku.swccgo.game.ServerStatsAggregator;
 import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+import com.gempukku.swccgo.game.SwccgGameMediator;
 import com.gempukku.swccgo.game.SwccgoServer;
 import com.gempukku.swccgo.game.formats.SwccgoFormatLibrary;
 import com.gempukku.swccgo.hall.HallServer;
 import com.gempukku.swccgo.league.LeagueService;
+import com.gempukku.swccgo.logic.timing.DecisionLoopStatistics;
+import com.gempukku.swccgo.logic.timing.DecisionLoopWatchdog;
 import com.gempukku.swccgo.merchant.MerchantService;
 import com.gempukku.swccgo.packagedProduct.DraftPackStorage;
 import com.gempukku.swccgo.packagedProduct.PackagedProductStorage;
@@ -18,95 +27,153 @@ import com.gempukku.swccgo.service.AdminService;
 import com.gempukku.swccgo.service.LoggedUserHolder;
 import com.gempukku.swccgo.tournament.*;
 
+import java.io.File;
 import java.lang.reflect.Type;
 import java.util.Map;
 
 public class ServerBuilder {
 
     public static void CreatePrerequisites(Map<Type, Object> objectMap) {
+        if (!objectMap.containsKey(StartupTimer.class))
+            objectMap.put(StartupTimer.class, new StartupTimer());
+
         LoggedUserHolder loggedUserHolder = new LoggedUserHolder();
         loggedUserHolder.start();
         objectMap.put(LoggedUserHolder.class, loggedUserHolder);
+
+        if (Boolean.parseBoolean(ApplicationConfiguration.getProperty("startup.cache.enabled"))) {
+            File cacheFile = new File(ApplicationConfiguration.getProperty("application.root"), "startup-cache.bin");
+            objectMap.put(StartupCache.class, ((StartupTimer) objectMap.get(StartupTimer.class)).time("Startup cache",
+                    () -> new StartupCache(cacheFile, SwccgCardBlueprintLibrary.class, RarityReader.class, CardCounts.class, CollectionsManager.class)));
+        } else {
+            objectMap.put(StartupCache.class, new StartupCache());
+        }
     }
+
+    /**
+     * Creates the services, each on its own thread as soon as the services it needs are created.
+     * @param objectMap the object map
+     */
     public static void CreateServices(Map<Type, Object> objectMap) {
-        objectMap.put(SwccgoFormatLibrary.class,
+        ParallelBootstrap bootstrap = new ParallelBootstrap(objectMap, (StartupTimer) objectMap.get(StartupTimer.class));
+
+        bootstrap.add(SwccgoFormatLibrary.class, objects ->
                 new SwccgoFormatLibrary(
-                        extract(objectMap, SwccgCardBlueprintLibrary.class)));
-        objectMap.put(GameHistoryService.class,
-                new GameHistoryService(
-                        extract(objectMap, GameHistoryDAO.class)));
-        objectMap.put(GameRecorder.class,
-                new GameRecorder(
-                        extract(objectMap, GameHistoryService.class)));
-
-        objectMap.put(CollectionsManager.class,
-                new CollectionsManager(
-                        extract(objectMap, PlayerDAO.class),
-                        extract(objectMap, CollectionDAO.class),
-                        extract(objectMap, TransferDAO.class),
-                        extract(objectMap, SwccgCardBlueprintLibrary.class)));
-
-        objectMap.put(LeagueService.class,
+                        objects.get(SwccgCardBlueprintLibrary.class)));
+        bootstrap.add(GameHistoryService.class, objects -> {
+            GameHistoryService gameHistoryService = new GameHistoryService(
+                    objects.get(GameHistoryDAO.class));
+            gameHistoryService.setServerStatsAggregator(new ServerStatsAggregator(
+                    objects.get(GameHistoryDAO.class),
+                    Integer.parseInt(ApplicationConfiguration.getProperty("stats.refreshIntervalSeconds"))));
+            return gameHistoryService;
+        });
+        bootstrap.add(GameRecorder.class, objects -> {
+            GameRecorder gameRecorder = new GameRecorder(
+                    objects.get(GameHistoryService.class));
+            gameRecorder.setSaveDecisionLogs(Boolean.parseBoolean(ApplicationConfiguration.getProperty("game.decisionLogs.enabled")));
+            return gameRecorder;
+        });
+
+        bootstrap.add(CollectionsManager.class, objects -> {
+            SwccgCardBlueprintLibrary library = objects.get(SwccgCardBlueprintLibrary.class);
+            StartupCache startupCache = objects.get(StartupCache.class);
+            return new CollectionsManager(
+                    objects.get(PlayerDAO.class),
+                    objects.get(CollectionDAO.class),
+                    objects.get(TransferDAO.class),
+                    startupCache.getStringList("defaultCollection",
+                            () -> CollectionsManager.getDefaultCollectionBlueprintIds(library, false)),
+                    startupCache.getStringList("defaultCollectionWithPlaytesting",
+                            () -> CollectionsManager.getDefaultCollectionBlueprintIds(library, true)));
+        });
+
+        bootstrap.add(CollectionGrantService.class, objects ->
+                new CollectionGrantService(
+                        objects.get(CollectionsManager.class),
+                        objects.get(PlayerDAO.class),
+                        new File(ApplicationConfiguration.getProperty("application.root"), "collectionGrants"),
+                        Integer.parseInt(ApplicationConfiguration.getProperty("collections.grants.threads")),
+                        Integer.parseInt(ApplicationConfiguration.getProperty("collections.grants.chunkSize"))));
+
+        bootstrap.add(LeagueService.class, objects ->
                 new LeagueService(
-                        extract(objectMap, SwccgCardBlueprintLibrary.class),
-                        extract(objectMap, LeagueDAO.class),
-                        extract(objectMap, LeagueMatchDAO.class),
-                        extract(objectMap, LeagueParticipationDAO.class),
-                        extract(objectMap, CollectionsManager.class)));
+                        objects.get(SwccgCardBlueprintLibrary.class),
+                        objects.get(LeagueDAO.class),
+                        objects.get(LeagueMatchDAO.class),
+                        objects.get(LeagueParticipationDAO.class),
+                        objects.get(CollectionsManager.class)));
 
-        objectMap.put(AdminService.class,
+        bootstrap.add(AdminService.class, objects ->
                 new AdminService(
-                        extract(objectMap, PlayerDAO.class),
-                        extract(objectMap, IpBanDAO.class),
-                        extract(objectMap, LoggedUserHolder.class)
+                        objects.get(PlayerDAO.class),
+                        objects.get(IpBanDAO.class),
+                        objects.get(LoggedUserHolder.class)
                 ));
 
         TournamentPrizeSchemeRegistry tournamentPrizeSchemeRegistry = new TournamentPrizeSchemeRegistry();
         PairingMechanismRegistry pairingMechanismRegistry = new PairingMechanismRegistry();
 
-        objectMap.put(TournamentService.class,
+        bootstrap.add(TournamentService.class, objects ->
                 new TournamentService(
-                        extract(objectMap, CollectionsManager.class),
-                        extract(objectMap, PackagedProductStorage.class),
+                        objects.get(CollectionsManager.class),
+                        objects.get(PackagedProductStorage.class),
                         new DraftPackStorage(),
                         pairingMechanismRegistry,
                         tournamentPrizeSchemeRegistry,
-                        extract(objectMap, TournamentDAO.class),
-                        extract(objectMap, TournamentPlayerDAO.class),
-                        extract(objectMap, TournamentMatchDAO.class)));
+                        objects.get(TournamentDAO.class),
+                        objects.get(TournamentPlayerDAO.class),
+                        objects.get(TournamentMatchDAO.class)));
 
-        objectMap.put(MerchantService.class,
+        bootstrap.add(MerchantService.class, objects ->
                 new MerchantService(
-                        extract(objectMap, SwccgCardBlueprintLibrary.class),
-                        extract(objectMap, CollectionsManager.class),
-                        extract(objectMap, MerchantDAO.class)));
-
-        objectMap.put(ChatServer.class, new ChatServer());
-
-        objectMap.put(SwccgoServer.class,
-                new SwccgoServer(
-                        extract(objectMap, DeckDAO.class),
-                        extract(objectMap, SwccgCardBlueprintLibrary.class),
-                        extract(objectMap, ChatServer.class),
-                        extract(objectMap, GameRecorder.class),
-                        extract(objectMap, InGameStatisticsDAO.class)));
-
-        objectMap.put(HallServer.class,
+                        objects.get(SwccgCardBlueprintLibrary.class),
+                        objects.get(CollectionsManager.class),
+                        objects.get(MerchantDAO.class)));
+
+        bootstrap.add(ChatServer.class, objects -> new ChatServer());
+
+        String slowDecisionLoopMillis = ApplicationConfiguration.getProperty("game.slowDecisionLoopMillis");
+        if (slowDecisionLoopMillis != null)
+            DecisionLoopStatistics.setSlowThresholdMillis(Long.parseLong(slowDecisionLoopMillis));
+        DecisionLoopStatistics.setCardTimingEnabled(Boolean.parseBoolean(ApplicationConfiguration.getProperty("game.decisionLoops.cardTiming")));
+        DecisionLoopWatchdog.start(1000);
+        SwccgGameMediator.setPrecomputeCardInfo(Boolean.parseBoolean(ApplicationConfiguration.getProperty("game.cardInfo.precompute")));
+
+        bootstrap.add(SwccgoServer.class, objects -> {
+            SwccgoServer swccgoServer = new SwccgoServer(
+                    objects.get(DeckDAO.class),
+                    objects.get(SwccgCardBlueprintLibrary.class),
+                    objects.get(ChatServer.class),
+                    objects.get(GameRecorder.class),
+                    objects.get(InGameStatisticsDAO.class));
+            if (Boolean.parseBoolean(ApplicationConfiguration.getProperty("game.checkpoints.enabled")))
+                swccgoServer.setGameCheckpointer(new GameCheckpointer(
+                        new File(ApplicationConfiguration.getProperty("application.root"), "gameCheckpoints"),
+                        Integer.parseInt(ApplicationConfiguration.getProperty("game.checkpoints.intervalSeconds"))));
+            return swccgoServer;
+        });
+
+        bootstrap.add(HallServer.class, objects ->
                 new HallServer(
-                        extract(objectMap, SwccgoServer.class),
-                        extract(objectMap, ChatServer.class),
-                        extract(objectMap, LeagueService.class),
-                        extract(objectMap, TournamentService.class),
-                        extract(objectMap, SwccgCardBlueprintLibrary.class),
-                        extract(objectMap, SwccgoFormatLibrary.class),
-                        extract(objectMap, CollectionsManager.class),
-                        extract(objectMap, PlayerDAO.class),
-                        extract(objectMap, IpBanDAO.class),
-                        extract(objectMap, GempSettingDAO.class),
-                        extract(objectMap, AdminService.class),
+                        objects.get(SwccgoServer.class),
+                        objects.get(ChatServer.class),
+                        objects.get(LeagueService.class),
+                        objects.get(TournamentService.class),
+                        objects.get(SwccgCardBlueprintLibrary.class),
+                        objects.get(SwccgoFormatLibrary.class),
+                        objects.get(CollectionsManager.class),
+                        objects.get(PlayerDAO.class),
+                        objects.get(IpBanDAO.class),
+                        objects.get(GempSettingDAO.class),
+                        objects.get(AdminService.class),
                         tournamentPrizeSchemeRegistry,
                         pairingMechanismRegistry
                 ));
+
+        bootstrap.run();
+
+        extract(objectMap, StartupCache.class).save();
     }
 
     private static <T> T extract(Map<Type, Object> objectMap, Class<T> clazz) {
@@ -126,5 +193,6 @@ public class ServerBuilder {
         extract(objectMap, HallServer.class).stopServer();
         extract(objectMap, SwccgoServer.class).stopServer();
         extract(objectMap, ChatServer.class).stopServer();
+        extract(objectMap, MerchantDAO.class).flushTransactions();
     }
 }
@@ -0,0 +1,205 @@
+package com.gempukku.swccgo.builder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A binary file of data derived at startup from the card classes and resources (like the cards in the default
+ * collections), so the next startup can read it instead of deriving it again. The file is only used if the checksum
+ * of its inputs (the jars or class folders of the given classes) is the same as when it was written, so any new build
+ * of the cards derives the data again.
+ *
+ * A disabled cache always derives the data.
+ */
+public class StartupCache {
+    private static final Logger _logger = LogManager.getLogger(StartupCache.class);
+    private static final int MAGIC = 0x47535343; // GSSC
+    private static final int VERSION = 1;
+
+    private final File _file;
+    private final String _checksum;
+    private final Map<String, List<String>> _cachedEntries;
+    private final Map<String, List<String>> _entries = Collections.synchronizedMap(new LinkedHashMap<String, List<String>>());
+    private volatile boolean _changed;
+
+    /**
+     * Creates a disabled cache.
+     */
+    public StartupCache() {
+        _file = null;
+        _checksum = null;
+        _cachedEntries = Collections.emptyMap();
+    }
+
+    /**
+     * Creates a cache reading from and writing to a file.
+     * @param file the file
+     * @param inputClasses classes whose jars or class folders the cached data is derived from
+     */
+    public StartupCache(File file, Class<?>... inputClasses) {
+        _file = file;
+        _checksum = getChecksum(inputClasses);
+        _cachedEntries = _checksum != null ? readFile(file, _checksum) : Collections.emptyMap();
+    }
+
+    /**
+     * Gets a list of strings from the cache, or derives it if the cache does not have it.
+     * @param key the key of the list
+     * @param derivation derives the list
+     * @return the list
+     */
+    public List<String> getStringList(String key, Supplier<List<String>> derivation) {
+        List<String> result = _cachedEntries.get(key);
+        if (result == null) {
+            result = derivation.get();
+            if (_file != null) {
+                _changed = true;
+                _logger.info("Startup cache entry " + key + " derived, " + result.size() + " values");
+            }
+        }
+        _entries.put(key, result);
+        return result;
+    }
+
+    /**
+     * Writes the file, if anything was derived that was not in it.
+     */
+    public void save() {
+        if (_file == null || _checksum == null || !_changed)
+            return;
+
+        try {
+            File tempFile = new File(_file.getPath() + ".tmp");
+            if (_file.getParentFile() != null)
+                _file.getParentFile().mkdirs();
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeUTF(_checksum);
+                synchronized (_entries) {
+                    output.writeInt(_entries.size());
+                    for (Map.Entry<String, List<String>> entry : _entries.entrySet()) {
+                        output.writeUTF(entry.getKey());
+                        output.writeInt(entry.getValue().size());
+                        for (String value : entry.getValue())
+                            output.writeUTF(value);
+                    }
+                }
+            }
+            Files.move(tempFile.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            _changed = false;
+        } catch (IOException exp) {
+            _logger.warn("Unable to write the startup cache " + _file, exp);
+        }
+    }
+
+    private static Map<String, List<String>> readFile(File file, String checksum) {
+        if (!file.isFile())
+            return Collections.emptyMap();
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                _logger.info("Startup cache " + file + " has an unknown format, ignoring it");
+                return Collections.emptyMap();
+            }
+            if (!checksum.equals(input.readUTF())) {
+                _logger.info("Startup cache " + file + " was written for other cards, ignoring it");
+                return Collections.emptyMap();
+            }
+            Map<String, List<String>> entries = new LinkedHashMap<String, List<String>>();
+            int entryCount = input.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String key = input.readUTF();
+                int size = input.readInt();
+                List<String> values = new ArrayList<String>(size);
+                for (int j = 0; j < size; j++)
+                    values.add(input.readUTF());
+                entries.put(key, Collections.unmodifiableList(values));
+            }
+            _logger.info("Startup cache " + file + " read, " + entries.size() + " entries");
+            return entries;
+        } catch (IOException exp) {
+            _logger.warn("Unable to read the startup cache " + file + ", ignoring it", exp);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Gets the SHA-256 checksum of the jars or class folders the classes were loaded from.
+     * @param inputClasses the classes
+     * @return the checksum, or null if the location of any of the classes is unknown
+     */
+    private static String getChecksum(Class<?>... inputClasses) {
+        Set<Path> locations = new LinkedHashSet<Path>();
+        for (Class<?> inputClass : inputClasses) {
+            CodeSource codeSource = inputClass.getProtectionDomain().getCodeSource();
+            try {
+                if (codeSource == null || codeSource.getLocation() == null)
+                    throw new URISyntaxException(inputClass.getName(), "No code source");
+                locations.add(Paths.get(codeSource.getLocation().toURI()));
+            } catch (URISyntaxException | IllegalArgumentException exp) {
+                _logger.warn("Unable to find where " + inputClass.getName() + " was loaded from, not using the startup cache");
+                return null;
+            }
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[65536];
+            for (Path location : locations) {
+                List<Path> files;
+                if (Files.isDirectory(location)) {
+                    try (Stream<Path> walk = Files.walk(location)) {
+                        files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                    }
+                } else {
+                    files = Collections.singletonList(location);
+                }
+                for (Path path : files) {
+                    digest.update(location.relativize(path).toString().getBytes(StandardCharsets.UTF_8));
+                    try (InputStream input = Files.newInputStream(path)) {
+                        int read;
+                        while ((read = input.read(buffer)) > 0)
+                            digest.update(buffer, 0, read);
+                    }
+                }
+            }
+            StringBuilder checksum = new StringBuilder();
+            for (byte b : digest.digest())
+                checksum.append(String.format("%02x", b));
+            return checksum.toString();
+        } catch (IOException | NoSuchAlgorithmException exp) {
+            _logger.warn("Unable to compute the checksum of the startup cache inputs, not using the startup cache", exp);
+            return null;
+        }
+    }
+}
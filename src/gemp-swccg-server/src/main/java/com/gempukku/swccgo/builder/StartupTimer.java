@@ -0,0 +1,102 @@
+package com.gempukku.swccgo.builder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Times the phases of the server startup, which may run on several threads at once, and reports them once the
+ * startup is complete.
+ */
+public class StartupTimer {
+    private static final Logger _logger = LogManager.getLogger(StartupTimer.class);
+
+    private final long _startNanos = System.nanoTime();
+    private final List<Phase> _phases = new ArrayList<Phase>();
+
+    /**
+     * Runs a phase of the startup and records how long it took.
+     * @param name the name of the phase
+     * @param phase the phase
+     */
+    public void time(String name, Runnable phase) {
+        time(name, () -> {
+            phase.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a phase of the startup that creates something, and records how long it took.
+     * @param name the name of the phase
+     * @param phase the phase
+     * @param <T> the type of what the phase creates
+     * @return what the phase created
+     */
+    public <T> T time(String name, Supplier<T> phase) {
+        long start = System.nanoTime();
+        try {
+            return phase.get();
+        } finally {
+            record(name, start, System.nanoTime() - start, 0);
+        }
+    }
+
+    /**
+     * Records a phase of the startup that was timed elsewhere.
+     * @param name the name of the phase
+     * @param startNanos the System.nanoTime() the phase started at
+     * @param durationNanos how long the phase took
+     * @param waitNanos how much of that time the phase spent waiting for other phases
+     */
+    public synchronized void record(String name, long startNanos, long durationNanos, long waitNanos) {
+        _phases.add(new Phase(name, Thread.currentThread().getName(), startNanos - _startNanos, durationNanos, waitNanos));
+    }
+
+    /**
+     * Gets a report of the phases recorded so far, in the order they started, with the time each started at
+     * (relative to the creation of the timer), how long it took, and how long it waited for other phases.
+     * @return the report
+     */
+    public synchronized String getReport() {
+        List<Phase> phases = new ArrayList<Phase>(_phases);
+        phases.sort(Comparator.comparingLong(phase -> phase._offsetNanos));
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Startup took %d ms", (System.nanoTime() - _startNanos) / 1_000_000));
+        for (Phase phase : phases) {
+            report.append(String.format("%n  %-32s at %6d ms took %6d ms", phase._name, phase._offsetNanos / 1_000_000, phase._durationNanos / 1_000_000));
+            if (phase._waitNanos > 0)
+                report.append(String.format(" (waited %d ms)", phase._waitNanos / 1_000_000));
+            report.append(" on ").append(phase._threadName);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Logs the report of the phases recorded so far.
+     */
+    public void logReport() {
+        _logger.info(getReport());
+    }
+
+    private static class Phase {
+        private final String _name;
+        private final String _threadName;
+        private final long _offsetNanos;
+        private final long _durationNanos;
+        private final long _waitNanos;
+
+        private Phase(String name, String threadName, long offsetNanos, long durationNanos, long waitNanos) {
+            _name = name;
+            _threadName = threadName;
+            _offsetNanos = offsetNanos;
+            _durationNanos = durationNanos;
+            _waitNanos = waitNanos;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.gempukku.swccgo.chat;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed size ring of the last messages posted to a chat room. Each message is numbered by a sequence, which is also
+ * the id of the message, and is written to the slot of its number without locking. Readers keep their own cursor (the
+ * id of the next message to read) and read the messages from it on.
+ *
+ * A reader that falls behind by more than the size of the ring misses the messages that were overwritten.
+ */
+class ChatMessageRing {
+    private final AtomicReferenceArray<Slot> _slots;
+    private final int _mask;
+    private final AtomicInteger _latestMsgId = new AtomicInteger();
+
+    /**
+     * Creates a ring.
+     * @param size the number of messages kept, a power of two
+     */
+    ChatMessageRing(int size) {
+        if (Integer.bitCount(size) != 1)
+            throw new IllegalArgumentException("Size has to be a power of two: " + size);
+        _slots = new AtomicReferenceArray<Slot>(size);
+        _mask = size - 1;
+    }
+
+    /**
+     * Adds a message.
+     * @param from the player the message is from
+     * @param message the message
+     * @param inHistory true if the message is shown to the players joining after it was posted
+     * @return the message added
+     */
+    ChatMessage add(String from, String message, boolean inHistory) {
+        int msgId = _latestMsgId.incrementAndGet();
+        ChatMessage chatMessage = new ChatMessage(new Date(), msgId, from, message);
+        Slot slot = new Slot(chatMessage, inHistory);
+        int index = msgId & _mask;
+        while (true) {
+            Slot current = _slots.get(index);
+            // A message posted a whole ring later already took the slot
+            if (current != null && current._message.getMsgId() > msgId)
+                return chatMessage;
+            if (_slots.compareAndSet(index, current, slot))
+                return chatMessage;
+        }
+    }
+
+    int getLatestMsgId() {
+        return _latestMsgId.get();
+    }
+
+    /**
+     * Reads the messages from a message id on. The messages posted before the reader joined are only read if they are
+     * in the history.
+     * @param fromMsgId the id of the first message to read
+     * @param joinedMsgId the id of the first message posted after the reader joined
+     * @param messages the list to add the messages read to
+     * @return the id of the next message to read
+     */
+    int read(int fromMsgId, int joinedMsgId, List<ChatMessage> messages) {
+        int latestMsgId = _latestMsgId.get();
+        int msgId = Math.max(fromMsgId, latestMsgId - _mask);
+        for (; msgId <= latestMsgId; msgId++) {
+            Slot slot = _slots.get(msgId & _mask);
+            int slotMsgId = (slot != null) ? slot._message.getMsgId() : 0;
+            // Not written yet, so read again from here next time
+            if (slotMsgId < msgId)
+                break;
+            if (slotMsgId == msgId && (slot._inHistory || msgId >= joinedMsgId))
+                messages.add(slot._message);
+        }
+        return msgId;
+    }
+
+    /**
+     * Checks if there are messages to read from a message id on.
+     * @param fromMsgId the id of the first message to read
+     * @param joinedMsgId the id of the first message posted after the reader joined
+     * @return true if there are messages to read, otherwise false
+     */
+    boolean hasMessages(int fromMsgId, int joinedMsgId) {
+        int latestMsgId = _latestMsgId.get();
+        for (int msgId = Math.max(fromMsgId, latestMsgId - _mask); msgId <= latestMsgId; msgId++) {
+            Slot slot = _slots.get(msgId & _mask);
+            if (slot == null || slot._message.getMsgId() < msgId)
+                return false;
+            if (slot._message.getMsgId() == msgId && (slot._inHistory || msgId >= joinedMsgId))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the id of the oldest of the last messages in the history.
+     * @param count the number of messages in the history
+     * @return the message id, or the id of the next message if there are no messages in the history
+     */
+    int getHistoryStartMsgId(int count) {
+        int latestMsgId = _latestMsgId.get();
+        int startMsgId = latestMsgId + 1;
+        int found = 0;
+        for (int msgId = latestMsgId; msgId > Math.max(0, latestMsgId - _mask - 1) && found < count; msgId--) {
+            Slot slot = _slots.get(msgId & _mask);
+            if (slot != null && slot._message.getMsgId() == msgId && slot._inHistory) {
+                startMsgId = msgId;
+                found++;
+            }
+        }
+        return startMsgId;
+    }
+
+    private static class Slot {
+        private final ChatMessage _message;
+        private final boolean _inHistory;
+
+        private Slot(ChatMessage message, boolean inHistory) {
+            _message = message;
+            _inHistory = inHistory;
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.gempukku.swccgo.chat;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * A chat room. The messages are kept in a ring, and the listeners read them from their own cursor, so posting a
+ * message does not depend on the number of listeners: it only wakes the listeners waiting for messages.
+ */
 public class ChatRoom {
+    private static final int MESSAGE_RING_SIZE = 1024;
     private int _maxMessageHistoryCount = 100;
-    private int _latestMsgId = 1;
-    private LinkedList<ChatMessage> _lastMessages = new LinkedList<ChatMessage>();
+    private final ChatMessageRing _messages = new ChatMessageRing(MESSAGE_RING_SIZE);
+    private final Set<ChatRoomListener> _waitingListeners = ConcurrentHashMap.newKeySet();
     private Map<String, ChatRoomListener> _chatRoomListeners = new TreeMap<String, ChatRoomListener>(
             new Comparator<String>() {
                 @Override
@@ -21,18 +27,12 @@ public class ChatRoom {
         _muteJoinPartMessages = muteJoinPartMessages;
     }
 
-    private int getLatestMsgIdAndIncrement() {
-        return _latestMsgId++;
-    }
-
     private void postMessage(String from, String message, boolean addToHistory) {
-        ChatMessage chatMessage = new ChatMessage(new Date(), getLatestMsgIdAndIncrement(), from, message);
-        if (addToHistory) {
-            _lastMessages.add(chatMessage);
-            shrinkLastMessages();
+        _messages.add(from, message, addToHistory);
+        for (ChatRoomListener listener : _waitingListeners) {
+            if (_waitingListeners.remove(listener))
+                listener.messagesPosted();
         }
-        for (Map.Entry<String, ChatRoomListener> listeners : _chatRoomListeners.entrySet())
-            listeners.getValue().messageReceived(chatMessage);
     }
 
     public void postMessage(String from, String message) {
@@ -40,11 +40,10 @@ public class ChatRoom {
     }
 
     public void joinChatRoom(String playerId, boolean mutePlayer, ChatRoomListener listener) {
-        boolean wasInRoom = _chatRoomListeners.containsKey(playerId);
-        _chatRoomListeners.put(playerId, listener);
-        for (ChatMessage lastMessage : _lastMessages) {
-            listener.messageReceived(lastMessage);
-        }
+        ChatRoomListener previousListener = _chatRoomListeners.put(playerId, listener);
+        boolean wasInRoom = (previousListener != null);
+        if (wasInRoom)
+            _waitingListeners.remove(previousListener);
         if (mutePlayer) {
             _usersToMute.add(playerId);
         }
@@ -54,7 +53,10 @@ public class ChatRoom {
     }
 
     public void partChatRoom(String playerId) {
-        boolean wasInRoom = (_chatRoomListeners.remove(playerId) != null);
+        ChatRoomListener listener = _chatRoomListeners.remove(playerId);
+        boolean wasInRoom = (listener != null);
+        if (wasInRoom)
+            _waitingListeners.remove(listener);
         if (wasInRoom && !_muteJoinPartMessages && !_usersToMute.contains(playerId) && !playerId.equals(LIBRARIAN)) {
             postMessage("System", playerId + " left the room", false);
         }
@@ -67,9 +69,49 @@ public class ChatRoom {
         return users;
     }
 
-    private void shrinkLastMessages() {
-        while (_lastMessages.size() > _maxMessageHistoryCount) {
-            _lastMessages.removeFirst();
-        }
+    /**
+     * Makes a listener be notified (once) when the next message is posted.
+     * @param listener the listener
+     */
+    public void waitForMessages(ChatRoomListener listener) {
+        _waitingListeners.add(listener);
+    }
+
+    /**
+     * Gets the id of the latest message posted.
+     * @return the message id, or 0 if no message was posted
+     */
+    public int getLatestMsgId() {
+        return _messages.getLatestMsgId();
+    }
+
+    /**
+     * Gets the id of the oldest message in the history shown to the players joining the room.
+     * @return the message id
+     */
+    public int getHistoryStartMsgId() {
+        return _messages.getHistoryStartMsgId(_maxMessageHistoryCount);
+    }
+
+    /**
+     * Reads the messages from a message id on. The messages posted before the reader joined are only read if they are
+     * in the history.
+     * @param fromMsgId the id of the first message to read
+     * @param joinedMsgId the id of the first message posted after the reader joined
+     * @param messages the list to add the messages read to
+     * @return the id of the next message to read
+     */
+    public int readMessages(int fromMsgId, int joinedMsgId, List<ChatMessage> messages) {
+        return _messages.read(fromMsgId, joinedMsgId, messages);
+    }
+
+    /**
+     * Checks if there are messages to read from a message id on.
+     * @param fromMsgId the id of the first message to read
+     * @param joinedMsgId the id of the first message posted after the reader joined
+     * @return true if there are messages to read, otherwise false
+     */
+    public boolean hasMessages(int fromMsgId, int joinedMsgId) {
+        return _messages.hasMessages(fromMsgId, joinedMsgId);
     }
 }
@@ -1,5 +1,8 @@
 package com.gempukku.swccgo.chat;
 
 public interface ChatRoomListener {
-    void messageReceived(ChatMessage message);
+    /**
+     * Called when a message is posted, if the listener asked to wait for messages.
+     */
+    void messagesPosted();
 }
@@ -48,7 +48,7 @@ public class ChatRoomMediator {
             if(_allowedPlayers != null && !_allowedPlayers.contains(playerId) && _playtesting && !admin && !playtester)
                 throw new PrivateInformationException();
 
-            ChatCommunicationChannel value = new ChatCommunicationChannel();
+            ChatCommunicationChannel value = new ChatCommunicationChannel(_chatRoom);
             _listeners.put(playerId, value);
             _chatRoom.joinChatRoom(playerId, _allowedPlayers != null && !_allowedPlayers.contains(playerId) && !_allowSpectatorsToChat, value);
             return value.consumeMessages(0);
@@ -83,7 +83,8 @@ public class ChatRoomMediator {
         if (processIfKnownCommand(playerId, message, admin))
             return;
 
-        _lock.writeLock().lock();
+        // Posting does not change the listeners, and the chat room takes messages from many posters at once
+        _lock.readLock().lock();
         try {
             if (admin || _allowedPlayers == null || _allowedPlayers.contains(playerId) || _allowSpectatorsToChat) {
                 _logger.trace(playerId + ": " + message);
@@ -93,7 +94,7 @@ public class ChatRoomMediator {
                 throw new PrivateInformationException();
             }
         } finally {
-            _lock.writeLock().unlock();
+            _lock.readLock().unlock();
         }
     }
 
@@ -7,12 +7,16 @@ import org.apache.commons.collections4.map.LRUMap;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class CachedCollectionDAO implements CollectionDAO, Cached {
     private CollectionDAO _delegate;
-    private Map<String, CardCollection> _playerCollections = Collections.synchronizedMap(new LRUMap(100));
+    private Map<String, StoredCollection> _playerCollections = Collections.synchronizedMap(new LRUMap(100));
 
     public CachedCollectionDAO(CollectionDAO delegate) {
         _delegate = delegate;
@@ -31,12 +35,31 @@ public class CachedCollectionDAO implements CollectionDAO, Cached {
     @Override
     public CardCollection getPlayerCollection(int playerId, String type) throws SQLException, IOException {
         String key = constructCacheKey(playerId, type);
-        CardCollection collection = (CardCollection) _playerCollections.get(key);
-        if (collection == null) {
-            collection = _delegate.getPlayerCollection(playerId, type);
-            _playerCollections.put(key, collection);
+        StoredCollection storedCollection = _playerCollections.get(key);
+        if (storedCollection == null) {
+            CardCollection collection = _delegate.getPlayerCollection(playerId, type);
+            int storedLength = collection instanceof SerializedCardCollection ? ((SerializedCardCollection) collection).getSerializedLength() : -1;
+            storedCollection = new StoredCollection(collection, storedLength);
+            _playerCollections.put(key, storedCollection);
         }
-        return collection;
+        return storedCollection._collection;
+    }
+
+    @Override
+    public Map<Integer, CardCollection> getPlayerCollections(String type, Collection<Integer> playerIds) throws SQLException, IOException {
+        // Only the cached collections are taken from the cache, the others are not added to it, so reading many
+        // collections does not push out the ones of the players that are online
+        Map<Integer, CardCollection> result = new HashMap<Integer, CardCollection>();
+        List<Integer> notCached = new ArrayList<Integer>();
+        for (Integer playerId : playerIds) {
+            StoredCollection storedCollection = _playerCollections.get(constructCacheKey(playerId, type));
+            if (storedCollection != null && storedCollection._collection != null)
+                result.put(playerId, storedCollection._collection);
+            else
+                notCached.add(playerId);
+        }
+        result.putAll(_delegate.getPlayerCollections(type, notCached));
+        return result;
     }
 
     private String constructCacheKey(int playerId, String type) {
@@ -50,7 +73,51 @@ public class CachedCollectionDAO implements CollectionDAO, Cached {
 
     @Override
     public void setPlayerCollection(int playerId, String type, CardCollection collection) throws SQLException, IOException {
-        _delegate.setPlayerCollection(playerId, type, collection);
-        _playerCollections.put(constructCacheKey(playerId, type), collection);
+        StoredCollection storedCollection = _playerCollections.get(constructCacheKey(playerId, type));
+        if (storedCollection != null)
+            updatePlayerCollection(playerId, type, storedCollection._collection, storedCollection._storedLength, collection);
+        else
+            updatePlayerCollection(playerId, type, null, -1, collection);
+    }
+
+    @Override
+    public int updatePlayerCollection(int playerId, String type, CardCollection oldCollection, int storedLength, CardCollection collection) throws SQLException, IOException {
+        String key = constructCacheKey(playerId, type);
+        try {
+            int newLength = _delegate.updatePlayerCollection(playerId, type, oldCollection, storedLength, collection);
+            _playerCollections.put(key, new StoredCollection(collection, newLength));
+            return newLength;
+        } catch (SQLException exp) {
+            // The collection may have been stored anyway, so it is read again next time
+            _playerCollections.remove(key);
+            throw exp;
+        }
+    }
+
+    @Override
+    public void setPlayerCollections(String type, Map<Integer, CardCollection> collections) throws SQLException, IOException {
+        try {
+            _delegate.setPlayerCollections(type, collections);
+        } catch (SQLException exp) {
+            for (Integer playerId : collections.keySet())
+                _playerCollections.remove(constructCacheKey(playerId, type));
+            throw exp;
+        }
+        for (Map.Entry<Integer, CardCollection> collection : collections.entrySet())
+            _playerCollections.put(constructCacheKey(collection.getKey(), type), new StoredCollection(collection.getValue(), -1));
+    }
+
+    /**
+     * A cached collection, with the serialized length of the stored collection it is the same as, so the changes are
+     * only appended to that stored collection.
+     */
+    private static class StoredCollection {
+        private final CardCollection _collection;
+        private final int _storedLength;
+
+        private StoredCollection(CardCollection collection, int storedLength) {
+            _collection = collection;
+            _storedLength = storedLength;
+        }
     }
 }
@@ -3,6 +3,7 @@ package com.gempukku.swccgo.collection;
 import com.gempukku.swccgo.cache.Cached;
 import com.gempukku.swccgo.game.CardCollection;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
@@ -45,6 +46,12 @@ public class CachedTransferDAO implements TransferDAO, Cached {
         _delegate.addTransferTo(notifyPlayer, player, reason, collectionName, currency, items);
     }
 
+    public void addTransfersTo(boolean notifyPlayer, Collection<String> players, String reason, String collectionName, int currency, CardCollection items) {
+        if (notifyPlayer)
+            _playersWithoutDelivery.removeAll(players);
+        _delegate.addTransfersTo(notifyPlayer, players, reason, collectionName, currency, items);
+    }
+
     public void addTransferFrom(String player, String reason, String collectionName, int currency, CardCollection items) {
         _delegate.addTransferFrom(player, reason, collectionName, currency, items);
     }
@@ -0,0 +1,134 @@
+package com.gempukku.swccgo.collection;
+
+import com.gempukku.swccgo.db.vo.CollectionType;
+import com.gempukku.swccgo.game.CardCollection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A job adding the same items to the collections of all players, and its progress.
+ */
+public class CollectionGrantJob {
+    public enum State {
+        SELECTING_PLAYERS, RUNNING, FINISHED, FAILED
+    }
+
+    private final int _id;
+    private final String _reason;
+    private final CollectionType _collectionType;
+    private final List<CardCollection.Item> _items;
+    private final long _startTime = System.currentTimeMillis();
+
+    private volatile State _state = State.SELECTING_PLAYERS;
+    private volatile int _playerCount;
+    private volatile int _chunkCount;
+    private final AtomicInteger _chunksLeft = new AtomicInteger();
+    private final AtomicInteger _playersProcessed = new AtomicInteger();
+    private final AtomicInteger _playersGranted = new AtomicInteger();
+    private final AtomicInteger _failedChunks = new AtomicInteger();
+    private volatile int _uncertainChunks;
+    private volatile long _finishTime;
+
+    CollectionGrantJob(int id, String reason, CollectionType collectionType, Collection<CardCollection.Item> items) {
+        _id = id;
+        _reason = reason;
+        _collectionType = collectionType;
+        _items = Collections.unmodifiableList(new ArrayList<CardCollection.Item>(items));
+    }
+
+    public int getId() {
+        return _id;
+    }
+
+    public String getReason() {
+        return _reason;
+    }
+
+    public CollectionType getCollectionType() {
+        return _collectionType;
+    }
+
+    public List<CardCollection.Item> getItems() {
+        return _items;
+    }
+
+    public long getStartTime() {
+        return _startTime;
+    }
+
+    /**
+     * Gets the time the job finished.
+     * @return the time, or 0 if the job is not finished
+     */
+    public long getFinishTime() {
+        return _finishTime;
+    }
+
+    public State getState() {
+        return _state;
+    }
+
+    public int getPlayerCount() {
+        return _playerCount;
+    }
+
+    public int getChunkCount() {
+        return _chunkCount;
+    }
+
+    public int getPlayersProcessed() {
+        return _playersProcessed.get();
+    }
+
+    /**
+     * Gets the number of players the items were added to, which leaves out the processed players that have no
+     * collection of the type.
+     * @return the number of players
+     */
+    public int getPlayersGranted() {
+        return _playersGranted.get();
+    }
+
+    public int getFailedChunks() {
+        return _failedChunks.get();
+    }
+
+    /**
+     * Gets the number of chunks that were being processed when the server stopped, so they may or may not have been
+     * stored, and were not processed again.
+     * @return the number of chunks
+     */
+    public int getUncertainChunks() {
+        return _uncertainChunks;
+    }
+
+    void started(int playerCount, int chunkCount, int chunksToProcess, int playersAlreadyProcessed, int uncertainChunks) {
+        _playerCount = playerCount;
+        _chunkCount = chunkCount;
+        _chunksLeft.set(chunksToProcess);
+        _playersProcessed.set(playersAlreadyProcessed);
+        _uncertainChunks = uncertainChunks;
+        _state = State.RUNNING;
+    }
+
+    /**
+     * Records a processed chunk.
+     * @return true if it was the last chunk
+     */
+    boolean chunkProcessed(int playerCount, int playersGranted, boolean failed) {
+        _playersProcessed.addAndGet(playerCount);
+        _playersGranted.addAndGet(playersGranted);
+        if (failed)
+            _failedChunks.incrementAndGet();
+        return _chunksLeft.decrementAndGet() == 0;
+    }
+
+    void finished(boolean failed) {
+        _finishTime = System.currentTimeMillis();
+        _state = failed ? State.FAILED : State.FINISHED;
+    }
+}
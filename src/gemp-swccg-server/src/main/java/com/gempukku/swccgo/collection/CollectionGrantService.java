@@ -0,0 +1,315 @@
+package com.gempukku.swccgo.collection;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import com.gempukku.swccgo.db.PlayerDAO;
+import com.gempukku.swccgo.db.vo.CollectionType;
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.Player;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adds items to the collections of all players in the background. The players are split in chunks, which are
+ * processed in parallel, and each chunk reads and stores the collections of its players in batches.
+ *
+ * Each job has a journal file, starting with the job, its players and the chunk size, followed by a line for each chunk
+ * that is started, done or failed, so a job that was running when the server stopped is resumed when it starts again,
+ * with the same chunks. A chunk is recorded as done as soon as the collections are stored, before the transfers are
+ * recorded. A chunk that was started, but not recorded as done or failed, may or may not have been stored, so it is not
+ * processed again (adding the items twice cannot be undone either), and its players are logged to be checked by hand.
+ */
+public class CollectionGrantService {
+    private static final Logger LOG = LogManager.getLogger(CollectionGrantService.class);
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    private final CollectionsManager _collectionsManager;
+    private final PlayerDAO _playerDAO;
+    private final File _folder;
+    private final int _chunkSize;
+    private final ExecutorService _executor;
+    private final Map<Integer, CollectionGrantJob> _jobs = new ConcurrentSkipListMap<Integer, CollectionGrantJob>();
+    private final AtomicInteger _nextJobId = new AtomicInteger(1);
+
+    /**
+     * Creates the service, and resumes the jobs that were running when the server stopped.
+     * @param collectionsManager the collections manager
+     * @param playerDAO the player DAO
+     * @param folder the folder the journals are in
+     * @param threads the number of chunks processed at the same time
+     * @param chunkSize the number of players in a chunk
+     */
+    public CollectionGrantService(CollectionsManager collectionsManager, PlayerDAO playerDAO, File folder, int threads, int chunkSize) {
+        _collectionsManager = collectionsManager;
+        _playerDAO = playerDAO;
+        _folder = folder;
+        _chunkSize = chunkSize;
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        _executor = Executors.newFixedThreadPool(threads,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "collection-grant-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        resumeJobs();
+    }
+
+    /**
+     * Starts adding the items to the collections of all unbanned players that have a collection of the type.
+     * @param reason the reason recorded with the transfers
+     * @param collectionType the collection type
+     * @param items the items to add to each collection
+     * @return the job
+     */
+    public CollectionGrantJob startGrant(String reason, CollectionType collectionType, Collection<CardCollection.Item> items) {
+        final CollectionGrantJob job = new CollectionGrantJob(_nextJobId.getAndIncrement(), reason, collectionType, items);
+        _jobs.put(job.getId(), job);
+        _executor.execute(() -> {
+            try {
+                List<Player> players = new ArrayList<Player>();
+                for (Player player : _playerDAO.findPlayersWithFlag(Player.Type.UNBANNED)) {
+                    if (player.hasType(Player.Type.UNBANNED) && !player.getName().startsWith("rando_"))
+                        players.add(player);
+                }
+                players.sort(Comparator.comparingInt(Player::getId));
+
+                appendToJournal(job, toJson(job, players, _chunkSize).toJSONString());
+                processChunks(job, getChunks(players, _chunkSize), Collections.<Integer, String>emptyMap());
+            } catch (IOException | RuntimeException exp) {
+                LOG.error("Unable to start collection grant " + job.getId(), exp);
+                job.finished(true);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Gets the jobs started or resumed since the server started.
+     * @return the jobs, oldest first
+     */
+    public List<CollectionGrantJob> getJobs() {
+        return new ArrayList<CollectionGrantJob>(_jobs.values());
+    }
+
+    /**
+     * Processes the chunks of a job that are not done.
+     * @param chunks the players of each chunk
+     * @param chunkStates the last state recorded in the journal for each chunk
+     */
+    private void processChunks(CollectionGrantJob job, List<List<Player>> chunks, Map<Integer, String> chunkStates) {
+        int playerCount = 0;
+        int playersAlreadyProcessed = 0;
+        List<Integer> chunksToProcess = new ArrayList<Integer>();
+        int uncertainChunks = 0;
+        for (int chunk = 0; chunk < chunks.size(); chunk++) {
+            List<Player> players = chunks.get(chunk);
+            playerCount += players.size();
+            String state = chunkStates.get(chunk);
+            if ("started".equals(state)) {
+                uncertainChunks++;
+                LOG.warn("Collection grant " + job.getId() + " was stopped while adding the items to " + getPlayerNames(players)
+                        + ", these players may not have received them");
+            } else if ("done".equals(state)) {
+                playersAlreadyProcessed += players.size();
+            } else {
+                chunksToProcess.add(chunk);
+            }
+        }
+
+        job.started(playerCount, chunks.size(), chunksToProcess.size(), playersAlreadyProcessed, uncertainChunks);
+        if (chunksToProcess.isEmpty()) {
+            finishJob(job);
+            return;
+        }
+        for (final int chunk : chunksToProcess)
+            _executor.execute(() -> processChunk(job, chunk, chunks.get(chunk)));
+    }
+
+    private void processChunk(CollectionGrantJob job, int chunk, List<Player> players) {
+        List<String> playersGranted = Collections.emptyList();
+        boolean stored = false;
+        boolean failed = false;
+        try {
+            appendToJournal(job, "started " + chunk);
+            playersGranted = _collectionsManager.storeItemsInPlayerCollections(players, job.getCollectionType(), job.getItems());
+            stored = true;
+            appendToJournal(job, "done " + chunk);
+        } catch (IOException | RuntimeException exp) {
+            if (stored) {
+                // Recorded as started, so the chunk is not processed again if the job is resumed
+                LOG.error("Unable to record the items of collection grant " + job.getId() + " as added to " + getPlayerNames(players), exp);
+            } else {
+                LOG.error("Unable to add the items of collection grant " + job.getId() + " to " + getPlayerNames(players), exp);
+                failed = true;
+                try {
+                    appendToJournal(job, "failed " + chunk);
+                } catch (IOException journalExp) {
+                    LOG.error("Unable to write the journal of collection grant " + job.getId(), journalExp);
+                }
+            }
+        }
+
+        if (stored) {
+            // The items are in the collections, so the chunk is not failed if only the transfers cannot be recorded
+            try {
+                _collectionsManager.recordItemsAddedToPlayerCollections(true, job.getReason(), playersGranted, job.getCollectionType(), job.getItems());
+            } catch (RuntimeException exp) {
+                LOG.error("Unable to record the transfers of collection grant " + job.getId() + " to " + playersGranted, exp);
+            }
+        }
+
+        if (job.chunkProcessed(players.size(), playersGranted.size(), failed))
+            finishJob(job);
+    }
+
+    private void finishJob(CollectionGrantJob job) {
+        // The journal of a job with failed chunks is kept, so those chunks are tried again when the server starts again
+        boolean failed = job.getFailedChunks() > 0;
+        if (!failed) {
+            File journal = getJournalFile(job.getId());
+            if (journal.exists() && !journal.delete())
+                LOG.warn("Unable to delete the journal of collection grant " + job.getId());
+        }
+        job.finished(failed);
+        LOG.info("Collection grant " + job.getId() + " finished, items added to " + job.getPlayersGranted() + " of " + job.getPlayerCount() + " players"
+                + (failed ? ", " + job.getFailedChunks() + " chunks failed" : ""));
+    }
+
+    private void resumeJobs() {
+        File[] files = _folder.listFiles((dir, name) -> name.endsWith(JOURNAL_SUFFIX));
+        if (files == null)
+            return;
+
+        // In the order the jobs were started, with any journal not named after a job id last
+        Arrays.sort(files, Comparator.comparingLong(CollectionGrantService::getJournalJobId).thenComparing(File::getName));
+        for (File file : files) {
+            // New jobs never use the journal of an earlier one, even one that cannot be resumed
+            long jobId = getJournalJobId(file);
+            if (jobId <= Integer.MAX_VALUE)
+                _nextJobId.accumulateAndGet((int) jobId + 1, Math::max);
+            try {
+                resumeJob(file);
+            } catch (IOException | RuntimeException exp) {
+                LOG.error("Unable to resume the collection grant in " + file, exp);
+            }
+        }
+    }
+
+    private void resumeJob(File file) throws IOException {
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        if (lines.isEmpty())
+            throw new IOException("Empty collection grant journal");
+
+        JSONObject json = JSON.parseObject(lines.get(0), Feature.OrderedField);
+        int id = json.getIntValue("id");
+
+        List<CardCollection.Item> items = new ArrayList<CardCollection.Item>();
+        JSONObject itemCounts = json.getJSONObject("items");
+        for (String blueprintId : itemCounts.keySet())
+            items.add(CardCollection.Item.createItem(blueprintId, itemCounts.getIntValue(blueprintId)));
+        CollectionGrantJob job = new CollectionGrantJob(id, json.getString("reason"),
+                new CollectionType(json.getString("collectionType"), json.getString("collectionName")), items);
+
+        // The chunks are the ones the job started with, from the players and the chunk size in the journal. The players
+        // are looked up again, and the ones that are no longer unbanned are skipped in their chunk.
+        Map<Integer, Player> unbannedPlayers = new HashMap<Integer, Player>();
+        for (Player player : _playerDAO.findPlayersWithFlag(Player.Type.UNBANNED))
+            unbannedPlayers.put(player.getId(), player);
+        JSONArray playerIds = json.getJSONArray("players");
+        int chunkSize = json.getIntValue("chunkSize");
+        if (chunkSize <= 0)
+            throw new IOException("Collection grant journal without a chunk size");
+        List<List<Player>> chunks = new ArrayList<List<Player>>();
+        for (int start = 0; start < playerIds.size(); start += chunkSize) {
+            List<Player> players = new ArrayList<Player>();
+            for (int i = start; i < Math.min(playerIds.size(), start + chunkSize); i++) {
+                Player player = unbannedPlayers.get(playerIds.getIntValue(i));
+                if (player != null)
+                    players.add(player);
+            }
+            chunks.add(players);
+        }
+
+        Map<Integer, String> chunkStates = new HashMap<Integer, String>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] parts = line.split(" ");
+            // A line that was only partly written is ignored
+            if (parts.length == 2 && parts[1].matches("\\d+"))
+                chunkStates.put(Integer.parseInt(parts[1]), parts[0]);
+        }
+
+        LOG.info("Resuming collection grant " + id + " (" + job.getReason() + ")");
+        _jobs.put(id, job);
+        processChunks(job, chunks, chunkStates);
+    }
+
+    private static List<List<Player>> getChunks(List<Player> players, int chunkSize) {
+        List<List<Player>> result = new ArrayList<List<Player>>();
+        for (int start = 0; start < players.size(); start += chunkSize)
+            result.add(players.subList(start, Math.min(players.size(), start + chunkSize)));
+        return result;
+    }
+
+    /**
+     * Gets the id of the job of a journal file.
+     * @param file the journal file
+     * @return the job id, or Long.MAX_VALUE if the file is not named after a job id
+     */
+    private static long getJournalJobId(File file) {
+        String jobId = file.getName().substring(0, file.getName().length() - JOURNAL_SUFFIX.length());
+        return jobId.matches("\\d{1,18}") ? Long.parseLong(jobId) : Long.MAX_VALUE;
+    }
+
+    private static List<String> getPlayerNames(List<Player> players) {
+        List<String> result = new ArrayList<String>();
+        for (Player player : players)
+            result.add(player.getName());
+        return result;
+    }
+
+    private static JSONObject toJson(CollectionGrantJob job, List<Player> players, int chunkSize) {
+        JSONObject json = new JSONObject(true);
+        json.put("id", job.getId());
+        json.put("reason", job.getReason());
+        json.put("collectionType", job.getCollectionType().getCode());
+        json.put("collectionName", job.getCollectionType().getFullName());
+        JSONObject items = new JSONObject(true);
+        for (CardCollection.Item item : job.getItems())
+            items.put(item.getBlueprintId(), item.getCount());
+        json.put("items", items);
+        JSONArray playerIds = new JSONArray();
+        for (Player player : players)
+            playerIds.add(player.getId());
+        json.put("players", playerIds);
+        json.put("chunkSize", chunkSize);
+        return json;
+    }
+
+    private File getJournalFile(int jobId) {
+        return new File(_folder, jobId + JOURNAL_SUFFIX);
+    }
+
+    private void appendToJournal(CollectionGrantJob job, String line) throws IOException {
+        // The chunks of a job are processed in parallel, so the journal of the job is appended to one line at a time
+        synchronized (job) {
+            _folder.mkdirs();
+            try (FileOutputStream outputStream = new FileOutputStream(getJournalFile(job.getId()), true)) {
+                outputStream.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+                outputStream.getFD().sync();
+            }
+        }
+    }
+}
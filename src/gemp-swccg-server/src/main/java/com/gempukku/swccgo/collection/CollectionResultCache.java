@@ -0,0 +1,105 @@
+package com.gempukku.swccgo.collection;
+
+import com.gempukku.swccgo.cache.Cached;
+import com.gempukku.swccgo.game.CardCollection;
+import org.apache.commons.collections4.map.LRUMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the last filtered and sorted collection each player browsed, so paging through it does not filter and sort
+ * the whole collection again for every page. The result is identified by a cursor the client sends back with the
+ * next page, and is only used while the collection, the filter and the sort it was made from are the same. A result
+ * that has not been used for a while is made again.
+ */
+public class CollectionResultCache implements Cached {
+    private final long _maxIdleTime;
+    private final Map<String, Result> _results;
+    private final AtomicLong _nextCursor = new AtomicLong(1);
+
+    /**
+     * Creates the cache.
+     * @param maxPlayers the number of players whose result is kept
+     * @param maxIdleTime the milliseconds a result is kept without being used
+     */
+    public CollectionResultCache(int maxPlayers, long maxIdleTime) {
+        _maxIdleTime = maxIdleTime;
+        _results = Collections.synchronizedMap(new LRUMap<String, Result>(maxPlayers));
+    }
+
+    @Override
+    public void clearCache() {
+        _results.clear();
+    }
+
+    @Override
+    public int getItemCount() {
+        return _results.size();
+    }
+
+    /**
+     * Gets the filtered and sorted collection of the player, made again if the cursor is not the one of the last
+     * result of the player, or the last result was made from a different collection or filter.
+     * @param playerName the player name
+     * @param cursor the cursor the client was given with the previous page, or null or empty
+     * @param collectionType the collection type
+     * @param collectionVersion the version of the collection, taken before it was read
+     * @param filter the filter, including the sort
+     * @param filterAndSort filters and sorts the collection
+     * @return the result
+     */
+    public Result getResult(String playerName, String cursor, String collectionType, int collectionVersion, String filter,
+                            Supplier<List<CardCollection.Item>> filterAndSort) {
+        long now = System.currentTimeMillis();
+        Result result = _results.get(playerName);
+        if (result != null && (cursor == null || cursor.isEmpty() || cursor.equals(result._cursor)) && result.isFor(collectionType, collectionVersion, filter)
+                && now - result._lastUsed <= _maxIdleTime) {
+            result._lastUsed = now;
+            return result;
+        }
+
+        result = new Result(String.valueOf(_nextCursor.getAndIncrement()), collectionType, collectionVersion, filter,
+                Collections.unmodifiableList(new ArrayList<CardCollection.Item>(filterAndSort.get())), now);
+        _results.put(playerName, result);
+        return result;
+    }
+
+    /**
+     * A filtered and sorted collection.
+     */
+    public static class Result {
+        private final String _cursor;
+        private final String _collectionType;
+        private final int _collectionVersion;
+        private final String _filter;
+        private final List<CardCollection.Item> _items;
+        private volatile long _lastUsed;
+
+        private Result(String cursor, String collectionType, int collectionVersion, String filter, List<CardCollection.Item> items, long lastUsed) {
+            _cursor = cursor;
+            _collectionType = collectionType;
+            _collectionVersion = collectionVersion;
+            _filter = filter;
+            _items = items;
+            _lastUsed = lastUsed;
+        }
+
+        private boolean isFor(String collectionType, int collectionVersion, String filter) {
+            return _collectionVersion == collectionVersion && _collectionType.equals(collectionType) && Objects.equals(_filter, filter);
+        }
+
+        public String getCursor() {
+            return _cursor;
+        }
+
+        public List<CardCollection.Item> getItems() {
+            return _items;
+        }
+    }
+}
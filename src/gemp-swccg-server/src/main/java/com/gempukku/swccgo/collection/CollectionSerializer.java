@@ -6,12 +6,28 @@ import com.gempukku.swccgo.game.DefaultCardCollection;
 import com.gempukku.swccgo.game.MutableCardCollection;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Serializes player collections.
+ *
+ * Version 3 (written now) is a snapshot of the collection in a compact sorted layout, optionally followed by change
+ * records. Cards are stored as a sorted list of numeric keys (set, card and foil/alternate image variant) written as
+ * varint deltas, and any other items (packs, selections) by name. A change record holds only the currency and item
+ * count differences, so a small change to a large collection can be appended to the stored bytes instead of
+ * rewriting them, until the records are compacted into a new snapshot.
+ */
 public class CollectionSerializer {
+    static final byte VERSION_3 = 3;
+    static final long NAMED_ITEM_KEY = 1;
+
     private List<String> _doubleByteCountItems = new ArrayList<String>();
     private List<String> _singleByteCountItems = new ArrayList<String>();
     private List<String> _singleByteCountItemsForVer0 = new ArrayList<String>();
@@ -103,7 +119,102 @@ public class CollectionSerializer {
         return Integer.parseInt(cardNo);
     }
 
+    /**
+     * Serializes a snapshot of the collection in version 3 format.
+     * @param collection the collection
+     * @param outputStream the output stream
+     * @throws IOException if an I/O error occurs
+     */
     public void serializeCollection(CardCollection collection, OutputStream outputStream) throws IOException {
+        outputStream.write(VERSION_3);
+        writeVarLong(outputStream, collection.getCurrency());
+        outputStream.write(collection.excludePackDuplicates() ? 1 : 0);
+
+        Map<String, Integer> namedItems = new TreeMap<String, Integer>();
+        Map<Long, Integer> cardCounts = new TreeMap<Long, Integer>();
+        for (CardCollection.Item item : collection.getAll().values()) {
+            if (item.getCount() <= 0)
+                continue;
+            long cardKey = toCardKey(item.getBlueprintId());
+            if (cardKey < 0)
+                namedItems.put(item.getBlueprintId(), item.getCount());
+            else
+                cardCounts.put(cardKey, item.getCount());
+        }
+
+        writeVarLong(outputStream, namedItems.size());
+        for (Map.Entry<String, Integer> namedItem : namedItems.entrySet()) {
+            writeString(outputStream, namedItem.getKey());
+            writeVarLong(outputStream, namedItem.getValue());
+        }
+
+        writeVarLong(outputStream, cardCounts.size());
+        long previousCardKey = 0;
+        for (Map.Entry<Long, Integer> cardCount : cardCounts.entrySet()) {
+            writeVarLong(outputStream, cardCount.getKey() - previousCardKey);
+            writeVarLong(outputStream, cardCount.getValue());
+            previousCardKey = cardCount.getKey();
+        }
+    }
+
+    /**
+     * Serializes a version 3 change record with the differences between the two collections. The record can be
+     * appended to a version 3 serialization of the old collection, which then reads as the new collection.
+     * @param oldCollection the collection before the change
+     * @param newCollection the collection after the change
+     * @param outputStream the output stream
+     * @return true if anything was written, false if there is no difference
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean serializeCollectionChanges(CardCollection oldCollection, CardCollection newCollection, OutputStream outputStream) throws IOException {
+        Map<String, CardCollection.Item> oldItems = oldCollection.getAll();
+        Map<String, CardCollection.Item> newItems = newCollection.getAll();
+
+        Map<String, Integer> changes = new TreeMap<String, Integer>();
+        Set<String> itemIds = new HashSet<String>(oldItems.keySet());
+        itemIds.addAll(newItems.keySet());
+        for (String itemId : itemIds) {
+            CardCollection.Item oldItem = oldItems.get(itemId);
+            CardCollection.Item newItem = newItems.get(itemId);
+            int delta = (newItem != null ? Math.max(0, newItem.getCount()) : 0) - (oldItem != null ? Math.max(0, oldItem.getCount()) : 0);
+            if (delta != 0)
+                changes.put(itemId, delta);
+        }
+
+        int currencyDelta = newCollection.getCurrency() - oldCollection.getCurrency();
+        if (changes.isEmpty() && currencyDelta == 0 && oldCollection.excludePackDuplicates() == newCollection.excludePackDuplicates())
+            return false;
+
+        writeVarLong(outputStream, toZigZag(currencyDelta));
+        outputStream.write(newCollection.excludePackDuplicates() ? 1 : 0);
+        writeVarLong(outputStream, changes.size());
+        for (Map.Entry<String, Integer> change : changes.entrySet()) {
+            long cardKey = toCardKey(change.getKey());
+            if (cardKey < 0) {
+                writeVarLong(outputStream, NAMED_ITEM_KEY);
+                writeString(outputStream, change.getKey());
+            } else {
+                writeVarLong(outputStream, cardKey << 1);
+            }
+            writeVarLong(outputStream, toZigZag(change.getValue()));
+        }
+        return true;
+    }
+
+    /**
+     * Reads a serialized collection. Version 3 collections are read lazily, straight from the specified bytes, which
+     * must not be modified afterwards.
+     * @param bytes the serialized collection
+     * @return the collection
+     * @throws IOException if an I/O error occurs
+     */
+    public CardCollection readCollection(byte[] bytes) throws IOException {
+        if (bytes.length > 0 && bytes[0] == VERSION_3)
+            return new SerializedCardCollection(bytes);
+        return deserializeCollection(new ByteArrayInputStream(bytes));
+    }
+
+    public void serializeCollectionVer2(CardCollection collection, OutputStream outputStream) throws IOException {
         byte version = 2;
         outputStream.write(version);
 
@@ -278,6 +389,11 @@ public class CollectionSerializer {
             return deserializeCollectionVer1(new BufferedInputStream(inputStream));
         } else if (version == 2) {
             return deserializeCollectionVer2(new BufferedInputStream(inputStream));
+        } else if (version == VERSION_3) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            bytes.write(VERSION_3);
+            inputStream.transferTo(bytes);
+            return new DefaultCardCollection(new SerializedCardCollection(bytes.toByteArray()));
         } else {
             throw new IllegalStateException("Unknown version of serialized collection: " + version);
         }
@@ -426,4 +542,81 @@ public class CollectionSerializer {
         for (int i = 0; i < byteCount; i++)
             outputStream.write((value >> (8 * (byteCount - i - 1))) & 0x000000ff);
     }
+
+    /**
+     * Gets the numeric key of a card item, ordered by set, card number and variant.
+     * @param blueprintId the blueprint id of the item
+     * @return the key, or -1 if the item is not a plain, foil or alternate image card that can be keyed exactly
+     */
+    static long toCardKey(String blueprintId) {
+        int end = blueprintId.length();
+        int variant = 0;
+        if (end > 0 && blueprintId.charAt(end - 1) == '*') {
+            variant = 1;
+            end--;
+        } else if (end > 0 && blueprintId.charAt(end - 1) == '^') {
+            variant = 2;
+            end--;
+        }
+        int underscore = blueprintId.indexOf('_');
+        if (underscore < 0)
+            return -1;
+        long setNo = parseKeyNumber(blueprintId, 0, underscore);
+        long cardNo = parseKeyNumber(blueprintId, underscore + 1, end);
+        if (setNo < 0 || cardNo < 0)
+            return -1;
+        return ((setNo << 20) | cardNo) << 2 | variant;
+    }
+
+    /**
+     * Gets the blueprint id of a card item from its numeric key.
+     * @param cardKey the key
+     * @return the blueprint id
+     */
+    static String toBlueprintId(long cardKey) {
+        int variant = (int) (cardKey & 3);
+        long setAndCard = cardKey >>> 2;
+        String blueprintId = (setAndCard >>> 20) + "_" + (setAndCard & 0xfffff);
+        if (variant == 1)
+            return blueprintId + "*";
+        if (variant == 2)
+            return blueprintId + "^";
+        return blueprintId;
+    }
+
+    // Only numbers that print back exactly the same (no sign or leading zeros) and fit in 20 bits can be keyed
+    private static long parseKeyNumber(String text, int start, int end) {
+        if (end <= start || end - start > 6 || (text.charAt(start) == '0' && end - start > 1))
+            return -1;
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            result = result * 10 + (c - '0');
+        }
+        return result < (1 << 20) ? result : -1;
+    }
+
+    static long toZigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long fromZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void writeVarLong(OutputStream outputStream, long value) throws IOException {
+        while ((value & ~0x7fL) != 0) {
+            outputStream.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        outputStream.write((int) value);
+    }
+
+    private void writeString(OutputStream outputStream, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(outputStream, bytes.length);
+        outputStream.write(bytes);
+    }
 }
@@ -6,6 +6,7 @@ import com.gempukku.swccgo.db.PlayerDAO;
 import com.gempukku.swccgo.db.vo.CollectionType;
 import com.gempukku.swccgo.game.*;
 import com.gempukku.swccgo.packagedProduct.PackagedProductStorage;
+import org.apache.commons.collections4.map.LRUMap;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
@@ -13,7 +14,9 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 
 public class CollectionsManager {
     private static Logger _logger = LogManager.getLogger(CollectionsManager.class);
@@ -26,59 +29,97 @@ public class CollectionsManager {
     private CountDownLatch _collectionReadyLatch = new CountDownLatch(1);
     private DefaultCardCollection _defaultCollection;
     private DefaultCardCollection _defaultCollectionWithPlaytesting;
+    // The versions are never reused, so a player whose version was dropped from the map gets a new one
+    private final AtomicInteger _lastCollectionVersion = new AtomicInteger();
+    private final Map<Integer, Integer> _collectionVersions = Collections.synchronizedMap(new LRUMap<Integer, Integer>(1000));
 
     public CollectionsManager(PlayerDAO playerDAO, CollectionDAO collectionDAO, TransferDAO transferDAO, final SwccgCardBlueprintLibrary library) {
+        this(playerDAO, collectionDAO, transferDAO, getDefaultCollectionBlueprintIds(library, false), getDefaultCollectionBlueprintIds(library, true));
+    }
+
+    /**
+     * Creates the collections manager with default collections of the specified cards.
+     * @param playerDAO the player database access object
+     * @param collectionDAO the collection database access object
+     * @param transferDAO the transfer database access object
+     * @param defaultCollectionBlueprintIds the cards in the default collection
+     * @param defaultCollectionWithPlaytestingBlueprintIds the cards in the default collection with playtesting
+     */
+    public CollectionsManager(PlayerDAO playerDAO, CollectionDAO collectionDAO, TransferDAO transferDAO,
+                              List<String> defaultCollectionBlueprintIds, List<String> defaultCollectionWithPlaytestingBlueprintIds) {
         _playerDAO = playerDAO;
         _collectionDAO = collectionDAO;
         _transferDAO = transferDAO;
 
         _defaultCollection = new DefaultCardCollection();
-        _defaultCollectionWithPlaytesting = new DefaultCardCollection();
+        for (String blueprintId : defaultCollectionBlueprintIds)
+            _defaultCollection.addItem(blueprintId, 60);
 
-        // Add cards to default collection
-        addCardsToDefaultCollection(library, CardCounts.FULL_SETS_CARD_COUNTS, 1, _defaultCollection);
-        addCardsToDefaultCollection(library, CardCounts.PREMIUM_SETS_CARD_COUNTS, 101, _defaultCollection);
-        addCardsToDefaultCollection(library, CardCounts.VIRTUAL_SETS_CARD_COUNTS, 200, _defaultCollection);
-        addCardsToDefaultCollection(library, CardCounts.VIRTUAL_PREMIUM_SETS_CARD_COUNTS, 301, _defaultCollection);
-        addCardsToDefaultCollection(library, CardCounts.DREAM_CARD_SETS_CARD_COUNTS, 401, _defaultCollection);
-        addCardsToDefaultCollection(library, CardCounts.LEGACY_SETS_CARD_COUNTS, 601, _defaultCollection);
-
-        // Add cards to default collection with playtesting
-        addCardsToDefaultCollection(library, CardCounts.FULL_SETS_CARD_COUNTS, 1, _defaultCollectionWithPlaytesting);
-        addCardsToDefaultCollection(library, CardCounts.PREMIUM_SETS_CARD_COUNTS, 101, _defaultCollectionWithPlaytesting);
-        addCardsToDefaultCollection(library, CardCounts.VIRTUAL_SETS_CARD_COUNTS, 200, _defaultCollectionWithPlaytesting);
-        addCardsToDefaultCollection(library, CardCounts.VIRTUAL_PREMIUM_SETS_CARD_COUNTS, 301, _defaultCollectionWithPlaytesting);
-        addCardsToDefaultCollection(library, CardCounts.DREAM_CARD_SETS_CARD_COUNTS, 401, _defaultCollectionWithPlaytesting);
-        addCardsToDefaultCollection(library, CardCounts.PLAYTESTING_SETS_CARD_COUNTS, 501, _defaultCollectionWithPlaytesting);
-        addCardsToDefaultCollection(library, CardCounts.LEGACY_SETS_CARD_COUNTS, 601, _defaultCollectionWithPlaytesting);
+        _defaultCollectionWithPlaytesting = new DefaultCardCollection();
+        for (String blueprintId : defaultCollectionWithPlaytestingBlueprintIds)
+            _defaultCollectionWithPlaytesting.addItem(blueprintId, 60);
 
         _collectionReadyLatch.countDown();
     }
 
     /**
-     * Adds all the cards to the default collection.
+     * Gets the cards in a default collection. Finding out which cards exist loads every card blueprint, so the sets
+     * are gone through in parallel.
      * @param library the card blueprint library
+     * @param withPlaytesting true to include the playtesting sets
+     * @return the blueprint ids of the cards, by set
+     */
+    public static List<String> getDefaultCollectionBlueprintIds(SwccgCardBlueprintLibrary library, boolean withPlaytesting) {
+        List<int[]> sets = new ArrayList<int[]>();
+        addSets(sets, CardCounts.FULL_SETS_CARD_COUNTS, 1);
+        addSets(sets, CardCounts.PREMIUM_SETS_CARD_COUNTS, 101);
+        addSets(sets, CardCounts.VIRTUAL_SETS_CARD_COUNTS, 200);
+        addSets(sets, CardCounts.VIRTUAL_PREMIUM_SETS_CARD_COUNTS, 301);
+        addSets(sets, CardCounts.DREAM_CARD_SETS_CARD_COUNTS, 401);
+        if (withPlaytesting)
+            addSets(sets, CardCounts.PLAYTESTING_SETS_CARD_COUNTS, 501);
+        addSets(sets, CardCounts.LEGACY_SETS_CARD_COUNTS, 601);
+
+        List<String> blueprintIds = new ArrayList<String>();
+        for (List<String> setBlueprintIds : sets.parallelStream().map(set -> getBlueprintIdsInSet(library, set[0], set[1])).collect(Collectors.toList()))
+            blueprintIds.addAll(setBlueprintIds);
+        return blueprintIds;
+    }
+
+    /**
+     * Adds the sets with their card counts.
+     * @param sets the sets, as set number and card count
      * @param cardSetCounts the counts of cards in each set
      * @param setIndexOffset the set number of the first array item in cardSetCounts
-     * @param defaultCollection the default collection
      */
-    private void addCardsToDefaultCollection(SwccgCardBlueprintLibrary library, int[] cardSetCounts, int setIndexOffset, DefaultCardCollection defaultCollection) {
-        for (int i = 0; i < cardSetCounts.length; i++) {
-            int setNum = setIndexOffset + i;
-            _logger.debug("Loading set " + setNum);
-            for (int j = 1; j <= cardSetCounts[i]; j++) {
-                String blueprintId = setNum + "_" + j;
-                try {
-                    if (library.getBaseBlueprintId(blueprintId).equals(blueprintId)) {
-                        final SwccgCardBlueprint blueprint = library.getSwccgoCardBlueprint(blueprintId);
-                        if (blueprint != null) {
-                            defaultCollection.addItem(blueprintId, 60);
-                        }
+    private static void addSets(List<int[]> sets, int[] cardSetCounts, int setIndexOffset) {
+        for (int i = 0; i < cardSetCounts.length; i++)
+            sets.add(new int[]{setIndexOffset + i, cardSetCounts[i]});
+    }
+
+    /**
+     * Gets the cards in a set that are not alternate versions of other cards.
+     * @param library the card blueprint library
+     * @param setNum the set number
+     * @param cardCount the number of cards in the set
+     * @return the blueprint ids of the cards
+     */
+    private static List<String> getBlueprintIdsInSet(SwccgCardBlueprintLibrary library, int setNum, int cardCount) {
+        _logger.debug("Loading set " + setNum);
+        List<String> blueprintIds = new ArrayList<String>();
+        for (int j = 1; j <= cardCount; j++) {
+            String blueprintId = setNum + "_" + j;
+            try {
+                if (library.getBaseBlueprintId(blueprintId).equals(blueprintId)) {
+                    final SwccgCardBlueprint blueprint = library.getSwccgoCardBlueprint(blueprintId);
+                    if (blueprint != null) {
+                        blueprintIds.add(blueprintId);
                     }
-                } catch (IllegalArgumentException exp) {
                 }
+            } catch (IllegalArgumentException exp) {
             }
         }
+        return blueprintIds;
     }
 
     private CardCollection getDefaultCollection(boolean withPlaytesting) {
@@ -129,6 +170,22 @@ public class CollectionsManager {
         return new SumCardCollection(collections);
     }
 
+    /**
+     * Gets the version of the collections of the player, which changes whenever any of them is stored, so anything
+     * worked out from a collection can be kept for as long as the version stays the same. The version should be
+     * taken before the collection is read.
+     * @param player the player
+     * @return the version
+     */
+    public int getCollectionVersion(Player player) {
+        return _collectionVersions.computeIfAbsent(player.getId(), playerId -> _lastCollectionVersion.incrementAndGet());
+    }
+
+    private void collectionsChanged(Collection<Integer> playerIds) {
+        for (Integer playerId : playerIds)
+            _collectionVersions.put(playerId, _lastCollectionVersion.incrementAndGet());
+    }
+
     private void setPlayerCollection(Player player, String collectionType, CardCollection cardCollection) {
         if (collectionType.contains("+"))
             throw new IllegalArgumentException("Invalid collection type: " + collectionType);
@@ -138,6 +195,9 @@ public class CollectionsManager {
             throw new RuntimeException("Unable to store player collection", exp);
         } catch (IOException exp) {
             throw new RuntimeException("Unable to store player collection", exp);
+        } finally {
+            // Even a failed store may have changed the cached collection
+            collectionsChanged(Collections.singleton(player.getId()));
         }
     }
 
@@ -232,7 +292,147 @@ public class CollectionsManager {
         addItemsToPlayerCollection(notifyPlayer, reason, _playerDAO.getPlayer(player), collectionType, items);
     }
 
-    public boolean tradeCards(Player player, CollectionType collectionType, String removeBlueprintId, int removeCount, String addBlueprintId, int addCount, int currencyCost) {
+    /**
+     * Adds the same items to the collections of several players, reading and storing the collections in batches. The
+     * players that do not have a collection of the type are skipped.
+     * @param notifyPlayer true if the players are notified of the items
+     * @param reason the reason
+     * @param players the players
+     * @param collectionType the collection type
+     * @param items the items to add to each collection
+     * @return the names of the players the items were added to
+     */
+    public List<String> addItemsToPlayerCollections(boolean notifyPlayer, String reason, Collection<Player> players, CollectionType collectionType, Collection<CardCollection.Item> items) {
+        List<String> playerNames = storeItemsInPlayerCollections(players, collectionType, items);
+        recordItemsAddedToPlayerCollections(notifyPlayer, reason, playerNames, collectionType, items);
+        return playerNames;
+    }
+
+    /**
+     * Stores the same items in the collections of several players, reading and storing the collections in batches,
+     * without recording the transfers. The players that do not have a collection of the type are skipped.
+     * @param players the players
+     * @param collectionType the collection type
+     * @param items the items to add to each collection
+     * @return the names of the players the items were added to
+     */
+    public List<String> storeItemsInPlayerCollections(Collection<Player> players, CollectionType collectionType, Collection<CardCollection.Item> items) {
+        if (collectionType.getCode().contains("+"))
+            throw new IllegalArgumentException("Invalid collection type: " + collectionType);
+
+        Map<Integer, Player> playersById = new HashMap<Integer, Player>();
+        for (Player player : players)
+            playersById.put(player.getId(), player);
+
+        List<String> playerNames = new ArrayList<String>();
+        _readWriteLock.writeLock().lock();
+        try {
+            Map<Integer, CardCollection> collections = _collectionDAO.getPlayerCollections(collectionType.getCode(), playersById.keySet());
+            Map<Integer, CardCollection> newCollections = new HashMap<Integer, CardCollection>();
+            for (Map.Entry<Integer, CardCollection> collection : collections.entrySet()) {
+                MutableCardCollection mutableCardCollection = new DefaultCardCollection(collection.getValue());
+                for (CardCollection.Item item : items)
+                    mutableCardCollection.addItem(item.getBlueprintId(), item.getCount());
+                newCollections.put(collection.getKey(), mutableCardCollection);
+                playerNames.add(playersById.get(collection.getKey()).getName());
+            }
+            try {
+                _collectionDAO.setPlayerCollections(collectionType.getCode(), newCollections);
+            } finally {
+                collectionsChanged(newCollections.keySet());
+            }
+        } catch (SQLException exp) {
+            throw new RuntimeException("Unable to store player collections", exp);
+        } catch (IOException exp) {
+            throw new RuntimeException("Unable to store player collections", exp);
+        } finally {
+            _readWriteLock.writeLock().unlock();
+        }
+        return playerNames;
+    }
+
+    /**
+     * Records the transfers of the items stored in the collections of several players. The transfers are only a record
+     * of the items added, so they are written without holding up the collections.
+     * @param notifyPlayer true if the players are notified of the items
+     * @param reason the reason
+     * @param playerNames the names of the players the items were added to
+     * @param collectionType the collection type
+     * @param items the items added to each collection
+     */
+    public void recordItemsAddedToPlayerCollections(boolean notifyPlayer, String reason, List<String> playerNames, CollectionType collectionType, Collection<CardCollection.Item> items) {
+        MutableCardCollection addedCards = new DefaultCardCollection();
+        for (CardCollection.Item item : items)
+            addedCards.addItem(item.getBlueprintId(), item.getCount());
+        _transferDAO.addTransfersTo(notifyPlayer, playerNames, reason, collectionType.getFullName(), 0, addedCards);
+    }
+
+    public boolean tradeItemsBetweenPlayers(String firstPlayer, CardCollection firstPlayerItems, String secondPlayer, CardCollection secondPlayerItems, CollectionType collectionType) {
+        return tradeItemsBetweenPlayers(_playerDAO.getPlayer(firstPlayer), firstPlayerItems, _playerDAO.getPlayer(secondPlayer), secondPlayerItems, collectionType);
+    }
+
+    /**
+     * Exchanges items between the collections of two players. Both collections are stored together, so either both
+     * players get the items of the other player or neither does.
+     * @param firstPlayer the first player
+     * @param firstPlayerItems the items the first player gives
+     * @param secondPlayer the second player
+     * @param secondPlayerItems the items the second player gives
+     * @param collectionType the collection type
+     * @return true if the items were exchanged, false if a player does not have the items given
+     */
+    public boolean tradeItemsBetweenPlayers(Player firstPlayer, CardCollection firstPlayerItems, Player secondPlayer, CardCollection secondPlayerItems, CollectionType collectionType) {
+        if (collectionType.getCode().contains("+"))
+            throw new IllegalArgumentException("Invalid collection type: " + collectionType);
+
+        _readWriteLock.writeLock().lock();
+        try {
+            final CardCollection firstPlayerCollection = getPlayerCollection(firstPlayer, collectionType.getCode());
+            final CardCollection secondPlayerCollection = getPlayerCollection(secondPlayer, collectionType.getCode());
+            if (firstPlayerCollection == null || secondPlayerCollection == null)
+                return false;
+
+            MutableCardCollection firstMutableCollection = new DefaultCardCollection(firstPlayerCollection);
+            MutableCardCollection secondMutableCollection = new DefaultCardCollection(secondPlayerCollection);
+            if (!moveItems(firstPlayerItems, firstMutableCollection, secondMutableCollection)
+                    || !moveItems(secondPlayerItems, secondMutableCollection, firstMutableCollection))
+                return false;
+
+            Map<Integer, CardCollection> collections = new HashMap<Integer, CardCollection>();
+            collections.put(firstPlayer.getId(), firstMutableCollection);
+            collections.put(secondPlayer.getId(), secondMutableCollection);
+            try {
+                _collectionDAO.setPlayerCollections(collectionType.getCode(), collections);
+            } catch (SQLException exp) {
+                throw new RuntimeException("Unable to store player collections", exp);
+            } catch (IOException exp) {
+                throw new RuntimeException("Unable to store player collections", exp);
+            } finally {
+                collectionsChanged(collections.keySet());
+            }
+
+            String reason = "Trade with another player";
+            _transferDAO.addTransferFrom(firstPlayer.getName(), reason, collectionType.getFullName(), 0, firstPlayerItems);
+            _transferDAO.addTransferTo(true, firstPlayer.getName(), reason, collectionType.getFullName(), 0, secondPlayerItems);
+            _transferDAO.addTransferFrom(secondPlayer.getName(), reason, collectionType.getFullName(), 0, secondPlayerItems);
+            _transferDAO.addTransferTo(true, secondPlayer.getName(), reason, collectionType.getFullName(), 0, firstPlayerItems);
+
+            return true;
+        } finally {
+            _readWriteLock.writeLock().unlock();
+        }
+    }
+
+    private boolean moveItems(CardCollection items, MutableCardCollection from, MutableCardCollection to) {
+        for (CardCollection.Item item : items.getAll().values()) {
+            if (!from.removeItem(item.getBlueprintId(), item.getCount()))
+                return false;
+            to.addItem(item.getBlueprintId(), item.getCount());
+        }
+        return true;
+    }
+
+    public boolean tradeCards(Player player,CollectionType collectionType, String removeBlueprintId, int removeCount, String addBlueprintId, int addCount, int currencyCost) {
         _readWriteLock.writeLock().lock();
         try {
             final CardCollection playerCollection = getPlayerCollection(player, collectionType.getCode());
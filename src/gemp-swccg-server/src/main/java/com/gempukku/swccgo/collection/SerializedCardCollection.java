@@ -0,0 +1,203 @@
+package com.gempukku.swccgo.collection;
+
+import com.gempukku.swccgo.game.CardCollection;
+
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A read-only card collection that reads directly from a collection serialized in version 3 format (a snapshot
+ * followed by any change records appended since).
+ *
+ * The serialized bytes are kept as-is, and the items are only decoded when they are first asked for. The decoded
+ * items are held softly, so large collections sitting in the cache can give the memory back and be decoded again
+ * from the compact bytes when needed.
+ */
+public class SerializedCardCollection implements CardCollection {
+    private final byte[] _bytes;
+    private final int _changeLogOffset;
+    private final int _currency;
+    private final boolean _excludePackDuplicates;
+    private volatile SoftReference<Map<String, Item>> _items = new SoftReference<Map<String, Item>>(null);
+
+    /**
+     * Creates a card collection backed by the serialized bytes, which must not be modified afterwards.
+     * @param bytes the serialized collection, starting with the version byte
+     */
+    SerializedCardCollection(byte[] bytes) {
+        if (bytes.length == 0 || bytes[0] != CollectionSerializer.VERSION_3)
+            throw new IllegalStateException("Not a version 3 serialized collection");
+        _bytes = bytes;
+
+        // Only the header and the currency/flag parts of the change records are read here, the item ids are skipped
+        Reader reader = new Reader(bytes, 1);
+        int currency = (int) reader.readVarLong();
+        boolean excludePackDuplicates = (reader.readByte() & 1) != 0;
+        long namedItems = reader.readVarLong();
+        for (long i = 0; i < namedItems; i++) {
+            reader.skipString();
+            reader.readVarLong();
+        }
+        long cards = reader.readVarLong();
+        for (long i = 0; i < cards; i++) {
+            reader.readVarLong();
+            reader.readVarLong();
+        }
+        _changeLogOffset = reader._position;
+
+        while (reader.hasMore()) {
+            currency += (int) CollectionSerializer.fromZigZag(reader.readVarLong());
+            excludePackDuplicates = (reader.readByte() & 1) != 0;
+            long changes = reader.readVarLong();
+            for (long i = 0; i < changes; i++) {
+                reader.skipItemId();
+                reader.readVarLong();
+            }
+        }
+        _currency = currency;
+        _excludePackDuplicates = excludePackDuplicates;
+    }
+
+    /**
+     * Gets the number of bytes taken by change records appended after the snapshot.
+     * @return the number of bytes
+     */
+    public int getChangeLogLength() {
+        return _bytes.length - _changeLogOffset;
+    }
+
+    /**
+     * Gets the total number of serialized bytes.
+     * @return the number of bytes
+     */
+    public int getSerializedLength() {
+        return _bytes.length;
+    }
+
+    @Override
+    public int getCurrency() {
+        return _currency;
+    }
+
+    @Override
+    public boolean excludePackDuplicates() {
+        return _excludePackDuplicates;
+    }
+
+    @Override
+    public Map<String, Item> getAll() {
+        Map<String, Item> items = _items.get();
+        if (items == null) {
+            items = Collections.unmodifiableMap(decodeItems());
+            _items = new SoftReference<Map<String, Item>>(items);
+        }
+        return items;
+    }
+
+    @Override
+    public int getItemCount(String blueprintId) {
+        Item item = getAll().get(blueprintId);
+        return item != null ? item.getCount() : 0;
+    }
+
+    private Map<String, Item> decodeItems() {
+        Map<String, Item> items = new LinkedHashMap<String, Item>();
+
+        Reader reader = new Reader(_bytes, 1);
+        reader.readVarLong();
+        reader.readByte();
+        long namedItems = reader.readVarLong();
+        for (long i = 0; i < namedItems; i++) {
+            String itemId = reader.readString();
+            items.put(itemId, Item.createItem(itemId, (int) reader.readVarLong()));
+        }
+        long cards = reader.readVarLong();
+        long cardKey = 0;
+        for (long i = 0; i < cards; i++) {
+            cardKey += reader.readVarLong();
+            String blueprintId = CollectionSerializer.toBlueprintId(cardKey);
+            items.put(blueprintId, Item.createItem(blueprintId, (int) reader.readVarLong()));
+        }
+
+        while (reader.hasMore()) {
+            reader.readVarLong();
+            reader.readByte();
+            long changes = reader.readVarLong();
+            for (long i = 0; i < changes; i++) {
+                String itemId = reader.readItemId();
+                int delta = (int) CollectionSerializer.fromZigZag(reader.readVarLong());
+                Item oldItem = items.get(itemId);
+                int count = (oldItem != null ? oldItem.getCount() : 0) + delta;
+                if (count > 0)
+                    items.put(itemId, Item.createItem(itemId, count));
+                else
+                    items.remove(itemId);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Reads the version 3 primitives from the serialized bytes without copying them.
+     */
+    private static class Reader {
+        private final byte[] _bytes;
+        private int _position;
+
+        private Reader(byte[] bytes, int position) {
+            _bytes = bytes;
+            _position = position;
+        }
+
+        private boolean hasMore() {
+            return _position < _bytes.length;
+        }
+
+        private int readByte() {
+            if (_position >= _bytes.length)
+                throw new IllegalStateException("Under-read the collection information");
+            return _bytes[_position++] & 0xff;
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            int shift = 0;
+            int value;
+            do {
+                value = readByte();
+                result |= (long) (value & 0x7f) << shift;
+                shift += 7;
+            } while ((value & 0x80) != 0);
+            return result;
+        }
+
+        private String readString() {
+            int length = (int) readVarLong();
+            if (_position + length > _bytes.length)
+                throw new IllegalStateException("Under-read the collection information");
+            String result = new String(_bytes, _position, length, StandardCharsets.UTF_8);
+            _position += length;
+            return result;
+        }
+
+        private void skipString() {
+            int length = (int) readVarLong();
+            _position += length;
+        }
+
+        private String readItemId() {
+            long itemKey = readVarLong();
+            if (itemKey == CollectionSerializer.NAMED_ITEM_KEY)
+                return readString();
+            return CollectionSerializer.toBlueprintId(itemKey >>> 1);
+        }
+
+        private void skipItemId() {
+            if (readVarLong() == CollectionSerializer.NAMED_ITEM_KEY)
+                skipString();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.gempukku.swccgo.collection;
 
 import com.gempukku.swccgo.game.CardCollection;
 
+import java.util.Collection;
 import java.util.Map;
 
 public interface TransferDAO {
@@ -9,5 +10,9 @@ public interface TransferDAO {
     Map<String, ? extends CardCollection> consumeUndeliveredPackages(String player);
 
     void addTransferTo(boolean notifyPlayer, String player, String reason, String collectionName, int currency, CardCollection items);
+    /**
+     * Records the same transfer to several players in one batch.
+     */
+    void addTransfersTo(boolean notifyPlayer, Collection<String> players, String reason, String collectionName, int currency, CardCollection items);
     void addTransferFrom(String player, String reason, String collectionName, int currency, CardCollection items);
 }
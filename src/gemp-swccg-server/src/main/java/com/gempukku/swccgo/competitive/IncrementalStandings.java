@@ -0,0 +1,163 @@
+package com.gempukku.swccgo.competitive;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the standings of a league, league series or tournament up to date as match results come in, instead of
+ * recomputing them from every match result each time they are needed.
+ *
+ * Each player keeps a running total of their opponents' wins and games, so a match result only touches the two
+ * players in the match and their previous opponents. After each change a new immutable snapshot is published, so
+ * readers never need to take a lock. The produced standings are the same as from StandingsProducer.
+ */
+public class IncrementalStandings {
+    private final int _pointsForWin;
+    private final int _pointsForLoss;
+    private final Map<String, PlayerRecord> _records = new HashMap<>();
+
+    private volatile StandingsSnapshot _snapshot;
+
+    /**
+     * Creates standings from the existing participants, match results and byes.
+     * @param participants the participants
+     * @param matches the match results so far
+     * @param pointsForWin the points awarded for a win (or a bye)
+     * @param pointsForLoss the points awarded for a loss
+     * @param playersWithByes the number of byes each player received
+     */
+    public IncrementalStandings(Collection<String> participants, Collection<? extends CompetitiveMatchResult> matches,
+                                int pointsForWin, int pointsForLoss, Map<String, Integer> playersWithByes) {
+        _pointsForWin = pointsForWin;
+        _pointsForLoss = pointsForLoss;
+
+        for (String participant : participants)
+            getRecord(participant);
+        for (CompetitiveMatchResult match : matches)
+            applyMatchResult(match.getWinner(), match.getLoser());
+        for (Map.Entry<String, Integer> playerByes : playersWithByes.entrySet()) {
+            PlayerRecord record = _records.get(playerByes.getKey());
+            if (record != null)
+                record._byes = playerByes.getValue();
+        }
+
+        publishSnapshot(0);
+    }
+
+    /**
+     * Adds a participant that has not played any matches yet.
+     * @param playerName the player
+     */
+    public synchronized void addParticipant(String playerName) {
+        if (!_records.containsKey(playerName)) {
+            getRecord(playerName);
+            publishSnapshot(_snapshot.getVersion() + 1);
+        }
+    }
+
+    /**
+     * Applies the result of a single match to the standings.
+     * @param winner the winner
+     * @param loser the loser
+     */
+    public synchronized void addMatchResult(String winner, String loser) {
+        applyMatchResult(winner, loser);
+        publishSnapshot(_snapshot.getVersion() + 1);
+    }
+
+    /**
+     * Sets the number of byes the player has received.
+     * @param playerName the player
+     * @param byes the number of byes
+     */
+    public synchronized void setByes(String playerName, int byes) {
+        getRecord(playerName)._byes = byes;
+        publishSnapshot(_snapshot.getVersion() + 1);
+    }
+
+    /**
+     * Gets the latest published standings. This does not lock.
+     * @return the standings snapshot
+     */
+    public StandingsSnapshot getSnapshot() {
+        return _snapshot;
+    }
+
+    /**
+     * Gets the latest published standings, sorted by standing. This does not lock.
+     * @return the standings
+     */
+    public List<PlayerStanding> getStandings() {
+        return _snapshot.getStandings();
+    }
+
+    private PlayerRecord getRecord(String playerName) {
+        PlayerRecord record = _records.get(playerName);
+        if (record == null) {
+            record = new PlayerRecord();
+            _records.put(playerName, record);
+        }
+        return record;
+    }
+
+    private void applyMatchResult(String winner, String loser) {
+        PlayerRecord winnerRecord = getRecord(winner);
+        PlayerRecord loserRecord = getRecord(loser);
+
+        // Each becomes an opponent of the other, bringing along the record they have so far
+        winnerRecord.addOpponent(loser, loserRecord);
+        loserRecord.addOpponent(winner, winnerRecord);
+
+        // Then the new result is passed on to everyone that has played them, including each other
+        winnerRecord._wins++;
+        for (Map.Entry<String, Integer> opponent : winnerRecord._opponents.entrySet()) {
+            PlayerRecord opponentRecord = _records.get(opponent.getKey());
+            opponentRecord._opponentWins += opponent.getValue();
+            opponentRecord._opponentGames += opponent.getValue();
+        }
+        loserRecord._losses++;
+        for (Map.Entry<String, Integer> opponent : loserRecord._opponents.entrySet()) {
+            _records.get(opponent.getKey())._opponentGames += opponent.getValue();
+        }
+    }
+
+    private void publishSnapshot(long version) {
+        List<PlayerStanding> standings = new ArrayList<>(_records.size());
+        for (Map.Entry<String, PlayerRecord> recordEntry : _records.entrySet()) {
+            PlayerRecord record = recordEntry.getValue();
+            int points = (record._wins + record._byes) * _pointsForWin + record._losses * _pointsForLoss;
+            int gamesPlayed = record._wins + record._losses + record._byes;
+
+            PlayerStanding standing = new PlayerStanding(recordEntry.getKey(), points, gamesPlayed);
+            if (record._opponentGames != 0)
+                standing.setOpponentWin(record._opponentWins * 1f / record._opponentGames);
+            else
+                standing.setOpponentWin(0f);
+            standings.add(standing);
+        }
+
+        StandingsProducer.sortAndRank(standings);
+        _snapshot = new StandingsSnapshot(version, Collections.unmodifiableList(standings));
+    }
+
+    private static class PlayerRecord {
+        private int _wins;
+        private int _losses;
+        private int _byes;
+        private int _opponentWins;
+        private int _opponentGames;
+        // Opponent name to the number of times they were played
+        private final Map<String, Integer> _opponents = new HashMap<>();
+
+        private void addOpponent(String opponentName, PlayerRecord opponentRecord) {
+            Integer timesPlayed = _opponents.get(opponentName);
+            _opponents.put(opponentName, timesPlayed == null ? 1 : timesPlayed + 1);
+            _opponentWins += opponentRecord._wins;
+            _opponentGames += opponentRecord._wins + opponentRecord._losses;
+        }
+    }
+}
@@ -71,20 +71,29 @@ public class StandingsProducer {
             leagueStandings.add(standing);
         }
 
-        Collections.sort(leagueStandings, LEAGUE_STANDING_COMPARATOR);
+        sortAndRank(leagueStandings);
+        return leagueStandings;
+
+    }
+
+    /**
+     * Sorts the standings by points, games played and opponents win percentage, and assigns each its standing.
+     * Players that are tied on all of those share the same standing.
+     * @param standings the standings to sort
+     */
+    static void sortAndRank(List<PlayerStanding> standings) {
+        Collections.sort(standings, LEAGUE_STANDING_COMPARATOR);
 
         int standing = 0;
         int position = 1;
         PlayerStanding lastStanding = null;
-        for (PlayerStanding leagueStanding : leagueStandings) {
+        for (PlayerStanding leagueStanding : standings) {
             if (lastStanding == null || LEAGUE_STANDING_COMPARATOR.compare(leagueStanding, lastStanding) != 0)
                 standing = position;
             leagueStanding.setStanding(standing);
             position++;
             lastStanding = leagueStanding;
         }
-        return leagueStandings;
-
     }
 
     private static class PointsComparator implements Comparator<PlayerStanding> {
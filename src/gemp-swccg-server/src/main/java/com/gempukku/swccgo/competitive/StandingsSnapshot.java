@@ -0,0 +1,28 @@
+package com.gempukku.swccgo.competitive;
+
+import java.util.List;
+
+/**
+ * An immutable, versioned view of standings, as published by IncrementalStandings.
+ */
+public class StandingsSnapshot {
+    private final long _version;
+    private final List<PlayerStanding> _standings;
+
+    public StandingsSnapshot(long version, List<PlayerStanding> standings) {
+        _version = version;
+        _standings = standings;
+    }
+
+    /**
+     * Gets the version of the standings, which increases by one with each change applied.
+     * @return the version
+     */
+    public long getVersion() {
+        return _version;
+    }
+
+    public List<PlayerStanding> getStandings() {
+        return _standings;
+    }
+}
@@ -31,6 +31,11 @@ public class CachedMerchantDAO implements MerchantDAO, Cached {
         _blueprintIdLastTransaction.remove(blueprintId);
     }
 
+    @Override
+    public void flushTransactions() {
+        _delegate.flushTransactions();
+    }
+
     @Override
     public Transaction getLastTransaction(String blueprintId) {
         Transaction transaction = (Transaction) _blueprintIdLastTransaction.get(blueprintId);
@@ -9,22 +9,31 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 /**
- * A cached player database access object to help avoid unnecessary data access.
+ * A cached player database access object to help avoid unnecessary data access. Besides the players, the names that
+ * were looked up and have no player (not even a deactivated one) are cached, so repeated logins and lookups with
+ * unknown names do not reach the database. A name is looked up and cached as unknown while holding the lock of the
+ * name that registering the name holds, so a name registered during the lookup is not left cached as unknown.
  */
 public class CachedPlayerDAO implements PlayerDAO, Cached {
-    private final PlayerDAO _delegate;
+    private final DbPlayerDAO _delegate;
     private final Map<Integer, Player> _playerById = Collections.synchronizedMap(new LRUMap(500));
     private final Map<String, Player> _playerByName = Collections.synchronizedMap(new LRUMap(500));
     private final Map<String, List<String>> _similarAccountsByName = Collections.synchronizedMap(new LRUMap(500));
+    private final Set<String> _unknownPlayerNames = Collections.newSetFromMap(Collections.synchronizedMap(new LRUMap(5000)));
+    private final PlayerAuthenticationMetrics _metrics;
 
     /**
      * Creates a cached player database access object.
      * @param delegate the player database access object
+     * @param metrics the metrics to record the logins and registrations to
      */
-    public CachedPlayerDAO(PlayerDAO delegate) {
+    public CachedPlayerDAO(DbPlayerDAO delegate, PlayerAuthenticationMetrics metrics) {
         _delegate = delegate;
+        _metrics = metrics;
     }
 
     @Override
@@ -32,11 +41,12 @@ public class CachedPlayerDAO implements PlayerDAO, Cached {
         _playerById.clear();
         _playerByName.clear();
         _similarAccountsByName.clear();
+        _unknownPlayerNames.clear();
     }
 
     @Override
     public int getItemCount() {
-        return _playerById.size() + _playerByName.size() + _similarAccountsByName.size();
+        return _playerById.size() + _playerByName.size() + _similarAccountsByName.size() + _unknownPlayerNames.size();
     }
 
     @Override
@@ -61,7 +71,11 @@ public class CachedPlayerDAO implements PlayerDAO, Cached {
     public Player getPlayer(String playerName, boolean includeDeactivated) {
         Player player = _playerByName.get(playerName);
         if (player == null) {
-            player = _delegate.getPlayer(playerName, includeDeactivated);
+            if (_unknownPlayerNames.contains(playerName)) {
+                _metrics.recordUnknownNameHit();
+                return null;
+            }
+            player = includeDeactivated ? getPlayerOrCacheUnknownName(playerName) : _delegate.getPlayer(playerName, false);
             if (player != null) {
                 _playerById.put(player.getId(), player);
                 _playerByName.put(player.getName(), player);
@@ -76,21 +90,42 @@ public class CachedPlayerDAO implements PlayerDAO, Cached {
 
     @Override
     public boolean registerPlayer(String playerName, String password, String remoteAddr) throws SQLException, LoginInvalidException, RegisterNotAllowedException {
-        boolean registered = _delegate.registerPlayer(playerName, password, remoteAddr);
-        if (registered) {
-            removePlayerFromCacheByName(playerName);
+        long start = System.nanoTime();
+        try {
+            // The name is registered under the name lock, so a lookup that missed the player cached the name as
+            // unknown before the player was added, and the name is removed here
+            boolean registered = _delegate.registerPlayer(playerName, password, remoteAddr);
+            if (registered) {
+                _unknownPlayerNames.remove(playerName);
+                removePlayerFromCacheByName(playerName);
+            }
+            return registered;
+        } finally {
+            _metrics.recordRegister(System.nanoTime() - start);
         }
-        return registered;
     }
 
     @Override
     public Player loginPlayer(String playerName, String password) throws SQLException {
-        Player player = _delegate.loginPlayer(playerName, password);
-        if (player != null) {
-            _playerById.put(player.getId(), player);
-            _playerByName.put(player.getName(), player);
+        long start = System.nanoTime();
+        Player player = null;
+        try {
+            if (_unknownPlayerNames.contains(playerName)) {
+                _metrics.recordUnknownNameHit();
+                return null;
+            }
+            player = _delegate.loginPlayer(playerName, password);
+            if (player != null) {
+                _playerById.put(player.getId(), player);
+                _playerByName.put(player.getName(), player);
+            } else if (!_playerByName.containsKey(playerName)) {
+                // Tells apart an unknown name from a wrong password, so the next attempts with the name are not looked up
+                getPlayer(playerName, true);
+            }
+            return player;
+        } finally {
+            _metrics.recordLogin(System.nanoTime() - start, player != null);
         }
-        return player;
     }
 
     @Override
@@ -182,6 +217,29 @@ public class CachedPlayerDAO implements PlayerDAO, Cached {
         return Collections.unmodifiableList(similarAccounts);
     }
 
+    /**
+     * Gets a player by name, including deactivated players, and caches the name as unknown if there is no player with
+     * the name. The lookup is done while holding the lock of the name, so it cannot miss a player registered before
+     * the name is cached as unknown.
+     * @param playerName the player name
+     * @return the player, or null if no player found
+     */
+    private Player getPlayerOrCacheUnknownName(String playerName) {
+        Lock lock = _delegate.lockName(playerName);
+        try {
+            if (_unknownPlayerNames.contains(playerName)) {
+                _metrics.recordUnknownNameHit();
+                return null;
+            }
+            Player player = _delegate.getPlayer(playerName, true);
+            if (player == null)
+                _unknownPlayerNames.add(playerName);
+            return player;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Removes a player from the cache by player name and clears the similar accounts cache.
      * @param playerName the player name
@@ -4,6 +4,7 @@ import com.gempukku.swccgo.game.CardCollection;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Map;
 
 public interface CollectionDAO {
@@ -11,5 +12,33 @@ public interface CollectionDAO {
 
     public CardCollection getPlayerCollection(int playerId, String type) throws SQLException, IOException;
 
+    /**
+     * Gets the collections of several players in one query.
+     * @param type the collection type
+     * @param playerIds the player ids
+     * @return the collections, by player id, without the players that have no collection of the type
+     */
+    public Map<Integer, CardCollection> getPlayerCollections(String type, Collection<Integer> playerIds) throws SQLException, IOException;
+
     public void setPlayerCollection(int playerId, String type, CardCollection collection) throws SQLException, IOException;
+
+    /**
+     * Stores the player collection, given the collection that is currently stored, so only the changes need to be
+     * written. The changes are only written if the stored collection was not changed since, that is if it still has
+     * the specified length, otherwise the whole collection is written.
+     * @param playerId the player id
+     * @param type the collection type
+     * @param oldCollection the collection currently stored, or null if not known
+     * @param storedLength the serialized length of the stored collection, or -1 if not known
+     * @param collection the collection to store
+     * @return the serialized length of the stored collection, or -1 if not known
+     */
+    public int updatePlayerCollection(int playerId, String type, CardCollection oldCollection, int storedLength, CardCollection collection) throws SQLException, IOException;
+
+    /**
+     * Stores the collections of several players together, so either all of them are stored or none is.
+     * @param type the collection type
+     * @param collections the collections, by player id
+     */
+    public void setPlayerCollections(String type, Map<Integer, CardCollection> collections) throws SQLException, IOException;
 }
@@ -5,12 +5,14 @@ import org.apache.commons.dbcp2.*;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 /**
  * The database access class.
  */
 public class DbAccess {
     private DataSource _dataSource;
+    private final DbMetrics _metrics = new DbMetrics(Long.parseLong(ApplicationConfiguration.getProperty("db.slowQueryMillis")));
 
     /**
      * Creates the database access class.
@@ -33,6 +35,14 @@ public class DbAccess {
         return _dataSource;
     }
 
+    /**
+     * Gets the metrics of the connection pool and of the queries run through the data source.
+     * @return the metrics
+     */
+    public DbMetrics getMetrics() {
+        return _metrics;
+    }
+
     /**
      * Sets up the data source.
      * @param connectURI the connection URI
@@ -59,6 +69,9 @@ public class DbAccess {
         poolableConnectionFactory.setDefaultAutoCommit(true);
         poolableConnectionFactory.setDefaultReadOnly(false);
         poolableConnectionFactory.setValidationQuery(ApplicationConfiguration.getProperty("db.connection.validateQuery"));
+        // The statements the DAOs prepare are kept open on each connection and reused the next time they are prepared
+        poolableConnectionFactory.setPoolStatements(true);
+        poolableConnectionFactory.setMaxOpenPreparedStatements(getIntProperty("db.pool.maxOpenPreparedStatements"));
 
         //
         // Now we'll need a ObjectPool that serves as the
@@ -68,7 +81,17 @@ public class DbAccess {
         // any ObjectPool implementation will suffice.
         //
         var connectionPool = new GenericObjectPool<>(poolableConnectionFactory);
-        connectionPool.setTestOnBorrow(true);
+        connectionPool.setMaxTotal(getIntProperty("db.pool.maxTotal"));
+        connectionPool.setMaxIdle(getIntProperty("db.pool.maxIdle"));
+        connectionPool.setMinIdle(getIntProperty("db.pool.minIdle"));
+        connectionPool.setMaxWait(Duration.ofMillis(getIntProperty("db.pool.maxWaitMillis")));
+
+        // Rather than a round trip to validate every connection that is borrowed, the idle connections are all
+        // validated in the background, often enough to find the ones the database closed before they are borrowed
+        connectionPool.setTestOnBorrow(false);
+        connectionPool.setTestWhileIdle(true);
+        connectionPool.setNumTestsPerEvictionRun(-1);
+        connectionPool.setTimeBetweenEvictionRuns(Duration.ofSeconds(getIntProperty("db.pool.validationIntervalSeconds")));
 
         // Set the factory's pool property to the owning pool
         poolableConnectionFactory.setPool(connectionPool);
@@ -78,6 +101,11 @@ public class DbAccess {
         // passing in the object pool we created.
         //
 
-        return new PoolingDataSource<>(connectionPool);
+        _metrics.setConnectionPool(connectionPool);
+        return new InstrumentedDataSource(new PoolingDataSource<>(connectionPool), _metrics);
+    }
+
+    private static int getIntProperty(String name) {
+        return Integer.parseInt(ApplicationConfiguration.getProperty(name));
     }
 }
@@ -3,15 +3,21 @@ package com.gempukku.swccgo.db;
 import com.gempukku.swccgo.collection.CollectionSerializer;
 import com.gempukku.swccgo.game.CardCollection;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class DbCollectionDAO implements CollectionDAO {
+    // Change records are appended until the stored collection grows past about twice the size of a fresh snapshot
+    private static final int COMPACTION_BASE_BYTES = 256;
+    private static final int COMPACTION_BYTES_PER_ITEM = 8;
+
     private DbAccess _dbAccess;
     private CollectionSerializer _collectionSerializer;
 
@@ -31,8 +37,39 @@ public class DbCollectionDAO implements CollectionDAO {
                     Map<Integer, CardCollection> playerCollections = new HashMap<Integer, CardCollection>();
                     while (rs.next()) {
                         int playerId = rs.getInt(1);
-                        Blob blob = rs.getBlob(2);
-                        playerCollections.put(playerId, extractCollectionAndClose(blob));
+                        playerCollections.put(playerId, _collectionSerializer.readCollection(rs.getBytes(2)));
+                    }
+                    return playerCollections;
+                } finally {
+                    rs.close();
+                }
+            } finally {
+                statement.close();
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    public Map<Integer, CardCollection> getPlayerCollections(String type, Collection<Integer> playerIds) throws SQLException, IOException {
+        Map<Integer, CardCollection> playerCollections = new HashMap<Integer, CardCollection>();
+        if (playerIds.isEmpty())
+            return playerCollections;
+
+        Connection connection = _dbAccess.getDataSource().getConnection();
+        try {
+            PreparedStatement statement = connection.prepareStatement("select player_id, collection from collection where type=? and player_id in ("
+                    + String.join(",", Collections.nCopies(playerIds.size(), "?")) + ")");
+            try {
+                statement.setString(1, type);
+                int index = 2;
+                for (Integer playerId : playerIds)
+                    statement.setInt(index++, playerId);
+                ResultSet rs = statement.executeQuery();
+                try {
+                    while (rs.next()) {
+                        int playerId = rs.getInt(1);
+                        playerCollections.put(playerId, _collectionSerializer.readCollection(rs.getBytes(2)));
                     }
                     return playerCollections;
                 } finally {
@@ -56,8 +93,7 @@ public class DbCollectionDAO implements CollectionDAO {
                 ResultSet rs = statement.executeQuery();
                 try {
                     if (rs.next()) {
-                        Blob blob = rs.getBlob(1);
-                        return extractCollectionAndClose(blob);
+                        return _collectionSerializer.readCollection(rs.getBytes(1));
                     } else {
                         return null;
                     }
@@ -72,44 +108,126 @@ public class DbCollectionDAO implements CollectionDAO {
         }
     }
 
-    private CardCollection extractCollectionAndClose(Blob blob) throws SQLException, IOException {
+    public void setPlayerCollection(int playerId, String type, CardCollection collection) throws SQLException, IOException {
+        writePlayerCollection(playerId, type, collection);
+    }
+
+    private int writePlayerCollection(int playerId, String type, CardCollection collection) throws SQLException, IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        _collectionSerializer.serializeCollection(collection, baos);
+        byte[] bytes = baos.toByteArray();
+
+        Connection connection = _dbAccess.getDataSource().getConnection();
         try {
-            InputStream inputStream = blob.getBinaryStream();
+            if (executeUpdate(connection, "update collection set collection=? where player_id=? and type=?", bytes, playerId, type) == 0)
+                executeUpdate(connection, "insert into collection (collection, player_id, type) values (?, ?, ?)", bytes, playerId, type);
+        } finally {
+            connection.close();
+        }
+        return bytes.length;
+    }
+
+    public void setPlayerCollections(String type, Map<Integer, CardCollection> collections) throws SQLException, IOException {
+        List<Integer> playerIds = new ArrayList<Integer>(collections.keySet());
+        List<byte[]> serialized = new ArrayList<byte[]>();
+        for (Integer playerId : playerIds) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            _collectionSerializer.serializeCollection(collections.get(playerId), baos);
+            serialized.add(baos.toByteArray());
+        }
+
+        Connection connection = _dbAccess.getDataSource().getConnection();
+        try {
+            connection.setAutoCommit(false);
             try {
-                return _collectionSerializer.deserializeCollection(inputStream);
+                int[] updateCounts = executeBatch(connection, "update collection set collection=? where player_id=? and type=?", playerIds, serialized, type, null);
+                // A driver may not tell which rows were updated, so the rows are only inserted if they still do not exist
+                executeBatch(connection, "insert into collection (collection, player_id, type) select ?, ?, ? from dual "
+                        + "where not exists (select 1 from collection where player_id=? and type=?)", playerIds, serialized, type, updateCounts);
+                connection.commit();
+            } catch (SQLException exp) {
+                connection.rollback();
+                throw exp;
             } finally {
-                inputStream.close();
+                connection.setAutoCommit(true);
             }
         } finally {
-            blob.free();
+            connection.close();
         }
     }
 
-    public void setPlayerCollection(int playerId, String type, CardCollection collection) throws SQLException, IOException {
-        CardCollection oldCollection = getPlayerCollection(playerId, type);
+    public int updatePlayerCollection(int playerId, String type, CardCollection oldCollection, int storedLength, CardCollection collection) throws SQLException, IOException {
+        if (oldCollection == null || storedLength < 0)
+            return writePlayerCollection(playerId, type, collection);
 
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        if (!_collectionSerializer.serializeCollectionChanges(oldCollection, collection, baos))
+            return storedLength;
+        byte[] changes = baos.toByteArray();
+        int maxLength = COMPACTION_BASE_BYTES + COMPACTION_BYTES_PER_ITEM * collection.getAll().size();
+
+        // The changes can only be appended to the stored collection they were computed from (still the same length),
+        // stored in version 3 format and still under the limit, otherwise the whole collection is written as a new
+        // snapshot
         Connection connection = _dbAccess.getDataSource().getConnection();
         try {
-            String sql;
-            if (oldCollection == null)
-                sql = "insert into collection (collection, player_id, type) values (?, ?, ?)";
-            else
-                sql = "update collection set collection=? where player_id=? and type=?";
-
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = connection.prepareStatement("update collection set collection=concat(collection, ?) where player_id=? and type=? and ascii(collection)=3 and length(collection)=? and length(collection)+?<=?");
             try {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                _collectionSerializer.serializeCollection(collection, baos);
-
-                statement.setBlob(1, new ByteArrayInputStream(baos.toByteArray()));
+                statement.setBytes(1, changes);
                 statement.setInt(2, playerId);
                 statement.setString(3, type);
-                statement.execute();
+                statement.setInt(4, storedLength);
+                statement.setInt(5, changes.length);
+                statement.setInt(6, maxLength);
+                if (statement.executeUpdate() > 0)
+                    return storedLength + changes.length;
             } finally {
                 statement.close();
             }
         } finally {
             connection.close();
         }
+        return writePlayerCollection(playerId, type, collection);
+    }
+
+    /**
+     * Executes a statement in a batch for each player.
+     * @param skipIfUpdated the update counts of a previous batch, to skip the players whose rows were updated, or null.
+     *                      The statement is given the player id and type again as the 4th and 5th parameters.
+     * @return the update counts
+     */
+    private int[] executeBatch(Connection connection, String sql, List<Integer> playerIds, List<byte[]> serialized, String type, int[] skipIfUpdated) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        try {
+            boolean added = false;
+            for (int i = 0; i < playerIds.size(); i++) {
+                if (skipIfUpdated != null && skipIfUpdated[i] > 0)
+                    continue;
+                statement.setBytes(1, serialized.get(i));
+                statement.setInt(2, playerIds.get(i));
+                statement.setString(3, type);
+                if (skipIfUpdated != null) {
+                    statement.setInt(4, playerIds.get(i));
+                    statement.setString(5, type);
+                }
+                statement.addBatch();
+                added = true;
+            }
+            return added ? statement.executeBatch() : new int[0];
+        } finally {
+            statement.close();
+        }
+    }
+
+    private int executeUpdate(Connection connection, String sql, byte[] bytes, int playerId, String type) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        try {
+            statement.setBytes(1, bytes);
+            statement.setInt(2, playerId);
+            statement.setString(3, type);
+            return statement.executeUpdate();
+        } finally {
+            statement.close();
+        }
     }
 }
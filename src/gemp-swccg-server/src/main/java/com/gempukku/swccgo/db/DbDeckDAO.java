@@ -1,23 +1,39 @@
 package com.gempukku.swccgo.db;
 
+import com.gempukku.swccgo.game.DeckArchetypes;
 import com.gempukku.swccgo.game.Player;
 import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
 import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class DbDeckDAO implements DeckDAO {
+    private static final Logger LOG = LogManager.getLogger(DbDeckDAO.class);
+
+    // Stored as the archetype of decks with no archetype label, so they are not classified again
+    private static final String NO_ARCHETYPE_LABEL = "";
+
     private DbAccess _dbAccess;
     private SwccgCardBlueprintLibrary _library;
+    // Whether the deck table has the archetype column added by deck_archetype_upgrade.sql
+    private final boolean _hasArchetypeColumn;
 
     public DbDeckDAO(DbAccess dbAccess, SwccgCardBlueprintLibrary library) {
         _dbAccess = dbAccess;
         _library = library;
+        _hasArchetypeColumn = hasArchetypeColumn();
+        if (!_hasArchetypeColumn)
+            LOG.warn("The deck table has no archetype column, run deck_archetype_upgrade.sql to store deck archetype labels");
     }
 
     public synchronized SwccgDeck getDeckForPlayer(Player player, String name) {
@@ -80,14 +96,21 @@ public class DbDeckDAO implements DeckDAO {
         try {
             Connection connection = _dbAccess.getDataSource().getConnection();
             try {
-                PreparedStatement statement = connection.prepareStatement("select contents from deck where player_id=? and name=?");
+                String archetypeColumn = _hasArchetypeColumn ? "archetype" : "null";
+                PreparedStatement statement = connection.prepareStatement("select contents, " + archetypeColumn + " from deck where player_id=? and name=?");
                 try {
                     statement.setInt(1, playerId);
                     statement.setString(2, name);
                     ResultSet rs = statement.executeQuery();
                     try {
-                        if (rs.next())
-                            return buildDeckFromContents(name, rs.getString(1));
+                        if (rs.next()) {
+                            SwccgDeck deck = buildDeckFromContents(name, rs.getString(1));
+                            String archetypeLabel = rs.getString(2);
+                            if (archetypeLabel == null)
+                                archetypeLabel = DeckArchetypes.getDeckLabel(deck, _library);
+                            deck.setArchetypeLabel(NO_ARCHETYPE_LABEL.equals(archetypeLabel) ? null : archetypeLabel);
+                            return deck;
+                        }
 
                         return null;
                     } finally {
@@ -105,13 +128,71 @@ public class DbDeckDAO implements DeckDAO {
         }
     }
 
+    /**
+     * Stores the archetype label of each deck stored without one, like the decks saved before archetype labels were
+     * stored with the decks.
+     * @param batchSize the number of decks read and updated at a time
+     * @return the number of decks updated
+     */
+    public synchronized int storeMissingArchetypeLabels(int batchSize) {
+        try {
+            int result = 0;
+            Connection connection = _dbAccess.getDataSource().getConnection();
+            try {
+                if (!_hasArchetypeColumn)
+                    return 0;
+                while (true) {
+                    List<Integer> ids = new ArrayList<Integer>();
+                    List<String> archetypeLabels = new ArrayList<String>();
+                    PreparedStatement statement = connection.prepareStatement("select id, name, contents from deck where archetype is null limit ?");
+                    try {
+                        statement.setInt(1, batchSize);
+                        ResultSet rs = statement.executeQuery();
+                        try {
+                            while (rs.next()) {
+                                String archetypeLabel = DeckArchetypes.getDeckLabel(buildDeckFromContents(rs.getString(2), rs.getString(3)), _library);
+                                ids.add(rs.getInt(1));
+                                archetypeLabels.add(archetypeLabel != null ? archetypeLabel : NO_ARCHETYPE_LABEL);
+                            }
+                        } finally {
+                            rs.close();
+                        }
+                    } finally {
+                        statement.close();
+                    }
+                    if (ids.isEmpty())
+                        return result;
+
+                    PreparedStatement updateStatement = connection.prepareStatement("update deck set archetype=? where id=?");
+                    try {
+                        for (int i = 0; i < ids.size(); i++) {
+                            updateStatement.setString(1, archetypeLabels.get(i));
+                            updateStatement.setInt(2, ids.get(i));
+                            updateStatement.addBatch();
+                        }
+                        updateStatement.executeBatch();
+                    } finally {
+                        updateStatement.close();
+                    }
+                    result += ids.size();
+                }
+            } finally {
+                connection.close();
+            }
+        } catch (SQLException exp) {
+            throw new RuntimeException("Unable to store deck archetypes to DB", exp);
+        }
+    }
+
     private void storeDeckToDB(int playerId, String name, SwccgDeck deck, boolean newDeck) {
         String contents = DeckSerialization.buildContentsFromDeck(deck);
+        deck.setArchetypeLabel(DeckArchetypes.getDeckLabel(deck, _library));
+        String archetype = deck.getArchetypeLabel() != null ? deck.getArchetypeLabel() : NO_ARCHETYPE_LABEL;
         try {
             if (newDeck)
-                storeDeckInDB(playerId, name, contents);
+                storeDeckInDB(playerId, name, contents, archetype);
             else
-                updateDeckInDB(playerId, name, contents);
+                updateDeckInDB(playerId, name, contents, archetype);
         } catch (SQLException exp) {
             throw new RuntimeException("Unable to store player deck to DB", exp);
         }
@@ -137,14 +218,18 @@ public class DbDeckDAO implements DeckDAO {
         }
     }
 
-    private void storeDeckInDB(int playerId, String name, String contents) throws SQLException {
+    private void storeDeckInDB(int playerId, String name, String contents, String archetype) throws SQLException {
         Connection connection = _dbAccess.getDataSource().getConnection();
         try {
-            PreparedStatement statement = connection.prepareStatement("insert into deck (player_id, name, contents) values (?, ?, ?)");
+            PreparedStatement statement = connection.prepareStatement(_hasArchetypeColumn
+                    ? "insert into deck (player_id, name, contents, archetype) values (?, ?, ?, ?)"
+                    : "insert into deck (player_id, name, contents) values (?, ?, ?)");
             try {
                 statement.setInt(1, playerId);
                 statement.setString(2, name);
                 statement.setString(3, contents);
+                if (_hasArchetypeColumn)
+                    statement.setString(4, archetype);
                 statement.execute();
             } finally {
                 statement.close();
@@ -154,14 +239,19 @@ public class DbDeckDAO implements DeckDAO {
         }
     }
 
-    private void updateDeckInDB(int playerId, String name, String contents) throws SQLException {
+    private void updateDeckInDB(int playerId, String name, String contents, String archetype) throws SQLException {
         Connection connection = _dbAccess.getDataSource().getConnection();
         try {
-            PreparedStatement statement = connection.prepareStatement("update deck set contents=? where player_id=? and name=?");
+            PreparedStatement statement = connection.prepareStatement(_hasArchetypeColumn
+                    ? "update deck set contents=?, archetype=? where player_id=? and name=?"
+                    : "update deck set contents=? where player_id=? and name=?");
             try {
-                statement.setString(1, contents);
-                statement.setInt(2, playerId);
-                statement.setString(3, name);
+                int index = 1;
+                statement.setString(index++, contents);
+                if (_hasArchetypeColumn)
+                    statement.setString(index++, archetype);
+                statement.setInt(index++, playerId);
+                statement.setString(index, name);
                 statement.execute();
             } finally {
                 statement.close();
@@ -170,4 +260,28 @@ public class DbDeckDAO implements DeckDAO {
             connection.close();
         }
     }
+
+    /**
+     * Checks whether the deck table has the archetype column. If it does not, the decks are stored without archetype
+     * labels and are classified each time they are loaded.
+     * @return true if the deck table has the archetype column
+     */
+    private boolean hasArchetypeColumn() {
+        try {
+            Connection connection = _dbAccess.getDataSource().getConnection();
+            try {
+                DatabaseMetaData metaData = connection.getMetaData();
+                ResultSet rs = metaData.getColumns(connection.getCatalog(), null, "deck", "archetype");
+                try {
+                    return rs.next();
+                } finally {
+                    rs.close();
+                }
+            } finally {
+                connection.close();
+            }
+        } catch (SQLException exp) {
+            throw new RuntimeException("Unable to read the deck table columns from DB", exp);
+        }
+    }
 }
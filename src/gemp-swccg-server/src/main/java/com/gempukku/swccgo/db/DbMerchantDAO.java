@@ -1,83 +1,117 @@
 package com.gempukku.swccgo.db;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Stores the last transaction and the buy and sell counts of each card the merchant traded. Transactions are not
+ * written when they happen, but are combined per card in memory and written in a single batch at regular intervals,
+ * so buying and selling never waits on the database.
+ */
 public class DbMerchantDAO implements MerchantDAO {
+    private static final Logger LOG = LogManager.getLogger(DbMerchantDAO.class);
+
     private DbAccess _dbAccess;
+    private final Map<String, PendingTransaction> _pendingTransactions = new ConcurrentHashMap<String, PendingTransaction>();
+    private final ScheduledExecutorService _executor;
 
-    public DbMerchantDAO(DbAccess dbAccess) {
+    /**
+     * Creates the merchant DAO.
+     * @param dbAccess the database access
+     * @param flushIntervalSeconds the seconds between writes of the buffered transactions
+     */
+    public DbMerchantDAO(DbAccess dbAccess, int flushIntervalSeconds) {
         _dbAccess = dbAccess;
+        _executor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "merchant-transaction-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        _executor.scheduleWithFixedDelay(this::writePendingTransactions, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
     }
 
     @Override
     public void addTransaction(String blueprintId, float price, Date date, TransactionType transactionType) {
-        final Transaction lastTransaction = getLastTransaction(blueprintId);
-        if (lastTransaction == null) {
-            insertTransaction(blueprintId, price, date, transactionType);
-        } else {
-            updateTransaction(blueprintId, price, date, transactionType);
-        }
+        _pendingTransactions.merge(blueprintId, new PendingTransaction(price, date, transactionType), PendingTransaction::followedBy);
     }
 
-    private void updateTransaction(String blueprintId, float price, Date date, TransactionType transactionType) {
+    @Override
+    public void flushTransactions() {
         try {
-            Connection connection = _dbAccess.getDataSource().getConnection();
-            try {
-                String sql;
-                if (transactionType == TransactionType.BUY)
-                    sql = "update merchant_data set transaction_price=?, transaction_date=?, transaction_type=?, buy_count=buy_count+1 where blueprint_id=?";
-                else
-                    sql = "update merchant_data set transaction_price=?, transaction_date=?, transaction_type=?, sell_count=sell_count+1 where blueprint_id=?";
+            _executor.submit(this::writePendingTransactions).get();
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+        } catch (Exception exp) {
+            LOG.error("Unable to write the merchant transactions", exp);
+        }
+    }
 
-                PreparedStatement statement = connection.prepareStatement(sql);
-                try {
-                    statement.setFloat(1, price);
-                    statement.setTimestamp(2, new Timestamp(date.getTime()));
-                    statement.setString(3, transactionType.name());
-                    statement.setString(4, blueprintId);
-                    statement.executeUpdate();
-                } finally {
-                    statement.close();
-                }
-            } finally {
-                connection.close();
+    private void writePendingTransactions() {
+        List<String> blueprintIds = new ArrayList<String>();
+        List<PendingTransaction> transactions = new ArrayList<PendingTransaction>();
+        for (String blueprintId : _pendingTransactions.keySet()) {
+            PendingTransaction transaction = _pendingTransactions.remove(blueprintId);
+            if (transaction != null) {
+                blueprintIds.add(blueprintId);
+                transactions.add(transaction);
             }
-        } catch (SQLException exp) {
-            throw new RuntimeException("Unable to update last transaction from DB", exp);
         }
-    }
+        if (blueprintIds.isEmpty())
+            return;
 
-    private void insertTransaction(String blueprintId, float price, Date date, TransactionType transactionType) {
         try {
-            Connection connection = _dbAccess.getDataSource().getConnection();
-            try {
-                String sql;
-                if (transactionType == TransactionType.BUY)
-                    sql = "insert into merchant_data (transaction_price, transaction_date, transaction_type, blueprint_id, sell_count, buy_count) values (?,?,?,?,0,1)";
-                else
-                    sql = "insert into merchant_data (transaction_price, transaction_date, transaction_type, blueprint_id, sell_count, buy_count) values (?,?,?,?,1,0)";
+            insertOrUpdateTransactions(blueprintIds, transactions);
+        } catch (SQLException exp) {
+            LOG.error("Unable to write " + blueprintIds.size() + " merchant transactions, retrying on the next write", exp);
+            // Transactions added since are later than the ones that failed to be written
+            for (int i = 0; i < blueprintIds.size(); i++)
+                _pendingTransactions.merge(blueprintIds.get(i), transactions.get(i), (later, failed) -> failed.followedBy(later));
+        }
+    }
 
-                PreparedStatement statement = connection.prepareStatement(sql);
-                try {
-                    statement.setFloat(1, price);
-                    statement.setTimestamp(2, new Timestamp(date.getTime()));
-                    statement.setString(3, transactionType.name());
-                    statement.setString(4, blueprintId);
-                    statement.execute();
-                } finally {
-                    statement.close();
-                }
-            } finally {
-                connection.close();
+    private void insertOrUpdateTransactions(List<String> blueprintIds, List<PendingTransaction> transactions) throws SQLException {
+        try (Connection connection = _dbAccess.getDataSource().getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "insert into merchant_data (transaction_price, transaction_date, transaction_type, blueprint_id, sell_count, buy_count) values (?,?,?,?,?,?) "
+                             + "on duplicate key update transaction_price=values(transaction_price), transaction_date=values(transaction_date), "
+                             + "transaction_type=values(transaction_type), sell_count=sell_count+values(sell_count), buy_count=buy_count+values(buy_count)")) {
+            for (int i = 0; i < blueprintIds.size(); i++) {
+                PendingTransaction transaction = transactions.get(i);
+                statement.setFloat(1, transaction._price);
+                statement.setTimestamp(2, new Timestamp(transaction._date.getTime()));
+                statement.setString(3, transaction._transactionType.name());
+                statement.setString(4, blueprintIds.get(i));
+                statement.setInt(5, transaction._sellCount);
+                statement.setInt(6, transaction._buyCount);
+                statement.addBatch();
             }
-        } catch (SQLException exp) {
-            throw new RuntimeException("Unable to insert last transaction from DB", exp);
+            statement.executeBatch();
         }
     }
 
     @Override
     public Transaction getLastTransaction(String blueprintId) {
+        Transaction transaction = getStoredTransaction(blueprintId);
+        PendingTransaction pendingTransaction = _pendingTransactions.get(blueprintId);
+        if (pendingTransaction == null)
+            return transaction;
+
+        int stock = (transaction != null ? transaction.getStock() : 0) + pendingTransaction._buyCount - pendingTransaction._sellCount;
+        return new Transaction(pendingTransaction._date, pendingTransaction._price, pendingTransaction._transactionType, stock);
+    }
+
+    private Transaction getStoredTransaction(String blueprintId) {
         try {
             Connection connection = _dbAccess.getDataSource().getConnection();
             try {
@@ -109,4 +143,31 @@ public class DbMerchantDAO implements MerchantDAO {
             throw new RuntimeException("Unable to get last transaction from DB", exp);
         }
     }
+
+    /**
+     * The transactions of a card that are not written yet, combined into the last transaction and the counts.
+     */
+    private static class PendingTransaction {
+        private final float _price;
+        private final Date _date;
+        private final TransactionType _transactionType;
+        private final int _buyCount;
+        private final int _sellCount;
+
+        private PendingTransaction(float price, Date date, TransactionType transactionType) {
+            this(price, date, transactionType, transactionType == TransactionType.BUY ? 1 : 0, transactionType == TransactionType.SELL ? 1 : 0);
+        }
+
+        private PendingTransaction(float price, Date date, TransactionType transactionType, int buyCount, int sellCount) {
+            _price = price;
+            _date = date;
+            _transactionType = transactionType;
+            _buyCount = buyCount;
+            _sellCount = sellCount;
+        }
+
+        private PendingTransaction followedBy(PendingTransaction later) {
+            return new PendingTransaction(later._price, later._date, later._transactionType, _buyCount + later._buyCount, _sellCount + later._sellCount);
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package com.gempukku.swccgo.db;
+
+import com.gempukku.util.ConcurrentHistogram;
+import com.gempukku.util.PrometheusSummary;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the metrics of the database connection pool and of the queries run by each DAO method, and logs the queries
+ * that take longer than a threshold with the fingerprint of their SQL. The time spent waiting for a connection is
+ * kept apart from the time the queries take, so a starved pool can be told apart from slow queries. The metrics can
+ * be written in the Prometheus text format.
+ */
+public class DbMetrics {
+    private static final Logger LOG = LogManager.getLogger(DbMetrics.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern VALUE_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private final long _slowQueryNanos;
+    private final ConcurrentHistogram _connectionWaitNanos = new ConcurrentHistogram();
+    private final LongAdder _connectionWaitTimeouts = new LongAdder();
+    private final LongAdder _slowQueries = new LongAdder();
+    private final Map<String, ConcurrentHistogram> _queryNanos = new ConcurrentHashMap<String, ConcurrentHistogram>();
+    private volatile GenericObjectPool<?> _connectionPool;
+
+    /**
+     * Creates the metrics.
+     * @param slowQueryMillis the milliseconds a query must take to be logged
+     */
+    public DbMetrics(long slowQueryMillis) {
+        _slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+    }
+
+    /**
+     * Sets the connection pool whose size and usage are included in the metrics.
+     * @param connectionPool the connection pool
+     */
+    void setConnectionPool(GenericObjectPool<?> connectionPool) {
+        _connectionPool = connectionPool;
+    }
+
+    /**
+     * Records the time spent getting a connection from the pool, including the attempts that failed.
+     * @param nanos the time waited, in nanoseconds
+     */
+    public void recordConnectionWait(long nanos) {
+        _connectionWaitNanos.record(nanos);
+    }
+
+    /**
+     * Records an attempt to get a connection that gave up because the pool had none to give.
+     */
+    public void recordConnectionWaitTimeout() {
+        _connectionWaitTimeouts.increment();
+    }
+
+    /**
+     * Records a query, and logs it if it was slow.
+     * @param daoMethod the DAO method running the query, like DbDeckDAO.getDeck
+     * @param sql the SQL of the query
+     * @param nanos the time the query took, in nanoseconds
+     */
+    public void recordQuery(String daoMethod, String sql, long nanos) {
+        ConcurrentHistogram histogram = _queryNanos.get(daoMethod);
+        if (histogram == null)
+            histogram = _queryNanos.computeIfAbsent(daoMethod, method -> new ConcurrentHistogram());
+        histogram.record(nanos);
+
+        if (nanos >= _slowQueryNanos) {
+            _slowQueries.increment();
+            String fingerprint = getFingerprint(sql);
+            LOG.warn("Slow query " + getFingerprintId(fingerprint) + " in " + daoMethod + " took " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms: " + fingerprint);
+        }
+    }
+
+    /**
+     * Gets the fingerprint of the SQL, which is the same for all the queries that only differ in their values: the
+     * literals are replaced by ?, lists of values are shortened to (...), and the whitespace is normalized.
+     * @param sql the SQL
+     * @return the fingerprint
+     */
+    public static String getFingerprint(String sql) {
+        String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = WHITESPACE.matcher(result).replaceAll(" ");
+        result = VALUE_LIST.matcher(result).replaceAll("(...)");
+        return result.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets a short id of the fingerprint, to find all the logged queries with the same fingerprint.
+     * @param fingerprint the fingerprint
+     * @return the id
+     */
+    public static String getFingerprintId(String fingerprint) {
+        return String.format(Locale.ROOT, "%08x", fingerprint.hashCode());
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format.
+     * @param writer the writer
+     * @throws IOException if writing fails
+     */
+    public void writePrometheusText(Writer writer) throws IOException {
+        GenericObjectPool<?> connectionPool = _connectionPool;
+        if (connectionPool != null) {
+            writer.write("# HELP gemp_db_pool_connections Connections in the database connection pool, by state.\n");
+            writer.write("# TYPE gemp_db_pool_connections gauge\n");
+            writer.write("gemp_db_pool_connections{state=\"active\"} " + connectionPool.getNumActive() + "\n");
+            writer.write("gemp_db_pool_connections{state=\"idle\"} " + connectionPool.getNumIdle() + "\n");
+
+            writer.write("# HELP gemp_db_pool_max_connections Most connections the database connection pool opens.\n");
+            writer.write("# TYPE gemp_db_pool_max_connections gauge\n");
+            writer.write("gemp_db_pool_max_connections " + connectionPool.getMaxTotal() + "\n");
+
+            writer.write("# HELP gemp_db_pool_waiters Threads waiting for a connection from the pool.\n");
+            writer.write("# TYPE gemp_db_pool_waiters gauge\n");
+            writer.write("gemp_db_pool_waiters " + connectionPool.getNumWaiters() + "\n");
+
+            writer.write("# HELP gemp_db_pool_connections_created_total Connections opened by the pool.\n");
+            writer.write("# TYPE gemp_db_pool_connections_created_total counter\n");
+            writer.write("gemp_db_pool_connections_created_total " + connectionPool.getCreatedCount() + "\n");
+
+            writer.write("# HELP gemp_db_pool_connections_destroyed_total Connections closed by the pool, including the ones that failed validation.\n");
+            writer.write("# TYPE gemp_db_pool_connections_destroyed_total counter\n");
+            writer.write("gemp_db_pool_connections_destroyed_total " + connectionPool.getDestroyedCount() + "\n");
+        }
+
+        writer.write("# HELP gemp_db_connection_wait_timeouts_total Attempts to get a connection that gave up waiting for the pool.\n");
+        writer.write("# TYPE gemp_db_connection_wait_timeouts_total counter\n");
+        writer.write("gemp_db_connection_wait_timeouts_total " + _connectionWaitTimeouts.sum() + "\n");
+
+        writer.write("# HELP gemp_db_slow_queries_total Queries that took longer than the slow query threshold.\n");
+        writer.write("# TYPE gemp_db_slow_queries_total counter\n");
+        writer.write("gemp_db_slow_queries_total " + _slowQueries.sum() + "\n");
+
+        PrometheusSummary.write(writer, "gemp_db_connection_wait_seconds", "Time spent getting a connection from the pool.",
+                _connectionWaitNanos, PrometheusSummary.NANOS_PER_SECOND);
+
+        PrometheusSummary.writeHeader(writer, "gemp_db_query_seconds", "Time taken by the queries, by DAO method.");
+        for (Map.Entry<String, ConcurrentHistogram> queryNanos : new TreeMap<String, ConcurrentHistogram>(_queryNanos).entrySet())
+            PrometheusSummary.writeValues(writer, "gemp_db_query_seconds", "method=\"" + PrometheusSummary.escapeLabel(queryNanos.getKey()) + "\"",
+                    queryNanos.getValue(), PrometheusSummary.NANOS_PER_SECOND);
+    }
+}
@@ -1,6 +1,7 @@
 package com.gempukku.swccgo.db;
 
 import com.gempukku.swccgo.game.Player;
+import com.google.common.util.concurrent.Striped;
 import com.mysql.cj.util.StringUtils;
 
 import java.nio.charset.StandardCharsets;
@@ -10,21 +11,32 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.locks.Lock;
 
 /**
  * A player database access object that accesses the database.
+ *
+ * Logins are not serialized at all. Changes that read a player before updating it (like registering a name or
+ * changing the flags of a player) are serialized per player name, and passwords are hashed before taking the lock.
  */
 public class DbPlayerDAO implements PlayerDAO {
+    private static final int NAME_LOCK_STRIPES = 64;
+
     private final String _selectPlayer = "select id, name, password, type, last_login_reward, banned_until, create_ip, last_ip from player";
     private final String _notDeactivated = " and not type like '%" + Player.Type.DEACTIVATED + "%'";
+    // Player names are compared case sensitively (utf8_bin), so the names are locked as given
+    private final Striped<Lock> _nameLocks = Striped.lock(NAME_LOCK_STRIPES);
     private DbAccess _dbAccess;
+    private PlayerAuthenticationMetrics _metrics;
 
     /**
      * Creates a player data access object that access the database.
      * @param dbAccess the database access
+     * @param metrics the metrics to record the time spent waiting for player name locks to
      */
-    public DbPlayerDAO(DbAccess dbAccess) {
+    public DbPlayerDAO(DbAccess dbAccess, PlayerAuthenticationMetrics metrics) {
         _dbAccess = dbAccess;
+        _metrics = metrics;
     }
 
     @Override
@@ -51,47 +63,54 @@ public class DbPlayerDAO implements PlayerDAO {
     }
 
     @Override
-    public synchronized boolean registerPlayer(String playerName, String password, String remoteAddr) throws SQLException, LoginInvalidException, RegisterNotAllowedException {
+    public boolean registerPlayer(String playerName, String password, String remoteAddr) throws SQLException, LoginInvalidException, RegisterNotAllowedException {
+        final String encodedPassword = encodePassword(password);
+
+        Lock lock = lockName(playerName);
+        try {
+            Player player = getPlayer(playerName);
+            if(player != null && StringUtils.isNullOrEmpty(player.getPassword())) {
+                //This player has had their password reset and just needs to get it re-defined.
+
+                try (Connection conn = _dbAccess.getDataSource().getConnection()) {
+                    try (PreparedStatement statement = conn.prepareStatement(
+                            "UPDATE player SET password=? WHERE name=?")) {
+                        statement.setString(1, encodedPassword);
+                        statement.setString(2, playerName);
+                        statement.executeUpdate();
+                        return true;
+                    }
+                }
+            }
 
-        Player player = getPlayer(playerName);
-        if(player != null && StringUtils.isNullOrEmpty(player.getPassword())) {
-            //This player has had their password reset and just needs to get it re-defined.
+            if (!validateNewUser(playerName)) {
+                return false;
+            }
 
             try (Connection conn = _dbAccess.getDataSource().getConnection()) {
                 try (PreparedStatement statement = conn.prepareStatement(
-                        "UPDATE player SET password=? WHERE name=?")) {
-                    statement.setString(1, encodePassword(password));
-                    statement.setString(2, playerName);
-                    statement.executeUpdate();
+                        "INSERT INTO player (name, password, type, create_ip) VALUES (?, ?, ?, ?)")) {
+                    statement.setString(1, playerName);
+                    statement.setString(2, encodedPassword);
+                    statement.setString(3, Player.Type.UNBANNED.getValue());
+                    statement.setString(4, remoteAddr);
+                    statement.execute();
                     return true;
                 }
             }
-        }
-
-        if (!validateNewUser(playerName)) {
-            return false;
-        }
-
-        try (Connection conn = _dbAccess.getDataSource().getConnection()) {
-            try (PreparedStatement statement = conn.prepareStatement(
-                    "INSERT INTO player (name, password, type, create_ip) VALUES (?, ?, ?, ?)")) {
-                statement.setString(1, playerName);
-                statement.setString(2, encodePassword(password));
-                statement.setString(3, Player.Type.UNBANNED.getValue());
-                statement.setString(4, remoteAddr);
-                statement.execute();
-                return true;
-            }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
-    public synchronized Player loginPlayer(String playerName, String password) throws SQLException {
+    public Player loginPlayer(String playerName, String password) throws SQLException {
+        final String encodedPassword = encodePassword(password);
         try (Connection conn = _dbAccess.getDataSource().getConnection()) {
             try (PreparedStatement statement1 = conn.prepareStatement(
                     _selectPlayer + " WHERE name=? AND (password='' OR password=?)" + _notDeactivated)) {
                 statement1.setString(1, playerName);
-                statement1.setString(2, encodePassword(password));
+                statement1.setString(2, encodedPassword);
                 try (ResultSet rs = statement1.executeQuery()) {
                     if (rs.next()) {
                         return getPlayerFromResultSet(rs);
@@ -103,7 +122,7 @@ public class DbPlayerDAO implements PlayerDAO {
     }
 
     @Override
-    public synchronized boolean updateLastLoginIp(String playerName, String remoteAddr) throws SQLException {
+    public boolean updateLastLoginIp(String playerName, String remoteAddr) throws SQLException {
         try (Connection conn = _dbAccess.getDataSource().getConnection()) {
             try (PreparedStatement statement = conn.prepareStatement("update player set last_ip=? where name=?")) {
                 statement.setString(1, remoteAddr);
@@ -114,7 +133,7 @@ public class DbPlayerDAO implements PlayerDAO {
     }
 
     @Override
-    public synchronized boolean updateLastReward(Player player, Integer previousReward, int currentReward) throws SQLException {
+    public boolean updateLastReward(Player player, Integer previousReward, int currentReward) throws SQLException {
         try (Connection conn = _dbAccess.getDataSource().getConnection()) {
             try (PreparedStatement statement = conn.prepareStatement(
                     "update player set last_login_reward=? where id=?" + (previousReward != null ? " and last_login_reward=?" : ""))) {
@@ -133,18 +152,22 @@ public class DbPlayerDAO implements PlayerDAO {
     }
 
     @Override
-    public synchronized boolean resetUserPassword(String playerName) throws SQLException {
+    public boolean resetUserPassword(String playerName) throws SQLException {
+        Lock lock = lockName(playerName);
         try (Connection conn = _dbAccess.getDataSource().getConnection()) {
             try (PreparedStatement statement = conn.prepareStatement("UPDATE player SET password='' WHERE name=?")) {
                 statement.setString(1, playerName);
                 return statement.executeUpdate() == 1;
             }
+        } finally {
+            lock.unlock();
         }
     }
 
 
     @Override
-    public synchronized boolean setPlayerFlag(String playerName, Player.Type flag, boolean status) throws SQLException {
+    public boolean setPlayerFlag(String playerName, Player.Type flag, boolean status) throws SQLException {
+        Lock lock = lockName(playerName);
         try (Connection conn = _dbAccess.getDataSource().getConnection()) {
             final Player player = getPlayerFromDBByName(playerName, true);
             if (player == null) {
@@ -166,6 +189,8 @@ public class DbPlayerDAO implements PlayerDAO {
                 statement.setInt(2, player.getId());
                 return statement.executeUpdate() == 1;
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -191,6 +216,7 @@ public class DbPlayerDAO implements PlayerDAO {
 
     @Override
     public boolean banPlayerPermanently(String playerName) throws SQLException {
+        Lock lock = lockName(playerName);
         try (Connection conn = _dbAccess.getDataSource().getConnection()) {
             final Player player = getPlayerFromDBByName(playerName, true);
             if (player == null) {
@@ -207,11 +233,14 @@ public class DbPlayerDAO implements PlayerDAO {
                 statement.setInt(2, player.getId());
                 return statement.executeUpdate() == 1;
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public boolean banPlayerTemporarily(String playerName, long dateTo) throws SQLException {
+        Lock lock = lockName(playerName);
         try (Connection conn = _dbAccess.getDataSource().getConnection()) {
             final Player player = getPlayerFromDBByName(playerName, true);
             if (player == null) {
@@ -229,13 +258,15 @@ public class DbPlayerDAO implements PlayerDAO {
                 statement.setInt(3, player.getId());
                 return statement.executeUpdate() == 1;
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public boolean unBanPlayer(String playerName) throws SQLException {
-        Connection conn = _dbAccess.getDataSource().getConnection();
-        try {
+        Lock lock = lockName(playerName);
+        try (Connection conn = _dbAccess.getDataSource().getConnection()) {
             final Player player = getPlayerFromDBByName(playerName, true);
             if (player == null) {
                 return false;
@@ -252,7 +283,7 @@ public class DbPlayerDAO implements PlayerDAO {
                 return statement.executeUpdate() == 1;
             }
         } finally {
-            conn.close();
+            lock.unlock();
         }
     }
 
@@ -417,6 +448,20 @@ public class DbPlayerDAO implements PlayerDAO {
         return true;
     }
 
+    /**
+     * Takes the lock of a player name, which registering the name and the changes that read the player before updating
+     * it hold.
+     * @param playerName the player name
+     * @return the lock taken, to be unlocked by the caller
+     */
+    public Lock lockName(String playerName) {
+        Lock lock = _nameLocks.get(playerName);
+        long start = System.nanoTime();
+        lock.lock();
+        _metrics.recordNameLockWait(System.nanoTime() - start);
+        return lock;
+    }
+
     /**
      * Encodes the password using SHA-256 hash.
      * @param password the password
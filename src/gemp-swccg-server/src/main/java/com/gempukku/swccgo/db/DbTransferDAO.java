@@ -8,6 +8,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -78,6 +79,41 @@ public class DbTransferDAO implements TransferDAO {
         }
     }
 
+    @Override
+    public void addTransfersTo(boolean notifyPlayer, Collection<String> players, String reason, String collectionName, int currency, CardCollection items) {
+        if ((currency > 0 || items.getAll().size() > 0) && !players.isEmpty()) {
+            try {
+                Connection connection = _dbAccess.getDataSource().getConnection();
+                try {
+                    String sql = "insert into transfer (notify, player, reason, name, currency, collection, transfer_date, direction) values (?, ?, ?, ?, ?, ?, ?, 'to')";
+
+                    PreparedStatement statement = connection.prepareStatement(sql);
+                    try {
+                        String serializedItems = serializeCollection(items);
+                        long transferDate = System.currentTimeMillis();
+                        for (String player : players) {
+                            statement.setInt(1, notifyPlayer ? 1 : 0);
+                            statement.setString(2, player);
+                            statement.setString(3, reason);
+                            statement.setString(4, collectionName);
+                            statement.setInt(5, currency);
+                            statement.setString(6, serializedItems);
+                            statement.setLong(7, transferDate);
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                    } finally {
+                        statement.close();
+                    }
+                } finally {
+                    connection.close();
+                }
+            } catch (SQLException exp) {
+                throw new RuntimeException("Unable to add transfers to", exp);
+            }
+        }
+    }
+
     @Override
     public boolean hasUndeliveredPackages(String player) {
         try {
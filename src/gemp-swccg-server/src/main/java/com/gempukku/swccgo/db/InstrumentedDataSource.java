@@ -0,0 +1,146 @@
+package com.gempukku.swccgo.db;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.NoSuchElementException;
+import java.util.logging.Logger;
+
+/**
+ * A data source that records in the database metrics how long getting each connection takes, and how long each
+ * statement run on the connections takes, under the DAO method that prepared or ran the statement.
+ */
+class InstrumentedDataSource implements DataSource {
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String PACKAGE_PREFIX = "com.gempukku.swccgo.";
+
+    private final DataSource _delegate;
+    private final DbMetrics _metrics;
+
+    InstrumentedDataSource(DataSource delegate, DbMetrics metrics) {
+        _delegate = delegate;
+        _metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return wrapConnection(_delegate.getConnection());
+        } catch (SQLException exp) {
+            // The pool gives up with this cause once it waited the longest it is allowed to for a connection
+            if (exp.getCause() instanceof NoSuchElementException)
+                _metrics.recordConnectionWaitTimeout();
+            throw exp;
+        } finally {
+            _metrics.recordConnectionWait(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(_delegate.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement && method.getName().equals("prepareStatement"))
+                        return wrapStatement(PreparedStatement.class, (PreparedStatement) result, (String) args[0]);
+                    if (result instanceof Statement && method.getName().equals("createStatement"))
+                        return wrapStatement(Statement.class, (Statement) result, null);
+                    return result;
+                });
+    }
+
+    private <T extends Statement> T wrapStatement(Class<T> statementClass, T statement, String preparedSql) {
+        // A statement is run by the method that prepared it
+        String daoMethod = getCallingMethod();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute"))
+                return invoke(statement, method, args);
+
+            String sql = preparedSql != null ? preparedSql : (args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : "");
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                _metrics.recordQuery(daoMethod, sql, System.nanoTime() - start);
+            }
+        };
+        return statementClass.cast(Proxy.newProxyInstance(statementClass.getClassLoader(), new Class<?>[] {statementClass}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exp) {
+            throw exp.getCause();
+        }
+    }
+
+    /**
+     * Gets the first method up the stack outside of this class, like DbDeckDAO.getDeck, with the methods of lambdas
+     * named after the method they are in.
+     */
+    private static String getCallingMethod() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(PACKAGE_PREFIX) && !frame.getClassName().startsWith(InstrumentedDataSource.class.getName()))
+                .findFirst()
+                .map(frame -> {
+                    String className = frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1);
+                    int nestedClass = className.indexOf('$');
+                    if (nestedClass >= 0)
+                        className = className.substring(0, nestedClass);
+                    String methodName = frame.getMethodName();
+                    if (methodName.startsWith("lambda$"))
+                        methodName = methodName.split("\\$")[1];
+                    return className + "." + methodName;
+                })
+                .orElse("unknown"));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return _delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        _delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        _delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return _delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return _delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return _delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return _delegate.isWrapperFor(iface);
+    }
+}
@@ -7,6 +7,11 @@ public interface MerchantDAO {
 
     public void addTransaction(String blueprintId, float price, Date date, TransactionType transactionType);
 
+    /**
+     * Writes the transactions that were added, but not written yet.
+     */
+    public void flushTransactions();
+
     public enum TransactionType {
         SELL, BUY
     }
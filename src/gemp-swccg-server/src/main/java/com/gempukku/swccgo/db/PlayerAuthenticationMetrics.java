@@ -0,0 +1,77 @@
+package com.gempukku.swccgo.db;
+
+import com.gempukku.util.ConcurrentHistogram;
+import com.gempukku.util.PrometheusSummary;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the latency and outcome metrics of the player logins and registrations, and of the time spent waiting for
+ * the lock on a player name. The metrics can be written in the Prometheus text format.
+ */
+public class PlayerAuthenticationMetrics {
+    private final ConcurrentHistogram _loginNanos = new ConcurrentHistogram();
+    private final ConcurrentHistogram _registerNanos = new ConcurrentHistogram();
+    private final ConcurrentHistogram _nameLockWaitNanos = new ConcurrentHistogram();
+    private final LongAdder _loginsSucceeded = new LongAdder();
+    private final LongAdder _loginsFailed = new LongAdder();
+    private final LongAdder _unknownNameHits = new LongAdder();
+
+    /**
+     * Records a login attempt.
+     * @param nanos the time the login took, in nanoseconds
+     * @param succeeded true if the player was logged in
+     */
+    public void recordLogin(long nanos, boolean succeeded) {
+        _loginNanos.record(nanos);
+        if (succeeded)
+            _loginsSucceeded.increment();
+        else
+            _loginsFailed.increment();
+    }
+
+    /**
+     * Records a registration attempt, including the ones that failed.
+     * @param nanos the time the registration took, in nanoseconds
+     */
+    public void recordRegister(long nanos) {
+        _registerNanos.record(nanos);
+    }
+
+    /**
+     * Records the time spent waiting for the lock on a player name.
+     * @param nanos the time waited, in nanoseconds
+     */
+    public void recordNameLockWait(long nanos) {
+        _nameLockWaitNanos.record(nanos);
+    }
+
+    /**
+     * Records a lookup answered from the cached names that have no player.
+     */
+    public void recordUnknownNameHit() {
+        _unknownNameHits.increment();
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format.
+     * @param writer the writer
+     * @throws IOException if writing fails
+     */
+    public void writePrometheusText(Writer writer) throws IOException {
+        writer.write("# HELP gemp_player_logins_total Player login attempts, by result.\n");
+        writer.write("# TYPE gemp_player_logins_total counter\n");
+        writer.write("gemp_player_logins_total{result=\"success\"} " + _loginsSucceeded.sum() + "\n");
+        writer.write("gemp_player_logins_total{result=\"failure\"} " + _loginsFailed.sum() + "\n");
+
+        writer.write("# HELP gemp_player_unknown_name_hits_total Player lookups answered from the cached names with no player.\n");
+        writer.write("# TYPE gemp_player_unknown_name_hits_total counter\n");
+        writer.write("gemp_player_unknown_name_hits_total " + _unknownNameHits.sum() + "\n");
+
+        PrometheusSummary.write(writer, "gemp_player_login_seconds", "Time taken by player logins.", _loginNanos, PrometheusSummary.NANOS_PER_SECOND);
+        PrometheusSummary.write(writer, "gemp_player_register_seconds", "Time taken by player registrations.", _registerNanos, PrometheusSummary.NANOS_PER_SECOND);
+        PrometheusSummary.write(writer, "gemp_player_name_lock_wait_seconds", "Time spent waiting for the lock on a player name.", _nameLockWaitNanos, PrometheusSummary.NANOS_PER_SECOND);
+    }
+}
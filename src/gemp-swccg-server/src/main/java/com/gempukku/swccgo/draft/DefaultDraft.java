@@ -11,42 +11,87 @@ import com.gempukku.swccgo.packagedProduct.PackagedProductStorage;
 import com.gempukku.swccgo.tournament.TournamentCallback;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-// TODO - it has to be thread safe
+/**
+ * A draft, where the players pick cards from packs passed around the table. A round of picks is advanced as soon as
+ * the last player picks, and a timer shared by all drafts forces a random pick for the players that did not pick in
+ * time. The packs stay where they are, and are passed by moving the position each player picks from.
+ *
+ * The state of the draft is guarded by the draft itself, so the picks and the timer can come from any thread.
+ */
 public class DefaultDraft implements Draft {
     // 35 seconds
     public static final int PICK_TIME = 35 * 1000;
 
+    private static final ScheduledExecutorService _pickTimer = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "draft-pick-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     private CollectionsManager _collectionsManager;
     private CollectionType _collectionType;
     private PackagedProductStorage _packagedProductStorage;
     private DraftPack _draftPack;
     private List<String> _players;
+    private Map<String, Integer> _playerPositions = new HashMap<String, Integer>();
+    private final long _pickTime;
 
-    private List<MutableCardCollection> _cardChoices = new ArrayList<MutableCardCollection>();
-    private Map<String, MutableCardCollection> _cardChoice = new HashMap<String, MutableCardCollection>();
+    private MutableCardCollection[] _packs = new MutableCardCollection[0];
+    private boolean[] _playerPicked;
+    private int _picksLeft;
+    private int _cardsLeft;
 
     private int _playerCount;
 
     private long _lastPickStart;
+    private ScheduledFuture<?> _pickTimeout;
 
     private int _nextPickNumber = 0;
+    // Only ever increases, unlike the pick number which starts over with each pack
+    private int _roundNumber = 0;
+    private int _pickOffset;
     private int _nextPackIndex = 0;
 
-    private boolean _finishedDraft;
+    private boolean _started;
+    private volatile boolean _finishedDraft;
 
-    private Map<String, DraftCommunicationChannel> _playerDraftCommunications = new HashMap<String, DraftCommunicationChannel>();
-    private int _nextChannelNumber = 0;
+    private Map<String, DraftCommunicationChannel> _playerDraftCommunications = new ConcurrentHashMap<String, DraftCommunicationChannel>();
+    private AtomicInteger _nextChannelNumber = new AtomicInteger();
 
     public DefaultDraft(CollectionsManager collectionsManager, CollectionType collectionType, PackagedProductStorage packagedProductStorage, DraftPack draftPack, Set<String> players) {
+        this(collectionsManager, collectionType, packagedProductStorage, draftPack, players, PICK_TIME);
+    }
+
+    /**
+     * Creates a draft.
+     * @param collectionsManager the collections manager
+     * @param collectionType the collection type the picked cards are added to
+     * @param packagedProductStorage the packaged product storage
+     * @param draftPack the fixed collection and the packs of the draft
+     * @param players the players
+     * @param pickTime the time each player has for a pick, in milliseconds
+     */
+    public DefaultDraft(CollectionsManager collectionsManager, CollectionType collectionType, PackagedProductStorage packagedProductStorage, DraftPack draftPack, Set<String> players, long pickTime) {
         _collectionsManager = collectionsManager;
         _collectionType = collectionType;
         _packagedProductStorage = packagedProductStorage;
         _draftPack = draftPack;
         _players = new ArrayList(players);
         Collections.shuffle(_players);
-        
+        _pickTime = pickTime;
+
         _playerCount = _players.size();
+        for (int i = 0; i < _playerCount; i++)
+            _playerPositions.put(_players.get(i), i);
+        _playerPicked = new boolean[_playerCount];
 
         CardCollection fixedCollection = _draftPack.getFixedCollection();
         for (String player : _players)
@@ -54,36 +99,33 @@ public class DefaultDraft implements Draft {
     }
 
     @Override
-    public void advanceDraft(TournamentCallback draftCallback) {
-        if (haveAllPlayersPicked()) {
-            if (haveAllCardsBeenChosen()) {
-                if (haveMorePacks()) {
-                    openNextPacks();
-                } else {
-                    _finishedDraft = true;
-                }
-            } else {
-                presentNewCardChoices();
-            }
-            for (DraftCommunicationChannel draftCommunicationChannel : _playerDraftCommunications.values())
-                draftCommunicationChannel.draftChanged();
-        } else {
-            if (choiceTimePassed()) {
-                forceRandomCardChoice();
-                for (DraftCommunicationChannel draftCommunicationChannel : _playerDraftCommunications.values())
-                    draftCommunicationChannel.draftChanged();
-            }
+    public synchronized void advanceDraft(TournamentCallback draftCallback) {
+        // The rounds are advanced by the picks and the pick timer, this only starts the draft (and is a safety net
+        // in case the timer did not run)
+        if (!_started) {
+            _started = true;
+            advanceRounds();
+        } else if (!_finishedDraft && choiceTimePassed()) {
+            forceRandomCardChoice();
+            advanceRounds();
         }
     }
 
     @Override
-    public void playerChosenCard(String playerName, String cardId) {
-        playerChosen(playerName, cardId);
-        _playerDraftCommunications.get(playerName).draftChanged();
+    public synchronized void playerChosenCard(String playerName, String cardId) {
+        if (playerChosen(playerName, cardId)) {
+            if (_picksLeft == 0) {
+                advanceRounds();
+            } else {
+                DraftCommunicationChannel draftCommunicationChannel = _playerDraftCommunications.get(playerName);
+                if (draftCommunicationChannel != null)
+                    draftCommunicationChannel.draftChanged();
+            }
+        }
     }
 
     public void signUpForDraft(String playerName, DraftChannelVisitor draftChannelVisitor) {
-        DraftCommunicationChannel draftCommunicationChannel = new DraftCommunicationChannel(_nextChannelNumber++);
+        DraftCommunicationChannel draftCommunicationChannel = new DraftCommunicationChannel(_nextChannelNumber.getAndIncrement());
         _playerDraftCommunications.put(playerName, draftCommunicationChannel);
         draftCommunicationChannel.processCommunicationChannel(getCardChoice(playerName), getChosenCards(playerName), draftChannelVisitor);
     }
@@ -101,10 +143,11 @@ public class DefaultDraft implements Draft {
         }
     }
 
-    public DraftCardChoice getCardChoice(String playerName) {
-        MutableCardCollection cardChoice = _cardChoice.get(playerName);
+    public synchronized DraftCardChoice getCardChoice(String playerName) {
+        // A copy of the pack is given out, as the pack is changed by the picks
+        MutableCardCollection cardChoice = getPackToPickFrom(playerName);
 
-        return new DefaultDraftCardChoice(cardChoice, _lastPickStart + PICK_TIME);
+        return new DefaultDraftCardChoice(cardChoice != null ? new DefaultCardCollection(cardChoice) : null, _lastPickStart + _pickTime);
     }
 
     @Override
@@ -117,61 +160,113 @@ public class DefaultDraft implements Draft {
         return _finishedDraft;
     }
 
-    private void forceRandomCardChoice() {
-        Map<String, MutableCardCollection> cardChoiceCopy = new HashMap<String, MutableCardCollection>(_cardChoice);
+    private MutableCardCollection getPackToPickFrom(String playerName) {
+        Integer position = _playerPositions.get(playerName);
+        if (position == null || _playerPicked[position] || _finishedDraft)
+            return null;
+        return _packs[(position + _pickOffset) % _playerCount];
+    }
 
-        for (Map.Entry<String, MutableCardCollection> playerChoices : cardChoiceCopy.entrySet()) {
-            String playerName = playerChoices.getKey();
-            MutableCardCollection collection = playerChoices.getValue();
-            String cardId = collection.getAll().entrySet().iterator().next().getKey();
-            playerChosen(playerName, cardId);
+    synchronized void pickTimeExpired(int roundNumber) {
+        // The round may have been finished by the last pick while the timer was firing
+        if (_finishedDraft || roundNumber != _roundNumber)
+            return;
+        forceRandomCardChoice();
+        advanceRounds();
+    }
+
+    private void forceRandomCardChoice() {
+        for (int i = 0; i < _playerCount; i++) {
+            if (!_playerPicked[i]) {
+                String playerName = _players.get(i);
+                String cardId = getPackToPickFrom(playerName).getAll().keySet().iterator().next();
+                playerChosen(playerName, cardId);
+            }
         }
     }
 
-    private void playerChosen(String playerName, String cardId) {
-        MutableCardCollection cardChoice = _cardChoice.get(playerName);
+    private boolean playerChosen(String playerName, String cardId) {
+        MutableCardCollection cardChoice = getPackToPickFrom(playerName);
         if (cardChoice != null) {
             if (cardChoice.removeItem(cardId, 1)) {
                 _collectionsManager.addItemsToPlayerCollection(false, "Pick in draft", playerName, _collectionType, Arrays.asList(CardCollection.Item.createItem(cardId, 1)));
-                _cardChoice.remove(playerName);
+                _playerPicked[_playerPositions.get(playerName)] = true;
+                _picksLeft--;
+                _cardsLeft--;
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * Moves on to the next round of picks (opening the next packs when the current ones are empty), until there is a
+     * round in which some player has a card to pick, and lets the players know.
+     */
+    private void advanceRounds() {
+        if (_pickTimeout != null)
+            _pickTimeout.cancel(false);
+
+        while (!_finishedDraft && _picksLeft == 0) {
+            if (_cardsLeft == 0) {
+                if (haveMorePacks()) {
+                    openNextPacks();
+                } else {
+                    _finishedDraft = true;
+                    break;
+                }
+            }
+            presentNewCardChoices();
+        }
+
+        if (!_finishedDraft) {
+            final int roundNumber = _roundNumber;
+            _pickTimeout = _pickTimer.schedule(() -> pickTimeExpired(roundNumber), _pickTime, TimeUnit.MILLISECONDS);
+        }
+
+        for (DraftCommunicationChannel draftCommunicationChannel : _playerDraftCommunications.values())
+            draftCommunicationChannel.draftChanged();
     }
 
     private void presentNewCardChoices() {
-        for (int i = 0; i < _players.size(); i++) {
-            _cardChoice.put(_players.get(i), _cardChoices.get((i + _nextPickNumber) % _playerCount));
+        _pickOffset = _nextPickNumber % Math.max(1, _playerCount);
+        for (int i = 0; i < _playerCount; i++) {
+            // A player with an empty pack has nothing to pick in this round
+            _playerPicked[i] = _packs[(i + _pickOffset) % _playerCount].getAll().isEmpty();
+            if (!_playerPicked[i])
+                _picksLeft++;
         }
         _nextPickNumber++;
+        _roundNumber++;
         _lastPickStart = System.currentTimeMillis();
     }
 
     private void openNextPacks() {
-        _cardChoices.clear();
         String packId = _draftPack.getPacks().get(_nextPackIndex);
+        List<List<CardCollection.Item>> packs = _packagedProductStorage.openPackagedProducts(packId, _playerCount);
+        _packs = new MutableCardCollection[_playerCount];
         for (int i = 0; i < _playerCount; i++) {
             MutableCardCollection cardCollection = new DefaultCardCollection();
-            cardCollection.addItem(packId, 1);
-            cardCollection.openPack(packId, null, _packagedProductStorage);
-            _cardChoices.add(cardCollection);
+            if (packs != null) {
+                for (CardCollection.Item item : packs.get(i)) {
+                    cardCollection.addItem(item.getBlueprintId(), item.getCount());
+                    _cardsLeft += item.getCount();
+                }
+            } else {
+                cardCollection.addItem(packId, 1);
+                _cardsLeft++;
+            }
+            _packs[i] = cardCollection;
         }
         _nextPackIndex++;
         _nextPickNumber = 0;
     }
 
     private boolean choiceTimePassed() {
-        return System.currentTimeMillis() > PICK_TIME + _lastPickStart;
+        return System.currentTimeMillis() > _pickTime + _lastPickStart;
     }
 
     private boolean haveMorePacks() {
         return _nextPackIndex < _draftPack.getPacks().size();
     }
-
-    private boolean haveAllCardsBeenChosen() {
-        return _cardChoices.size() == 0 || _cardChoices.get(0).getAll().size() == 0;
-    }
-
-    private boolean haveAllPlayersPicked() {
-        return _cardChoice.isEmpty();
-    }
 }
@@ -3,70 +3,85 @@ package com.gempukku.swccgo.game;
 import com.gempukku.polling.LongPollableResource;
 import com.gempukku.polling.WaitingRequest;
 import com.gempukku.swccgo.chat.ChatMessage;
+import com.gempukku.swccgo.chat.ChatRoom;
 import com.gempukku.swccgo.chat.ChatRoomListener;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * The channel of a player in a chat room. The channel does not keep copies of the messages, only the id of the next
+ * message the player has not received, and reads the messages from the chat room.
+ */
 public class ChatCommunicationChannel implements ChatRoomListener, LongPollableResource {
-    private List<ChatMessage> _messages = new LinkedList<ChatMessage>();
-    private long _lastConsumed = System.currentTimeMillis();
-    private volatile WaitingRequest _waitingRequest;
+    private final ChatRoom _chatRoom;
+    private final int _joinedMsgId;
+    private volatile int _nextMsgId;
+    private volatile long _lastConsumed = System.currentTimeMillis();
+    private final AtomicReference<WaitingRequest> _waitingRequest = new AtomicReference<WaitingRequest>();
+
+    /**
+     * Creates the channel of a player joining a chat room, starting at the history of the chat room.
+     * @param chatRoom the chat room
+     */
+    public ChatCommunicationChannel(ChatRoom chatRoom) {
+        _chatRoom = chatRoom;
+        _joinedMsgId = chatRoom.getLatestMsgId() + 1;
+        _nextMsgId = chatRoom.getHistoryStartMsgId();
+    }
 
     @Override
-    public synchronized void unregisterRequest(WaitingRequest waitingRequest) {
-        _waitingRequest = null;
+    public void unregisterRequest(WaitingRequest waitingRequest) {
+        _waitingRequest.compareAndSet(waitingRequest, null);
     }
 
     @Override
-    public synchronized boolean registerRequest(WaitingRequest waitingRequest) {
-        if (!_messages.isEmpty())
+    public boolean registerRequest(WaitingRequest waitingRequest) {
+        if (hasUnreadMessages())
             return true;
 
-        _waitingRequest = waitingRequest;
-        return false;
+        _waitingRequest.set(waitingRequest);
+        _chatRoom.waitForMessages(this);
+        // A message posted before the chat room knew the channel was waiting would not wake the request
+        return hasUnreadMessages() && _waitingRequest.compareAndSet(waitingRequest, null);
     }
 
     @Override
-    public synchronized void messageReceived(ChatMessage message) {
-        _messages.add(message);
-        if (_waitingRequest != null) {
-            _waitingRequest.processRequest();
-            _waitingRequest = null;
-        }
+    public void messagesPosted() {
+        WaitingRequest waitingRequest = _waitingRequest.getAndSet(null);
+        if (waitingRequest != null)
+            waitingRequest.processRequest();
     }
 
     public synchronized List<ChatMessage> consumeMessages(Integer latestMsgIdRcvd) {
         updateLastAccess();
 
-        List<ChatMessage> messages = _messages;
-        _messages = new LinkedList<ChatMessage>();
-
+        List<ChatMessage> messages = new ArrayList<ChatMessage>();
         if (latestMsgIdRcvd != null) {
             // Consume and keep around any messages that have not been acknowledged as received
-            List<ChatMessage> messagesToConsume = new LinkedList<ChatMessage>();
-            for (ChatMessage message : messages) {
-                if (message.getMsgId() > latestMsgIdRcvd) {
-                    messagesToConsume.add(message);
-                }
-            }
-            messages = messagesToConsume;
-            _messages.addAll(messages);
+            _nextMsgId = Math.max(_nextMsgId, latestMsgIdRcvd + 1);
+            _chatRoom.readMessages(_nextMsgId, _joinedMsgId, messages);
+        } else {
+            _nextMsgId = _chatRoom.readMessages(_nextMsgId, _joinedMsgId, messages);
         }
-
         return messages;
     }
 
-    public synchronized boolean hasMessages() {
+    public boolean hasMessages() {
         updateLastAccess();
-        return !_messages.isEmpty();
+        return hasUnreadMessages();
+    }
+
+    private boolean hasUnreadMessages() {
+        return _chatRoom.hasMessages(_nextMsgId, _joinedMsgId);
     }
 
-    private synchronized void updateLastAccess() {
+    private void updateLastAccess() {
         _lastConsumed = System.currentTimeMillis();
     }
 
-    public synchronized long getLastAccessed() {
+    public long getLastAccessed() {
         return _lastConsumed;
     }
 }
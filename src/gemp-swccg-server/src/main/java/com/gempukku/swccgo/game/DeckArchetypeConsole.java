@@ -0,0 +1,22 @@
+package com.gempukku.swccgo.game;
+
+import com.gempukku.swccgo.db.DbAccess;
+import com.gempukku.swccgo.db.DbDeckDAO;
+
+/**
+ * Stores the archetype labels of the decks saved before the labels were stored with the decks, in batches.
+ *
+ * Usage: DeckArchetypeConsole [batch size]
+ */
+public class DeckArchetypeConsole {
+    public static void main(String[] args) {
+        int batchSize = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+        DbAccess dbAccess = new DbAccess();
+        DbDeckDAO deckDao = new DbDeckDAO(dbAccess, new SwccgCardBlueprintLibrary());
+
+        long start = System.currentTimeMillis();
+        int decks = deckDao.storeMissingArchetypeLabels(batchSize);
+        System.out.println("Stored the archetype labels of " + decks + " decks in " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
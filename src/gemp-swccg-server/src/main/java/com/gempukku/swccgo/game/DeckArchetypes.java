@@ -0,0 +1,283 @@
+package com.gempukku.swccgo.game;
+
+import com.gempukku.swccgo.common.CardCategory;
+import com.gempukku.swccgo.common.Title;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The rules for the archetype labels of decks, shown for the players of the games in the hall and stored in the game
+ * history. The rules are indexed by the titles of the cards they are based on, so finding the label of a game takes a
+ * few lookups by title instead of checking each rule in turn.
+ *
+ * In a game, the label is based on the starting location, the starting interrupt and the objective played. The label
+ * of a deck, stored with the deck when it is saved, can only be based on the objective in the deck.
+ */
+public class DeckArchetypes {
+    private static final String OTHER = "Other";
+
+    // Rules based on the starting interrupt, in the order they are checked
+    private static final Map<String, List<StartingInterruptRule>> _startingInterruptRules = new TreeMap<String, List<StartingInterruptRule>>(String.CASE_INSENSITIVE_ORDER);
+    // Rules based on the objective, of which the last one found is used
+    private static final Map<String, ObjectiveRule> _objectiveRules = new TreeMap<String, ObjectiveRule>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        // Careful Planning (v)
+        addStartingInterruptRule(Title.Careful_Planning, (location, interrupt, extraInformation) ->
+                interrupt.getBlueprint().hasVirtualSuffix() && location.getBlueprint().getSystemName() != null
+                        ? location.getBlueprint().getSystemName() + " CPv" : null);
+        // Combat Readiness (v)
+        addStartingInterruptRule(Title.Combat_Readiness, (location, interrupt, extraInformation) ->
+                interrupt.getBlueprint().hasVirtualSuffix() && location.getBlueprint().getSystemName() != null
+                        ? location.getBlueprint().getSystemName() + " CRv" : null);
+        // Slip Sliding Away (v)
+        addStartingInterruptRule(Title.Slip_Sliding_Away, (location, interrupt, extraInformation) ->
+                interrupt.getBlueprint().hasVirtualSuffix() && location.getBlueprint().getTitle() != null
+                        ? location.getBlueprint().getTitle() + " SSAv" : null);
+        // Let The Wookiee Win (v)
+        addStartingInterruptRule(Title.Let_The_Wookiee_Win, (location, interrupt, extraInformation) ->
+                interrupt.getBlueprint().hasVirtualSuffix() && location.getBlueprint().getTitle() != null
+                        ? location.getBlueprint().getTitle() + " LTWWv" : null);
+        // Communing (ignore the location)
+        addStartingInterruptRule("I Am Part Of The Living Force", (location, interrupt, extraInformation) ->
+                location.getBlueprint().getTitle() != null ? withExtraInformation("Communing", extraInformation) : null);
+        // The Force Is Strong In My Family
+        addStartingInterruptRule(Title.The_Rise_Of_Skywalker, (location, interrupt, extraInformation) ->
+                location.getBlueprint().getTitle() != null ? withExtraInformation("Skywalker Saga", extraInformation) : null);
+        // Revenge Of The Sith
+        addStartingInterruptRule(Title.Rise_Of_The_Sith, (location, interrupt, extraInformation) ->
+                location.getBlueprint().getTitle() != null ? withExtraInformation("ROTS", extraInformation) : null);
+        // Legacy Communing (ignore the location)
+        addStartingInterruptRule(Title.Communing, (location, interrupt, extraInformation) ->
+                interrupt.getBlueprint().isLegacy() ? "Communing" : null);
+        // Sonn v (ignore the location)
+        addStartingInterruptRule("It Is The Future You See", (location, interrupt, extraInformation) ->
+                interrupt.getBlueprint().hasVirtualSuffix() && interrupt.getBlueprint().isLegacy() ? "Sonn v" : null);
+
+        addObjectiveRule("Thrawn", Title.A_Great_Tactician_Creates_Plans, Title.The_Result_Is_Often_Resentment);
+        addObjectiveRule("AITC", Title.Agents_In_The_Court, Title.No_Love_For_The_Empire);
+        addObjectiveRule("AOBS", Title.Agents_Of_Black_Sun, Title.Vengeance_Of_The_Dark_Prince);
+        addObjectiveRule("ASM", Title.A_Stunning_Move, Title.A_Valuable_Hostage);
+        addObjectiveRule("BHBM", Title.Bring_Him_Before_Me, Title.Take_Your_Fathers_Place);
+        addObjectiveRule("CCT", Title.Carbon_Chamber_Testing, Title.My_Favorite_Decoration);
+        addObjectiveRule("Combat", Title.Well_Handle_This, Title.Duel_Of_The_Fates, Title.Let_Them_Make_The_First_Move, Title.At_Last_We_Will_Have_Revenge);
+        addObjectiveRule("Court", Title.Court_Of_The_Vile_Gangster, Title.I_Shall_Enjoy_Watching_You_Die);
+        addObjectiveRule("DBO", Title.Dantooine_Base_Operations, Title.More_Dangerous_Than_You_Realize);
+        addObjectiveRule("City In The Clouds", Title.City_In_The_Clouds, Title.You_Truly_Belong_Here_With_Us);
+        addObjectiveRule("Twin Suns", Title.Twin_Suns_Of_Tatooine, Title.Well_Trained_In_The_Jedi_Arts);
+        addObjectiveRule("Diplo", Title.Diplomatic_Mission_To_Alderaan, Title.A_Weakness_Can_Be_Found);
+        // That Thing's Operational, or else Endor Operations
+        addObjectiveRule((operationalAsPlanned, extraInformation) -> operationalAsPlanned ? "TTO" : "Endor Ops",
+                Title.Endor_Operations, Title.Imperial_Outpost);
+        addObjectiveRule("The First Order Reigns", "The First Order Reigns", Title.The_Resistance_Is_Doomed);
+        addObjectiveRule("HITCO", Title.He_Is_The_Chosen_One, Title.He_Will_Bring_Balance);
+        addObjectiveRule("Hidden Base", Title.Hidden_Base, Title.Systems_Will_Slip_Through_Your_Fingers);
+        addObjectiveRule("Hunt Down", Title.Hunt_Down_And_Destroy_The_Jedi, Title.Their_Fire_Has_Gone_Out_Of_The_Universe);
+        addObjectiveRule("Hunt For The Droid General", Title.Hunt_For_The_Droid_General, Title.Hes_A_Coward);
+        addObjectiveRule("Hyperdrive", Title.The_Hyperdrive_Generators_Gone, Title.Well_Need_A_New_One);
+        addObjectiveRule("Map", Title.I_Want_That_Map, Title.And_Now_Youll_Give_It_To_Me);
+        addObjectiveRule("IE", Title.Imperial_Entanglements, Title.No_One_To_Stop_Us_This_Time);
+        addObjectiveRule("Invasion", Title.Invasion, Title.In_Complete_Control);
+        addObjectiveRule("ISB", Title.ISB_Operations, Title.Empires_Sinister_Agents);
+        addObjectiveRule("Legend", Title.The_Galaxy_May_Need_A_Legend, Title.We_Need_Luke_Skywalker);
+        addObjectiveRule("Mando", Title.I_Can_Bring_You_In_Warm, Title.Or_I_Can_Bring_You_In_Cold);
+        addObjectiveRule("MBO", Title.Massassi_Base_Operations, Title.One_In_A_Million);
+        addObjectiveRule("MKOS", Title.My_Kind_Of_Scum, Title.Fearless_And_Inventive);
+        addObjectiveRule("MWYHL", Title.Mind_What_You_Have_Learned, Title.Save_You_It_Can);
+        addObjectiveRule("No Idea", Title.They_Have_No_Idea_Were_Coming, Title.Until_We_Win_Or_The_Chances_Are_Spent);
+        addObjectiveRule("Old Allies", Title.Old_Allies, Title.We_Need_Your_Help);
+        addObjectiveRule("On The Verge Of Greatness", Title.On_The_Verge_Of_Greatness, Title.Taking_Control_Of_The_Weapon);
+        // Operatives, with the system chosen for the non-virtual objectives
+        addObjectiveRule((operationalAsPlanned, extraInformation) -> withExtraInformation("Local Uprising", extraInformation),
+                Title.Local_Uprising, Title.Liberation);
+        addObjectiveRule((operationalAsPlanned, extraInformation) -> withExtraInformation("Imperial Occupation", extraInformation),
+                Title.Imperial_Occupation, Title.Imperial_Control);
+        addObjectiveRule("Profit", Title.You_Can_Either_Profit_By_This, Title.Or_Be_Destroyed);
+        addObjectiveRule("The Empire Knows We're Here", "The Empire Knows We're Here", "Prepare For Ground Assault");
+        addObjectiveRule("QMC", Title.Quiet_Mining_Colony, Title.Independent_Operation);
+        addObjectiveRule("ROps", Title.Ralltiir_Operations, Title.In_The_Hands_Of_The_Empire);
+        addObjectiveRule("RST", Title.Rebel_Strike_Team, Title.Garrison_Destroyed);
+        addObjectiveRule("RTP", Title.Rescue_The_Princess, Title.Sometimes_I_Amaze_Even_Myself);
+        addObjectiveRule("Senate", Title.Plead_My_Case_To_The_Senate, Title.Sanity_And_Compassion, Title.My_Lord_Is_That_Legal, Title.I_Will_Make_It_Legal);
+        addObjectiveRule("Rally To Our Cause", "More Systems Will Rally To Our Cause", "The Galaxy Torn Apart");
+        addObjectiveRule("Slavers", Title.Wookiee_Slaving_Operation, Title.Indentured_To_The_Empire);
+        addObjectiveRule("Shadow Collective", Title.Shadow_Collective, Title.You_Know_Who_I_Answer_To);
+        addObjectiveRule("SYCFA", Title.Set_Your_Course_For_Alderaan, Title.The_Ultimate_Power_In_The_Universe);
+        addObjectiveRule("TDIGWATT", Title.This_Deal_Is_Getting_Worse_All_The_Time, Title.Pray_I_Dont_Alter_It_Any_Further);
+        addObjectiveRule("TIGIH", Title.There_Is_Good_In_Him, Title.I_Can_Save_Him);
+        addObjectiveRule("Walkers", Title.The_Shield_Will_Be_Down_In_Moments, Title.Imperial_Troops_Have_Entered_The_Base);
+        addObjectiveRule("Watto", Title.No_Money_No_Parts_No_Deal, Title.Youre_A_Slave);
+        addObjectiveRule("WHAP", Title.We_Have_A_Plan, Title.They_Will_Be_Lost_And_Confused);
+        addObjectiveRule("WYS", Title.Watch_Your_Step, Title.This_Place_Can_Be_A_Little_Rough);
+        addObjectiveRule("Y4O", Title.Yavin_4_Base_Operations, Title.The_Time_To_Fight_Is_Now);
+        addObjectiveRule("Zero Hour", "Zero Hour", "Liberation Of Lothal");
+    }
+
+    /**
+     * Gets the archetype label of a player's deck in a game, from the cards the player started the game with.
+     * @param startingLocation the starting location, or null
+     * @param startingInterrupt the starting interrupt, or null
+     * @param objective the objective, or null
+     * @param extraInformation the extra information set for the label by the cards in play, or null
+     * @return the label
+     */
+    public static String getLabel(PhysicalCard startingLocation, PhysicalCard startingInterrupt, PhysicalCard objective, String extraInformation) {
+        // Based on starting location
+        if (startingLocation != null) {
+            if (hasTitle(startingLocation, Title.Massassi_Throne_Room)) {
+                // Throne Room Mains
+                return "TRM";
+            }
+            if (startingInterrupt != null) {
+                for (StartingInterruptRule rule : getStartingInterruptRules(startingInterrupt)) {
+                    String label = rule.getLabel(startingLocation, startingInterrupt, extraInformation);
+                    if (label != null)
+                        return label;
+                }
+            }
+            return startingLocation.getBlueprint().getTitle() + (startingLocation.getBlueprint().hasVirtualSuffix() ? " v" : "");
+        }
+
+        // Based on objective
+        if (objective != null) {
+            ObjectiveRule rule = getObjectiveRule(objective.isBlownAway() ? Collections.<String>emptyList() : objective.getTitles());
+            if (rule != null) {
+                boolean virtual = objective.getBlueprint().hasVirtualSuffix();
+                boolean operationalAsPlanned = startingInterrupt != null && hasTitle(startingInterrupt, Title.Operational_As_Planned);
+                return rule.getLabel(operationalAsPlanned, virtual ? null : extraInformation) + (virtual ? " v" : "");
+            }
+        }
+
+        return OTHER;
+    }
+
+    /**
+     * Gets the archetype label of a deck, which can only be told from the objective in the deck (the starting location
+     * and starting interrupt of a deck without an objective are only known once the game starts).
+     * @param deck the deck
+     * @param library the blueprint library
+     * @return the label, or null if the deck has no objective the label can be told from
+     */
+    public static String getDeckLabel(SwccgDeck deck, SwccgCardBlueprintLibrary library) {
+        SwccgCardBlueprint objective = null;
+        boolean hasOperationalAsPlanned = false;
+        for (String blueprintId : deck.getCards()) {
+            SwccgCardBlueprint blueprint = library.getSwccgoCardBlueprint(blueprintId);
+            if (blueprint == null)
+                continue;
+            if (blueprint.getCardCategory() == CardCategory.OBJECTIVE) {
+                if (objective != null)
+                    return null;
+                objective = blueprint;
+            }
+            if (Title.Operational_As_Planned.equalsIgnoreCase(blueprint.getTitle()))
+                hasOperationalAsPlanned = true;
+        }
+        if (objective == null)
+            return null;
+
+        ObjectiveRule rule = getObjectiveRule(objective.getTitles());
+        if (rule == null)
+            return null;
+        return rule.getLabel(hasOperationalAsPlanned, null) + (objective.hasVirtualSuffix() ? " v" : "");
+    }
+
+    private static List<StartingInterruptRule> getStartingInterruptRules(PhysicalCard startingInterrupt) {
+        List<String> titles = startingInterrupt.isBlownAway() ? Collections.<String>emptyList() : startingInterrupt.getTitles();
+        if (titles.size() == 1) {
+            List<StartingInterruptRule> rules = _startingInterruptRules.get(titles.get(0));
+            return rules != null ? rules : Collections.<StartingInterruptRule>emptyList();
+        }
+
+        List<StartingInterruptRule> result = new ArrayList<StartingInterruptRule>();
+        for (String title : titles) {
+            List<StartingInterruptRule> rules = _startingInterruptRules.get(title);
+            if (rules != null)
+                result.addAll(rules);
+        }
+        result.sort((rule1, rule2) -> Integer.compare(rule1._order, rule2._order));
+        return result;
+    }
+
+    private static ObjectiveRule getObjectiveRule(List<String> titles) {
+        ObjectiveRule result = null;
+        for (String title : titles) {
+            ObjectiveRule rule = _objectiveRules.get(title);
+            if (rule != null && (result == null || rule._order > result._order))
+                result = rule;
+        }
+        return result;
+    }
+
+    private static boolean hasTitle(PhysicalCard card, String title) {
+        if (card.isBlownAway())
+            return false;
+        for (String cardTitle : card.getTitles()) {
+            if (cardTitle.equalsIgnoreCase(title))
+                return true;
+        }
+        return false;
+    }
+
+    private static String withExtraInformation(String label, String extraInformation) {
+        return extraInformation != null ? label + " - " + extraInformation : label;
+    }
+
+    private static void addStartingInterruptRule(String title, StartingInterruptLabel label) {
+        int order = 0;
+        for (List<StartingInterruptRule> rules : _startingInterruptRules.values())
+            order += rules.size();
+        _startingInterruptRules.computeIfAbsent(title, key -> new ArrayList<StartingInterruptRule>()).add(new StartingInterruptRule(order, label));
+    }
+
+    private static void addObjectiveRule(String label, String... titles) {
+        addObjectiveRule((operationalAsPlanned, extraInformation) -> label, titles);
+    }
+
+    private static void addObjectiveRule(ObjectiveLabel label, String... titles) {
+        ObjectiveRule rule = new ObjectiveRule(_objectiveRules.size(), label);
+        for (String title : titles)
+            _objectiveRules.put(title, rule);
+    }
+
+    private interface StartingInterruptLabel {
+        String getLabel(PhysicalCard startingLocation, PhysicalCard startingInterrupt, String extraInformation);
+    }
+
+    private interface ObjectiveLabel {
+        String getLabel(boolean operationalAsPlanned, String extraInformation);
+    }
+
+    private static class StartingInterruptRule {
+        private final int _order;
+        private final StartingInterruptLabel _label;
+
+        private StartingInterruptRule(int order, StartingInterruptLabel label) {
+            _order = order;
+            _label = label;
+        }
+
+        private String getLabel(PhysicalCard startingLocation, PhysicalCard startingInterrupt, String extraInformation) {
+            return _label.getLabel(startingLocation, startingInterrupt, extraInformation);
+        }
+    }
+
+    private static class ObjectiveRule {
+        private final int _order;
+        private final ObjectiveLabel _label;
+
+        private ObjectiveRule(int order, ObjectiveLabel label) {
+            _order = order;
+            _label = label;
+        }
+
+        private String getLabel(boolean operationalAsPlanned, String extraInformation) {
+            return _label.getLabel(operationalAsPlanned, extraInformation);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.gempukku.swccgo.game;
+
+import com.alibaba.fastjson.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What is needed to restore a game after a server restart: the settings the game was created with and its decision
+ * log, which plays the game back to where it was, including the decisions the players were waiting on. Besides the
+ * settings of the game itself, the checkpoint carries attributes of whoever created the game (like the table of the
+ * game in the hall), which are given back when the game is restored.
+ */
+public class GameCheckpoint {
+    private static final int VERSION = 1;
+
+    private final String _gameId;
+    private final String _formatName;
+    private final long _randomSeed;
+    private final boolean _useBonusAbilities;
+    private final String _leagueType;
+    private final String _tournamentName;
+    private final Map<String, String> _deckNames;
+    private final Map<String, String> _deckContents;
+    private final boolean _allowSpectators;
+    private final boolean _cancelIfNoActions;
+    private final boolean _allowCancelling;
+    private final boolean _allowSpectatorsToViewChat;
+    private final boolean _allowSpectatorsToChat;
+    private final boolean _allowExtendGameTimer;
+    private final int _decisionTimeoutSeconds;
+    private final int _timePerPlayerMinutes;
+    private final boolean _isPrivate;
+    private final boolean _inGameStatisticsOn;
+    private final Map<String, String> _attributes;
+    private final List<GameDecisionLog.Entry> _entries = new ArrayList<GameDecisionLog.Entry>();
+    private final Map<String, Integer> _playerClocks = new LinkedHashMap<String, Integer>();
+
+    public GameCheckpoint(String gameId, String formatName, long randomSeed, boolean useBonusAbilities, String leagueType, String tournamentName,
+                          Map<String, String> deckNames, Map<String, String> deckContents, boolean allowSpectators, boolean cancelIfNoActions,
+                          boolean allowCancelling, boolean allowSpectatorsToViewChat, boolean allowSpectatorsToChat, boolean allowExtendGameTimer,
+                          int decisionTimeoutSeconds, int timePerPlayerMinutes, boolean isPrivate, boolean inGameStatisticsOn, Map<String, String> attributes) {
+        _gameId = gameId;
+        _formatName = formatName;
+        _randomSeed = randomSeed;
+        _useBonusAbilities = useBonusAbilities;
+        _leagueType = leagueType;
+        _tournamentName = tournamentName;
+        _deckNames = new LinkedHashMap<String, String>(deckNames);
+        _deckContents = new LinkedHashMap<String, String>(deckContents);
+        _allowSpectators = allowSpectators;
+        _cancelIfNoActions = cancelIfNoActions;
+        _allowCancelling = allowCancelling;
+        _allowSpectatorsToViewChat = allowSpectatorsToViewChat;
+        _allowSpectatorsToChat = allowSpectatorsToChat;
+        _allowExtendGameTimer = allowExtendGameTimer;
+        _decisionTimeoutSeconds = decisionTimeoutSeconds;
+        _timePerPlayerMinutes = timePerPlayerMinutes;
+        _isPrivate = isPrivate;
+        _inGameStatisticsOn = inGameStatisticsOn;
+        _attributes = new LinkedHashMap<String, String>(attributes);
+    }
+
+    public String getGameId() {
+        return _gameId;
+    }
+
+    public String getFormatName() {
+        return _formatName;
+    }
+
+    public long getRandomSeed() {
+        return _randomSeed;
+    }
+
+    public boolean isUseBonusAbilities() {
+        return _useBonusAbilities;
+    }
+
+    /**
+     * Gets the type of the league the game is played in.
+     * @return the league type, or null
+     */
+    public String getLeagueType() {
+        return _leagueType;
+    }
+
+    public String getTournamentName() {
+        return _tournamentName;
+    }
+
+    /**
+     * Gets the names of the decks, by player, in the order of the participants.
+     * @return the deck names
+     */
+    public Map<String, String> getDeckNames() {
+        return Collections.unmodifiableMap(_deckNames);
+    }
+
+    /**
+     * Gets the contents of the decks, as stored by DeckSerialization.
+     * @return the deck contents, by player
+     */
+    public Map<String, String> getDeckContents() {
+        return Collections.unmodifiableMap(_deckContents);
+    }
+
+    public boolean isAllowSpectators() {
+        return _allowSpectators;
+    }
+
+    public boolean isCancelIfNoActions() {
+        return _cancelIfNoActions;
+    }
+
+    public boolean isAllowCancelling() {
+        return _allowCancelling;
+    }
+
+    public boolean isAllowSpectatorsToViewChat() {
+        return _allowSpectatorsToViewChat;
+    }
+
+    public boolean isAllowSpectatorsToChat() {
+        return _allowSpectatorsToChat;
+    }
+
+    public boolean isAllowExtendGameTimer() {
+        return _allowExtendGameTimer;
+    }
+
+    public int getDecisionTimeoutSeconds() {
+        return _decisionTimeoutSeconds;
+    }
+
+    public int getTimePerPlayerMinutes() {
+        return _timePerPlayerMinutes;
+    }
+
+    public boolean isPrivate() {
+        return _isPrivate;
+    }
+
+    public boolean isInGameStatisticsOn() {
+        return _inGameStatisticsOn;
+    }
+
+    /**
+     * Gets an attribute of whoever created the game.
+     * @param name the name of the attribute
+     * @return the value, or null
+     */
+    public String getAttribute(String name) {
+        return _attributes.get(name);
+    }
+
+    /**
+     * Gets the entries of the decision log of the game, as of the checkpoint read.
+     * @return the entries
+     */
+    public List<GameDecisionLog.Entry> getEntries() {
+        return Collections.unmodifiableList(_entries);
+    }
+
+    /**
+     * Gets the seconds each player had used of their game timer, as of the checkpoint read.
+     * @return the seconds used, by player
+     */
+    public Map<String, Integer> getPlayerClocks() {
+        return Collections.unmodifiableMap(_playerClocks);
+    }
+
+    void addEntry(GameDecisionLog.Entry entry) {
+        _entries.add(entry);
+    }
+
+    void setPlayerClocks(Map<String, Integer> playerClocks) {
+        _playerClocks.clear();
+        _playerClocks.putAll(playerClocks);
+    }
+
+    JSONObject toJson() {
+        JSONObject json = new JSONObject(true);
+        json.put("version", VERSION);
+        json.put("gameId", _gameId);
+        json.put("format", _formatName);
+        json.put("randomSeed", _randomSeed);
+        json.put("useBonusAbilities", _useBonusAbilities);
+        json.put("leagueType", _leagueType);
+        json.put("tournamentName", _tournamentName);
+        json.put("deckNames", _deckNames);
+        json.put("decks", _deckContents);
+        json.put("allowSpectators", _allowSpectators);
+        json.put("cancelIfNoActions", _cancelIfNoActions);
+        json.put("allowCancelling", _allowCancelling);
+        json.put("allowSpectatorsToViewChat", _allowSpectatorsToViewChat);
+        json.put("allowSpectatorsToChat", _allowSpectatorsToChat);
+        json.put("allowExtendGameTimer", _allowExtendGameTimer);
+        json.put("decisionTimeoutSeconds", _decisionTimeoutSeconds);
+        json.put("timePerPlayerMinutes", _timePerPlayerMinutes);
+        json.put("private", _isPrivate);
+        json.put("inGameStatisticsOn", _inGameStatisticsOn);
+        json.put("attributes", _attributes);
+        return json;
+    }
+
+    /**
+     * Reads the settings of a checkpoint written by toJson.
+     * @param json the JSON
+     * @return the checkpoint, without entries
+     * @throws IllegalArgumentException if the JSON is of an unknown version
+     */
+    static GameCheckpoint fromJson(JSONObject json) {
+        if (json.getIntValue("version") != VERSION)
+            throw new IllegalArgumentException("Unknown game checkpoint version");
+
+        return new GameCheckpoint(json.getString("gameId"), json.getString("format"), json.getLongValue("randomSeed"),
+                json.getBooleanValue("useBonusAbilities"), json.getString("leagueType"), json.getString("tournamentName"),
+                toStringMap(json.getJSONObject("deckNames")), toStringMap(json.getJSONObject("decks")),
+                json.getBooleanValue("allowSpectators"), json.getBooleanValue("cancelIfNoActions"), json.getBooleanValue("allowCancelling"),
+                json.getBooleanValue("allowSpectatorsToViewChat"), json.getBooleanValue("allowSpectatorsToChat"),
+                json.getBooleanValue("allowExtendGameTimer"), json.getIntValue("decisionTimeoutSeconds"),
+                json.getIntValue("timePerPlayerMinutes"), json.getBooleanValue("private"), json.getBooleanValue("inGameStatisticsOn"),
+                toStringMap(json.getJSONObject("attributes")));
+    }
+
+    private static Map<String, String> toStringMap(JSONObject json) {
+        Map<String, String> result = new LinkedHashMap<String, String>();
+        if (json != null) {
+            for (String key : json.keySet())
+                result.put(key, json.getString(key));
+        }
+        return result;
+    }
+}
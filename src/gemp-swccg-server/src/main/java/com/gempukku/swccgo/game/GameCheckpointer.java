@@ -0,0 +1,217 @@
+package com.gempukku.swccgo.game;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves a checkpoint of each running game to disk at regular intervals, so the games can be restored after the
+ * server restarts. A checkpoint file holds the settings of the game, followed by the entries of the decision log of
+ * the game and the time the players have used of their game timers. Each checkpoint only appends what was added
+ * since the last one, and all checkpoints are written on a background thread, so checkpointing never adds to the
+ * time it takes to process a decision.
+ *
+ * A line that was only partly written when the server stopped is ignored when reading the checkpoint.
+ */
+public class GameCheckpointer {
+    private static final Logger LOG = LogManager.getLogger(GameCheckpointer.class);
+    private static final String FILE_SUFFIX = ".checkpoint";
+
+    private final File _folder;
+    private final Map<String, CheckpointedGame> _games = new ConcurrentHashMap<String, CheckpointedGame>();
+    private final ScheduledExecutorService _executor;
+
+    /**
+     * Creates a checkpointer.
+     * @param folder the folder the checkpoint files are in
+     * @param intervalSeconds the seconds between checkpoints
+     */
+    public GameCheckpointer(File folder, int intervalSeconds) {
+        _folder = folder;
+        _executor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "game-checkpointer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        _executor.scheduleWithFixedDelay(this::checkpointAll, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts checkpointing a game.
+     * @param checkpoint the settings of the game
+     * @param mediator the game
+     */
+    public void addGame(GameCheckpoint checkpoint, SwccgGameMediator mediator) {
+        _games.put(checkpoint.getGameId(), new CheckpointedGame(checkpoint, mediator));
+    }
+
+    /**
+     * Stops checkpointing a game, and deletes its checkpoint.
+     * @param gameId the game id
+     */
+    public void removeGame(final String gameId) {
+        if (_games.remove(gameId) != null)
+            _executor.execute(() -> deleteCheckpoint(gameId));
+    }
+
+    /**
+     * Reads the checkpoints of the games that were running when the server stopped.
+     * @return the checkpoints, without the ones that could not be read
+     */
+    public List<GameCheckpoint> readCheckpoints() {
+        List<GameCheckpoint> result = new ArrayList<GameCheckpoint>();
+        File[] files = _folder.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null)
+            return result;
+
+        Arrays.sort(files);
+        for (File file : files) {
+            try {
+                result.add(readCheckpoint(file));
+            } catch (IOException | RuntimeException exp) {
+                LOG.warn("Unable to read the game checkpoint " + file + ", deleting it", exp);
+                file.delete();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Deletes the checkpoint of a game that is not checkpointed (like a game that could not be restored).
+     * @param gameId the game id
+     */
+    public void deleteCheckpoint(String gameId) {
+        File file = getCheckpointFile(gameId);
+        if (file.exists() && !file.delete())
+            LOG.warn("Unable to delete the game checkpoint " + file);
+    }
+
+    /**
+     * Writes a last checkpoint of all games, and stops checkpointing.
+     */
+    public void shutdown() {
+        writeCheckpoints();
+        _executor.shutdown();
+    }
+
+    /**
+     * Writes a checkpoint of all games on the checkpointing thread, and waits for it to be written.
+     */
+    void writeCheckpoints() {
+        try {
+            _executor.submit(this::checkpointAll).get();
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exp) {
+            LOG.warn("Unable to write the game checkpoints", exp.getCause());
+        }
+    }
+
+    private void checkpointAll() {
+        for (CheckpointedGame game : _games.values()) {
+            try {
+                game.checkpoint();
+            } catch (IOException | RuntimeException exp) {
+                LOG.warn("Unable to checkpoint game " + game._checkpoint.getGameId(), exp);
+            }
+        }
+    }
+
+    private File getCheckpointFile(String gameId) {
+        return new File(_folder, gameId + FILE_SUFFIX);
+    }
+
+    private static GameCheckpoint readCheckpoint(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line == null)
+                throw new IOException("Empty game checkpoint");
+            GameCheckpoint checkpoint = GameCheckpoint.fromJson(JSON.parseObject(line, Feature.OrderedField));
+
+            while ((line = reader.readLine()) != null) {
+                JSONObject json;
+                try {
+                    json = JSON.parseObject(line);
+                } catch (RuntimeException exp) {
+                    // Only partly written
+                    break;
+                }
+                JSONObject playerClocks = json.getJSONObject("playerClocks");
+                if (playerClocks != null) {
+                    Map<String, Integer> clocks = new LinkedHashMap<String, Integer>();
+                    for (String playerId : playerClocks.keySet())
+                        clocks.put(playerId, playerClocks.getIntValue(playerId));
+                    checkpoint.setPlayerClocks(clocks);
+                } else {
+                    checkpoint.addEntry(GameDecisionLog.fromJson(json));
+                }
+            }
+            return checkpoint;
+        }
+    }
+
+    /**
+     * A game being checkpointed, only used on the checkpointing thread.
+     */
+    private class CheckpointedGame {
+        private final GameCheckpoint _checkpoint;
+        private final SwccgGameMediator _mediator;
+        private boolean _fileStarted;
+        private int _entriesWritten;
+        private Map<String, Integer> _playerClocksWritten;
+
+        private CheckpointedGame(GameCheckpoint checkpoint, SwccgGameMediator mediator) {
+            _checkpoint = checkpoint;
+            _mediator = mediator;
+        }
+
+        private void checkpoint() throws IOException {
+            List<GameDecisionLog.Entry> entries = _mediator.getDecisionLog().getEntries(_entriesWritten);
+            Map<String, Integer> playerClocks = _mediator.getPlayerClocks();
+            if (_fileStarted && entries.isEmpty() && playerClocks.equals(_playerClocksWritten))
+                return;
+
+            StringBuilder lines = new StringBuilder();
+            if (!_fileStarted)
+                lines.append(_checkpoint.toJson().toJSONString()).append('\n');
+            for (GameDecisionLog.Entry entry : entries)
+                lines.append(GameDecisionLog.toJson(entry).toJSONString()).append('\n');
+            if (!playerClocks.equals(_playerClocksWritten)) {
+                JSONObject clocks = new JSONObject(true);
+                clocks.put("playerClocks", playerClocks);
+                lines.append(clocks.toJSONString()).append('\n');
+            }
+
+            // A new file is started for each game checkpointed, then only appended to
+            _folder.mkdirs();
+            try (FileOutputStream outputStream = new FileOutputStream(getCheckpointFile(_checkpoint.getGameId()), _fileStarted)) {
+                outputStream.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+                outputStream.getFD().sync();
+            }
+            _fileStarted = true;
+            _entriesWritten += entries.size();
+            _playerClocksWritten = playerClocks;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.gempukku.swccgo.game;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.gempukku.swccgo.common.GameEndReason;
+import com.gempukku.swccgo.common.Phase;
+import com.gempukku.swccgo.db.DeckSerialization;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The log of everything that was put into a game from outside the game engine: the random seed, the decks, and in
+ * order every decision answered, message sent, timeout and request made. Since the game engine takes all of its
+ * randomness from the seed, playing the log back into a new game plays the game exactly the same way, which is used
+ * to check that changes to the engine do not change how recorded games play.
+ *
+ * The log is written as JSON.
+ */
+public class GameDecisionLog {
+    private static final int VERSION = 1;
+
+    private final String _gameId;
+    private final String _formatName;
+    private final long _randomSeed;
+    private final boolean _useBonusAbilities;
+    private final Map<String, String> _decks = new LinkedHashMap<String, String>();
+    private final List<Entry> _entries = new ArrayList<Entry>();
+    private final Map<String, String> _recordingIds = new LinkedHashMap<String, String>();
+
+    /**
+     * Creates a decision log for a game.
+     * @param gameId the game id
+     * @param formatName the name of the format
+     * @param randomSeed the random seed of the game
+     * @param useBonusAbilities true if the game uses bonus abilities
+     * @param decks the decks, by player
+     */
+    public GameDecisionLog(String gameId, String formatName, long randomSeed, boolean useBonusAbilities, Map<String, SwccgDeck> decks) {
+        this(gameId, formatName, randomSeed, useBonusAbilities);
+        for (Map.Entry<String, SwccgDeck> deck : decks.entrySet())
+            _decks.put(deck.getKey(), DeckSerialization.buildContentsFromDeck(deck.getValue()));
+    }
+
+    private GameDecisionLog(String gameId, String formatName, long randomSeed, boolean useBonusAbilities) {
+        _gameId = gameId;
+        _formatName = formatName;
+        _randomSeed = randomSeed;
+        _useBonusAbilities = useBonusAbilities;
+    }
+
+    public String getGameId() {
+        return _gameId;
+    }
+
+    public String getFormatName() {
+        return _formatName;
+    }
+
+    public long getRandomSeed() {
+        return _randomSeed;
+    }
+
+    public boolean isUseBonusAbilities() {
+        return _useBonusAbilities;
+    }
+
+    /**
+     * Gets the contents of the decks, as stored by DeckSerialization.
+     * @return the deck contents, by player
+     */
+    public Map<String, String> getDeckContents() {
+        return Collections.unmodifiableMap(_decks);
+    }
+
+    /**
+     * Gets the ids the game was recorded under (its replays), once the game is finished.
+     * @return the recording ids, by player
+     */
+    public synchronized Map<String, String> getRecordingIds() {
+        return new LinkedHashMap<String, String>(_recordingIds);
+    }
+
+    public synchronized void setRecordingIds(Map<String, String> recordingIds) {
+        _recordingIds.clear();
+        _recordingIds.putAll(recordingIds);
+    }
+
+    /**
+     * Gets the entries logged so far, in order.
+     * @return the entries
+     */
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<Entry>(_entries);
+    }
+
+    /**
+     * Gets the entries logged after the given number of entries, in order.
+     * @param fromIndex the number of entries to skip
+     * @return the entries
+     */
+    public synchronized List<Entry> getEntries(int fromIndex) {
+        return new ArrayList<Entry>(_entries.subList(Math.min(fromIndex, _entries.size()), _entries.size()));
+    }
+
+    public void gameStarted() {
+        add(new Entry(EntryType.START, null, 0, null));
+    }
+
+    /**
+     * Logs an answer to a decision, whether or not the answer turns out to be valid.
+     * @param playerId the player
+     * @param decisionId the decision id
+     * @param answer the answer
+     */
+    public void decisionAnswered(String playerId, int decisionId, String answer) {
+        add(new Entry(EntryType.DECISION, playerId, decisionId, answer));
+    }
+
+    public void messageSent(String message) {
+        add(new Entry(EntryType.MESSAGE, null, 0, message));
+    }
+
+    public void playerLost(String playerId, GameEndReason reason) {
+        add(new Entry(EntryType.PLAYER_LOST, playerId, 0, reason.name()));
+    }
+
+    public void autoCancelled() {
+        add(new Entry(EntryType.AUTO_CANCEL, null, 0, null));
+    }
+
+    public void cancelRequested(String playerId) {
+        add(new Entry(EntryType.REQUEST_CANCEL, playerId, 0, null));
+    }
+
+    public void extendGameTimerRequested(String playerId, int minutes) {
+        add(new Entry(EntryType.EXTEND_GAME_TIMER, playerId, minutes, null));
+    }
+
+    public void disableActionTimerRequested(String playerId) {
+        add(new Entry(EntryType.DISABLE_ACTION_TIMER, playerId, 0, null));
+    }
+
+    public void autoPassSettingsChanged(String playerId, Set<Phase> phases) {
+        StringBuilder phaseNames = new StringBuilder();
+        for (Phase phase : new TreeSet<Phase>(phases)) {
+            if (phaseNames.length() > 0)
+                phaseNames.append(",");
+            phaseNames.append(phase.name());
+        }
+        add(new Entry(EntryType.AUTO_PASS, playerId, 0, phaseNames.toString()));
+    }
+
+    public void gameAborted() {
+        add(new Entry(EntryType.ABORT, null, 0, null));
+    }
+
+    private synchronized void add(Entry entry) {
+        _entries.add(entry);
+    }
+
+    /**
+     * Writes the log.
+     * @param outputStream the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        JSONObject log = new JSONObject(true);
+        log.put("version", VERSION);
+        log.put("gameId", _gameId);
+        log.put("format", _formatName);
+        log.put("randomSeed", _randomSeed);
+        log.put("useBonusAbilities", _useBonusAbilities);
+        log.put("decks", _decks);
+        log.put("recordingIds", getRecordingIds());
+        JSONArray entries = new JSONArray();
+        for (Entry entry : getEntries())
+            entries.add(toJson(entry));
+        log.put("entries", entries);
+        outputStream.write(log.toJSONString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a log written by write.
+     * @param inputStream the stream to read from
+     * @return the log
+     * @throws IOException if reading fails, or the log is not valid
+     */
+    public static GameDecisionLog read(InputStream inputStream) throws IOException {
+        JSONObject log;
+        try {
+            log = JSON.parseObject(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (RuntimeException exp) {
+            throw new IOException("Invalid game decision log", exp);
+        }
+        if (log == null || log.getIntValue("version") != VERSION)
+            throw new IOException("Unknown game decision log version");
+
+        GameDecisionLog result = new GameDecisionLog(log.getString("gameId"), log.getString("format"), log.getLongValue("randomSeed"),
+                log.getBooleanValue("useBonusAbilities"));
+        JSONObject decks = log.getJSONObject("decks");
+        for (String playerId : decks.keySet())
+            result._decks.put(playerId, decks.getString(playerId));
+
+        JSONObject recordingIds = log.getJSONObject("recordingIds");
+        if (recordingIds != null) {
+            for (String playerId : recordingIds.keySet())
+                result._recordingIds.put(playerId, recordingIds.getString(playerId));
+        }
+        JSONArray entries = log.getJSONArray("entries");
+        for (int i = 0; i < entries.size(); i++)
+            result._entries.add(fromJson(entries.getJSONObject(i)));
+        return result;
+    }
+
+    static JSONObject toJson(Entry entry) {
+        JSONObject jsonEntry = new JSONObject(true);
+        jsonEntry.put("type", entry.getType().name());
+        if (entry.getPlayerId() != null)
+            jsonEntry.put("player", entry.getPlayerId());
+        if (entry.getNumber() != 0)
+            jsonEntry.put("number", entry.getNumber());
+        if (entry.getValue() != null)
+            jsonEntry.put("value", entry.getValue());
+        return jsonEntry;
+    }
+
+    static Entry fromJson(JSONObject jsonEntry) {
+        return new Entry(EntryType.valueOf(jsonEntry.getString("type")), jsonEntry.getString("player"),
+                jsonEntry.getIntValue("number"), jsonEntry.getString("value"));
+    }
+
+    /**
+     * The types of the log entries.
+     */
+    public enum EntryType {
+        START, DECISION, MESSAGE, PLAYER_LOST, AUTO_CANCEL, REQUEST_CANCEL, EXTEND_GAME_TIMER, DISABLE_ACTION_TIMER, AUTO_PASS, ABORT
+    }
+
+    /**
+     * An entry of the log.
+     */
+    public static class Entry {
+        private final EntryType _type;
+        private final String _playerId;
+        private final int _number;
+        private final String _value;
+
+        private Entry(EntryType type, String playerId, int number, String value) {
+            _type = type;
+            _playerId = playerId;
+            _number = number;
+            _value = value;
+        }
+
+        public EntryType getType() {
+            return _type;
+        }
+
+        /**
+         * Gets the player the entry is for.
+         * @return the player, or null
+         */
+        public String getPlayerId() {
+            return _playerId;
+        }
+
+        /**
+         * Gets the decision id of a decision, or the minutes of a game timer extension.
+         * @return the number
+         */
+        public int getNumber() {
+            return _number;
+        }
+
+        /**
+         * Gets the answer of a decision, the text of a message, the reason a player lost, or the phases of the auto
+         * pass settings (comma separated).
+         * @return the value, or null
+         */
+        public String getValue() {
+            return _value;
+        }
+
+        /**
+         * Gets the phases of the auto pass settings of an AUTO_PASS entry.
+         * @return the phases
+         */
+        public Set<Phase> getAutoPassPhases() {
+            Set<Phase> phases = EnumSet.noneOf(Phase.class);
+            for (String phase : _value.split(",")) {
+                if (!phase.isEmpty())
+                    phases.add(Phase.valueOf(phase));
+            }
+            return phases;
+        }
+    }
+}
@@ -13,11 +13,20 @@ import java.util.concurrent.ConcurrentHashMap;
 public class GameHistoryService {
     private GameHistoryDAO _gameHistoryDAO;
     private Map<String, Integer> _playerGameCount = new ConcurrentHashMap<String, Integer>();
+    private ServerStatsAggregator _serverStatsAggregator;
 
     public GameHistoryService(GameHistoryDAO gameHistoryDAO) {
         _gameHistoryDAO = gameHistoryDAO;
     }
 
+    /**
+     * Sets the aggregator that keeps the server statistics, told about each game added to the game history.
+     * @param serverStatsAggregator the aggregator
+     */
+    public void setServerStatsAggregator(ServerStatsAggregator serverStatsAggregator) {
+        _serverStatsAggregator = serverStatsAggregator;
+    }
+
     public void addGameHistory(String winner, String loser, String winReason, String loseReason, String winRecordingId, String loseRecordingId, String formatName, String tournament, String winnerDeckName, String loserDeckName, String winnerDeckArchetype, String loserDeckArchetype, String winningSide, String darkDeckString, String lightDeckString, String leagueType, String sealedLeagueType, Date startDate, Date endDate) {
         _gameHistoryDAO.addGameHistory(winner, loser, winReason, loseReason, winRecordingId, loseRecordingId, formatName, tournament, winnerDeckName, loserDeckName, winnerDeckArchetype, loserDeckArchetype, winningSide, darkDeckString, lightDeckString, leagueType, sealedLeagueType, startDate, endDate);
         Integer winnerCount = _playerGameCount.get(winner);
@@ -26,6 +35,8 @@ public class GameHistoryService {
             _playerGameCount.put(winner, winnerCount + 1);
         if (loserCount != null)
             _playerGameCount.put(loser, loserCount + 1);
+        if (_serverStatsAggregator != null)
+            _serverStatsAggregator.gameFinished(endDate.getTime(), formatName, tournament);
     }
 
     public int getGameHistoryForPlayerCount(Player player) {
@@ -63,6 +74,28 @@ public class GameHistoryService {
         return stats;
     }
 
+    /**
+     * Gets the statistics of the last day, the last week and all time, kept by the aggregator if there is one.
+     * @return the statistics
+     */
+    public ServerStatsAggregator.Status getServerStatus() {
+        if (_serverStatsAggregator != null)
+            return _serverStatsAggregator.getStatus();
+        return ServerStatsAggregator.loadStatus(_gameHistoryDAO, System.currentTimeMillis());
+    }
+
+    /**
+     * Gets the statistics of a period, kept by the aggregator if there is one.
+     * @param from the start of the period
+     * @param duration the length of the period, in milliseconds
+     * @return the statistics
+     */
+    public ServerStatsAggregator.PeriodStats getServerStats(long from, long duration) {
+        if (_serverStatsAggregator != null)
+            return _serverStatsAggregator.getPeriodStats(from, duration);
+        return ServerStatsAggregator.loadPeriodStats(_gameHistoryDAO, from, duration, System.currentTimeMillis());
+    }
+
     public List<PlayerStatistic> getCasualPlayerStatistics(Player player) {
         return _gameHistoryDAO.getCasualPlayerStatistics(player);
     }
@@ -15,7 +15,10 @@ public class GameHistoryStatistics {
     }
 
     public void init(GameHistoryDAO gameHistoryDao) {
-        Map<String, Integer> countsPerFormat = gameHistoryDao.getCasualGamesPlayedPerFormat(_start, _duration);
+        init(gameHistoryDao.getCasualGamesPlayedPerFormat(_start, _duration));
+    }
+
+    public void init(Map<String, Integer> countsPerFormat) {
         Map<String, Integer> result = new HashMap<String, Integer>();
         for (Map.Entry<String, Integer> formatCount : countsPerFormat.entrySet()) {
             String format = formatCount.getKey();
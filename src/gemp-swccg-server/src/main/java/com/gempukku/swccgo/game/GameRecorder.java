@@ -6,6 +6,8 @@ import com.gempukku.swccgo.game.state.EventSerializer;
 import com.gempukku.swccgo.game.state.GameCommunicationChannel;
 import com.gempukku.swccgo.game.state.GameEvent;
 import com.gempukku.swccgo.league.NewSealedLeagueData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -21,18 +23,29 @@ import java.io.*;
 import java.util.*;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.InflaterInputStream;
 
 public class GameRecorder {
+    private static final Logger LOG = LogManager.getLogger(GameRecorder.class);
     private static String _possibleChars = "abcdefghijklmnopqrstuvwxyz0123456789";
     private static int _charsCount = _possibleChars.length();
 
     private GameHistoryService _gameHistoryService;
+    private volatile boolean _saveDecisionLogs;
 
     public GameRecorder(GameHistoryService gameHistoryService) {
         _gameHistoryService = gameHistoryService;
     }
 
+    /**
+     * Sets whether the decision log of each game is saved along with its replays.
+     * @param saveDecisionLogs true if decision logs are saved, otherwise false
+     */
+    public void setSaveDecisionLogs(boolean saveDecisionLogs) {
+        _saveDecisionLogs = saveDecisionLogs;
+    }
+
     private String randomUid() {
         int length = 16;
         char[] chars = new char[length];
@@ -67,6 +80,8 @@ public class GameRecorder {
             @Override
             public void finishRecording(String winner, String winReason, String loser, String loseReason) {
                 Map<String, String> playerRecordingId = saveRecordedChannels(recordingChannels);
+                if (_saveDecisionLogs)
+                    saveDecisionLog(mediator.getDecisionLog(), playerRecordingId);
                 _gameHistoryService.addGameHistory(winner, loser, winReason, loseReason, playerRecordingId.get(winner), playerRecordingId.get(loser), formatName, tournament, deckNames.get(winner), deckNames.get(loser), mediator.getDeckArchetypeLabel(winner), mediator.getDeckArchetypeLabel(loser), mediator.getWinningSideString(), mediator.getDeckString(Side.DARK), mediator.getDeckString(Side.LIGHT), leagueType, sealedLeagueType, startData, new Date());
             }
         };
@@ -77,9 +92,34 @@ public class GameRecorder {
     }
 
     private File getRecordingFile(String playerId, String gameId) {
-        File gameReplayFolder = new File(ApplicationConfiguration.getProperty("application.root"), "replays");
-        File playerReplayFolder = new File(gameReplayFolder, playerId);
-        return new File(playerReplayFolder, gameId + ".xml.gz");
+        return getRecordingFile(new File(ApplicationConfiguration.getProperty("application.root")), playerId, gameId);
+    }
+
+    private File getDecisionLogFile(String gameId) {
+        File decisionLogFolder = new File(ApplicationConfiguration.getProperty("application.root"), "decisionLogs");
+        return new File(decisionLogFolder, gameId + ".json.gz");
+    }
+
+    /**
+     * Gets the file a replay of a game is saved to.
+     * @param applicationRoot the application root folder
+     * @param playerId the player
+     * @param recordingId the recording id of the game for the player
+     * @return the file
+     */
+    public static File getRecordingFile(File applicationRoot, String playerId, String recordingId) {
+        return new File(new File(new File(applicationRoot, "replays"), playerId), recordingId + ".xml.gz");
+    }
+
+    private void saveDecisionLog(GameDecisionLog decisionLog, Map<String, String> playerRecordingId) {
+        decisionLog.setRecordingIds(playerRecordingId);
+        File decisionLogFile = getDecisionLogFile(decisionLog.getGameId());
+        decisionLogFile.getParentFile().mkdirs();
+        try (OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(decisionLogFile))) {
+            decisionLog.write(outputStream);
+        } catch (IOException exp) {
+            LOG.warn("Unable to save the decision log of game " + decisionLog.getGameId(), exp);
+        }
     }
 
     private OutputStream getRecordingWriteStream(String playerId, String gameId) throws IOException {
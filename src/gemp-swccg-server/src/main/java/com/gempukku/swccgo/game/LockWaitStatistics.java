@@ -0,0 +1,61 @@
+package com.gempukku.swccgo.game;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often a read/write lock is taken and how long callers waited to get it, for the read and write lock
+ * separately. The counters can be updated from any number of threads without contending with each other.
+ */
+public class LockWaitStatistics {
+    private final LongAdder _readAcquisitions = new LongAdder();
+    private final LongAdder _readWaitNanos = new LongAdder();
+    private final LongAccumulator _readMaxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder _writeAcquisitions = new LongAdder();
+    private final LongAdder _writeWaitNanos = new LongAdder();
+    private final LongAccumulator _writeMaxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records that the read lock was taken.
+     * @param waitNanos the time waited for the lock, in nanoseconds
+     */
+    public void readLockAcquired(long waitNanos) {
+        _readAcquisitions.increment();
+        _readWaitNanos.add(waitNanos);
+        _readMaxWaitNanos.accumulate(waitNanos);
+    }
+
+    /**
+     * Records that the write lock was taken.
+     * @param waitNanos the time waited for the lock, in nanoseconds
+     */
+    public void writeLockAcquired(long waitNanos) {
+        _writeAcquisitions.increment();
+        _writeWaitNanos.add(waitNanos);
+        _writeMaxWaitNanos.accumulate(waitNanos);
+    }
+
+    public long getReadAcquisitions() {
+        return _readAcquisitions.sum();
+    }
+
+    public long getReadWaitNanos() {
+        return _readWaitNanos.sum();
+    }
+
+    public long getReadMaxWaitNanos() {
+        return _readMaxWaitNanos.get();
+    }
+
+    public long getWriteAcquisitions() {
+        return _writeAcquisitions.sum();
+    }
+
+    public long getWriteWaitNanos() {
+        return _writeWaitNanos.sum();
+    }
+
+    public long getWriteMaxWaitNanos() {
+        return _writeMaxWaitNanos.get();
+    }
+}
@@ -0,0 +1,323 @@
+package com.gempukku.swccgo.game;
+
+import com.gempukku.swccgo.db.GameHistoryDAO;
+import org.apache.commons.collections4.map.LRUMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the server statistics shown on the login page and by the server stats endpoint, so polling them does not
+ * query the database. The statistics are read from the game history once, and read again in the background every
+ * refresh interval while their period is not over. In between, the games finishing are added to the game counts
+ * right away, unless they finished before the statistics were read. The active players are only counted again on
+ * refresh, since telling whether a player was already counted needs the game history.
+ *
+ * The periods that are over are kept in a limited cache, and the periods that are not over in another one, so reading
+ * past periods does not drop the periods that are kept up to date. The periods that are not kept are read from the
+ * game history on the background thread, one at a time, and the requests for the same period wait for the same read.
+ * The periods that have not started have no games, so they are not read.
+ *
+ * The statistics are given as immutable snapshots, with the time they were read from the game history.
+ */
+public class ServerStatsAggregator {
+    private static final Logger LOG = LogManager.getLogger(ServerStatsAggregator.class);
+    private static final long DAY = 1000 * 60 * 60 * 24;
+    private static final long WEEK = DAY * 7;
+    private static final int MAX_PERIODS = 100;
+
+    private final GameHistoryDAO _gameHistoryDAO;
+    private final AtomicReference<Status> _status = new AtomicReference<Status>();
+    private final Map<String, PeriodStats> _openPeriods = Collections.synchronizedMap(new LRUMap<String, PeriodStats>(MAX_PERIODS));
+    private final Map<String, PeriodStats> _pastPeriods = Collections.synchronizedMap(new LRUMap<String, PeriodStats>(MAX_PERIODS));
+    private final Map<String, Future<PeriodStats>> _loadingPeriods = new ConcurrentHashMap<String, Future<PeriodStats>>();
+    private final ScheduledExecutorService _executor;
+
+    /**
+     * Creates the aggregator.
+     * @param gameHistoryDAO the game history DAO
+     * @param refreshIntervalSeconds the seconds between reading the statistics again
+     */
+    public ServerStatsAggregator(GameHistoryDAO gameHistoryDAO, int refreshIntervalSeconds) {
+        _gameHistoryDAO = gameHistoryDAO;
+        _executor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "server-stats-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        _executor.scheduleWithFixedDelay(this::refresh, refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gets the statistics of the last day, the last week and all time, read from the game history the first time.
+     * @return the statistics
+     */
+    public Status getStatus() {
+        Status status = _status.get();
+        if (status == null) {
+            status = loadStatus(_gameHistoryDAO, System.currentTimeMillis());
+            if (!_status.compareAndSet(null, status))
+                status = _status.get();
+        }
+        return status;
+    }
+
+    /**
+     * Gets the statistics of a period, read from the game history the first time.
+     * @param from the start of the period
+     * @param duration the length of the period, in milliseconds
+     * @return the statistics
+     */
+    public PeriodStats getPeriodStats(long from, long duration) {
+        long now = System.currentTimeMillis();
+        if (from > now)
+            return new PeriodStats(from, duration, 0, 0, Collections.<String, Integer>emptyMap(), now);
+
+        String key = from + ":" + duration;
+        PeriodStats periodStats = getKeptPeriodStats(key);
+        if (periodStats != null)
+            return periodStats;
+
+        Future<PeriodStats> loading = _loadingPeriods.computeIfAbsent(key, loadingKey -> _executor.submit(() -> {
+            try {
+                PeriodStats loaded = getKeptPeriodStats(loadingKey);
+                if (loaded == null) {
+                    loaded = loadPeriodStats(_gameHistoryDAO, from, duration, System.currentTimeMillis());
+                    keepPeriodStats(loaded);
+                }
+                return loaded;
+            } finally {
+                _loadingPeriods.remove(loadingKey);
+            }
+        }));
+        try {
+            return loading.get();
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading the server statistics", exp);
+        } catch (ExecutionException exp) {
+            throw new RuntimeException("Unable to read the server statistics", exp.getCause());
+        }
+    }
+
+    private PeriodStats getKeptPeriodStats(String key) {
+        PeriodStats periodStats = _openPeriods.get(key);
+        return periodStats != null ? periodStats : _pastPeriods.get(key);
+    }
+
+    private void keepPeriodStats(PeriodStats periodStats) {
+        String key = periodStats._from + ":" + periodStats._duration;
+        if (periodStats.isOver()) {
+            _pastPeriods.put(key, periodStats);
+            _openPeriods.remove(key);
+        } else {
+            _openPeriods.put(key, periodStats);
+        }
+    }
+
+    /**
+     * Adds a finished game to the game counts, after it was added to the game history. A game that finished before the
+     * statistics were read from the game history is already counted in them.
+     * @param endDate the time the game finished
+     * @param formatName the format name
+     * @param tournament the tournament name, or null or Casual for a casual game
+     */
+    public void gameFinished(long endDate, String formatName, String tournament) {
+        boolean casual = tournament == null || tournament.equals("Casual");
+        _status.updateAndGet(status -> status != null && endDate >= status._refreshed ? status.withGame() : status);
+        // Only a period that is not over can have games finishing in it
+        _openPeriods.replaceAll((key, periodStats) ->
+                periodStats.contains(endDate) && endDate >= periodStats._refreshed ? periodStats.withGame(formatName, casual) : periodStats);
+    }
+
+    /**
+     * Reads again the statistics whose period was not over when they were last read.
+     */
+    void refresh() {
+        try {
+            long now = System.currentTimeMillis();
+            _status.set(loadStatus(_gameHistoryDAO, now));
+
+            // A game finishing while its period is read again may be missing from the counts until the next refresh
+            for (PeriodStats periodStats : new ArrayList<PeriodStats>(_openPeriods.values()))
+                keepPeriodStats(loadPeriodStats(_gameHistoryDAO, periodStats._from, periodStats._duration, now));
+        } catch (RuntimeException exp) {
+            LOG.error("Unable to refresh the server statistics", exp);
+        }
+    }
+
+    /**
+     * Reads the statistics of the last day, the last week and all time from the game history.
+     * @param gameHistoryDAO the game history DAO
+     * @param now the current time
+     * @return the statistics
+     */
+    static Status loadStatus(GameHistoryDAO gameHistoryDAO, long now) {
+        return new Status(
+                gameHistoryDAO.getActivePlayersCount(now - DAY, DAY),
+                gameHistoryDAO.getActivePlayersCount(now - WEEK, WEEK),
+                gameHistoryDAO.getActivePlayersCount(),
+                gameHistoryDAO.getGamesPlayedCount(now - DAY, DAY),
+                gameHistoryDAO.getGamesPlayedCount(now - WEEK, WEEK),
+                gameHistoryDAO.getGamesPlayedCount(),
+                now);
+    }
+
+    /**
+     * Reads the statistics of a period from the game history.
+     * @param gameHistoryDAO the game history DAO
+     * @param from the start of the period
+     * @param duration the length of the period, in milliseconds
+     * @param now the current time
+     * @return the statistics
+     */
+    static PeriodStats loadPeriodStats(GameHistoryDAO gameHistoryDAO, long from, long duration, long now) {
+        return new PeriodStats(from, duration,
+                gameHistoryDAO.getActivePlayersCount(from, duration),
+                gameHistoryDAO.getGamesPlayedCount(from, duration),
+                gameHistoryDAO.getCasualGamesPlayedPerFormat(from, duration),
+                now);
+    }
+
+    /**
+     * The statistics of the last day, the last week and all time.
+     */
+    public static class Status {
+        private final int _activePlayersLastDay;
+        private final int _activePlayersLastWeek;
+        private final int _activePlayersAllTime;
+        private final int _gamesPlayedLastDay;
+        private final int _gamesPlayedLastWeek;
+        private final int _gamesPlayedAllTime;
+        private final long _refreshed;
+
+        private Status(int activePlayersLastDay, int activePlayersLastWeek, int activePlayersAllTime,
+                       int gamesPlayedLastDay, int gamesPlayedLastWeek, int gamesPlayedAllTime, long refreshed) {
+            _activePlayersLastDay = activePlayersLastDay;
+            _activePlayersLastWeek = activePlayersLastWeek;
+            _activePlayersAllTime = activePlayersAllTime;
+            _gamesPlayedLastDay = gamesPlayedLastDay;
+            _gamesPlayedLastWeek = gamesPlayedLastWeek;
+            _gamesPlayedAllTime = gamesPlayedAllTime;
+            _refreshed = refreshed;
+        }
+
+        private Status withGame() {
+            return new Status(_activePlayersLastDay, _activePlayersLastWeek, _activePlayersAllTime,
+                    _gamesPlayedLastDay + 1, _gamesPlayedLastWeek + 1, _gamesPlayedAllTime + 1, _refreshed);
+        }
+
+        public int getActivePlayersLastDay() {
+            return _activePlayersLastDay;
+        }
+
+        public int getActivePlayersLastWeek() {
+            return _activePlayersLastWeek;
+        }
+
+        public int getActivePlayersAllTime() {
+            return _activePlayersAllTime;
+        }
+
+        public int getGamesPlayedLastDay() {
+            return _gamesPlayedLastDay;
+        }
+
+        public int getGamesPlayedLastWeek() {
+            return _gamesPlayedLastWeek;
+        }
+
+        public int getGamesPlayedAllTime() {
+            return _gamesPlayedAllTime;
+        }
+
+        /**
+         * Gets the time the statistics were read from the game history. The games finished since are counted.
+         * @return the time
+         */
+        public long getRefreshed() {
+            return _refreshed;
+        }
+    }
+
+    /**
+     * The statistics of a period.
+     */
+    public static class PeriodStats {
+        private final long _from;
+        private final long _duration;
+        private final int _activePlayers;
+        private final int _gamesCount;
+        private final Map<String, Integer> _casualGamesPerFormat;
+        private final GameHistoryStatistics _gameHistoryStatistics;
+        private final long _refreshed;
+
+        private PeriodStats(long from, long duration, int activePlayers, int gamesCount, Map<String, Integer> casualGamesPerFormat, long refreshed) {
+            _from = from;
+            _duration = duration;
+            _activePlayers = activePlayers;
+            _gamesCount = gamesCount;
+            _casualGamesPerFormat = casualGamesPerFormat;
+            _gameHistoryStatistics = new GameHistoryStatistics(from, duration);
+            _gameHistoryStatistics.init(casualGamesPerFormat);
+            _refreshed = refreshed;
+        }
+
+        private boolean contains(long time) {
+            return time >= _from && time < _from + _duration;
+        }
+
+        private boolean isOver() {
+            return _from + _duration <= _refreshed;
+        }
+
+        private PeriodStats withGame(String formatName, boolean casual) {
+            Map<String, Integer> casualGamesPerFormat = _casualGamesPerFormat;
+            if (casual) {
+                casualGamesPerFormat = new HashMap<String, Integer>(_casualGamesPerFormat);
+                casualGamesPerFormat.merge(formatName, 1, Integer::sum);
+            }
+            return new PeriodStats(_from, _duration, _activePlayers, _gamesCount + 1, casualGamesPerFormat, _refreshed);
+        }
+
+        public long getFrom() {
+            return _from;
+        }
+
+        public long getDuration() {
+            return _duration;
+        }
+
+        public int getActivePlayers() {
+            return _activePlayers;
+        }
+
+        public int getGamesCount() {
+            return _gamesCount;
+        }
+
+        public GameHistoryStatistics getGameHistoryStatistics() {
+            return _gameHistoryStatistics;
+        }
+
+        /**
+         * Gets the time the statistics were read from the game history. The games finished since are counted.
+         * @return the time
+         */
+        public long getRefreshed() {
+            return _refreshed;
+        }
+    }
+}
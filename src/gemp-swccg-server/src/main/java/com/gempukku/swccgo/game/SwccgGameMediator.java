@@ -13,7 +13,6 @@ import com.gempukku.swccgo.common.MovementDirection;
 import com.gempukku.swccgo.common.Phase;
 import com.gempukku.swccgo.common.Side;
 import com.gempukku.swccgo.common.TargetId;
-import com.gempukku.swccgo.common.Title;
 import com.gempukku.swccgo.common.Zone;
 import com.gempukku.swccgo.communication.GameStateListener;
 import com.gempukku.swccgo.db.vo.League;
@@ -29,6 +28,7 @@ import com.gempukku.swccgo.logic.modifiers.ModifierCollector;
 import com.gempukku.swccgo.logic.modifiers.ModifierCollectorImpl;
 import com.gempukku.swccgo.logic.modifiers.ModifierType;
 import com.gempukku.swccgo.logic.modifiers.querying.ModifiersQuerying;
+import com.gempukku.swccgo.logic.timing.DecisionLoopStatistics;
 import com.gempukku.swccgo.logic.timing.DefaultSwccgGame;
 import com.gempukku.swccgo.logic.timing.DefaultUserFeedback;
 import com.gempukku.swccgo.logic.timing.GameResultListener;
@@ -46,14 +46,25 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class SwccgGameMediator {
     private static final Logger LOG = LogManager.getLogger(SwccgGameMediator.class);
+    private static final LockWaitStatistics _lockWaitStatistics = new LockWaitStatistics();
+    private static final LongAdder _cardInfoCacheHits = new LongAdder();
+    private static final LongAdder _cardInfoCacheMisses = new LongAdder();
+    private static volatile ExecutorService _cardInfoPrecomputeExecutor;
 
     private Map<String, GameCommunicationChannel> _communicationChannels = Collections.synchronizedMap(new HashMap<String, GameCommunicationChannel>());
     private DefaultUserFeedback _userFeedback;
     private SwccgGame _swccgoGame;
+    private GameDecisionLog _decisionLog;
     private Map<String, Integer> _playerClocks = new HashMap<String, Integer>();
     private Map<String, Long> _decisionQuerySentTimes = new HashMap<String, Long>();
     private Set<SwccgGameParticipant> _playersPlaying = new HashSet<SwccgGameParticipant>();
@@ -75,9 +86,25 @@ public class SwccgGameMediator {
     private ReentrantReadWriteLock.WriteLock _writeLock = _lock.writeLock();
     private int _channelNextIndex;
     private volatile boolean _destroyed;
+    // Incremented each time the write lock is taken, which is required to change the game state
+    private volatile long _stateEpoch;
+    private final Map<Integer, CachedCardInfo> _cardInfoCache = new ConcurrentHashMap<Integer, CachedCardInfo>();
+    private final AtomicBoolean _cardInfoPrecomputePending = new AtomicBoolean();
+    private final Map<String, String> _deckArchetypeLabels = new ConcurrentHashMap<String, String>();
+    private final Map<String, PhysicalCard> _startingLocations = new HashMap<String, PhysicalCard>();
 
     public SwccgGameMediator(String gameId, SwccgFormat swccgFormat, League league, SwccgGameParticipant[] participants, SwccgCardBlueprintLibrary library, int maxSecondsForGamePerPlayer,
                              boolean allowSpectators, boolean cancelIfNoActions, boolean cancellable, boolean allowExtendGameTimer, int decisionTimeoutSeconds, boolean isPrivate, boolean useBonusAbilities) {
+        this(gameId, swccgFormat, league, participants, library, maxSecondsForGamePerPlayer, allowSpectators, cancelIfNoActions, cancellable,
+                allowExtendGameTimer, decisionTimeoutSeconds, isPrivate, useBonusAbilities, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a game with the given random seed, like a game being restored from its decision log.
+     */
+    public SwccgGameMediator(String gameId, SwccgFormat swccgFormat, League league, SwccgGameParticipant[] participants, SwccgCardBlueprintLibrary library, int maxSecondsForGamePerPlayer,
+                             boolean allowSpectators, boolean cancelIfNoActions, boolean cancellable, boolean allowExtendGameTimer, int decisionTimeoutSeconds, boolean isPrivate, boolean useBonusAbilities,
+                             long randomSeed) {
         _gameId = gameId;
         _maxSecondsForGamePerPlayer = maxSecondsForGamePerPlayer;
         _allowSpectators = allowSpectators;
@@ -100,8 +127,75 @@ public class SwccgGameMediator {
         }
 
         _userFeedback = new DefaultUserFeedback();
-        _swccgoGame = new DefaultSwccgGame(swccgFormat, decks, _userFeedback, library, _playerClocks, useBonusAbilities);
+        _swccgoGame = new DefaultSwccgGame(swccgFormat, decks, _userFeedback, library, _playerClocks, useBonusAbilities, randomSeed);
         _userFeedback.setGame(_swccgoGame);
+        _swccgoGame.getDecisionLoopStatistics().setGameId(gameId);
+        _decisionLog = new GameDecisionLog(gameId, swccgFormat.getName(), _swccgoGame.getRandomSeed(), useBonusAbilities, decks);
+    }
+
+    /**
+     * Gets the statistics of waiting for the game locks, across all games.
+     * @return the lock wait statistics
+     */
+    public static LockWaitStatistics getLockWaitStatistics() {
+        return _lockWaitStatistics;
+    }
+
+    /**
+     * Gets the statistics of the game engine runs between player decisions in this game.
+     * @return the decision loop statistics
+     */
+    public DecisionLoopStatistics getDecisionLoopStatistics() {
+        return _swccgoGame.getDecisionLoopStatistics();
+    }
+
+    /**
+     * Gets the log of everything put into the game so far, which can be used to play the game again.
+     * @return the decision log
+     */
+    public GameDecisionLog getDecisionLog() {
+        return _decisionLog;
+    }
+
+    /**
+     * Sets whether the card info of the cards on the table is rendered in the background after each change to the
+     * game state, so it is already cached when a player looks at a card.
+     * @param precompute true to render in the background, false to only render when asked for
+     */
+    public static synchronized void setPrecomputeCardInfo(boolean precompute) {
+        if (precompute && _cardInfoPrecomputeExecutor == null) {
+            _cardInfoPrecomputeExecutor = Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "card-info-precompute");
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    });
+        } else if (!precompute && _cardInfoPrecomputeExecutor != null) {
+            _cardInfoPrecomputeExecutor.shutdown();
+            _cardInfoPrecomputeExecutor = null;
+        }
+    }
+
+    public static long getCardInfoCacheHits() {
+        return _cardInfoCacheHits.sum();
+    }
+
+    public static long getCardInfoCacheMisses() {
+        return _cardInfoCacheMisses.sum();
+    }
+
+    private void lockRead() {
+        long start = System.nanoTime();
+        _readLock.lock();
+        _lockWaitStatistics.readLockAcquired(System.nanoTime() - start);
+    }
+
+    private void lockWrite() {
+        long start = System.nanoTime();
+        _writeLock.lock();
+        _lockWaitStatistics.writeLockAcquired(System.nanoTime() - start);
+        _stateEpoch++;
     }
 
     public boolean isPrivate() { return _isPrivate;};
@@ -132,11 +226,13 @@ public class SwccgGameMediator {
 
     public void setPlayerAutoPassSettings(String playerId, Set<Phase> phases) {
         if (isPlayerPlaying(playerId)) {
+            _decisionLog.autoPassSettingsChanged(playerId, phases);
             _swccgoGame.setPlayerAutoPassSettings(playerId, phases);
         }
     }
 
     public void sendMessageToPlayers(String message) {
+        _decisionLog.messageSent(message);
         _swccgoGame.getGameState().sendMessage(message);
     }
 
@@ -263,711 +359,782 @@ public class SwccgGameMediator {
      * @return the card information
      */
     public String produceCardInfo(Player player, int cardId) {
-        _readLock.lock();
+        // The epoch changes as soon as the write lock is taken, so card info of the current epoch can be given without
+        // waiting for the read lock
+        CachedCardInfo cachedCardInfo = _cardInfoCache.get(cardId);
+        if (cachedCardInfo != null && cachedCardInfo._stateEpoch == _stateEpoch) {
+            _cardInfoCacheHits.increment();
+            return cachedCardInfo._cardInfo;
+        }
+
+        lockRead();
         try {
-            StringBuilder sb = new StringBuilder();
-            GameState gameState = _swccgoGame.getGameState();
-            ModifiersQuerying modifiersQuerying = _swccgoGame.getModifiersQuerying();
-            ModifierCollector modifierCollector = new ModifierCollectorImpl();
-            String darkPlayer = _swccgoGame.getDarkPlayer();
-            String lightPlayer = _swccgoGame.getLightPlayer();
-            PhysicalCard card = gameState.findCardById(cardId);
-            if (card == null) {
-                return sb.toString();
-            }
-            Zone cardZone = card.getZone();
-            if (cardZone == null) {
-                return sb.toString();
-            }
+            long stateEpoch = _stateEpoch;
+            _cardInfoCacheMisses.increment();
+            String cardInfo = renderCardInfo(cardId);
+            _cardInfoCache.put(cardId, new CachedCardInfo(stateEpoch, cardInfo));
+            return cardInfo;
+        } finally {
+            _readLock.unlock();
+        }
+    }
 
-            // Show special card indicators
-            if (card.isBluffCard()) {
-                sb.append("<div>").append("Bluff card").append("</div>");
-            }
-            if (card.isCombatCard()) {
-                sb.append("<div>").append("Combat card").append("</div>");
-            }
-            if (card.isProbeCard()) {
-                sb.append("<div>").append("Probe card").append("</div>");
-            }
-            if (card.isLiberationCard()) {
-                sb.append("<div>").append("Liberation card").append("</div>");
-            }
-            if (card.isHatredCard()) {
-                sb.append("<div>").append("'Hatred' card").append("</div>");
-            }
-            if (card.isEnslavedCard()) {
-                sb.append("<div>").append("'Enslaved' card").append("</div>");
+    /**
+     * Renders the card info of the cards on the table in the background, unless already scheduled for this game. Each
+     * card is rendered under its own read lock, so a decision waiting for the write lock only waits for one card, and
+     * the rendering stops once the game state changes.
+     */
+    private void schedulePrecomputeCardInfo() {
+        ExecutorService executor = _cardInfoPrecomputeExecutor;
+        if (executor == null || _destroyed || !_cardInfoPrecomputePending.compareAndSet(false, true))
+            return;
+
+        executor.execute(() -> {
+            _cardInfoPrecomputePending.set(false);
+            long stateEpoch;
+            List<Integer> cardIds = new ArrayList<Integer>();
+            lockRead();
+            try {
+                if (_destroyed || _swccgoGame.getGameState() == null)
+                    return;
+                stateEpoch = _stateEpoch;
+                for (PhysicalCard card : _swccgoGame.getGameState().getAllPermanentCards()) {
+                    Zone zone = card.getZone();
+                    if (zone != null && zone.isInPlay())
+                        cardIds.add(card.getCardId());
+                }
+            } finally {
+                _readLock.unlock();
+            }
+
+            for (Integer cardId : cardIds) {
+                if (_stateEpoch != stateEpoch)
+                    return;
+                lockRead();
+                try {
+                    if (_destroyed || _stateEpoch != stateEpoch)
+                        return;
+                    CachedCardInfo cachedCardInfo = _cardInfoCache.get(cardId);
+                    if (cachedCardInfo == null || cachedCardInfo._stateEpoch != stateEpoch)
+                        _cardInfoCache.put(cardId, new CachedCardInfo(stateEpoch, renderCardInfo(cardId)));
+                } catch (RuntimeException exp) {
+                    LOG.warn("Unable to precompute card info for game " + _gameId, exp);
+                    return;
+                } finally {
+                    _readLock.unlock();
+                }
             }
-            if (card.isCoaxiumCard()) {
-                sb.append("<div>").append("'Coaxium' card").append("</div>");
+        });
+    }
+
+    /**
+     * Renders the card info of a card, while holding the read lock.
+     * @param cardId the card id
+     * @return the card info
+     */
+    private String renderCardInfo(int cardId) {
+        StringBuilder sb = new StringBuilder();
+        GameState gameState = _swccgoGame.getGameState();
+        ModifiersQuerying modifiersQuerying = _swccgoGame.getModifiersQuerying();
+        ModifierCollector modifierCollector = new ModifierCollectorImpl();
+        String darkPlayer = _swccgoGame.getDarkPlayer();
+        String lightPlayer = _swccgoGame.getLightPlayer();
+        PhysicalCard card = gameState.findCardById(cardId);
+        if (card == null) {
+            return sb.toString();
+        }
+        Zone cardZone = card.getZone();
+        if (cardZone == null) {
+            return sb.toString();
+        }
+
+        // Show special card indicators
+        if (card.isBluffCard()) {
+            sb.append("<div>").append("Bluff card").append("</div>");
+        }
+        if (card.isCombatCard()) {
+            sb.append("<div>").append("Combat card").append("</div>");
+        }
+        if (card.isProbeCard()) {
+            sb.append("<div>").append("Probe card").append("</div>");
+        }
+        if (card.isLiberationCard()) {
+            sb.append("<div>").append("Liberation card").append("</div>");
+        }
+        if (card.isHatredCard()) {
+            sb.append("<div>").append("'Hatred' card").append("</div>");
+        }
+        if (card.isEnslavedCard()) {
+            sb.append("<div>").append("'Enslaved' card").append("</div>");
+        }
+        if (card.isCoaxiumCard()) {
+            sb.append("<div>").append("'Coaxium' card").append("</div>");
+        }
+
+        if (cardZone.isInPlay() || cardZone == Zone.HAND) {
+
+            // Show owner (and if stolen)
+            sb.append("<div>");
+            sb.append("Owner: ").append(card.getOwner());
+            if (card.isStolen()) {
+                sb.append(" ('stolen')");
             }
+            sb.append("</div>");
+            sb.append("<br>");
 
-            if (cardZone.isInPlay() || cardZone == Zone.HAND) {
+            // Show location-specific information (if applicable)
+            if (card.getBlueprint().getCardCategory() == CardCategory.LOCATION) {
 
-                // Show owner (and if stolen)
+                // Battleground
+                boolean battleground = modifiersQuerying.isBattleground(gameState, card, null, modifierCollector);
                 sb.append("<div>");
-                sb.append("Owner: ").append(card.getOwner());
-                if (card.isStolen()) {
-                    sb.append(" ('stolen')");
-                }
+                sb.append("Battleground: ").append(battleground ? "Yes" : "No");
+                sb.append(produceModifierText(modifierCollector, card));
+                sb.append("</div>");
+
+                // Force drain amount
+                float darkForceDrainAmount = modifiersQuerying.getForceDrainAmount(gameState, card, darkPlayer, modifierCollector);
+                sb.append("<div>");
+                sb.append("Force drain amount (Dark): ").append(GuiUtils.formatAsString(darkForceDrainAmount));
+                sb.append(produceModifierText(modifierCollector, card));
+                sb.append("</div>");
+                float lightForceDrainAmount = modifiersQuerying.getForceDrainAmount(gameState, card, lightPlayer, modifierCollector);
+                sb.append("<div>");
+                sb.append("Force drain amount (Light): ").append(GuiUtils.formatAsString(lightForceDrainAmount));
+                sb.append(produceModifierText(modifierCollector, card));
                 sb.append("</div>");
-                sb.append("<br>");
 
-                // Show location-specific information (if applicable)
-                if (card.getBlueprint().getCardCategory() == CardCategory.LOCATION) {
+                // Force generation
+                float darkForceGeneration = modifiersQuerying.getForceGenerationFromLocation(gameState, card, darkPlayer, modifierCollector);
+                sb.append("<div>");
+                sb.append("Force generation (Dark): ").append(GuiUtils.formatAsString(darkForceGeneration));
+                sb.append(produceModifierText(modifierCollector, card));
+                sb.append("</div>");
+                float lightForceGeneration = modifiersQuerying.getForceGenerationFromLocation(gameState, card, lightPlayer, modifierCollector);
+                sb.append("<div>");
+                sb.append("Force generation (Light): ").append(GuiUtils.formatAsString(lightForceGeneration));
+                sb.append(produceModifierText(modifierCollector, card));
+                sb.append("</div>");
 
-                    // Battleground
-                    boolean battleground = modifiersQuerying.isBattleground(gameState, card, null, modifierCollector);
+                // Force icons
+                int darkForceIcons = modifiersQuerying.getIconCount(gameState, card, Icon.DARK_FORCE, modifierCollector);
+                sb.append("<div>");
+                sb.append("Force icons (Dark): ").append(darkForceIcons);
+                sb.append(produceModifierText(modifierCollector, card));
+                sb.append("</div>");
+                int lightForceIcons = modifiersQuerying.getIconCount(gameState, card, Icon.LIGHT_FORCE, modifierCollector);
+                sb.append("<div>");
+                sb.append("Force icons (Light): ").append(lightForceIcons);
+                sb.append(produceModifierText(modifierCollector, card));
+                sb.append("</div>");
+
+                // Show parsec and related system info (if applicable)
+                if (card.getSystemOrbited() != null) {
+                    PhysicalCard planet = Filters.findFirstFromTopLocationsOnTable(_swccgoGame, Filters.and(Filters.system, Filters.title(card.getSystemOrbited())));
+                    if (planet != null) {
+                        if (Filters.mobile_system.accepts(gameState, modifiersQuerying, card)) {
+                            sb.append("<div>");
+                            sb.append("Parsec: ").append(card.getParsec()).append(" (Orbiting: ").append(GameUtils.getCardLink(planet)).append(")");
+                            sb.append("</div>");
+                        } else if (Filters.asteroid_sector.accepts(gameState, modifiersQuerying, card)) {
+                            sb.append("<div>");
+                            sb.append("Related to: ").append(GameUtils.getCardLink(planet));
+                            sb.append("</div>");
+                        } else if (Filters.Big_One_Asteroid_Cave_Or_Space_Slug_Belly.accepts(gameState, modifiersQuerying, card)) {
+                            PhysicalCard bigOne = Filters.findFirstFromTopLocationsOnTable(_swccgoGame, Filters.and(Filters.Big_One, Filters.isOrbiting(card.getSystemOrbited())));
+                            sb.append("<div>");
+                            sb.append("Related to: ").append(GameUtils.getCardLink(bigOne));
+                            sb.append("</div>");
+                        }
+                    } else {
+                        sb.append("<div>");
+                        sb.append("Parsec: ").append(card.getParsec()).append(" (Orbiting: Unnamed System)");
+                        sb.append("</div>");
+                    }
+                } else if (Filters.mobile_system.accepts(gameState, modifiersQuerying, card)) {
+                    sb.append("<div>");
+                    sb.append("Parsec: ").append(card.getParsec()).append(" (Deep Space)");
+                    sb.append("</div>");
+                }
+                if (card.getRelatedStarshipOrVehicle() != null) {
                     sb.append("<div>");
-                    sb.append("Battleground: ").append(battleground ? "Yes" : "No");
+                    sb.append("Related to: ").append(GameUtils.getCardLink(card.getRelatedStarshipOrVehicle()));
+                    sb.append("</div>");
+                }
+            } else {
+
+                // Show ability (if applicable)
+                if (card.getBlueprint().hasAbilityAttribute() || card.isDejarikHologramAtHolosite()) {
+                    float ability = modifiersQuerying.getAbility(gameState, card, modifierCollector);
+                    sb.append("<div>");
+                    sb.append("Ability: ").append(GuiUtils.formatAsString(ability));
                     sb.append(produceModifierText(modifierCollector, card));
                     sb.append("</div>");
+                }
 
-                    // Force drain amount
-                    float darkForceDrainAmount = modifiersQuerying.getForceDrainAmount(gameState, card, darkPlayer, modifierCollector);
+                // Show armor (if applicable)
+                if (card.getBlueprint().hasArmorAttribute()) {
+                    float armor = modifiersQuerying.getArmor(gameState, card, modifierCollector);
                     sb.append("<div>");
-                    sb.append("Force drain amount (Dark): ").append(GuiUtils.formatAsString(darkForceDrainAmount));
+                    sb.append("Armor: ").append(GuiUtils.formatAsString(armor));
                     sb.append(produceModifierText(modifierCollector, card));
                     sb.append("</div>");
-                    float lightForceDrainAmount = modifiersQuerying.getForceDrainAmount(gameState, card, lightPlayer, modifierCollector);
+                }
+
+                // Show defense value (if applicable)
+                if (card.getBlueprint().hasAbilityAttribute() || card.getBlueprint().hasManeuverAttribute()
+                        || card.getBlueprint().hasArmorAttribute() || card.getBlueprint().hasSpecialDefenseValueAttribute()
+                        || card.isDejarikHologramAtHolosite()) {
+                    float forfeit = modifiersQuerying.getDefenseValue(gameState, card, modifierCollector);
                     sb.append("<div>");
-                    sb.append("Force drain amount (Light): ").append(GuiUtils.formatAsString(lightForceDrainAmount));
+                    sb.append("Defense value: ").append(GuiUtils.formatAsString(forfeit));
                     sb.append(produceModifierText(modifierCollector, card));
                     sb.append("</div>");
+                }
 
-                    // Force generation
-                    float darkForceGeneration = modifiersQuerying.getForceGenerationFromLocation(gameState, card, darkPlayer, modifierCollector);
+                // Show destiny
+                float destiny = modifiersQuerying.getDestiny(gameState, card, modifierCollector);
+                sb.append("<div>");
+                sb.append("Destiny: ").append(GuiUtils.formatAsString(destiny));
+                sb.append(produceModifierText(modifierCollector, card));
+                sb.append("</div>");
+
+                // Show ferocity (if applicable)
+                if (card.getBlueprint().hasFerocityAttribute()) {
+                    Float ferocityDestinyInAttack = gameState.isDuringAttack() ? gameState.getAttackState().getFerocityDestinyTotal(card) : null;
+                    float ferocity = modifiersQuerying.getFerocity(gameState, card, ferocityDestinyInAttack, modifierCollector);
                     sb.append("<div>");
-                    sb.append("Force generation (Dark): ").append(GuiUtils.formatAsString(darkForceGeneration));
+                    sb.append("Ferocity: ").append(GuiUtils.formatAsString(ferocity));
                     sb.append(produceModifierText(modifierCollector, card));
                     sb.append("</div>");
-                    float lightForceGeneration = modifiersQuerying.getForceGenerationFromLocation(gameState, card, lightPlayer, modifierCollector);
+                }
+
+                // Show forfeit (if applicable)
+                if (card.getBlueprint().hasForfeitAttribute()) {
+                    float forfeit = modifiersQuerying.getForfeit(gameState, card, modifierCollector);
                     sb.append("<div>");
-                    sb.append("Force generation (Light): ").append(GuiUtils.formatAsString(lightForceGeneration));
+                    sb.append("Forfeit: ").append(GuiUtils.formatAsString(forfeit));
                     sb.append(produceModifierText(modifierCollector, card));
                     sb.append("</div>");
+                }
 
-                    // Force icons
-                    int darkForceIcons = modifiersQuerying.getIconCount(gameState, card, Icon.DARK_FORCE, modifierCollector);
+                // Show if card gametext is canceled
+                if (card.isGameTextCanceled()
+                        || (card.isLocationGameTextCanceledForPlayer(darkPlayer) && card.isLocationGameTextCanceledForPlayer(lightPlayer))) {
+                    modifiersQuerying.getCardsMarkingGameTextCanceled(gameState, card, modifierCollector);
+                    modifiersQuerying.getCardsMarkingGameTextCanceledForPlayer(gameState, card, darkPlayer, modifierCollector);
+                    modifiersQuerying.getCardsMarkingGameTextCanceledForPlayer(gameState, card, lightPlayer, modifierCollector);
                     sb.append("<div>");
-                    sb.append("Force icons (Dark): ").append(darkForceIcons);
+                    sb.append("Game text canceled: Yes");
                     sb.append(produceModifierText(modifierCollector, card));
                     sb.append("</div>");
-                    int lightForceIcons = modifiersQuerying.getIconCount(gameState, card, Icon.LIGHT_FORCE, modifierCollector);
+                } else if (card.isLocationGameTextCanceledForPlayer(darkPlayer)) {
+                    modifiersQuerying.getCardsMarkingGameTextCanceledForPlayer(gameState, card, darkPlayer, modifierCollector);
                     sb.append("<div>");
-                    sb.append("Force icons (Light): ").append(lightForceIcons);
+                    sb.append("Game text canceled: Dark Side");
                     sb.append(produceModifierText(modifierCollector, card));
                     sb.append("</div>");
+                } else if (card.isLocationGameTextCanceledForPlayer(lightPlayer)) {
+                    modifiersQuerying.getCardsMarkingGameTextCanceledForPlayer(gameState, card, lightPlayer, modifierCollector);
+                    sb.append("<div>");
+                    sb.append("Game text canceled: Light Side");
+                    sb.append(produceModifierText(modifierCollector, card));
+                    sb.append("</div>");
+                }
 
-                    // Show parsec and related system info (if applicable)
-                    if (card.getSystemOrbited() != null) {
-                        PhysicalCard planet = Filters.findFirstFromTopLocationsOnTable(_swccgoGame, Filters.and(Filters.system, Filters.title(card.getSystemOrbited())));
-                        if (planet != null) {
-                            if (Filters.mobile_system.accepts(gameState, modifiersQuerying, card)) {
-                                sb.append("<div>");
-                                sb.append("Parsec: ").append(card.getParsec()).append(" (Orbiting: ").append(GameUtils.getCardLink(planet)).append(")");
-                                sb.append("</div>");
-                            } else if (Filters.asteroid_sector.accepts(gameState, modifiersQuerying, card)) {
-                                sb.append("<div>");
-                                sb.append("Related to: ").append(GameUtils.getCardLink(planet));
-                                sb.append("</div>");
-                            } else if (Filters.Big_One_Asteroid_Cave_Or_Space_Slug_Belly.accepts(gameState, modifiersQuerying, card)) {
-                                PhysicalCard bigOne = Filters.findFirstFromTopLocationsOnTable(_swccgoGame, Filters.and(Filters.Big_One, Filters.isOrbiting(card.getSystemOrbited())));
-                                sb.append("<div>");
-                                sb.append("Related to: ").append(GameUtils.getCardLink(bigOne));
-                                sb.append("</div>");
-                            }
-                        } else {
-                            sb.append("<div>");
-                            sb.append("Parsec: ").append(card.getParsec()).append(" (Orbiting: Unnamed System)");
-                            sb.append("</div>");
-                        }
-                    } else if (Filters.mobile_system.accepts(gameState, modifiersQuerying, card)) {
-                        sb.append("<div>");
-                        sb.append("Parsec: ").append(card.getParsec()).append(" (Deep Space)");
-                        sb.append("</div>");
-                    }
-                    if (card.getRelatedStarshipOrVehicle() != null) {
-                        sb.append("<div>");
-                        sb.append("Related to: ").append(GameUtils.getCardLink(card.getRelatedStarshipOrVehicle()));
-                        sb.append("</div>");
-                    }
-                } else {
+                // Show hyperspeed (if applicable)
+                if (card.getBlueprint().hasHyperspeedAttribute() && !modifiersQuerying.hasNoHyperdrive(gameState, card)) {
+                    float hyperspeed = modifiersQuerying.getHyperspeed(gameState, card, modifierCollector);
+                    sb.append("<div>");
+                    sb.append("Hyperspeed: ").append(GuiUtils.formatAsString(hyperspeed));
+                    sb.append(produceModifierText(modifierCollector, card));
+                    sb.append("</div>");
+                }
 
-                    // Show ability (if applicable)
-                    if (card.getBlueprint().hasAbilityAttribute() || card.isDejarikHologramAtHolosite()) {
-                        float ability = modifiersQuerying.getAbility(gameState, card, modifierCollector);
+                // Show immunity to attrition (if applicable)
+                if (card.getBlueprint().hasImmunityToAttritionAttribute()) {
+                    float immunityToAttritionLessThan = modifiersQuerying.getImmunityToAttritionLessThan(gameState, card, modifierCollector);
+                    float immunityToAttritionOfExactly = modifiersQuerying.getImmunityToAttritionOfExactly(gameState, card, modifierCollector);
+                    if (immunityToAttritionLessThan == Float.MAX_VALUE) {
                         sb.append("<div>");
-                        sb.append("Ability: ").append(GuiUtils.formatAsString(ability));
+                        sb.append("Immunity to attrition: All");
                         sb.append(produceModifierText(modifierCollector, card));
                         sb.append("</div>");
-                    }
-
-                    // Show armor (if applicable)
-                    if (card.getBlueprint().hasArmorAttribute()) {
-                        float armor = modifiersQuerying.getArmor(gameState, card, modifierCollector);
+                    } else if (immunityToAttritionLessThan > 0 || immunityToAttritionOfExactly > 0) {
                         sb.append("<div>");
-                        sb.append("Armor: ").append(GuiUtils.formatAsString(armor));
+                        if (immunityToAttritionOfExactly >= immunityToAttritionLessThan)
+                            sb.append("Immunity to attrition: Exactly ").append(GuiUtils.formatAsString(immunityToAttritionOfExactly));
+                        else
+                            sb.append("Immunity to attrition: Less than ").append(GuiUtils.formatAsString(immunityToAttritionLessThan));
                         sb.append(produceModifierText(modifierCollector, card));
                         sb.append("</div>");
                     }
+                }
 
-                    // Show defense value (if applicable)
-                    if (card.getBlueprint().hasAbilityAttribute() || card.getBlueprint().hasManeuverAttribute()
-                            || card.getBlueprint().hasArmorAttribute() || card.getBlueprint().hasSpecialDefenseValueAttribute()
-                            || card.isDejarikHologramAtHolosite()) {
-                        float forfeit = modifiersQuerying.getDefenseValue(gameState, card, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Defense value: ").append(GuiUtils.formatAsString(forfeit));
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
+                // Show keywords attributes
+                StringBuilder keywordSb = new StringBuilder();
+                for (Keyword keyword : Keyword.values()) {
+                    if (keyword.isInfoDisplayable()) {
+                        if (modifiersQuerying.hasKeyword(gameState, card, keyword)) {
+                            keywordSb.append(keyword.getHumanReadable()).append(", ");
+                        }
                     }
+                }
+                if (keywordSb.length() > 2) {
+                    keywordSb.setLength(keywordSb.length() - 2);
+                    sb.append("<div>");
+                    sb.append("Keywords: ").append(keywordSb);
+                    sb.append(produceModifierText(modifierCollector, card));
+                    sb.append("</div>");
+                }
 
-                    // Show destiny
-                    float destiny = modifiersQuerying.getDestiny(gameState, card, modifierCollector);
+                // Show landspeed (if applicable)
+                if (card.getBlueprint().hasLandspeedAttribute()) {
+                    float landspeed = modifiersQuerying.getLandspeed(gameState, card, modifierCollector);
                     sb.append("<div>");
-                    sb.append("Destiny: ").append(GuiUtils.formatAsString(destiny));
+                    sb.append("Landspeed: ").append(GuiUtils.formatAsString(landspeed));
                     sb.append(produceModifierText(modifierCollector, card));
                     sb.append("</div>");
+                }
 
-                    // Show ferocity (if applicable)
-                    if (card.getBlueprint().hasFerocityAttribute()) {
-                        Float ferocityDestinyInAttack = gameState.isDuringAttack() ? gameState.getAttackState().getFerocityDestinyTotal(card) : null;
-                        float ferocity = modifiersQuerying.getFerocity(gameState, card, ferocityDestinyInAttack, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Ferocity: ").append(GuiUtils.formatAsString(ferocity));
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    }
+                // Show maneuver (if applicable)
+                if (card.getBlueprint().hasManeuverAttribute()) {
+                    float maneuver = modifiersQuerying.getManeuver(gameState, card, modifierCollector);
+                    sb.append("<div>");
+                    sb.append("Maneuver: ").append(GuiUtils.formatAsString(maneuver));
+                    sb.append(produceModifierText(modifierCollector, card));
+                    sb.append("</div>");
+                }
 
-                    // Show forfeit (if applicable)
-                    if (card.getBlueprint().hasForfeitAttribute()) {
-                        float forfeit = modifiersQuerying.getForfeit(gameState, card, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Forfeit: ").append(GuiUtils.formatAsString(forfeit));
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
+                // Show Space Slug mouth (if applicable)
+                if (Filters.Space_Slug.accepts(_swccgoGame, card)) {
+                    sb.append("<div>");
+                    if (card.isMouthClosed()) {
+                        sb.append("Mouth: Closed");
+                    } else {
+                        sb.append("Mouth: Open");
                     }
+                    sb.append("</div>");
+                }
 
-                    // Show if card gametext is canceled
-                    if (card.isGameTextCanceled()
-                            || (card.isLocationGameTextCanceledForPlayer(darkPlayer) && card.isLocationGameTextCanceledForPlayer(lightPlayer))) {
-                        modifiersQuerying.getCardsMarkingGameTextCanceled(gameState, card, modifierCollector);
-                        modifiersQuerying.getCardsMarkingGameTextCanceledForPlayer(gameState, card, darkPlayer, modifierCollector);
-                        modifiersQuerying.getCardsMarkingGameTextCanceledForPlayer(gameState, card, lightPlayer, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Game text canceled: Yes");
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    } else if (card.isLocationGameTextCanceledForPlayer(darkPlayer)) {
-                        modifiersQuerying.getCardsMarkingGameTextCanceledForPlayer(gameState, card, darkPlayer, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Game text canceled: Dark Side");
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    } else if (card.isLocationGameTextCanceledForPlayer(lightPlayer)) {
-                        modifiersQuerying.getCardsMarkingGameTextCanceledForPlayer(gameState, card, lightPlayer, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Game text canceled: Light Side");
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    }
+                // Show movement direction
+                if (card.getMovementDirection() == MovementDirection.LEFT) {
+                    sb.append("<div>");
+                    sb.append("Movement direction: Left");
+                    sb.append("</div>");
+                } else if (card.getMovementDirection() == MovementDirection.RIGHT) {
+                    sb.append("<div>");
+                    sb.append("Movement direction: Right");
+                    sb.append("</div>");
+                }
 
-                    // Show hyperspeed (if applicable)
-                    if (card.getBlueprint().hasHyperspeedAttribute() && !modifiersQuerying.hasNoHyperdrive(gameState, card)) {
-                        float hyperspeed = modifiersQuerying.getHyperspeed(gameState, card, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Hyperspeed: ").append(GuiUtils.formatAsString(hyperspeed));
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    }
+                // Show politics (if applicable)
+                if (card.getBlueprint().hasPoliticsAttribute()) {
+                    float politics = modifiersQuerying.getPolitics(gameState, card, modifierCollector);
+                    sb.append("<div>");
+                    sb.append("Politics: ").append(GuiUtils.formatAsString(politics));
+                    sb.append(produceModifierText(modifierCollector, card));
+                    sb.append("</div>");
+                }
 
-                    // Show immunity to attrition (if applicable)
-                    if (card.getBlueprint().hasImmunityToAttritionAttribute()) {
-                        float immunityToAttritionLessThan = modifiersQuerying.getImmunityToAttritionLessThan(gameState, card, modifierCollector);
-                        float immunityToAttritionOfExactly = modifiersQuerying.getImmunityToAttritionOfExactly(gameState, card, modifierCollector);
-                        if (immunityToAttritionLessThan == Float.MAX_VALUE) {
-                            sb.append("<div>");
-                            sb.append("Immunity to attrition: All");
-                            sb.append(produceModifierText(modifierCollector, card));
-                            sb.append("</div>");
-                        } else if (immunityToAttritionLessThan > 0 || immunityToAttritionOfExactly > 0) {
-                            sb.append("<div>");
-                            if (immunityToAttritionOfExactly >= immunityToAttritionLessThan)
-                                sb.append("Immunity to attrition: Exactly ").append(GuiUtils.formatAsString(immunityToAttritionOfExactly));
-                            else
-                                sb.append("Immunity to attrition: Less than ").append(GuiUtils.formatAsString(immunityToAttritionLessThan));
-                            sb.append(produceModifierText(modifierCollector, card));
-                            sb.append("</div>");
-                        }
-                    }
+                // Show power (if applicable)
+                if (card.getBlueprint().hasPowerAttribute()) {
+                    float power = modifiersQuerying.getPower(gameState, card, modifierCollector);
+                    sb.append("<div>");
+                    sb.append("Power: ").append(GuiUtils.formatAsString(power));
+                    sb.append(produceModifierText(modifierCollector, card));
+                    sb.append("</div>");
+                }
 
-                    // Show keywords attributes
-                    StringBuilder keywordSb = new StringBuilder();
-                    for (Keyword keyword : Keyword.values()) {
-                        if (keyword.isInfoDisplayable()) {
-                            if (modifiersQuerying.hasKeyword(gameState, card, keyword)) {
-                                keywordSb.append(keyword.getHumanReadable()).append(", ");
-                            }
-                        }
-                    }
-                    if (keywordSb.length() > 2) {
-                        keywordSb.setLength(keywordSb.length() - 2);
-                        sb.append("<div>");
-                        sb.append("Keywords: ").append(keywordSb);
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    }
+                // Show race destiny (if applicable)
+                if (card.getRaceDestinyForPlayer() != null) {
+                    float raceDestiny = modifiersQuerying.getRaceDestiny(gameState, card, modifierCollector);
+                    PhysicalCard stackedOn = card.getStackedOn();
+                    String forPlayerText = (stackedOn != null && !Filters.Podracer.accepts(gameState, modifiersQuerying, stackedOn)) ? (" for " + gameState.getSide(card.getRaceDestinyForPlayer()).getHumanReadable()) : "";
+                    sb.append("<div>");
+                    sb.append("Race destiny").append(forPlayerText).append(": ").append(GuiUtils.formatAsString(raceDestiny));
+                    sb.append(produceModifierText(modifierCollector, card));
+                    sb.append("</div>");
+                }
 
-                    // Show landspeed (if applicable)
-                    if (card.getBlueprint().hasLandspeedAttribute()) {
-                        float landspeed = modifiersQuerying.getLandspeed(gameState, card, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Landspeed: ").append(GuiUtils.formatAsString(landspeed));
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    }
+                // Show species
+                if (card.getBlueprint().hasSpeciesAttribute() && card.getBlueprint().getSpecies() != null && card.getBlueprint().getSpecies().isInfoDisplayable()) {
+                    sb.append("<div>");
+                    sb.append("Species: ");
+                    sb.append(card.getBlueprint().getSpecies().getHumanReadable());
+                    sb.append("</div>");
+                }
 
-                    // Show maneuver (if applicable)
-                    if (card.getBlueprint().hasManeuverAttribute()) {
-                        float maneuver = modifiersQuerying.getManeuver(gameState, card, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Maneuver: ").append(GuiUtils.formatAsString(maneuver));
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    }
+                // Show if card gametext is canceled
+                if (card.isSuspended()) {
+                    modifiersQuerying.getCardsMarkingCardSuspended(gameState, card, modifierCollector);
+                    sb.append("<div>");
+                    sb.append("Suspended: Yes");
+                    sb.append(produceModifierText(modifierCollector, card));
+                    sb.append("</div>");
+                }
 
-                    // Show Space Slug mouth (if applicable)
-                    if (Filters.Space_Slug.accepts(_swccgoGame, card)) {
-                        sb.append("<div>");
-                        if (card.isMouthClosed()) {
-                            sb.append("Mouth: Closed");
-                        } else {
-                            sb.append("Mouth: Open");
-                        }
-                        sb.append("</div>");
-                    }
+                // Show other card attributes (if applicable)
+                StringBuilder otherAttrSb = new StringBuilder();
+                if (gameState.isApprentice(card)) {
+                    otherAttrSb.append("Apprentice, ");
+                }
+                if (card.isBlownAway()) {
+                    otherAttrSb.append("Blown Away, ");
+                }
+                if (card.isCollapsed()) {
+                    otherAttrSb.append("Collapsed, ");
+                }
+                if (card.isConcealed()) {
+                    otherAttrSb.append("Concealed, ");
+                }
+                if (card.isCrashed()) {
+                    otherAttrSb.append("Crashed, ");
+                }
+                if (card.isCrossedOver()) {
+                    otherAttrSb.append("Crossed Over, ");
+                }
+                if (card.isDamaged()) {
+                    otherAttrSb.append("Damaged, ");
+                }
+                if (card.isHit()) {
+                    otherAttrSb.append("Hit, ");
+                }
+                if (card.isImprisoned()) {
+                    otherAttrSb.append("Imprisoned, ");
+                }
+                if (card.isFrozen()) {
+                    otherAttrSb.append("Frozen, ");
+                }
+                if (card.isMakingBombingRun()) {
+                    otherAttrSb.append("Making Bombing Run, ");
+                }
+                if (card.isMissing()) {
+                    otherAttrSb.append("Missing, ");
+                }
+                if (card.getSoupEaten() != null) {
+                    otherAttrSb.append("Soup Eaten, ");
+                }
+                if (card.isSpaceSlugBelly()) {
+                    otherAttrSb.append("Space Slug Belly, ");
+                }
+                if (card.isBinaryOff()) {
+                    otherAttrSb.append("Turned Off, ");
+                }
+                if (card.isUndercover()) {
+                    otherAttrSb.append("Undercover, ");
+                }
+                if (otherAttrSb.length() > 2) {
+                    otherAttrSb.setLength(otherAttrSb.length() - 2);
+                    sb.append("<br>");
+                    sb.append("<div>");
+                    sb.append("Other attributes: ").append(otherAttrSb);
+                    sb.append("</div>");
+                }
 
-                    // Show movement direction
-                    if (card.getMovementDirection() == MovementDirection.LEFT) {
-                        sb.append("<div>");
-                        sb.append("Movement direction: Left");
-                        sb.append("</div>");
-                    } else if (card.getMovementDirection() == MovementDirection.RIGHT) {
-                        sb.append("<div>");
-                        sb.append("Movement direction: Right");
-                        sb.append("</div>");
-                    }
+                // Show other displayable information (if applicable)
+                String extraDisplayableInformation = card.getBlueprint().getDisplayableInformation(_swccgoGame, card);
+                if (extraDisplayableInformation != null) {
+                    sb.append("<div>");
+                    sb.append("Extra information: ").append(extraDisplayableInformation);
+                    sb.append("</div>");
+                }
 
-                    // Show politics (if applicable)
-                    if (card.getBlueprint().hasPoliticsAttribute()) {
-                        float politics = modifiersQuerying.getPolitics(gameState, card, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Politics: ").append(GuiUtils.formatAsString(politics));
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    }
+                sb.append("<br>");
 
-                    // Show power (if applicable)
-                    if (card.getBlueprint().hasPowerAttribute()) {
-                        float power = modifiersQuerying.getPower(gameState, card, modifierCollector);
-                        sb.append("<div>");
-                        sb.append("Power: ").append(GuiUtils.formatAsString(power));
-                        sb.append(produceModifierText(modifierCollector, card));
-                        sb.append("</div>");
-                    }
+                // Cards aboard this card (if applicable)
+                if (card.getBlueprint().getCardCategory() == CardCategory.STARSHIP || card.getBlueprint().getCardCategory() == CardCategory.VEHICLE) {
 
-                    // Show race destiny (if applicable)
-                    if (card.getRaceDestinyForPlayer() != null) {
-                        float raceDestiny = modifiersQuerying.getRaceDestiny(gameState, card, modifierCollector);
-                        PhysicalCard stackedOn = card.getStackedOn();
-                        String forPlayerText = (stackedOn != null && !Filters.Podracer.accepts(gameState, modifiersQuerying, stackedOn)) ? (" for " + gameState.getSide(card.getRaceDestinyForPlayer()).getHumanReadable()) : "";
+                    List<PhysicalCard> pilotsAboard = gameState.getPilotCardsAboard(modifiersQuerying, card, false);
+                    int numPermanentPilots = modifiersQuerying.getPermanentPilotsAboard(gameState, card).size();
+                    if (!pilotsAboard.isEmpty()) {
                         sb.append("<div>");
-                        sb.append("Race destiny").append(forPlayerText).append(": ").append(GuiUtils.formatAsString(raceDestiny));
-                        sb.append(produceModifierText(modifierCollector, card));
+                        if (card.getBlueprint().getCardSubtype() == CardSubtype.TRANSPORT) {
+                            sb.append("Drivers: ");
+                        } else {
+                            sb.append("Pilots: ");
+                        }
+                        sb.append(GameUtils.getAppendedNames(pilotsAboard));
+                        if (numPermanentPilots == 0) {
+                            sb.append("</div>");
+                        }
+                    }
+                    if (numPermanentPilots > 0) {
+                        if (!pilotsAboard.isEmpty()) {
+                            sb.append(", Permanent Pilot");
+                        } else {
+                            sb.append("<div>");
+                            sb.append("Pilots: Permanent Pilot");
+                        }
+                        if (numPermanentPilots > 1) {
+                            sb.append("s");
+                        }
                         sb.append("</div>");
                     }
-
-                    // Show species
-                    if (card.getBlueprint().hasSpeciesAttribute() && card.getBlueprint().getSpecies() != null && card.getBlueprint().getSpecies().isInfoDisplayable()) {
+                    List<PhysicalCard> passengersAboard = gameState.getPassengerCardsAboard(card);
+                    if (passengersAboard != null && !passengersAboard.isEmpty()) {
                         sb.append("<div>");
-                        sb.append("Species: ");
-                        sb.append(card.getBlueprint().getSpecies().getHumanReadable());
+                        sb.append("Passengers: ");
+                        sb.append(GameUtils.getAppendedNames(passengersAboard));
                         sb.append("</div>");
                     }
-
-                    // Show if card gametext is canceled
-                    if (card.isSuspended()) {
-                        modifiersQuerying.getCardsMarkingCardSuspended(gameState, card, modifierCollector);
+                    List<PhysicalCard> capitalStarshipsAboard = gameState.getCardsInCapitalStarshipCapacitySlots(card);
+                    if (!capitalStarshipsAboard.isEmpty()) {
                         sb.append("<div>");
-                        sb.append("Suspended: Yes");
-                        sb.append(produceModifierText(modifierCollector, card));
+                        sb.append("Capital starships in cargo hold: ");
+                        sb.append(GameUtils.getAppendedNames(capitalStarshipsAboard));
                         sb.append("</div>");
                     }
-
-                    // Show other card attributes (if applicable)
-                    StringBuilder otherAttrSb = new StringBuilder();
-                    if (gameState.isApprentice(card)) {
-                        otherAttrSb.append("Apprentice, ");
-                    }
-                    if (card.isBlownAway()) {
-                        otherAttrSb.append("Blown Away, ");
-                    }
-                    if (card.isCollapsed()) {
-                        otherAttrSb.append("Collapsed, ");
-                    }
-                    if (card.isConcealed()) {
-                        otherAttrSb.append("Concealed, ");
-                    }
-                    if (card.isCrashed()) {
-                        otherAttrSb.append("Crashed, ");
-                    }
-                    if (card.isCrossedOver()) {
-                        otherAttrSb.append("Crossed Over, ");
-                    }
-                    if (card.isDamaged()) {
-                        otherAttrSb.append("Damaged, ");
-                    }
-                    if (card.isHit()) {
-                        otherAttrSb.append("Hit, ");
-                    }
-                    if (card.isImprisoned()) {
-                        otherAttrSb.append("Imprisoned, ");
-                    }
-                    if (card.isFrozen()) {
-                        otherAttrSb.append("Frozen, ");
-                    }
-                    if (card.isMakingBombingRun()) {
-                        otherAttrSb.append("Making Bombing Run, ");
-                    }
-                    if (card.isMissing()) {
-                        otherAttrSb.append("Missing, ");
-                    }
-                    if (card.getSoupEaten() != null) {
-                        otherAttrSb.append("Soup Eaten, ");
-                    }
-                    if (card.isSpaceSlugBelly()) {
-                        otherAttrSb.append("Space Slug Belly, ");
-                    }
-                    if (card.isBinaryOff()) {
-                        otherAttrSb.append("Turned Off, ");
-                    }
-                    if (card.isUndercover()) {
-                        otherAttrSb.append("Undercover, ");
-                    }
-                    if (otherAttrSb.length() > 2) {
-                        otherAttrSb.setLength(otherAttrSb.length() - 2);
-                        sb.append("<br>");
+                    List<PhysicalCard> starfightersOrTIEsAboard = gameState.getCardsInStarfighterOrTIECapacitySlots(card);
+                    if (!starfightersOrTIEsAboard.isEmpty()) {
                         sb.append("<div>");
-                        sb.append("Other attributes: ").append(otherAttrSb);
+                        sb.append("Starfighters/TIEs in cargo hold: ");
+                        sb.append(GameUtils.getAppendedNames(starfightersOrTIEsAboard));
                         sb.append("</div>");
                     }
-
-                    // Show other displayable information (if applicable)
-                    String extraDisplayableInformation = card.getBlueprint().getDisplayableInformation(_swccgoGame, card);
-                    if (extraDisplayableInformation != null) {
+                    List<PhysicalCard> vehiclesAboard = gameState.getCardsInVehicleCapacitySlots(card);
+                    if (!vehiclesAboard.isEmpty()) {
                         sb.append("<div>");
-                        sb.append("Extra information: ").append(extraDisplayableInformation);
+                        sb.append("Vehicles in cargo hold: ");
+                        sb.append(GameUtils.getAppendedNames(vehiclesAboard));
                         sb.append("</div>");
                     }
+                }
 
-                    sb.append("<br>");
-
-                    // Cards aboard this card (if applicable)
-                    if (card.getBlueprint().getCardCategory() == CardCategory.STARSHIP || card.getBlueprint().getCardCategory() == CardCategory.VEHICLE) {
+                // Card this card is aboard (if applicable)
+                PhysicalCard attachedTo = card.getAttachedTo();
+                if (attachedTo != null) {
+                    StringBuilder aboardSb = new StringBuilder();
 
-                        List<PhysicalCard> pilotsAboard = gameState.getPilotCardsAboard(modifiersQuerying, card, false);
-                        int numPermanentPilots = modifiersQuerying.getPermanentPilotsAboard(gameState, card).size();
-                        if (!pilotsAboard.isEmpty()) {
+                    if (attachedTo.getBlueprint().getCardCategory() == CardCategory.STARSHIP
+                            || attachedTo.getBlueprint().getCardCategory() == CardCategory.VEHICLE) {
+                        if (card.isPilotOf()) {
                             sb.append("<div>");
-                            if (card.getBlueprint().getCardSubtype() == CardSubtype.TRANSPORT) {
-                                sb.append("Drivers: ");
-                            } else {
-                                sb.append("Pilots: ");
-                            }
-                            sb.append(GameUtils.getAppendedNames(pilotsAboard));
-                            if (numPermanentPilots == 0) {
-                                sb.append("</div>");
-                            }
-                        }
-                        if (numPermanentPilots > 0) {
-                            if (!pilotsAboard.isEmpty()) {
-                                sb.append(", Permanent Pilot");
+                            if (attachedTo.getBlueprint().getCardSubtype() == CardSubtype.TRANSPORT) {
+                                sb.append("Driver of: ").append(GameUtils.getCardLink(attachedTo));
                             } else {
-                                sb.append("<div>");
-                                sb.append("Pilots: Permanent Pilot");
-                            }
-                            if (numPermanentPilots > 1) {
-                                sb.append("s");
+                                sb.append("Pilot of: ").append(GameUtils.getCardLink(attachedTo));
                             }
                             sb.append("</div>");
-                        }
-                        List<PhysicalCard> passengersAboard = gameState.getPassengerCardsAboard(card);
-                        if (passengersAboard != null && !passengersAboard.isEmpty()) {
+                        } else if (card.isPassengerOf()) {
                             sb.append("<div>");
-                            sb.append("Passengers: ");
-                            sb.append(GameUtils.getAppendedNames(passengersAboard));
+                            sb.append("Passenger of: ").append(GameUtils.getCardLink(attachedTo));
                             sb.append("</div>");
-                        }
-                        List<PhysicalCard> capitalStarshipsAboard = gameState.getCardsInCapitalStarshipCapacitySlots(card);
-                        if (!capitalStarshipsAboard.isEmpty()) {
+                        } else if (card.isInCargoHoldAsCapitalStarship()) {
                             sb.append("<div>");
-                            sb.append("Capital starships in cargo hold: ");
-                            sb.append(GameUtils.getAppendedNames(capitalStarshipsAboard));
+                            sb.append("In capital starship cargo hold of: ").append(GameUtils.getCardLink(attachedTo));
                             sb.append("</div>");
-                        }
-                        List<PhysicalCard> starfightersOrTIEsAboard = gameState.getCardsInStarfighterOrTIECapacitySlots(card);
-                        if (!starfightersOrTIEsAboard.isEmpty()) {
+                        } else if (card.isInCargoHoldAsStarfighterOrTIE()) {
                             sb.append("<div>");
-                            sb.append("Starfighters/TIEs in cargo hold: ");
-                            sb.append(GameUtils.getAppendedNames(starfightersOrTIEsAboard));
+                            sb.append("In starfighter/TIE cargo hold of: ").append(GameUtils.getCardLink(attachedTo));
                             sb.append("</div>");
-                        }
-                        List<PhysicalCard> vehiclesAboard = gameState.getCardsInVehicleCapacitySlots(card);
-                        if (!vehiclesAboard.isEmpty()) {
+                        } else if (card.isInCargoHoldAsVehicle()) {
                             sb.append("<div>");
-                            sb.append("Vehicles in cargo hold: ");
-                            sb.append(GameUtils.getAppendedNames(vehiclesAboard));
+                            sb.append("In vehicle cargo hold of: ").append(GameUtils.getCardLink(attachedTo));
                             sb.append("</div>");
                         }
                     }
-
-                    // Card this card is aboard (if applicable)
-                    PhysicalCard attachedTo = card.getAttachedTo();
-                    if (attachedTo != null) {
-                        StringBuilder aboardSb = new StringBuilder();
-
-                        if (attachedTo.getBlueprint().getCardCategory() == CardCategory.STARSHIP
-                                || attachedTo.getBlueprint().getCardCategory() == CardCategory.VEHICLE) {
-                            if (card.isPilotOf()) {
-                                sb.append("<div>");
-                                if (attachedTo.getBlueprint().getCardSubtype() == CardSubtype.TRANSPORT) {
-                                    sb.append("Driver of: ").append(GameUtils.getCardLink(attachedTo));
-                                } else {
-                                    sb.append("Pilot of: ").append(GameUtils.getCardLink(attachedTo));
-                                }
-                                sb.append("</div>");
-                            } else if (card.isPassengerOf()) {
-                                sb.append("<div>");
-                                sb.append("Passenger of: ").append(GameUtils.getCardLink(attachedTo));
-                                sb.append("</div>");
-                            } else if (card.isInCargoHoldAsCapitalStarship()) {
-                                sb.append("<div>");
-                                sb.append("In capital starship cargo hold of: ").append(GameUtils.getCardLink(attachedTo));
-                                sb.append("</div>");
-                            } else if (card.isInCargoHoldAsStarfighterOrTIE()) {
-                                sb.append("<div>");
-                                sb.append("In starfighter/TIE cargo hold of: ").append(GameUtils.getCardLink(attachedTo));
-                                sb.append("</div>");
-                            } else if (card.isInCargoHoldAsVehicle()) {
-                                sb.append("<div>");
-                                sb.append("In vehicle cargo hold of: ").append(GameUtils.getCardLink(attachedTo));
-                                sb.append("</div>");
-                            }
-                        }
-                        sb.append(aboardSb);
-                    }
+                    sb.append(aboardSb);
                 }
+            }
 
-                // Target cards (if applicable)
-                Map<TargetId, PhysicalCard> targets = card.getTargetedCards(gameState);
-                PhysicalCard apprentice = targets.get(TargetId.JEDI_TEST_APPRENTICE);
-                if (apprentice != null) {
-                    sb.append("<div>");
-                    sb.append("Apprentice: ");
-                    sb.append(GameUtils.getCardLink(apprentice));
-                    sb.append("</div>");
+            // Target cards (if applicable)
+            Map<TargetId, PhysicalCard> targets = card.getTargetedCards(gameState);
+            PhysicalCard apprentice = targets.get(TargetId.JEDI_TEST_APPRENTICE);
+            if (apprentice != null) {
+                sb.append("<div>");
+                sb.append("Apprentice: ");
+                sb.append(GameUtils.getCardLink(apprentice));
+                sb.append("</div>");
+            }
+            PhysicalCard mentor = targets.get(TargetId.JEDI_TEST_MENTOR);
+            if (mentor != null) {
+                sb.append("<div>");
+                sb.append("Mentor: ");
+                sb.append(GameUtils.getCardLink(mentor));
+                sb.append("</div>");
+            }
+
+            // Stacked cards (if applicable)
+            List<PhysicalCard> stackedCards = gameState.getStackedCards(card);
+            if (!stackedCards.isEmpty()) {
+                sb.append("<div>");
+                sb.append("Stacked cards: ").append(stackedCards.size());
+                sb.append("</div>");
+            }
+
+            if (!targets.isEmpty()) {
+                List<PhysicalCard> otherTargets = new ArrayList<PhysicalCard>();
+                for (TargetId targetId : targets.keySet()) {
+                    if (targetId != TargetId.JEDI_TEST_APPRENTICE && targetId != TargetId.JEDI_TEST_MENTOR) {
+                        otherTargets.add(targets.get(targetId));
+                    }
                 }
-                PhysicalCard mentor = targets.get(TargetId.JEDI_TEST_MENTOR);
-                if (mentor != null) {
+                if (!otherTargets.isEmpty()) {
                     sb.append("<div>");
-                    sb.append("Mentor: ");
-                    sb.append(GameUtils.getCardLink(mentor));
+                    sb.append("Targets: ").append(GameUtils.getAppendedNames(otherTargets));
                     sb.append("</div>");
                 }
+            }
+        }
 
-                // Stacked cards (if applicable)
-                List<PhysicalCard> stackedCards = gameState.getStackedCards(card);
-                if (!stackedCards.isEmpty()) {
-                    sb.append("<div>");
-                    sb.append("Stacked cards: ").append(stackedCards.size());
-                    sb.append("</div>");
-                }
+        // 'Insert card' in Reserve Deck information (if applicable)
+        if (cardZone == Zone.TOP_OF_RESERVE_DECK) {
+            List<PhysicalCard> insertCards = new LinkedList<PhysicalCard>(Filters.filter(gameState.getCardPile(card.getZoneOwner(), Zone.RESERVE_DECK, false), _swccgoGame, Filters.insertCard));
+            if (!insertCards.isEmpty()) {
+                Collections.shuffle(insertCards);
+                sb.append("<div>");
+                sb.append("'Insert' cards: ").append(GameUtils.getAppendedNames(insertCards));
+                sb.append("</div>");
+            }
+        }
 
-                if (!targets.isEmpty()) {
-                    List<PhysicalCard> otherTargets = new ArrayList<PhysicalCard>();
-                    for (TargetId targetId : targets.keySet()) {
-                        if (targetId != TargetId.JEDI_TEST_APPRENTICE && targetId != TargetId.JEDI_TEST_MENTOR) {
-                            otherTargets.add(targets.get(targetId));
-                        }
-                    }
-                    if (!otherTargets.isEmpty()) {
-                        sb.append("<div>");
-                        sb.append("Targets: ").append(GameUtils.getAppendedNames(otherTargets));
-                        sb.append("</div>");
-                    }
-                }
+        // Sabacc information (if applicable)
+        if (cardZone == Zone.SABACC_HAND || cardZone == Zone.REVEALED_SABACC_HAND) {
+            float sabaccValue = card.getSabaccValue();
+            sb.append("<div>");
+            sb.append("Sabacc value: ").append(((sabaccValue == -1) ? "Not set" : GuiUtils.formatAsString(sabaccValue)));
+            PhysicalCard cloningCard = card.getSabaccCardCloned();
+            if (cloningCard != null) {
+                sb.append(" (cloning value from ").append(GameUtils.getCardLink(cloningCard)).append(")");
             }
+            sb.append("</div>");
+        }
 
-            // 'Insert card' in Reserve Deck information (if applicable)
-            if (cardZone == Zone.TOP_OF_RESERVE_DECK) {
-                List<PhysicalCard> insertCards = new LinkedList<PhysicalCard>(Filters.filter(gameState.getCardPile(card.getZoneOwner(), Zone.RESERVE_DECK, false), _swccgoGame, Filters.insertCard));
-                if (!insertCards.isEmpty()) {
-                    Collections.shuffle(insertCards);
-                    sb.append("<div>");
-                    sb.append("'Insert' cards: ").append(GameUtils.getAppendedNames(insertCards));
-                    sb.append("</div>");
-                }
+        // Show affecting cards
+        if (cardZone.isInPlay() || cardZone == Zone.HAND || cardZone == Zone.STACKED || cardZone == Zone.OUT_OF_PLAY) {
+            for (Modifier modifier : modifiersQuerying.getModifiersAffecting(gameState, card)) {
+                modifierCollector.addModifier(modifier);
+            }
+            StringBuilder otherAttrSb = new StringBuilder();
+            otherAttrSb.append(produceModifierText(modifierCollector, card));
+            if (otherAttrSb.length() > 0) {
+                sb.append("<br>");
+                sb.append("<div>");
+                sb.append("Other modifiers: ");
+                sb.append(otherAttrSb);
+                sb.append("</div>");
             }
+        }
+
+        // Special output for cards with "testingText" (playtesting)
+        String testingText = card.getBlueprint().getTestingText();
+        if (testingText != null && !testingText.isEmpty())
+        {
+            SwccgCardBlueprint blueprint = card.getBlueprint();
 
-            // Sabacc information (if applicable)
-            if (cardZone == Zone.SABACC_HAND || cardZone == Zone.REVEALED_SABACC_HAND) {
-                float sabaccValue = card.getSabaccValue();
+            String lore = blueprint.getLore();
+            if (lore != null && !lore.isEmpty()) {
+                sb.append("<br>");
+                sb.append("Lore: ");
                 sb.append("<div>");
-                sb.append("Sabacc value: ").append(((sabaccValue == -1) ? "Not set" : GuiUtils.formatAsString(sabaccValue)));
-                PhysicalCard cloningCard = card.getSabaccCardCloned();
-                if (cloningCard != null) {
-                    sb.append(" (cloning value from ").append(GameUtils.getCardLink(cloningCard)).append(")");
-                }
+                sb.append(lore);
                 sb.append("</div>");
             }
 
-            // Show affecting cards
-            if (cardZone.isInPlay() || cardZone == Zone.HAND || cardZone == Zone.STACKED || cardZone == Zone.OUT_OF_PLAY) {
-                for (Modifier modifier : modifiersQuerying.getModifiersAffecting(gameState, card)) {
-                    modifierCollector.addModifier(modifier);
-                }
-                StringBuilder otherAttrSb = new StringBuilder();
-                otherAttrSb.append(produceModifierText(modifierCollector, card));
-                if (otherAttrSb.length() > 0) {
-                    sb.append("<br>");
-                    sb.append("<div>");
-                    sb.append("Other modifiers: ");
-                    sb.append(otherAttrSb);
-                    sb.append("</div>");
-                }
+            String gametext = blueprint.getGameText();
+            if (gametext != null && !gametext.isEmpty()) {
+                sb.append("<br>");
+                sb.append("Game text: ");
+                sb.append("<div>");
+                sb.append(gametext);
+                sb.append("</div>");
             }
 
-            // Special output for cards with "testingText" (playtesting)
-            String testingText = card.getBlueprint().getTestingText();
-            if (testingText != null && !testingText.isEmpty())
-            {
-                SwccgCardBlueprint blueprint = card.getBlueprint();
+            if(blueprint.isCardType(CardType.LOCATION)) {
 
-                String lore = blueprint.getLore();
-                if (lore != null && !lore.isEmpty()) {
+                String darkLocationGametext = blueprint.getLocationDarkSideGameText();
+                if (darkLocationGametext != null && !darkLocationGametext.isEmpty()) {
                     sb.append("<br>");
-                    sb.append("Lore: ");
+                    sb.append("Dark side location game text: ");
                     sb.append("<div>");
-                    sb.append(lore);
+                    sb.append(darkLocationGametext);
                     sb.append("</div>");
                 }
 
-                String gametext = blueprint.getGameText();
-                if (gametext != null && !gametext.isEmpty()) {
+                String lightLocationGametext = blueprint.getLocationLightSideGameText();
+                if (lightLocationGametext != null && !lightLocationGametext.isEmpty()) {
                     sb.append("<br>");
-                    sb.append("Game text: ");
+                    sb.append("Light side location game text: ");
                     sb.append("<div>");
-                    sb.append(gametext);
+                    sb.append(lightLocationGametext);
                     sb.append("</div>");
                 }
 
-                if(blueprint.isCardType(CardType.LOCATION)) {
-
-                    String darkLocationGametext = blueprint.getLocationDarkSideGameText();
-                    if (darkLocationGametext != null && !darkLocationGametext.isEmpty()) {
-                        sb.append("<br>");
-                        sb.append("Dark side location game text: ");
-                        sb.append("<div>");
-                        sb.append(darkLocationGametext);
-                        sb.append("</div>");
-                    }
-
-                    String lightLocationGametext = blueprint.getLocationLightSideGameText();
-                    if (lightLocationGametext != null && !lightLocationGametext.isEmpty()) {
-                        sb.append("<br>");
-                        sb.append("Light side location game text: ");
-                        sb.append("<div>");
-                        sb.append(lightLocationGametext);
-                        sb.append("</div>");
-                    }
-
-                    // location icons
+                // location icons
 
+                sb.append("<br>");
+                sb.append("Icons: ");
+                if (blueprint.hasIcon(Icon.PLANET))
+                    sb.append("Planet, ");
+                if (blueprint.hasIcon(Icon.MOBILE))
+                    sb.append("Mobile, ");
+                if (blueprint.hasIcon(Icon.SPACE))
+                    sb.append("Space, ");
+                if (blueprint.hasIcon(Icon.STARSHIP_SITE))
+                    sb.append("Starship site, ");
+                if (blueprint.hasIcon(Icon.VEHICLE_SITE))
+                    sb.append("Vehicle site, ");
+                if (blueprint.hasIcon(Icon.EXTERIOR_SITE))
+                    sb.append("Exterior, ");
+                if (blueprint.hasIcon(Icon.INTERIOR_SITE))
+                    sb.append("Interior, ");
+                if (blueprint.hasIcon(Icon.SCOMP_LINK))
+                    sb.append("Scomp link, ");
+                if (blueprint.hasIcon(Icon.SEPARATIST))
+                    sb.append("Separatist, ");
+                if (blueprint.hasIcon(Icon.CLONE_ARMY))
+                    sb.append("Clone Army, ");
+
+
+                if (blueprint.getCardSubtype().equals(CardSubtype.SYSTEM)) {
+                    int parsec = blueprint.getParsec();
                     sb.append("<br>");
-                    sb.append("Icons: ");
-                    if (blueprint.hasIcon(Icon.PLANET))
-                        sb.append("Planet, ");
-                    if (blueprint.hasIcon(Icon.MOBILE))
-                        sb.append("Mobile, ");
-                    if (blueprint.hasIcon(Icon.SPACE))
-                        sb.append("Space, ");
-                    if (blueprint.hasIcon(Icon.STARSHIP_SITE))
-                        sb.append("Starship site, ");
-                    if (blueprint.hasIcon(Icon.VEHICLE_SITE))
-                        sb.append("Vehicle site, ");
-                    if (blueprint.hasIcon(Icon.EXTERIOR_SITE))
-                        sb.append("Exterior, ");
-                    if (blueprint.hasIcon(Icon.INTERIOR_SITE))
-                        sb.append("Interior, ");
-                    if (blueprint.hasIcon(Icon.SCOMP_LINK))
-                        sb.append("Scomp link, ");
-                    if (blueprint.hasIcon(Icon.SEPARATIST))
-                        sb.append("Separatist, ");
-                    if (blueprint.hasIcon(Icon.CLONE_ARMY))
-                        sb.append("Clone Army, ");
-
-
-                    if (blueprint.getCardSubtype().equals(CardSubtype.SYSTEM)) {
-                        int parsec = blueprint.getParsec();
-                        sb.append("<br>");
-                        sb.append("Parsec: ");
-                        sb.append(parsec);
-                    }
-
-                }
-
-                if (blueprint.isCardTypeDeployed()
-                        && Filters.or(Filters.character, Filters.creature, Filters.starship, Filters.vehicle).accepts(_swccgoGame, card)) {
-
-                    Float deployCost = blueprint.getDeployCost();
-                    if (deployCost != null) {
-                        sb.append("<br>");
-                        sb.append("Deploy cost: ");
-                        sb.append("<div>");
-                        sb.append(deployCost);
-                        sb.append("</div>");
-                    }
+                    sb.append("Parsec: ");
+                    sb.append(parsec);
                 }
 
             }
 
-            // Surround with div (if any card info)
-            if (sb.length() > 0) {
-                sb.insert(0, "<div class='cardInfo'>");
-                sb.append("</div>");
+            if (blueprint.isCardTypeDeployed()
+                    && Filters.or(Filters.character, Filters.creature, Filters.starship, Filters.vehicle).accepts(_swccgoGame, card)) {
+
+                Float deployCost = blueprint.getDeployCost();
+                if (deployCost != null) {
+                    sb.append("<br>");
+                    sb.append("Deploy cost: ");
+                    sb.append("<div>");
+                    sb.append(deployCost);
+                    sb.append("</div>");
+                }
             }
 
-            return sb.toString();
+        }
 
-        } finally {
-            _readLock.unlock();
+        // Surround with div (if any card info)
+        if (sb.length() > 0) {
+            sb.insert(0, "<div class='cardInfo'>");
+            sb.append("</div>");
         }
+
+        return sb.toString();
     }
 
     public void startGame() {
-        _writeLock.lock();
+        lockWrite();
         try {
+            _decisionLog.gameStarted();
             _swccgoGame.startGame();
             startClocksForUsersPendingDecision();
+            updateDeckArchetypeLabels();
         } finally {
             _writeLock.unlock();
         }
+        schedulePrecomputeCardInfo();
     }
 
     public void cleanup() {
-        _writeLock.lock();
+        lockWrite();
         try {
             long currentTime = System.currentTimeMillis();
             Map<String, GameCommunicationChannel> channelsCopy = new HashMap<String, GameCommunicationChannel>(_communicationChannels);
@@ -993,10 +1160,12 @@ public class SwccgGameMediator {
                             && _cancelIfNoActions
                             && (currentTime > decisionSent + (1000 * 60 * 3))) {
                         addTimeSpentOnDecisionToUserClock(playerId);
+                        _decisionLog.autoCancelled();
                         _swccgoGame.performAutoCancelGame();
                     }
                     else if (!_disablePlayerDecisionTimer && (currentTime > decisionSent + _playerDecisionTimeoutPeriod)) {
                         addTimeSpentOnDecisionToUserClock(playerId);
+                        _decisionLog.playerLost(playerId, GameEndReason.LOSS__DECISION_TIMEOUT);
                         _swccgoGame.playerLost(playerId, GameEndReason.LOSS__DECISION_TIMEOUT);
                     }
                 }
@@ -1005,6 +1174,7 @@ public class SwccgGameMediator {
                     String player = playerClock.getKey();
                     if (_maxSecondsForGamePerPlayer + _secondsGameTimerExtended - playerClock.getValue() - getCurrentUserPendingTime(player) < 0) {
                         addTimeSpentOnDecisionToUserClock(player);
+                        _decisionLog.playerLost(player, GameEndReason.LOSS__GAME_TIMEOUT);
                         _swccgoGame.playerLost(player, GameEndReason.LOSS__GAME_TIMEOUT);
                     }
                 }
@@ -1014,6 +1184,112 @@ public class SwccgGameMediator {
         }
     }
 
+    /**
+     * Puts the entries of a decision log of this game back into the game, the same way they were put into the
+     * original game, which brings the game (including the decisions the players are waiting on) back to where the
+     * original game was. The entries are logged again, so the decision log of this game continues the original one.
+     * @param entries the entries
+     */
+    public void replayDecisionLogEntries(List<GameDecisionLog.Entry> entries) {
+        lockWrite();
+        try {
+            for (GameDecisionLog.Entry entry : entries) {
+                String playerId = entry.getPlayerId();
+                switch (entry.getType()) {
+                    case START:
+                        _decisionLog.gameStarted();
+                        _swccgoGame.startGame();
+                        break;
+                    case DECISION:
+                        AwaitingDecision awaitingDecision = _userFeedback.getAwaitingDecision(playerId);
+                        if (awaitingDecision != null && awaitingDecision.getAwaitingDecisionId() == entry.getNumber() && !_swccgoGame.isFinished()) {
+                            try {
+                                _decisionLog.decisionAnswered(playerId, entry.getNumber(), entry.getValue());
+                                _userFeedback.participantDecided(playerId);
+                                awaitingDecision.decisionMade(entry.getValue());
+                                _swccgoGame.carryOutPendingActionsUntilDecisionNeeded();
+                            } catch (DecisionResultInvalidException decisionResultInvalidException) {
+                                _userFeedback.sendAwaitingDecision(playerId, awaitingDecision);
+                            } catch (RuntimeException runtimeException) {
+                                LOG.error("Error replaying game decision", runtimeException);
+                                _decisionLog.gameAborted();
+                                _swccgoGame.abortGame();
+                            }
+                        }
+                        break;
+                    case MESSAGE:
+                        sendMessageToPlayers(entry.getValue());
+                        break;
+                    case PLAYER_LOST:
+                        _decisionLog.playerLost(playerId, GameEndReason.valueOf(entry.getValue()));
+                        _swccgoGame.playerLost(playerId, GameEndReason.valueOf(entry.getValue()));
+                        break;
+                    case AUTO_CANCEL:
+                        _decisionLog.autoCancelled();
+                        _swccgoGame.performAutoCancelGame();
+                        break;
+                    case REQUEST_CANCEL:
+                        _decisionLog.cancelRequested(playerId);
+                        _swccgoGame.requestCancel(playerId);
+                        break;
+                    case EXTEND_GAME_TIMER:
+                        _decisionLog.extendGameTimerRequested(playerId, entry.getNumber());
+                        _swccgoGame.requestExtendGameTimer(playerId, entry.getNumber());
+                        _secondsGameTimerExtended = _swccgoGame.getGameTimerExtendedInMinutes() * 60;
+                        break;
+                    case DISABLE_ACTION_TIMER:
+                        _decisionLog.disableActionTimerRequested(playerId);
+                        _swccgoGame.requestDisableActionTimer(playerId);
+                        _disablePlayerDecisionTimer = _swccgoGame.isActionTimerDisabled();
+                        break;
+                    case AUTO_PASS:
+                        _decisionLog.autoPassSettingsChanged(playerId, entry.getAutoPassPhases());
+                        _swccgoGame.setPlayerAutoPassSettings(playerId, entry.getAutoPassPhases());
+                        break;
+                    case ABORT:
+                        // Follows an exception from the game engine, which is thrown again (and logged) when replaying
+                        break;
+                }
+            }
+            updateDeckArchetypeLabels();
+        } finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Resumes a game restored from its decision log: sets the time the players had used of their game timers, and
+     * starts the decision timers of the decisions the players are waiting on.
+     * @param playerClocks the seconds each player had used
+     */
+    public void resumeRestoredGame(Map<String, Integer> playerClocks) {
+        lockWrite();
+        try {
+            for (Map.Entry<String, Integer> playerClock : playerClocks.entrySet()) {
+                if (_playerClocks.containsKey(playerClock.getKey()))
+                    _playerClocks.put(playerClock.getKey(), playerClock.getValue());
+            }
+            for (String playerId : _playerClocks.keySet())
+                _userFeedback.consumeWarning(playerId);
+            startClocksForUsersPendingDecision();
+        } finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the seconds each player has used of their game timer, not counting the decisions they are waiting on.
+     * @return the seconds used, by player
+     */
+    public Map<String, Integer> getPlayerClocks() {
+        lockRead();
+        try {
+            return new HashMap<String, Integer>(_playerClocks);
+        } finally {
+            _readLock.unlock();
+        }
+    }
+
     public void extendGameTimer(Player player, int minutesToExtend) {
         if (!_allowExtendGameTimer) {
             _userFeedback.sendWarning(player.getName(), "You can't extend the game timer for this game");
@@ -1021,13 +1297,14 @@ public class SwccgGameMediator {
         }
 
         String playerName = player.getName();
-        _writeLock.lock();
+        lockWrite();
         try {
             if (isPlayerPlaying(playerName)) {
+                _decisionLog.extendGameTimerRequested(playerName, minutesToExtend);
                 _swccgoGame.requestExtendGameTimer(playerName, minutesToExtend);
                 _secondsGameTimerExtended = _swccgoGame.getGameTimerExtendedInMinutes() * 60;
                 if (_secondsGameTimerExtended > 0) {
-                    _swccgoGame.getGameState().sendMessage("The game timer has been extended by " + minutesToExtend + " minutes, by request of all players");
+                    sendMessageToPlayers("The game timer has been extended by " + minutesToExtend + " minutes, by request of all players");
                 }
             }
         } finally {
@@ -1040,13 +1317,14 @@ public class SwccgGameMediator {
             return;
 
         String playerId = player.getName();
-        _writeLock.lock();
+        lockWrite();
         try {
             if (isPlayerPlaying(playerId)) {
+                _decisionLog.disableActionTimerRequested(playerId);
                 _swccgoGame.requestDisableActionTimer(playerId);
                 _disablePlayerDecisionTimer = _swccgoGame.isActionTimerDisabled();
                 if (_disablePlayerDecisionTimer) {
-                    _swccgoGame.getGameState().sendMessage("The action timer has been disabled, by request of all players");
+                    sendMessageToPlayers("The action timer has been disabled, by request of all players");
                 }
             }
         } finally {
@@ -1056,10 +1334,11 @@ public class SwccgGameMediator {
 
     public void concede(Player player) {
         String playerId = player.getName();
-        _writeLock.lock();
+        lockWrite();
         try {
             if (_swccgoGame.getWinner() == null && isPlayerPlaying(playerId)) {
                 addTimeSpentOnDecisionToUserClock(playerId);
+                _decisionLog.playerLost(playerId, GameEndReason.LOSS__CONCEDED);
                 _swccgoGame.playerLost(playerId, GameEndReason.LOSS__CONCEDED);
             }
         } finally {
@@ -1073,10 +1352,12 @@ public class SwccgGameMediator {
         }
 
         String playerId = player.getName();
-        _writeLock.lock();
+        lockWrite();
         try {
-            if (isPlayerPlaying(playerId))
+            if (isPlayerPlaying(playerId)) {
+                _decisionLog.cancelRequested(playerId);
                 _swccgoGame.requestCancel(playerId);
+            }
         } finally {
             _writeLock.unlock();
         }
@@ -1084,7 +1365,7 @@ public class SwccgGameMediator {
 
     public synchronized void playerAnswered(Player player, int channelNumber, int decisionId, String answer) throws SubscriptionConflictException, SubscriptionExpiredException {
         String playerName = player.getName();
-        _writeLock.lock();
+        lockWrite();
         try {
             GameCommunicationChannel communicationChannel = _communicationChannels.get(playerName);
             if (communicationChannel != null) {
@@ -1093,6 +1374,7 @@ public class SwccgGameMediator {
                     if (awaitingDecision != null) {
                         if (awaitingDecision.getAwaitingDecisionId() == decisionId && !_swccgoGame.isFinished()) {
                             try {
+                                _decisionLog.decisionAnswered(playerName, decisionId, answer);
                                 _userFeedback.participantDecided(playerName);
                                 awaitingDecision.decisionMade(answer);
 
@@ -1101,6 +1383,7 @@ public class SwccgGameMediator {
 
                                 _swccgoGame.carryOutPendingActionsUntilDecisionNeeded();
                                 startClocksForUsersPendingDecision();
+                                updateDeckArchetypeLabels();
 
                             } catch (DecisionResultInvalidException decisionResultInvalidException) {
                                 // Participant provided wrong answer - send a warning message, and ask again for the same decision
@@ -1108,6 +1391,7 @@ public class SwccgGameMediator {
                                 _userFeedback.sendAwaitingDecision(playerName, awaitingDecision);
                             } catch (RuntimeException runtimeException) {
                                 LOG.error("Error processing game decision", runtimeException);
+                                _decisionLog.gameAborted();
                                 _swccgoGame.abortGame();
                             }
                         }
@@ -1121,6 +1405,7 @@ public class SwccgGameMediator {
         } finally {
             _writeLock.unlock();
         }
+        schedulePrecomputeCardInfo();
     }
 
     public GameCommunicationChannel getCommunicationChannel(Player player, int channelNumber) throws PrivateInformationException, SubscriptionConflictException, SubscriptionExpiredException {
@@ -1131,7 +1416,7 @@ public class SwccgGameMediator {
                 && !_allowSpectators && !isPlayerPlaying(playerName))
             throw new PrivateInformationException();
 
-        _readLock.lock();
+        lockRead();
         try {
             GameCommunicationChannel communicationChannel = _communicationChannels.get(playerName);
             if (communicationChannel != null) {
@@ -1149,7 +1434,7 @@ public class SwccgGameMediator {
     }
 
     public void processVisitor(GameCommunicationChannel communicationChannel, int channelNumber, String playerName, ParticipantCommunicationVisitor visitor) {
-        _readLock.lock();
+        lockRead();
         try {
             visitor.visitChannelNumber(channelNumber);
             for (GameEvent gameEvent : communicationChannel.consumeGameEvents())
@@ -1185,7 +1470,7 @@ public class SwccgGameMediator {
             throw new PrivateInformationException();
         }
 
-        _readLock.lock();
+        lockRead();
         try {
             int number = _channelNextIndex;
             _channelNextIndex++;
@@ -1254,330 +1539,33 @@ public class SwccgGameMediator {
     }
 
     /**
-     * Gets the deck archetype being played by the specified player.
+     * Gets the deck archetype being played by the specified player, as of the last change to the game.
      * @param playerId the player
-     * @return the deck archetype label
+     * @return the deck archetype label, or null until the starting cards are played
      */
     public String getDeckArchetypeLabel(String playerId) {
-        if (_swccgoGame.getGameState().getCurrentPhase() == Phase.PLAY_STARTING_CARDS) {
-            return null;
-        }
-        PhysicalCard startingLocation = _swccgoGame.getModifiersQuerying().getStartingLocation(playerId);
-        PhysicalCard objective = _swccgoGame.getGameState().getObjectivePlayed(playerId);
-        PhysicalCard startingInterrupt = _swccgoGame.getGameState().getStartingInterruptPlayed(playerId);
-
-        // Based on starting location
-        if (startingLocation != null) {
-            if (Filters.Massassi_Throne_Room.accepts(_swccgoGame, startingLocation)) {
-                // Throne Room Mains
-                return "TRM";
-            }
-            if (startingInterrupt != null) {
-                if (Filters.Careful_Planning.accepts(_swccgoGame, startingInterrupt)
-                        && startingInterrupt.getBlueprint().hasVirtualSuffix()
-                        && startingLocation.getBlueprint().getSystemName() != null) {
-                    // Careful Planning (v)
-                    return startingLocation.getBlueprint().getSystemName() + " CPv";
-                }
-                if (Filters.Combat_Readiness.accepts(_swccgoGame, startingInterrupt)
-                        && startingInterrupt.getBlueprint().hasVirtualSuffix()
-                        && startingLocation.getBlueprint().getSystemName() != null) {
-                    // Combat Readiness (v)
-                    return startingLocation.getBlueprint().getSystemName() + " CRv";
-                }
-                if(Filters.Slip_Sliding_Away.accepts(_swccgoGame, startingInterrupt)
-                        && startingInterrupt.getBlueprint().hasVirtualSuffix()
-                        && startingLocation.getBlueprint().getTitle() != null){
-                    // Slip Sliding Away (v)
-                    return startingLocation.getBlueprint().getTitle() + " SSAv";
-                }
-                if(Filters.Let_The_Wookiee_Win.accepts(_swccgoGame, startingInterrupt)
-                        && startingInterrupt.getBlueprint().hasVirtualSuffix()
-                        && startingLocation.getBlueprint().getTitle() != null){
-                    // Let The Wookiee Win (v)
-                    return startingLocation.getBlueprint().getTitle() + " LTWWv";
-                }
-                if(Filters.title("I Am Part Of The Living Force").accepts(_swccgoGame, startingInterrupt)
-                    && startingLocation.getBlueprint().getTitle() != null)  {
-                    // Communing (ignore the location)
-                    String communer = _swccgoGame.getModifiersQuerying().getExtraInformationForArchetypeLabel(playerId);
-                    if (communer==null)
-                        return "Communing";
-                    else
-                        return "Communing - "+communer;
-                }
-                if(Filters.title(Title.The_Rise_Of_Skywalker).accepts(_swccgoGame, startingInterrupt)
-                    && startingLocation.getBlueprint().getTitle() != null) {
-                    // The Force Is Strong In My Family
-                    String hero = _swccgoGame.getModifiersQuerying().getExtraInformationForArchetypeLabel(playerId);
-                    if (hero==null)
-                        return "Skywalker Saga";
-                    else
-                        return "Skywalker Saga - "+hero;
-                }
-                if(Filters.title(Title.Rise_Of_The_Sith).accepts(_swccgoGame, startingInterrupt)
-                        && startingLocation.getBlueprint().getTitle() != null) {
-                    // Revenge Of The Sith
-                    String apprentice = _swccgoGame.getModifiersQuerying().getExtraInformationForArchetypeLabel(playerId);
-                    if (apprentice==null)
-                        return "ROTS";
-                    else
-                        return "ROTS - "+apprentice;
-                }
-                if (Filters.Communing.accepts(_swccgoGame, startingInterrupt)
-                        && startingInterrupt.getBlueprint().isLegacy()) {
-                    // Legacy Communing (ignore the location)
-                    return "Communing";
-                }
-                if (Filters.title("It Is The Future You See").accepts(_swccgoGame, startingInterrupt)
-                        && startingInterrupt.getBlueprint().hasVirtualSuffix()
-                        && startingInterrupt.getBlueprint().isLegacy()) {
-                    //Sonn v (ignore the location)
-                    return "Sonn v";
-                }
-
-                return startingLocation.getBlueprint().getTitle() + (startingLocation.getBlueprint().hasVirtualSuffix()?" v":"");
-            }
+        return _deckArchetypeLabels.get(playerId);
+    }
 
-            return startingLocation.getBlueprint().getTitle() + (startingLocation.getBlueprint().hasVirtualSuffix()?" v":"");
-        }
+    /**
+     * Updates the deck archetype labels of the players from the cards they started the game with, once the starting
+     * cards are played. Called after each change to the game, while holding the write lock.
+     */
+    private void updateDeckArchetypeLabels() {
+        GameState gameState = _swccgoGame.getGameState();
+        if (gameState == null || gameState.getCurrentPhase() == Phase.PLAY_STARTING_CARDS)
+            return;
 
-        // Based on Objective
-        if (objective != null) {
-            String objectiveLabel = null;
-            if (Filters.or(Filters.title(Title.A_Great_Tactician_Creates_Plans), Filters.title(Title.The_Result_Is_Often_Resentment)).accepts(_swccgoGame, objective)) {
-                // A Great Tactician Creates Plans
-                objectiveLabel = "Thrawn";
-            }
-            if (Filters.or(Filters.Agents_In_The_Court, Filters.No_Love_For_The_Empire).accepts(_swccgoGame, objective)) {
-                // Agents In The Court
-                objectiveLabel = "AITC";
-            }
-            if (Filters.or(Filters.Agents_Of_Black_Sun, Filters.Vengeance_Of_The_Dark_Prince).accepts(_swccgoGame, objective)) {
-                // Agents Of Black Sun
-                objectiveLabel = "AOBS";
-            }
-            if (Filters.or(Filters.A_Stunning_Move, Filters.A_Valuable_Hostage).accepts(_swccgoGame, objective)) {
-                // A Stunning Move
-                objectiveLabel = "ASM";
-            }
-            if (Filters.or(Filters.Bring_Him_Before_Me, Filters.Take_Your_Fathers_Place).accepts(_swccgoGame, objective)) {
-                // Bring Him Before Me
-                objectiveLabel = "BHBM";
-            }
-            if (Filters.or(Filters.Carbon_Chamber_Testing, Filters.My_Favorite_Decoration).accepts(_swccgoGame, objective)) {
-                // Carbon Chamber Testing
-                objectiveLabel = "CCT";
-            }
-            if (Filters.or(Filters.Well_Handle_This, Filters.Duel_Of_The_Fates, Filters.Let_Them_Make_The_First_Move, Filters.At_Last_We_Will_Have_Revenge).accepts(_swccgoGame, objective)) {
-                // Combat
-                objectiveLabel = "Combat";
-            }
-            if (Filters.or(Filters.Court_Of_The_Vile_Gangster, Filters.I_Shall_Enjoy_Watching_You_Die).accepts(_swccgoGame, objective)) {
-                // Court Of The Vile Gangster
-                objectiveLabel = "Court";
-            }
-            if (Filters.or(Filters.Dantooine_Base_Operations, Filters.More_Dangerous_Than_You_Realize).accepts(_swccgoGame, objective)) {
-                // Dantooine Base Operations
-                objectiveLabel = "DBO";
-            }
-            if (Filters.or(Filters.City_In_The_Clouds, Filters.You_Truly_Belong_Here_With_Us).accepts(_swccgoGame, objective)) {
-                // City In The Clouds
-                objectiveLabel = "City In The Clouds";
-            }
-            if (Filters.or(Filters.Twin_Suns_Of_Tatooine, Filters.Well_Trained_In_The_Jedi_Arts).accepts(_swccgoGame, objective)) {
-                // Twin Suns
-                objectiveLabel = "Twin Suns";
-            }
-            if (Filters.or(Filters.Diplomatic_Mission_To_Alderaan, Filters.A_Weakness_Can_Be_Found).accepts(_swccgoGame, objective)) {
-                // Diplomatic Mission To Alderaan
-                objectiveLabel = "Diplo";
-            }
-            if (Filters.or(Filters.Endor_Operations, Filters.Imperial_Outpost).accepts(_swccgoGame, objective)) {
-                if (startingInterrupt != null && Filters.Operational_As_Planned.accepts(_swccgoGame, startingInterrupt)) {
-                    // That Thing's Operational
-                    objectiveLabel = "TTO";
-                } else {
-                    // Endor Operations
-                    objectiveLabel = "Endor Ops";
-                }
-            }
-            if (Filters.or(Filters.title("The First Order Reigns"), Filters.title(Title.The_Resistance_Is_Doomed)).accepts(_swccgoGame, objective)) {
-                // The First Order Reigns
-                objectiveLabel = "The First Order Reigns";
-            }
-            if (Filters.or(Filters.He_Is_The_Chosen_One, Filters.He_Will_Bring_Balance).accepts(_swccgoGame, objective)) {
-                // He Is The Chosen One
-                objectiveLabel = "HITCO";
-            }
-            if (Filters.or(Filters.Hidden_Base, Filters.Systems_Will_Slip_Through_Your_Fingers).accepts(_swccgoGame, objective)) {
-                // Hidden Base
-                objectiveLabel = "Hidden Base";
-            }
-            if (Filters.or(Filters.Hunt_Down_And_Destroy_The_Jedi, Filters.Their_Fire_Has_Gone_Out_Of_The_Universe).accepts(_swccgoGame, objective)) {
-                // Hunt Down
-                objectiveLabel = "Hunt Down";
-            }
-            if (Filters.or(Filters.Hunt_For_The_Droid_General, Filters.Hes_A_Coward).accepts(_swccgoGame, objective)) {
-                // Hunt For The Droid General
-                objectiveLabel = "Hunt For The Droid General";
-            }
-            if (Filters.or(Filters.The_Hyperdrive_Generators_Gone, Filters.Well_Need_A_New_One).accepts(_swccgoGame, objective)) {
-                // The Hyperdrive Generators Gone
-                objectiveLabel = "Hyperdrive";
-            }
-            if (Filters.or(Filters.I_Want_That_Map, Filters.And_Now_Youll_Give_It_To_Me).accepts(_swccgoGame, objective)) {
-                // I Want That Map
-                objectiveLabel = "Map";
-            }
-            if (Filters.or(Filters.Imperial_Entanglements, Filters.No_One_To_Stop_Us_This_Time).accepts(_swccgoGame, objective)) {
-                // Imperial Entanglements
-                objectiveLabel = "IE";
-            }
-            if (Filters.or(Filters.Invasion, Filters.In_Complete_Control).accepts(_swccgoGame, objective)) {
-                // Invasion
-                objectiveLabel = "Invasion";
-            }
-            if (Filters.or(Filters.ISB_Operations, Filters.Empires_Sinister_Agents).accepts(_swccgoGame, objective)) {
-                // ISB Operations
-                objectiveLabel = "ISB";
-            }
-            if (Filters.or(Filters.The_Galaxy_May_Need_A_Legend, Filters.We_Need_Luke_Skywalker).accepts(_swccgoGame, objective)) {
-                // The Galaxy May Need A Legend
-                objectiveLabel = "Legend";
-            }
-            if (Filters.or(Filters.title(Title.I_Can_Bring_You_In_Warm), Filters.title(Title.Or_I_Can_Bring_You_In_Cold)).accepts(_swccgoGame, objective)) {
-                objectiveLabel = "Mando";
-            }
-            if (Filters.or(Filters.Massassi_Base_Operations, Filters.One_In_A_Million).accepts(_swccgoGame, objective)) {
-                // Massassi Base Operations
-                objectiveLabel = "MBO";
-            }
-            if (Filters.or(Filters.My_Kind_Of_Scum, Filters.Fearless_And_Inventive).accepts(_swccgoGame, objective)) {
-                // My Kind Of Scum
-                objectiveLabel = "MKOS";
-            }
-            if (Filters.or(Filters.Mind_What_You_Have_Learned, Filters.Save_You_It_Can).accepts(_swccgoGame, objective)) {
-                // Mind What Your Have Learned
-                objectiveLabel = "MWYHL";
-            }
-            if (Filters.or(Filters.They_Have_No_Idea_Were_Coming, Filters.Until_We_Win_Or_The_Chances_Are_Spent).accepts(_swccgoGame, objective)) {
-                // They Have No Idea We're Coming
-                objectiveLabel = "No Idea";
-            }
-            if (Filters.or(Filters.Old_Allies, Filters.We_Need_Your_Help).accepts(_swccgoGame, objective)) {
-                // Old Allies
-                objectiveLabel = "Old Allies";
-            }
-            if (Filters.or(Filters.On_The_Verge_Of_Greatness, Filters.Taking_Control_Of_The_Weapon).accepts(_swccgoGame, objective)) {
-                // On The Verge Of Greatness
-                objectiveLabel = "On The Verge Of Greatness";
-            }
-            if (Filters.or(Filters.Local_Uprising, Filters.Liberation).accepts(_swccgoGame, objective)) {
-                // Operatives
-                objectiveLabel = "Local Uprising";
-
-                if (!objective.getBlueprint().hasVirtualSuffix()) {
-                    String system = _swccgoGame.getModifiersQuerying().getExtraInformationForArchetypeLabel(playerId);
-                    if (system != null)
-                        objectiveLabel = "Local Uprising - " + system;
-                }
-            }
-            if (Filters.or(Filters.Imperial_Occupation, Filters.Imperial_Control).accepts(_swccgoGame, objective)) {
-                // Operatives
-                    objectiveLabel = "Imperial Occupation";
-
-                if (!objective.getBlueprint().hasVirtualSuffix()) {
-                    String system = _swccgoGame.getModifiersQuerying().getExtraInformationForArchetypeLabel(playerId);
-                    if (system != null)
-                        objectiveLabel = "Imperial Occupation - " + system;
-                }
-            }
-            if (Filters.or(Filters.You_Can_Either_Profit_By_This, Filters.Or_Be_Destroyed).accepts(_swccgoGame, objective)) {
-                // You Can Either Profit By This...
-                objectiveLabel = "Profit";
-            }
-            if (Filters.or(Filters.title("The Empire Knows We're Here"), Filters.title("Prepare For Ground Assault")).accepts(_swccgoGame, objective)) {
-                // Protect The Ridge
-                objectiveLabel = "The Empire Knows We're Here";
-            }
-            if (Filters.or(Filters.Quiet_Mining_Colony, Filters.Independent_Operation).accepts(_swccgoGame, objective)) {
-                // Quiet Mining Colony
-                objectiveLabel = "QMC";
-            }
-            if (Filters.or(Filters.Ralltiir_Operations, Filters.In_The_Hands_Of_The_Empire).accepts(_swccgoGame, objective)) {
-                // Ralltiir Operations
-                objectiveLabel = "ROps";
-            }
-            if (Filters.or(Filters.Rebel_Strike_Team, Filters.Garrison_Destroyed).accepts(_swccgoGame, objective)) {
-                // Rebel Strike Team
-                objectiveLabel = "RST";
-            }
-            if (Filters.or(Filters.Rescue_The_Princess, Filters.Sometimes_I_Amaze_Even_Myself).accepts(_swccgoGame, objective)) {
-                // Rescue The Princess
-                objectiveLabel = "RTP";
-            }
-            if (Filters.or(Filters.Plead_My_Case_To_The_Senate, Filters.Sanity_And_Compassion, Filters.My_Lord_Is_That_Legal, Filters.I_Will_Make_It_Legal).accepts(_swccgoGame, objective)) {
-                // Senate
-                objectiveLabel = "Senate";
-            }
-            if (Filters.or(Filters.title("More Systems Will Rally To Our Cause"), Filters.title("The Galaxy Torn Apart")).accepts(_swccgoGame, objective)) {
-                // Separatists
-                objectiveLabel = "Rally To Our Cause";
-            }
-            if (Filters.or(Filters.Wookiee_Slaving_Operation, Filters.Indentured_To_The_Empire).accepts(_swccgoGame, objective)) {
-                //Wookiee Slaving Operation
-                objectiveLabel = "Slavers";
-            }
-            if (Filters.or(Filters.Shadow_Collective, Filters.You_Know_Who_I_Answer_To).accepts(_swccgoGame, objective)) {
-                // Shadow Collective
-                objectiveLabel = "Shadow Collective";
-            }
-            if (Filters.or(Filters.Set_Your_Course_For_Alderaan, Filters.The_Ultimate_Power_In_The_Universe).accepts(_swccgoGame, objective)) {
-                // Set Your Course For Alderaan
-                objectiveLabel = "SYCFA";
-            }
-            if (Filters.or(Filters.This_Deal_Is_Getting_Worse_All_The_Time, Filters.Pray_I_Dont_Alter_It_Any_Further).accepts(_swccgoGame, objective)) {
-                // This Deal Is Getting Worse All The Time
-                objectiveLabel = "TDIGWATT";
-            }
-            if (Filters.or(Filters.There_Is_Good_In_Him, Filters.I_Can_Save_Him).accepts(_swccgoGame, objective)) {
-                // There Is Good In Him
-                objectiveLabel = "TIGIH";
-            }
-            if (Filters.or(Filters.The_Shield_Will_Be_Down_In_Moments, Filters.Imperial_Troops_Have_Entered_The_Base).accepts(_swccgoGame, objective)) {
-                // Walkers
-                objectiveLabel = "Walkers";
-            }
-            if (Filters.or(Filters.No_Money_No_Parts_No_Deal, Filters.Youre_A_Slave).accepts(_swccgoGame, objective)) {
-                // Watto
-                objectiveLabel = "Watto";
-            }
-            if (Filters.or(Filters.We_Have_A_Plan, Filters.They_Will_Be_Lost_And_Confused).accepts(_swccgoGame, objective)) {
-                // WHAP
-                objectiveLabel = "WHAP";
-            }
-            if (Filters.or(Filters.Watch_Your_Step, Filters.This_Place_Can_Be_A_Little_Rough).accepts(_swccgoGame, objective)) {
-                // Watch Your Step
-                objectiveLabel = "WYS";
-            }
-            if (Filters.or(Filters.Yavin_4_Base_Operations, Filters.The_Time_To_Fight_Is_Now).accepts(_swccgoGame, objective)) {
-                // Yavin 4 Operations
-                objectiveLabel = "Y4O";
-            }
-            if (Filters.or(Filters.title("Zero Hour"), Filters.title("Liberation Of Lothal")).accepts(_swccgoGame, objective)) {
-                // Zero Hour
-                objectiveLabel = "Zero Hour";
-            }
-            if (objectiveLabel != null) {
-                if (objective.getBlueprint().hasVirtualSuffix()) {
-                    objectiveLabel = objectiveLabel + " v";
-                }
-                return objectiveLabel;
-            }
+        ModifiersQuerying modifiersQuerying = _swccgoGame.getModifiersQuerying();
+        for (String playerId : _playerClocks.keySet()) {
+            // The starting location does not change once the starting cards are played
+            if (!_startingLocations.containsKey(playerId))
+                _startingLocations.put(playerId, modifiersQuerying.getStartingLocation(playerId));
+
+            _deckArchetypeLabels.put(playerId, DeckArchetypes.getLabel(_startingLocations.get(playerId),
+                    gameState.getStartingInterruptPlayed(playerId), gameState.getObjectivePlayed(playerId),
+                    modifiersQuerying.getExtraInformationForArchetypeLabel(playerId)));
         }
-
-        return "Other";
     }
 
 
@@ -1592,4 +1580,17 @@ public class SwccgGameMediator {
     public void removeAllInGameStatisticsListeners() {
         _swccgoGame.removeAllInGameStatisticsListeners();
     }
+
+    /**
+     * The card info of a card, as rendered when the game state was at the given epoch.
+     */
+    private static class CachedCardInfo {
+        private final long _stateEpoch;
+        private final String _cardInfo;
+
+        private CachedCardInfo(long stateEpoch, String cardInfo) {
+            _stateEpoch = stateEpoch;
+            _cardInfo = cardInfo;
+        }
+    }
 }
@@ -36,6 +36,7 @@ public class SwccgoServer extends AbstractServer {
 
     private ChatServer _chatServer;
     private GameRecorder _gameRecorder;
+    private GameCheckpointer _gameCheckpointer;
 
     private ReadWriteLock _lock = new ReentrantReadWriteLock();
 
@@ -47,6 +48,21 @@ public class SwccgoServer extends AbstractServer {
         _inGameStatisticsDAO = inGameStatisticsDAO;
     }
 
+    /**
+     * Sets the checkpointer saving the running games, so they can be restored after a server restart.
+     * @param gameCheckpointer the checkpointer, or null to not checkpoint games
+     */
+    public void setGameCheckpointer(GameCheckpointer gameCheckpointer) {
+        _gameCheckpointer = gameCheckpointer;
+    }
+
+    @Override
+    public void stopServer() {
+        super.stopServer();
+        if (_gameCheckpointer != null)
+            _gameCheckpointer.shutdown();
+    }
+
     protected void cleanup() {
         _lock.writeLock().lock();
         try {
@@ -89,6 +105,15 @@ public class SwccgoServer extends AbstractServer {
     }
 
     public SwccgGameMediator createNewGame(SwccgFormat swccgFormat, League league, String tournamentName, final SwccgGameParticipant[] participants, boolean allowSpectators, boolean cancelIfNoActions, boolean allowCancelling, boolean allowSpectatorsToViewChat, boolean allowSpectatorsToChat, boolean allowExtendGameTimer, int decisionTimeoutSeconds, int timePerPlayerMinutes, boolean isPrivate, boolean inGameStatisticsOn, boolean bonusAbilitiesEnabled) {
+        return createNewGame(swccgFormat, league, tournamentName, participants, allowSpectators, cancelIfNoActions, allowCancelling, allowSpectatorsToViewChat, allowSpectatorsToChat, allowExtendGameTimer, decisionTimeoutSeconds, timePerPlayerMinutes, isPrivate, inGameStatisticsOn, bonusAbilitiesEnabled, null);
+    }
+
+    /**
+     * Creates a new game.
+     * @param checkpointAttributes the attributes to give back when the game is restored after a server restart, or
+     *                             null if the game is not to be restored
+     */
+    public SwccgGameMediator createNewGame(SwccgFormat swccgFormat, League league, String tournamentName, final SwccgGameParticipant[] participants, boolean allowSpectators, boolean cancelIfNoActions, boolean allowCancelling, boolean allowSpectatorsToViewChat, boolean allowSpectatorsToChat, boolean allowExtendGameTimer, int decisionTimeoutSeconds, int timePerPlayerMinutes, boolean isPrivate, boolean inGameStatisticsOn, boolean bonusAbilitiesEnabled, Map<String, String> checkpointAttributes) {
         _lock.writeLock().lock();
         try {
             if (participants.length < 2)
@@ -100,17 +125,7 @@ public class SwccgoServer extends AbstractServer {
              */
             final String gameId = new SwccgUuid().generateNewTableId();
 
-
-            Set<String> allowedUsers = new HashSet<String>();
-            for (SwccgGameParticipant participant : participants) {
-                allowedUsers.add(participant.getPlayerId());
-            }
-
-            if (!allowSpectatorsToViewChat||isPrivate) {
-                _chatServer.createPrivateChatRoom(getChatRoomName(gameId), false, allowedUsers, 30);
-            } else {
-                _chatServer.createChatRoom(getChatRoomName(gameId), false, 30, allowedUsers, allowSpectatorsToChat, swccgFormat.isPlaytesting());
-            }
+            createChatRoom(gameId, participants, swccgFormat, allowSpectatorsToViewChat, allowSpectatorsToChat, isPrivate);
 
             /*
              * This is the game timer.
@@ -121,28 +136,14 @@ public class SwccgoServer extends AbstractServer {
                         maxPlayerTime, allowSpectators, cancelIfNoActions, allowCancelling, allowExtendGameTimer, decisionTimeoutSeconds, isPrivate,
                         bonusAbilitiesEnabled&&(tournamentName==null||tournamentName.equals("Casual")));
 
-
-            swccgGameMediator.addGameResultListener(
-                    new GameResultListener() {
-                        @Override
-                        public void gameFinished(String winnerPlayerId, String winReason, Map<String, String> loserPlayerIdsWithReasons, String winnerSide, String loserSide) {
-                            _finishedGamesTime.put(gameId, new Date());
-                        }
-
-                        @Override
-                        public void gameCancelled() {
-                            _finishedGamesTime.put(gameId, new Date());
-                        }
-                    });
+            addFinishedGameListener(gameId, swccgGameMediator);
             swccgGameMediator.sendMessageToPlayers("You're starting a game of " + swccgFormat.getName());
 
             if (inGameStatisticsOn && !isPrivate)
                 swccgGameMediator.addInGameStatisticsListener(new GameStatisticsProcessor(_inGameStatisticsDAO, gameId));
 
             StringBuilder players = new StringBuilder();
-            Map<String, String> deckNames = new HashMap<String, String>();
             for (SwccgGameParticipant participant : participants) {
-                deckNames.put(participant.getPlayerId(), participant.getDeck().getDeckName());
                 if (players.length() > 0)
                     players.append(", ");
                 players.append(participant.getPlayerId());
@@ -150,22 +151,83 @@ public class SwccgoServer extends AbstractServer {
 
             swccgGameMediator.sendMessageToPlayers("Players in the game are: " + players);
 
-            final GameRecorder.GameRecordingInProgress gameRecordingInProgress = _gameRecorder.recordGame(swccgGameMediator, swccgFormat.getName(), tournamentName, deckNames);
-            swccgGameMediator.addGameResultListener(
-                    new GameResultListener() {
-                        @Override
-                        public void gameFinished(String winnerPlayerId, String winReason, Map<String, String> loserPlayerIdsWithReasons, String winnerSide, String loserSide) {
-                            final Map.Entry<String, String> loserEntry = loserPlayerIdsWithReasons.entrySet().iterator().next();
+            GameRecorder.GameRecordingInProgress gameRecordingInProgress = _gameRecorder.recordGame(swccgGameMediator, swccgFormat.getName(), tournamentName, getDeckNames(participants));
+            addRecordingListener(swccgGameMediator, gameRecordingInProgress, participants);
 
-                            gameRecordingInProgress.finishRecording(winnerPlayerId, winReason, loserEntry.getKey(), loserEntry.getValue());
-                        }
+            if (_gameCheckpointer != null && checkpointAttributes != null) {
+                GameCheckpoint checkpoint = new GameCheckpoint(gameId, swccgFormat.getName(), swccgGameMediator.getDecisionLog().getRandomSeed(),
+                        swccgGameMediator.getDecisionLog().isUseBonusAbilities(), league != null ? league.getType() : null, tournamentName,
+                        getDeckNames(participants), swccgGameMediator.getDecisionLog().getDeckContents(), allowSpectators, cancelIfNoActions,
+                        allowCancelling, allowSpectatorsToViewChat, allowSpectatorsToChat, allowExtendGameTimer, decisionTimeoutSeconds,
+                        timePerPlayerMinutes, isPrivate, inGameStatisticsOn, checkpointAttributes);
+                addCheckpointedGame(checkpoint, swccgGameMediator);
+            }
 
-                        @Override
-                        public void gameCancelled() {
-                            gameRecordingInProgress.finishRecording(participants[0].getPlayerId(), "Game cancelled due to error", participants[1].getPlayerId(), "Game cancelled due to error");
-                        }
-                    }
-            );
+            _runningGames.put(gameId, swccgGameMediator);
+            return swccgGameMediator;
+        } finally {
+            _lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the checkpoints of the games that were running when the server stopped.
+     * @return the checkpoints
+     */
+    public List<GameCheckpoint> getGameCheckpoints() {
+        if (_gameCheckpointer == null)
+            return Collections.emptyList();
+        return _gameCheckpointer.readCheckpoints();
+    }
+
+    /**
+     * Restores a game that was running when the server stopped, by playing its decision log into a new game with the
+     * same id. The game is checkpointed again from then on.
+     * @param checkpoint the checkpoint of the game
+     * @param swccgFormat the format of the game
+     * @param league the league the game is played in, or null
+     * @return the game, or null if the game turned out to be finished
+     */
+    public SwccgGameMediator restoreGame(GameCheckpoint checkpoint, SwccgFormat swccgFormat, League league) {
+        _lock.writeLock().lock();
+        try {
+            final String gameId = checkpoint.getGameId();
+            List<SwccgGameParticipant> participantList = new ArrayList<SwccgGameParticipant>();
+            for (Map.Entry<String, String> deckName : checkpoint.getDeckNames().entrySet()) {
+                String playerId = deckName.getKey();
+                participantList.add(new SwccgGameParticipant(playerId, createDeckWithValidate(deckName.getValue(), checkpoint.getDeckContents().get(playerId))));
+            }
+            SwccgGameParticipant[] participants = participantList.toArray(new SwccgGameParticipant[participantList.size()]);
+
+            int maxPlayerTime = checkpoint.getTimePerPlayerMinutes() * swccgFormat.getDefaultGameTimerMinutes();
+            SwccgGameMediator swccgGameMediator = new SwccgGameMediator(gameId, swccgFormat, league, participants, _swccgCardBlueprintLibrary,
+                    maxPlayerTime, checkpoint.isAllowSpectators(), checkpoint.isCancelIfNoActions(), checkpoint.isAllowCancelling(),
+                    checkpoint.isAllowExtendGameTimer(), checkpoint.getDecisionTimeoutSeconds(), checkpoint.isPrivate(),
+                    checkpoint.isUseBonusAbilities(), checkpoint.getRandomSeed());
+
+            // The game is recorded from where the original game started recording, after the opening messages
+            List<GameDecisionLog.Entry> entries = checkpoint.getEntries();
+            int recordingStart = 0;
+            while (recordingStart < entries.size() && entries.get(recordingStart).getType() == GameDecisionLog.EntryType.MESSAGE)
+                recordingStart++;
+            swccgGameMediator.replayDecisionLogEntries(entries.subList(0, recordingStart));
+            GameRecorder.GameRecordingInProgress gameRecordingInProgress = _gameRecorder.recordGame(swccgGameMediator, swccgFormat.getName(), checkpoint.getTournamentName(), checkpoint.getDeckNames());
+            swccgGameMediator.replayDecisionLogEntries(entries.subList(recordingStart, entries.size()));
+
+            if (swccgGameMediator.isFinished()) {
+                _gameCheckpointer.deleteCheckpoint(gameId);
+                return null;
+            }
+
+            createChatRoom(gameId, participants, swccgFormat, checkpoint.isAllowSpectatorsToViewChat(), checkpoint.isAllowSpectatorsToChat(), checkpoint.isPrivate());
+            addFinishedGameListener(gameId, swccgGameMediator);
+            if (checkpoint.isInGameStatisticsOn() && !checkpoint.isPrivate())
+                swccgGameMediator.addInGameStatisticsListener(new GameStatisticsProcessor(_inGameStatisticsDAO, gameId));
+            addRecordingListener(swccgGameMediator, gameRecordingInProgress, participants);
+            addCheckpointedGame(checkpoint, swccgGameMediator);
+
+            swccgGameMediator.resumeRestoredGame(checkpoint.getPlayerClocks());
+            swccgGameMediator.sendMessageToPlayers("The game was restored after a server restart");
 
             _runningGames.put(gameId, swccgGameMediator);
             return swccgGameMediator;
@@ -174,6 +236,75 @@ public class SwccgoServer extends AbstractServer {
         }
     }
 
+    private void createChatRoom(String gameId, SwccgGameParticipant[] participants, SwccgFormat swccgFormat, boolean allowSpectatorsToViewChat, boolean allowSpectatorsToChat, boolean isPrivate) {
+        Set<String> allowedUsers = new HashSet<String>();
+        for (SwccgGameParticipant participant : participants) {
+            allowedUsers.add(participant.getPlayerId());
+        }
+
+        if (!allowSpectatorsToViewChat||isPrivate) {
+            _chatServer.createPrivateChatRoom(getChatRoomName(gameId), false, allowedUsers, 30);
+        } else {
+            _chatServer.createChatRoom(getChatRoomName(gameId), false, 30, allowedUsers, allowSpectatorsToChat, swccgFormat.isPlaytesting());
+        }
+    }
+
+    private Map<String, String> getDeckNames(SwccgGameParticipant[] participants) {
+        Map<String, String> deckNames = new LinkedHashMap<String, String>();
+        for (SwccgGameParticipant participant : participants)
+            deckNames.put(participant.getPlayerId(), participant.getDeck().getDeckName());
+        return deckNames;
+    }
+
+    private void addFinishedGameListener(final String gameId, SwccgGameMediator swccgGameMediator) {
+        swccgGameMediator.addGameResultListener(
+                new GameResultListener() {
+                    @Override
+                    public void gameFinished(String winnerPlayerId, String winReason, Map<String, String> loserPlayerIdsWithReasons, String winnerSide, String loserSide) {
+                        _finishedGamesTime.put(gameId, new Date());
+                    }
+
+                    @Override
+                    public void gameCancelled() {
+                        _finishedGamesTime.put(gameId, new Date());
+                    }
+                });
+    }
+
+    private void addRecordingListener(SwccgGameMediator swccgGameMediator, final GameRecorder.GameRecordingInProgress gameRecordingInProgress, final SwccgGameParticipant[] participants) {
+        swccgGameMediator.addGameResultListener(
+                new GameResultListener() {
+                    @Override
+                    public void gameFinished(String winnerPlayerId, String winReason, Map<String, String> loserPlayerIdsWithReasons, String winnerSide, String loserSide) {
+                        final Map.Entry<String, String> loserEntry = loserPlayerIdsWithReasons.entrySet().iterator().next();
+
+                        gameRecordingInProgress.finishRecording(winnerPlayerId, winReason, loserEntry.getKey(), loserEntry.getValue());
+                    }
+
+                    @Override
+                    public void gameCancelled() {
+                        gameRecordingInProgress.finishRecording(participants[0].getPlayerId(), "Game cancelled due to error", participants[1].getPlayerId(), "Game cancelled due to error");
+                    }
+                }
+        );
+    }
+
+    private void addCheckpointedGame(final GameCheckpoint checkpoint, SwccgGameMediator swccgGameMediator) {
+        _gameCheckpointer.addGame(checkpoint, swccgGameMediator);
+        swccgGameMediator.addGameResultListener(
+                new GameResultListener() {
+                    @Override
+                    public void gameFinished(String winnerPlayerId, String winReason, Map<String, String> loserPlayerIdsWithReasons, String winnerSide, String loserSide) {
+                        _gameCheckpointer.removeGame(checkpoint.getGameId());
+                    }
+
+                    @Override
+                    public void gameCancelled() {
+                        _gameCheckpointer.removeGame(checkpoint.getGameId());
+                    }
+                });
+    }
+
     public SwccgDeck getParticipantDeck(Player player, String deckName) {
         return _deckDao.getDeckForPlayer(player, deckName);
     }
@@ -190,5 +321,17 @@ public class SwccgoServer extends AbstractServer {
             _lock.readLock().unlock();
         }
     }
-}
 
+    /**
+     * Gets the games currently running, including finished games that have not been removed yet.
+     * @return the games
+     */
+    public List<SwccgGameMediator> getRunningGames() {
+        _lock.readLock().lock();
+        try {
+            return new ArrayList<SwccgGameMediator>(_runningGames.values());
+        } finally {
+            _lock.readLock().unlock();
+        }
+    }
+}
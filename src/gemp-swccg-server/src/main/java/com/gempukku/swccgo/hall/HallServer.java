@@ -26,6 +26,8 @@ import com.gempukku.swccgo.logic.vo.SwccgDeck;
 import com.gempukku.swccgo.service.AdminService;
 import com.gempukku.swccgo.tournament.*;
 import com.gempukku.util.SwccgUuid;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -34,6 +36,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class HallServer extends AbstractServer {
+    private static final Logger LOG = LogManager.getLogger(HallServer.class);
     private final int _playerInactivityPeriod = 1000 * 60; // 60 seconds
     private final long _scheduledTournamentLoadTime = 1000 * 60 * 60 * 24 * 7; // Week
     private final long _repeatTournaments = 1000 * 60 * 60 * 24 * 2;
@@ -146,6 +149,7 @@ public class HallServer extends AbstractServer {
     protected void doAfterStartup() {
         for (Tournament tournament : _tournamentService.getLiveTournaments())
             _runningTournaments.put(tournament.getTournamentId(), tournament);
+        restoreGames();
     }
 
     public void setOperational() {
@@ -862,21 +866,7 @@ public class HallServer extends AbstractServer {
         final League league = awaitingTable.getLeague();
         final LeagueSeriesData leagueSerie = awaitingTable.getLeagueSeries();
 
-        GameResultListener listener = null;
-        if (league != null) {
-            listener = new GameResultListener() {
-                @Override
-                public void gameFinished(String winnerPlayerId, String winReason, Map<String, String> loserPlayerIdsWithReasons, String winnerSide, String loserSide) {
-                    _leagueService.reportLeagueGameResult(league, leagueSerie, winnerPlayerId, loserPlayerIdsWithReasons.keySet().iterator().next(), winnerSide, loserSide);
-                }
-
-                @Override
-                public void gameCancelled() {
-                    // Do nothing...
-                }
-            };
-        }
-
+        GameResultListener listener = getLeagueGameResultListener(league, leagueSerie);
 
         int decisionTimeoutSeconds = 300; // 5 minutes;
         boolean allowSpectators = !awaitingTable.isPrivate();
@@ -888,11 +878,80 @@ public class HallServer extends AbstractServer {
             allowTimerExtensions = league.getAllowTimeExtensions();
             timePerPlayerMinutes = league.getTimePerPlayerMinutes();
         }
-        createGame(league, leagueSerie, tableId, participants, listener, awaitingTable.getSwccgoFormat(), getTournamentName(awaitingTable), league != null ? null : awaitingTable.getTableDesc(), allowSpectators, true, !awaitingTable.isPrivate(), (league == null)&&!awaitingTable.isPrivate(), allowTimerExtensions, decisionTimeoutSeconds, timePerPlayerMinutes, awaitingTable.isPrivate());
+        String tableDesc = league != null ? null : awaitingTable.getTableDesc();
+        Map<String, String> checkpointAttributes = new HashMap<String, String>();
+        checkpointAttributes.put("tableId", tableId);
+        if (tableDesc != null)
+            checkpointAttributes.put("tableDesc", tableDesc);
+        if (leagueSerie != null)
+            checkpointAttributes.put("leagueSeries", leagueSerie.getName());
+        createGame(league, leagueSerie, tableId, participants, listener, awaitingTable.getSwccgoFormat(), getTournamentName(awaitingTable), tableDesc, allowSpectators, true, !awaitingTable.isPrivate(), (league == null)&&!awaitingTable.isPrivate(), allowTimerExtensions, decisionTimeoutSeconds, timePerPlayerMinutes, awaitingTable.isPrivate(), checkpointAttributes);
         _awaitingTables.remove(tableId);
         removeWaitingTablesWithPlayers(players);
     }
 
+    private GameResultListener getLeagueGameResultListener(final League league, final LeagueSeriesData leagueSerie) {
+        if (league == null)
+            return null;
+
+        return new GameResultListener() {
+            @Override
+            public void gameFinished(String winnerPlayerId, String winReason, Map<String, String> loserPlayerIdsWithReasons, String winnerSide, String loserSide) {
+                _leagueService.reportLeagueGameResult(league, leagueSerie, winnerPlayerId, loserPlayerIdsWithReasons.keySet().iterator().next(), winnerSide, loserSide);
+            }
+
+            @Override
+            public void gameCancelled() {
+                // Do nothing...
+            }
+        };
+    }
+
+    /**
+     * Restores the games of the hall tables that were running when the server stopped. Tournament games are not
+     * restored, since the tournaments pair their players again.
+     */
+    private void restoreGames() {
+        _hallDataAccessLock.writeLock().lock();
+        try {
+            for (GameCheckpoint checkpoint : _swccgoServer.getGameCheckpoints()) {
+                try {
+                    SwccgFormat swccgFormat = null;
+                    for (SwccgFormat format : _formatLibrary.getAllFormats().values()) {
+                        if (format.getName().equals(checkpoint.getFormatName()))
+                            swccgFormat = format;
+                    }
+                    League league = checkpoint.getLeagueType() != null ? _leagueService.getLeagueByType(checkpoint.getLeagueType()) : null;
+                    LeagueSeriesData leagueSerie = null;
+                    if (league != null) {
+                        for (LeagueSeriesData serie : league.getLeagueData().getSeries()) {
+                            if (serie.getName().equals(checkpoint.getAttribute("leagueSeries")))
+                                leagueSerie = serie;
+                        }
+                    }
+                    if (swccgFormat == null || (checkpoint.getLeagueType() != null && leagueSerie == null)) {
+                        LOG.warn("Unable to restore game " + checkpoint.getGameId() + ", its format or league no longer exists");
+                        continue;
+                    }
+
+                    SwccgGameMediator swccgGameMediator = _swccgoServer.restoreGame(checkpoint, swccgFormat, league);
+                    if (swccgGameMediator != null) {
+                        GameResultListener listener = getLeagueGameResultListener(league, leagueSerie);
+                        if (listener != null)
+                            swccgGameMediator.addGameResultListener(listener);
+                        swccgGameMediator.addGameResultListener(_notifyHallListeners);
+                        _runningTables.put(checkpoint.getAttribute("tableId"), new RunningTable(swccgGameMediator, swccgFormat.getName(), checkpoint.getTournamentName(), checkpoint.getAttribute("tableDesc"), league, leagueSerie));
+                        LOG.info("Restored game " + checkpoint.getGameId());
+                    }
+                } catch (RuntimeException exp) {
+                    LOG.error("Unable to restore game " + checkpoint.getGameId(), exp);
+                }
+            }
+        } finally {
+            _hallDataAccessLock.writeLock().unlock();
+        }
+    }
+
     /**
      * Removes all waiting tables with the specified players. This is to avoid having extra tables left around for when
      * a player creates several tables in the hall, and then a game with the player starts. Players often forget to close
@@ -918,8 +977,8 @@ public class HallServer extends AbstractServer {
         }
     }
 
-    private void createGame(League league, LeagueSeriesData leagueSerie, String tableId, SwccgGameParticipant[] participants, GameResultListener listener, SwccgFormat swccgFormat, String tournamentName, String tableDesc, boolean allowSpectators, boolean allowCancelling, boolean allowSpectatorsToViewChat, boolean allowSpectatorsToChat, boolean allowExtendGameTimer, int decisionTimeoutSeconds, int timePerPlayerMinutes, boolean isPrivate) {
-        SwccgGameMediator swccgGameMediator = _swccgoServer.createNewGame(swccgFormat, league, tournamentName, participants, allowSpectators, league == null, allowCancelling, allowSpectatorsToViewChat, allowSpectatorsToChat, allowExtendGameTimer, decisionTimeoutSeconds, timePerPlayerMinutes, isPrivate, _inGameStatisticsEnabled, _bonusAbilitiesEnabled);
+    private void createGame(League league, LeagueSeriesData leagueSerie, String tableId, SwccgGameParticipant[] participants, GameResultListener listener, SwccgFormat swccgFormat, String tournamentName, String tableDesc, boolean allowSpectators, boolean allowCancelling, boolean allowSpectatorsToViewChat, boolean allowSpectatorsToChat, boolean allowExtendGameTimer, int decisionTimeoutSeconds, int timePerPlayerMinutes, boolean isPrivate, Map<String, String> checkpointAttributes) {
+        SwccgGameMediator swccgGameMediator = _swccgoServer.createNewGame(swccgFormat, league, tournamentName, participants, allowSpectators, league == null, allowCancelling, allowSpectatorsToViewChat, allowSpectatorsToChat, allowExtendGameTimer, decisionTimeoutSeconds, timePerPlayerMinutes, isPrivate, _inGameStatisticsEnabled, _bonusAbilitiesEnabled, checkpointAttributes);
         if (listener != null) {
             swccgGameMediator.addGameResultListener(listener);
         }
@@ -1095,7 +1154,7 @@ public class HallServer extends AbstractServer {
                                 public void gameCancelled() {
                                     createGameInternal(participants, allowSpectators);
                                 }
-                            }, _formatLibrary.getFormat(_tournament.getFormat()), _tournament.getTournamentName(), null, allowSpectators, false, false, false, false, _decisionTimeoutSeconds, _timePerPlayerMinutes, false);
+                            }, _formatLibrary.getFormat(_tournament.getFormat()), _tournament.getTournamentName(), null, allowSpectators, false, false, false, false, _decisionTimeoutSeconds, _timePerPlayerMinutes, false, null);
                 }
             } finally {
                 _hallDataAccessLock.writeLock().unlock();
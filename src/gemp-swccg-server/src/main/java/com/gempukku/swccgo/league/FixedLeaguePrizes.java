@@ -17,6 +17,7 @@ import java.util.*;
  */
 public class FixedLeaguePrizes implements LeaguePrizes {
     private SwccgCardBlueprintLibrary _library;
+    private Random _random;
     private List<String> _commonsAndFixed = new ArrayList<String>();
     private List<String> _uncommonsAndPreview = new ArrayList<String>();
     private List<String> _raresAndPremiums = new ArrayList<String>();
@@ -26,7 +27,17 @@ public class FixedLeaguePrizes implements LeaguePrizes {
      * @param library the card blueprint library
      */
     public FixedLeaguePrizes(SwccgCardBlueprintLibrary library) {
+        this(library, new Random());
+    }
+
+    /**
+     * Creates the prizes used for leagues, with the prize cards chosen using the specified random.
+     * @param library the card blueprint library
+     * @param random the random used to choose the prize cards
+     */
+    public FixedLeaguePrizes(SwccgCardBlueprintLibrary library, Random random) {
         _library = library;
+        _random = random;
         RarityReader rarityReader = new RarityReader();
         for (int i = 1; i < (1 + CardCounts.FULL_SETS_CARD_COUNTS.length); i++) {
             addCardsToPrizePools(rarityReader.getSetRarity(String.valueOf(i)));
@@ -199,7 +210,7 @@ public class FixedLeaguePrizes implements LeaguePrizes {
      * @return a string
      */
     private String getRandom(List<String> list) {
-        return list.get(new Random().nextInt(list.size()));
+        return list.get(_random.nextInt(list.size()));
     }
 
     /**
@@ -213,7 +224,7 @@ public class FixedLeaguePrizes implements LeaguePrizes {
         for (String element : list) {
             result.add(element + "*");
         }
-        Collections.shuffle(result);
+        Collections.shuffle(result, _random);
         return result.subList(0, count);
     }
 }
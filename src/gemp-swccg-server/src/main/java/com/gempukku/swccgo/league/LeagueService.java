@@ -3,8 +3,8 @@ package com.gempukku.swccgo.league;
 import com.gempukku.swccgo.DateUtils;
 import com.gempukku.swccgo.collection.CollectionsManager;
 import com.gempukku.swccgo.common.Side;
+import com.gempukku.swccgo.competitive.IncrementalStandings;
 import com.gempukku.swccgo.competitive.PlayerStanding;
-import com.gempukku.swccgo.competitive.StandingsProducer;
 import com.gempukku.swccgo.db.LeagueDAO;
 import com.gempukku.swccgo.db.LeagueMatchDAO;
 import com.gempukku.swccgo.db.LeagueParticipationDAO;
@@ -30,8 +30,9 @@ public class LeagueService {
 
     private CollectionsManager _collectionsManager;
 
-    private Map<String, List<PlayerStanding>> _leagueStandings = new ConcurrentHashMap<String, List<PlayerStanding>>();
-    private Map<String, List<PlayerStanding>> _leagueSeriesStandings = new ConcurrentHashMap<String, List<PlayerStanding>>();
+    // Standings are loaded once and then kept up to date as games are reported, readers don't lock
+    private Map<String, IncrementalStandings> _leagueStandings = new ConcurrentHashMap<String, IncrementalStandings>();
+    private Map<String, IncrementalStandings> _leagueSeriesStandings = new ConcurrentHashMap<String, IncrementalStandings>();
 
     private int _activeLeaguesLoadedDate;
     private List<League> _activeLeagues;
@@ -108,7 +109,11 @@ public class LeagueService {
             _leagueParticipationDAO.userJoinsLeague(league.getType(), player, remoteAddr);
             league.getLeagueData().joinLeague(_collectionsManager, player, DateUtils.getCurrentDate());
 
-            _leagueStandings.remove(LeagueMapKeys.getLeagueMapKey(league));
+            IncrementalStandings leagueStandings = _leagueStandings.get(LeagueMapKeys.getLeagueMapKey(league));
+            if (leagueStandings != null)
+                leagueStandings.addParticipant(player.getName());
+            for (IncrementalStandings serieStandings : getLoadedSeriesStandings(league))
+                serieStandings.addParticipant(player.getName());
 
             return true;
         } else {
@@ -149,8 +154,13 @@ public class LeagueService {
     public synchronized void reportLeagueGameResult(League league, LeagueSeriesData serie, String winner, String loser, String winnerSide, String loserSide) {
         _leagueMatchDao.addPlayedMatch(league.getType(), serie.getName(), winner, loser, winnerSide, loserSide);
 
-        _leagueStandings.remove(LeagueMapKeys.getLeagueMapKey(league));
-        _leagueSeriesStandings.remove(LeagueMapKeys.getLeagueSeriesMapKey(league, serie));
+        // Standings not loaded yet will pick this match up from the DAO when they are
+        IncrementalStandings leagueStandings = _leagueStandings.get(LeagueMapKeys.getLeagueMapKey(league));
+        if (leagueStandings != null)
+            leagueStandings.addMatchResult(winner, loser);
+        IncrementalStandings serieStandings = _leagueSeriesStandings.get(LeagueMapKeys.getLeagueSeriesMapKey(league, serie));
+        if (serieStandings != null)
+            serieStandings.addMatchResult(winner, loser);
 
         awardPrizesToPlayer(league, serie, winner, true);
         awardPrizesToPlayer(league, serie, loser, false);
@@ -183,29 +193,53 @@ public class LeagueService {
         return result;
     }
 
-    public synchronized List<PlayerStanding> getLeagueStandings(League league) {
-        List<PlayerStanding> leagueStandings = _leagueStandings.get(LeagueMapKeys.getLeagueMapKey(league));
+    public List<PlayerStanding> getLeagueStandings(League league) {
+        IncrementalStandings leagueStandings = _leagueStandings.get(LeagueMapKeys.getLeagueMapKey(league));
+        if (leagueStandings == null)
+            leagueStandings = loadLeagueStandings(league);
+        return leagueStandings.getStandings();
+    }
+
+    public List<PlayerStanding> getLeagueSeriesStandings(League league, LeagueSeriesData leagueSerie) {
+        IncrementalStandings serieStandings = _leagueSeriesStandings.get(LeagueMapKeys.getLeagueSeriesMapKey(league, leagueSerie));
+        if (serieStandings == null)
+            serieStandings = loadLeagueSeriesStandings(league, leagueSerie);
+        return serieStandings.getStandings();
+    }
+
+    // Loading is done under the service lock, so a game result can't be reported between reading the matches and
+    // publishing the standings
+    private synchronized IncrementalStandings loadLeagueStandings(League league) {
+        String key = LeagueMapKeys.getLeagueMapKey(league);
+        IncrementalStandings leagueStandings = _leagueStandings.get(key);
         if (leagueStandings == null) {
-            synchronized (this) {
-                leagueStandings = createLeagueStandings(league);
-                _leagueStandings.put(LeagueMapKeys.getLeagueMapKey(league), leagueStandings);
-            }
+            leagueStandings = createLeagueStandings(league);
+            _leagueStandings.put(key, leagueStandings);
         }
         return leagueStandings;
     }
 
-    public synchronized List<PlayerStanding> getLeagueSeriesStandings(League league, LeagueSeriesData leagueSerie) {
-        List<PlayerStanding> serieStandings = _leagueSeriesStandings.get(LeagueMapKeys.getLeagueSeriesMapKey(league, leagueSerie));
+    private synchronized IncrementalStandings loadLeagueSeriesStandings(League league, LeagueSeriesData leagueSerie) {
+        String key = LeagueMapKeys.getLeagueSeriesMapKey(league, leagueSerie);
+        IncrementalStandings serieStandings = _leagueSeriesStandings.get(key);
         if (serieStandings == null) {
-            synchronized (this) {
-                serieStandings = createLeagueSeriesStandings(league, leagueSerie);
-                _leagueSeriesStandings.put(LeagueMapKeys.getLeagueSeriesMapKey(league, leagueSerie), serieStandings);
-            }
+            serieStandings = createLeagueSeriesStandings(league, leagueSerie);
+            _leagueSeriesStandings.put(key, serieStandings);
         }
         return serieStandings;
     }
 
-    private List<PlayerStanding> createLeagueSeriesStandings(League league, LeagueSeriesData leagueSerie) {
+    private List<IncrementalStandings> getLoadedSeriesStandings(League league) {
+        List<IncrementalStandings> result = new ArrayList<IncrementalStandings>();
+        for (LeagueSeriesData leagueSerie : league.getLeagueData().getSeries()) {
+            IncrementalStandings serieStandings = _leagueSeriesStandings.get(LeagueMapKeys.getLeagueSeriesMapKey(league, leagueSerie));
+            if (serieStandings != null)
+                result.add(serieStandings);
+        }
+        return result;
+    }
+
+    private IncrementalStandings createLeagueSeriesStandings(League league, LeagueSeriesData leagueSerie) {
         final Collection<String> playersParticipating = _leagueParticipationDAO.getUsersParticipating(league.getType());
         final Collection<LeagueMatchResult> matches = _leagueMatchDao.getLeagueMatches(league.getType());
 
@@ -218,15 +252,15 @@ public class LeagueService {
         return createStandingsForMatchesAndPoints(playersParticipating, matchesInSerie);
     }
 
-    private List<PlayerStanding> createLeagueStandings(League league) {
+    private IncrementalStandings createLeagueStandings(League league) {
         final Collection<String> playersParticipating = _leagueParticipationDAO.getUsersParticipating(league.getType());
         final Collection<LeagueMatchResult> matches = _leagueMatchDao.getLeagueMatches(league.getType());
 
         return createStandingsForMatchesAndPoints(playersParticipating, matches);
     }
 
-    private List<PlayerStanding> createStandingsForMatchesAndPoints(Collection<String> playersParticipating, Collection<LeagueMatchResult> matches) {
-        return StandingsProducer.produceStandings(playersParticipating, matches, 3, 1, Collections.<String, Integer>emptyMap());
+    private IncrementalStandings createStandingsForMatchesAndPoints(Collection<String> playersParticipating, Collection<LeagueMatchResult> matches) {
+        return new IncrementalStandings(playersParticipating, matches, 3, 1, Collections.<String, Integer>emptyMap());
     }
 
     public synchronized boolean canPlayRankedGame(League league, LeagueSeriesData season, String player) {
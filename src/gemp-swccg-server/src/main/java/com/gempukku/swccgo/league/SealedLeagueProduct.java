@@ -3,6 +3,7 @@ package com.gempukku.swccgo.league;
 import com.gempukku.swccgo.game.CardCollection;
 import com.gempukku.swccgo.game.DefaultCardCollection;
 import com.gempukku.swccgo.game.MutableCardCollection;
+import com.gempukku.swccgo.packagedProduct.PackRandom;
 import com.gempukku.swccgo.packagedProduct.ProductName;
 
 import java.util.*;
@@ -1042,8 +1043,8 @@ public class SealedLeagueProduct {
             MutableCardCollection collection = new DefaultCardCollection(_collections.get(leagueCode).get(seriesIndex));
             if (_fixedFromPool.get(leagueCode).get(seriesIndex)!=null) {
                 for (PoolIntPair pair : _fixedFromPool.get(leagueCode).get(seriesIndex)) {
-                    List<String> pool = new LinkedList(pair.getPool());
-                    Collections.shuffle(pool);
+                    List<String> pool = new ArrayList<String>(pair.getPool());
+                    Collections.shuffle(pool, PackRandom.getInstance());
                     for (int i = 0; i < pair.getCount(); i++) {
                         if (pool.get(i) != null) {
                             if (pool.get(i).startsWith("LIGHTSPEED_")) {
@@ -15,8 +15,7 @@ import org.apache.commons.collections4.map.LRUMap;
 
 import java.util.*;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Provides the implementation of the merchant service for buying and selling cards.
@@ -27,7 +26,8 @@ public class MerchantService {
     private long _priceGuaranteeExpire = 1000 * 60 * 5;
     private Map<String, PriceGuarantee> _priceGuarantees = Collections.synchronizedMap(new LRUMap(100));
 
-    private ReadWriteLock _lock = new ReentrantReadWriteLock(true);
+    // Only buying and selling are done under the lock, pricing only reads the price tables
+    private Lock _lock = new ReentrantLock(true);
     private Set<CardItem> _merchantableItems = new HashSet<CardItem>();
     private Set<String> _merchantableStrings = new HashSet<String>();
 
@@ -189,39 +189,32 @@ public class MerchantService {
      * @return the prices
      */
     public PriceGuarantee priceCards(Player player, Collection<CardItem> cardBlueprintIds) {
-        Lock lock = _lock.readLock();
-        lock.lock();
-        try {
-            Date currentTime = new Date();
-            Map<String, Integer> buyPrices = new HashMap<String, Integer>();
-            Map<String, Integer> sellPrices = new HashMap<String, Integer>();
-            for (CardItem cardItem : cardBlueprintIds) {
-                String blueprintId = cardItem.getBlueprintId();
-                Integer fixedPrice = _fixedPriceItems.get(blueprintId);
-                // Fixed price items are only sold by the merchant (not bought by the merchant)
-                if (fixedPrice != null) {
-                    sellPrices.put(blueprintId, fixedPrice);
+        Date currentTime = new Date();
+        Map<String, Integer> buyPrices = new HashMap<String, Integer>();
+        Map<String, Integer> sellPrices = new HashMap<String, Integer>();
+        for (CardItem cardItem : cardBlueprintIds) {
+            String blueprintId = cardItem.getBlueprintId();
+            Integer fixedPrice = _fixedPriceItems.get(blueprintId);
+            // Fixed price items are only sold by the merchant (not bought by the merchant)
+            if (fixedPrice != null) {
+                sellPrices.put(blueprintId, fixedPrice);
+            }
+            else if (blueprintId.contains("_")) {
+                Integer buyPrice = _merchant.getCardBuyPrice(blueprintId, currentTime);
+                if (buyPrice != null) {
+                    buyPrices.put(blueprintId, buyPrice);
                 }
-                else if (blueprintId.contains("_")) {
-                    Integer buyPrice = _merchant.getCardBuyPrice(blueprintId, currentTime);
-                    if (buyPrice != null) {
-                        buyPrices.put(blueprintId, buyPrice);
-                    }
-                    if (_merchantableStrings.contains(blueprintId)) {
-                        Integer sellPrice = _merchant.getCardSellPrice(blueprintId, currentTime);
-                        if (sellPrice != null) {
-                            sellPrices.put(blueprintId, sellPrice);
-                        }
+                if (_merchantableStrings.contains(blueprintId)) {
+                    Integer sellPrice = _merchant.getCardSellPrice(blueprintId, currentTime);
+                    if (sellPrice != null) {
+                        sellPrices.put(blueprintId, sellPrice);
                     }
                 }
             }
-            PriceGuarantee priceGuarantee = new PriceGuarantee(sellPrices, buyPrices, currentTime);
-            _priceGuarantees.put(player.getName(), priceGuarantee);
-            return priceGuarantee;
-        }
-        finally {
-            lock.unlock();
         }
+        PriceGuarantee priceGuarantee = new PriceGuarantee(sellPrices, buyPrices, currentTime);
+        _priceGuarantees.put(player.getName(), priceGuarantee);
+        return priceGuarantee;
     }
 
     /**
@@ -233,7 +226,7 @@ public class MerchantService {
      */
     public void merchantBuysCard(Player player, String blueprintId, int price) throws MerchantException {
         Date currentTime = new Date();
-        Lock lock = _lock.writeLock();
+        Lock lock = _lock;
         lock.lock();
         try {
             PriceGuarantee guarantee = _priceGuarantees.get(player.getName());
@@ -263,7 +256,7 @@ public class MerchantService {
      */
     public void merchantBuysAllOfACard(Player player, String blueprintId, int price) throws MerchantException {
         Date currentTime = new Date();
-        Lock lock = _lock.writeLock();
+        Lock lock = _lock;
         lock.lock();
         try {
             PriceGuarantee guarantee = _priceGuarantees.get(player.getName());
@@ -293,7 +286,7 @@ public class MerchantService {
      */
     public void merchantSellsCard(Player player, String blueprintId, int price) throws MerchantException {
         Date currentTime = new Date();
-        Lock lock = _lock.writeLock();
+        Lock lock = _lock;
         lock.lock();
         try {
             PriceGuarantee guarantee = _priceGuarantees.get(player.getName());
@@ -323,7 +316,7 @@ public class MerchantService {
     public void tradeForFoil(Player player, String blueprintId) throws MerchantException {
         if (!blueprintId.contains("_") || blueprintId.endsWith("*") || blueprintId.endsWith("^"))
             throw new MerchantException("Unable to trade in this type of item");
-        Lock lock = _lock.writeLock();
+        Lock lock = _lock;
         lock.lock();
         try {
             boolean success = _collectionsManager.tradeCards(player, _permanentCollection, blueprintId, 4, blueprintId + "*", 1, TRADE_FOIL_COST);
@@ -8,12 +8,15 @@ import com.gempukku.swccgo.db.MerchantDAO;
 import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
 import com.gempukku.swccgo.packagedProduct.ProductPrice;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Defines a merchant the defines the product prices based on simple rules.
+ * Defines a merchant the defines the product prices based on simple rules. The prices do not change over time, so the
+ * prices of all the cards in the sets (and their foil and alternate image versions) are calculated once, when the
+ * merchant is created, and pricing a card is a lookup in those tables.
  */
 public class SimpleMerchant implements Merchant {
     public static final int FOIL_PRICE_MULTIPLIER = 4;
@@ -22,6 +25,8 @@ public class SimpleMerchant implements Merchant {
     private Map<Integer, SetRarity> _rarities = new HashMap<Integer, SetRarity>();
     private SwccgCardBlueprintLibrary _library;
     private MerchantDAO _merchantDao;
+    private Map<String, Integer> _sellPrices;
+    private Map<String, Integer> _buyPrices;
 
     /**
      * Creates a simple merchant.
@@ -45,6 +50,23 @@ public class SimpleMerchant implements Merchant {
         for (int i = 301; i < (301 + CardCounts.VIRTUAL_PREMIUM_SETS_CARD_COUNTS.length); i++) {
             _rarities.put(i, rarityReader.getSetRarity(String.valueOf(i)));
         }
+
+        Map<String, Integer> sellPrices = new HashMap<String, Integer>();
+        Map<String, Integer> buyPrices = new HashMap<String, Integer>();
+        for (SetRarity rarity : _rarities.values()) {
+            for (String blueprintId : rarity.getAllCards()) {
+                for (String variant : new String[] {blueprintId, blueprintId + "*", blueprintId + "^"}) {
+                    try {
+                        sellPrices.put(variant, calculateCardSellPrice(variant));
+                        buyPrices.put(variant, calculateCardBuyPrice(variant));
+                    } catch (RuntimeException exp) {
+                        // Cards that cannot be priced are left out, so pricing them fails the same way as before
+                    }
+                }
+            }
+        }
+        _sellPrices = Collections.unmodifiableMap(sellPrices);
+        _buyPrices = Collections.unmodifiableMap(buyPrices);
     }
 
     /**
@@ -55,6 +77,11 @@ public class SimpleMerchant implements Merchant {
      */
     @Override
     public Integer getCardSellPrice(String blueprintId, Date currentTime) {
+        Integer price = _sellPrices.get(blueprintId);
+        return (price != null) ? price : calculateCardSellPrice(blueprintId);
+    }
+
+    private int calculateCardSellPrice(String blueprintId) {
         blueprintId = _library.getBaseBlueprintId(blueprintId);
 
         float normalPrice = getNormalPrice(blueprintId);
@@ -70,6 +97,11 @@ public class SimpleMerchant implements Merchant {
      */
     @Override
     public Integer getCardBuyPrice(String blueprintId, Date currentTime) {
+        Integer price = _buyPrices.get(blueprintId);
+        return (price != null) ? price : calculateCardBuyPrice(blueprintId);
+    }
+
+    private int calculateCardBuyPrice(String blueprintId) {
         boolean foil = blueprintId.endsWith("*");
         blueprintId = _library.getBaseBlueprintId(blueprintId);
 
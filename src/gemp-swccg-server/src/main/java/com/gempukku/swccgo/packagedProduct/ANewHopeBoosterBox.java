@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines an A New Hope booster box.
  */
-public class ANewHopeBoosterBox extends BasePackagedCardProduct {
+public class ANewHopeBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates an A New Hope booster box.
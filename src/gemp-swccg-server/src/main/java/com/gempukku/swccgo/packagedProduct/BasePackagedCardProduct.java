@@ -5,15 +5,23 @@ import com.gempukku.swccgo.game.CardCollection;
 import com.gempukku.swccgo.game.SwccgCardBlueprint;
 import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Provides the base implementation for a booster pack of cards.
  */
 public abstract class BasePackagedCardProduct implements PackagedCardProduct {
     protected SwccgCardBlueprintLibrary _library;
+    protected final Random _random = PackRandom.getInstance();
+    private final Map<String, List<String>> _cardPools = new ConcurrentHashMap<>();
 
     /**
      * Creates a base packaged card product.
@@ -70,6 +78,55 @@ public abstract class BasePackagedCardProduct implements PackagedCardProduct {
         }
     }
 
+    /**
+     * Gets the named pool of cards to pick from, building it the first time it is needed. The blueprint library does
+     * not change once loaded, so the pool (after any filtering) is the same for every pack that is opened.
+     * @param poolName the name of the pool, unique within the product
+     * @param poolBuilder builds the pool of cards (identified by blueprint id)
+     * @return the pool of cards, which must not be modified
+     */
+    protected List<String> getCardPool(String poolName, Supplier<List<String>> poolBuilder) {
+        return _cardPools.computeIfAbsent(poolName, name -> Collections.unmodifiableList(new ArrayList<String>(poolBuilder.get())));
+    }
+
+    /**
+     * Adds the specified number of cards, picked at random from different positions in the pool, to the list of card
+     * collection items. This gives the same result as shuffling the pool and taking the first cards, without copying
+     * or shuffling the whole pool.
+     * @param result the card collection items
+     * @param pool the pool of cards (identified by blueprint id)
+     * @param count the number of cards to add
+     * @param foil true if foil, otherwise false
+     */
+    protected void addRandomCards(List<CardCollection.Item> result, List<String> pool, int count, boolean foil) {
+        int size = pool.size();
+        int toAdd = Math.min(size, count);
+        if (toAdd * 2 > size) {
+            List<String> shuffled = new ArrayList<String>(pool);
+            Collections.shuffle(shuffled, _random);
+            addCards(result, shuffled.subList(0, toAdd), foil);
+            return;
+        }
+
+        int[] picked = new int[toAdd];
+        for (int i = 0; i < toAdd; i++) {
+            int index;
+            do {
+                index = _random.nextInt(size);
+            } while (isPicked(picked, i, index));
+            picked[i] = index;
+            result.add(CardCollection.Item.createItem(pool.get(index) + (foil ? "*" : ""), 1));
+        }
+    }
+
+    private static boolean isPicked(int[] picked, int pickedCount, int index) {
+        for (int i = 0; i < pickedCount; i++) {
+            if (picked[i] == index)
+                return true;
+        }
+        return false;
+    }
+
     /**
      * Adds the specified product to the list of card collection items.
      * @param result the card collection items
@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Cloud City booster box.
  */
-public class CloudCityBoosterBox extends BasePackagedCardProduct {
+public class CloudCityBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Cloud City booster box.
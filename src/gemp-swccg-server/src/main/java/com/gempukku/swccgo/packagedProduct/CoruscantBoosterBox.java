@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Coruscant booster box.
  */
-public class CoruscantBoosterBox extends BasePackagedCardProduct {
+public class CoruscantBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Coruscant booster box.
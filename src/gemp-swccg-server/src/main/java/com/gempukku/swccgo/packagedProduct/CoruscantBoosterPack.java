@@ -14,7 +14,6 @@ import java.util.*;
  * Defines a Coruscant booster pack.
  */
 public class CoruscantBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private SetRarity _setRarity;
     private boolean _includeNonEpisodeI;
 
@@ -74,37 +73,39 @@ public class CoruscantBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomRareCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
+        List<String> possibleCards = getCardPool("addRandomRareCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
 
-        // 1 of 4 times keep the AI card, instead of the non-AI card
-        if ((Math.random() * 4) >= 3) {
-            possibleCards.remove("12_101"); // Darth Maul, Young Apprentice
-            possibleCards.remove("12_182"); // Maul's Sith Infiltrator
-            possibleCards.remove("12_139"); // The Phantom Menace
-            possibleCards.remove("12_13");  // Mace Windu
-            possibleCards.remove("12_16");  // Master Qui-Gon
-            possibleCards.remove("12_22");  // Queen Amidala, Ruler of Naboo
-            possibleCards.remove("12_28");  // Senator Palpatine
-            possibleCards.remove("12_30");  // Supreme Chancellor Valorum
-            possibleCards.remove("12_35");  // Yoda, Senior Council Member
-        }
-        else {
-            possibleCards.remove("12_102"); // Darth Maul, Young Apprentice (AI)
-            possibleCards.remove("12_183"); // Maul's Sith Infiltrator (AI)
-            possibleCards.remove("12_140"); // The Phantom Menace (AI)
-            possibleCards.remove("12_14");  // Mace Windu (AI)
-            possibleCards.remove("12_17");  // Master Qui-Gon (AI)
-            possibleCards.remove("12_23");  // Queen Amidala, Ruler of Naboo (AI)
-            possibleCards.remove("12_29");  // Senator Palpatine (AI)
-            possibleCards.remove("12_31");  // Supreme Chancellor Valorum (AI)
-            possibleCards.remove("12_36");  // Yoda, Senior Council Member (AI)
-        }
-        filterNonExistingCards(possibleCards);
-        if(!_includeNonEpisodeI)
-            filterIcon(possibleCards, Icon.EPISODE_I,true);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+            // 1 of 4 times keep the AI card, instead of the non-AI card
+            if ((_random.nextDouble() * 4) >= 3) {
+                cards.remove("12_101"); // Darth Maul, Young Apprentice
+                cards.remove("12_182"); // Maul's Sith Infiltrator
+                cards.remove("12_139"); // The Phantom Menace
+                cards.remove("12_13");  // Mace Windu
+                cards.remove("12_16");  // Master Qui-Gon
+                cards.remove("12_22");  // Queen Amidala, Ruler of Naboo
+                cards.remove("12_28");  // Senator Palpatine
+                cards.remove("12_30");  // Supreme Chancellor Valorum
+                cards.remove("12_35");  // Yoda, Senior Council Member
+            }
+            else {
+                cards.remove("12_102"); // Darth Maul, Young Apprentice (AI)
+                cards.remove("12_183"); // Maul's Sith Infiltrator (AI)
+                cards.remove("12_140"); // The Phantom Menace (AI)
+                cards.remove("12_14");  // Mace Windu (AI)
+                cards.remove("12_17");  // Master Qui-Gon (AI)
+                cards.remove("12_23");  // Queen Amidala, Ruler of Naboo (AI)
+                cards.remove("12_29");  // Senator Palpatine (AI)
+                cards.remove("12_31");  // Supreme Chancellor Valorum (AI)
+                cards.remove("12_36");  // Yoda, Senior Council Member (AI)
+            }
+            filterNonExistingCards(cards);
+            if(!_includeNonEpisodeI)
+                filterIcon(cards, Icon.EPISODE_I,true);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -113,16 +114,18 @@ public class CoruscantBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCommonOrUncommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        filterNonExistingCards(possibleCards);
-        if(!_includeNonEpisodeI)
-            filterIcon(possibleCards,Icon.EPISODE_I,true);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomCommonOrUncommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            filterNonExistingCards(cards);
+            if(!_includeNonEpisodeI)
+                filterIcon(cards,Icon.EPISODE_I,true);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 }
@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Dagobah booster box.
  */
-public class DagobahBoosterBox extends BasePackagedCardProduct {
+public class DagobahBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Dagobah booster box.
@@ -13,7 +13,6 @@ import java.util.*;
  * Defines a Dagobah booster pack.
  */
 public class DagobahBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private SetRarity _setRarity;
 
     /**
@@ -63,11 +62,13 @@ public class DagobahBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomRareCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomRareCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -76,11 +77,13 @@ public class DagobahBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomUncommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomUncommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -89,10 +92,12 @@ public class DagobahBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomCommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 }
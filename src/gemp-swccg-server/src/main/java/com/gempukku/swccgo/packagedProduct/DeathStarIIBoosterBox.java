@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Death Star II booster box.
  */
-public class DeathStarIIBoosterBox extends BasePackagedCardProduct {
+public class DeathStarIIBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Death Star II booster box.
@@ -13,7 +13,6 @@ import java.util.*;
  * Defines a Death Star II booster pack.
  */
 public class DeathStarIIBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private SetRarity _setRarity;
 
     /**
@@ -63,13 +62,15 @@ public class DeathStarIIBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomRareCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.UR));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomRareCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.UR));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -78,11 +79,13 @@ public class DeathStarIIBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomUncommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomUncommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -91,10 +94,12 @@ public class DeathStarIIBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomCommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 }
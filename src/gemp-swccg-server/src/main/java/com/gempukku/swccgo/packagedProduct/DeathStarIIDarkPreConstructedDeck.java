@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines a Death Star II dark pre-constructed deck.
  */
-public class DeathStarIIDarkPreConstructedDeck extends BasePackagedCardProduct {
+public class DeathStarIIDarkPreConstructedDeck extends FixedContentsPackagedCardProduct {
     private List<String> _fixed = new ArrayList<String>();
 
     /**
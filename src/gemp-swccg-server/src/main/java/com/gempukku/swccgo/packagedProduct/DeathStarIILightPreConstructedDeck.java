@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines a Death Star II light pre-constructed deck.
  */
-public class DeathStarIILightPreConstructedDeck extends BasePackagedCardProduct {
+public class DeathStarIILightPreConstructedDeck extends FixedContentsPackagedCardProduct {
     private List<String> _fixed = new ArrayList<String>();
 
     /**
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Empire Strikes Back Introductory Two-Player Game box.
  */
-public class EmpireStrikesBackIntroTwoPlayerGameBox extends BasePackagedCardProduct {
+public class EmpireStrikesBackIntroTwoPlayerGameBox extends FixedContentsPackagedCardProduct {
     private List<String> _fixed = new ArrayList<String>();
 
     /**
@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines an Endor booster box.
  */
-public class EndorBoosterBox extends BasePackagedCardProduct {
+public class EndorBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates an Endor booster box.
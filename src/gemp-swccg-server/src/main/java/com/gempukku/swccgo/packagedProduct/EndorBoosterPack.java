@@ -13,7 +13,6 @@ import java.util.*;
  * Defines an Endor booster pack.
  */
 public class EndorBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private SetRarity _setRarity;
     private boolean _doNotReplaceRaresWithFoils;
 
@@ -66,45 +65,50 @@ public class EndorBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomRareOrFoilCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
         // Approximately 1 of 9 times add a foil instead of a Rare
-        if (!_doNotReplaceRaresWithFoils && (Math.random() * 9) >= 8) {
-            // Common foils
-            for (int i=0; i<9; ++i) {
-                possibleCards.add("8_92");  // Biker Scout Trooper
-                possibleCards.add("8_100"); // Elite Squadron Stormtrooper
-                possibleCards.add("8_166"); // Endor: Landing Platform (Docking Bay) (Dark Side)
-                possibleCards.add("8_169"); // Speeder Bike
-                possibleCards.add("8_73");  // Endor: Ewok Village
-                possibleCards.add("8_47");  // Ewok and Roll
-                possibleCards.add("8_82");  // Ewok Glider
-                possibleCards.add("8_24");  // Paploo
-            }
-            // Uncommon foils
-            for (int i=0; i<4; ++i) {
-                possibleCards.add("8_122"); // Early Warning Network
-                possibleCards.add("8_146"); // Hot Pursuit
-                possibleCards.add("8_149"); // Main Course
-                possibleCards.add("8_2");   // Chewbacca of Kashyyyk
-                possibleCards.add("8_8");   // Daughter of Skywalker
-                possibleCards.add("8_46");  // Biker Scout Trooper
-            }
-            // Rare foils
-            for (int i=0; i<2; ++i) {
-                possibleCards.add("8_170"); // Tempest 1
-                possibleCards.add("8_175"); // Tempest Scout 4
-                possibleCards.add("8_15");  // General Solo
-                possibleCards.add("8_31");  // Threepio
-            }
-            filterNonExistingCards(possibleCards);
-            Collections.shuffle(possibleCards, _random);
-            addCards(result, possibleCards.subList(0, count), true);
+        if (!_doNotReplaceRaresWithFoils && (_random.nextDouble() * 9) >= 8) {
+            List<String> possibleCards = getCardPool("addRandomFoilCard", () -> {
+                List<String> cards = new ArrayList<String>();
+                // Common foils
+                for (int i=0; i<9; ++i) {
+                    cards.add("8_92");  // Biker Scout Trooper
+                    cards.add("8_100"); // Elite Squadron Stormtrooper
+                    cards.add("8_166"); // Endor: Landing Platform (Docking Bay) (Dark Side)
+                    cards.add("8_169"); // Speeder Bike
+                    cards.add("8_73");  // Endor: Ewok Village
+                    cards.add("8_47");  // Ewok and Roll
+                    cards.add("8_82");  // Ewok Glider
+                    cards.add("8_24");  // Paploo
+                }
+                // Uncommon foils
+                for (int i=0; i<4; ++i) {
+                    cards.add("8_122"); // Early Warning Network
+                    cards.add("8_146"); // Hot Pursuit
+                    cards.add("8_149"); // Main Course
+                    cards.add("8_2");   // Chewbacca of Kashyyyk
+                    cards.add("8_8");   // Daughter of Skywalker
+                    cards.add("8_46");  // Biker Scout Trooper
+                }
+                // Rare foils
+                for (int i=0; i<2; ++i) {
+                    cards.add("8_170"); // Tempest 1
+                    cards.add("8_175"); // Tempest Scout 4
+                    cards.add("8_15");  // General Solo
+                    cards.add("8_31");  // Threepio
+                }
+                filterNonExistingCards(cards);
+                return cards;
+            });
+            addRandomCards(result, possibleCards, count, true);
         }
         else {
-            possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
-            filterNonExistingCards(possibleCards);
-            Collections.shuffle(possibleCards, _random);
-            addCards(result, possibleCards.subList(0, count), false);
+            List<String> possibleCards = getCardPool("addRandomRareCard", () -> {
+                List<String> cards = new ArrayList<String>();
+                cards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
+                filterNonExistingCards(cards);
+                return cards;
+            });
+            addRandomCards(result, possibleCards, count, false);
         }
     }
 
@@ -114,11 +118,13 @@ public class EndorBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomUncommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomUncommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -127,10 +133,12 @@ public class EndorBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomCommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 }
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Cloud City pack (Boba Fett In Slave One).
  */
-public class EnhancedCloudCityPack_BobaFett extends BasePackagedCardProduct {
+public class EnhancedCloudCityPack_BobaFett extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
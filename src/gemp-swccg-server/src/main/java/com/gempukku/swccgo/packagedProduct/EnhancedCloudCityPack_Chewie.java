@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Cloud City pack (Chewie With Blaster Rifle).
  */
-public class EnhancedCloudCityPack_Chewie extends BasePackagedCardProduct {
+public class EnhancedCloudCityPack_Chewie extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Cloud City pack (IG-88 With Riot Gun).
  */
-public class EnhancedCloudCityPack_IG88 extends BasePackagedCardProduct {
+public class EnhancedCloudCityPack_IG88 extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
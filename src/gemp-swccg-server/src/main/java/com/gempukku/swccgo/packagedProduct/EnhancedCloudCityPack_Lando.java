@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Cloud City pack (Lando With Blaster Rifle).
  */
-public class EnhancedCloudCityPack_Lando extends BasePackagedCardProduct {
+public class EnhancedCloudCityPack_Lando extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Jabba's Palace pack (Boushh).
  */
-public class EnhancedJabbasPalacePack_Boushh extends BasePackagedCardProduct {
+public class EnhancedJabbasPalacePack_Boushh extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
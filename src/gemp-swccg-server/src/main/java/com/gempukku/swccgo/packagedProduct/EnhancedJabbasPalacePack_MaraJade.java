@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Jabba's Palace pack (Mara Jade, The Emperor's Hand).
  */
-public class EnhancedJabbasPalacePack_MaraJade extends BasePackagedCardProduct {
+public class EnhancedJabbasPalacePack_MaraJade extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Jabba's Palace pack (Master Luke).
  */
-public class EnhancedJabbasPalacePack_MasterLuke extends BasePackagedCardProduct {
+public class EnhancedJabbasPalacePack_MasterLuke extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Jabba's Palace pack (See-Threepio).
  */
-public class EnhancedJabbasPalacePack_SeeThreepio extends BasePackagedCardProduct {
+public class EnhancedJabbasPalacePack_SeeThreepio extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
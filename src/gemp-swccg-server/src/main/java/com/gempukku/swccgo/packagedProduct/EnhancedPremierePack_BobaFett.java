@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Premiere pack (Boba Fett With Blaster Rifle).
  */
-public class EnhancedPremierePack_BobaFett extends BasePackagedCardProduct {
+public class EnhancedPremierePack_BobaFett extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Premiere pack (Dark Vader With Lightsaber).
  */
-public class EnhancedPremierePack_DarthVader extends BasePackagedCardProduct {
+public class EnhancedPremierePack_DarthVader extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
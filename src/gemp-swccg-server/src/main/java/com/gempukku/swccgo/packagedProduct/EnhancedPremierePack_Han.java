@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Premiere pack (Han With Heavy Blaster Pistol).
  */
-public class EnhancedPremierePack_Han extends BasePackagedCardProduct {
+public class EnhancedPremierePack_Han extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
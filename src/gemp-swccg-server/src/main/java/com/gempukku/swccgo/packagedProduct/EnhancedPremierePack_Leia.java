@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Premiere pack (Leia With Blaster Rifle).
  */
-public class EnhancedPremierePack_Leia extends BasePackagedCardProduct {
+public class EnhancedPremierePack_Leia extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
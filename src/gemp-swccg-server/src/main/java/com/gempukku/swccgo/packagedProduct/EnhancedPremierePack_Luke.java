@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Premiere pack (Luke With Lightsaber).
  */
-public class EnhancedPremierePack_Luke extends BasePackagedCardProduct {
+public class EnhancedPremierePack_Luke extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
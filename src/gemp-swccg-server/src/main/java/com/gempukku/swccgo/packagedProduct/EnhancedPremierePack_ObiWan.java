@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines an Enhanced Premiere pack (Obi-Wan With Lightsaber).
  */
-public class EnhancedPremierePack_ObiWan extends BasePackagedCardProduct {
+public class EnhancedPremierePack_ObiWan extends FixedContentsPackagedCardProduct {
     private List<String> _premiumCards = new ArrayList<String>();
 
     /**
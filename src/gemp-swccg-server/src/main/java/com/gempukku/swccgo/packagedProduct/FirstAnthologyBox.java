@@ -13,7 +13,7 @@ import java.util.List;
 /**
  * Defines a First Anthology box.
  */
-public class FirstAnthologyBox extends BasePackagedCardProduct {
+public class FirstAnthologyBox extends FixedContentsPackagedCardProduct {
     private SetRarity _setRarity;
 
     /**
@@ -0,0 +1,31 @@
+package com.gempukku.swccgo.packagedProduct;
+
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.SwccgCardBlueprintLibrary;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provides the base implementation for a packaged card product that contains the same items every time it is opened,
+ * like a pre-constructed deck, or a box of unopened booster packs.
+ */
+public abstract class FixedContentsPackagedCardProduct extends BasePackagedCardProduct {
+
+    /**
+     * Creates a packaged card product with fixed contents.
+     * @param library the blueprint library
+     */
+    public FixedContentsPackagedCardProduct(SwccgCardBlueprintLibrary library) {
+        super(library);
+    }
+
+    /**
+     * Gets the contents, which are the same every time the product is opened.
+     * @return the contents
+     */
+    @Override
+    public List<CardCollection.Item> getFixedContents() {
+        return Collections.unmodifiableList(openPackage());
+    }
+}
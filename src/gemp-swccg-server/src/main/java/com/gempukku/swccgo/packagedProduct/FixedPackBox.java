@@ -5,6 +5,7 @@ import com.gempukku.swccgo.game.CardCollection;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -48,6 +49,15 @@ public class FixedPackBox implements PackagedCardProduct {
         return 0;
     }
 
+    /**
+     * Gets the contents, which are the same every time the product is opened.
+     * @return the contents
+     */
+    @Override
+    public List<CardCollection.Item> getFixedContents() {
+        return Collections.unmodifiableList(openPackage());
+    }
+
     @Override
     public List<CardCollection.Item> openPackage() {
         List<CardCollection.Item> result = new LinkedList<CardCollection.Item>();
@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Hoth booster box.
  */
-public class HothBoosterBox extends BasePackagedCardProduct {
+public class HothBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Hoth booster box.
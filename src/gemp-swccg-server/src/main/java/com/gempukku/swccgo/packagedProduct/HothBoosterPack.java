@@ -13,7 +13,6 @@ import java.util.*;
  * Defines a Hoth booster pack.
  */
 public class HothBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private SetRarity _setRarity;
 
     /**
@@ -63,13 +62,15 @@ public class HothBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomRareCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R1));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R2));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R2));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomRareCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.R1));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.R2));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.R2));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -78,13 +79,15 @@ public class HothBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomUncommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U1));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U2));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U2));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomUncommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U1));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U2));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U2));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -93,15 +96,17 @@ public class HothBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C1));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C2));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C2));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C3));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C3));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C3));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomCommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C1));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C2));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C2));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C3));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C3));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C3));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 }
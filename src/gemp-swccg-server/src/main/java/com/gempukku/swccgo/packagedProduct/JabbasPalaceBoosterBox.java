@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Jabbas Palace booster box.
  */
-public class JabbasPalaceBoosterBox extends BasePackagedCardProduct {
+public class JabbasPalaceBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Jabba's Palace booster box.
@@ -13,7 +13,7 @@ import java.util.List;
 /**
  * Defines a Jabba's Palace Sealed Deck box.
  */
-public class JabbasPalaceSealedDeck extends BasePackagedCardProduct {
+public class JabbasPalaceSealedDeck extends FixedContentsPackagedCardProduct {
     private SetRarity _setRarity;
 
     /**
@@ -13,7 +13,7 @@ import java.util.List;
 /**
  * Defines a Jedi pack.
  */
-public class JediPack extends BasePackagedCardProduct {
+public class JediPack extends FixedContentsPackagedCardProduct {
     private SetRarity _setRarity;
 
     /**
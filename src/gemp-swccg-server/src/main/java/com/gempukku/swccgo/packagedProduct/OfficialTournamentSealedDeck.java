@@ -13,7 +13,7 @@ import java.util.List;
 /**
  * Defines an Official Tournament Sealed Deck box.
  */
-public class OfficialTournamentSealedDeck extends BasePackagedCardProduct {
+public class OfficialTournamentSealedDeck extends FixedContentsPackagedCardProduct {
     private SetRarity _setRarity;
 
     /**
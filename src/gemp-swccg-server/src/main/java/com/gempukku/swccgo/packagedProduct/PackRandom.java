@@ -0,0 +1,82 @@
+package com.gempukku.swccgo.packagedProduct;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * The source of randomness used when opening packaged products.
+ *
+ * Each thread draws from its own SplittableRandom, so packs can be opened from many threads at once without
+ * contending on a shared seed. A seed can be set for the duration of a single opening, which makes the contents
+ * of that opening reproducible from the seed alone.
+ */
+public class PackRandom extends Random {
+    private static final PackRandom INSTANCE = new PackRandom();
+    private static final ThreadLocal<SplittableRandom> _threadRandom = ThreadLocal.withInitial(SplittableRandom::new);
+
+    private PackRandom() {
+    }
+
+    /**
+     * Gets the shared pack random.
+     * @return the pack random
+     */
+    public static PackRandom getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs the supplier with the randomness of the current thread seeded with the specified seed.
+     * @param seed the seed
+     * @param supplier the supplier
+     * @return the result of the supplier
+     */
+    public static <T> T withSeed(long seed, Supplier<T> supplier) {
+        SplittableRandom previous = _threadRandom.get();
+        _threadRandom.set(new SplittableRandom(seed));
+        try {
+            return supplier.get();
+        } finally {
+            _threadRandom.set(previous);
+        }
+    }
+
+    /**
+     * Seeding is done per opening with withSeed, so this is ignored (it is also called by the Random constructor).
+     * @param seed the seed
+     */
+    @Override
+    public void setSeed(long seed) {
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (_threadRandom.get().nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public int nextInt() {
+        return _threadRandom.get().nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return _threadRandom.get().nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return _threadRandom.get().nextLong();
+    }
+
+    @Override
+    public double nextDouble() {
+        return _threadRandom.get().nextDouble();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return _threadRandom.get().nextBoolean();
+    }
+}
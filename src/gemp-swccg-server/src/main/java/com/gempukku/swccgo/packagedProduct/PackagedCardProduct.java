@@ -33,4 +33,12 @@ public interface PackagedCardProduct {
      * @return the card collection items contained in the packaged card product.
      */
     List<CardCollection.Item> openPackageWithExclusions(List<String> exclusions);
+
+    /**
+     * Gets the contents of the packaged card product, if they are the same every time it is opened.
+     * @return the card collection items contained in the packaged card product, or null if they are random.
+     */
+    default List<CardCollection.Item> getFixedContents() {
+        return null;
+    }
 }
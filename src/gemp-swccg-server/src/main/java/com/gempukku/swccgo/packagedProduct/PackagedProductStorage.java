@@ -1,29 +1,120 @@
 package com.gempukku.swccgo.packagedProduct;
 
 import com.gempukku.swccgo.game.CardCollection;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Holds the packaged products and opens them.
+ *
+ * Every opening is driven by a seed (a new random one unless specified), so with seed auditing turned on the logged
+ * seed is enough to reproduce exactly what was in any pack that was opened.
+ */
 public class PackagedProductStorage {
+    private static final Logger _logger = LogManager.getLogger(PackagedProductStorage.class);
     private Map<String, PackagedCardProduct> _packagedProducts = new HashMap<String, PackagedCardProduct>();
+    private volatile boolean _auditSeeds;
 
     public void addPackagedProduct(String productName, PackagedCardProduct packagedProduct) {
         _packagedProducts.put(productName, packagedProduct);
     }
 
+    /**
+     * Gets the packaged products.
+     * @return the packaged products by name
+     */
+    public Map<String, PackagedCardProduct> getPackagedProducts() {
+        return Collections.unmodifiableMap(_packagedProducts);
+    }
+
+    /**
+     * Sets whether the seed used for each opening is logged.
+     * @param auditSeeds true if seeds are logged, otherwise false
+     */
+    public void setAuditSeeds(boolean auditSeeds) {
+        _auditSeeds = auditSeeds;
+    }
+
     public List<CardCollection.Item> openPackagedProduct(String productName) {
+        return openPackagedProduct(productName, newSeed());
+    }
+
+    /**
+     * Opens the packaged product using the specified seed. Opening the same product with the same seed always gives
+     * the same contents.
+     * @param productName the product name
+     * @param seed the seed
+     * @return the contents, or null if there is no such product
+     */
+    public List<CardCollection.Item> openPackagedProduct(String productName, long seed) {
         PackagedCardProduct packagedProduct = _packagedProducts.get(productName);
         if (packagedProduct == null)
             return null;
-        return packagedProduct.openPackage();
+        if (_auditSeeds)
+            _logger.info("Opening " + productName + " with seed " + seed);
+        return PackRandom.withSeed(seed, packagedProduct::openPackage);
     }
 
     public List<CardCollection.Item> openPackagedProductWithExclusions(String productName, List<String> exclusions) {
+        return openPackagedProductWithExclusions(productName, exclusions, newSeed());
+    }
+
+    /**
+     * Opens the packaged product, excluding the specified cards where the product supports it, using the specified
+     * seed.
+     * @param productName the product name
+     * @param exclusions the cards to exclude
+     * @param seed the seed
+     * @return the contents, or null if there is no such product
+     */
+    public List<CardCollection.Item> openPackagedProductWithExclusions(String productName, List<String> exclusions, long seed) {
         PackagedCardProduct packagedProduct = _packagedProducts.get(productName);
         if (packagedProduct == null)
             return null;
-        return packagedProduct.openPackageWithExclusions(exclusions);
+        if (_auditSeeds)
+            _logger.info("Opening " + productName + " with " + exclusions.size() + " exclusions with seed " + seed);
+        return PackRandom.withSeed(seed, () -> packagedProduct.openPackageWithExclusions(exclusions));
+    }
+
+    public List<List<CardCollection.Item>> openPackagedProducts(String productName, int count) {
+        return openPackagedProducts(productName, count, newSeed());
+    }
+
+    /**
+     * Opens a number of the same packaged product in parallel. The seed of each opening is split from the specified
+     * seed in order before any packs are opened, so the result does not depend on how the openings are scheduled.
+     * @param productName the product name
+     * @param count the number to open
+     * @param seed the seed
+     * @return the contents of each opening, or null if there is no such product
+     */
+    public List<List<CardCollection.Item>> openPackagedProducts(String productName, int count, long seed) {
+        PackagedCardProduct packagedProduct = _packagedProducts.get(productName);
+        if (packagedProduct == null)
+            return null;
+        if (_auditSeeds)
+            _logger.info("Opening " + count + " of " + productName + " with seed " + seed);
+
+        SplittableRandom seedSource = new SplittableRandom(seed);
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++)
+            seeds[i] = seedSource.nextLong();
+
+        return IntStream.range(0, count).parallel()
+                .mapToObj(i -> PackRandom.withSeed(seeds[i], packagedProduct::openPackage))
+                .collect(Collectors.toList());
+    }
+
+    private static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
     }
 }
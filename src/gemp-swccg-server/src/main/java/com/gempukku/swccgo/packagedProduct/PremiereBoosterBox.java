@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Premiere booster box.
  */
-public class PremiereBoosterBox extends BasePackagedCardProduct {
+public class PremiereBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Premiere booster box.
@@ -10,7 +10,7 @@ import java.util.List;
 /**
  * Defines a Premiere Introductory Two-Player Game box.
  */
-public class PremiereIntroTwoPlayerGameBox extends BasePackagedCardProduct {
+public class PremiereIntroTwoPlayerGameBox extends FixedContentsPackagedCardProduct {
     private List<String> _fixed = new ArrayList<String>();
 
     /**
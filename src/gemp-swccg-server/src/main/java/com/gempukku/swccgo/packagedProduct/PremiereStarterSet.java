@@ -15,7 +15,6 @@ import java.util.*;
  * Defines a Premiere starter set.
  */
 public class PremiereStarterSet extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private List<String> _darkCommons = new ArrayList<String>();
     private List<String> _lightCommons = new ArrayList<String>();
     private List<String> _darkUncommons = new ArrayList<String>();
@@ -162,10 +161,7 @@ public class PremiereStarterSet extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCard(List<CardCollection.Item> result, List<String> fromCards, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(fromCards);
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        // The lists only hold cards found in the blueprint library when constructed, so they need no filtering here
+        addRandomCards(result, fromCards, count, false);
     }
 }
@@ -0,0 +1,107 @@
+package com.gempukku.swccgo.packagedProduct;
+
+import com.gempukku.swccgo.game.CardCollection;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * The contents of the packaged products that are known without opening them: the options to choose from in each
+ * selection, and the items in each other product with fixed contents, like the cards of a pre-constructed deck or the
+ * booster packs in a booster box. Products with random contents are listed without contents. The products do not
+ * change once the server has started, so the catalog is built once and never modified.
+ */
+public class ProductCatalog {
+    private final Map<String, List<CardCollection.Item>> _selections;
+    private final Map<String, List<CardCollection.Item>> _fixedContents;
+    private final List<String> _randomProducts;
+    private final String _version;
+
+    /**
+     * Creates the catalog of the products in the storage.
+     * @param packagedProductStorage the packaged product storage
+     */
+    public ProductCatalog(PackagedProductStorage packagedProductStorage) {
+        Map<String, List<CardCollection.Item>> selections = new TreeMap<String, List<CardCollection.Item>>();
+        Map<String, List<CardCollection.Item>> fixedContents = new TreeMap<String, List<CardCollection.Item>>();
+        List<String> randomProducts = new ArrayList<String>();
+        for (Map.Entry<String, PackagedCardProduct> productEntry : new TreeMap<String, PackagedCardProduct>(packagedProductStorage.getPackagedProducts()).entrySet()) {
+            String productName = productEntry.getKey();
+            PackagedCardProduct product = productEntry.getValue();
+            List<CardCollection.Item> contents = product.getFixedContents();
+            if (contents != null) {
+                if (productName.startsWith("(S)"))
+                    selections.put(productName, contents);
+                else
+                    fixedContents.put(productName, contents);
+            } else {
+                randomProducts.add(productName);
+            }
+        }
+        _selections = Collections.unmodifiableMap(selections);
+        _fixedContents = Collections.unmodifiableMap(fixedContents);
+        _randomProducts = Collections.unmodifiableList(randomProducts);
+        _version = calculateVersion();
+    }
+
+    /**
+     * Gets the options to choose from in each selection.
+     * @return the options by selection name
+     */
+    public Map<String, List<CardCollection.Item>> getSelections() {
+        return _selections;
+    }
+
+    /**
+     * Gets the options to choose from in the selection.
+     * @param productName the selection name
+     * @return the options, or null if there is no such selection
+     */
+    public List<CardCollection.Item> getSelectionOptions(String productName) {
+        return _selections.get(productName);
+    }
+
+    /**
+     * Gets the contents of the products, other than selections, that always contain the same items.
+     * @return the contents by product name
+     */
+    public Map<String, List<CardCollection.Item>> getFixedContents() {
+        return _fixedContents;
+    }
+
+    /**
+     * Gets the names of the products with random contents.
+     * @return the product names
+     */
+    public List<String> getRandomProducts() {
+        return _randomProducts;
+    }
+
+    /**
+     * Gets the version of the catalog, which only changes when the contents of the catalog change.
+     * @return the version
+     */
+    public String getVersion() {
+        return _version;
+    }
+
+    private String calculateVersion() {
+        CRC32 crc = new CRC32();
+        for (Map<String, List<CardCollection.Item>> products : List.of(_selections, _fixedContents)) {
+            for (Map.Entry<String, List<CardCollection.Item>> productEntry : products.entrySet()) {
+                crc.update(productEntry.getKey().getBytes(StandardCharsets.UTF_8));
+                for (CardCollection.Item item : productEntry.getValue())
+                    crc.update((item.getBlueprintId() + "x" + item.getCount() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            crc.update('|');
+        }
+        for (String productName : _randomProducts)
+            crc.update((productName + "\n").getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+}
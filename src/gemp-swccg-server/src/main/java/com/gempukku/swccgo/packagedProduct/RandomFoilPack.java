@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Random;
 
 public class RandomFoilPack implements PackagedCardProduct {
+    private final Random _random = PackRandom.getInstance();
     private List<String> _availableCards = new ArrayList<String>();
 
     public RandomFoilPack(Rarity rarity, String[] sets) {
@@ -42,7 +43,7 @@ public class RandomFoilPack implements PackagedCardProduct {
     @Override
     public List<CardCollection.Item> openPackage() {
         List<CardCollection.Item> result = new LinkedList<CardCollection.Item>();
-        final String cardBlueprintId = _availableCards.get(new Random().nextInt(_availableCards.size())) + "*";
+        final String cardBlueprintId = _availableCards.get(_random.nextInt(_availableCards.size())) + "*";
         result.add(CardCollection.Item.createItem(cardBlueprintId, 1));
         return result;
     }
@@ -55,7 +56,7 @@ public class RandomFoilPack implements PackagedCardProduct {
         for(String s:exclusions) {
             availableWithExclusions.remove(s);
         }
-        final String cardBlueprintId = availableWithExclusions.get(new Random().nextInt(_availableCards.size())) + "*";
+        final String cardBlueprintId = availableWithExclusions.get(_random.nextInt(availableWithExclusions.size())) + "*";
         result.add(CardCollection.Item.createItem(cardBlueprintId, 1));
         return result;
     }
@@ -13,7 +13,7 @@ import java.util.List;
 /**
  * Defines a Rebel Leader pack.
  */
-public class RebelLeaderPack extends BasePackagedCardProduct {
+public class RebelLeaderPack extends FixedContentsPackagedCardProduct {
     private SetRarity _setRarity;
 
     /**
@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Reflections booster box.
  */
-public class ReflectionsBoosterBox extends BasePackagedCardProduct {
+public class ReflectionsBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Reflections booster box.
@@ -12,7 +12,6 @@ import java.util.*;
  * Defines a Reflections booster pack.
  */
 public class ReflectionsBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private SetRarity _premiereSetRarity;
     private SetRarity _aNewHopeSetRarity;
     private SetRarity _hothSetRarity;
@@ -79,11 +78,13 @@ public class ReflectionsBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomPremiereCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_premiereSetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, count), false);
+        List<String> possibleCards = getCardPool("addRandomPremiereCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_premiereSetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -92,11 +93,13 @@ public class ReflectionsBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomANewHopeCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_aNewHopeSetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, count), false);
+        List<String> possibleCards = getCardPool("addRandomANewHopeCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_aNewHopeSetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -105,11 +108,13 @@ public class ReflectionsBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomHothCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_hothSetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, count), false);
+        List<String> possibleCards = getCardPool("addRandomHothCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_hothSetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -118,11 +123,13 @@ public class ReflectionsBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomDagobahCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_dagobahSetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, count), false);
+        List<String> possibleCards = getCardPool("addRandomDagobahCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_dagobahSetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -131,11 +138,13 @@ public class ReflectionsBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCloudCityCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_cloudCitySetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomCloudCityCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_cloudCitySetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -144,11 +153,13 @@ public class ReflectionsBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomJabbasPalaceCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_jabbasPalaceRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomJabbasPalaceCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_jabbasPalaceRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -157,11 +168,13 @@ public class ReflectionsBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomSpecialEditionCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_specialEditionSetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomSpecialEditionCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_specialEditionSetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -170,136 +183,138 @@ public class ReflectionsBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomFoilCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
+        List<String> possibleCards = getCardPool("addRandomFoilCard", () -> {
+            List<String> cards = new ArrayList<String>();
 
-        // Very Rare foils
-        for (int i=0; i<4; ++i) {
-            possibleCards.add("4_91");   // 4-LOM
-            possibleCards.add("3_82");   // Admiral Ozzel
-            possibleCards.add("6_95");   // Bane Malar
-            possibleCards.add("6_98");   // Bib Fortuna
-            possibleCards.add("4_92");   // Bossk
-            possibleCards.add("4_100");  // Dengar
-            possibleCards.add("1_174");  // DS-61-3
-            possibleCards.add("2_89");   // Greedo
-            possibleCards.add("4_101");  // IG-88
-            possibleCards.add("2_93");   // IT-O
-            possibleCards.add("7_182");  // Jabba
-            possibleCards.add("7_187");  // Lobot (Dark)
-            possibleCards.add("6_122");  // Salacious Crumb
-            possibleCards.add("1_195");  // Tonnika Sisters
-            possibleCards.add("2_107");  // U-3PO
-            possibleCards.add("4_107");  // Zuckuss
-            possibleCards.add("6_139");  // Rancor
-            possibleCards.add("3_93");   // Wampa
-            possibleCards.add("1_215");  // Expand The Empire
-            possibleCards.add("4_135");  // Visage Of The Emperor
-            possibleCards.add("2_130");  // Commence Primary Ignition
-            possibleCards.add("5_129");  // Epic Duel
-            possibleCards.add("1_227");  // Presence of the Force
-            possibleCards.add("5_154");  // Slip Sliding Away
-            possibleCards.add("1_271");  // The Circle Is Now Complete
-            possibleCards.add("4_166");  // Avenger
-            possibleCards.add("1_299");  // Black 2
-            possibleCards.add("7_301");  // Bossk in Hound's Tooth
-            possibleCards.add("2_152");  // Conquest
-            possibleCards.add("7_302");  // Death Squadron Star Destroyer
-            possibleCards.add("4_169");  // IG-2000
-            possibleCards.add("4_170");  // Mist Hunter
-            possibleCards.add("5_175");  // Obsidian 7
-            possibleCards.add("5_176");  // Obsidian 8
-            possibleCards.add("109_10"); // Punishing One
-            possibleCards.add("3_152");  // Stalker
-            possibleCards.add("3_153");  // Tyrant
-            possibleCards.add("7_310");  // Vengeance
-            possibleCards.add("3_154");  // Blizzard 1
-            possibleCards.add("3_155");  // Blizzard 2
-            possibleCards.add("3_156");  // Blizzard Scout 1
-            possibleCards.add("6_172");  // Jabba's Sail Barge
-            possibleCards.add("5_179");  // Boba Fett's Blaster Rifle
-            possibleCards.add("2_161");  // Superlaser
-            possibleCards.add("3_1");    // 2-1B
-            possibleCards.add("6_3");    // Artoo
-            possibleCards.add("1_3");    // Biggs Darklighter
-            possibleCards.add("2_2");    // Brainiac
-            possibleCards.add("3_3");    // Commander Luke Skywalker
-            possibleCards.add("1_8");    // Dutch
-            possibleCards.add("5_6");    // Lobot (Light)
-            possibleCards.add("6_29");   // Oola
-            possibleCards.add("5_7");    // Princess Leia
-            possibleCards.add("7_35");   // Princess Organa
-            possibleCards.add("1_29");   // Red Leader
-            possibleCards.add("6_42");   // Tamtel Skreej
-            possibleCards.add("7_48");   // TK-422
-            possibleCards.add("2_23");   // Wedge Antilles
-            possibleCards.add("4_11");   // Landing Claw
-            possibleCards.add("7_57");   // Coruscant Celebration
-            possibleCards.add("1_46");   // Death Star Plans
-            possibleCards.add("5_24");   // Haven
-            possibleCards.add("1_54");   // Lightsaber Proficiency
-            possibleCards.add("7_70");   // Mechanical Failure
-            possibleCards.add("4_33");   // Reflection
-            possibleCards.add("1_62");   // Revolution
-            possibleCards.add("5_29");   // Uncontrollable Fury
-            possibleCards.add("4_42");   // What Is Thy Bidding, My Master?
-            possibleCards.add("2_42");   // Attack Run
-            possibleCards.add("7_82");   // All Wings Report In
-            possibleCards.add("1_110");  // Skywalkers
-            possibleCards.add("4_78");   // It Is The Future You See
-            possibleCards.add("7_113");  // Cloud City: Downtown Plaza
-            possibleCards.add("5_80");   // Cloud City: Guest Quarters
-            possibleCards.add("4_89");   // Dagobah: Yoda's Hut
-            possibleCards.add("7_117");  // Death Star (Light)
-            possibleCards.add("2_62");   // Death Star: Trench
-            possibleCards.add("7_123");  // Rendezvous Point
-            possibleCards.add("2_70");   // Red 2
-            possibleCards.add("2_71");   // Red 5
-            possibleCards.add("5_87");   // Redemption
-            possibleCards.add("7_149");  // Spiral
-            possibleCards.add("2_73");   // Tantive IV
-            possibleCards.add("3_66");   // Rogue 1
-            possibleCards.add("3_68");   // Rogue 3
-            possibleCards.add("3_71");   // Anakin's Lightsaber
-            possibleCards.add("1_157");  // Obi-Wan's Lightsaber
-        }
+            // Very Rare foils
+            for (int i=0; i<4; ++i) {
+                cards.add("4_91");   // 4-LOM
+                cards.add("3_82");   // Admiral Ozzel
+                cards.add("6_95");   // Bane Malar
+                cards.add("6_98");   // Bib Fortuna
+                cards.add("4_92");   // Bossk
+                cards.add("4_100");  // Dengar
+                cards.add("1_174");  // DS-61-3
+                cards.add("2_89");   // Greedo
+                cards.add("4_101");  // IG-88
+                cards.add("2_93");   // IT-O
+                cards.add("7_182");  // Jabba
+                cards.add("7_187");  // Lobot (Dark)
+                cards.add("6_122");  // Salacious Crumb
+                cards.add("1_195");  // Tonnika Sisters
+                cards.add("2_107");  // U-3PO
+                cards.add("4_107");  // Zuckuss
+                cards.add("6_139");  // Rancor
+                cards.add("3_93");   // Wampa
+                cards.add("1_215");  // Expand The Empire
+                cards.add("4_135");  // Visage Of The Emperor
+                cards.add("2_130");  // Commence Primary Ignition
+                cards.add("5_129");  // Epic Duel
+                cards.add("1_227");  // Presence of the Force
+                cards.add("5_154");  // Slip Sliding Away
+                cards.add("1_271");  // The Circle Is Now Complete
+                cards.add("4_166");  // Avenger
+                cards.add("1_299");  // Black 2
+                cards.add("7_301");  // Bossk in Hound's Tooth
+                cards.add("2_152");  // Conquest
+                cards.add("7_302");  // Death Squadron Star Destroyer
+                cards.add("4_169");  // IG-2000
+                cards.add("4_170");  // Mist Hunter
+                cards.add("5_175");  // Obsidian 7
+                cards.add("5_176");  // Obsidian 8
+                cards.add("109_10"); // Punishing One
+                cards.add("3_152");  // Stalker
+                cards.add("3_153");  // Tyrant
+                cards.add("7_310");  // Vengeance
+                cards.add("3_154");  // Blizzard 1
+                cards.add("3_155");  // Blizzard 2
+                cards.add("3_156");  // Blizzard Scout 1
+                cards.add("6_172");  // Jabba's Sail Barge
+                cards.add("5_179");  // Boba Fett's Blaster Rifle
+                cards.add("2_161");  // Superlaser
+                cards.add("3_1");    // 2-1B
+                cards.add("6_3");    // Artoo
+                cards.add("1_3");    // Biggs Darklighter
+                cards.add("2_2");    // Brainiac
+                cards.add("3_3");    // Commander Luke Skywalker
+                cards.add("1_8");    // Dutch
+                cards.add("5_6");    // Lobot (Light)
+                cards.add("6_29");   // Oola
+                cards.add("5_7");    // Princess Leia
+                cards.add("7_35");   // Princess Organa
+                cards.add("1_29");   // Red Leader
+                cards.add("6_42");   // Tamtel Skreej
+                cards.add("7_48");   // TK-422
+                cards.add("2_23");   // Wedge Antilles
+                cards.add("4_11");   // Landing Claw
+                cards.add("7_57");   // Coruscant Celebration
+                cards.add("1_46");   // Death Star Plans
+                cards.add("5_24");   // Haven
+                cards.add("1_54");   // Lightsaber Proficiency
+                cards.add("7_70");   // Mechanical Failure
+                cards.add("4_33");   // Reflection
+                cards.add("1_62");   // Revolution
+                cards.add("5_29");   // Uncontrollable Fury
+                cards.add("4_42");   // What Is Thy Bidding, My Master?
+                cards.add("2_42");   // Attack Run
+                cards.add("7_82");   // All Wings Report In
+                cards.add("1_110");  // Skywalkers
+                cards.add("4_78");   // It Is The Future You See
+                cards.add("7_113");  // Cloud City: Downtown Plaza
+                cards.add("5_80");   // Cloud City: Guest Quarters
+                cards.add("4_89");   // Dagobah: Yoda's Hut
+                cards.add("7_117");  // Death Star (Light)
+                cards.add("2_62");   // Death Star: Trench
+                cards.add("7_123");  // Rendezvous Point
+                cards.add("2_70");   // Red 2
+                cards.add("2_71");   // Red 5
+                cards.add("5_87");   // Redemption
+                cards.add("7_149");  // Spiral
+                cards.add("2_73");   // Tantive IV
+                cards.add("3_66");   // Rogue 1
+                cards.add("3_68");   // Rogue 3
+                cards.add("3_71");   // Anakin's Lightsaber
+                cards.add("1_157");  // Obi-Wan's Lightsaber
+            }
 
-        // Super Rare foils
-        for (int i=0; i<2; ++i) {
-            possibleCards.add("5_91");   // Boba Fett (Cloud City)
-            possibleCards.add("7_175");  // Darth Vader, Dark Lord Of The Sith
-            possibleCards.add("3_87");   // General Veers
-            possibleCards.add("1_179");  // Grand Moff Tarkin
-            possibleCards.add("6_109");  // Jabba The Hutt
-            possibleCards.add("5_99");   // Lando Calrissian (Dark)
-            possibleCards.add("2_143");  // Death Star
-            possibleCards.add("1_301");  // Devastator
-            possibleCards.add("4_167");  // Executor
-            possibleCards.add("5_177");  // Slave I
-            possibleCards.add("1_306");  // Vader's Custom TIE
-            possibleCards.add("1_324");  // Vader's Lightsaber
-            possibleCards.add("7_4");    // Ben Kenobi
-            possibleCards.add("1_5");    // C-3PO (See-Threepio)
-            possibleCards.add("5_1");    // Captain Han Solo
-            possibleCards.add("2_3");    // Chewbacca
-            possibleCards.add("1_11");   // Han Solo
-            possibleCards.add("5_5");    // Lando Calrissian (Light)
-            possibleCards.add("1_17");   // Leia Organa
-            possibleCards.add("1_21");   // Obi-Wan Kenobi
-            possibleCards.add("6_32");   // Princess Leia Organa
-            possibleCards.add("2_14");   // R2-D2 (Artoo-Detoo)
-            possibleCards.add("4_1");    // Son Of Skywalker
-            possibleCards.add("4_2");    // Yoda
-            possibleCards.add("1_143");  // Millennium Falcon
-        }
+            // Super Rare foils
+            for (int i=0; i<2; ++i) {
+                cards.add("5_91");   // Boba Fett (Cloud City)
+                cards.add("7_175");  // Darth Vader, Dark Lord Of The Sith
+                cards.add("3_87");   // General Veers
+                cards.add("1_179");  // Grand Moff Tarkin
+                cards.add("6_109");  // Jabba The Hutt
+                cards.add("5_99");   // Lando Calrissian (Dark)
+                cards.add("2_143");  // Death Star
+                cards.add("1_301");  // Devastator
+                cards.add("4_167");  // Executor
+                cards.add("5_177");  // Slave I
+                cards.add("1_306");  // Vader's Custom TIE
+                cards.add("1_324");  // Vader's Lightsaber
+                cards.add("7_4");    // Ben Kenobi
+                cards.add("1_5");    // C-3PO (See-Threepio)
+                cards.add("5_1");    // Captain Han Solo
+                cards.add("2_3");    // Chewbacca
+                cards.add("1_11");   // Han Solo
+                cards.add("5_5");    // Lando Calrissian (Light)
+                cards.add("1_17");   // Leia Organa
+                cards.add("1_21");   // Obi-Wan Kenobi
+                cards.add("6_32");   // Princess Leia Organa
+                cards.add("2_14");   // R2-D2 (Artoo-Detoo)
+                cards.add("4_1");    // Son Of Skywalker
+                cards.add("4_2");    // Yoda
+                cards.add("1_143");  // Millennium Falcon
+            }
 
-        // Ultra Rare foils
-        for (int i=0; i<1; ++i) {
-            possibleCards.add("1_168");   // Darth Vader
-            possibleCards.add("1_19");    // Luke Skywalker
-        }
+            // Ultra Rare foils
+            for (int i=0; i<1; ++i) {
+                cards.add("1_168");   // Darth Vader
+                cards.add("1_19");    // Luke Skywalker
+            }
 
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), true);
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, true);
     }
 }
@@ -56,7 +56,7 @@ public class ReflectionsIIBoosterBox extends BasePackagedCardProduct {
      */
     private void addFoilCard(List<CardCollection.Item> result) {
         List<String> boxToppers = new ArrayList<String>();
-        double random = Math.random();
+        double random = _random.nextDouble();
         if (random >= 0.75) {
             boxToppers.add("108_5"); // Boba Fett With Blaster Rifle
         }
@@ -14,7 +14,6 @@ import java.util.*;
  * Defines a Reflections II booster pack.
  */
 public class ReflectionsIIBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private SetRarity _premiereSetRarity;
     private SetRarity _aNewHopeSetRarity;
     private SetRarity _hothSetRarity;
@@ -94,11 +93,13 @@ public class ReflectionsIIBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomPremiereCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_premiereSetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomPremiereCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_premiereSetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -107,12 +108,14 @@ public class ReflectionsIIBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomANewHopeOrHothCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_aNewHopeSetRarity.getAllCards());
-        possibleCards.addAll(_hothSetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomANewHopeOrHothCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_aNewHopeSetRarity.getAllCards());
+            cards.addAll(_hothSetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -121,11 +124,13 @@ public class ReflectionsIIBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCloudCityCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_cloudCitySetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomCloudCityCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_cloudCitySetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -134,11 +139,13 @@ public class ReflectionsIIBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomJabbasPalaceCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_jabbasPalaceRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomJabbasPalaceCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_jabbasPalaceRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -147,11 +154,13 @@ public class ReflectionsIIBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomSpecialEditionCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_specialEditionSetRarity.getAllCards());
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomSpecialEditionCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_specialEditionSetRarity.getAllCards());
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -159,17 +168,21 @@ public class ReflectionsIIBoosterPack extends BasePackagedCardProduct {
      * @param result the list of cards in the pack
      */
     private void addRandomReflectionsIICards(List<CardCollection.Item> result) {
-        List<String> possibleComboCards = new ArrayList<String>();
-        possibleComboCards.addAll(_reflectionsIIComboCards);
-        filterNonExistingCards(possibleComboCards);
-        Collections.shuffle(possibleComboCards, _random);
-        addCards(result, possibleComboCards.subList(0, Math.min(possibleComboCards.size(), 1)), false);
+        List<String> possibleComboCards = getCardPool("addRandomReflectionsIIComboCards", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_reflectionsIIComboCards);
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleComboCards, 1, false);
 
-        List<String> possibleExpandedUniverseCards = new ArrayList<String>();
-        possibleExpandedUniverseCards.addAll(_reflectionsIIExpandedUniverse);
-        filterNonExistingCards(possibleExpandedUniverseCards);
-        Collections.shuffle(possibleExpandedUniverseCards, _random);
-        addCards(result, possibleExpandedUniverseCards.subList(0, Math.min(possibleExpandedUniverseCards.size(), 1)), false);
+        List<String> possibleExpandedUniverseCards = getCardPool("addRandomReflectionsIIExpandedUniverseCards", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_reflectionsIIExpandedUniverse);
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleExpandedUniverseCards, 1, false);
     }
 
     /**
@@ -178,122 +191,124 @@ public class ReflectionsIIBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomFoilCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
+        List<String> possibleCards = getCardPool("addRandomFoilCard", () -> {
+            List<String> cards = new ArrayList<String>();
 
-        // Very Rare foils
-        for (int i=0; i<3; ++i) {
-            possibleCards.add("9_94");   // Fighters Coming In
-            possibleCards.add("7_168");  // Boelo
-            possibleCards.add("106_11"); // Chall Bekan
-            possibleCards.add("8_94");   // Commander Igar
-            possibleCards.add("9_110");  // Janus Greejatus
-            possibleCards.add("9_118");  // Myn Kyneugh
-            possibleCards.add("9_120");  // Sim Aloo
-            possibleCards.add("4_116");  // Bad Feeling Have I
-            possibleCards.add("1_222");  // Lateral Damage
-            possibleCards.add("6_149");  // Scum And Villainy
-            possibleCards.add("7_241");  // Sienar Fleet Systems
-            possibleCards.add("101_6");  // Vader's Obsession
-            possibleCards.add("9_147");  // Death Star II: Throne Room
-            possibleCards.add("4_161");  // Executor: Holotheatre
-            possibleCards.add("4_163");  // Executor: Meditation Chamber
-            possibleCards.add("3_150");  // Hoth: Wampa Cave
-            possibleCards.add("2_147");  // Kiffex (Dark)
-            possibleCards.add("106_10"); // Black Squadron TIE
-            possibleCards.add("110_8");  // IG-88 In IG-2000
-            possibleCards.add("106_1");  // Arleil Schous
-            possibleCards.add("7_44");   // Tawss Khaa
-            possibleCards.add("5_23");   // Frozen Assets
-            possibleCards.add("7_62");   // Goo Nee Tay
-            possibleCards.add("1_55");   // Mantellian Savrip
-            possibleCards.add("4_30");   // Order To Engage
-            possibleCards.add("101_3");  // Run Luke, Run!
-            possibleCards.add("104_2");  // Lone Rogue
-            possibleCards.add("6_83");   // Kiffex (Light)
-            possibleCards.add("9_64");   // Blue Squadron B-wing
-            possibleCards.add("103_1");  // Gold Leader In Gold 1
-            possibleCards.add("9_73");   // Green Squadron A-wing
-            possibleCards.add("9_76");   // Liberty
-            possibleCards.add("103_2");  // Red Leader In Red 1
-            possibleCards.add("106_9");  // Z-95 Headhunter
-        }
+            // Very Rare foils
+            for (int i=0; i<3; ++i) {
+                cards.add("9_94");   // Fighters Coming In
+                cards.add("7_168");  // Boelo
+                cards.add("106_11"); // Chall Bekan
+                cards.add("8_94");   // Commander Igar
+                cards.add("9_110");  // Janus Greejatus
+                cards.add("9_118");  // Myn Kyneugh
+                cards.add("9_120");  // Sim Aloo
+                cards.add("4_116");  // Bad Feeling Have I
+                cards.add("1_222");  // Lateral Damage
+                cards.add("6_149");  // Scum And Villainy
+                cards.add("7_241");  // Sienar Fleet Systems
+                cards.add("101_6");  // Vader's Obsession
+                cards.add("9_147");  // Death Star II: Throne Room
+                cards.add("4_161");  // Executor: Holotheatre
+                cards.add("4_163");  // Executor: Meditation Chamber
+                cards.add("3_150");  // Hoth: Wampa Cave
+                cards.add("2_147");  // Kiffex (Dark)
+                cards.add("106_10"); // Black Squadron TIE
+                cards.add("110_8");  // IG-88 In IG-2000
+                cards.add("106_1");  // Arleil Schous
+                cards.add("7_44");   // Tawss Khaa
+                cards.add("5_23");   // Frozen Assets
+                cards.add("7_62");   // Goo Nee Tay
+                cards.add("1_55");   // Mantellian Savrip
+                cards.add("4_30");   // Order To Engage
+                cards.add("101_3");  // Run Luke, Run!
+                cards.add("104_2");  // Lone Rogue
+                cards.add("6_83");   // Kiffex (Light)
+                cards.add("9_64");   // Blue Squadron B-wing
+                cards.add("103_1");  // Gold Leader In Gold 1
+                cards.add("9_73");   // Green Squadron A-wing
+                cards.add("9_76");   // Liberty
+                cards.add("103_2");  // Red Leader In Red 1
+                cards.add("106_9");  // Z-95 Headhunter
+            }
 
-        // Super Rare foils
-        for (int i=0; i<2; ++i) {
-            possibleCards.add("109_6");  // 4-LOM With Concussion Rifle
-            possibleCards.add("9_98");   // Admiral Piett
-            possibleCards.add("9_99");   // Baron Soontir Fel
-            possibleCards.add("110_5");  // Bossk With Mortar Gun
-            possibleCards.add("108_6");  // Darth Vader With Lightsaber
-            possibleCards.add("110_7");  // Dengar With Blaster Carbine
-            possibleCards.add("1_171");  // Djas Puhr
-            possibleCards.add("109_11"); // IG-88 With Riot Gun
-            possibleCards.add("110_9");  // Jodo Kast
-            possibleCards.add("9_117");  // Moff Jerjerrod
-            possibleCards.add("7_195");  // Outer Rim Scout
-            possibleCards.add("9_136");  // Force Lightning
-            possibleCards.add("3_138");  // Trample
-            possibleCards.add("104_7");  // Walker Garrison
-            possibleCards.add("2_143");  // Death Star
-            possibleCards.add("9_142");  // Death Star II
-            possibleCards.add("109_8");  // Boba Fett In Slave I
-            possibleCards.add("9_154");  // Chimaera
-            possibleCards.add("109_10"); // Dengar In Punishing One
-            possibleCards.add("106_13"); // Dreadnaught-Class Heavy Cruiser
-            possibleCards.add("9_157");  // Flagship Executor
-            possibleCards.add("9_172");  // The Emperor's Shield
-            possibleCards.add("9_173");  // The Emperor's Sword
-            possibleCards.add("110_12"); // Zuckuss In Mist Hunter
-            possibleCards.add("104_5");  // Imperial Walker
-            possibleCards.add("8_172");  // Tempest Scout 1
-            possibleCards.add("9_178");  // Darth Vader's Lightsaber
-            possibleCards.add("110_11"); // Mara Jade's Lightsaber
-            possibleCards.add("9_1");    // Capital Support
-            possibleCards.add("9_6");    // Admiral Ackbar
-            possibleCards.add("2_2");    // Brainiac
-            possibleCards.add("109_1");  // Chewie With Blaster Rifle
-            possibleCards.add("8_3");    // Chief Chirpa
-            possibleCards.add("9_13");   // General Calrissian
-            possibleCards.add("8_14");   // General Crix Madine
-            possibleCards.add("1_15");   // Kal'Falnl C'ndros
-            possibleCards.add("102_3");  // Leia
-            possibleCards.add("108_3");  // Luke With Lightsaber
-            possibleCards.add("7_32");   // Melas
-            possibleCards.add("8_23");   // Orrimaarko
-            possibleCards.add("110_3");  // See-Threepio
-            possibleCards.add("9_31");   // Wedge Antilles, Red Squadron Leader
-            possibleCards.add("8_32");   // Wicket
-            possibleCards.add("3_32");   // Bacta Tank
-            possibleCards.add("3_34");   // Echo Base Operations
-            possibleCards.add("1_52");   // Kessel Run
-            possibleCards.add("1_76");   // Don't Get Cocky
-            possibleCards.add("1_82");   // Gift Of The Mentor
-            possibleCards.add("5_69");   // Smoke Screen
-            possibleCards.add("1_138");  // Yavin 4: Massassi Throne Room
-            possibleCards.add("111_2");  // Artoo-Detoo In Red 5
-            possibleCards.add("9_65");   // B-wing Attack Squadron
-            possibleCards.add("9_68");   // Gold Squadron 1
-            possibleCards.add("106_4");  // Gold Squadron Y-wing
-            possibleCards.add("9_74");   // Home One
-            possibleCards.add("9_75");   // Independence
-            possibleCards.add("109_2");  // Lando In Millennium Falcon
-            possibleCards.add("9_81");   // Red Squadron 1
-            possibleCards.add("106_7");  // Red Squadron X-wing
-            possibleCards.add("7_150");  // X-wing Assault Squadron
-            possibleCards.add("104_3");  // Rebel Snowspeeder
-            possibleCards.add("9_90");   // Luke's Lightsaber
-        }
+            // Super Rare foils
+            for (int i=0; i<2; ++i) {
+                cards.add("109_6");  // 4-LOM With Concussion Rifle
+                cards.add("9_98");   // Admiral Piett
+                cards.add("9_99");   // Baron Soontir Fel
+                cards.add("110_5");  // Bossk With Mortar Gun
+                cards.add("108_6");  // Darth Vader With Lightsaber
+                cards.add("110_7");  // Dengar With Blaster Carbine
+                cards.add("1_171");  // Djas Puhr
+                cards.add("109_11"); // IG-88 With Riot Gun
+                cards.add("110_9");  // Jodo Kast
+                cards.add("9_117");  // Moff Jerjerrod
+                cards.add("7_195");  // Outer Rim Scout
+                cards.add("9_136");  // Force Lightning
+                cards.add("3_138");  // Trample
+                cards.add("104_7");  // Walker Garrison
+                cards.add("2_143");  // Death Star
+                cards.add("9_142");  // Death Star II
+                cards.add("109_8");  // Boba Fett In Slave I
+                cards.add("9_154");  // Chimaera
+                cards.add("109_10"); // Dengar In Punishing One
+                cards.add("106_13"); // Dreadnaught-Class Heavy Cruiser
+                cards.add("9_157");  // Flagship Executor
+                cards.add("9_172");  // The Emperor's Shield
+                cards.add("9_173");  // The Emperor's Sword
+                cards.add("110_12"); // Zuckuss In Mist Hunter
+                cards.add("104_5");  // Imperial Walker
+                cards.add("8_172");  // Tempest Scout 1
+                cards.add("9_178");  // Darth Vader's Lightsaber
+                cards.add("110_11"); // Mara Jade's Lightsaber
+                cards.add("9_1");    // Capital Support
+                cards.add("9_6");    // Admiral Ackbar
+                cards.add("2_2");    // Brainiac
+                cards.add("109_1");  // Chewie With Blaster Rifle
+                cards.add("8_3");    // Chief Chirpa
+                cards.add("9_13");   // General Calrissian
+                cards.add("8_14");   // General Crix Madine
+                cards.add("1_15");   // Kal'Falnl C'ndros
+                cards.add("102_3");  // Leia
+                cards.add("108_3");  // Luke With Lightsaber
+                cards.add("7_32");   // Melas
+                cards.add("8_23");   // Orrimaarko
+                cards.add("110_3");  // See-Threepio
+                cards.add("9_31");   // Wedge Antilles, Red Squadron Leader
+                cards.add("8_32");   // Wicket
+                cards.add("3_32");   // Bacta Tank
+                cards.add("3_34");   // Echo Base Operations
+                cards.add("1_52");   // Kessel Run
+                cards.add("1_76");   // Don't Get Cocky
+                cards.add("1_82");   // Gift Of The Mentor
+                cards.add("5_69");   // Smoke Screen
+                cards.add("1_138");  // Yavin 4: Massassi Throne Room
+                cards.add("111_2");  // Artoo-Detoo In Red 5
+                cards.add("9_65");   // B-wing Attack Squadron
+                cards.add("9_68");   // Gold Squadron 1
+                cards.add("106_4");  // Gold Squadron Y-wing
+                cards.add("9_74");   // Home One
+                cards.add("9_75");   // Independence
+                cards.add("109_2");  // Lando In Millennium Falcon
+                cards.add("9_81");   // Red Squadron 1
+                cards.add("106_7");  // Red Squadron X-wing
+                cards.add("7_150");  // X-wing Assault Squadron
+                cards.add("104_3");  // Rebel Snowspeeder
+                cards.add("9_90");   // Luke's Lightsaber
+            }
 
-        // Ultra Rare foils
-        for (int i=0; i<1; ++i) {
-            possibleCards.add("9_109");   // Emperor Palpatine
-            possibleCards.add("9_113");   // Lord Vader
-            possibleCards.add("110_10");  // Mara Jade, The Emperor's Hand
-            possibleCards.add("9_24");    // Luke Skywalker, Jedi Knight
-        }
+            // Ultra Rare foils
+            for (int i=0; i<1; ++i) {
+                cards.add("9_109");   // Emperor Palpatine
+                cards.add("9_113");   // Lord Vader
+                cards.add("110_10");  // Mara Jade, The Emperor's Hand
+                cards.add("9_24");    // Luke Skywalker, Jedi Knight
+            }
 
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), true);
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, true);
     }
 }
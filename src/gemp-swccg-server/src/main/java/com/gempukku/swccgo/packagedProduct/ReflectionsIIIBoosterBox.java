@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Reflections III booster box.
  */
-public class ReflectionsIIIBoosterBox extends BasePackagedCardProduct {
+public class ReflectionsIIIBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Reflections III booster box.
@@ -13,7 +13,7 @@ import java.util.List;
 /**
  * Defines a Second Anthology box.
  */
-public class SecondAnthologyBox extends BasePackagedCardProduct {
+public class SecondAnthologyBox extends FixedContentsPackagedCardProduct {
     private SetRarity _setRarity;
 
     /**
@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Special Edition booster box.
  */
-public class SpecialEditionBoosterBox extends BasePackagedCardProduct {
+public class SpecialEditionBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Special Edition booster box.
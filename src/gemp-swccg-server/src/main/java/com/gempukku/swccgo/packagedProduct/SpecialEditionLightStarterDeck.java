@@ -15,7 +15,6 @@ import java.util.*;
  * Defines a Special Edition light starter deck.
  */
 public class SpecialEditionLightStarterDeck extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private List<String> _fixed = new ArrayList<String>();
     private List<String> _commons = new ArrayList<String>();
     private List<String> _uncommons = new ArrayList<String>();
@@ -115,10 +114,7 @@ public class SpecialEditionLightStarterDeck extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCard(List<CardCollection.Item> result, List<String> fromCards, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(fromCards);
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        // The lists only hold cards found in the blueprint library when constructed, so they need no filtering here
+        addRandomCards(result, fromCards, count, false);
     }
 }
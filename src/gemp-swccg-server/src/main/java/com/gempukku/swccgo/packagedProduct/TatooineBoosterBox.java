@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Tatooine booster box.
  */
-public class TatooineBoosterBox extends BasePackagedCardProduct {
+public class TatooineBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Tatooine booster box.
@@ -14,7 +14,6 @@ import java.util.*;
  * Defines a Tatooine booster pack.
  */
 public class TatooineBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private SetRarity _setRarity;
     private boolean _includeNonEpisodeI;
 
@@ -74,42 +73,43 @@ public class TatooineBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomRareCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
+        List<String> possibleCards = getCardPool("addRandomRareCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
 
-        // 1 of 4 times keep the AI card, instead of the non-AI card
-        if ((Math.random() * 4) >= 3) {
-            possibleCards.remove("11_51"); // Aurra Sing
-            possibleCards.remove("11_54"); // Darth Maul
-            possibleCards.remove("11_62"); // Sebulba
-            possibleCards.remove("11_65"); // Watto
-            possibleCards.remove("11_6");  // Obi-Wan Kenobi, Padawan Learner
-            possibleCards.remove("11_8");  // Padme Naberrie
-            possibleCards.remove("11_10"); // Qui-Gon Jinn
-            possibleCards.remove("11_49"); // Qui-Gon Jinn's Lightsaber
-            possibleCards.remove("11_13"); // Threepio With His Parts Showing
-        }
-        else {
-            possibleCards.remove("11_52"); // Aurra Sing (AI)
-            possibleCards.remove("11_55"); // Darth Maul (AI)
-            possibleCards.remove("11_63"); // Sebulba (AI)
-            possibleCards.remove("11_66"); // Watto (AI)
-            possibleCards.remove("11_7");  // Obi-Wan Kenobi, Padawan Learner (AI)
-            possibleCards.remove("11_9");  // Padme Naberrie (AI)
-            possibleCards.remove("11_11"); // Qui-Gon Jinn (AI)
-            possibleCards.remove("11_50"); // Qui-Gon Jinn's Lightsaber (AI)
-            possibleCards.remove("11_14"); // Threepio With His Parts Showing (AI)
-        }
-        filterNonExistingCards(possibleCards);
-        if(!_includeNonEpisodeI) {
-            filterIcon(possibleCards, Icon.EPISODE_I, true);
-            filterIcon(possibleCards, Icon.PODRACER, false);
-            possibleCards.remove("11_24"); //Boonta Eve Podrace
-            possibleCards.remove("11_79"); //Boonta Eve Podrace
-        }
-
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+            // 1 of 4 times keep the AI card, instead of the non-AI card
+            if ((_random.nextDouble() * 4) >= 3) {
+                cards.remove("11_51"); // Aurra Sing
+                cards.remove("11_54"); // Darth Maul
+                cards.remove("11_62"); // Sebulba
+                cards.remove("11_65"); // Watto
+                cards.remove("11_6");  // Obi-Wan Kenobi, Padawan Learner
+                cards.remove("11_8");  // Padme Naberrie
+                cards.remove("11_10"); // Qui-Gon Jinn
+                cards.remove("11_49"); // Qui-Gon Jinn's Lightsaber
+                cards.remove("11_13"); // Threepio With His Parts Showing
+            }
+            else {
+                cards.remove("11_52"); // Aurra Sing (AI)
+                cards.remove("11_55"); // Darth Maul (AI)
+                cards.remove("11_63"); // Sebulba (AI)
+                cards.remove("11_66"); // Watto (AI)
+                cards.remove("11_7");  // Obi-Wan Kenobi, Padawan Learner (AI)
+                cards.remove("11_9");  // Padme Naberrie (AI)
+                cards.remove("11_11"); // Qui-Gon Jinn (AI)
+                cards.remove("11_50"); // Qui-Gon Jinn's Lightsaber (AI)
+                cards.remove("11_14"); // Threepio With His Parts Showing (AI)
+            }
+            filterNonExistingCards(cards);
+            if(!_includeNonEpisodeI) {
+                filterIcon(cards, Icon.EPISODE_I, true);
+                filterIcon(cards, Icon.PODRACER, false);
+                cards.remove("11_24"); //Boonta Eve Podrace
+                cards.remove("11_79"); //Boonta Eve Podrace
+            }
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -118,20 +118,22 @@ public class TatooineBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCommonOrUncommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        filterNonExistingCards(possibleCards);
-        if(!_includeNonEpisodeI) {
-            filterIcon(possibleCards, Icon.EPISODE_I, true);
-            filterIcon(possibleCards, Icon.PODRACER, false);
-            possibleCards.remove("11_24"); //Boonta Eve Podrace
-            possibleCards.remove("11_79"); //Boonta Eve Podrace
-        }
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomCommonOrUncommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            filterNonExistingCards(cards);
+            if(!_includeNonEpisodeI) {
+                filterIcon(cards, Icon.EPISODE_I, true);
+                filterIcon(cards, Icon.PODRACER, false);
+                cards.remove("11_24"); //Boonta Eve Podrace
+                cards.remove("11_79"); //Boonta Eve Podrace
+            }
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 }
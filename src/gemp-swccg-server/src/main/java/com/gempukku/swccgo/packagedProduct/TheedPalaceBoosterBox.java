@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Defines a Theed Palace booster box.
  */
-public class TheedPalaceBoosterBox extends BasePackagedCardProduct {
+public class TheedPalaceBoosterBox extends FixedContentsPackagedCardProduct {
 
     /**
      * Creates a Theed Palace booster box.
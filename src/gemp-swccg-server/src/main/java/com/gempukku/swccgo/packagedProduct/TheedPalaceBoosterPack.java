@@ -13,7 +13,6 @@ import java.util.*;
  * Defines a Theed Palace booster pack.
  */
 public class TheedPalaceBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private SetRarity _setRarity;
 
     /**
@@ -62,35 +61,37 @@ public class TheedPalaceBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomRareCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
+        List<String> possibleCards = getCardPool("addRandomRareCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.R));
 
-        // 1 of 4 times keep the AI card, instead of the non-AI card
-        if ((Math.random() * 4) >= 3) {
-            possibleCards.remove("14_78"); // Darth Sidious
-            possibleCards.remove("14_81"); // Nute Gunray, Neimoidian Viceroy
-            possibleCards.remove("14_86"); // Rune Haako, Legal Counsel
-            possibleCards.remove("14_3");  // Artoo, Brave Little Droid
-            possibleCards.remove("14_5");  // Boss Nass
-            possibleCards.remove("14_10"); // General Jar Jar
-            possibleCards.remove("14_18"); // Mace Windu, Jedi Master
-            possibleCards.remove("14_23"); // Panaka, Protector Of The Queen
-            possibleCards.remove("14_25"); // Queen Amidala
-        }
-        else {
-            possibleCards.remove("14_79"); // Darth Sidious (AI)
-            possibleCards.remove("14_82"); // Nute Gunray, Neimoidian Viceroy (AI)
-            possibleCards.remove("14_87"); // Rune Haako, Legal Counsel (AI)
-            possibleCards.remove("14_4");  // Artoo, Brave Little Droid (AI)
-            possibleCards.remove("14_6");  // Boss Nass (AI)
-            possibleCards.remove("14_11"); // General Jar Jar (AI)
-            possibleCards.remove("14_19"); // Mace Windu, Jedi Master (AI)
-            possibleCards.remove("14_24"); // Panaka, Protector Of The Queen (AI)
-            possibleCards.remove("14_26"); // Queen Amidala (AI)
-        }
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+            // 1 of 4 times keep the AI card, instead of the non-AI card
+            if ((_random.nextDouble() * 4) >= 3) {
+                cards.remove("14_78"); // Darth Sidious
+                cards.remove("14_81"); // Nute Gunray, Neimoidian Viceroy
+                cards.remove("14_86"); // Rune Haako, Legal Counsel
+                cards.remove("14_3");  // Artoo, Brave Little Droid
+                cards.remove("14_5");  // Boss Nass
+                cards.remove("14_10"); // General Jar Jar
+                cards.remove("14_18"); // Mace Windu, Jedi Master
+                cards.remove("14_23"); // Panaka, Protector Of The Queen
+                cards.remove("14_25"); // Queen Amidala
+            }
+            else {
+                cards.remove("14_79"); // Darth Sidious (AI)
+                cards.remove("14_82"); // Nute Gunray, Neimoidian Viceroy (AI)
+                cards.remove("14_87"); // Rune Haako, Legal Counsel (AI)
+                cards.remove("14_4");  // Artoo, Brave Little Droid (AI)
+                cards.remove("14_6");  // Boss Nass (AI)
+                cards.remove("14_11"); // General Jar Jar (AI)
+                cards.remove("14_19"); // Mace Windu, Jedi Master (AI)
+                cards.remove("14_24"); // Panaka, Protector Of The Queen (AI)
+                cards.remove("14_26"); // Queen Amidala (AI)
+            }
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 
     /**
@@ -99,14 +100,16 @@ public class TheedPalaceBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCommonOrUncommonCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        possibleCards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        List<String> possibleCards = getCardPool("addRandomCommonOrUncommonCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.U));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            cards.addAll(_setRarity.getCardsOfRarity(Rarity.C));
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 }
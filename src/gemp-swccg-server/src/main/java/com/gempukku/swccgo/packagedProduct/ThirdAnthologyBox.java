@@ -13,7 +13,7 @@ import java.util.List;
 /**
  * Defines a Third Anthology box.
  */
-public class ThirdAnthologyBox extends BasePackagedCardProduct {
+public class ThirdAnthologyBox extends FixedContentsPackagedCardProduct {
     private SetRarity _setRarity;
 
     /**
@@ -9,7 +9,6 @@ import java.util.*;
  * Defines a Virtual Alternate Image booster pack.
  */
 public class VirtualAlternateImageBoosterPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private int _series;
     /**
      * Creates a Virtual Alternate Image booster pack.
@@ -72,152 +71,154 @@ public class VirtualAlternateImageBoosterPack extends BasePackagedCardProduct {
      * @param count the number cards to add
      */
     private void addRandomCard(List<CardCollection.Item> result, int count) {
-        List<String> possibleCards = new ArrayList<String>();
-        switch(_series) {
-            case 1:
-                possibleCards.add("200_1^"); //Aayla Secura
-                possibleCards.add("203_22^"); //Agent Kallus
-                possibleCards.add("200_2^"); //Anakin Skywalker, Padawan Learner
-                possibleCards.add("202_7^"); //Azure Angel
-                possibleCards.add("204_3^"); //Captain Hera Syndulla
-                possibleCards.add("200_3^"); //Captain Rex, 501st Legion
-                possibleCards.add("200_57^"); //Coruscant: Night Club
-                possibleCards.add("200_80^"); //Droideka
-                possibleCards.add("200_77^"); //DS-61-5
-                possibleCards.add("203_27^"); //General Grievous
-                possibleCards.add("201_18^"); //Green Leader In Green Squadron 1
-                possibleCards.add("204_51^"); //Jakku (DS)
-                possibleCards.add("201_25^"); //Jango Fett
-                possibleCards.add("209_49^"); //Jedha: Jedha City
-                possibleCards.add("203_6^"); //Kanan Jarrus
-                possibleCards.add("200_58^"); //Nar Shaddaa
-                possibleCards.add("204_9^"); //Rey
-                possibleCards.add("209_26^"); //Scarif: Landing Pad Nine (Docking Bay)
-                possibleCards.add("201_40^"); //Slave I, Symbol Of Fear
-                possibleCards.add("203_14^"); //Stolen Data Tapes
-                possibleCards.add("203_21^"); //Wild Karrde
-                possibleCards.add("204_26^"); //Jakku (LS)
-                break;
-            case 2:
-                possibleCards.add("301_1^"); //Ahsoka Tano With Lightsabers
-                possibleCards.add("301_3^"); //Asajj Ventress With Lightsabers
-                possibleCards.add("204_38^"); //Captain Phasma
-                possibleCards.add("207_2^"); //Chirrut Imwe
-                possibleCards.add("200_6^"); //Commander Cody
-                possibleCards.add("204_54^"); //Finalizer
-                possibleCards.add("207_18^"); //Profundity
-                possibleCards.add("207_23^"); //Savage Opress
-                possibleCards.add("208_51^"); //Starkiller Base
-                possibleCards.add("209_6^"); //General Kenobi
-                possibleCards.add("210_1^"); //Ahch-To: Saddle
-                possibleCards.add("209_50^"); //Mustafar: Vader's Castle
-                possibleCards.add("203_2^"); //CT-5555 (Fives)
-                possibleCards.add("209_35^"); //Dr. Chelli Lona Aphra
-                possibleCards.add("210_19^"); //Kit Fisto
-                possibleCards.add("209_37^"); //Kylo Ren With Lightsaber
-                possibleCards.add("209_10^"); //Rey With Lightsaber
-                possibleCards.add("206_7^"); //Rogue One
-                possibleCards.add("209_39^"); //Supreme Leader Snoke
-                break;
-            case 3:
-                possibleCards.add("200_71^"); //4-LOM With Concussion Rifle (V)
-                possibleCards.add("212_5^"); //Admiral Trench
-                possibleCards.add("204_36^"); //B2 Battle Droid
-                possibleCards.add("200_133^"); //Conquest (V)
-                possibleCards.add("200_76^"); //Count Dooku
-                possibleCards.add("203_26^"); //Darth Maul, Lone Hunter
-                possibleCards.add("200_142^"); //Dooku's Lightsaber
-                possibleCards.add("211_28^"); //BB-8 In Black Squadron 1
-                possibleCards.add("204_4^"); //Chewie With Bowcaster
-                possibleCards.add("204_27^"); //Jakku: Niima Outpost Shipyard
-                possibleCards.add("204_8^"); //Poe Dameron
-                possibleCards.add("209_25^"); //Scarif: Data Vault
-                possibleCards.add("204_11^"); //Solo
-                possibleCards.add("201_19^"); //Tantive IV (V)
-                possibleCards.add("204_35^"); //The Falcon, Junkyard Garbage
-                break;
-            case 4:
-                possibleCards.add("213_17^"); //A Lawless Time
-                possibleCards.add("215_2^"); //A Power Loss
-                possibleCards.add("208_30^"); //Darth Vader, Emperor's Enforcer
-                possibleCards.add("207_20^"); //Director Orson Krennic
-                possibleCards.add("204_6^"); //Finn
-                possibleCards.add("204_41^"); //General Hux
-                possibleCards.add("207_5^"); //General Leia Organa
-                possibleCards.add("208_49^"); //Hoth: Ice Plains (V)
-                possibleCards.add("213_20^"); //I've Been Searching For You For Some Time
-                possibleCards.add("204_29^"); //Jakku: Rey's Encampment
-                possibleCards.add("204_31^"); //Jakku: Tuanul Village (LS)
-                possibleCards.add("206_4^"); //Jyn Erso
-                possibleCards.add("213_58^"); //Leia's Resistance Transport
-                possibleCards.add("213_10^"); //Maul (Hologram)
-                possibleCards.add("213_39^"); //Qi'ra (Hologram)
-                possibleCards.add("201_6^"); //R2-D2 (V)
-                possibleCards.add("210_46^"); //The Grand Inquisitor
-                possibleCards.add("209_40^"); //Vanee
-                break;
-            case 5:
-                possibleCards.add("217_27^"); //Ajan Kloss: Training Course (Borderless)
-                possibleCards.add("216_21^"); //Anakin Skywalker, Jedi Knight (Hologram AI)
-                possibleCards.add("210_3^"); //Anakin's Lightsaber (V)
-                possibleCards.add("203_31^"); //Coruscant (V) (DS)
-                possibleCards.add("216_25^"); //Coruscant: Jedi Temple Meditation Room
-                possibleCards.add("216_4^"); //Coruscant: The Works (Borderless)
-                possibleCards.add("216_26^"); //Dagobah: Yoda's Hut (V)
-                possibleCards.add("202_9^"); //Daroe (V)
-                possibleCards.add("213_3^"); //Darth Tyranus (Hologram AI)
-                possibleCards.add("216_6^"); //Darth Vader, Betrayer Of The Jedi
-                possibleCards.add("216_7^"); //Death Star (V)
-                possibleCards.add("205_13^"); //Hondo Ohnaka
-                possibleCards.add("200_108^"); //Imperial Decree (V)
-                possibleCards.add("204_7^"); //Lor San Tekka
-                possibleCards.add("201_21^"); //Mace Windu's Lightsaber
-                possibleCards.add("210_23^"); //Plo Koon (V)
-                possibleCards.add("208_17^"); //Restore Freedom To The Galaxy
-                possibleCards.add("216_43^"); //Tatooine: Obi-Wan's Hut (V) (Borderless)
-                break;
-            case 6:
-                possibleCards.add("204_1^"); //BB-8 (Border Breaker)
-                possibleCards.add("204_47^"); //Bow To The First Order
-                possibleCards.add("219_2^"); //Chimaera (V)
-                possibleCards.add("219_31^"); //Coruscant: Jedi Temple (Borderless)
-                possibleCards.add("213_23^"); //Dathmoir: Maul's Chambers
-                possibleCards.add("217_34^"); //Endor: Anakin's Funeral Pyre (Borderless)
-                possibleCards.add("209_4^"); //Galen Erso
-                possibleCards.add("205_17^"); //I Am Your Father (V)
-                possibleCards.add("200_41^"); //I Must Be Allowed To Speak (V)
-                possibleCards.add("211_23^"); //Invisible Hand (Border Breaker)
-                possibleCards.add("202_5^"); //Like My Father Before Me
-                possibleCards.add("200_20^"); //Luke Skywalker (V)
-                possibleCards.add("210_20^"); //Luke Skywalker, The Last Jedi
-                possibleCards.add("208_8^"); //Luke Skywalker, The Rebellion's Hope
-                possibleCards.add("205_6^"); //Tatooine: Lars' Moisture Farm (V)
-                possibleCards.add("218_31^"); //Tydirum (V) (Border Breaker)
-                possibleCards.add("217_52^"); //Your Thoughts Dwell On Your Mother
-                possibleCards.add("204_46^"); //Zam Wesell (Semi Border Break)
-                break;
-            case 7:
-                possibleCards.add("224_9^"); //Balanced Attack & Darklighter Spin (Animated AI)    
-                possibleCards.add("200_109^"); //Coarse And Rough And Irritating (AI)
-                possibleCards.add("214_3^"); //Darksaber (AI)
-                possibleCards.add("214_18^"); //Din Djarin (AI)
-                possibleCards.add("200_39^"); //I Don't Like Sand (AI)
-                possibleCards.add("210_17^"); //Jedi Business (AI)
-                possibleCards.add("211_33^"); //Jedi Lightsaber (V) (AI)
-                possibleCards.add("208_35^"); //Lord Sidious (Hologram AI)
-                possibleCards.add("200_85^"); //Maarek Stele, The Emperor's Reach (AI)
-                possibleCards.add("218_4^"); //Master Windu (Hologram AI)
-                possibleCards.add("218_27^"); //Outrider (AI)
-                possibleCards.add("214_8^"); //Palpatine, Emperor Returned (AI)
-                possibleCards.add("214_21^"); //Plo Koon's Jedi Starfighter (AI)
-                possibleCards.add("200_88^"); //Probot (AI)
-                possibleCards.add("214_9^"); //Steadfast (AI)
-                possibleCards.add("219_27^"); //Vader's Lightsaber (V) (AI)
-                break;
-        }
+        List<String> possibleCards = getCardPool("addRandomCard", () -> {
+            List<String> cards = new ArrayList<String>();
+            switch(_series) {
+                case 1:
+                    cards.add("200_1^"); //Aayla Secura
+                    cards.add("203_22^"); //Agent Kallus
+                    cards.add("200_2^"); //Anakin Skywalker, Padawan Learner
+                    cards.add("202_7^"); //Azure Angel
+                    cards.add("204_3^"); //Captain Hera Syndulla
+                    cards.add("200_3^"); //Captain Rex, 501st Legion
+                    cards.add("200_57^"); //Coruscant: Night Club
+                    cards.add("200_80^"); //Droideka
+                    cards.add("200_77^"); //DS-61-5
+                    cards.add("203_27^"); //General Grievous
+                    cards.add("201_18^"); //Green Leader In Green Squadron 1
+                    cards.add("204_51^"); //Jakku (DS)
+                    cards.add("201_25^"); //Jango Fett
+                    cards.add("209_49^"); //Jedha: Jedha City
+                    cards.add("203_6^"); //Kanan Jarrus
+                    cards.add("200_58^"); //Nar Shaddaa
+                    cards.add("204_9^"); //Rey
+                    cards.add("209_26^"); //Scarif: Landing Pad Nine (Docking Bay)
+                    cards.add("201_40^"); //Slave I, Symbol Of Fear
+                    cards.add("203_14^"); //Stolen Data Tapes
+                    cards.add("203_21^"); //Wild Karrde
+                    cards.add("204_26^"); //Jakku (LS)
+                    break;
+                case 2:
+                    cards.add("301_1^"); //Ahsoka Tano With Lightsabers
+                    cards.add("301_3^"); //Asajj Ventress With Lightsabers
+                    cards.add("204_38^"); //Captain Phasma
+                    cards.add("207_2^"); //Chirrut Imwe
+                    cards.add("200_6^"); //Commander Cody
+                    cards.add("204_54^"); //Finalizer
+                    cards.add("207_18^"); //Profundity
+                    cards.add("207_23^"); //Savage Opress
+                    cards.add("208_51^"); //Starkiller Base
+                    cards.add("209_6^"); //General Kenobi
+                    cards.add("210_1^"); //Ahch-To: Saddle
+                    cards.add("209_50^"); //Mustafar: Vader's Castle
+                    cards.add("203_2^"); //CT-5555 (Fives)
+                    cards.add("209_35^"); //Dr. Chelli Lona Aphra
+                    cards.add("210_19^"); //Kit Fisto
+                    cards.add("209_37^"); //Kylo Ren With Lightsaber
+                    cards.add("209_10^"); //Rey With Lightsaber
+                    cards.add("206_7^"); //Rogue One
+                    cards.add("209_39^"); //Supreme Leader Snoke
+                    break;
+                case 3:
+                    cards.add("200_71^"); //4-LOM With Concussion Rifle (V)
+                    cards.add("212_5^"); //Admiral Trench
+                    cards.add("204_36^"); //B2 Battle Droid
+                    cards.add("200_133^"); //Conquest (V)
+                    cards.add("200_76^"); //Count Dooku
+                    cards.add("203_26^"); //Darth Maul, Lone Hunter
+                    cards.add("200_142^"); //Dooku's Lightsaber
+                    cards.add("211_28^"); //BB-8 In Black Squadron 1
+                    cards.add("204_4^"); //Chewie With Bowcaster
+                    cards.add("204_27^"); //Jakku: Niima Outpost Shipyard
+                    cards.add("204_8^"); //Poe Dameron
+                    cards.add("209_25^"); //Scarif: Data Vault
+                    cards.add("204_11^"); //Solo
+                    cards.add("201_19^"); //Tantive IV (V)
+                    cards.add("204_35^"); //The Falcon, Junkyard Garbage
+                    break;
+                case 4:
+                    cards.add("213_17^"); //A Lawless Time
+                    cards.add("215_2^"); //A Power Loss
+                    cards.add("208_30^"); //Darth Vader, Emperor's Enforcer
+                    cards.add("207_20^"); //Director Orson Krennic
+                    cards.add("204_6^"); //Finn
+                    cards.add("204_41^"); //General Hux
+                    cards.add("207_5^"); //General Leia Organa
+                    cards.add("208_49^"); //Hoth: Ice Plains (V)
+                    cards.add("213_20^"); //I've Been Searching For You For Some Time
+                    cards.add("204_29^"); //Jakku: Rey's Encampment
+                    cards.add("204_31^"); //Jakku: Tuanul Village (LS)
+                    cards.add("206_4^"); //Jyn Erso
+                    cards.add("213_58^"); //Leia's Resistance Transport
+                    cards.add("213_10^"); //Maul (Hologram)
+                    cards.add("213_39^"); //Qi'ra (Hologram)
+                    cards.add("201_6^"); //R2-D2 (V)
+                    cards.add("210_46^"); //The Grand Inquisitor
+                    cards.add("209_40^"); //Vanee
+                    break;
+                case 5:
+                    cards.add("217_27^"); //Ajan Kloss: Training Course (Borderless)
+                    cards.add("216_21^"); //Anakin Skywalker, Jedi Knight (Hologram AI)
+                    cards.add("210_3^"); //Anakin's Lightsaber (V)
+                    cards.add("203_31^"); //Coruscant (V) (DS)
+                    cards.add("216_25^"); //Coruscant: Jedi Temple Meditation Room
+                    cards.add("216_4^"); //Coruscant: The Works (Borderless)
+                    cards.add("216_26^"); //Dagobah: Yoda's Hut (V)
+                    cards.add("202_9^"); //Daroe (V)
+                    cards.add("213_3^"); //Darth Tyranus (Hologram AI)
+                    cards.add("216_6^"); //Darth Vader, Betrayer Of The Jedi
+                    cards.add("216_7^"); //Death Star (V)
+                    cards.add("205_13^"); //Hondo Ohnaka
+                    cards.add("200_108^"); //Imperial Decree (V)
+                    cards.add("204_7^"); //Lor San Tekka
+                    cards.add("201_21^"); //Mace Windu's Lightsaber
+                    cards.add("210_23^"); //Plo Koon (V)
+                    cards.add("208_17^"); //Restore Freedom To The Galaxy
+                    cards.add("216_43^"); //Tatooine: Obi-Wan's Hut (V) (Borderless)
+                    break;
+                case 6:
+                    cards.add("204_1^"); //BB-8 (Border Breaker)
+                    cards.add("204_47^"); //Bow To The First Order
+                    cards.add("219_2^"); //Chimaera (V)
+                    cards.add("219_31^"); //Coruscant: Jedi Temple (Borderless)
+                    cards.add("213_23^"); //Dathmoir: Maul's Chambers
+                    cards.add("217_34^"); //Endor: Anakin's Funeral Pyre (Borderless)
+                    cards.add("209_4^"); //Galen Erso
+                    cards.add("205_17^"); //I Am Your Father (V)
+                    cards.add("200_41^"); //I Must Be Allowed To Speak (V)
+                    cards.add("211_23^"); //Invisible Hand (Border Breaker)
+                    cards.add("202_5^"); //Like My Father Before Me
+                    cards.add("200_20^"); //Luke Skywalker (V)
+                    cards.add("210_20^"); //Luke Skywalker, The Last Jedi
+                    cards.add("208_8^"); //Luke Skywalker, The Rebellion's Hope
+                    cards.add("205_6^"); //Tatooine: Lars' Moisture Farm (V)
+                    cards.add("218_31^"); //Tydirum (V) (Border Breaker)
+                    cards.add("217_52^"); //Your Thoughts Dwell On Your Mother
+                    cards.add("204_46^"); //Zam Wesell (Semi Border Break)
+                    break;
+                case 7:
+                    cards.add("224_9^"); //Balanced Attack & Darklighter Spin (Animated AI)    
+                    cards.add("200_109^"); //Coarse And Rough And Irritating (AI)
+                    cards.add("214_3^"); //Darksaber (AI)
+                    cards.add("214_18^"); //Din Djarin (AI)
+                    cards.add("200_39^"); //I Don't Like Sand (AI)
+                    cards.add("210_17^"); //Jedi Business (AI)
+                    cards.add("211_33^"); //Jedi Lightsaber (V) (AI)
+                    cards.add("208_35^"); //Lord Sidious (Hologram AI)
+                    cards.add("200_85^"); //Maarek Stele, The Emperor's Reach (AI)
+                    cards.add("218_4^"); //Master Windu (Hologram AI)
+                    cards.add("218_27^"); //Outrider (AI)
+                    cards.add("214_8^"); //Palpatine, Emperor Returned (AI)
+                    cards.add("214_21^"); //Plo Koon's Jedi Starfighter (AI)
+                    cards.add("200_88^"); //Probot (AI)
+                    cards.add("214_9^"); //Steadfast (AI)
+                    cards.add("219_27^"); //Vader's Lightsaber (V) (AI)
+                    break;
+            }
 
-        filterNonExistingCards(possibleCards);
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+            filterNonExistingCards(cards);
+            return cards;
+        });
+        addRandomCards(result, possibleCards, count, false);
     }
 }
@@ -10,7 +10,6 @@ import java.util.*;
  */
 public class WattosCubeDraftPack extends BasePackagedCardProduct {
     private final int DRAFT_PACK_CARD_COUNT = 9;
-    private Random _random = new Random();
     private String _side;
 
     /**
@@ -92,8 +91,7 @@ public class WattosCubeDraftPack extends BasePackagedCardProduct {
 
         filterNonExistingCards(possibleCards);
 
-        Collections.shuffle(possibleCards, _random);
-        addCards(result, possibleCards.subList(0, Math.min(possibleCards.size(), count)), false);
+        addRandomCards(result, possibleCards, count, false);
     }
 
 
@@ -8,8 +8,7 @@ import java.util.*;
 /**
  * Defines a Watto's Cube fixed pack.
  */
-public class WattosCubeFixedPack extends BasePackagedCardProduct {
-    private Random _random = new Random();
+public class WattosCubeFixedPack extends FixedContentsPackagedCardProduct {
     private String _side;
 
     /**
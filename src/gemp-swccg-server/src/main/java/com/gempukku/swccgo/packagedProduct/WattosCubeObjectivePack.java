@@ -9,7 +9,6 @@ import java.util.*;
  * Defines a Watto's Cube objective pack.
  */
 public class WattosCubeObjectivePack extends BasePackagedCardProduct {
-    private Random _random = new Random();
     private String _side;
 
     /**
@@ -1,8 +1,8 @@
 package com.gempukku.swccgo.tournament;
 
 import com.gempukku.swccgo.collection.CollectionsManager;
+import com.gempukku.swccgo.competitive.IncrementalStandings;
 import com.gempukku.swccgo.competitive.PlayerStanding;
-import com.gempukku.swccgo.competitive.StandingsProducer;
 import com.gempukku.swccgo.db.vo.CollectionType;
 import com.gempukku.swccgo.draft.DefaultDraft;
 import com.gempukku.swccgo.draft.Draft;
@@ -46,7 +46,7 @@ public class DefaultTournament implements Tournament {
     private long _deckBuildStartTime;
     private Draft _draft;
 
-    private List<PlayerStanding> _currentStandings;
+    private IncrementalStandings _standings;
 
     public DefaultTournament(CollectionsManager collectionsManager, TournamentService tournamentService,
                              PackagedProductStorage packagedProductStorage, DraftPack draftPack, String tournamentId, String tournamentName, String format, CollectionType collectionType,
@@ -91,6 +91,8 @@ public class DefaultTournament implements Tournament {
         } else if (_tournamentStage == Stage.FINISHED) {
             _finishedTournamentMatches.addAll(_tournamentService.getMatches(_tournamentId));
         }
+
+        _standings = new IncrementalStandings(_players, _finishedTournamentMatches, 1, 0, _playerByes);
     }
 
     public void setWaitForPairingsTime(long waitForPairingsTime) {
@@ -158,11 +160,11 @@ public class DefaultTournament implements Tournament {
                 _currentlyPlayingPlayers.remove(loser);
                 _finishedTournamentMatches.add(
                         new TournamentMatch(winner, loser, winner, _tournamentRound));
+                _standings.addMatchResult(winner, loser);
                 if (_pairingMechanism.shouldDropLoser()) {
                     _tournamentService.dropPlayer(_tournamentId, loser);
                     _droppedPlayers.add(loser);
                 }
-                _currentStandings = null;
             }
         } finally {
             _lock.writeLock().unlock();
@@ -279,17 +281,7 @@ public class DefaultTournament implements Tournament {
 
     @Override
     public List<PlayerStanding> getCurrentStandings() {
-        List<PlayerStanding> result = _currentStandings;
-        if (result != null)
-            return result;
-
-        _lock.readLock().lock();
-        try {
-            _currentStandings = StandingsProducer.produceStandings(_players, _finishedTournamentMatches, 1, 0, _playerByes);
-            return _currentStandings;
-        } finally {
-            _lock.readLock().unlock();
-        }
+        return _standings.getStandings();
     }
 
     private void finishTournament(TournamentCallback tournamentCallback, CollectionsManager collectionsManager) {
@@ -361,6 +353,7 @@ public class DefaultTournament implements Tournament {
         if (byes == null)
             byes = 0;
         _playerByes.put(player, byes + 1);
+        _standings.setByes(player, byes + 1);
     }
 
     private class PairPlayers implements TournamentTask {
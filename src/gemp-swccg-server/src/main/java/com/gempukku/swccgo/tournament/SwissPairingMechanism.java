@@ -1,14 +1,39 @@
 package com.gempukku.swccgo.tournament;
 
 import com.gempukku.swccgo.competitive.PlayerStanding;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.*;
 
 public class SwissPairingMechanism implements PairingMechanism {
+    private static final Logger LOG = LogManager.getLogger(SwissPairingMechanism.class);
+    // Guards against a pathological search stalling the tournament, a round that can't be paired within this many
+    // steps (for one bye candidate) is paired greedily instead
+    private static final int MAX_SEARCH_STEPS = 1000000;
+
     private String _registryRepresentation;
+    private Random _random;
+    private int _maxSearchSteps;
 
     public SwissPairingMechanism(String registryRepresentation) {
+        this(registryRepresentation, new Random());
+    }
+
+    /**
+     * Creates a Swiss pairing mechanism that shuffles players within brackets using the specified random, so that
+     * pairings can be reproduced.
+     * @param registryRepresentation the registry representation
+     * @param random the random
+     */
+    public SwissPairingMechanism(String registryRepresentation, Random random) {
+        this(registryRepresentation, random, MAX_SEARCH_STEPS);
+    }
+
+    SwissPairingMechanism(String registryRepresentation, Random random, int maxSearchSteps) {
         _registryRepresentation = registryRepresentation;
+        _random = random;
+        _maxSearchSteps = maxSearchSteps;
     }
 
     @Override
@@ -40,95 +65,232 @@ public class SwissPairingMechanism implements PairingMechanism {
 
         shufflePlayersWithinBrackets(playersGroupedByBracket);
 
+        List<String> rankedPlayers = new ArrayList<String>();
+        for (List<String> playersInBracket : playersGroupedByBracket)
+            rankedPlayers.addAll(playersInBracket);
+
         Set<String> playersWithByes = getPlayersWithByes(playerByes);
 
-        boolean success = tryPairBracketAndFurther(0, new HashSet<String>(), new HashSet<String>(), playersGroupedByBracket, playersWithByes, previouslyPaired, pairingResults, byeResults);
-        // Managed to pair with this carry over count - proceed with the pairings
-        if (success)
+        BracketPairing bracketPairing = new BracketPairing(rankedPlayers, previouslyPaired, _maxSearchSteps);
+        boolean searchLimitReached = false;
+        int fallbackByeIndex = -1;
+        if (rankedPlayers.size() % 2 == 0) {
+            if (bracketPairing.pair(-1)) {
+                bracketPairing.getPairings(pairingResults);
+                return false;
+            }
+            searchLimitReached = bracketPairing.isSearchLimitReached();
+        } else {
+            // Only one bye is given, to the lowest ranked player that did not have one yet and still allows everyone
+            // else to be paired
+            for (int byeIndex = rankedPlayers.size() - 1; byeIndex >= 0; byeIndex--) {
+                String byePlayer = rankedPlayers.get(byeIndex);
+                if (!playersWithByes.contains(byePlayer)) {
+                    if (fallbackByeIndex == -1)
+                        fallbackByeIndex = byeIndex;
+                    if (bracketPairing.pair(byeIndex)) {
+                        bracketPairing.getPairings(pairingResults);
+                        byeResults.add(byePlayer);
+                        return false;
+                    }
+                    searchLimitReached |= bracketPairing.isSearchLimitReached();
+                }
+            }
+        }
+
+        if (searchLimitReached) {
+            // A pairing without rematches may still exist, so rather than ending the tournament, pair the round
+            // anyway allowing rematches
+            LOG.warn("Swiss pairing of round " + round + " with " + rankedPlayers.size() + " players gave up after "
+                    + _maxSearchSteps + " search steps, pairing greedily and allowing rematches");
+            if (rankedPlayers.size() % 2 != 0 && fallbackByeIndex == -1)
+                fallbackByeIndex = rankedPlayers.size() - 1;
+            bracketPairing.pairGreedily(fallbackByeIndex);
+            bracketPairing.getPairings(pairingResults);
+            if (fallbackByeIndex >= 0)
+                byeResults.add(rankedPlayers.get(fallbackByeIndex));
             return false;
+        }
 
         // We can't pair, just finish the tournament
         return true;
     }
 
-    private boolean tryPairBracketAndFurther(int bracketIndex, Set<String> carryOverPlayers, Set<String> carryOverFromThisBracket, List<List<String>> playersGroupedByBracket, Set<String> playersWithByes,
-                                             Map<String, Set<String>> previouslyPaired, Map<String, String> pairingsResult, Set<String> byes) {
-        List<String> playersInBracket = playersGroupedByBracket.get(bracketIndex);
-
-        // First try to pair carried over players
-        while (carryOverPlayers.size() > 0) {
-            String firstCarryOver = carryOverPlayers.iterator().next();
-            carryOverPlayers.remove(firstCarryOver);
-
-            for (int index = 0; index < playersInBracket.size(); index++) {
-                String player = playersInBracket.remove(index);
-                if (!previouslyPaired.get(firstCarryOver).contains(player)) {
-                    // This might be a good pairing
-                    pairingsResult.put(firstCarryOver, player);
-                    // Lets give it a try
-                    boolean success = tryPairBracketAndFurther(bracketIndex, carryOverPlayers, carryOverFromThisBracket, playersGroupedByBracket, playersWithByes, previouslyPaired, pairingsResult, byes);
-                    if (success)
-                        return true;
-                    // Naah, it didn't work out
-                    pairingsResult.remove(firstCarryOver);
+    /**
+     * Pairs players ranked by point bracket without rematches, using backtracking with pruning.
+     *
+     * The highest ranked unpaired player is always paired next, with the closest ranked player they have not played
+     * yet, so players are paired within their bracket when possible and otherwise float down to the next one. A
+     * partial pairing is abandoned as soon as any unpaired player has no possible opponent left, which makes the
+     * search close to linear for the usual Swiss case where each player has only played a few of the others.
+     */
+    private static class BracketPairing {
+        private final int _maxSearchSteps;
+        private final List<String> _rankedPlayers;
+        private final int _playerCount;
+        private final BitSet[] _allowedOpponents;
+        private final int[] _opponent;
+        private final int[] _opponentsLeft;
+        private int _searchSteps;
+        private boolean _searchLimitReached;
+
+        private BracketPairing(List<String> rankedPlayers, Map<String, Set<String>> previouslyPaired, int maxSearchSteps) {
+            _maxSearchSteps = maxSearchSteps;
+            _rankedPlayers = rankedPlayers;
+            _playerCount = rankedPlayers.size();
+            _allowedOpponents = new BitSet[_playerCount];
+            _opponent = new int[_playerCount];
+            _opponentsLeft = new int[_playerCount];
+
+            Map<String, Integer> playerIndexes = new HashMap<String, Integer>();
+            for (int i = 0; i < _playerCount; i++)
+                playerIndexes.put(rankedPlayers.get(i), i);
+
+            for (int i = 0; i < _playerCount; i++) {
+                _allowedOpponents[i] = new BitSet(_playerCount);
+                _allowedOpponents[i].set(0, _playerCount);
+                _allowedOpponents[i].clear(i);
+            }
+            for (int i = 0; i < _playerCount; i++) {
+                Set<String> playedAgainst = previouslyPaired.get(rankedPlayers.get(i));
+                if (playedAgainst != null) {
+                    for (String opponent : playedAgainst) {
+                        Integer opponentIndex = playerIndexes.get(opponent);
+                        if (opponentIndex != null) {
+                            _allowedOpponents[i].clear(opponentIndex);
+                            _allowedOpponents[opponentIndex].clear(i);
+                        }
+                    }
                 }
-                playersInBracket.add(index, player);
             }
+        }
 
-            carryOverFromThisBracket.add(firstCarryOver);
-        }
-
-        if (playersInBracket.size() > 1) {
-            // Pair whatever we manage within a bracket
-            for (int index = 0; index < playersInBracket.size() - 1; index++) {
-                String firstPlayer = playersInBracket.remove(index);
-                for (int index2 = index; index2 < playersInBracket.size(); index2++) {
-                    String secondPlayer = playersInBracket.remove(index2);
-                    if (!previouslyPaired.get(firstPlayer).contains(secondPlayer)) {
-                        // This pairing might work
-                        pairingsResult.put(firstPlayer, secondPlayer);
-                        // Lets give it a try
-                        boolean success = tryPairBracketAndFurther(bracketIndex, Collections.<String>emptySet(), carryOverFromThisBracket, playersGroupedByBracket, playersWithByes, previouslyPaired, pairingsResult, byes);
-                        if (success)
-                            return true;
-                        // Naah, it didn't work out
-                        pairingsResult.remove(firstPlayer);
-                    }
-                    playersInBracket.add(index2, secondPlayer);
+        /**
+         * Tries to pair all players, except the one getting a bye.
+         * @param byeIndex the index of the player getting a bye, or -1 if no bye is given
+         * @return true if all players were paired, false if they can't be or the search limit was reached
+         */
+        private boolean pair(int byeIndex) {
+            _searchSteps = 0;
+            _searchLimitReached = false;
+            Arrays.fill(_opponent, -1);
+            for (int i = 0; i < _playerCount; i++)
+                _opponentsLeft[i] = _allowedOpponents[i].cardinality();
+
+            if (byeIndex >= 0 && !pairUp(byeIndex, byeIndex))
+                return false;
+            for (int i = 0; i < _playerCount; i++) {
+                if (_opponent[i] == -1 && _opponentsLeft[i] == 0)
+                    return false;
+            }
+            return pairFrom(0);
+        }
+
+        private boolean pairFrom(int firstUnpaired) {
+            while (firstUnpaired < _playerCount && _opponent[firstUnpaired] != -1)
+                firstUnpaired++;
+            if (firstUnpaired == _playerCount)
+                return true;
+
+            BitSet candidates = _allowedOpponents[firstUnpaired];
+            for (int candidate = candidates.nextSetBit(firstUnpaired + 1); candidate >= 0; candidate = candidates.nextSetBit(candidate + 1)) {
+                if (_opponent[candidate] != -1)
+                    continue;
+                if (++_searchSteps > _maxSearchSteps) {
+                    _searchLimitReached = true;
+                    return false;
                 }
-                playersInBracket.add(index, firstPlayer);
+
+                if (pairUp(firstUnpaired, candidate) && pairFrom(firstUnpaired + 1))
+                    return true;
+                unpair(firstUnpaired, candidate);
             }
+            return false;
         }
 
-        // We have to go to next bracket
-        if (bracketIndex+1 < playersGroupedByBracket.size()) {
-            // Remaining players can't be paired within this bracket
-            Set<String> carryOverForNextBracket = new HashSet<String>(carryOverFromThisBracket);
-            carryOverForNextBracket.addAll(playersInBracket);
+        /**
+         * Determines if the last call to pair gave up because it reached the search limit, rather than because the
+         * players can't be paired.
+         * @return true or false
+         */
+        private boolean isSearchLimitReached() {
+            return _searchLimitReached;
+        }
 
-            return tryPairBracketAndFurther(bracketIndex+1, carryOverForNextBracket, new HashSet<String>(), playersGroupedByBracket, playersWithByes, previouslyPaired, pairingsResult, byes);
-        } else {
-            // There is no more brackets left, whatever is left, has to get a bye
-            Set<String> leftoverPlayers = new HashSet<String>(carryOverFromThisBracket);
-            leftoverPlayers.addAll(playersInBracket);
-
-            // We only accept one bye
-            int playersLeftWithoutPair = leftoverPlayers.size();
-            switch(playersLeftWithoutPair) {
-                case 0:
-                        return true;
-                case 1: {
-                    String lastPlayer = leftoverPlayers.iterator().next();
-                    if (playersWithByes.contains(lastPlayer)) {
-                        // The last remaining player already has a bye
-                        return false;
-                    } else {
-                        byes.add(lastPlayer);
-                        return true;
-                    }
+        /**
+         * Pairs each unpaired player, highest ranked first, with the closest ranked player they have not played yet,
+         * or with the closest ranked unpaired player if they have played all of them.
+         * @param byeIndex the index of the player getting a bye, or -1 if no bye is given
+         */
+        private void pairGreedily(int byeIndex) {
+            Arrays.fill(_opponent, -1);
+            if (byeIndex >= 0)
+                _opponent[byeIndex] = byeIndex;
+            for (int player = 0; player < _playerCount; player++) {
+                if (_opponent[player] != -1)
+                    continue;
+                int rematch = -1;
+                int opponent = -1;
+                for (int candidate = player + 1; candidate < _playerCount && opponent == -1; candidate++) {
+                    if (_opponent[candidate] != -1)
+                        continue;
+                    if (_allowedOpponents[player].get(candidate))
+                        opponent = candidate;
+                    else if (rematch == -1)
+                        rematch = candidate;
                 }
-                default:
-                    return false;
+                if (opponent == -1)
+                    opponent = rematch;
+                if (opponent != -1) {
+                    _opponent[player] = opponent;
+                    _opponent[opponent] = player;
+                }
+            }
+        }
+
+        /**
+         * Pairs the two players (or gives the bye, if it's the same player) and updates the number of possible
+         * opponents of everyone still unpaired.
+         * @return false if that left an unpaired player without any possible opponent
+         */
+        private boolean pairUp(int player, int opponent) {
+            _opponent[player] = opponent;
+            _opponent[opponent] = player;
+            boolean viable = removeFromPool(player);
+            if (opponent != player)
+                viable = removeFromPool(opponent) && viable;
+            return viable;
+        }
+
+        private void unpair(int player, int opponent) {
+            addToPool(player);
+            if (opponent != player)
+                addToPool(opponent);
+            _opponent[player] = -1;
+            _opponent[opponent] = -1;
+        }
+
+        private boolean removeFromPool(int player) {
+            boolean viable = true;
+            BitSet allowed = _allowedOpponents[player];
+            for (int other = allowed.nextSetBit(0); other >= 0; other = allowed.nextSetBit(other + 1)) {
+                if (--_opponentsLeft[other] == 0 && _opponent[other] == -1)
+                    viable = false;
+            }
+            return viable;
+        }
+
+        private void addToPool(int player) {
+            BitSet allowed = _allowedOpponents[player];
+            for (int other = allowed.nextSetBit(0); other >= 0; other = allowed.nextSetBit(other + 1))
+                _opponentsLeft[other]++;
+        }
+
+        private void getPairings(Map<String, String> pairingResults) {
+            for (int i = 0; i < _playerCount; i++) {
+                int opponent = _opponent[i];
+                if (opponent > i)
+                    pairingResults.put(_rankedPlayers.get(i), _rankedPlayers.get(opponent));
             }
         }
     }
@@ -144,7 +306,7 @@ public class SwissPairingMechanism implements PairingMechanism {
 
     private void shufflePlayersWithinBrackets(List<List<String>> playersGroupedByPoints) {
         for (List<String> playersByPoint : playersGroupedByPoints)
-            Collections.shuffle(playersByPoint);
+            Collections.shuffle(playersByPoint, _random);
     }
 
     private List<List<String>> groupPlayersByPointBracket(Set<String> droppedPlayers, List<PlayerStanding> currentStandings, int maxNumberOfPoints) {
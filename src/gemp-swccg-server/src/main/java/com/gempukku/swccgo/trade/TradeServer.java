@@ -2,99 +2,116 @@ package com.gempukku.swccgo.trade;
 
 import com.gempukku.swccgo.AbstractServer;
 import com.gempukku.swccgo.chat.ChatServer;
+import com.gempukku.swccgo.collection.CollectionsManager;
+import com.gempukku.swccgo.db.vo.CollectionType;
 import com.gempukku.swccgo.game.Player;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.*;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the trade requests and the ongoing trades. A trade goes from a request, to an ongoing trade once the request
+ * is accepted, to finished once both players confirmed it, when the items are exchanged between the collections of the
+ * players. Each step claims the request or the players in the concurrent maps, so there is no lock shared by all the
+ * trades, and the requests and trades are expired by their deadlines, instead of checking all of them on each cleanup.
+ */
 public class TradeServer extends AbstractServer {
-    private Map<String, TradeRequest> _tradeRequestsFrom = new LinkedHashMap<String, TradeRequest>();
-    private Map<String, List<TradeRequest>> _tradeRequestsTo = new HashMap<String, List<TradeRequest>>();
+    private static final Logger LOG = LogManager.getLogger(TradeServer.class);
+
+    private final Map<String, TradeRequest> _tradeRequestsFrom = new ConcurrentHashMap<String, TradeRequest>();
+    private final Map<String, List<TradeRequest>> _tradeRequestsTo = new ConcurrentHashMap<String, List<TradeRequest>>();
 
-    private Set<TradeState> _ongoingTrades = new HashSet<TradeState>();
-    private Map<String, TradeState> _playerOngoingTrade = new HashMap<String, TradeState>();
+    private final Map<String, TradeState> _playerOngoingTrade = new ConcurrentHashMap<String, TradeState>();
 
-    private ReadWriteLock _tradeLock = new ReentrantReadWriteLock();
+    private final DelayQueue<Deadline> _deadlines = new DelayQueue<Deadline>();
 
     private static final long TRADE_REQUEST_TIMEOUT_MS = 1000 * 60 * 5; // 5 minutes
     private static final long TRADE_TIMEOUT_MS = 1000 * 30; // 30 seconds
 
     private ChatServer _chatServer;
+    private CollectionsManager _collectionsManager;
 
-    public TradeServer(ChatServer chatServer) {
+    public TradeServer(ChatServer chatServer, CollectionsManager collectionsManager) {
         _chatServer = chatServer;
+        _collectionsManager = collectionsManager;
     }
 
     public void sendTradeRequest(Player playerFrom, String playerNameTo) {
-        _tradeLock.writeLock().lock();
-        try {
-            if (noOngoingActivity(playerFrom)) {
-                createTradeRequest(playerFrom, playerNameTo);
+        if (_playerOngoingTrade.containsKey(playerFrom.getName()))
+            return;
 
-            }
-        } finally {
-            _tradeLock.writeLock().unlock();
+        final TradeRequest newTradeRequest = new TradeRequest(playerFrom.getName(), playerNameTo);
+        if (_tradeRequestsFrom.putIfAbsent(playerFrom.getName(), newTradeRequest) == null) {
+            addIncomingTradeRequest(newTradeRequest);
+            // The request may have been cancelled before it was added to the incoming requests
+            if (_tradeRequestsFrom.get(playerFrom.getName()) != newTradeRequest)
+                removeIncomingTradeRequest(newTradeRequest);
+            else
+                _deadlines.add(new Deadline(newTradeRequest.getCreatedDate() + TRADE_REQUEST_TIMEOUT_MS, newTradeRequest, null));
         }
     }
 
     public void cancelTradeRequest(Player playerFrom) {
-        _tradeLock.writeLock().lock();
-        try {
-            final TradeRequest tradeRequest = _tradeRequestsFrom.get(playerFrom.getName());
-            if (tradeRequest != null) {
-                destroyTradeRequest(tradeRequest);
-            }
-        } finally {
-            _tradeLock.writeLock().unlock();
+        final TradeRequest tradeRequest = _tradeRequestsFrom.get(playerFrom.getName());
+        if (tradeRequest != null) {
+            destroyTradeRequest(tradeRequest);
         }
     }
 
     public void acceptTradeRequest(Player player, String requestFrom) {
-        _tradeLock.writeLock().lock();
-        try {
-            if (noOngoingActivity(player)) {
-                final TradeRequest tradeRequest = _tradeRequestsFrom.get(requestFrom);
-                if (tradeRequest != null
-                        && tradeRequest.getTo().equals(player.getName())) {
-                    destroyTradeRequest(tradeRequest);
-
-                    createNewOngoingTrade(tradeRequest.getFrom(), tradeRequest.getTo());
-                }
+        if (noOngoingActivity(player)) {
+            final TradeRequest tradeRequest = _tradeRequestsFrom.get(requestFrom);
+            if (tradeRequest != null
+                    && tradeRequest.getTo().equals(player.getName())
+                    && destroyTradeRequest(tradeRequest)) {
+                createNewOngoingTrade(tradeRequest.getFrom(), tradeRequest.getTo());
             }
-        } finally {
-            _tradeLock.writeLock().unlock();
         }
     }
 
     public TradeState getOngoingTrade(Player player) {
-        _tradeLock.readLock().lock();
-        try {
-            return _playerOngoingTrade.get(player.getName());
-        } finally {
-            _tradeLock.readLock().unlock();
+        return _playerOngoingTrade.get(player.getName());
+    }
+
+    /**
+     * Confirms the current state of the ongoing trade of the player. Once both players confirmed the same state, the
+     * items are exchanged between the collections of the players and the trade is finished.
+     * @param player the player
+     * @param tradeState the state of the trade confirmed
+     */
+    public void confirmTrade(Player player, int tradeState) {
+        final TradeState ongoingTrade = _playerOngoingTrade.get(player.getName());
+        if (ongoingTrade == null)
+            return;
+
+        final TradeResult tradeResult = ongoingTrade.playerConfirmed(player.getName(), tradeState);
+        if (tradeResult != null) {
+            if (!_collectionsManager.tradeItemsBetweenPlayers(tradeResult.getInitiatingPlayer(), tradeResult.getInitiatingPlayerItems(),
+                    tradeResult.getJoiningPlayer(), tradeResult.getJoiningPlayerItems(), CollectionType.MY_CARDS))
+                LOG.info("Trade between " + tradeResult.getInitiatingPlayer() + " and " + tradeResult.getJoiningPlayer() + " failed, the items are no longer in the collections");
+            destroyOngoingTrade(ongoingTrade);
         }
     }
 
     public void processTradeVisitor(Player player, TradesVisitor tradesVisitor) {
-        _tradeLock.readLock().lock();
-        try {
-            final TradeRequest tradeRequest = _tradeRequestsFrom.get(player.getName());
-            if (tradeRequest != null)
-                tradesVisitor.processPendingTradeRequestSent(tradeRequest.getTo());
-
-            final List<TradeRequest> incomingTradeRequests = _tradeRequestsTo.get(player.getName());
-            if (incomingTradeRequests != null) {
-                for (TradeRequest incomingTradeRequest : incomingTradeRequests)
-                    tradesVisitor.processPendingTradeRequestIncoming(incomingTradeRequest.getFrom());
-            }
-
-            final TradeState ongoingTrade = _playerOngoingTrade.get(player.getName());
-            if (ongoingTrade != null)
-                tradesVisitor.processOngoingTrade(ongoingTrade, getChatRoomName(ongoingTrade.getInitiatingPlayer(), ongoingTrade.getJoiningPlayer()));
-        } finally {
-            _tradeLock.readLock().unlock();
+        final TradeRequest tradeRequest = _tradeRequestsFrom.get(player.getName());
+        if (tradeRequest != null)
+            tradesVisitor.processPendingTradeRequestSent(tradeRequest.getTo());
+
+        final List<TradeRequest> incomingTradeRequests = _tradeRequestsTo.get(player.getName());
+        if (incomingTradeRequests != null) {
+            for (TradeRequest incomingTradeRequest : incomingTradeRequests)
+                tradesVisitor.processPendingTradeRequestIncoming(incomingTradeRequest.getFrom());
         }
+
+        final TradeState ongoingTrade = _playerOngoingTrade.get(player.getName());
+        if (ongoingTrade != null)
+            tradesVisitor.processOngoingTrade(ongoingTrade, getChatRoomName(ongoingTrade.getInitiatingPlayer(), ongoingTrade.getJoiningPlayer()));
     }
 
     private boolean noOngoingActivity(Player player) {
@@ -102,45 +119,57 @@ public class TradeServer extends AbstractServer {
                 && !_playerOngoingTrade.containsKey(player.getName()));
     }
 
-    private void createTradeRequest(Player playerFrom, String playerNameTo) {
-        // Create new trade request
-        final TradeRequest newTradeRequest = new TradeRequest(playerFrom.getName(), playerNameTo);
-        // Add it to outgoing
-        _tradeRequestsFrom.put(playerFrom.getName(), newTradeRequest);
-        // Add it to incoming
-        List<TradeRequest> incomingTradeRequests = _tradeRequestsTo.get(playerNameTo);
-        if (incomingTradeRequests == null) {
-            incomingTradeRequests = new LinkedList<TradeRequest>();
-            _tradeRequestsTo.put(playerNameTo, incomingTradeRequests);
-        }
-        incomingTradeRequests.add(newTradeRequest);
+    private void addIncomingTradeRequest(TradeRequest tradeRequest) {
+        // The lists are replaced, not changed, so they can be read without locking
+        _tradeRequestsTo.compute(tradeRequest.getTo(),
+                (playerTo, incomingTradeRequests) -> {
+                    List<TradeRequest> result = (incomingTradeRequests != null) ? new ArrayList<TradeRequest>(incomingTradeRequests) : new ArrayList<TradeRequest>();
+                    result.add(tradeRequest);
+                    return Collections.unmodifiableList(result);
+                });
     }
 
-    private void destroyTradeRequest(TradeRequest tradeRequest) {
-        final String tradeFrom = tradeRequest.getFrom();
-        final String tradeTo = tradeRequest.getTo();
+    private void removeIncomingTradeRequest(TradeRequest tradeRequest) {
+        _tradeRequestsTo.computeIfPresent(tradeRequest.getTo(),
+                (playerTo, incomingTradeRequests) -> {
+                    List<TradeRequest> result = new ArrayList<TradeRequest>(incomingTradeRequests);
+                    result.remove(tradeRequest);
+                    return result.isEmpty() ? null : Collections.unmodifiableList(result);
+                });
+    }
 
-        _tradeRequestsFrom.remove(tradeFrom);
-        _tradeRequestsTo.get(tradeTo).remove(tradeRequest);
-        if (_tradeRequestsTo.get(tradeTo).size() == 0)
-            _tradeRequestsTo.remove(tradeTo);
+    /**
+     * Destroys a trade request.
+     * @param tradeRequest the trade request
+     * @return true if the request was destroyed by this call, false if it was already destroyed
+     */
+    private boolean destroyTradeRequest(TradeRequest tradeRequest) {
+        if (!_tradeRequestsFrom.remove(tradeRequest.getFrom(), tradeRequest))
+            return false;
+        removeIncomingTradeRequest(tradeRequest);
+        return true;
     }
 
     private void createNewOngoingTrade(String from, String to) {
         TradeState tradeState = new TradeState(from, to);
-        _ongoingTrades.add(tradeState);
-        _playerOngoingTrade.put(from, tradeState);
-        _playerOngoingTrade.put(to, tradeState);
+        // Both players are claimed for the trade, or neither is
+        if (_playerOngoingTrade.putIfAbsent(from, tradeState) != null)
+            return;
+        if (_playerOngoingTrade.putIfAbsent(to, tradeState) != null) {
+            _playerOngoingTrade.remove(from, tradeState);
+            return;
+        }
 
         _chatServer.createChatRoom(getChatRoomName(from, to), false, 30, null, true, false);
+        _deadlines.add(new Deadline(tradeState.getLastActivity() + TRADE_TIMEOUT_MS, null, tradeState));
     }
 
     private void destroyOngoingTrade(TradeState tradeState) {
-        _ongoingTrades.remove(tradeState);
-        _playerOngoingTrade.remove(tradeState.getInitiatingPlayer());
-        _playerOngoingTrade.remove(tradeState.getJoiningPlayer());
+        boolean destroyed = _playerOngoingTrade.remove(tradeState.getInitiatingPlayer(), tradeState);
+        _playerOngoingTrade.remove(tradeState.getJoiningPlayer(), tradeState);
 
-        _chatServer.destroyChatRoom(getChatRoomName(tradeState.getInitiatingPlayer(), tradeState.getJoiningPlayer()));
+        if (destroyed)
+            _chatServer.destroyChatRoom(getChatRoomName(tradeState.getInitiatingPlayer(), tradeState.getJoiningPlayer()));
     }
 
     private String getChatRoomName(String from, String to) {
@@ -149,21 +178,44 @@ public class TradeServer extends AbstractServer {
 
     @Override
     protected void cleanup() {
-        _tradeLock.writeLock().lock();
-        try {
-            long now = System.currentTimeMillis();
-            for (TradeRequest tradeRequest : new ArrayList<TradeRequest>(_tradeRequestsFrom.values())) {
-                if (tradeRequest.getCreatedDate() < now + TRADE_REQUEST_TIMEOUT_MS)
-                    destroyTradeRequest(tradeRequest);
-            }
-
-            for (TradeState tradeState : new HashSet<TradeState>(_ongoingTrades)) {
-                if (tradeState.isTradeFinished() || tradeState.getLastActivity() < now + TRADE_TIMEOUT_MS)
+        long now = System.currentTimeMillis();
+        Deadline deadline;
+        while ((deadline = _deadlines.poll()) != null) {
+            if (deadline._tradeRequest != null) {
+                destroyTradeRequest(deadline._tradeRequest);
+            } else {
+                TradeState tradeState = deadline._tradeState;
+                if (tradeState.isTradeFinished() || tradeState.getLastActivity() + TRADE_TIMEOUT_MS <= now)
                     destroyOngoingTrade(tradeState);
+                else if (_playerOngoingTrade.get(tradeState.getInitiatingPlayer()) == tradeState)
+                    // There was activity since the deadline was set, so the trade gets a new one
+                    _deadlines.add(new Deadline(tradeState.getLastActivity() + TRADE_TIMEOUT_MS, null, tradeState));
             }
+        }
+    }
+
+    /**
+     * The time a trade request or an ongoing trade expires.
+     */
+    private static class Deadline implements Delayed {
+        private final long _time;
+        private final TradeRequest _tradeRequest;
+        private final TradeState _tradeState;
+
+        private Deadline(long time, TradeRequest tradeRequest, TradeState tradeState) {
+            _time = time;
+            _tradeRequest = tradeRequest;
+            _tradeState = tradeState;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(_time - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
 
-        } finally {
-            _tradeLock.writeLock().unlock();
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(_time, ((Deadline) o)._time);
         }
     }
 }
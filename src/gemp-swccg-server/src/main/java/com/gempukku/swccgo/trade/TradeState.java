@@ -18,9 +18,9 @@ public class TradeState {
     private int _initiatingPlayerConfirmedState = -1;
     private int _joiningPlayerConfirmedState = -1;
 
-    private boolean _tradeFinished;
+    private volatile boolean _tradeFinished;
 
-    private long _lastActivity;
+    private volatile long _lastActivity = System.currentTimeMillis();
 
     public TradeState(String initiatingPlayer, String joiningPlayer) {
         _initiatingPlayer = initiatingPlayer;
@@ -56,6 +56,7 @@ public class TradeState {
     }
 
     public synchronized void playerAgreed(String player) {
+        _lastActivity = System.currentTimeMillis();
         if (!_tradeFinished) {
             if (player.equals(_initiatingPlayer))
                 _initiatingPlayerAgreed = true;
@@ -68,6 +69,7 @@ public class TradeState {
     }
 
     public synchronized TradeResult playerConfirmed(String player, int tradeState) {
+        _lastActivity = System.currentTimeMillis();
         if (!_tradeFinished) {
             if (player.equals(_initiatingPlayer))
                 _initiatingPlayerConfirmedState = tradeState;
@@ -131,6 +133,7 @@ public class TradeState {
     }
 
     private void adjustItems(MutableCardCollection collection, String item, int diff) {
+        _lastActivity = System.currentTimeMillis();
         if (!_tradeFinished) {
             if (diff < 0)
                 collection.removeItem(item, -diff);
@@ -0,0 +1,133 @@
+package com.gempukku.swccgo.builder;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ParallelBootstrapTests {
+	private static class First {
+	}
+
+	private static class Second {
+		private final First _first;
+
+		private Second(First first) {
+			_first = first;
+		}
+	}
+
+	private static class Third {
+		private final Second _second;
+
+		private Third(Second second) {
+			_second = second;
+		}
+	}
+
+	@Test
+	public void ObjectsAreCreatedAfterTheirDependencies() {
+		Map<Type, Object> objectMap = new HashMap<>();
+		ParallelBootstrap bootstrap = new ParallelBootstrap(objectMap, new StartupTimer());
+		bootstrap.add(Third.class, objects -> new Third(objects.get(Second.class)));
+		bootstrap.add(Second.class, objects -> new Second(objects.get(First.class)));
+		bootstrap.add(First.class, objects -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException exp) {
+				throw new RuntimeException(exp);
+			}
+			return new First();
+		});
+
+		bootstrap.run();
+
+		First first = (First) objectMap.get(First.class);
+		Second second = (Second) objectMap.get(Second.class);
+		Third third = (Third) objectMap.get(Third.class);
+		assertNotNull(first);
+		assertSame(first, second._first);
+		assertSame(second, third._second);
+	}
+
+	@Test
+	public void ObjectsCreatedBeforeAreUsed() {
+		Map<Type, Object> objectMap = new HashMap<>();
+		First first = new First();
+		objectMap.put(First.class, first);
+		ParallelBootstrap bootstrap = new ParallelBootstrap(objectMap, null);
+		bootstrap.add(Second.class, objects -> new Second(objects.get(First.class)));
+
+		bootstrap.run();
+
+		assertSame(first, ((Second) objectMap.get(Second.class))._first);
+	}
+
+	@Test
+	public void ObjectCreatedBeforeCannotBeAddedAgain() {
+		Map<Type, Object> objectMap = new HashMap<>();
+		objectMap.put(First.class, new First());
+		ParallelBootstrap bootstrap = new ParallelBootstrap(objectMap, null);
+
+		assertThrows(IllegalArgumentException.class, () -> bootstrap.add(First.class, objects -> new First()));
+	}
+
+	@Test
+	public void FailureIsPropagatedToDependentsAndRun() {
+		Map<Type, Object> objectMap = new HashMap<>();
+		ParallelBootstrap bootstrap = new ParallelBootstrap(objectMap, null);
+		IllegalStateException cause = new IllegalStateException("No database");
+		bootstrap.add(First.class, objects -> {
+			throw cause;
+		});
+		bootstrap.add(Second.class, objects -> new Second(objects.get(First.class)));
+
+		RuntimeException exp = assertThrows(RuntimeException.class, bootstrap::run);
+
+		assertSame(cause, exp.getCause());
+		assertFalse(objectMap.containsKey(First.class));
+		assertFalse(objectMap.containsKey(Second.class));
+	}
+
+	@Test(timeout = 10000)
+	public void DependencyCycleFailsInsteadOfWaiting() {
+		Map<Type, Object> objectMap = new HashMap<>();
+		ParallelBootstrap bootstrap = new ParallelBootstrap(objectMap, null);
+		bootstrap.add(First.class, objects -> {
+			objects.get(Third.class);
+			return new First();
+		});
+		bootstrap.add(Second.class, objects -> new Second(objects.get(First.class)));
+		bootstrap.add(Third.class, objects -> new Third(objects.get(Second.class)));
+
+		RuntimeException exp = assertThrows(RuntimeException.class, bootstrap::run);
+
+		Throwable cause = exp.getCause();
+		while (!(cause instanceof IllegalStateException) && cause.getCause() != null)
+			cause = cause.getCause();
+		assertTrue(cause instanceof IllegalStateException);
+		assertTrue(cause.getMessage().startsWith("Dependency cycle: "));
+	}
+
+	@Test(timeout = 10000)
+	public void ObjectDependingOnItselfFails() {
+		ParallelBootstrap bootstrap = new ParallelBootstrap(new HashMap<>(), null);
+		bootstrap.add(First.class, objects -> objects.get(First.class));
+
+		RuntimeException exp = assertThrows(RuntimeException.class, bootstrap::run);
+
+		assertTrue(exp.getCause() instanceof IllegalStateException);
+		assertEquals("Dependency cycle: First -> First", exp.getCause().getMessage());
+	}
+
+	@Test
+	public void ObjectsCannotBeAddedAfterRun() {
+		ParallelBootstrap bootstrap = new ParallelBootstrap(new HashMap<>(), null);
+		bootstrap.run();
+
+		assertThrows(IllegalStateException.class, () -> bootstrap.add(First.class, objects -> new First()));
+	}
+}
@@ -0,0 +1,100 @@
+package com.gempukku.swccgo.builder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class StartupCacheTests {
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	@Test
+	public void DisabledCacheAlwaysDerives() {
+		StartupCache cache = new StartupCache();
+		AtomicInteger derivations = new AtomicInteger();
+
+		cache.getStringList("cards", () -> {
+			derivations.incrementAndGet();
+			return Arrays.asList("1_1", "1_2");
+		});
+		cache.save();
+		List<String> result = new StartupCache().getStringList("cards", () -> {
+			derivations.incrementAndGet();
+			return Arrays.asList("1_1", "1_2");
+		});
+
+		assertEquals(2, derivations.get());
+		assertEquals(Arrays.asList("1_1", "1_2"), result);
+	}
+
+	@Test
+	public void SavedEntriesAreReadInsteadOfDerived() {
+		File file = new File(_folder.getRoot(), "cache/startup.cache");
+		StartupCache cache = new StartupCache(file, StartupCacheTests.class);
+		cache.getStringList("cards", () -> Arrays.asList("1_1", "1_2"));
+		cache.getStringList("empty", () -> Arrays.asList());
+		cache.save();
+
+		StartupCache reread = new StartupCache(file, StartupCacheTests.class);
+		List<String> cards = reread.getStringList("cards", () -> {
+			throw new AssertionError("Derived again");
+		});
+		List<String> empty = reread.getStringList("empty", () -> {
+			throw new AssertionError("Derived again");
+		});
+
+		assertEquals(Arrays.asList("1_1", "1_2"), cards);
+		assertEquals(Arrays.asList(), empty);
+	}
+
+	@Test
+	public void UnchangedCacheIsNotWrittenAgain() throws Exception {
+		File file = new File(_folder.getRoot(), "startup.cache");
+		StartupCache cache = new StartupCache(file, StartupCacheTests.class);
+		cache.getStringList("cards", () -> Arrays.asList("1_1"));
+		cache.save();
+		assertTrue(file.setLastModified(1000));
+
+		StartupCache reread = new StartupCache(file, StartupCacheTests.class);
+		reread.getStringList("cards", () -> Arrays.asList("1_1"));
+		reread.save();
+
+		assertEquals(1000, file.lastModified());
+	}
+
+	@Test
+	public void CorruptFileIsIgnored() throws Exception {
+		File file = _folder.newFile("startup.cache");
+		Files.write(file.toPath(), new byte[] {0x47, 0x53, 0x53});
+		AtomicInteger derivations = new AtomicInteger();
+
+		List<String> result = new StartupCache(file, StartupCacheTests.class).getStringList("cards", () -> {
+			derivations.incrementAndGet();
+			return Arrays.asList("1_1");
+		});
+
+		assertEquals(1, derivations.get());
+		assertEquals(Arrays.asList("1_1"), result);
+	}
+
+	@Test
+	public void FileWrittenForOtherInputsIsIgnored() {
+		File file = new File(_folder.getRoot(), "startup.cache");
+		StartupCache cache = new StartupCache(file, StartupCacheTests.class);
+		cache.getStringList("cards", () -> Arrays.asList("1_1"));
+		cache.save();
+
+		// The server classes are in another folder than the test classes, so the checksum differs
+		List<String> result = new StartupCache(file, StartupCache.class).getStringList("cards", () -> Arrays.asList("2_1"));
+
+		assertEquals(Arrays.asList("2_1"), result);
+	}
+}
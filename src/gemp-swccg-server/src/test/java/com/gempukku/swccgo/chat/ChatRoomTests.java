@@ -0,0 +1,101 @@
+package com.gempukku.swccgo.chat;
+
+import com.gempukku.swccgo.game.ChatCommunicationChannel;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ChatRoomTests {
+
+	private static List<String> Texts(List<ChatMessage> messages) {
+		List<String> texts = new ArrayList<>();
+		for (ChatMessage message : messages)
+			texts.add(message.getMessage());
+		return texts;
+	}
+
+	@Test
+	public void JoiningPlayerReadsHistoryButNotEarlierJoinMessages() {
+		ChatRoom room = new ChatRoom(false);
+		ChatCommunicationChannel first = new ChatCommunicationChannel(room);
+		room.joinChatRoom("first", false, first);
+		room.postMessage("first", "hello");
+
+		ChatCommunicationChannel second = new ChatCommunicationChannel(room);
+		room.joinChatRoom("second", false, second);
+		room.postMessage("second", "hi");
+
+		assertEquals(List.of("hello", "second joined the room", "hi"), Texts(second.consumeMessages(null)));
+		assertEquals(List.of("first joined the room", "hello", "second joined the room", "hi"), Texts(first.consumeMessages(null)));
+		assertTrue(first.consumeMessages(null).isEmpty());
+		assertFalse(first.hasMessages());
+	}
+
+	@Test
+	public void UnacknowledgedMessagesAreReadAgain() {
+		ChatRoom room = new ChatRoom(true);
+		ChatCommunicationChannel channel = new ChatCommunicationChannel(room);
+		room.joinChatRoom("player", false, channel);
+		room.postMessage("player", "one");
+		room.postMessage("player", "two");
+
+		List<ChatMessage> messages = channel.consumeMessages(0);
+		assertEquals(List.of("one", "two"), Texts(messages));
+		assertEquals(List.of("two"), Texts(channel.consumeMessages(messages.get(0).getMsgId())));
+		assertTrue(channel.consumeMessages(messages.get(1).getMsgId()).isEmpty());
+	}
+
+	@Test
+	public void HistoryKeepsOnlyTheLastMessages() {
+		ChatRoom room = new ChatRoom(true);
+		for (int i = 0; i < 3000; i++)
+			room.postMessage("player", "message" + i);
+
+		ChatCommunicationChannel channel = new ChatCommunicationChannel(room);
+		List<ChatMessage> messages = channel.consumeMessages(null);
+		assertEquals(100, messages.size());
+		assertEquals("message2900", messages.get(0).getMessage());
+		assertEquals("message2999", messages.get(99).getMessage());
+	}
+
+	@Test
+	public void ConcurrentPostsAreAllReadInOrder() throws InterruptedException {
+		ChatRoom room = new ChatRoom(true);
+		ChatCommunicationChannel channel = new ChatCommunicationChannel(room);
+		room.joinChatRoom("reader", false, channel);
+
+		int posters = 4;
+		int messagesPerPoster = 200;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < posters; i++) {
+			String poster = "poster" + i;
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException exp) {
+					return;
+				}
+				for (int j = 0; j < messagesPerPoster; j++)
+					room.postMessage(poster, String.valueOf(j));
+			});
+			thread.start();
+			threads.add(thread);
+		}
+
+		start.countDown();
+		List<ChatMessage> read = new ArrayList<>();
+		while (read.size() < posters * messagesPerPoster)
+			read.addAll(channel.consumeMessages(null));
+		for (Thread thread : threads)
+			thread.join();
+
+		for (int i = 0; i < read.size(); i++)
+			assertEquals(i + 1, read.get(i).getMsgId());
+		assertFalse(channel.hasMessages());
+	}
+}
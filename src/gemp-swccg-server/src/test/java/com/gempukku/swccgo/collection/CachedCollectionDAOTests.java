@@ -0,0 +1,69 @@
+package com.gempukku.swccgo.collection;
+
+import com.gempukku.swccgo.db.CollectionDAO;
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.DefaultCardCollection;
+import com.gempukku.swccgo.game.MutableCardCollection;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CachedCollectionDAOTests {
+	private static final CollectionSerializer _serializer = new CollectionSerializer();
+
+	private static byte[] StoredCollection() throws IOException {
+		MutableCardCollection collection = new DefaultCardCollection();
+		collection.addCurrency(100);
+		collection.addItem("1_1", 2);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		_serializer.serializeCollection(collection, baos);
+		return baos.toByteArray();
+	}
+
+	@Test
+	public void ChangesAreWrittenAgainstTheStoredCollectionTheyWereComputedFrom() throws SQLException, IOException {
+		byte[] stored = StoredCollection();
+		CollectionDAO delegate = mock(CollectionDAO.class);
+		CardCollection oldCollection = _serializer.readCollection(stored);
+		when(delegate.getPlayerCollection(1, "default")).thenReturn(oldCollection);
+		when(delegate.updatePlayerCollection(eq(1), eq("default"), any(), anyInt(), any())).thenReturn(stored.length + 5);
+		CachedCollectionDAO cachedDao = new CachedCollectionDAO(delegate);
+		MutableCardCollection collection = new DefaultCardCollection(oldCollection);
+		collection.addItem("1_2", 1);
+		MutableCardCollection nextCollection = new DefaultCardCollection(collection);
+		nextCollection.addItem("1_3", 1);
+
+		cachedDao.getPlayerCollection(1, "default");
+		cachedDao.setPlayerCollection(1, "default", collection);
+		cachedDao.setPlayerCollection(1, "default", nextCollection);
+
+		verify(delegate).updatePlayerCollection(1, "default", oldCollection, stored.length, collection);
+		verify(delegate).updatePlayerCollection(1, "default", collection, stored.length + 5, nextCollection);
+	}
+
+	@Test
+	public void CollectionIsReadAgainAfterAFailedWrite() throws SQLException, IOException {
+		CollectionDAO delegate = mock(CollectionDAO.class);
+		when(delegate.getPlayerCollection(1, "default")).thenReturn(_serializer.readCollection(StoredCollection()));
+		when(delegate.updatePlayerCollection(eq(1), eq("default"), any(), anyInt(), any())).thenThrow(new SQLException("Connection lost"));
+		CachedCollectionDAO cachedDao = new CachedCollectionDAO(delegate);
+		MutableCardCollection collection = new DefaultCardCollection(cachedDao.getPlayerCollection(1, "default"));
+		collection.addItem("1_2", 1);
+
+		try {
+			cachedDao.setPlayerCollection(1, "default", collection);
+			fail("The write did not fail");
+		} catch (SQLException exp) {
+			// expected
+		}
+		cachedDao.getPlayerCollection(1, "default");
+
+		verify(delegate, times(2)).getPlayerCollection(1, "default");
+	}
+}
@@ -0,0 +1,159 @@
+package com.gempukku.swccgo.collection;
+
+import com.gempukku.swccgo.db.PlayerDAO;
+import com.gempukku.swccgo.db.vo.CollectionType;
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.Player;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CollectionGrantServiceTests {
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	private final CollectionType _collectionType = new CollectionType("permanent", "My cards");
+	private final List<CardCollection.Item> _items = List.of(CardCollection.Item.createItem("1_1", 2));
+	private CollectionsManager _collectionsManager;
+	private PlayerDAO _playerDao;
+	private final List<String> _grantedPlayers = new ArrayList<String>();
+
+	@Before
+	public void setUp() {
+		List<Player> players = new ArrayList<Player>();
+		for (int id = 1; id <= 5; id++)
+			players.add(new Player(id, "player" + id, "", "u", null, null, null, null));
+		_playerDao = mock(PlayerDAO.class);
+		when(_playerDao.findPlayersWithFlag(Player.Type.UNBANNED)).thenReturn(players);
+
+		_collectionsManager = mock(CollectionsManager.class);
+		when(_collectionsManager.storeItemsInPlayerCollections(any(), eq(_collectionType), any())).thenAnswer(invocation -> {
+			List<String> names = new ArrayList<String>();
+			for (Player player : invocation.<Collection<Player>>getArgument(0))
+				names.add(player.getName());
+			synchronized (_grantedPlayers) {
+				_grantedPlayers.addAll(names);
+			}
+			return names;
+		});
+	}
+
+	private static void AwaitFinished(CollectionGrantJob job) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (job.getState() != CollectionGrantJob.State.FINISHED && job.getState() != CollectionGrantJob.State.FAILED
+				&& System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+	}
+
+	@Test
+	public void GrantProcessesAllChunksAndDeletesJournal() throws InterruptedException {
+		CollectionGrantService service = new CollectionGrantService(_collectionsManager, _playerDao, _folder.getRoot(), 2, 2);
+		CollectionGrantJob job = service.startGrant("Compensation", _collectionType, _items);
+		AwaitFinished(job);
+
+		assertEquals(CollectionGrantJob.State.FINISHED, job.getState());
+		assertEquals(3, job.getChunkCount());
+		assertEquals(5, job.getPlayersProcessed());
+		assertEquals(5, job.getPlayersGranted());
+		assertEquals(5, _grantedPlayers.size());
+		verify(_collectionsManager, times(3)).storeItemsInPlayerCollections(any(), eq(_collectionType), eq(_items));
+		verify(_collectionsManager, times(3)).recordItemsAddedToPlayerCollections(eq(true), eq("Compensation"), any(), eq(_collectionType), eq(_items));
+		assertFalse(new File(_folder.getRoot(), job.getId() + ".journal").exists());
+	}
+
+	@Test
+	public void ResumedGrantSkipsDoneAndInterruptedChunks() throws Exception {
+		Files.write(new File(_folder.getRoot(), "7.journal").toPath(), List.of(
+				"{\"id\":7,\"reason\":\"Compensation\",\"collectionType\":\"permanent\",\"collectionName\":\"My cards\",\"items\":{\"1_1\":2},\"players\":[1,2,3,4,5],\"chunkSize\":2}",
+				"started 0",
+				"done 0",
+				"started 1",
+				"failed 2"), StandardCharsets.UTF_8);
+
+		CollectionGrantService service = new CollectionGrantService(_collectionsManager, _playerDao, _folder.getRoot(), 2, 2);
+		CollectionGrantJob job = service.getJobs().get(0);
+		AwaitFinished(job);
+
+		assertEquals(7, job.getId());
+		assertEquals(CollectionGrantJob.State.FINISHED, job.getState());
+		assertEquals(1, job.getUncertainChunks());
+		assertEquals(List.of("player5"), _grantedPlayers);
+		assertFalse(new File(_folder.getRoot(), "7.journal").exists());
+
+		// New jobs do not reuse the id of a resumed one
+		assertEquals(8, service.startGrant("Another", _collectionType, _items).getId());
+	}
+
+	@Test
+	public void ChunkIsDoneOnceTheCollectionsAreStored() throws Exception {
+		doThrow(new RuntimeException("Transfer write failed")).when(_collectionsManager)
+				.recordItemsAddedToPlayerCollections(anyBoolean(), anyString(), any(), any(), any());
+		CollectionGrantService service = new CollectionGrantService(_collectionsManager, _playerDao, _folder.getRoot(), 2, 2);
+		CollectionGrantJob job = service.startGrant("Compensation", _collectionType, _items);
+		AwaitFinished(job);
+
+		assertEquals(CollectionGrantJob.State.FINISHED, job.getState());
+		assertEquals(0, job.getFailedChunks());
+		assertEquals(5, job.getPlayersGranted());
+		assertFalse(new File(_folder.getRoot(), job.getId() + ".journal").exists());
+
+		// Nothing is left to be granted again when the server starts again
+		new CollectionGrantService(_collectionsManager, _playerDao, _folder.getRoot(), 2, 2);
+		assertEquals(5, _grantedPlayers.size());
+	}
+
+	@Test
+	public void ResumedGrantUsesTheChunksOfTheJournal() throws Exception {
+		Files.write(new File(_folder.getRoot(), "7.journal").toPath(), List.of(
+				"{\"id\":7,\"reason\":\"Compensation\",\"collectionType\":\"permanent\",\"collectionName\":\"My cards\",\"items\":{\"1_1\":2},\"players\":[1,2,3,4,5],\"chunkSize\":2}",
+				"started 0",
+				"done 0"), StandardCharsets.UTF_8);
+		// Player 4 was banned since
+		List<Player> players = new ArrayList<Player>(_playerDao.findPlayersWithFlag(Player.Type.UNBANNED));
+		players.removeIf(player -> player.getId() == 4);
+		when(_playerDao.findPlayersWithFlag(Player.Type.UNBANNED)).thenReturn(players);
+
+		CollectionGrantService service = new CollectionGrantService(_collectionsManager, _playerDao, _folder.getRoot(), 2, 3);
+		CollectionGrantJob job = service.getJobs().get(0);
+		AwaitFinished(job);
+
+		assertEquals(CollectionGrantJob.State.FINISHED, job.getState());
+		assertEquals(3, job.getChunkCount());
+		assertEquals(Set.of("player3", "player5"), new HashSet<String>(_grantedPlayers));
+		assertEquals(2, _grantedPlayers.size());
+	}
+
+	private void WriteJournal(int id, int playerId) throws Exception {
+		Files.write(new File(_folder.getRoot(), id + ".journal").toPath(), List.of(
+				"{\"id\":" + id + ",\"reason\":\"Compensation\",\"collectionType\":\"permanent\",\"collectionName\":\"My cards\",\"items\":{\"1_1\":2},\"players\":[" + playerId + "],\"chunkSize\":2}"),
+				StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void JournalsAreResumedInJobOrder() throws Exception {
+		WriteJournal(10, 1);
+		WriteJournal(2, 3);
+
+		// With one thread, the chunks are processed in the order the jobs are resumed
+		CollectionGrantService service = new CollectionGrantService(_collectionsManager, _playerDao, _folder.getRoot(), 1, 2);
+		for (CollectionGrantJob job : service.getJobs())
+			AwaitFinished(job);
+
+		assertEquals(List.of("player3", "player1"), _grantedPlayers);
+		assertEquals(11, service.startGrant("Another", _collectionType, _items).getId());
+	}
+}
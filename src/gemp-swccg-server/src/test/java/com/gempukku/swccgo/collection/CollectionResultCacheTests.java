@@ -0,0 +1,82 @@
+package com.gempukku.swccgo.collection;
+
+import com.gempukku.swccgo.db.CollectionDAO;
+import com.gempukku.swccgo.db.PlayerDAO;
+import com.gempukku.swccgo.db.vo.CollectionType;
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.DefaultCardCollection;
+import com.gempukku.swccgo.game.Player;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CollectionResultCacheTests {
+	private final AtomicInteger _sorts = new AtomicInteger();
+	private final Supplier<List<CardCollection.Item>> _filterAndSort = () -> {
+		_sorts.incrementAndGet();
+		return List.of(CardCollection.Item.createItem("1_1", 1), CardCollection.Item.createItem("1_2", 1));
+	};
+
+	@Test
+	public void PagesOfSameResultAreNotSortedAgain() {
+		CollectionResultCache cache = new CollectionResultCache(10, 60000);
+
+		CollectionResultCache.Result first = cache.getResult("player", null, "permanent", 0, "sort:name", _filterAndSort);
+		CollectionResultCache.Result second = cache.getResult("player", first.getCursor(), "permanent", 0, "sort:name", _filterAndSort);
+
+		assertSame(first, second);
+		assertEquals(1, _sorts.get());
+		assertEquals(2, second.getItems().size());
+	}
+
+	@Test
+	public void ChangedCollectionOrFilterIsSortedAgain() {
+		CollectionResultCache cache = new CollectionResultCache(10, 60000);
+
+		String cursor = cache.getResult("player", null, "permanent", 0, "sort:name", _filterAndSort).getCursor();
+		cursor = cache.getResult("player", cursor, "permanent", 1, "sort:name", _filterAndSort).getCursor();
+		cursor = cache.getResult("player", cursor, "permanent", 1, "sort:set", _filterAndSort).getCursor();
+		cache.getResult("player", cursor, "default", 1, "sort:set", _filterAndSort);
+		cache.getResult("player", "unknown", "default", 1, "sort:set", _filterAndSort);
+
+		assertEquals(5, _sorts.get());
+	}
+
+	@Test
+	public void StoringCollectionChangesVersion() throws Exception {
+		Player player = new Player(1, "player", "", "u", null, null, null, null);
+		CollectionDAO collectionDao = mock(CollectionDAO.class);
+		when(collectionDao.getPlayerCollection(1, "permanent")).thenReturn(new DefaultCardCollection());
+		CollectionsManager collectionsManager = new CollectionsManager(mock(PlayerDAO.class), collectionDao, mock(TransferDAO.class), List.of(), List.of());
+
+		int version = collectionsManager.getCollectionVersion(player);
+		collectionsManager.addItemsToPlayerCollection(false, "Test", player, CollectionType.MY_CARDS, List.of(CardCollection.Item.createItem("1_1", 1)));
+
+		verify(collectionDao).setPlayerCollection(eq(1), eq("permanent"), any());
+		assertNotEquals(version, collectionsManager.getCollectionVersion(player));
+	}
+
+	@Test
+	public void VersionDroppedFromTheLimitedVersionsIsNotReused() throws Exception {
+		Player player = new Player(1, "player", "", "u", null, null, null, null);
+		CollectionDAO collectionDao = mock(CollectionDAO.class);
+		when(collectionDao.getPlayerCollection(1, "permanent")).thenReturn(new DefaultCardCollection());
+		CollectionsManager collectionsManager = new CollectionsManager(mock(PlayerDAO.class), collectionDao, mock(TransferDAO.class), List.of(), List.of());
+		int version = collectionsManager.getCollectionVersion(player);
+		collectionsManager.addItemsToPlayerCollection(false, "Test", player, CollectionType.MY_CARDS, List.of(CardCollection.Item.createItem("1_1", 1)));
+		int changedVersion = collectionsManager.getCollectionVersion(player);
+
+		for (int id = 2; id <= 2000; id++)
+			collectionsManager.getCollectionVersion(new Player(id, "player" + id, "", "u", null, null, null, null));
+
+		int versionAfterDropped = collectionsManager.getCollectionVersion(player);
+		assertNotEquals(version, versionAfterDropped);
+		assertNotEquals(changedVersion, versionAfterDropped);
+	}
+}
@@ -0,0 +1,95 @@
+package com.gempukku.swccgo.collection;
+
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.DefaultCardCollection;
+import com.gempukku.swccgo.game.MutableCardCollection;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class CollectionSerializerTests {
+	private static final CollectionSerializer _serializer = new CollectionSerializer();
+
+	private static MutableCardCollection CreateCollection() {
+		MutableCardCollection collection = new DefaultCardCollection(true);
+		collection.addCurrency(12345);
+		collection.addItem("Premiere Booster Pack", 3);
+		collection.addItem("(S)Some Selection", 1);
+		collection.addItem("1_1", 2);
+		collection.addItem("1_1*", 1);
+		collection.addItem("200_37^", 4);
+		collection.addItem("7_300", 1000);
+		collection.addItem("01_5", 1);
+		return collection;
+	}
+
+	private static byte[] Serialize(CardCollection collection) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		_serializer.serializeCollection(collection, baos);
+		return baos.toByteArray();
+	}
+
+	private static void AssertSameContents(CardCollection expected, CardCollection actual) {
+		assertEquals(expected.getCurrency(), actual.getCurrency());
+		assertEquals(expected.excludePackDuplicates(), actual.excludePackDuplicates());
+		assertEquals(expected.getAll(), actual.getAll());
+	}
+
+	@Test
+	public void SnapshotReadsBackExactly() throws IOException {
+		var collection = CreateCollection();
+		byte[] bytes = Serialize(collection);
+
+		AssertSameContents(collection, _serializer.readCollection(bytes));
+		AssertSameContents(collection, _serializer.deserializeCollection(new ByteArrayInputStream(bytes)));
+		assertEquals(1000, _serializer.readCollection(bytes).getItemCount("7_300"));
+	}
+
+	@Test
+	public void AppendedChangesReadAsNewCollection() throws IOException {
+		var oldCollection = CreateCollection();
+		var newCollection = new DefaultCardCollection(oldCollection);
+		newCollection.removeCurrency(45);
+		newCollection.removeItem("Premiere Booster Pack", 1);
+		newCollection.removeItem("1_1*", 1);
+		newCollection.addItem("1_2", 1);
+		newCollection.addItem("Hoth Booster Pack", 1);
+
+		ByteArrayOutputStream stored = new ByteArrayOutputStream();
+		stored.write(Serialize(oldCollection));
+		int snapshotLength = stored.size();
+		assertTrue(_serializer.serializeCollectionChanges(oldCollection, newCollection, stored));
+
+		var read = (SerializedCardCollection) _serializer.readCollection(stored.toByteArray());
+		AssertSameContents(newCollection, read);
+		assertEquals(stored.size() - snapshotLength, read.getChangeLogLength());
+		assertTrue(read.getChangeLogLength() < stored.size() / 2);
+	}
+
+	@Test
+	public void NoChangesWritesNothing() throws IOException {
+		var collection = CreateCollection();
+		ByteArrayOutputStream changes = new ByteArrayOutputStream();
+
+		assertFalse(_serializer.serializeCollectionChanges(collection, new DefaultCardCollection(collection), changes));
+		assertEquals(0, changes.size());
+	}
+
+	@Test
+	public void OlderVersionsStillRead() throws IOException {
+		MutableCardCollection collection = new DefaultCardCollection(false);
+		collection.addCurrency(10);
+		collection.addItem("Premiere Booster Pack", 2);
+		collection.addItem("1_1", 2);
+		collection.addItem("1_1*", 1);
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		_serializer.serializeCollectionVer2(collection, baos);
+
+		AssertSameContents(collection, _serializer.readCollection(baos.toByteArray()));
+	}
+}
@@ -0,0 +1,155 @@
+package com.gempukku.swccgo.competitive;
+
+import com.gempukku.swccgo.tournament.TournamentMatch;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IncrementalStandingsTests {
+
+	private static List<String> CreatePlayers(int count) {
+		List<String> players = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+			players.add("player" + i);
+		return players;
+	}
+
+	private static TournamentMatch CreateRandomMatch(Random random, List<String> players) {
+		String one = players.get(random.nextInt(players.size()));
+		String two;
+		do {
+			two = players.get(random.nextInt(players.size()));
+		} while (two.equals(one));
+		return new TournamentMatch(one, two, random.nextBoolean() ? one : two, 1);
+	}
+
+	private static void AssertSameStandings(List<PlayerStanding> expected, List<PlayerStanding> actual) {
+		assertEquals(expected.size(), actual.size());
+
+		Map<String, PlayerStanding> actualByPlayer = new HashMap<>();
+		for (PlayerStanding standing : actual)
+			actualByPlayer.put(standing.getPlayerName(), standing);
+
+		for (PlayerStanding expectedStanding : expected) {
+			PlayerStanding actualStanding = actualByPlayer.get(expectedStanding.getPlayerName());
+			assertNotNull(expectedStanding.getPlayerName(), actualStanding);
+			assertEquals(expectedStanding.getPlayerName(), expectedStanding.getPoints(), actualStanding.getPoints());
+			assertEquals(expectedStanding.getPlayerName(), expectedStanding.getGamesPlayed(), actualStanding.getGamesPlayed());
+			assertEquals(expectedStanding.getPlayerName(), expectedStanding.getOpponentWin(), actualStanding.getOpponentWin(), 0f);
+			assertEquals(expectedStanding.getPlayerName(), expectedStanding.getStanding(), actualStanding.getStanding());
+		}
+
+		// Standings are sorted, so the standing numbers never go down
+		for (int i = 1; i < actual.size(); i++)
+			assertTrue(actual.get(i - 1).getStanding() <= actual.get(i).getStanding());
+	}
+
+	@Test
+	public void EmptyStandingsListAllParticipants() {
+		List<String> players = CreatePlayers(4);
+		var standings = new IncrementalStandings(players, Collections.<TournamentMatch>emptyList(), 3, 1, Collections.<String, Integer>emptyMap());
+
+		AssertSameStandings(StandingsProducer.produceStandings(players, Collections.<TournamentMatch>emptyList(), 3, 1, Collections.<String, Integer>emptyMap()),
+				standings.getStandings());
+		for (PlayerStanding standing : standings.getStandings())
+			assertEquals(1, standing.getStanding());
+	}
+
+	@Test
+	public void MatchAddedOneAtATimeMatchesFullRecompute() {
+		Random random = new Random(1234);
+		List<String> players = CreatePlayers(24);
+		List<TournamentMatch> matches = new ArrayList<>();
+
+		var standings = new IncrementalStandings(players, matches, 3, 1, Collections.<String, Integer>emptyMap());
+		for (int i = 0; i < 300; i++) {
+			TournamentMatch match = CreateRandomMatch(random, players);
+			matches.add(match);
+			standings.addMatchResult(match.getWinner(), match.getLoser());
+
+			AssertSameStandings(StandingsProducer.produceStandings(players, matches, 3, 1, Collections.<String, Integer>emptyMap()),
+					standings.getStandings());
+		}
+	}
+
+	@Test
+	public void LoadedFromExistingMatchesMatchesFullRecompute() {
+		Random random = new Random(5678);
+		List<String> players = CreatePlayers(50);
+		List<TournamentMatch> matches = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+			matches.add(CreateRandomMatch(random, players));
+
+		var standings = new IncrementalStandings(players, matches, 3, 1, Collections.<String, Integer>emptyMap());
+
+		AssertSameStandings(StandingsProducer.produceStandings(players, matches, 3, 1, Collections.<String, Integer>emptyMap()),
+				standings.getStandings());
+	}
+
+	@Test
+	public void ByesAndLateParticipantsMatchFullRecompute() {
+		Random random = new Random(91011);
+		List<String> players = CreatePlayers(9);
+		List<TournamentMatch> matches = new ArrayList<>();
+		Map<String, Integer> byes = new HashMap<>();
+
+		var standings = new IncrementalStandings(players, matches, 1, 0, byes);
+		for (int round = 0; round < 6; round++) {
+			for (int i = 0; i < 4; i++) {
+				TournamentMatch match = CreateRandomMatch(random, players);
+				matches.add(match);
+				standings.addMatchResult(match.getWinner(), match.getLoser());
+			}
+			String byePlayer = players.get(random.nextInt(players.size()));
+			byes.put(byePlayer, byes.getOrDefault(byePlayer, 0) + 1);
+			standings.setByes(byePlayer, byes.get(byePlayer));
+
+			AssertSameStandings(StandingsProducer.produceStandings(players, matches, 1, 0, byes),
+					standings.getStandings());
+		}
+
+		players.add("latecomer");
+		standings.addParticipant("latecomer");
+		AssertSameStandings(StandingsProducer.produceStandings(players, matches, 1, 0, byes),
+				standings.getStandings());
+	}
+
+	@Test
+	public void EachChangePublishesNewSnapshot() {
+		List<String> players = CreatePlayers(3);
+		var standings = new IncrementalStandings(players, Collections.<TournamentMatch>emptyList(), 3, 1, Collections.<String, Integer>emptyMap());
+
+		StandingsSnapshot before = standings.getSnapshot();
+		assertEquals(0, before.getVersion());
+
+		standings.addMatchResult("player0", "player1");
+		StandingsSnapshot after = standings.getSnapshot();
+
+		assertEquals(1, after.getVersion());
+		assertNotSame(before, after);
+		// The earlier snapshot is unchanged
+		for (PlayerStanding standing : before.getStandings())
+			assertEquals(0, standing.getGamesPlayed());
+		assertEquals("player0", after.getStandings().get(0).getPlayerName());
+		assertEquals(3, after.getStandings().get(0).getPoints());
+
+		// Adding a participant that is already there is not a change
+		standings.addParticipant("player2");
+		assertSame(after, standings.getSnapshot());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void SnapshotCannotBeModified() {
+		List<String> players = CreatePlayers(2);
+		var standings = new IncrementalStandings(players, Collections.<TournamentMatch>emptyList(), 3, 1, Collections.<String, Integer>emptyMap());
+
+		standings.getStandings().clear();
+	}
+}
@@ -0,0 +1,80 @@
+package com.gempukku.swccgo.db;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class CachedPlayerDAOTests {
+	private PlayerTable _table;
+	private CachedPlayerDAO _playerDao;
+
+	@Before
+	public void setUp() throws Exception {
+		_table = new PlayerTable();
+		PlayerAuthenticationMetrics metrics = new PlayerAuthenticationMetrics();
+		_playerDao = new CachedPlayerDAO(new DbPlayerDAO(_table.CreateDbAccess(), metrics), metrics);
+	}
+
+	@Test
+	public void UnknownNameIsLookedUpOnce() throws Exception {
+		assertNull(_playerDao.loginPlayer("nobody", "secret"));
+		int lookups = _table.GetNameLookups();
+
+		assertNull(_playerDao.loginPlayer("nobody", "secret"));
+		assertNull(_playerDao.getPlayer("nobody", true));
+		assertNull(_playerDao.getPlayer("nobody"));
+
+		assertEquals(lookups, _table.GetNameLookups());
+	}
+
+	@Test
+	public void PlayerRegisteredAfterFailedLoginCanLogIn() throws Exception {
+		assertNull(_playerDao.loginPlayer("newbie", "secret"));
+
+		assertTrue(_playerDao.registerPlayer("newbie", "secret", "127.0.0.1"));
+
+		assertNotNull(_playerDao.loginPlayer("newbie", "secret"));
+		assertNotNull(_playerDao.getPlayer("newbie"));
+	}
+
+	@Test
+	public void NameRegisteredDuringAFailedLookupIsNotCachedAsUnknown() throws Exception {
+		CountDownLatch lookupDone = new CountDownLatch(1);
+		CountDownLatch registrationStarted = new CountDownLatch(1);
+		AtomicBoolean first = new AtomicBoolean(true);
+		// Holds the first lookup after it found no player, until the registration started
+		_table.SetAfterNameLookup(() -> {
+			if (first.compareAndSet(true, false)) {
+				lookupDone.countDown();
+				try {
+					registrationStarted.await();
+				} catch (InterruptedException exp) {
+					Thread.currentThread().interrupt();
+				}
+				DbPlayerDAOTests.Sleep(100);
+			}
+		});
+
+		Thread lookup = new Thread(() -> _playerDao.getPlayer("newbie", true));
+		lookup.start();
+		lookupDone.await();
+		Thread registration = new Thread(() -> {
+			registrationStarted.countDown();
+			try {
+				_playerDao.registerPlayer("newbie", "secret", "127.0.0.1");
+			} catch (Exception exp) {
+				throw new RuntimeException(exp);
+			}
+		});
+		registration.start();
+		lookup.join();
+		registration.join();
+
+		assertEquals(1, _table.GetPlayerCount());
+		assertNotNull(_playerDao.loginPlayer("newbie", "secret"));
+	}
+}
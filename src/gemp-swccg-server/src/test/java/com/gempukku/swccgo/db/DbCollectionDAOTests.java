@@ -0,0 +1,98 @@
+package com.gempukku.swccgo.db;
+
+import com.gempukku.swccgo.collection.CollectionSerializer;
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.DefaultCardCollection;
+import com.gempukku.swccgo.game.MutableCardCollection;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DbCollectionDAOTests {
+	private Connection _connection;
+	private PreparedStatement _appendStatement;
+	private PreparedStatement _updateStatement;
+	private PreparedStatement _insertStatement;
+	private DbCollectionDAO _collectionDao;
+
+	@Before
+	public void setUp() throws Exception {
+		_appendStatement = mock(PreparedStatement.class);
+		_updateStatement = mock(PreparedStatement.class);
+		_insertStatement = mock(PreparedStatement.class);
+		_connection = mock(Connection.class);
+		when(_connection.prepareStatement(startsWith("update collection set collection=concat"))).thenReturn(_appendStatement);
+		when(_connection.prepareStatement("update collection set collection=? where player_id=? and type=?")).thenReturn(_updateStatement);
+		when(_connection.prepareStatement(startsWith("insert into collection"))).thenReturn(_insertStatement);
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(_connection);
+		DbAccess dbAccess = mock(DbAccess.class);
+		when(dbAccess.getDataSource()).thenReturn(dataSource);
+
+		_collectionDao = new DbCollectionDAO(dbAccess, new CollectionSerializer());
+	}
+
+	private static MutableCardCollection CreateCollection() {
+		MutableCardCollection collection = new DefaultCardCollection();
+		collection.addCurrency(100);
+		collection.addItem("1_1", 2);
+		return collection;
+	}
+
+	@Test
+	public void ChangesAreAppendedToTheStoredCollectionOfTheSameLength() throws SQLException, IOException {
+		CardCollection oldCollection = CreateCollection();
+		MutableCardCollection collection = CreateCollection();
+		collection.addItem("1_2", 1);
+		when(_appendStatement.executeUpdate()).thenReturn(1);
+
+		int storedLength = _collectionDao.updatePlayerCollection(1, "default", oldCollection, 40, collection);
+
+		verify(_appendStatement).setInt(4, 40);
+		assertTrue(storedLength > 40);
+		verify(_updateStatement, never()).executeUpdate();
+	}
+
+	@Test
+	public void WholeCollectionIsWrittenIfTheStoredCollectionChanged() throws SQLException, IOException {
+		CardCollection oldCollection = CreateCollection();
+		MutableCardCollection collection = CreateCollection();
+		collection.addItem("1_2", 1);
+		when(_appendStatement.executeUpdate()).thenReturn(0);
+		when(_updateStatement.executeUpdate()).thenReturn(1);
+
+		int storedLength = _collectionDao.updatePlayerCollection(1, "default", oldCollection, 40, collection);
+
+		verify(_updateStatement).executeUpdate();
+		verify(_insertStatement, never()).executeUpdate();
+		assertNotEquals(40, storedLength);
+	}
+
+	@Test
+	public void CollectionsAreInsertedUnlessTheUpdateTouchedTheirRow() throws SQLException, IOException {
+		Map<Integer, CardCollection> collections = new HashMap<Integer, CardCollection>();
+		collections.put(1, CreateCollection());
+		collections.put(2, CreateCollection());
+		collections.put(3, CreateCollection());
+		when(_updateStatement.executeBatch()).thenReturn(new int[] {1, 0, Statement.SUCCESS_NO_INFO});
+
+		_collectionDao.setPlayerCollections("default", collections);
+
+		verify(_connection).prepareStatement(contains("where not exists"));
+		verify(_insertStatement, times(2)).addBatch();
+		verify(_insertStatement, never()).setInt(2, 1);
+		verify(_connection).commit();
+	}
+}
@@ -0,0 +1,109 @@
+package com.gempukku.swccgo.db;
+
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.Player;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+public class DbDeckDAOTests {
+	private static final Player PLAYER = new Player(1, "player", "", "u", null, null, null, null);
+
+	private Connection _connection;
+	private PreparedStatement _statement;
+	private ResultSet _resultSet;
+	private ResultSet _columns;
+	private DbAccess _dbAccess;
+	private DbDeckDAO _deckDao;
+
+	@Before
+	public void setUp() throws Exception {
+		_resultSet = mock(ResultSet.class);
+		_statement = mock(PreparedStatement.class);
+		when(_statement.executeQuery()).thenReturn(_resultSet);
+		_columns = mock(ResultSet.class);
+		when(_columns.next()).thenReturn(true);
+		DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+		when(metaData.getColumns(any(), any(), eq("deck"), eq("archetype"))).thenReturn(_columns);
+		_connection = mock(Connection.class);
+		when(_connection.prepareStatement(anyString())).thenReturn(_statement);
+		when(_connection.getMetaData()).thenReturn(metaData);
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(_connection);
+		_dbAccess = mock(DbAccess.class);
+		when(_dbAccess.getDataSource()).thenReturn(dataSource);
+
+		_deckDao = new DbDeckDAO(_dbAccess, VirtualTableScenario._cardLibrary);
+	}
+
+	private void StoredDeck(String contents, String archetype) throws SQLException {
+		when(_resultSet.next()).thenReturn(true, false);
+		when(_resultSet.getString(1)).thenReturn(contents);
+		when(_resultSet.getString(2)).thenReturn(archetype);
+	}
+
+	@Test
+	public void DeckStoredWithNoArchetypeLabelIsNotClassifiedAgain() throws SQLException {
+		StoredDeck("8_167,1_194|", "");
+
+		assertNull(_deckDao.getDeckForPlayer(PLAYER, "deck").getArchetypeLabel());
+	}
+
+	@Test
+	public void DeckStoredWithoutArchetypeIsClassifiedWhenLoaded() throws SQLException {
+		StoredDeck("8_167,1_194|", null);
+
+		assertEquals("Endor Ops", _deckDao.getDeckForPlayer(PLAYER, "deck").getArchetypeLabel());
+	}
+
+	@Test
+	public void DeckWithoutArchetypeLabelIsStoredWithNoArchetypeLabel() throws SQLException {
+		SwccgDeck deck = new SwccgDeck("deck");
+		deck.addCard("1_194");
+
+		_deckDao.saveDeckForPlayer(PLAYER, "deck", deck);
+
+		verify(_connection).prepareStatement("insert into deck (player_id, name, contents, archetype) values (?, ?, ?, ?)");
+		verify(_statement).setString(4, "");
+	}
+
+	@Test
+	public void DecksAreStoredWithoutArchetypeIfTheTableHasNoArchetypeColumn() throws SQLException {
+		when(_columns.next()).thenReturn(false);
+		_deckDao = new DbDeckDAO(_dbAccess, VirtualTableScenario._cardLibrary);
+		SwccgDeck deck = new SwccgDeck("deck");
+		deck.addCard("8_167");
+
+		_deckDao.saveDeckForPlayer(PLAYER, "deck", deck);
+		StoredDeck("8_167|", null);
+
+		assertEquals("Endor Ops", _deckDao.getDeckForPlayer(PLAYER, "deck").getArchetypeLabel());
+		verify(_connection, times(2)).prepareStatement("select contents, null from deck where player_id=? and name=?");
+		verify(_connection).prepareStatement("insert into deck (player_id, name, contents) values (?, ?, ?)");
+		verify(_connection, never()).prepareStatement(startsWith("alter table"));
+		assertEquals(0, _deckDao.storeMissingArchetypeLabels(100));
+	}
+
+	@Test
+	public void ArchetypeColumnIsCheckedOnce() throws SQLException {
+		StoredDeck("8_167|", null);
+		_deckDao.getDeckForPlayer(PLAYER, "deck");
+		_deckDao.getDeckForPlayer(PLAYER, "deck");
+
+		verify(_connection, times(1)).getMetaData();
+	}
+}
@@ -0,0 +1,71 @@
+package com.gempukku.swccgo.db;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class DbMerchantDAOTests {
+	private PreparedStatement _statement;
+	private DbMerchantDAO _merchantDao;
+
+	@Before
+	public void setUp() throws Exception {
+		_statement = mock(PreparedStatement.class);
+		when(_statement.executeQuery()).thenReturn(mock(ResultSet.class));
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenReturn(_statement);
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		DbAccess dbAccess = mock(DbAccess.class);
+		when(dbAccess.getDataSource()).thenReturn(dataSource);
+
+		// The scheduled writes are too far apart to run during the tests
+		_merchantDao = new DbMerchantDAO(dbAccess, 3600);
+	}
+
+	@Test
+	public void TransactionsOfACardAreWrittenAsOneBatchRow() throws SQLException {
+		_merchantDao.addTransaction("1_1", 10, new Date(1000), MerchantDAO.TransactionType.BUY);
+		_merchantDao.addTransaction("1_1", 20, new Date(2000), MerchantDAO.TransactionType.SELL);
+		_merchantDao.addTransaction("1_1", 30, new Date(3000), MerchantDAO.TransactionType.BUY);
+		_merchantDao.addTransaction("1_2", 40, new Date(4000), MerchantDAO.TransactionType.SELL);
+		verifyNoInteractions(_statement);
+
+		_merchantDao.flushTransactions();
+
+		verify(_statement, times(2)).addBatch();
+		verify(_statement).executeBatch();
+		verify(_statement).setFloat(1, 30f);
+		verify(_statement).setString(4, "1_1");
+		verify(_statement).setInt(6, 2);
+		verify(_statement, times(2)).setInt(5, 1);
+	}
+
+	@Test
+	public void FailedWriteIsRetriedWithLaterTransactions() throws SQLException {
+		when(_statement.executeBatch()).thenThrow(new SQLException("Connection lost")).thenReturn(new int[] {1});
+		_merchantDao.addTransaction("1_1", 10, new Date(1000), MerchantDAO.TransactionType.BUY);
+		_merchantDao.flushTransactions();
+
+		_merchantDao.addTransaction("1_1", 20, new Date(2000), MerchantDAO.TransactionType.BUY);
+		MerchantDAO.Transaction pending = _merchantDao.getLastTransaction("1_1");
+		assertEquals(20f, pending.getPrice(), 0);
+		assertEquals(2, pending.getStock());
+
+		clearInvocations(_statement);
+		_merchantDao.flushTransactions();
+		verify(_statement).addBatch();
+		verify(_statement).setFloat(1, 20f);
+		verify(_statement).setInt(6, 2);
+	}
+}
@@ -0,0 +1,77 @@
+package com.gempukku.swccgo.db;
+
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class DbMetricsTests {
+	private static String WriteMetrics(DbMetrics metrics) throws Exception {
+		StringWriter writer = new StringWriter();
+		metrics.writePrometheusText(writer);
+		return writer.toString();
+	}
+
+	@Test
+	public void QueriesDifferingInValuesHaveSameFingerprint() {
+		String first = DbMetrics.getFingerprint("select * from deck where player_id=12 and name='Hoth  Deck' and id in (?, ?, ?)");
+		String second = DbMetrics.getFingerprint("SELECT * FROM deck\n where player_id=7 and name='It''s' and id in (?)");
+
+		assertEquals("select * from deck where player_id=? and name=? and id in (...)", first);
+		assertEquals(first, second);
+		assertEquals(DbMetrics.getFingerprintId(first), DbMetrics.getFingerprintId(second));
+	}
+
+	@Test
+	public void StatementsAreTimedUnderPreparingMethod() throws Exception {
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		DbMetrics metrics = new DbMetrics(60000);
+
+		try (Connection instrumentedConnection = new InstrumentedDataSource(dataSource, metrics).getConnection();
+			 PreparedStatement instrumentedStatement = instrumentedConnection.prepareStatement("select 1")) {
+			instrumentedStatement.setInt(1, 5);
+			instrumentedStatement.executeQuery();
+			instrumentedStatement.executeQuery();
+		}
+
+		verify(statement).setInt(1, 5);
+		verify(statement).close();
+		verify(connection).close();
+		String text = WriteMetrics(metrics);
+		assertTrue(text, text.contains("gemp_db_query_seconds_count{method=\"DbMetricsTests.StatementsAreTimedUnderPreparingMethod\"} 2\n"));
+		assertTrue(text, text.contains("gemp_db_connection_wait_seconds_count 1\n"));
+		assertTrue(text, text.contains("gemp_db_slow_queries_total 0\n"));
+	}
+
+	@Test
+	public void PoolTimeoutIsCounted() throws Exception {
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenThrow(new SQLException("Cannot get a connection", new NoSuchElementException("Timeout waiting for idle object")));
+		DbMetrics metrics = new DbMetrics(60000);
+
+		try {
+			new InstrumentedDataSource(dataSource, metrics).getConnection();
+			fail();
+		} catch (SQLException exp) {
+			// Expected
+		}
+
+		String text = WriteMetrics(metrics);
+		assertTrue(text, text.contains("gemp_db_connection_wait_timeouts_total 1\n"));
+		assertTrue(text, text.contains("gemp_db_connection_wait_seconds_count 1\n"));
+	}
+}
@@ -0,0 +1,90 @@
+package com.gempukku.swccgo.db;
+
+import com.gempukku.swccgo.game.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class DbPlayerDAOTests {
+	private PlayerTable _table;
+	private DbPlayerDAO _playerDao;
+
+	@Before
+	public void setUp() throws Exception {
+		_table = new PlayerTable();
+		_playerDao = new DbPlayerDAO(_table.CreateDbAccess(), new PlayerAuthenticationMetrics());
+	}
+
+	@Test
+	public void RegisteredPlayerCanLogInWithThePassword() throws Exception {
+		assertTrue(_playerDao.registerPlayer("newbie", "secret", "127.0.0.1"));
+
+		Player player = _playerDao.loginPlayer("newbie", "secret");
+		assertNotNull(player);
+		assertEquals("newbie", player.getName());
+		assertNull(_playerDao.loginPlayer("newbie", "wrong"));
+		assertNull(_playerDao.loginPlayer("other", "secret"));
+	}
+
+	@Test(expected = LoginInvalidException.class)
+	public void TakenNameCannotBeRegistered() throws Exception {
+		_playerDao.registerPlayer("newbie", "secret", "127.0.0.1");
+
+		_playerDao.registerPlayer("newbie", "other", "127.0.0.2");
+	}
+
+	@Test
+	public void ConcurrentRegistrationsOfANameRegisterItOnce() throws Exception {
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		// Gives the other registrations time to get to the insert if they are not serialized
+		_table.SetBeforeInsert(() -> Sleep(20));
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				String password = "secret" + i;
+				results.add(executor.submit((Callable<Boolean>) () -> {
+					start.await();
+					return _playerDao.registerPlayer("racer", password, "127.0.0.1");
+				}));
+			}
+			start.countDown();
+
+			int registered = 0;
+			int rejected = 0;
+			for (Future<Boolean> result : results) {
+				try {
+					if (result.get())
+						registered++;
+				} catch (ExecutionException exp) {
+					assertTrue(exp.getCause() instanceof LoginInvalidException);
+					rejected++;
+				}
+			}
+			assertEquals(1, registered);
+			assertEquals(threads - 1, rejected);
+			assertEquals(1, _table.GetPlayerCount());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	static void Sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException exp) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.gempukku.swccgo.db;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * A player table kept in memory behind mocked JDBC objects, answering the statements DbPlayerDAO uses to register,
+ * log in and look up players by name.
+ */
+class PlayerTable {
+	private final Map<String, String[]> _rowsByName = new ConcurrentHashMap<>();
+	private final AtomicInteger _nextId = new AtomicInteger(1);
+	private final AtomicInteger _nameLookups = new AtomicInteger();
+	private volatile Runnable _afterNameLookup = () -> { };
+	private volatile Runnable _beforeInsert = () -> { };
+
+	/**
+	 * @return the number of players looked up by name, including the ones not found
+	 */
+	int GetNameLookups() {
+		return _nameLookups.get();
+	}
+
+	int GetPlayerCount() {
+		return _rowsByName.size();
+	}
+
+	void SetAfterNameLookup(Runnable afterNameLookup) {
+		_afterNameLookup = afterNameLookup;
+	}
+
+	void SetBeforeInsert(Runnable beforeInsert) {
+		_beforeInsert = beforeInsert;
+	}
+
+	DbAccess CreateDbAccess() throws Exception {
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenAnswer(invocation -> CreateStatement(invocation.getArgument(0)));
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		DbAccess dbAccess = mock(DbAccess.class);
+		when(dbAccess.getDataSource()).thenReturn(dataSource);
+		return dbAccess;
+	}
+
+	private PreparedStatement CreateStatement(String sql) throws Exception {
+		Map<Integer, String> parameters = new ConcurrentHashMap<>();
+		PreparedStatement statement = mock(PreparedStatement.class);
+		doAnswer(invocation -> parameters.put(invocation.getArgument(0), invocation.getArgument(1)))
+				.when(statement).setString(anyInt(), any());
+		String lowerCaseSql = sql.toLowerCase();
+		if (lowerCaseSql.startsWith("insert into player")) {
+			when(statement.execute()).thenAnswer(invocation -> {
+				_beforeInsert.run();
+				String name = parameters.get(1);
+				_rowsByName.put(name, new String[] {String.valueOf(_nextId.getAndIncrement()), name, parameters.get(2), parameters.get(3)});
+				return false;
+			});
+		} else if (lowerCaseSql.contains("where name=? and (password='' or password=?)")) {
+			when(statement.executeQuery()).thenAnswer(invocation -> {
+				String[] row = _rowsByName.get(parameters.get(1));
+				boolean matches = row != null && (row[2].isEmpty() || row[2].equals(parameters.get(2)));
+				return CreateResultSet(matches ? row : null);
+			});
+		} else if (lowerCaseSql.contains("where name=?")) {
+			when(statement.executeQuery()).thenAnswer(invocation -> {
+				_nameLookups.incrementAndGet();
+				String[] row = _rowsByName.get(parameters.get(1));
+				_afterNameLookup.run();
+				return CreateResultSet(row);
+			});
+		} else {
+			throw new UnsupportedOperationException(sql);
+		}
+		return statement;
+	}
+
+	private static ResultSet CreateResultSet(String[] row) throws Exception {
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.next()).thenReturn(row != null, false);
+		if (row != null) {
+			when(resultSet.getInt(1)).thenReturn(Integer.parseInt(row[0]));
+			when(resultSet.getString(2)).thenReturn(row[1]);
+			when(resultSet.getString(3)).thenReturn(row[2]);
+			when(resultSet.getString(4)).thenReturn(row[3]);
+			when(resultSet.wasNull()).thenReturn(true);
+		}
+		return resultSet;
+	}
+}
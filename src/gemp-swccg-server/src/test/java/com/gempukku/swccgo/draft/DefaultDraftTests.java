@@ -0,0 +1,97 @@
+package com.gempukku.swccgo.draft;
+
+import com.gempukku.swccgo.collection.CollectionsManager;
+import com.gempukku.swccgo.db.vo.CollectionType;
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.DefaultCardCollection;
+import com.gempukku.swccgo.packagedProduct.PackagedProductStorage;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DefaultDraftTests {
+	private final CollectionType _collectionType = new CollectionType("draft", "Draft");
+
+	private DefaultDraft CreateDraft(CollectionsManager collectionsManager, long pickTime) {
+		return CreateDraft(collectionsManager, pickTime, List.of("booster"));
+	}
+
+	private DefaultDraft CreateDraft(CollectionsManager collectionsManager, long pickTime, List<String> packs) {
+		PackagedProductStorage packagedProductStorage = mock(PackagedProductStorage.class);
+		when(packagedProductStorage.openPackagedProducts("booster", 2)).thenReturn(List.of(
+				List.of(CardCollection.Item.createItem("1_1", 1), CardCollection.Item.createItem("1_2", 1)),
+				List.of(CardCollection.Item.createItem("1_3", 1), CardCollection.Item.createItem("1_4", 1))));
+		DraftPack draftPack = new DraftPack(new DefaultCardCollection(), packs);
+		return new DefaultDraft(collectionsManager, _collectionType, packagedProductStorage, draftPack, Set.of("first", "second"), pickTime);
+	}
+
+	private static String FirstCard(DefaultDraft draft, String player) {
+		return draft.getCardChoice(player).getCardCollection().getAll().keySet().iterator().next();
+	}
+
+	@Test
+	public void LastPickOfRoundPassesPacksImmediately() {
+		CollectionsManager collectionsManager = mock(CollectionsManager.class);
+		DefaultDraft draft = CreateDraft(collectionsManager, DefaultDraft.PICK_TIME);
+		draft.advanceDraft(null);
+
+		CardCollection secondPack = draft.getCardChoice("second").getCardCollection();
+		draft.playerChosenCard("first", FirstCard(draft, "first"));
+		assertNull(draft.getCardChoice("first").getCardCollection());
+
+		draft.playerChosenCard("second", FirstCard(draft, "second"));
+		// The first player now has the rest of the pack the second player picked from
+		CardCollection passedPack = draft.getCardChoice("first").getCardCollection();
+		assertNotNull(passedPack);
+		assertEquals(1, passedPack.getAll().size());
+		assertTrue(secondPack.getAll().keySet().containsAll(passedPack.getAll().keySet()));
+
+		draft.playerChosenCard("first", FirstCard(draft, "first"));
+		draft.playerChosenCard("second", FirstCard(draft, "second"));
+		assertTrue(draft.isFinished());
+		verify(collectionsManager, times(4)).addItemsToPlayerCollection(eq(false), anyString(), anyString(), eq(_collectionType), any());
+	}
+
+	@Test
+	public void ExpiredPickTimeForcesMissingPicks() throws InterruptedException {
+		CollectionsManager collectionsManager = mock(CollectionsManager.class);
+		DefaultDraft draft = CreateDraft(collectionsManager, 50);
+		draft.advanceDraft(null);
+		draft.playerChosenCard("first", FirstCard(draft, "first"));
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!draft.isFinished() && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+
+		assertTrue(draft.isFinished());
+		verify(collectionsManager, times(4)).addItemsToPlayerCollection(eq(false), anyString(), anyString(), eq(_collectionType), any());
+	}
+
+	@Test
+	public void PickTimeOfAnEarlierPackDoesNotExpireTheNextPack() {
+		CollectionsManager collectionsManager = mock(CollectionsManager.class);
+		DefaultDraft draft = CreateDraft(collectionsManager, DefaultDraft.PICK_TIME, List.of("booster", "booster"));
+		draft.advanceDraft(null);
+		for (int pick = 0; pick < 2; pick++) {
+			draft.playerChosenCard("first", FirstCard(draft, "first"));
+			draft.playerChosenCard("second", FirstCard(draft, "second"));
+		}
+		assertFalse(draft.isFinished());
+
+		// The first round of the second pack has the same pick number as the first round of the first pack
+		draft.pickTimeExpired(1);
+
+		assertNotNull(draft.getCardChoice("first").getCardCollection());
+		assertNotNull(draft.getCardChoice("second").getCardCollection());
+		verify(collectionsManager, times(4)).addItemsToPlayerCollection(eq(false), anyString(), anyString(), eq(_collectionType), any());
+
+		draft.pickTimeExpired(3);
+
+		verify(collectionsManager, times(6)).addItemsToPlayerCollection(eq(false), anyString(), anyString(), eq(_collectionType), any());
+	}
+}
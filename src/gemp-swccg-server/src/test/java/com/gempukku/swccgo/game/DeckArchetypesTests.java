@@ -0,0 +1,88 @@
+package com.gempukku.swccgo.game;
+
+import com.gempukku.swccgo.common.Title;
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeckArchetypesTests {
+	private static PhysicalCard Card(boolean virtual, String... titles) {
+		SwccgCardBlueprint blueprint = mock(SwccgCardBlueprint.class);
+		when(blueprint.getTitle()).thenReturn(titles[0]);
+		when(blueprint.hasVirtualSuffix()).thenReturn(virtual);
+		PhysicalCard card = mock(PhysicalCard.class);
+		when(card.getBlueprint()).thenReturn(blueprint);
+		when(card.getTitles()).thenReturn(Arrays.asList(titles));
+		return card;
+	}
+
+	private static SwccgDeck Deck(String... blueprintIds) {
+		SwccgDeck deck = new SwccgDeck("deck");
+		for (String blueprintId : blueprintIds)
+			deck.addCard(blueprintId);
+		deck.addCard("1_194");
+		return deck;
+	}
+
+	@Test
+	public void LastObjectiveRuleFoundWins() {
+		// Y4O is added after Thrawn
+		PhysicalCard objective = Card(false, Title.Yavin_4_Base_Operations, Title.A_Great_Tactician_Creates_Plans);
+
+		assertEquals("Y4O", DeckArchetypes.getLabel(null, null, objective, null));
+	}
+
+	@Test
+	public void VirtualObjectiveHasVirtualSuffix() {
+		assertEquals("Hunt Down", DeckArchetypes.getLabel(null, null, Card(false, Title.Hunt_Down_And_Destroy_The_Jedi), null));
+		assertEquals("Hunt Down v", DeckArchetypes.getLabel(null, null, Card(true, Title.Hunt_Down_And_Destroy_The_Jedi), null));
+	}
+
+	@Test
+	public void EndorOperationsWithOperationalAsPlannedIsTTO() {
+		PhysicalCard objective = Card(false, Title.Endor_Operations);
+
+		assertEquals("TTO", DeckArchetypes.getLabel(null, Card(false, Title.Operational_As_Planned), objective, null));
+		assertEquals("Endor Ops", DeckArchetypes.getLabel(null, Card(false, Title.Careful_Planning), objective, null));
+		assertEquals("Endor Ops", DeckArchetypes.getLabel(null, null, objective, null));
+	}
+
+	@Test
+	public void LocalUprisingHasTheSystemUnlessVirtual() {
+		assertEquals("Local Uprising - Tatooine", DeckArchetypes.getLabel(null, null, Card(false, Title.Local_Uprising), "Tatooine"));
+		assertEquals("Local Uprising", DeckArchetypes.getLabel(null, null, Card(false, Title.Local_Uprising), null));
+		assertEquals("Local Uprising v", DeckArchetypes.getLabel(null, null, Card(true, Title.Local_Uprising), "Tatooine"));
+	}
+
+	@Test
+	public void BlownAwayObjectiveIsOther() {
+		PhysicalCard objective = Card(false, Title.Endor_Operations);
+		when(objective.isBlownAway()).thenReturn(true);
+
+		assertEquals("Other", DeckArchetypes.getLabel(null, null, objective, null));
+	}
+
+	@Test
+	public void DeckLabelIsToldFromTheObjective() {
+		SwccgCardBlueprintLibrary library = VirtualTableScenario._cardLibrary;
+
+		assertEquals("Endor Ops", DeckArchetypes.getDeckLabel(Deck("8_167"), library));
+		assertEquals("TTO", DeckArchetypes.getDeckLabel(Deck("8_167", "9_138"), library));
+		assertEquals("Hunt Down v", DeckArchetypes.getDeckLabel(Deck("213_031"), library));
+		assertEquals("Local Uprising", DeckArchetypes.getDeckLabel(Deck("7_137"), library));
+	}
+
+	@Test
+	public void DeckWithoutOneObjectiveHasNoLabel() {
+		SwccgCardBlueprintLibrary library = VirtualTableScenario._cardLibrary;
+
+		assertNull(DeckArchetypes.getDeckLabel(Deck(), library));
+		assertNull(DeckArchetypes.getDeckLabel(Deck("8_167", "7_297"), library));
+	}
+}
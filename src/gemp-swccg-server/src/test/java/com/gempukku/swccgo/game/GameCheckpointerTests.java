@@ -0,0 +1,252 @@
+package com.gempukku.swccgo.game;
+
+import com.alibaba.fastjson.JSONObject;
+import com.gempukku.swccgo.db.DeckSerialization;
+import com.gempukku.swccgo.framework.TestBase;
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.state.GameCommunicationChannel;
+import com.gempukku.swccgo.logic.decisions.AwaitingDecision;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Element;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GameCheckpointerTests {
+	private static final String GAME_ID = "checkpointed";
+
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	private final List<GameCheckpointer> _checkpointers = new ArrayList<>();
+
+	@After
+	public void Shutdown() {
+		for (GameCheckpointer checkpointer : _checkpointers)
+			checkpointer.shutdown();
+	}
+
+	private GameCheckpointer CreateCheckpointer() {
+		GameCheckpointer checkpointer = new GameCheckpointer(_folder.getRoot(), 3600);
+		_checkpointers.add(checkpointer);
+		return checkpointer;
+	}
+
+	private static GameCheckpoint CreateCheckpoint(GameDecisionLog decisionLog) {
+		Map<String, String> deckNames = new LinkedHashMap<>();
+		deckNames.put(TestBase.DS, "dark");
+		deckNames.put(TestBase.LS, "light");
+		return new GameCheckpoint(GAME_ID, decisionLog.getFormatName(), decisionLog.getRandomSeed(), decisionLog.isUseBonusAbilities(),
+				null, "Tournament", deckNames, decisionLog.getDeckContents(), true, false, true, true, true, true, 600, 1, false, false,
+				Collections.singletonMap("tableId", "7"));
+	}
+
+	private static SwccgGameMediator MockMediator(GameDecisionLog decisionLog, Map<String, Integer> playerClocks) {
+		SwccgGameMediator mediator = mock(SwccgGameMediator.class);
+		when(mediator.getDecisionLog()).thenReturn(decisionLog);
+		when(mediator.getPlayerClocks()).thenAnswer(invocation -> new HashMap<>(playerClocks));
+		return mediator;
+	}
+
+	private static GameDecisionLog.Entry DecisionEntry(String playerId, int decisionId, String answer) {
+		JSONObject json = new JSONObject();
+		json.put("type", GameDecisionLog.EntryType.DECISION.name());
+		json.put("player", playerId);
+		json.put("number", decisionId);
+		json.put("value", answer);
+		return GameDecisionLog.fromJson(json);
+	}
+
+	private static void AssertSameEntries(List<GameDecisionLog.Entry> expected, List<GameDecisionLog.Entry> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertEquals(GameDecisionLog.toJson(expected.get(i)), GameDecisionLog.toJson(actual.get(i)));
+	}
+
+	@Test
+	public void CheckpointsAreReadBackWithAllAppendedEntries() {
+		GameDecisionLog decisionLog = new GameDecisionLog(GAME_ID, "Open", 1234, false, RandomPlay.Decks());
+		Map<String, Integer> playerClocks = new HashMap<>();
+		playerClocks.put(TestBase.DS, 10);
+		playerClocks.put(TestBase.LS, 20);
+		GameCheckpointer checkpointer = CreateCheckpointer();
+		checkpointer.addGame(CreateCheckpoint(decisionLog), MockMediator(decisionLog, playerClocks));
+
+		decisionLog.messageSent("Players in the game are: " + TestBase.DS + ", " + TestBase.LS);
+		decisionLog.gameStarted();
+		checkpointer.writeCheckpoints();
+		decisionLog.decisionAnswered(TestBase.DS, 1, "0");
+		decisionLog.extendGameTimerRequested(TestBase.LS, 5);
+		playerClocks.put(TestBase.DS, 30);
+		checkpointer.writeCheckpoints();
+
+		List<GameCheckpoint> checkpoints = CreateCheckpointer().readCheckpoints();
+
+		assertEquals(1, checkpoints.size());
+		GameCheckpoint checkpoint = checkpoints.get(0);
+		assertEquals(GAME_ID, checkpoint.getGameId());
+		assertEquals(1234, checkpoint.getRandomSeed());
+		assertEquals("Tournament", checkpoint.getTournamentName());
+		assertEquals("7", checkpoint.getAttribute("tableId"));
+		assertEquals(decisionLog.getDeckContents(), checkpoint.getDeckContents());
+		AssertSameEntries(decisionLog.getEntries(), checkpoint.getEntries());
+		assertEquals(Integer.valueOf(30), checkpoint.getPlayerClocks().get(TestBase.DS));
+		assertEquals(Integer.valueOf(20), checkpoint.getPlayerClocks().get(TestBase.LS));
+	}
+
+	@Test
+	public void PartlyWrittenLastLineIsIgnored() throws Exception {
+		GameDecisionLog decisionLog = new GameDecisionLog(GAME_ID, "Open", 1234, false, RandomPlay.Decks());
+		GameCheckpointer checkpointer = CreateCheckpointer();
+		checkpointer.addGame(CreateCheckpoint(decisionLog), MockMediator(decisionLog, Collections.emptyMap()));
+		decisionLog.gameStarted();
+		decisionLog.decisionAnswered(TestBase.DS, 1, "0");
+		checkpointer.writeCheckpoints();
+
+		try (FileOutputStream outputStream = new FileOutputStream(new File(_folder.getRoot(), GAME_ID + ".checkpoint"), true)) {
+			outputStream.write("{\"type\":\"DECISION\",\"player\":\"Dark Si".getBytes(StandardCharsets.UTF_8));
+		}
+		List<GameCheckpoint> checkpoints = CreateCheckpointer().readCheckpoints();
+
+		assertEquals(1, checkpoints.size());
+		AssertSameEntries(decisionLog.getEntries(), checkpoints.get(0).getEntries());
+	}
+
+	@Test
+	public void UnreadableCheckpointIsDeleted() throws Exception {
+		File file = _folder.newFile("broken.checkpoint");
+		try (FileOutputStream outputStream = new FileOutputStream(file)) {
+			outputStream.write("{\"gameId\":".getBytes(StandardCharsets.UTF_8));
+		}
+
+		assertTrue(CreateCheckpointer().readCheckpoints().isEmpty());
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void RemovedGameCheckpointIsDeleted() {
+		GameDecisionLog decisionLog = new GameDecisionLog(GAME_ID, "Open", 1234, false, RandomPlay.Decks());
+		GameCheckpointer checkpointer = CreateCheckpointer();
+		checkpointer.addGame(CreateCheckpoint(decisionLog), MockMediator(decisionLog, Collections.emptyMap()));
+		checkpointer.writeCheckpoints();
+		assertTrue(new File(_folder.getRoot(), GAME_ID + ".checkpoint").exists());
+
+		checkpointer.removeGame(GAME_ID);
+		checkpointer.writeCheckpoints();
+
+		assertFalse(new File(_folder.getRoot(), GAME_ID + ".checkpoint").exists());
+	}
+
+	/**
+	 * A channel that also keeps the decision the player is waiting on.
+	 */
+	private static class DecisionCapture extends GameCommunicationChannel {
+		private final String _playerId;
+		private AwaitingDecision _decision;
+
+		private DecisionCapture(String playerId) {
+			super(playerId, 0);
+			_playerId = playerId;
+		}
+
+		@Override
+		public void decisionRequired(String playerId, AwaitingDecision decision) {
+			super.decisionRequired(playerId, decision);
+			if (playerId.equals(_playerId))
+				_decision = decision;
+		}
+	}
+
+	private static SwccgGameMediator CreateMediator(Map<String, SwccgDeck> decks, long randomSeed, Map<String, DecisionCapture> captures) {
+		List<SwccgGameParticipant> participants = new ArrayList<>();
+		for (String playerId : Arrays.asList(TestBase.DS, TestBase.LS))
+			participants.add(new SwccgGameParticipant(playerId, decks.get(playerId)));
+		SwccgGameMediator mediator = new SwccgGameMediator(GAME_ID, VirtualTableScenario._formatLibrary.getFormat(TestBase.Open), null,
+				participants.toArray(new SwccgGameParticipant[0]), VirtualTableScenario._cardLibrary, 3600, true, false, true, true, 600,
+				false, false, randomSeed);
+		for (String playerId : Arrays.asList(TestBase.DS, TestBase.LS)) {
+			DecisionCapture capture = new DecisionCapture(playerId);
+			mediator.addGameStateListener(playerId, capture);
+			captures.put(playerId, capture);
+		}
+		return mediator;
+	}
+
+	@Test
+	public void RestoredGameIsInTheSameState() throws Exception {
+		Map<String, DecisionCapture> originalCaptures = new LinkedHashMap<>();
+		SwccgGameMediator original = CreateMediator(RandomPlay.Decks(), 20261019L, originalCaptures);
+		original.startGame();
+
+		// Answers decisions through the decision log, the same way the restored game gets them
+		Random random = new Random(38);
+		int decisions = 0;
+		int attempts = 0;
+		while (decisions < 60 && !original.isFinished()) {
+			DecisionCapture capture = null;
+			for (DecisionCapture playerCapture : originalCaptures.values()) {
+				if (playerCapture._decision != null) {
+					capture = playerCapture;
+					break;
+				}
+			}
+			assertNotNull("Game stuck without a decision", capture);
+			AwaitingDecision decision = capture._decision;
+			capture._decision = null;
+			String answer = ++attempts < RandomPlay.ATTEMPTS ? RandomPlay.Answer(decision, random) : RandomPlay.Pass(decision);
+			original.replayDecisionLogEntries(Collections.singletonList(DecisionEntry(capture._playerId, decision.getAwaitingDecisionId(), answer)));
+			// An invalid answer sends the same decision again
+			if (capture._decision != decision) {
+				decisions++;
+				attempts = 0;
+			}
+		}
+
+		GameCheckpointer checkpointer = CreateCheckpointer();
+		checkpointer.addGame(CreateCheckpoint(original.getDecisionLog()), original);
+		checkpointer.writeCheckpoints();
+		GameCheckpoint checkpoint = CreateCheckpointer().readCheckpoints().get(0);
+
+		Map<String, SwccgDeck> decks = new HashMap<>();
+		for (Map.Entry<String, String> deckContents : checkpoint.getDeckContents().entrySet())
+			decks.put(deckContents.getKey(), DeckSerialization.buildDeckFromContents(checkpoint.getDeckNames().get(deckContents.getKey()),
+					deckContents.getValue(), VirtualTableScenario._cardLibrary));
+		Map<String, DecisionCapture> restoredCaptures = new LinkedHashMap<>();
+		SwccgGameMediator restored = CreateMediator(decks, checkpoint.getRandomSeed(), restoredCaptures);
+		restored.replayDecisionLogEntries(checkpoint.getEntries());
+
+		AssertSameEntries(original.getDecisionLog().getEntries(), restored.getDecisionLog().getEntries());
+		for (String playerId : originalCaptures.keySet()) {
+			List<Element> originalEvents = RandomPlay.ConsumeEvents(originalCaptures.get(playerId));
+			List<Element> restoredEvents = RandomPlay.ConsumeEvents(restoredCaptures.get(playerId));
+			assertEquals("Event count for " + playerId, originalEvents.size(), restoredEvents.size());
+			for (int i = 0; i < originalEvents.size(); i++)
+				assertTrue("Event " + i + " for " + playerId + " differs", originalEvents.get(i).isEqualNode(restoredEvents.get(i)));
+
+			// The restored game waits on the same decision
+			AwaitingDecision originalDecision = originalCaptures.get(playerId)._decision;
+			if (originalDecision != null) {
+				AwaitingDecision restoredDecision = restoredCaptures.get(playerId)._decision;
+				assertEquals(originalDecision.getAwaitingDecisionId(), restoredDecision.getAwaitingDecisionId());
+				assertEquals(originalDecision.getText(), restoredDecision.getText());
+			}
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.gempukku.swccgo.game;
+
+import com.gempukku.swccgo.framework.TestBase;
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.state.GameCommunicationChannel;
+import com.gempukku.swccgo.logic.decisions.AwaitingDecision;
+import com.gempukku.swccgo.logic.decisions.DecisionResultInvalidException;
+import com.gempukku.swccgo.logic.timing.DefaultSwccgGame;
+import com.gempukku.swccgo.logic.timing.DefaultUserFeedback;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Plays the same decks twice with the same game seed and the same decisions, and checks both players are sent the
+ * same events, which is what replaying a game from its decision log relies on.
+ */
+public class GameDeterminismTests {
+	private static final int MAX_DECISIONS = 400;
+
+	/**
+	 * Plays a game with both players choosing at random, and gets the events each player was sent.
+	 */
+	private static Map<String, List<Element>> Play(long gameSeed, long decisionSeed) throws Exception {
+		Map<String, SwccgDeck> decks = RandomPlay.Decks();
+		Map<String, Integer> clocks = new HashMap<>();
+		clocks.put(TestBase.DS, 0);
+		clocks.put(TestBase.LS, 0);
+
+		DefaultUserFeedback userFeedback = new DefaultUserFeedback();
+		DefaultSwccgGame game = new DefaultSwccgGame(VirtualTableScenario._formatLibrary.getFormat(TestBase.Open), decks, userFeedback,
+				VirtualTableScenario._cardLibrary, clocks, false, gameSeed);
+		userFeedback.setGame(game);
+		Map<String, GameCommunicationChannel> channels = new LinkedHashMap<>();
+		for (String playerId : Arrays.asList(TestBase.DS, TestBase.LS)) {
+			GameCommunicationChannel channel = new GameCommunicationChannel(playerId, 0);
+			game.addGameStateListener(playerId, channel);
+			channels.put(playerId, channel);
+		}
+
+		Random random = new Random(decisionSeed);
+		game.startGame();
+		int decisions = 0;
+		while (!game.isFinished() && decisions < MAX_DECISIONS) {
+			List<String> players = new ArrayList<>(userFeedback.getUsersPendingDecision());
+			assertFalse("Game stuck without a decision", players.isEmpty());
+			for (String player : players) {
+				AwaitingDecision decision = userFeedback.getAwaitingDecision(player);
+				if (decision == null)
+					continue;
+				userFeedback.participantDecided(player);
+				Decide(game, decision, random);
+				decisions++;
+			}
+		}
+		assertTrue("Game ended before it got going", decisions > 20);
+
+		Map<String, List<Element>> result = new LinkedHashMap<>();
+		for (Map.Entry<String, GameCommunicationChannel> channel : channels.entrySet())
+			result.put(channel.getKey(), RandomPlay.ConsumeEvents(channel.getValue()));
+		return result;
+	}
+
+	private static void Decide(DefaultSwccgGame game, AwaitingDecision decision, Random random) {
+		for (int attempt = 0; attempt < RandomPlay.ATTEMPTS; attempt++) {
+			try {
+				decision.decisionMade(attempt < RandomPlay.ATTEMPTS - 1 ? RandomPlay.Answer(decision, random) : RandomPlay.Pass(decision));
+				game.carryOutPendingActionsUntilDecisionNeeded();
+				return;
+			} catch (DecisionResultInvalidException exp) {
+				// Try another answer
+			}
+		}
+		fail("No answer accepted for " + decision.getText());
+	}
+
+	@Test
+	public void SameSeedAndDecisionsSendSameEvents() throws Exception {
+		Map<String, List<Element>> first = Play(20261019L, 7L);
+		Map<String, List<Element>> second = Play(20261019L, 7L);
+
+		assertEquals(first.keySet(), second.keySet());
+		for (String playerId : first.keySet()) {
+			List<Element> firstEvents = first.get(playerId);
+			List<Element> secondEvents = second.get(playerId);
+			assertFalse(firstEvents.isEmpty());
+			assertEquals("Event count for " + playerId, firstEvents.size(), secondEvents.size());
+			for (int i = 0; i < firstEvents.size(); i++)
+				assertTrue("Event " + i + " for " + playerId + " differs", firstEvents.get(i).isEqualNode(secondEvents.get(i)));
+		}
+	}
+}
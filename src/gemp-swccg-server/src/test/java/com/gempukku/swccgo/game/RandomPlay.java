@@ -0,0 +1,117 @@
+package com.gempukku.swccgo.game;
+
+import com.gempukku.swccgo.framework.TestBase;
+import com.gempukku.swccgo.game.state.EventSerializer;
+import com.gempukku.swccgo.game.state.GameCommunicationChannel;
+import com.gempukku.swccgo.game.state.GameEvent;
+import com.gempukku.swccgo.logic.decisions.AwaitingDecision;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Decks and random answers to decisions, answered the way a player's browser could, for tests that play whole games.
+ */
+class RandomPlay {
+	/**
+	 * The answers tried for a decision before passing, as random answers can be rejected by checks beyond the
+	 * decision parameters.
+	 */
+	static final int ATTEMPTS = 10;
+
+	/**
+	 * Gets a deck for each player, with a starting location, the destiny cards of the test framework and filler.
+	 */
+	static Map<String, SwccgDeck> Decks() {
+		Map<String, SwccgDeck> decks = new HashMap<>();
+		decks.put(TestBase.DS, BuildDeck("dark", "12_176", TestBase.DSDestinyPack.values(), TestBase.DefaultDSFiller));
+		decks.put(TestBase.LS, BuildDeck("light", "5_079", TestBase.LSDestinyPack.values(), TestBase.DefaultLSFiller));
+		return decks;
+	}
+
+	private static SwccgDeck BuildDeck(String name, String startingLocation, Collection<String> destinyCards, String filler) {
+		SwccgDeck deck = new SwccgDeck(name);
+		deck.addCard(startingLocation);
+		for (String destinyCard : destinyCards)
+			deck.addCard(destinyCard);
+		for (int i = 0; i < 40; i++)
+			deck.addCard(filler);
+		return deck;
+	}
+
+	static String Answer(AwaitingDecision decision, Random random) {
+		Map<String, String[]> params = decision.getDecisionParameters();
+		switch (decision.getDecisionType()) {
+			case INTEGER:
+				int min = params.get("min") != null ? Integer.parseInt(params.get("min")[0]) : 0;
+				int max = params.get("max") != null ? Integer.parseInt(params.get("max")[0]) : min + 5;
+				return String.valueOf(min + random.nextInt(Math.max(1, max - min + 1)));
+			case MULTIPLE_CHOICE:
+				return String.valueOf(random.nextInt(params.get("results").length));
+			case ACTION_CHOICE:
+				return String.valueOf(random.nextInt(params.get("actionId").length));
+			case CARD_ACTION_CHOICE:
+				int actions = params.get("actionId").length;
+				int choice = random.nextInt(actions + 1);
+				return choice < actions ? String.valueOf(choice) : "";
+			case ARBITRARY_CARDS:
+				List<String> selectable = new ArrayList<>();
+				for (int i = 0; i < params.get("cardId").length; i++) {
+					if (Boolean.parseBoolean(params.get("selectable")[i]))
+						selectable.add(params.get("cardId")[i]);
+				}
+				return ChooseCards(selectable, params, random);
+			case CARD_SELECTION:
+				return ChooseCards(new ArrayList<>(Arrays.asList(params.get("cardId"))), params, random);
+			default:
+				return "";
+		}
+	}
+
+	/**
+	 * Gets the answer that passes or chooses as little as possible.
+	 */
+	static String Pass(AwaitingDecision decision) {
+		switch (decision.getDecisionType()) {
+			case INTEGER:
+				String[] min = decision.getDecisionParameters().get("min");
+				return min != null ? min[0] : "0";
+			case MULTIPLE_CHOICE:
+			case ACTION_CHOICE:
+				return "0";
+			default:
+				return "";
+		}
+	}
+
+	/**
+	 * Takes the events sent to a player so far, serialized the way they are sent to the client.
+	 */
+	static List<Element> ConsumeEvents(GameCommunicationChannel channel) throws Exception {
+		Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		EventSerializer serializer = new EventSerializer();
+		List<Element> events = new ArrayList<>();
+		for (GameEvent event : channel.consumeGameEvents())
+			events.add((Element) serializer.serializeEvent(doc, event));
+		return events;
+	}
+
+	private static String ChooseCards(List<String> choices, Map<String, String[]> params, Random random) {
+		int min = params.get("min") != null ? Integer.parseInt(params.get("min")[0]) : 0;
+		int count = Math.min(Math.max(min, 1), choices.size());
+		List<String> chosen = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+			chosen.add(choices.remove(random.nextInt(choices.size())));
+		return String.join(",", chosen);
+	}
+}
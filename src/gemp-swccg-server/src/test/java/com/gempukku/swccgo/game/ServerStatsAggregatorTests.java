@@ -0,0 +1,145 @@
+package com.gempukku.swccgo.game;
+
+import com.gempukku.swccgo.db.GameHistoryDAO;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ServerStatsAggregatorTests {
+	private static final long DAY = 1000 * 60 * 60 * 24;
+
+	private static long Today() {
+		long now = System.currentTimeMillis();
+		return now - now % DAY;
+	}
+
+	@Test
+	public void PollingDoesNotQueryGameHistoryAgain() {
+		GameHistoryDAO gameHistoryDao = mock(GameHistoryDAO.class);
+		when(gameHistoryDao.getGamesPlayedCount()).thenReturn(100);
+		ServerStatsAggregator aggregator = new ServerStatsAggregator(gameHistoryDao, 3600);
+
+		for (int i = 0; i < 5; i++) {
+			aggregator.getStatus();
+			aggregator.getPeriodStats(0, DAY);
+		}
+
+		verify(gameHistoryDao, times(1)).getGamesPlayedCount();
+		verify(gameHistoryDao, times(1)).getCasualGamesPlayedPerFormat(0, DAY);
+		assertEquals(100, aggregator.getStatus().getGamesPlayedAllTime());
+	}
+
+	@Test
+	public void FinishedGamesAreCountedUntilRefresh() {
+		long today = Today();
+		GameHistoryDAO gameHistoryDao = mock(GameHistoryDAO.class);
+		when(gameHistoryDao.getGamesPlayedCount()).thenReturn(100);
+		when(gameHistoryDao.getGamesPlayedCount(anyLong(), anyLong())).thenReturn(10);
+		Map<String, Integer> perFormat = new HashMap<String, Integer>();
+		perFormat.put("Open", 4);
+		when(gameHistoryDao.getCasualGamesPlayedPerFormat(anyLong(), anyLong())).thenReturn(perFormat);
+		GameHistoryService gameHistoryService = new GameHistoryService(gameHistoryDao);
+		ServerStatsAggregator aggregator = new ServerStatsAggregator(gameHistoryDao, 3600);
+		gameHistoryService.setServerStatsAggregator(aggregator);
+		aggregator.getStatus();
+		aggregator.getPeriodStats(today, DAY);
+
+		long now = System.currentTimeMillis();
+		gameHistoryService.addGameHistory("a", "b", null, null, null, null, "Open", null, null, null, null, null, null, null, null, null, null, new Date(now), new Date(now));
+		gameHistoryService.addGameHistory("a", "b", null, null, null, null, "Open", "League", null, null, null, null, null, null, null, null, null, new Date(now), new Date(now));
+
+		ServerStatsAggregator.Status status = gameHistoryService.getServerStatus();
+		assertEquals(102, status.getGamesPlayedAllTime());
+		assertEquals(12, status.getGamesPlayedLastDay());
+		ServerStatsAggregator.PeriodStats periodStats = gameHistoryService.getServerStats(today, DAY);
+		assertEquals(12, periodStats.getGamesCount());
+		assertEquals(5, periodStats.getGameHistoryStatistics().getFormatStats().get(0).getCount());
+
+		aggregator.refresh();
+
+		assertEquals(100, gameHistoryService.getServerStatus().getGamesPlayedAllTime());
+		assertEquals(10, gameHistoryService.getServerStats(today, DAY).getGamesCount());
+	}
+
+	@Test
+	public void PastPeriodsAreNotRefreshed() {
+		GameHistoryDAO gameHistoryDao = mock(GameHistoryDAO.class);
+		ServerStatsAggregator aggregator = new ServerStatsAggregator(gameHistoryDao, 3600);
+		aggregator.getPeriodStats(0, DAY);
+
+		aggregator.refresh();
+
+		verify(gameHistoryDao, times(1)).getGamesPlayedCount(0, DAY);
+	}
+
+	@Test
+	public void GameFinishedBeforeTheStatisticsWereReadIsNotCountedAgain() {
+		GameHistoryDAO gameHistoryDao = mock(GameHistoryDAO.class);
+		when(gameHistoryDao.getGamesPlayedCount()).thenReturn(100);
+		when(gameHistoryDao.getGamesPlayedCount(anyLong(), anyLong())).thenReturn(10);
+		ServerStatsAggregator aggregator = new ServerStatsAggregator(gameHistoryDao, 3600);
+		long endDate = System.currentTimeMillis() - 1;
+		// The game history read includes the game, which is reported after the read
+		aggregator.getStatus();
+		aggregator.getPeriodStats(Today(), DAY);
+
+		aggregator.gameFinished(endDate, "Open", null);
+
+		assertEquals(100, aggregator.getStatus().getGamesPlayedAllTime());
+		assertEquals(10, aggregator.getPeriodStats(Today(), DAY).getGamesCount());
+	}
+
+	@Test
+	public void PeriodsThatHaveNotStartedHaveNoGamesAndAreNotRead() {
+		GameHistoryDAO gameHistoryDao = mock(GameHistoryDAO.class);
+		ServerStatsAggregator aggregator = new ServerStatsAggregator(gameHistoryDao, 3600);
+		long tomorrow = Today() + DAY;
+
+		ServerStatsAggregator.PeriodStats periodStats = aggregator.getPeriodStats(tomorrow, DAY);
+
+		assertEquals(0, periodStats.getGamesCount());
+		assertEquals(0, periodStats.getActivePlayers());
+		assertTrue(periodStats.getGameHistoryStatistics().getFormatStats().isEmpty());
+		verifyNoInteractions(gameHistoryDao);
+	}
+
+	@Test
+	public void PeriodsThatAreNotCalendarPeriodsAreKept() {
+		GameHistoryDAO gameHistoryDao = mock(GameHistoryDAO.class);
+		ServerStatsAggregator aggregator = new ServerStatsAggregator(gameHistoryDao, 3600);
+		long today = Today();
+
+		for (int i = 0; i < 3; i++) {
+			aggregator.getPeriodStats(today - 15 * DAY, 30 * DAY);
+			aggregator.getPeriodStats(today - 3 * DAY, 7 * DAY);
+		}
+
+		verify(gameHistoryDao, times(1)).getGamesPlayedCount(today - 15 * DAY, 30 * DAY);
+		verify(gameHistoryDao, times(1)).getGamesPlayedCount(today - 3 * DAY, 7 * DAY);
+	}
+
+	@Test
+	public void PeriodsNotOverAreKeptWhilePastPeriodsAreRead() {
+		GameHistoryDAO gameHistoryDao = mock(GameHistoryDAO.class);
+		ServerStatsAggregator aggregator = new ServerStatsAggregator(gameHistoryDao, 3600);
+		long today = Today();
+		aggregator.getPeriodStats(today, DAY);
+
+		for (int day = 1; day <= 200; day++)
+			aggregator.getPeriodStats(today - day * DAY, DAY);
+		aggregator.getPeriodStats(today, DAY);
+
+		verify(gameHistoryDao, times(1)).getGamesPlayedCount(today, DAY);
+		// The past periods read first were dropped from the cache, the last ones are kept
+		aggregator.getPeriodStats(today - DAY, DAY);
+		aggregator.getPeriodStats(today - 200 * DAY, DAY);
+		verify(gameHistoryDao, times(2)).getGamesPlayedCount(today - DAY, DAY);
+		verify(gameHistoryDao, times(1)).getGamesPlayedCount(today - 200 * DAY, DAY);
+	}
+}
@@ -0,0 +1,57 @@
+package com.gempukku.swccgo.game;
+
+import com.gempukku.swccgo.framework.TestBase;
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.logic.vo.SwccgDeck;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SwccgGameMediatorTests {
+	private static SwccgGameMediator CreateStartedMediator() {
+		Map<String, SwccgDeck> decks = RandomPlay.Decks();
+		SwccgGameParticipant[] participants = {
+				new SwccgGameParticipant(TestBase.DS, decks.get(TestBase.DS)),
+				new SwccgGameParticipant(TestBase.LS, decks.get(TestBase.LS))
+		};
+		SwccgGameMediator mediator = new SwccgGameMediator("cached", VirtualTableScenario._formatLibrary.getFormat(TestBase.Open), null,
+				participants, VirtualTableScenario._cardLibrary, 3600, true, false, true, true, 600, false, false, 39);
+		mediator.startGame();
+		return mediator;
+	}
+
+	@Test
+	public void CardInfoIsCachedWhileTheGameStateIsUnchanged() {
+		SwccgGameMediator mediator = CreateStartedMediator();
+		Player player = new Player(1, TestBase.DS, "", "u", null, null, null, null);
+		long hits = SwccgGameMediator.getCardInfoCacheHits();
+		long misses = SwccgGameMediator.getCardInfoCacheMisses();
+
+		String cardInfo = mediator.produceCardInfo(player, 1);
+		String cachedCardInfo = mediator.produceCardInfo(player, 1);
+
+		assertSame(cardInfo, cachedCardInfo);
+		assertEquals(misses + 1, SwccgGameMediator.getCardInfoCacheMisses());
+		assertEquals(hits + 1, SwccgGameMediator.getCardInfoCacheHits());
+	}
+
+	@Test
+	public void CardInfoIsRenderedAgainAfterTheWriteLockWasTaken() {
+		SwccgGameMediator mediator = CreateStartedMediator();
+		Player player = new Player(1, TestBase.DS, "", "u", null, null, null, null);
+		mediator.produceCardInfo(player, 1);
+		long hits = SwccgGameMediator.getCardInfoCacheHits();
+		long misses = SwccgGameMediator.getCardInfoCacheMisses();
+
+		// Takes the write lock without changing anything
+		mediator.replayDecisionLogEntries(Collections.emptyList());
+		mediator.produceCardInfo(player, 1);
+		mediator.produceCardInfo(player, 1);
+
+		assertEquals(misses + 1, SwccgGameMediator.getCardInfoCacheMisses());
+		assertEquals(hits + 1, SwccgGameMediator.getCardInfoCacheHits());
+	}
+}
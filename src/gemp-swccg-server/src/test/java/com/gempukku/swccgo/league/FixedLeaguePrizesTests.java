@@ -0,0 +1,34 @@
+package com.gempukku.swccgo.league;
+
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.CardCollection;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FixedLeaguePrizesTests {
+	private static String Prizes(long seed) {
+		FixedLeaguePrizes prizes = new FixedLeaguePrizes(VirtualTableScenario._cardLibrary, new Random(seed));
+		StringBuilder sb = new StringBuilder();
+		for (int wins = 1; wins <= 12; wins += 2) {
+			CardCollection prize = prizes.getPrizeForLeagueMatchWinner(wins, wins);
+			for (String blueprintId : prize.getAll().keySet())
+				sb.append(blueprintId).append(" ");
+		}
+		return sb.toString();
+	}
+
+	@Test
+	public void SameSeedGivesSamePrizes() {
+		assertEquals(Prizes(29), Prizes(29));
+	}
+
+	@Test
+	public void EvenWinCountGivesNoPrize() {
+		FixedLeaguePrizes prizes = new FixedLeaguePrizes(VirtualTableScenario._cardLibrary, new Random(29));
+
+		assertNull(prizes.getPrizeForLeagueMatchWinner(2, 2));
+	}
+}
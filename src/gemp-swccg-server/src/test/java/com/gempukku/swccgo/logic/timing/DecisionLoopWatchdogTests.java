@@ -0,0 +1,48 @@
+package com.gempukku.swccgo.logic.timing;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DecisionLoopWatchdogTests {
+	@After
+	public void RestoreThreshold() {
+		DecisionLoopStatistics.setSlowThresholdMillis(2000);
+	}
+
+	@Test
+	public void HungDecisionLoopIsReportedOnceFromAnotherThread() throws Exception {
+		DecisionLoopWatchdog.start(TimeUnit.HOURS.toMillis(1));
+		DecisionLoopStatistics.setSlowThresholdMillis(0);
+		DecisionLoopStatistics statistics = new DecisionLoopStatistics();
+		statistics.setGameId("hung");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread gameThread = new Thread(() -> {
+			statistics.decisionLoopStarted();
+			started.countDown();
+			try {
+				// A single step that never returns on its own
+				release.await();
+			} catch (InterruptedException exp) {
+				// Finish the loop
+			}
+			statistics.decisionLoopFinished();
+		});
+		gameThread.start();
+		started.await();
+		Thread.sleep(5);
+
+		assertEquals(1, DecisionLoopWatchdog.checkRunning());
+		assertEquals(0, DecisionLoopWatchdog.checkRunning());
+
+		release.countDown();
+		gameThread.join();
+		assertEquals(0, DecisionLoopWatchdog.checkRunning());
+		assertFalse(statistics.isDecisionLoopRunning());
+	}
+}
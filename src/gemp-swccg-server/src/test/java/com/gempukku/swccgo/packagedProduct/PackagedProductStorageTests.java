@@ -0,0 +1,71 @@
+package com.gempukku.swccgo.packagedProduct;
+
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.CardCollection;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PackagedProductStorageTests {
+
+	private static PackagedProductStorage CreateStorage() {
+		PackagedProductStorage storage = new PackagedProductStorage();
+		PackagedCardProduct product = new PremiereBoosterPack(VirtualTableScenario._cardLibrary);
+		storage.addPackagedProduct(product.getProductName(), product);
+		return storage;
+	}
+
+	private static List<String> BlueprintIds(List<CardCollection.Item> items) {
+		List<String> result = new ArrayList<>();
+		for (CardCollection.Item item : items)
+			result.add(item.getBlueprintId() + "x" + item.getCount());
+		return result;
+	}
+
+	@Test
+	public void SameSeedOpensSameContents() {
+		var storage = CreateStorage();
+
+		var first = storage.openPackagedProduct(ProductName.PREMIERE_BOOSTER_PACK, 42L);
+		var second = storage.openPackagedProduct(ProductName.PREMIERE_BOOSTER_PACK, 42L);
+
+		assertEquals(15, first.size());
+		assertEquals(BlueprintIds(first), BlueprintIds(second));
+	}
+
+	@Test
+	public void DifferentSeedsOpenDifferentContents() {
+		var storage = CreateStorage();
+
+		Set<List<String>> opened = new HashSet<>();
+		for (long seed = 0; seed < 20; seed++)
+			opened.add(BlueprintIds(storage.openPackagedProduct(ProductName.PREMIERE_BOOSTER_PACK, seed)));
+
+		assertTrue(opened.size() > 1);
+	}
+
+	@Test
+	public void BulkOpeningIsReproducible() {
+		var storage = CreateStorage();
+
+		var first = storage.openPackagedProducts(ProductName.PREMIERE_BOOSTER_PACK, 200, 7L);
+		var second = storage.openPackagedProducts(ProductName.PREMIERE_BOOSTER_PACK, 200, 7L);
+
+		assertEquals(200, first.size());
+		for (int i = 0; i < first.size(); i++)
+			assertEquals(BlueprintIds(first.get(i)), BlueprintIds(second.get(i)));
+	}
+
+	@Test
+	public void UnknownProductOpensNothing() {
+		var storage = CreateStorage();
+
+		assertNull(storage.openPackagedProduct("Unknown", 1L));
+		assertNull(storage.openPackagedProducts("Unknown", 3, 1L));
+	}
+}
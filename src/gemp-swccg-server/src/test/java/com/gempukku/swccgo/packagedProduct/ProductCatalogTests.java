@@ -0,0 +1,69 @@
+package com.gempukku.swccgo.packagedProduct;
+
+import com.gempukku.swccgo.framework.VirtualTableScenario;
+import com.gempukku.swccgo.game.CardCollection;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProductCatalogTests {
+	private static final String REFLECTIONS_CHOICE = "(S)Booster Choice -- Reflections";
+
+	private static PackagedProductStorage CreateStorage(boolean withSelection) throws IOException {
+		PackagedProductStorage storage = new PackagedProductStorage();
+		PackagedCardProduct product = new PremiereBoosterPack(VirtualTableScenario._cardLibrary);
+		storage.addPackagedProduct(product.getProductName(), product);
+		if (withSelection)
+			storage.addPackagedProduct(REFLECTIONS_CHOICE, new FixedPackBox(REFLECTIONS_CHOICE));
+		return storage;
+	}
+
+	private static void AddProduct(PackagedProductStorage storage, PackagedCardProduct product) {
+		storage.addPackagedProduct(product.getProductName(), product);
+	}
+
+	@Test
+	public void CatalogListsSelectionOptionsAndRandomProducts() throws IOException {
+		ProductCatalog catalog = new ProductCatalog(CreateStorage(true));
+
+		List<String> options = new ArrayList<>();
+		for (CardCollection.Item item : catalog.getSelectionOptions(REFLECTIONS_CHOICE))
+			options.add(item.getBlueprintId());
+		assertEquals(List.of("Reflections Booster Pack", "Reflections II Booster Pack", "Reflections III Booster Pack"), options);
+		assertTrue(catalog.getFixedContents().isEmpty());
+		assertEquals(List.of(ProductName.PREMIERE_BOOSTER_PACK), catalog.getRandomProducts());
+		assertNull(catalog.getSelectionOptions(ProductName.PREMIERE_BOOSTER_PACK));
+	}
+
+	@Test
+	public void CatalogListsContentsOfDecksAndBoxes() throws IOException {
+		PackagedProductStorage storage = CreateStorage(false);
+		PackagedCardProduct deck = new DeathStarIIDarkPreConstructedDeck(VirtualTableScenario._cardLibrary);
+		AddProduct(storage, deck);
+		PackagedCardProduct box = new PremiereBoosterBox(VirtualTableScenario._cardLibrary);
+		AddProduct(storage, box);
+
+		ProductCatalog catalog = new ProductCatalog(storage);
+
+		int deckCards = 0;
+		for (CardCollection.Item item : catalog.getFixedContents().get(deck.getProductName()))
+			deckCards += item.getCount();
+		assertEquals(60, deckCards);
+		List<CardCollection.Item> boxContents = catalog.getFixedContents().get(box.getProductName());
+		assertEquals(1, boxContents.size());
+		assertEquals(ProductName.PREMIERE_BOOSTER_PACK, boxContents.get(0).getBlueprintId());
+		assertEquals(List.of(ProductName.PREMIERE_BOOSTER_PACK), catalog.getRandomProducts());
+	}
+
+	@Test
+	public void VersionOnlyChangesWithContents() throws IOException {
+		String version = new ProductCatalog(CreateStorage(true)).getVersion();
+
+		assertEquals(version, new ProductCatalog(CreateStorage(true)).getVersion());
+		assertNotEquals(version, new ProductCatalog(CreateStorage(false)).getVersion());
+	}
+}
@@ -0,0 +1,132 @@
+package com.gempukku.swccgo.tournament;
+
+import com.gempukku.swccgo.competitive.IncrementalStandings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Plays out synthetic Swiss events with random results and reports how long pairing each round takes.
+ * Everything is driven from the seed, so a run can be repeated exactly.
+ *
+ * Usage: SwissPairingBenchmark [seed] [player counts...]
+ * With no arguments, events of 64, 128, 256, 512 and 1024 players are run with seed 1.
+ */
+public class SwissPairingBenchmark {
+    // Chance that a player drops after each round
+    private static final double DROP_CHANCE = 0.03;
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        List<Integer> playerCounts = new ArrayList<>();
+        for (int i = 1; i < args.length; i++)
+            playerCounts.add(Integer.parseInt(args[i]));
+        if (playerCounts.isEmpty())
+            Collections.addAll(playerCounts, 64, 128, 256, 512, 1024);
+
+        // Warm up so the first reported event is not dominated by class loading and JIT
+        for (int i = 0; i < 5; i++)
+            runEvent(256, seed + i);
+
+        for (int playerCount : playerCounts) {
+            List<Long> roundTimes = runEvent(playerCount, seed);
+            long total = 0;
+            long max = 0;
+            StringBuilder perRound = new StringBuilder();
+            for (long roundTime : roundTimes) {
+                total += roundTime;
+                max = Math.max(max, roundTime);
+                perRound.append(String.format(" %.3f", roundTime / 1_000_000.0));
+            }
+            System.out.println(String.format("%5d players, %2d rounds: avg %.3f ms/round, max %.3f ms/round, rounds (ms):%s",
+                    playerCount, roundTimes.size(), total / 1_000_000.0 / roundTimes.size(), max / 1_000_000.0, perRound));
+        }
+    }
+
+    /**
+     * Plays out a whole Swiss event, checking after each round that the pairings follow the rules.
+     * @param playerCount the number of players
+     * @param seed the seed for pairing shuffles, results and drops
+     * @return the time taken to pair each round, in nanoseconds, including the last round if it could not be paired
+     */
+    public static List<Long> runEvent(int playerCount, long seed) {
+        Random random = new Random(seed);
+        SwissPairingMechanism pairingMechanism = new SwissPairingMechanism("swiss", new Random(seed));
+
+        Set<String> players = new HashSet<>();
+        for (int i = 0; i < playerCount; i++)
+            players.add("player" + i);
+        Set<String> droppedPlayers = new HashSet<>();
+        Map<String, Integer> playerByes = new HashMap<>();
+        Map<String, Set<String>> previouslyPaired = new HashMap<>();
+        for (String player : players)
+            previouslyPaired.put(player, new HashSet<>());
+        IncrementalStandings standings = new IncrementalStandings(players, Collections.<TournamentMatch>emptyList(), 1, 0, playerByes);
+
+        List<Long> roundTimes = new ArrayList<>();
+        int round = 0;
+        while (!pairingMechanism.isFinished(round, players, droppedPlayers)) {
+            round++;
+            Map<String, String> pairings = new HashMap<>();
+            Set<String> byes = new HashSet<>();
+
+            long start = System.nanoTime();
+            boolean finished = pairingMechanism.pairPlayers(round, players, droppedPlayers, playerByes, standings.getStandings(),
+                    previouslyPaired, pairings, byes);
+            roundTimes.add(System.nanoTime() - start);
+            // Happens in small events that run out of players who have not played each other
+            if (finished)
+                break;
+
+            validateRound(players, droppedPlayers, playerByes, previouslyPaired, pairings, byes);
+
+            for (Map.Entry<String, String> pairing : pairings.entrySet()) {
+                String winner = random.nextBoolean() ? pairing.getKey() : pairing.getValue();
+                String loser = winner.equals(pairing.getKey()) ? pairing.getValue() : pairing.getKey();
+                previouslyPaired.get(winner).add(loser);
+                previouslyPaired.get(loser).add(winner);
+                standings.addMatchResult(winner, loser);
+            }
+            for (String bye : byes) {
+                playerByes.merge(bye, 1, Integer::sum);
+                standings.setByes(bye, playerByes.get(bye));
+            }
+            for (String player : players) {
+                if (!droppedPlayers.contains(player) && random.nextDouble() < DROP_CHANCE)
+                    droppedPlayers.add(player);
+            }
+        }
+        return roundTimes;
+    }
+
+    private static void validateRound(Set<String> players, Set<String> droppedPlayers, Map<String, Integer> playerByes,
+                                      Map<String, Set<String>> previouslyPaired, Map<String, String> pairings, Set<String> byes) {
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, String> pairing : pairings.entrySet()) {
+            String playerOne = pairing.getKey();
+            String playerTwo = pairing.getValue();
+            if (!seen.add(playerOne) || !seen.add(playerTwo))
+                throw new IllegalStateException("Player paired twice: " + playerOne + " / " + playerTwo);
+            if (previouslyPaired.get(playerOne).contains(playerTwo))
+                throw new IllegalStateException("Rematch: " + playerOne + " / " + playerTwo);
+        }
+        if (byes.size() > 1)
+            throw new IllegalStateException("More than one bye: " + byes);
+        for (String bye : byes) {
+            if (!seen.add(bye))
+                throw new IllegalStateException("Player paired and given a bye: " + bye);
+            if (playerByes.getOrDefault(bye, 0) > 0)
+                throw new IllegalStateException("Second bye for " + bye);
+        }
+        for (String player : players) {
+            if (droppedPlayers.contains(player) == seen.contains(player))
+                throw new IllegalStateException(droppedPlayers.contains(player) ? "Dropped player paired: " + player : "Player left out: " + player);
+        }
+    }
+}
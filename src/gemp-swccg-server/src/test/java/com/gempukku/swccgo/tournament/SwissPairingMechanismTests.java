@@ -0,0 +1,147 @@
+package com.gempukku.swccgo.tournament;
+
+import com.gempukku.swccgo.competitive.IncrementalStandings;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class SwissPairingMechanismTests {
+
+	@Test
+	public void FullEventsFollowPairingRules() {
+		// runEvent throws if a round has a rematch, a second bye, a dropped player or a player left out
+		for (int playerCount : new int[] { 2, 3, 7, 8, 33 }) {
+			for (long seed = 1; seed <= 5; seed++)
+				SwissPairingBenchmark.runEvent(playerCount, seed);
+		}
+		// Large events always get all their rounds paired
+		for (int playerCount : new int[] { 64, 129, 256 }) {
+			for (long seed = 1; seed <= 5; seed++)
+				assertEquals((int) Math.ceil(Math.log(playerCount) / Math.log(2)) + 1, SwissPairingBenchmark.runEvent(playerCount, seed).size());
+		}
+	}
+
+	@Test
+	public void SameSeedGivesSamePairings() {
+		assertEquals(SwissPairingBenchmark.runEvent(64, 42).size(), SwissPairingBenchmark.runEvent(64, 42).size());
+
+		Map<String, String> first = PairFirstRound(42);
+		Map<String, String> second = PairFirstRound(42);
+		assertEquals(first, second);
+	}
+
+	@Test
+	public void PlayersArePairedWithinTheirBracket() {
+		Set<String> players = new HashSet<>(Arrays.asList("a", "b", "c", "d", "e", "f"));
+		List<TournamentMatch> matches = Arrays.asList(
+				new TournamentMatch("a", "d", "a", 1),
+				new TournamentMatch("b", "e", "b", 1),
+				new TournamentMatch("c", "f", "c", 1));
+		Map<String, Set<String>> previouslyPaired = PreviouslyPaired(players, matches);
+		var standings = new IncrementalStandings(players, matches, 1, 0, Collections.<String, Integer>emptyMap());
+
+		Map<String, String> pairings = new HashMap<>();
+		Set<String> byes = new HashSet<>();
+		boolean finished = new SwissPairingMechanism("swiss", new Random(7)).pairPlayers(2, players, Collections.<String>emptySet(),
+				Collections.<String, Integer>emptyMap(), standings.getStandings(), previouslyPaired, pairings, byes);
+
+		assertFalse(finished);
+		assertTrue(byes.isEmpty());
+		// One winner has to float down and play a loser, everyone else stays in their bracket
+		int crossBracket = 0;
+		Set<String> winners = new HashSet<>(Arrays.asList("a", "b", "c"));
+		for (Map.Entry<String, String> pairing : pairings.entrySet()) {
+			if (winners.contains(pairing.getKey()) != winners.contains(pairing.getValue()))
+				crossBracket++;
+		}
+		assertEquals(1, crossBracket);
+	}
+
+	@Test
+	public void ByeGoesToLowestPlayerWithoutBye() {
+		Set<String> players = new HashSet<>(Arrays.asList("a", "b", "c"));
+		List<TournamentMatch> matches = Collections.singletonList(new TournamentMatch("a", "b", "a", 1));
+		Map<String, Integer> playerByes = new HashMap<>();
+		playerByes.put("c", 1);
+		var standings = new IncrementalStandings(players, matches, 1, 0, playerByes);
+
+		Map<String, String> pairings = new HashMap<>();
+		Set<String> byes = new HashSet<>();
+		boolean finished = new SwissPairingMechanism("swiss", new Random(7)).pairPlayers(2, players, Collections.<String>emptySet(),
+				playerByes, standings.getStandings(), PreviouslyPaired(players, matches), pairings, byes);
+
+		// b is the lowest ranked, has no bye yet, and a and c have not played
+		assertFalse(finished);
+		assertEquals(Collections.singleton("b"), byes);
+		assertEquals(1, pairings.size());
+	}
+
+	@Test
+	public void UnpairableRoundFinishesTournament() {
+		Set<String> players = new HashSet<>(Arrays.asList("a", "b"));
+		List<TournamentMatch> matches = Collections.singletonList(new TournamentMatch("a", "b", "a", 1));
+		var standings = new IncrementalStandings(players, matches, 1, 0, Collections.<String, Integer>emptyMap());
+
+		Map<String, String> pairings = new HashMap<>();
+		Set<String> byes = new HashSet<>();
+		boolean finished = new SwissPairingMechanism("swiss", new Random(7)).pairPlayers(2, players, Collections.<String>emptySet(),
+				Collections.<String, Integer>emptyMap(), standings.getStandings(), PreviouslyPaired(players, matches), pairings, byes);
+
+		assertTrue(finished);
+	}
+
+	@Test
+	public void SearchLimitPairsGreedilyInsteadOfFinishing() {
+		// Only b can be played without a rematch, so one rematch is needed, but the search gives up before finding out
+		Set<String> players = new HashSet<>(Arrays.asList("a", "b", "c", "d"));
+		List<TournamentMatch> matches = Arrays.asList(
+				new TournamentMatch("a", "c", "a", 1),
+				new TournamentMatch("a", "d", "a", 2),
+				new TournamentMatch("c", "d", "c", 3));
+		var standings = new IncrementalStandings(players, matches, 1, 0, Collections.<String, Integer>emptyMap());
+
+		Map<String, String> pairings = new HashMap<>();
+		Set<String> byes = new HashSet<>();
+		boolean finished = new SwissPairingMechanism("swiss", new Random(7), 0).pairPlayers(4, players, Collections.<String>emptySet(),
+				Collections.<String, Integer>emptyMap(), standings.getStandings(), PreviouslyPaired(players, matches), pairings, byes);
+
+		assertFalse(finished);
+		assertTrue(byes.isEmpty());
+		Set<String> paired = new HashSet<>(pairings.keySet());
+		paired.addAll(pairings.values());
+		assertEquals(players, paired);
+	}
+
+	private static Map<String, String> PairFirstRound(long seed) {
+		Set<String> players = new HashSet<>();
+		for (int i = 0; i < 64; i++)
+			players.add("player" + i);
+		var standings = new IncrementalStandings(players, Collections.<TournamentMatch>emptyList(), 1, 0, Collections.<String, Integer>emptyMap());
+
+		Map<String, String> pairings = new HashMap<>();
+		new SwissPairingMechanism("swiss", new Random(seed)).pairPlayers(1, players, Collections.<String>emptySet(),
+				Collections.<String, Integer>emptyMap(), standings.getStandings(), PreviouslyPaired(players, Collections.<TournamentMatch>emptyList()),
+				pairings, new HashSet<>());
+		return pairings;
+	}
+
+	private static Map<String, Set<String>> PreviouslyPaired(Set<String> players, List<TournamentMatch> matches) {
+		Map<String, Set<String>> previouslyPaired = new HashMap<>();
+		for (String player : players)
+			previouslyPaired.put(player, new HashSet<>());
+		for (TournamentMatch match : matches) {
+			previouslyPaired.get(match.getWinner()).add(match.getLoser());
+			previouslyPaired.get(match.getLoser()).add(match.getWinner());
+		}
+		return previouslyPaired;
+	}
+}
@@ -0,0 +1,126 @@
+package com.gempukku.swccgo.trade;
+
+import com.gempukku.swccgo.chat.ChatServer;
+import com.gempukku.swccgo.collection.CollectionsManager;
+import com.gempukku.swccgo.collection.TransferDAO;
+import com.gempukku.swccgo.db.CollectionDAO;
+import com.gempukku.swccgo.db.PlayerDAO;
+import com.gempukku.swccgo.game.CardCollection;
+import com.gempukku.swccgo.game.DefaultCardCollection;
+import com.gempukku.swccgo.game.Player;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class TradeServerTests {
+	private final Player _first = new Player(1, "first", "", "u", null, null, null, null);
+	private final Player _second = new Player(2, "second", "", "u", null, null, null, null);
+	private final Player _third = new Player(3, "third", "", "u", null, null, null, null);
+
+	private CollectionDAO _collectionDao;
+	private TradeServer _tradeServer;
+
+	@Before
+	public void setUp() throws Exception {
+		PlayerDAO playerDao = mock(PlayerDAO.class);
+		when(playerDao.getPlayer("first")).thenReturn(_first);
+		when(playerDao.getPlayer("second")).thenReturn(_second);
+
+		DefaultCardCollection firstCollection = new DefaultCardCollection();
+		firstCollection.addItem("1_1", 2);
+		DefaultCardCollection secondCollection = new DefaultCardCollection();
+		secondCollection.addItem("2_2", 1);
+		_collectionDao = mock(CollectionDAO.class);
+		when(_collectionDao.getPlayerCollection(1, "permanent")).thenReturn(firstCollection);
+		when(_collectionDao.getPlayerCollection(2, "permanent")).thenReturn(secondCollection);
+
+		CollectionsManager collectionsManager = new CollectionsManager(playerDao, _collectionDao, mock(TransferDAO.class),
+				Collections.<String>emptyList(), Collections.<String>emptyList());
+		_tradeServer = new TradeServer(new ChatServer(), collectionsManager);
+	}
+
+	private List<String> IncomingRequests(Player player) {
+		List<String> result = new ArrayList<>();
+		_tradeServer.processTradeVisitor(player, new TradesVisitor() {
+			@Override
+			public void processPendingTradeRequestSent(String playerTo) {
+			}
+
+			@Override
+			public void processPendingTradeRequestIncoming(String playerFrom) {
+				result.add(playerFrom);
+			}
+
+			@Override
+			public void processOngoingTrade(TradeState tradeState, String chatRoomName) {
+			}
+		});
+		return result;
+	}
+
+	@Test
+	public void AcceptedRequestStartsTradeForBothPlayers() {
+		_tradeServer.sendTradeRequest(_first, "second");
+		_tradeServer.sendTradeRequest(_third, "second");
+		assertEquals(List.of("first", "third"), IncomingRequests(_second));
+
+		_tradeServer.acceptTradeRequest(_second, "first");
+
+		TradeState tradeState = _tradeServer.getOngoingTrade(_first);
+		assertNotNull(tradeState);
+		assertSame(tradeState, _tradeServer.getOngoingTrade(_second));
+		assertEquals(List.of("third"), IncomingRequests(_second));
+
+		// A player in a trade cannot join another one
+		_tradeServer.acceptTradeRequest(_second, "third");
+		assertSame(tradeState, _tradeServer.getOngoingTrade(_second));
+		assertNull(_tradeServer.getOngoingTrade(_third));
+	}
+
+	@Test
+	public void CleanupKeepsRequestsAndTradesBeforeTheirDeadlines() {
+		_tradeServer.sendTradeRequest(_first, "second");
+		_tradeServer.sendTradeRequest(_third, "second");
+		_tradeServer.acceptTradeRequest(_second, "third");
+
+		_tradeServer.cleanup();
+
+		assertEquals(List.of("first"), IncomingRequests(_second));
+		assertNotNull(_tradeServer.getOngoingTrade(_third));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void ConfirmedTradeStoresBothCollectionsTogether() throws Exception {
+		_tradeServer.sendTradeRequest(_first, "second");
+		_tradeServer.acceptTradeRequest(_second, "first");
+		TradeState tradeState = _tradeServer.getOngoingTrade(_first);
+		tradeState.addItemsOffered("first", "1_1", 1);
+		tradeState.addItemsOffered("second", "2_2", 1);
+		tradeState.playerAgreed("first");
+		tradeState.playerAgreed("second");
+
+		_tradeServer.confirmTrade(_first, 1);
+		verify(_collectionDao, never()).setPlayerCollections(any(), any());
+		_tradeServer.confirmTrade(_second, 1);
+
+		ArgumentCaptor<Map<Integer, CardCollection>> collections = ArgumentCaptor.forClass(Map.class);
+		verify(_collectionDao).setPlayerCollections(eq("permanent"), collections.capture());
+		assertEquals(1, collections.getValue().get(1).getItemCount("1_1"));
+		assertEquals(1, collections.getValue().get(1).getItemCount("2_2"));
+		assertEquals(1, collections.getValue().get(2).getItemCount("1_1"));
+		assertEquals(0, collections.getValue().get(2).getItemCount("2_2"));
+		assertNull(_tradeServer.getOngoingTrade(_first));
+		assertNull(_tradeServer.getOngoingTrade(_second));
+	}
+}
@@ -0,0 +1,96 @@
+package com.gempukku.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentHistogramTests {
+	@Test
+	public void EmptyHistogramHasNoValues() {
+		ConcurrentHistogram histogram = new ConcurrentHistogram();
+
+		assertEquals(0, histogram.getTotalCount());
+		assertEquals(0, histogram.getMaxValue());
+		assertEquals(0, histogram.getMean(), 0);
+		assertEquals(0, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void SmallValuesAreExact() {
+		ConcurrentHistogram histogram = new ConcurrentHistogram();
+		for (int i = 1; i <= 40; i++)
+			histogram.record(i);
+
+		assertEquals(40, histogram.getTotalCount());
+		assertEquals(820, histogram.getTotalValue());
+		assertEquals(40, histogram.getMaxValue());
+		assertEquals(20.5, histogram.getMean(), 0.0001);
+		assertEquals(20, histogram.getValueAtPercentile(50));
+		assertEquals(36, histogram.getValueAtPercentile(90));
+		assertEquals(40, histogram.getValueAtPercentile(100));
+		assertEquals(1, histogram.getValueAtPercentile(0));
+	}
+
+	@Test
+	public void NegativeValuesAreRecordedAsZero() {
+		ConcurrentHistogram histogram = new ConcurrentHistogram();
+		histogram.record(-5);
+
+		assertEquals(1, histogram.getTotalCount());
+		assertEquals(0, histogram.getTotalValue());
+		assertEquals(0, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void LargeValuesAreWithinPrecision() {
+		ConcurrentHistogram histogram = new ConcurrentHistogram();
+		for (long value = 1000; value <= 1_000_000_000L; value *= 10)
+			histogram.record(value);
+
+		long[] values = histogram.getValuesAtPercentiles(1, 50, 99);
+		assertEquals(1000, values[0], 1000 * 0.035);
+		assertEquals(1_000_000, values[1], 1_000_000 * 0.035);
+		assertEquals(1_000_000_000L, values[2]);
+		assertTrue(values[1] >= 1_000_000);
+	}
+
+	@Test
+	public void AddedHistogramValuesAreCombined() {
+		ConcurrentHistogram first = new ConcurrentHistogram();
+		ConcurrentHistogram second = new ConcurrentHistogram();
+		first.record(10);
+		first.record(20);
+		second.record(30);
+
+		first.add(second);
+
+		assertEquals(3, first.getTotalCount());
+		assertEquals(60, first.getTotalValue());
+		assertEquals(30, first.getMaxValue());
+		assertEquals(30, first.getValueAtPercentile(100));
+		assertEquals(1, second.getTotalCount());
+	}
+
+	@Test
+	public void ValuesRecordedFromManyThreadsAreAllCounted() throws Exception {
+		ConcurrentHistogram histogram = new ConcurrentHistogram();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 10000; i++)
+					histogram.record(i % 100);
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(40000, histogram.getTotalCount());
+		assertEquals(4 * 100 * 4950, histogram.getTotalValue());
+		assertEquals(99, histogram.getMaxValue());
+	}
+}